@@ -30,6 +30,7 @@ public class ArrayFileBench {
   public static void main(String[] args) {
     benchEndian();
     benchStream();
+    benchBulk();
   }
 
   ///////////////////////////////////////////////////////////////////////////
@@ -90,6 +91,58 @@ public class ArrayFileBench {
     System.out.println(" ArrayInputStream: sum="+s+" nr="+nr+" rate="+rate);
   }
 
+  private static void benchBulk() {
+    ByteOrder[] orders = {ByteOrder.BIG_ENDIAN,ByteOrder.LITTLE_ENDIAN};
+    int[] sizes = {4096,1<<20,1<<24};
+    boolean[] prefetches = {false,true};
+    for (ByteOrder order:orders) {
+      for (int size:sizes) {
+        for (boolean prefetch:prefetches) {
+          System.out.println("order="+order+" size="+size+
+                             " prefetch="+prefetch);
+          benchBulk(order,size,prefetch);
+        }
+      }
+    }
+  }
+
+  private static void benchBulk(ByteOrder order, int size, boolean prefetch) {
+    int n1 = 1001, n2 = 502, n3 = 203; // ~400 MB, odd to span buffers
+    float[][][] a = randfloat(n1,n2,n3);
+    float[][][] b = zerofloat(n1,n2,n3);
+    double gbytes = 4.0e-9*n1*n2*n3;
+    try {
+      File file = File.createTempFile("junk","dat");
+      file.deleteOnExit();
+      ArrayFile af = new ArrayFile(file,"rw",order,order,size);
+      af.setPrefetch(prefetch);
+      Stopwatch sw = new Stopwatch();
+      int nw,nr;
+      sw.start();
+      for (nw=0; sw.time()<5.0; ++nw) {
+        af.seek(0);
+        af.writeFloats(a);
+      }
+      sw.stop();
+      double wrate = gbytes*nw/sw.time();
+      sw.restart();
+      for (nr=0; sw.time()<5.0; ++nr) {
+        af.seek(0);
+        af.readFloats(b);
+      }
+      sw.stop();
+      double rrate = gbytes*nr/sw.time();
+      af.close();
+      file.delete();
+      if (!equal(a,b))
+        throw new RuntimeException(" bulk: i/o failure");
+      System.out.println(" write: rate="+wrate+" GB/s");
+      System.out.println("  read: rate="+rrate+" GB/s");
+    } catch (IOException ioe) {
+      throw new RuntimeException(ioe);
+    }
+  }
+
   private static void benchEndian() {
     benchBigEndian();
     benchLittleEndian();
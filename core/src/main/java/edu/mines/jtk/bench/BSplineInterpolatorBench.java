@@ -0,0 +1,137 @@
+/****************************************************************************
+Copyright 2026, Colorado School of Mines and others.
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+****************************************************************************/
+package edu.mines.jtk.bench;
+
+import java.util.Random;
+
+import edu.mines.jtk.dsp.BSplineInterpolator;
+import edu.mines.jtk.dsp.Sampling;
+import edu.mines.jtk.dsp.SincInterpolator;
+import edu.mines.jtk.util.Stopwatch;
+import static edu.mines.jtk.util.ArrayMath.*;
+
+/**
+ * Benchmark B-spline and sinc interpolation for upsampling of traces.
+ * For each maximum frequency fmax and upsampling factor, measures the
+ * maximum error and the rate (millions of interpolated values per second)
+ * of cubic and quintic B-spline interpolators, and of sinc interpolators
+ * designed for the same maximum error and frequency. Errors are measured
+ * for sums of cosines with random frequencies not greater than fmax.
+ * @author agent
+ * @version 2026.10.18
+ */
+public class BSplineInterpolatorBench {
+  public static void main(String[] args) {
+    double[] fmaxs = {0.1,0.2,0.3};
+    int[] factors = {4,10};
+    int[] degrees = {3,5};
+    for (double fmax:fmaxs) {
+      Signal signal = new Signal(fmax);
+      for (int factor:factors) {
+        Sampling si = new Sampling(N1*factor,1.0/factor,0.0);
+        for (int degree:degrees) {
+          BSplineInterpolator bsi = new BSplineInterpolator(degree);
+          double ebsi = error(bsi,signal,si);
+          double rbsi = rate(bsi,signal,si);
+          SincInterpolator ssi =
+            SincInterpolator.fromErrorAndFrequency(ebsi,fmax);
+          double essi = error(ssi,signal,si);
+          double rssi = rate(ssi,signal,si);
+          System.out.printf(
+            "fmax=%.1f factor=%2d degree=%d: error=%.5f rate=%6.1f"+
+            "  sinc lmax=%2d: error=%.5f rate=%6.1f\n",
+            fmax,factor,degree,ebsi,rbsi,
+            ssi.getMaximumLength(),essi,rssi);
+        }
+      }
+    }
+  }
+
+  ///////////////////////////////////////////////////////////////////////////
+  // private
+
+  private static final int N1 = 1000; // samples per trace
+  private static final int N2 = 100; // number of traces
+  private static final int NCOS = 10; // number of cosines per trace
+  private static final Sampling S1 = new Sampling(N1,1.0,0.0);
+
+  // Traces that are sums of cosines with random frequencies and phases.
+  private static class Signal {
+    Signal(double fmax) {
+      Random r = new Random(314159);
+      f = new double[N2][NCOS];
+      p = new double[N2][NCOS];
+      y = new float[N2][N1];
+      for (int i2=0; i2<N2; ++i2) {
+        for (int ic=0; ic<NCOS; ++ic) {
+          f[i2][ic] = fmax*r.nextDouble();
+          p[i2][ic] = 2.0*PI*r.nextDouble();
+        }
+        for (int i1=0; i1<N1; ++i1)
+          y[i2][i1] = value(i2,i1);
+      }
+    }
+    float value(int i2, double x) {
+      double v = 0.0;
+      for (int ic=0; ic<NCOS; ++ic)
+        v += cos(2.0*PI*f[i2][ic]*x+p[i2][ic]);
+      return (float)(v/NCOS);
+    }
+    double[][] f,p;
+    float[][] y;
+  }
+
+  // Maximum error, ignoring values near the ends of traces.
+  private static double error(Object interp, Signal signal, Sampling si) {
+    int ni = si.getCount();
+    float[][] yi = new float[N2][ni];
+    interpolate(interp,signal,si,yi);
+    double emax = 0.0;
+    for (int i2=0; i2<N2; ++i2) {
+      for (int ii=ni/10; ii<ni-ni/10; ++ii) {
+        double ye = signal.value(i2,si.getValue(ii));
+        emax = max(emax,abs(ye-yi[i2][ii]));
+      }
+    }
+    return emax;
+  }
+
+  private static double rate(Object interp, Signal signal, Sampling si) {
+    double maxtime = 1.0;
+    int ni = si.getCount();
+    float[][] yi = new float[N2][ni];
+    double rate = 0.0;
+    Stopwatch sw = new Stopwatch();
+    for (int ntrial=0; ntrial<3; ++ntrial) {
+      int n;
+      sw.restart();
+      for (n=0; sw.time()<maxtime; ++n)
+        interpolate(interp,signal,si,yi);
+      sw.stop();
+      rate = max(rate,1.0e-6*n*ni*N2/sw.time());
+    }
+    return rate;
+  }
+
+  private static void interpolate(
+    Object interp, Signal signal, Sampling si, float[][] yi)
+  {
+    if (interp instanceof BSplineInterpolator) {
+      ((BSplineInterpolator)interp).interpolate1(S1,signal.y,si,yi);
+    } else {
+      ((SincInterpolator)interp).interpolate1(S1,signal.y,si,yi);
+    }
+  }
+}
@@ -0,0 +1,88 @@
+/****************************************************************************
+Copyright 2026, Colorado School of Mines and others.
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+****************************************************************************/
+package edu.mines.jtk.bench;
+
+import java.util.Random;
+
+import edu.mines.jtk.mesh.TetMesh;
+import edu.mines.jtk.mesh.TriMesh;
+import edu.mines.jtk.util.Stopwatch;
+
+/**
+ * Benchmark construction of Delaunay meshes from random points.
+ * Rates are thousands of nodes added per second, for nodes added one
+ * at a time in random order and for nodes added in bulk. The first
+ * argument is "tri" (the default) or "tet"; the optional second argument
+ * is the maximum number of nodes, which by default is 10^7. Meshes with
+ * millions of nodes require a large maximum heap size.
+ * @author agent
+ * @version 2026.10.18
+ */
+public class DelaunayBench {
+  public static void main(String[] args) {
+    boolean tet = args.length>0 && args[0].equals("tet");
+    int nmax = (args.length>1)?Integer.parseInt(args[1]):10000000;
+    for (int n=100000; n<=nmax; n*=10) {
+      double rateSingle = (tet)?rateTet(n,false):rateTri(n,false);
+      double rateBulk = (tet)?rateTet(n,true):rateTri(n,true);
+      System.out.printf(
+        "%s n=%d single=%.1f bulk=%.1f speedup=%.2f\n",
+        (tet)?"tet":"tri",n,rateSingle,rateBulk,rateBulk/rateSingle);
+    }
+  }
+
+  ///////////////////////////////////////////////////////////////////////////
+  // private
+
+  private static double rateTri(int n, boolean bulk) {
+    Random random = new Random(n);
+    TriMesh.Node[] nodes = new TriMesh.Node[n];
+    for (int i=0; i<n; ++i)
+      nodes[i] = new TriMesh.Node(random.nextFloat(),random.nextFloat());
+    Stopwatch sw = new Stopwatch();
+    sw.start();
+    TriMesh mesh = new TriMesh();
+    if (bulk) {
+      mesh.addNodes(nodes);
+    } else {
+      for (int i=0; i<n; ++i)
+        mesh.addNode(nodes[i]);
+    }
+    sw.stop();
+    return 1.0e-3*mesh.countNodes()/sw.time();
+  }
+
+  private static double rateTet(int n, boolean bulk) {
+    Random random = new Random(n);
+    TetMesh.Node[] nodes = new TetMesh.Node[n];
+    for (int i=0; i<n; ++i) {
+      float x = random.nextFloat();
+      float y = random.nextFloat();
+      float z = random.nextFloat();
+      nodes[i] = new TetMesh.Node(x,y,z);
+    }
+    Stopwatch sw = new Stopwatch();
+    sw.start();
+    TetMesh mesh = new TetMesh();
+    if (bulk) {
+      mesh.addNodes(nodes);
+    } else {
+      for (int i=0; i<n; ++i)
+        mesh.addNode(nodes[i]);
+    }
+    sw.stop();
+    return 1.0e-3*mesh.countNodes()/sw.time();
+  }
+}
@@ -0,0 +1,72 @@
+/****************************************************************************
+Copyright 2026, Colorado School of Mines and others.
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+****************************************************************************/
+package edu.mines.jtk.bench;
+
+import edu.mines.jtk.dsp.DynamicWarping;
+import static edu.mines.jtk.util.ArrayMath.randfloat;
+import edu.mines.jtk.util.Stopwatch;
+
+/**
+ * Benchmark accumulation of alignment errors in dynamic warping.
+ * Rates are millions of errors (samples times lags) accumulated per
+ * second, with scalar and with vector (SIMD) instructions.
+ * @author agent
+ * @version 2026.10.18
+ */
+public class DynamicWarpingBench {
+  public static void main(String[] args) {
+    if (!DynamicWarping.isVectorAvailable())
+      System.out.println("vector instructions not available; build with "+
+        "-PvectorJdk and use --add-modules jdk.incubator.vector");
+    int[] nls = {100,250,500};
+    int[] n1s = {1000,5000};
+    double[] strains = {1.0,0.25};
+    for (int nl:nls) {
+      for (int n1:n1s) {
+        for (double strain:strains) {
+          DynamicWarping.setVectorized(false);
+          double rateScalar = rate(nl,n1,strain);
+          DynamicWarping.setVectorized(true);
+          double rateVector = rate(nl,n1,strain);
+          System.out.printf(
+            "nl=%d n1=%d strain=%.2f scalar=%.1f vector=%.1f speedup=%.2f\n",
+            nl,n1,strain,rateScalar,rateVector,rateVector/rateScalar);
+        }
+      }
+    }
+  }
+
+  ///////////////////////////////////////////////////////////////////////////
+  // private
+
+  private static double rate(int nl, int n1, double strain) {
+    double maxtime = 2.0;
+    DynamicWarping dw = new DynamicWarping(-nl/2,-nl/2+nl-1);
+    dw.setStrainMax(strain);
+    float[][] e = randfloat(nl,n1);
+    float[][] d = new float[n1][nl];
+    double rate = 0.0;
+    Stopwatch sw = new Stopwatch();
+    for (int ntrial=0; ntrial<3; ++ntrial) {
+      int n;
+      sw.restart();
+      for (n=0; sw.time()<maxtime; ++n)
+        dw.accumulateForward(e,d);
+      sw.stop();
+      rate = Math.max(rate,1.0e-6*n*nl*n1/sw.time());
+    }
+    return rate;
+  }
+}
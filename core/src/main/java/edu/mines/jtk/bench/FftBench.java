@@ -14,9 +14,15 @@ limitations under the License.
 ****************************************************************************/
 package edu.mines.jtk.bench;
 
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
 import edu.mines.jtk.dsp.FftComplex;
+import edu.mines.jtk.dsp.FftReal;
 import static edu.mines.jtk.util.ArrayMath.crandfloat;
+import static edu.mines.jtk.util.ArrayMath.randfloat;
 import edu.mines.jtk.util.Stopwatch;
+import edu.mines.jtk.util.Threads;
 
 /**
  * Benchmark FFTs.
@@ -25,6 +31,15 @@ import edu.mines.jtk.util.Stopwatch;
  */
 public class FftBench {
   public static void main(String[] args) {
+    benchVector();
+    benchParallel();
+    bench1();
+  }
+
+  ///////////////////////////////////////////////////////////////////////////
+  // private
+
+  private static void bench1() {
     for (int niter=0; niter<5; ++niter) {
       for (int nfft=1; nfft<=720720;) {
         int nfftSmall = FftComplex.nfftSmall(nfft);
@@ -44,6 +59,110 @@ public class FftBench {
     }
   }
 
+  // Reports times for 2-D and 3-D transforms computed with scalar and
+  // with vector (SIMD) instructions, if the latter are available.
+  private static void benchVector() {
+    if (!FftComplex.isVectorAvailable()) {
+      System.out.println("vector instructions not available; build with "+
+        "-PvectorJdk and use --add-modules jdk.incubator.vector");
+      return;
+    }
+    int[][] sizes = {{500,500},{1000,1000},{4000,4000},{200,200,200}};
+    for (int[] size:sizes) {
+      FftComplex.setVectorized(false);
+      double timeScalar = time(size);
+      FftComplex.setVectorized(true);
+      double timeVector = time(size);
+      System.out.printf("size=%s scalar=%.4f vector=%.4f speedup=%.2f\n",
+        toString(size),timeScalar,timeVector,timeScalar/timeVector);
+    }
+  }
+
+  // Reports times for 2-D and 3-D transforms for increasing numbers 
+  // of threads. Parallel loops use the pool in which they are invoked.
+  private static void benchParallel() {
+    int nc = Threads.getAvailableProcessors();
+    int[][] sizes = {{1000,1000},{4000,4000},{200,200,200},{400,400,400}};
+    for (int[] size:sizes) {
+      double time1 = 0.0;
+      for (int nthread=1; nthread<=nc; nthread*=2) {
+        double time = timeParallel(nthread,size);
+        if (nthread==1)
+          time1 = time;
+        System.out.printf("size=%s nthread=%d time=%.4f speedup=%.2f\n",
+          toString(size),nthread,time,time1/time);
+      }
+    }
+  }
+
+  private static double timeParallel(int nthread, final int[] size) {
+    ForkJoinPool pool = new ForkJoinPool(nthread);
+    double time = pool.invoke(new RecursiveTask<Double>() {
+      protected Double compute() {
+        return FftBench.time(size);
+      }
+    });
+    pool.shutdown();
+    return time;
+  }
+
+  private static double time(int[] size) {
+    return (size.length==2)?time2(size[0],size[1]):
+                            time3(size[0],size[1],size[2]);
+  }
+
+  // Time for forward and inverse real-complex 2-D transforms.
+  private static double time2(int n1, int n2) {
+    double maxtime = 2.0;
+    int nfft1 = FftReal.nfftSmall(n1);
+    int nfft2 = FftComplex.nfftSmall(n2);
+    FftReal fft1 = new FftReal(nfft1);
+    FftComplex fft2 = new FftComplex(nfft2);
+    float[][] x = randfloat(nfft1+2,nfft2);
+    int count;
+    Stopwatch sw = new Stopwatch();
+    sw.start();
+    for (count=0; sw.time()<maxtime; ++count) {
+      fft1.realToComplex1(-1,nfft2,x,x);
+      fft2.complexToComplex2(-1,nfft1/2+1,x,x);
+      fft2.complexToComplex2( 1,nfft1/2+1,x,x);
+      fft1.complexToReal1( 1,nfft2,x,x);
+    }
+    sw.stop();
+    return sw.time()/count;
+  }
+
+  // Time for forward and inverse complex 3-D transforms.
+  private static double time3(int n1, int n2, int n3) {
+    double maxtime = 2.0;
+    int nfft1 = FftComplex.nfftSmall(n1);
+    int nfft2 = FftComplex.nfftSmall(n2);
+    int nfft3 = FftComplex.nfftSmall(n3);
+    FftComplex fft1 = new FftComplex(nfft1);
+    FftComplex fft2 = new FftComplex(nfft2);
+    FftComplex fft3 = new FftComplex(nfft3);
+    float[][][] x = crandfloat(nfft1,nfft2,nfft3);
+    int count;
+    Stopwatch sw = new Stopwatch();
+    sw.start();
+    for (count=0; sw.time()<maxtime; ++count) {
+      for (int sign=-1; sign<=1; sign+=2) {
+        fft1.complexToComplex1(sign,nfft2,nfft3,x,x);
+        fft2.complexToComplex2(sign,nfft1,nfft3,x,x);
+        fft3.complexToComplex3(sign,nfft1,nfft2,x,x);
+      }
+    }
+    sw.stop();
+    return sw.time()/count;
+  }
+
+  private static String toString(int[] size) {
+    String s = ""+size[0];
+    for (int i=1; i<size.length; ++i)
+      s += "x"+size[i];
+    return s;
+  }
+
   private static double time(int nfft) {
     double maxtime = 2.0;
     FftComplex fft = new FftComplex(nfft);
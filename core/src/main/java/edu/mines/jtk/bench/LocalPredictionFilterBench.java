@@ -0,0 +1,141 @@
+/****************************************************************************
+Copyright 2026, Colorado School of Mines and others.
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+****************************************************************************/
+package edu.mines.jtk.bench;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+import edu.mines.jtk.dsp.LocalPredictionFilter;
+import static edu.mines.jtk.util.ArrayMath.*;
+import edu.mines.jtk.util.Stopwatch;
+import edu.mines.jtk.util.Threads;
+
+/**
+ * Benchmark local prediction-error filters. Rates are millions of samples
+ * filtered per second, for 2-D and 3-D arrays, for Cholesky and conjugate-
+ * gradient solvers, and for increasing numbers of threads. Parallel loops
+ * use the pool in which they are invoked. Inputs are sums of plane waves
+ * and noise, for which prediction filters vary little with position.
+ * @author agent
+ * @version 2026.10.18
+ */
+public class LocalPredictionFilterBench {
+  public static void main(String[] args) {
+    int nc = Threads.getAvailableProcessors();
+    int[][] sizes = {{500,500},{100,100,100}};
+    for (int[] size:sizes) {
+      for (LocalPredictionFilter.Solver solver:
+           LocalPredictionFilter.Solver.values()) {
+        double rate1 = 0.0;
+        for (int nthread=1; nthread<=nc; nthread*=2) {
+          double rate = rate(nthread,solver,size);
+          if (nthread==1)
+            rate1 = rate;
+          System.out.printf(
+            "size=%s solver=%s nthread=%d rate=%.3f speedup=%.2f\n",
+            toString(size),solver,nthread,rate,rate/rate1);
+        }
+      }
+    }
+  }
+
+  ///////////////////////////////////////////////////////////////////////////
+  // private
+
+  private static final double SIGMA = 8.0;
+  private static final int[] LAG1_2 = {1,2,-2,-1,0,1,2};
+  private static final int[] LAG2_2 = {0,0,1,1,1,1,1};
+  private static final int[] LAG1_3 = {1,2,-1,0,1,-1,0,1};
+  private static final int[] LAG2_3 = {0,0,1,1,1,0,0,0};
+  private static final int[] LAG3_3 = {0,0,0,0,0,1,1,1};
+
+  private static double rate(
+    int nthread, final LocalPredictionFilter.Solver solver, final int[] size)
+  {
+    ForkJoinPool pool = new ForkJoinPool(nthread);
+    double rate = pool.invoke(new RecursiveTask<Double>() {
+      protected Double compute() {
+        return (size.length==2) ?
+          rate2(solver,size[0],size[1]) :
+          rate3(solver,size[0],size[1],size[2]);
+      }
+    });
+    pool.shutdown();
+    return rate;
+  }
+
+  private static double rate2(
+    LocalPredictionFilter.Solver solver, int n1, int n2)
+  {
+    double maxtime = 2.0;
+    LocalPredictionFilter lpf = new LocalPredictionFilter(SIGMA);
+    lpf.setSolver(solver);
+    float[][] f = planeWaves(n1,n2,0);
+    float[][] g = new float[n2][n1];
+    double rate = 0.0;
+    Stopwatch sw = new Stopwatch();
+    for (int ntrial=0; ntrial<3; ++ntrial) {
+      int count;
+      sw.restart();
+      for (count=0; sw.time()<maxtime; ++count)
+        lpf.applyPef(LAG1_2,LAG2_2,f,g);
+      sw.stop();
+      rate = max(rate,1.0e-6*count*n1*n2/sw.time());
+    }
+    return rate;
+  }
+
+  private static double rate3(
+    LocalPredictionFilter.Solver solver, int n1, int n2, int n3)
+  {
+    double maxtime = 2.0;
+    LocalPredictionFilter lpf = new LocalPredictionFilter(SIGMA);
+    lpf.setSolver(solver);
+    float[][][] f = new float[n3][][];
+    for (int i3=0; i3<n3; ++i3)
+      f[i3] = planeWaves(n1,n2,i3);
+    float[][][] g = new float[n3][n2][n1];
+    double rate = 0.0;
+    Stopwatch sw = new Stopwatch();
+    for (int ntrial=0; ntrial<3; ++ntrial) {
+      int count;
+      sw.restart();
+      for (count=0; sw.time()<maxtime; ++count)
+        lpf.applyPef(LAG1_3,LAG2_3,LAG3_3,f,g);
+      sw.stop();
+      rate = max(rate,1.0e-6*count*n1*n2*n3/sw.time());
+    }
+    return rate;
+  }
+
+  // One slice i3 of a sum of plane waves plus random noise.
+  private static float[][] planeWaves(int n1, int n2, int i3) {
+    float[][] f = mul(0.1f,sub(randfloat(n1,n2),0.5f));
+    for (int i2=0; i2<n2; ++i2) {
+      for (int i1=0; i1<n1; ++i1) {
+        f[i2][i1] += sin(0.3f*i1+0.2f*i2+0.1f*i3)+
+                     cos(0.1f*i1-0.4f*i2+0.2f*i3);
+      }
+    }
+    return f;
+  }
+
+  private static String toString(int[] size) {
+    String s = ""+size[0];
+    for (int i=1; i<size.length; ++i)
+      s += "x"+size[i];
+    return s;
+  }
+}
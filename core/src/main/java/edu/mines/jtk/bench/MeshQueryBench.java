@@ -0,0 +1,168 @@
+/****************************************************************************
+Copyright 2026, Colorado School of Mines and others.
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+****************************************************************************/
+package edu.mines.jtk.bench;
+
+import java.util.Random;
+
+import edu.mines.jtk.mesh.TetMesh;
+import edu.mines.jtk.mesh.TriMesh;
+import edu.mines.jtk.util.Stopwatch;
+
+/**
+ * Benchmark concurrent queries of Delaunay meshes. Rates are thousands
+ * of queries per second, where each query locates a point and finds the
+ * node nearest to that point. Queries are made with the synchronized
+ * methods of a mesh and with one mesh reader per thread, for numbers of
+ * threads that increase up to the number of available processors.
+ * Query points are either random or in grid (raster) order, for which
+ * consecutive points in each thread are near each other.
+ * <p>
+ * The first argument is "tri" (the default) or "tet"; the optional second
+ * argument is the number of nodes, which by default is 10^6 for tri meshes
+ * and 10^5 for tet meshes.
+ * @author agent
+ * @version 2026.10.18
+ */
+public class MeshQueryBench {
+  public static void main(String[] args) {
+    boolean tet = args.length>0 && args[0].equals("tet");
+    int nnode = (args.length>1)?Integer.parseInt(args[1]):tet?100000:1000000;
+    Query query = (tet)?new TetQuery(nnode):new TriQuery(nnode);
+    int nthread = Runtime.getRuntime().availableProcessors();
+    for (int grid=0; grid<2; ++grid) {
+      query.makePoints(grid==1);
+      for (int mthread=1; mthread<=nthread; mthread*=2) {
+        double rateSync = rate(query,mthread,false);
+        double rateReader = rate(query,mthread,true);
+        System.out.printf(
+          "%s %s nthread=%d sync=%.1f reader=%.1f speedup=%.2f\n",
+          (tet)?"tet":"tri",(grid==1)?"grid":"random",mthread,
+          rateSync,rateReader,rateReader/rateSync);
+      }
+    }
+  }
+
+  ///////////////////////////////////////////////////////////////////////////
+  // private
+
+  private static final int NPOINT = 1000000;
+
+  // Queries for points with indices in [j,k), in one thread.
+  private static abstract class Query {
+    abstract void makePoints(boolean grid);
+    abstract void query(int j, int k, boolean reader);
+  }
+
+  private static class TriQuery extends Query {
+    TriQuery(int nnode) {
+      Random random = new Random(nnode);
+      TriMesh.Node[] nodes = new TriMesh.Node[nnode];
+      for (int i=0; i<nnode; ++i)
+        nodes[i] = new TriMesh.Node(random.nextFloat(),random.nextFloat());
+      _mesh = new TriMesh();
+      _mesh.addNodes(nodes);
+    }
+    void makePoints(boolean grid) {
+      Random random = new Random(1);
+      int n = (int)Math.sqrt(NPOINT);
+      for (int i=0; i<NPOINT; ++i) {
+        _x[i] = (grid)?(float)(i%n)/n:random.nextFloat();
+        _y[i] = (grid)?(float)(i/n)/n:random.nextFloat();
+      }
+    }
+    void query(int j, int k, boolean reader) {
+      TriMesh.Reader r = (reader)?new TriMesh.Reader(_mesh):null;
+      for (int i=j; i<k; ++i) {
+        if (reader) {
+          r.locatePoint(_x[i],_y[i]);
+          r.findNodeNearest(_x[i],_y[i]);
+        } else {
+          _mesh.locatePoint(_x[i],_y[i]);
+          _mesh.findNodeNearest(_x[i],_y[i]);
+        }
+      }
+    }
+    private TriMesh _mesh;
+    private float[] _x = new float[NPOINT];
+    private float[] _y = new float[NPOINT];
+  }
+
+  private static class TetQuery extends Query {
+    TetQuery(int nnode) {
+      Random random = new Random(nnode);
+      TetMesh.Node[] nodes = new TetMesh.Node[nnode];
+      for (int i=0; i<nnode; ++i) {
+        float x = random.nextFloat();
+        float y = random.nextFloat();
+        float z = random.nextFloat();
+        nodes[i] = new TetMesh.Node(x,y,z);
+      }
+      _mesh = new TetMesh();
+      _mesh.addNodes(nodes);
+    }
+    void makePoints(boolean grid) {
+      Random random = new Random(1);
+      int n = (int)Math.cbrt(NPOINT+1);
+      for (int i=0; i<NPOINT; ++i) {
+        _x[i] = (grid)?(float)(i%n)/n:random.nextFloat();
+        _y[i] = (grid)?(float)(i/n%n)/n:random.nextFloat();
+        _z[i] = (grid)?(float)(i/n/n)/n:random.nextFloat();
+      }
+    }
+    void query(int j, int k, boolean reader) {
+      TetMesh.Reader r = (reader)?new TetMesh.Reader(_mesh):null;
+      for (int i=j; i<k; ++i) {
+        if (reader) {
+          r.locatePoint(_x[i],_y[i],_z[i]);
+          r.findNodeNearest(_x[i],_y[i],_z[i]);
+        } else {
+          _mesh.locatePoint(_x[i],_y[i],_z[i]);
+          _mesh.findNodeNearest(_x[i],_y[i],_z[i]);
+        }
+      }
+    }
+    private TetMesh _mesh;
+    private float[] _x = new float[NPOINT];
+    private float[] _y = new float[NPOINT];
+    private float[] _z = new float[NPOINT];
+  }
+
+  private static double rate(
+    final Query query, int nthread, final boolean reader)
+  {
+    Thread[] threads = new Thread[nthread];
+    for (int ithread=0; ithread<nthread; ++ithread) {
+      final int j = (int)((long)NPOINT*ithread/nthread);
+      final int k = (int)((long)NPOINT*(ithread+1)/nthread);
+      threads[ithread] = new Thread(new Runnable() {
+        public void run() {
+          query.query(j,k,reader);
+        }
+      });
+    }
+    Stopwatch sw = new Stopwatch();
+    sw.start();
+    for (Thread thread:threads)
+      thread.start();
+    try {
+      for (Thread thread:threads)
+        thread.join();
+    } catch (InterruptedException e) {
+      throw new RuntimeException(e);
+    }
+    sw.stop();
+    return 1.0e-3*NPOINT/sw.time();
+  }
+}
@@ -18,11 +18,16 @@ import static java.lang.Math.min;
 import java.util.concurrent.*;
 import java.util.concurrent.atomic.AtomicInteger;
 
+import edu.mines.jtk.la.DMatrix;
 import edu.mines.jtk.util.*;
 import static edu.mines.jtk.util.ArrayMath.*;
 
 /**
  * Benchmark single- and multi-threaded matrix multiplication.
+ * By default, compares the blocked and parallel multiplication of
+ * {@link edu.mines.jtk.la.DMatrix} with a simple single-threaded loop
+ * over dot products. With the argument "threads", compares different
+ * ways of multi-threading the simple loop.
  * @author Dave Hale, Colorado School of Mines
  * @version 2006.07.02
  */
@@ -32,6 +37,84 @@ public class MtMatMulBench {
     Runtime.getRuntime().availableProcessors();
 
   public static void main(String[] args) {
+    if (args.length>0 && args[0].equals("threads")) {
+      benchThreads();
+    } else {
+      benchDMatrix();
+    }
+  }
+
+  ///////////////////////////////////////////////////////////////////////////
+  // private
+
+  private static void benchDMatrix() {
+    System.out.println("DMatrix multiply benchmark: nthread="+NTHREAD);
+    System.out.println("simple = single-threaded dot products");
+    System.out.println("times, timesTranspose, transposeTimes = blocked");
+    int[] ns = {50,100,250,500,1000,2000};
+    double maxtime = 2.0;
+    Stopwatch s = new Stopwatch();
+    for (int n:ns) {
+      DMatrix a = DMatrix.random(n,n);
+      DMatrix b = DMatrix.random(n,n);
+      double mflops = 2.0e-6*n*n*n;
+      double[] rates = new double[4];
+      DMatrix c = null, d = null;
+      for (int ntrial=0; ntrial<3; ++ntrial) {
+        for (int method=0; method<4; ++method) {
+          int nmul;
+          s.restart();
+          for (nmul=0; s.time()<maxtime; ++nmul) {
+            if (method==0) {
+              c = timesSimple(a,b);
+            } else if (method==1) {
+              d = a.times(b);
+            } else if (method==2) {
+              a.timesTranspose(b);
+            } else {
+              a.transposeTimes(b);
+            }
+          }
+          s.stop();
+          rates[method] = max(rates[method],nmul*mflops/s.time());
+        }
+      }
+      double error = c.minus(d).normF()/c.normF();
+      System.out.printf(
+        "n=%4d simple=%6.0f times=%6.0f timesTranspose=%6.0f "+
+        "transposeTimes=%6.0f mflops  error=%.1e\n",
+        n,rates[0],rates[1],rates[2],rates[3],error);
+    }
+  }
+
+  /**
+   * Returns C = A*B, computed as in the original unblocked and
+   * single-threaded implementation of DMatrix.times.
+   */
+  private static DMatrix timesSimple(DMatrix a, DMatrix b) {
+    int m = a.getM();
+    int n = b.getN();
+    int nk = a.getN();
+    double[][] aa = a.getArray();
+    double[][] ba = b.getArray();
+    DMatrix c = new DMatrix(m,n);
+    double[][] ca = c.getArray();
+    double[] bj = new double[nk];
+    for (int j=0; j<n; ++j) {
+      for (int k=0; k<nk; ++k)
+        bj[k] = ba[k][j];
+      for (int i=0; i<m; ++i) {
+        double[] ai = aa[i];
+        double s = 0.0;
+        for (int k=0; k<nk; ++k)
+          s += ai[k]*bj[k];
+        ca[i][j] = s;
+      }
+    }
+    return c;
+  }
+
+  private static void benchThreads() {
     int m = 1001;
     int n = 1002;
     float[][] a = randfloat(n,m);
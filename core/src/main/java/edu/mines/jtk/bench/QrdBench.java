@@ -14,64 +14,200 @@ limitations under the License.
 ****************************************************************************/
 package edu.mines.jtk.bench;
 
-import static edu.mines.jtk.util.ArrayMath.sum;
+import static java.lang.Math.*;
 import edu.mines.jtk.util.Stopwatch;
 
 /**
- * Benchmark QR decompositions in packages la and lapack.
+ * Benchmark LU, QR and Cholesky decompositions in packages la and lapack.
+ * Compares the blocked decompositions in package la with unblocked
+ * decompositions like those in Jama and with those in package lapack. 
+ * The argument "lud", "qrd" (the default), or "chd" selects the type of 
+ * decomposition.
  * @author Dave Hale, Colorado School of Mines
  * @version 2005.12.14
  */
 public class QrdBench {
 
   public static void main(String[] args) {
-    double maxtime = 5;
-    int m = 100;
-    int n = 5;
-    int nrhs = 5;
+    String type = (args.length>0)?args[0]:"qrd";
+    System.out.println("Decomposition "+type+": rates in mflops");
+    int[] ns = {100,250,500,1000};
+    for (int n:ns) {
+      int m = n;
+      double mflops;
+      if (type.equals("lud")) {
+        mflops = 2.0e-6*n*n*n/3.0;
+      } else if (type.equals("chd")) {
+        mflops = 1.0e-6*n*n*n/3.0;
+      } else {
+        mflops = 2.0e-6*(m*n*n-n*n*n/3.0);
+      }
+
+      // Pure Java and LAPACK, with A symmetric positive-definite.
+      edu.mines.jtk.la.DMatrix aj = 
+        edu.mines.jtk.la.DMatrix.random(m,n);
+      aj.plusEquals(aj.transpose());
+      aj.plusEquals(edu.mines.jtk.la.DMatrix.identity(n,n).times(n));
+      final edu.mines.jtk.la.DMatrix ajf = aj;
+      final edu.mines.jtk.lapack.DMatrix al = 
+        new edu.mines.jtk.lapack.DMatrix(aj.get());
+      final double[][] a = aj.get();
 
-    // Pure Java.
-    edu.mines.jtk.la.DMatrix aj = 
-      edu.mines.jtk.la.DMatrix.random(m,n);
-    edu.mines.jtk.la.DMatrix bj = 
-      edu.mines.jtk.la.DMatrix.random(m,nrhs);
+      Runnable blocked,jama,lapack;
+      if (type.equals("lud")) {
+        blocked = new Runnable() { public void run() {
+          new edu.mines.jtk.la.DMatrixLud(ajf);
+        }};
+        jama = new Runnable() { public void run() {
+          lud(a);
+        }};
+        lapack = new Runnable() { public void run() {
+          new edu.mines.jtk.lapack.DMatrixLud(al);
+        }};
+      } else if (type.equals("chd")) {
+        blocked = new Runnable() { public void run() {
+          new edu.mines.jtk.la.DMatrixChd(ajf);
+        }};
+        jama = new Runnable() { public void run() {
+          chd(a);
+        }};
+        lapack = new Runnable() { public void run() {
+          new edu.mines.jtk.lapack.DMatrixChd(al);
+        }};
+      } else {
+        blocked = new Runnable() { public void run() {
+          new edu.mines.jtk.la.DMatrixQrd(ajf);
+        }};
+        jama = new Runnable() { public void run() {
+          qrd(a);
+        }};
+        lapack = new Runnable() { public void run() {
+          new edu.mines.jtk.lapack.DMatrixQrd(al);
+        }};
+      }
+      double rb = rate(blocked)*mflops;
+      double rj = rate(jama)*mflops;
+      double rl = rate(lapack)*mflops;
+      System.out.printf("n=%4d la=%6.0f jama=%6.0f lapack=%6.0f\n",
+        n,rb,rj,rl);
+    }
+  }
 
-    // LAPACK.
-    edu.mines.jtk.lapack.DMatrix al = 
-      new edu.mines.jtk.lapack.DMatrix(aj.get());
-    edu.mines.jtk.lapack.DMatrix bl = 
-      new edu.mines.jtk.lapack.DMatrix(bj.get());
+  ///////////////////////////////////////////////////////////////////////////
+  // private
 
-    double rate,sum;
-    int nqrd;
+  private static double rate(Runnable r) {
+    double maxtime = 2.0;
+    double rate = 0.0;
     Stopwatch sw = new Stopwatch();
-    for (int niter=0; niter<5; ++niter) {
-
-      // edu.mines.jtk.la
-      edu.mines.jtk.la.DMatrixQrd qrd1;
-      edu.mines.jtk.la.DMatrix x1 = new edu.mines.jtk.la.DMatrix(1,1);
+    for (int ntrial=0; ntrial<3; ++ntrial) {
+      int n;
       sw.restart();
-      for (nqrd=0;  sw.time()<maxtime; ++nqrd) {
-        qrd1 = new edu.mines.jtk.la.DMatrixQrd(aj);
-        x1 = qrd1.solve(bj);
-      }
+      for (n=0; sw.time()<maxtime; ++n)
+        r.run();
       sw.stop();
-      sum = sum(x1.getArray());
-      rate = nqrd/sw.time();
-      System.out.println("edu.mines.jtk.la:     rate="+rate+" sum="+sum);
+      rate = max(rate,n/sw.time());
+    }
+    return rate;
+  }
 
-      // edu.mines.jtk.lapack
-      edu.mines.jtk.lapack.DMatrixQrd qrd2;
-      edu.mines.jtk.lapack.DMatrix x2 = new edu.mines.jtk.lapack.DMatrix(1,1);
-      sw.restart();
-      for (nqrd=0;  sw.time()<maxtime; ++nqrd) {
-        qrd2 = new edu.mines.jtk.lapack.DMatrixQrd(al);
-        x2 = qrd2.solve(bl);
+  private static double[][] copy(double[][] a) {
+    int m = a.length;
+    double[][] c = new double[m][];
+    for (int i=0; i<m; ++i)
+      c[i] = a[i].clone();
+    return c;
+  }
+
+  /**
+   * Unblocked left-looking LU decomposition, as in Jama.
+   */
+  private static double[][] lud(double[][] a) {
+    double[][] lu = copy(a);
+    int m = lu.length;
+    int n = lu[0].length;
+    double[] lucolj = new double[m];
+    for (int j=0; j<n; ++j) {
+      for (int i=0; i<m; ++i)
+        lucolj[i] = lu[i][j];
+      for (int i=0; i<m; ++i) {
+        double[] lurowi = lu[i];
+        int kmax = min(i,j);
+        double s = 0.0;
+        for (int k=0; k<kmax; ++k)
+          s += lurowi[k]*lucolj[k];
+        lurowi[j] = lucolj[i] -= s;
       }
-      sw.stop();
-      sum = sum(x2.getArray());
-      rate = nqrd/sw.time();
-      System.out.println("edu.mines.jtk.lapack: rate="+rate+" sum="+sum);
+      int p = j;
+      for (int i=j+1; i<m; ++i) {
+        if (abs(lucolj[i])>abs(lucolj[p]))
+          p = i;
+      }
+      if (p!=j) {
+        for (int k=0; k<n; ++k) {
+          double t = lu[p][k];
+          lu[p][k] = lu[j][k];
+          lu[j][k] = t;
+        }
+      }
+      if (j<m && lu[j][j]!=0.0) {
+        for (int i=j+1; i<m; ++i)
+          lu[i][j] /= lu[j][j];
+      }
+    }
+    return lu;
+  }
+
+  /**
+   * Unblocked Householder QR decomposition, as in Jama.
+   */
+  private static double[][] qrd(double[][] a) {
+    double[][] qr = copy(a);
+    int m = qr.length;
+    int n = qr[0].length;
+    for (int k=0; k<n; ++k) {
+      double nrm = 0;
+      for (int i=k; i<m; ++i)
+        nrm = hypot(nrm,qr[i][k]);
+      if (nrm!=0.0) {
+        if (qr[k][k]<0.0)
+          nrm = -nrm;
+        for (int i=k; i<m; ++i)
+          qr[i][k] /= nrm;
+        qr[k][k] += 1.0;
+        for (int j=k+1; j<n; ++j) {
+          double s = 0.0; 
+          for (int i=k; i<m; ++i)
+            s += qr[i][k]*qr[i][j];
+          s = -s/qr[k][k];
+          for (int i=k; i<m; ++i)
+            qr[i][j] += s*qr[i][k];
+        }
+      }
+    }
+    return qr;
+  }
+
+  /**
+   * Unblocked Cholesky decomposition, as in Jama.
+   */
+  private static double[][] chd(double[][] a) {
+    int n = a.length;
+    double[][] l = new double[n][n];
+    for (int j=0; j<n; ++j) {
+      double[] lj = l[j];
+      double d = 0.0;
+      for (int k=0; k<j; ++k) {
+        double[] lk = l[k];
+        double s = 0.0;
+        for (int i=0; i<k; ++i)
+          s += lk[i]*lj[i];
+        lj[k] = s = (a[j][k]-s)/l[k][k];
+        d += s*s;
+      }
+      d = a[j][j]-d;
+      lj[j] = sqrt(max(d,0.0));
     }
+    return l;
   }
 }
@@ -0,0 +1,86 @@
+/****************************************************************************
+Copyright 2026, Colorado School of Mines and others.
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+****************************************************************************/
+package edu.mines.jtk.bench;
+
+import java.util.Random;
+
+import edu.mines.jtk.util.FlatRTree;
+import edu.mines.jtk.util.RTree;
+import edu.mines.jtk.util.Stopwatch;
+
+/**
+ * Benchmark nearest-neighbor queries of R-trees of points in 3-D.
+ * Rates are thousands of queries per second, for queries made one at a
+ * time with an {@link edu.mines.jtk.util.RTree}, and for queries made in
+ * parallel batches with that R-tree and with an equivalent
+ * {@link edu.mines.jtk.util.FlatRTree}.
+ * <p>
+ * The optional argument is the number of points, by default 10^6.
+ * @author agent
+ * @version 2026.10.18
+ */
+public class RTreeBench {
+  public static void main(String[] args) {
+    int n = (args.length>0)?Integer.parseInt(args[0]):1000000;
+    int m = 200000;
+    Random random = new Random(n);
+    float[] x = new float[3*n];
+    RTree.Box[] boxs = new RTree.Box[n];
+    for (int i=0; i<n; ++i) {
+      float xi = x[3*i  ] = random.nextFloat();
+      float yi = x[3*i+1] = random.nextFloat();
+      float zi = x[3*i+2] = random.nextFloat();
+      boxs[i] = new RTree.Box(xi,yi,zi,xi,yi,zi);
+    }
+    float[][] p = new float[m][3];
+    for (int i=0; i<m; ++i) {
+      p[i][0] = random.nextFloat();
+      p[i][1] = random.nextFloat();
+      p[i][2] = random.nextFloat();
+    }
+    Stopwatch sw = new Stopwatch();
+    sw.start();
+    RTree rt = new RTree(3,6,16);
+    rt.addPacked(boxs);
+    sw.stop();
+    System.out.printf("RTree build: %.2f s\n",sw.time());
+    sw.restart();
+    FlatRTree ft = new FlatRTree(3,x);
+    sw.stop();
+    System.out.printf("FlatRTree build: %.2f s\n",sw.time());
+    for (int k=1; k<=8; k*=8) {
+      Object[][] rnk = new Object[m][k];
+      int[][] fnk = new int[m][k];
+      for (int itrial=0; itrial<3; ++itrial) {
+        sw.restart();
+        for (int i=0; i<m; ++i)
+          rt.findNearest(k,p[i]);
+        sw.stop();
+        double rateSerial = 1.0e-3*m/sw.time();
+        sw.restart();
+        rt.findNearest(k,p,rnk);
+        sw.stop();
+        double rateBatch = 1.0e-3*m/sw.time();
+        sw.restart();
+        ft.findNearest(k,p,fnk,null);
+        sw.stop();
+        double rateFlat = 1.0e-3*m/sw.time();
+        System.out.printf(
+          "k=%d rtree=%.1f rtree batch=%.1f flat batch=%.1f\n",
+          k,rateSerial,rateBatch,rateFlat);
+      }
+    }
+  }
+}
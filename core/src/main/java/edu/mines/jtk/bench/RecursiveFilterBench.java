@@ -15,6 +15,7 @@ limitations under the License.
 package edu.mines.jtk.bench;
 
 import static edu.mines.jtk.util.ArrayMath.*;
+import edu.mines.jtk.dsp.RecursiveGaussianFilter;
 import edu.mines.jtk.util.Stopwatch;
 
 /**
@@ -25,6 +26,10 @@ import edu.mines.jtk.util.Stopwatch;
 public class RecursiveFilterBench {
 
   public static void main(String[] args) {
+    if (args.length>0 && args[0].equals("gaussian")) {
+      benchGaussian();
+      return;
+    }
     double maxtime = 5;
     int n1 = 4000;
     int n2 = 4000;
@@ -142,4 +147,48 @@ public class RecursiveFilterBench {
       xi = xt;
     }
   }
+
+  /**
+   * Compares tiled and untiled recursive Gaussian filters for 3-D arrays.
+   */
+  static void benchGaussian() {
+    double maxtime = 5;
+    int n1 = 500;
+    int n2 = 500;
+    int n3 = 500;
+    float[][][] x = randfloat(n1,n2,n3);
+    float[][][] y = zerofloat(n1,n2,n3);
+    RecursiveGaussianFilter rf = new RecursiveGaussianFilter(3.0);
+    double mpoint = 1.0e-6*n1*n2*n3;
+    double rate,sum;
+    int n;
+    Stopwatch sw = new Stopwatch();
+    for (int niter=0; niter<3; ++niter) {
+      for (int tiled=0; tiled<2; ++tiled) {
+        rf.setTiled(tiled==1);
+        String s = (tiled==1)?"  tiled":"untiled";
+        sw.restart();
+        for (n=0; sw.time()<maxtime; ++n)
+          rf.apply000(x,y);
+        sw.stop();
+        sum = sum(y);
+        rate = n*mpoint/sw.time();
+        System.out.println(s+" apply000: rate="+rate+" sum="+sum);
+        sw.restart();
+        for (n=0; sw.time()<maxtime; ++n)
+          rf.apply100(x,y);
+        sw.stop();
+        sum = sum(y);
+        rate = n*mpoint/sw.time();
+        System.out.println(s+" apply100: rate="+rate+" sum="+sum);
+        sw.restart();
+        for (n=0; sw.time()<maxtime; ++n)
+          rf.apply001(x,y);
+        sw.stop();
+        sum = sum(y);
+        rate = n*mpoint/sw.time();
+        System.out.println(s+" apply001: rate="+rate+" sum="+sum);
+      }
+    }
+  }
 }
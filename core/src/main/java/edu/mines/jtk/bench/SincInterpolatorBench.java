@@ -0,0 +1,102 @@
+/****************************************************************************
+Copyright 2026, Colorado School of Mines and others.
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+****************************************************************************/
+package edu.mines.jtk.bench;
+
+import edu.mines.jtk.dsp.Sampling;
+import edu.mines.jtk.dsp.SincInterpolator;
+import static edu.mines.jtk.util.ArrayMath.randfloat;
+import edu.mines.jtk.util.Stopwatch;
+
+/**
+ * Benchmark sinc interpolation of many traces. Rates are millions of
+ * interpolated values per second, computed (1) one sample at a time,
+ * (2) one trace at a time, and (3) for all traces at once, with scalar
+ * and with vector (SIMD) instructions. Traces are interpolated at
+ * different values x for each trace, as for NMO or warping, and at the
+ * same values x for all traces, as for resampling.
+ * @author agent
+ * @version 2026.10.18
+ */
+public class SincInterpolatorBench {
+  public static void main(String[] args) {
+    if (!SincInterpolator.isVectorAvailable())
+      System.out.println("vector instructions not available; build with "+
+        "-PvectorJdk and use --add-modules jdk.incubator.vector");
+    int[] lmaxs = {8,16};
+    boolean[] sames = {false,true};
+    for (int lmax:lmaxs) {
+      for (boolean same:sames) {
+        SincInterpolator si =
+          SincInterpolator.fromFrequencyAndLength(0.3,lmax);
+        double rateSample = rate(si,same,0);
+        double rateTrace = rate(si,same,1);
+        SincInterpolator.setVectorized(false);
+        double rateScalar = rate(si,same,2);
+        SincInterpolator.setVectorized(true);
+        double rateVector = rate(si,same,2);
+        System.out.printf(
+          "lmax=%d same=%b sample=%.1f trace=%.1f scalar=%.1f vector=%.1f\n",
+          lmax,same,rateSample,rateTrace,rateScalar,rateVector);
+      }
+    }
+  }
+
+  ///////////////////////////////////////////////////////////////////////////
+  // private
+
+  private static final int N1 = 2000; // samples per trace
+  private static final int N2 = 500; // number of traces
+
+  // Interpolation one sample, one trace, or all traces at a time.
+  private static double rate(SincInterpolator si, boolean same, int batch) {
+    double maxtime = 2.0;
+    Sampling s1 = new Sampling(N1,0.004,0.0);
+    float[][] yu = randfloat(N1,N2);
+    float[][] xi = new float[N2][N1];
+    for (int i2=0; i2<N2; ++i2) {
+      for (int i1=0; i1<N1; ++i1) {
+        double x = i1*0.004;
+        xi[i2][i1] = (float)(same?0.999*x:x*(1.0-0.0001*i2));
+      }
+    }
+    float[][] yi = new float[N2][N1];
+    double rate = 0.0;
+    Stopwatch sw = new Stopwatch();
+    for (int ntrial=0; ntrial<3; ++ntrial) {
+      int n;
+      sw.restart();
+      for (n=0; sw.time()<maxtime; ++n) {
+        if (batch==0) {
+          for (int i2=0; i2<N2; ++i2) {
+            float[] xi2 = xi[i2];
+            float[] yi2 = yi[i2];
+            for (int i1=0; i1<N1; ++i1)
+              yi2[i1] = si.interpolate(s1,yu[i2],xi2[i1]);
+          }
+        } else if (batch==1) {
+          for (int i2=0; i2<N2; ++i2)
+            si.interpolate(N1,0.004,0.0,yu[i2],N1,xi[i2],yi[i2]);
+        } else if (same) {
+          si.interpolate1(N1,0.004,0.0,yu,N1,xi[0],yi);
+        } else {
+          si.interpolate1(N1,0.004,0.0,yu,N1,xi,yi);
+        }
+      }
+      sw.stop();
+      rate = Math.max(rate,1.0e-6*n*N1*N2/sw.time());
+    }
+    return rate;
+  }
+}
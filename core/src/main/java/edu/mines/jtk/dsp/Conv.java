@@ -14,6 +14,7 @@ limitations under the License.
 ****************************************************************************/
 package edu.mines.jtk.dsp;
 
+import edu.mines.jtk.util.Parallel;
 import static edu.mines.jtk.util.ArrayMath.*;
 
 /**
@@ -70,6 +71,23 @@ import static edu.mines.jtk.util.ArrayMath.*;
  * Unlike convolution, cross-correlation is not commutative. In other words,
  * the cross-correlation of x and y does not equal the cross-correlation of 
  * y and x.
+ * <p>
+ * Convolution sums may be computed directly, as written above, or with 
+ * fast Fourier transforms. The direct method costs one multiply-add for 
+ * each pair of overlapping samples in x and y, and is best for short 
+ * sequences. Fast Fourier transforms cost more per sample, but that cost
+ * grows only logarithmically with the lengths of the sequences, and so 
+ * is best for long sequences. Methods in this class estimate the costs 
+ * of both methods and choose the cheaper one. Output sequences computed 
+ * with FFTs may differ from those computed directly by rounding errors 
+ * that are small relative to the largest output value.
+ * <p>
+ * For 1-D sequences, the FFT method uses overlap-save, transforming the 
+ * longer sequence in blocks, so that FFT lengths are proportional to the 
+ * length of the shorter sequence. Batch methods such as 
+ * {@link #conv1(int,int,float[],int,int,float[][],int,int,float[][])} 
+ * convolve one sequence x with many sequences y, in parallel; for these 
+ * methods, the transform of x is computed only once.
  * @author Dave Hale, Colorado School of Mines
  * @version 2005.08.15
  */
@@ -92,7 +110,19 @@ public class Conv {
     int ly, int ky, float[] y,
     int lz, int kz, float[] z)
   {
-    convFast(lx,kx,x,ly,ky,y,lz,kz,z);
+    if (lx>ly) {
+      int lt = lx;  lx = ly;  ly = lt;
+      int kt = kx;  kx = ky;  ky = kt;
+      float[] t = x;  x = y;  y = t;
+    }
+    int imin = kz-kx-ky;
+    int imax = imin+lz-1;
+    int nfft = nfftConv(lx,ly,imin,imax,false);
+    if (nfft>0) {
+      convFft(nfft,lx,x,ly,y,imin,imax,z);
+    } else {
+      convFast(lx,kx,x,ly,ky,y,lz,kz,z);
+    }
   }
 
   /**
@@ -118,6 +148,15 @@ public class Conv {
     int ly1, int ly2, int ky1, int ky2, float[][] y,
     int lz1, int lz2, int kz1, int kz2, float[][] z)
   {
+    int nfft2 = nfftConv(lx1,ly1,kz1-kx1-ky1,lz1,
+                         lx2,ly2,kz2-kx2-ky2,lz2);
+    if (nfft2>0) {
+      convFft(nfft2,
+              lx1,lx2,kx1,kx2,x,
+              ly1,ly2,ky1,ky2,y,
+              lz1,lz2,kz1,kz2,z);
+      return;
+    }
     zero(lz1,lz2,z);
     int ilo2 = kz2-kx2-ky2;
     int ihi2 = ilo2+lz2-1;
@@ -159,6 +198,16 @@ public class Conv {
     int ly1, int ly2, int ly3, int ky1, int ky2, int ky3, float[][][] y,
     int lz1, int lz2, int lz3, int kz1, int kz2, int kz3, float[][][] z)
   {
+    int nfft3 = nfftConv(lx1,ly1,kz1-kx1-ky1,lz1,
+                         lx2,ly2,kz2-kx2-ky2,lz2,
+                         lx3,ly3,kz3-kx3-ky3,lz3);
+    if (nfft3>0) {
+      convFft(nfft3,
+              lx1,lx2,lx3,kx1,kx2,kx3,x,
+              ly1,ly2,ly3,ky1,ky2,ky3,y,
+              lz1,lz2,lz3,kz1,kz2,kz3,z);
+      return;
+    }
     zero(lz1,lz2,lz3,z);
     int ilo2 = kz2-kx2-ky2;
     int ilo3 = kz3-kx3-ky3;
@@ -279,6 +328,70 @@ public class Conv {
       reverse(lx1,lx2,lx3,x,false);
   }
 
+  /**
+   * Computes 1-D convolutions of one sequence x with many sequences y.
+   * Each sequence y[i2] is convolved with x to compute a sequence z[i2].
+   * Convolutions are computed in parallel. When computed with FFTs, the 
+   * transform of x is computed only once.
+   * @param lx the length of x.
+   * @param kx the sample index of x[0].
+   * @param x array[lx] of x values.
+   * @param ly the length of each sequence y[i2].
+   * @param ky the sample index of y[i2][0].
+   * @param y array[n2][ly] of y values.
+   * @param lz the length of each sequence z[i2].
+   * @param kz the sample index of z[i2][0].
+   * @param z array[n2][lz] of z values.
+   */
+  public static void conv1(
+    final int lx, final int kx, final float[] x,
+    final int ly, final int ky, final float[][] y,
+    final int lz, final int kz, final float[][] z)
+  {
+    int n2 = y.length;
+    final int imin = kz-kx-ky;
+    final int imax = imin+lz-1;
+    int nfft = nfftConv(lx,ly,imin,imax,true);
+    if (nfft>0) {
+      final Fft1 fft = new Fft1(nfft,lx,x);
+      Parallel.loop(n2,new Parallel.LoopInt() {
+        public void compute(int i2) {
+          fft.apply(ly,y[i2],imin,imax,z[i2]);
+        }
+      });
+    } else {
+      Parallel.loop(n2,new Parallel.LoopInt() {
+        public void compute(int i2) {
+          convFast(lx,kx,x,ly,ky,y[i2],lz,kz,z[i2]);
+        }
+      });
+    }
+  }
+
+  /**
+   * Computes 1-D cross-correlations of one sequence x with many sequences y.
+   * Each sequence y[i2] is cross-correlated with x to compute a sequence 
+   * z[i2]. Cross-correlations are computed in parallel.
+   * @param lx the length of x.
+   * @param kx the sample index of x[0].
+   * @param x array[lx] of x values.
+   * @param ly the length of each sequence y[i2].
+   * @param ky the sample index of y[i2][0].
+   * @param y array[n2][ly] of y values.
+   * @param lz the length of each sequence z[i2].
+   * @param kz the sample index of z[i2][0].
+   * @param z array[n2][lz] of z values.
+   */
+  public static void xcor1(
+    int lx, int kx, float[] x,
+    int ly, int ky, float[][] y,
+    int lz, int kz, float[][] z)
+  {
+    x = reverse(lx,x,true);
+    kx = 1-kx-lx;
+    conv1(lx,kx,x,ly,ky,y,lz,kz,z);
+  }
+
   ///////////////////////////////////////////////////////////////////////////
   // private
 
@@ -634,6 +747,400 @@ public class Conv {
     }
   }
 
+  ///////////////////////////////////////////////////////////////////////////
+  // Convolution with fast Fourier transforms.
+  //
+  // Only the output samples z that may be non-zero, those with indices 
+  // 0 <= i <= lx+ly-2 (as defined for convFast below), are computed with 
+  // FFTs; other samples of z are simply zeroed. To compute n non-zero 
+  // output samples beginning with index ilo, we transform x and a window 
+  // of nfft >= n+lx-1 samples of y beginning with index ilo-lx+1. The last 
+  // n samples of the circular convolution of x and that window are not 
+  // contaminated by wraparound, and are the required output samples.
+  //
+  // For 1-D sequences, this is the overlap-save method. For long y, the 
+  // required output samples are computed in blocks of nfft-lx+1 samples,
+  // for an FFT length nfft chosen to minimize the cost of all blocks.
+  // For 2-D and 3-D sequences, the overlap-save method is used only in
+  // the last (slowest) dimension. Each block of output samples is then
+  // computed with a multi-dimensional window that spans all required
+  // samples in the other dimensions. The FFT length for the blocks is 
+  // chosen to minimize cost, but is limited so that work arrays contain 
+  // no more than NFFT_WORK_MAX floats. If no FFT length satisfies this
+  // limit, then convolutions are computed directly.
+  //
+  // The cost model below is in units of one multiply-add in the direct 
+  // method. Transform costs are proportional to nfft*log2(nfft), with a 
+  // constant measured for the prime-factor FFTs in this package.
+
+  // Cost of a real-to-complex or complex-to-real FFT of nfft real numbers.
+  // Complex-to-complex FFTs of nfft complex numbers, as computed for the 
+  // 2nd and 3rd dimensions of arrays, cost about the same, because those
+  // are computed for many columns at once. The cost of multiplying two 
+  // spectra is proportional to nfft.
+  private static final double FFT_COST = 2.0;
+  private static final double MUL_COST = 2.0;
+
+  // Fixed cost of multi-dimensional transforms, which are computed with
+  // parallel loops. This cost matters only for small arrays.
+  private static final double PARALLEL_COST = 1.0e6;
+  private static final int NFFT_MAX = 1441440;
+  private static final long NFFT_WORK_MAX = 1L<<24;
+
+  private static double rfftCost(int nfft) {
+    return FFT_COST*nfft*log(nfft)/log(2.0);
+  }
+  private static double cfftCost(int nfft) {
+    return rfftCost(nfft);
+  }
+
+  // Returns the number of pairs of samples x[j] and y[i-j] that overlap 
+  // in the direct sum, for output indices imin <= i <= imax.
+  private static long pairs(int lx, int ly, int imin, int imax) {
+    int ilo = max(0,imin);
+    int ihi = min(lx+ly-2,imax);
+    long npair = 0;
+    for (int i=ilo; i<=ihi; ++i)
+      npair += min(lx-1,i)-max(0,i-ly+1)+1;
+    return npair;
+  }
+
+  // Returns the number of non-zero output samples for imin <= i <= imax.
+  private static int count(int lx, int ly, int imin, int imax) {
+    return max(0,min(lx+ly-2,imax)-max(0,imin)+1);
+  }
+
+  // Returns the FFT length for 1-D convolution with FFTs, if that is 
+  // expected to be faster than direct convolution; otherwise, returns 
+  // zero. Here, x is the sequence that is transformed only once, and
+  // for batch convolutions, the cost of that transform is ignored.
+  private static int nfftConv(
+    int lx, int ly, int imin, int imax, boolean batch) 
+  {
+    int n = count(lx,ly,imin,imax);
+    if (n==0 || lx>NFFT_MAX/2)
+      return 0;
+    double cdirect = pairs(lx,ly,imin,imax);
+    if (cdirect<=rfftCost(FftReal.nfftFast(lx)))
+      return 0;
+    int nfftBest = 0;
+    double costBest = cdirect;
+    for (int m=2*lx,mlast=n+lx-1; m<=NFFT_MAX; m*=2) {
+      m = min(m,mlast);
+      int nfft = FftReal.nfftFast(m);
+      int nblock = 1+(n-1)/(nfft-lx+1);
+      double cost = nblock*(2.0*rfftCost(nfft)+MUL_COST*nfft);
+      if (!batch)
+        cost += rfftCost(nfft);
+      if (cost<costBest) {
+        nfftBest = nfft;
+        costBest = cost;
+      }
+      if (m==mlast)
+        break;
+    }
+    return nfftBest;
+  }
+
+  // Returns the FFT length for blocks of output samples in the 2nd
+  // dimension, if 2-D convolution with FFTs is expected to be faster 
+  // than direct convolution; otherwise, returns zero. Lengths are those 
+  // for the convolution of x and y, and imin = kz-kx-ky for each 
+  // dimension.
+  private static int nfftConv(
+    int lx1, int ly1, int imin1, int lz1, 
+    int lx2, int ly2, int imin2, int lz2)
+  {
+    double cdirect = (double)pairs(lx1,ly1,imin1,imin1+lz1-1)*
+                     (double)pairs(lx2,ly2,imin2,imin2+lz2-1);
+    if (cdirect==0.0)
+      return 0;
+    if (lx1*lx2>ly1*ly2) {
+      int lt = lx1;  lx1 = ly1;  ly1 = lt;
+      lt = lx2;  lx2 = ly2;  ly2 = lt;
+    }
+    int m1 = count(lx1,ly1,imin1,imin1+lz1-1)+lx1-1;
+    int n2 = count(lx2,ly2,imin2,imin2+lz2-1);
+    if (m1>NFFT_MAX || lx2>NFFT_MAX/2)
+      return 0;
+    int nfft1 = FftReal.nfftFast(m1);
+    int nk1 = nfft1/2+1;
+    long nfftMax = NFFT_WORK_MAX/(nfft1+2);
+    int nfftBest = 0;
+    double costBest = cdirect;
+    for (int m=2*lx2,mlast=n2+lx2-1; m<=NFFT_MAX; m*=2) {
+      m = min(m,mlast);
+      int nfft2 = FftComplex.nfftFast(m);
+      if (nfft2>nfftMax)
+        break;
+      int nblock = 1+(n2-1)/(nfft2-lx2+1);
+      double cfft = nfft2*rfftCost(nfft1)+nk1*cfftCost(nfft2);
+      double cost = cfft +
+                    nblock*(2.0*cfft+MUL_COST*nfft1*nfft2+PARALLEL_COST);
+      if (cost<costBest) {
+        nfftBest = nfft2;
+        costBest = cost;
+      }
+      if (m==mlast)
+        break;
+    }
+    return nfftBest;
+  }
+
+  // Returns the FFT length for blocks of output samples in the 3rd
+  // dimension, if 3-D convolution with FFTs is expected to be faster 
+  // than direct convolution; otherwise, returns zero.
+  private static int nfftConv(
+    int lx1, int ly1, int imin1, int lz1, 
+    int lx2, int ly2, int imin2, int lz2,
+    int lx3, int ly3, int imin3, int lz3)
+  {
+    double cdirect = (double)pairs(lx1,ly1,imin1,imin1+lz1-1)*
+                     (double)pairs(lx2,ly2,imin2,imin2+lz2-1)*
+                     (double)pairs(lx3,ly3,imin3,imin3+lz3-1);
+    if (cdirect==0.0)
+      return 0;
+    if ((long)lx1*lx2*lx3>(long)ly1*ly2*ly3) {
+      int lt = lx1;  lx1 = ly1;  ly1 = lt;
+      lt = lx2;  lx2 = ly2;  ly2 = lt;
+      lt = lx3;  lx3 = ly3;  ly3 = lt;
+    }
+    int m1 = count(lx1,ly1,imin1,imin1+lz1-1)+lx1-1;
+    int m2 = count(lx2,ly2,imin2,imin2+lz2-1)+lx2-1;
+    int n3 = count(lx3,ly3,imin3,imin3+lz3-1);
+    if (m1>NFFT_MAX || m2>NFFT_MAX || lx3>NFFT_MAX/2)
+      return 0;
+    int nfft1 = FftReal.nfftFast(m1);
+    int nfft2 = FftComplex.nfftFast(m2);
+    int nk1 = nfft1/2+1;
+    long nfftMax = NFFT_WORK_MAX/((long)(nfft1+2)*nfft2);
+    int nfftBest = 0;
+    double costBest = cdirect;
+    for (int m=2*lx3,mlast=n3+lx3-1; m<=NFFT_MAX; m*=2) {
+      m = min(m,mlast);
+      int nfft3 = FftComplex.nfftFast(m);
+      if (nfft3>nfftMax)
+        break;
+      int nblock = 1+(n3-1)/(nfft3-lx3+1);
+      double cfft = (double)nfft2*nfft3*rfftCost(nfft1) +
+                    (double)nk1*nfft3*cfftCost(nfft2) +
+                    (double)nk1*nfft2*cfftCost(nfft3);
+      double cost = cfft +
+                    nblock*(2.0*cfft+MUL_COST*nfft1*nfft2*nfft3 +
+                            PARALLEL_COST);
+      if (cost<costBest) {
+        nfftBest = nfft3;
+        costBest = cost;
+      }
+      if (m==mlast)
+        break;
+    }
+    return nfftBest;
+  }
+
+  // Overlap-save convolution of a fixed sequence x with sequences y.
+  // The transform of x is computed once, when this object is constructed.
+  // Because they use no shared work arrays, calls to the method apply may
+  // be made concurrently.
+  private static class Fft1 {
+    Fft1(int nfft, int lx, float[] x) {
+      _nfft = nfft;
+      _lx = lx;
+      _fft = new FftReal(nfft);
+      _cx = new float[nfft+2];
+      copy(lx,x,_cx);
+      _fft.realToComplex(-1,_cx,_cx);
+      _fft.scale(nfft+2,_cx);
+    }
+    void apply(int ly, float[] y, int imin, int imax, float[] z) {
+      int nfft = _nfft;
+      int lx = _lx;
+      int lz = imax-imin+1;
+      int ilo = max(0,imin);
+      int ihi = min(lx+ly-2,imax);
+      if (ilo>ihi) {
+        zero(lz,z);
+        return;
+      }
+      for (int iz=0; iz<ilo-imin; ++iz)
+        z[iz] = 0.0f;
+      for (int iz=ihi-imin+1; iz<lz; ++iz)
+        z[iz] = 0.0f;
+      float[] cb = new float[nfft+2];
+      int nb = nfft-lx+1;
+      for (int ib=ilo; ib<=ihi; ib+=nb) {
+        int jb = ib-lx+1;
+        int jlo = max(0,jb);
+        int jhi = min(ly,jb+nfft);
+        zero(nfft,cb);
+        if (jlo<jhi)
+          System.arraycopy(y,jlo,cb,jlo-jb,jhi-jlo);
+        _fft.realToComplex(-1,cb,cb);
+        cmul(nfft/2+1,_cx,cb);
+        _fft.complexToReal(1,cb,cb);
+        System.arraycopy(cb,lx-1,z,ib-imin,min(nb,ihi-ib+1));
+      }
+    }
+    private int _nfft;
+    private int _lx;
+    private FftReal _fft;
+    private float[] _cx; // scaled transform of x
+  }
+
+  private static void convFft(
+    int nfft, int lx, float[] x, int ly, float[] y, 
+    int imin, int imax, float[] z) 
+  {
+    new Fft1(nfft,lx,x).apply(ly,y,imin,imax,z);
+  }
+
+  // Computes 2-D convolution with FFTs, in blocks of nfft2-lx2+1 output
+  // samples in the 2nd dimension, where lx2 is the 2nd dimension of the
+  // smaller of x and y. Package-private, so that blocks can be tested.
+  static void convFft(
+    int nfft2,
+    int lx1, int lx2, int kx1, int kx2, float[][] x,
+    int ly1, int ly2, int ky1, int ky2, float[][] y,
+    int lz1, int lz2, int kz1, int kz2, float[][] z)
+  {
+    if (lx1*lx2>ly1*ly2) {
+      int lt = lx1;  lx1 = ly1;  ly1 = lt;
+      lt = lx2;  lx2 = ly2;  ly2 = lt;
+      int kt = kx1;  kx1 = ky1;  ky1 = kt;
+      kt = kx2;  kx2 = ky2;  ky2 = kt;
+      float[][] t = x;  x = y;  y = t;
+    }
+    zero(lz1,lz2,z);
+    int imin1 = kz1-kx1-ky1;
+    int imin2 = kz2-kx2-ky2;
+    int ilo1 = max(0,imin1);
+    int ilo2 = max(0,imin2);
+    int n1 = count(lx1,ly1,imin1,imin1+lz1-1);
+    int n2 = count(lx2,ly2,imin2,imin2+lz2-1);
+    int nfft1 = FftReal.nfftFast(n1+lx1-1);
+    int nk1 = nfft1/2+1;
+    FftReal fft1 = new FftReal(nfft1);
+    FftComplex fft2 = new FftComplex(nfft2);
+    float[][] cx = new float[nfft2][nfft1+2];
+    float[][] cy = new float[nfft2][nfft1+2];
+    for (int i2=0; i2<lx2; ++i2)
+      copy(lx1,x[i2],cx[i2]);
+    fft1.realToComplex1(-1,nfft2,cx,cx);
+    fft2.complexToComplex2(-1,nk1,cx,cx);
+    fft1.scale(nfft1+2,nfft2,cx);
+    fft2.scale(nk1,nfft2,cx);
+    int nb2 = nfft2-lx2+1;
+    for (int ib2=0; ib2<n2; ib2+=nb2) {
+      zero(nfft1+2,nfft2,cy);
+      window(ly1,ly2,ilo1-lx1+1,ilo2+ib2-lx2+1,y,nfft1,nfft2,cy);
+      fft1.realToComplex1(-1,nfft2,cy,cy);
+      fft2.complexToComplex2(-1,nk1,cy,cy);
+      for (int i2=0; i2<nfft2; ++i2)
+        cmul(nk1,cx[i2],cy[i2]);
+      fft2.complexToComplex2(1,nk1,cy,cy);
+      fft1.complexToReal1(1,nfft2,cy,cy);
+      for (int i2=ib2,mb2=min(n2,ib2+nb2); i2<mb2; ++i2)
+        System.arraycopy(cy[lx2-1+i2-ib2],lx1-1,
+                         z[ilo2-imin2+i2],ilo1-imin1,n1);
+    }
+  }
+
+  // Computes 3-D convolution with FFTs, in blocks of nfft3-lx3+1 output
+  // samples in the 3rd dimension. Package-private, so that blocks can be 
+  // tested.
+  static void convFft(
+    int nfft3,
+    int lx1, int lx2, int lx3, int kx1, int kx2, int kx3, float[][][] x,
+    int ly1, int ly2, int ly3, int ky1, int ky2, int ky3, float[][][] y,
+    int lz1, int lz2, int lz3, int kz1, int kz2, int kz3, float[][][] z)
+  {
+    if ((long)lx1*lx2*lx3>(long)ly1*ly2*ly3) {
+      int lt = lx1;  lx1 = ly1;  ly1 = lt;
+      lt = lx2;  lx2 = ly2;  ly2 = lt;
+      lt = lx3;  lx3 = ly3;  ly3 = lt;
+      int kt = kx1;  kx1 = ky1;  ky1 = kt;
+      kt = kx2;  kx2 = ky2;  ky2 = kt;
+      kt = kx3;  kx3 = ky3;  ky3 = kt;
+      float[][][] t = x;  x = y;  y = t;
+    }
+    zero(lz1,lz2,lz3,z);
+    int imin1 = kz1-kx1-ky1;
+    int imin2 = kz2-kx2-ky2;
+    int imin3 = kz3-kx3-ky3;
+    int ilo1 = max(0,imin1);
+    int ilo2 = max(0,imin2);
+    int ilo3 = max(0,imin3);
+    int n1 = count(lx1,ly1,imin1,imin1+lz1-1);
+    int n2 = count(lx2,ly2,imin2,imin2+lz2-1);
+    int n3 = count(lx3,ly3,imin3,imin3+lz3-1);
+    int nfft1 = FftReal.nfftFast(n1+lx1-1);
+    int nfft2 = FftComplex.nfftFast(n2+lx2-1);
+    int nk1 = nfft1/2+1;
+    FftReal fft1 = new FftReal(nfft1);
+    FftComplex fft2 = new FftComplex(nfft2);
+    FftComplex fft3 = new FftComplex(nfft3);
+    float[][][] cx = new float[nfft3][nfft2][nfft1+2];
+    float[][][] cy = new float[nfft3][nfft2][nfft1+2];
+    for (int i3=0; i3<lx3; ++i3)
+      for (int i2=0; i2<lx2; ++i2)
+        copy(lx1,x[i3][i2],cx[i3][i2]);
+    fft1.realToComplex1(-1,nfft2,nfft3,cx,cx);
+    fft2.complexToComplex2(-1,nk1,nfft3,cx,cx);
+    fft3.complexToComplex3(-1,nk1,nfft2,cx,cx);
+    fft1.scale(nfft1+2,nfft2,nfft3,cx);
+    fft2.scale(nk1,nfft2,nfft3,cx);
+    fft3.scale(nk1,nfft2,nfft3,cx);
+    int nb3 = nfft3-lx3+1;
+    for (int ib3=0; ib3<n3; ib3+=nb3) {
+      zero(nfft1+2,nfft2,nfft3,cy);
+      for (int i3=0,j3=ilo3+ib3-lx3+1; i3<nfft3; ++i3,++j3) {
+        if (0<=j3 && j3<ly3)
+          window(ly1,ly2,ilo1-lx1+1,ilo2-lx2+1,y[j3],nfft1,nfft2,cy[i3]);
+      }
+      fft1.realToComplex1(-1,nfft2,nfft3,cy,cy);
+      fft2.complexToComplex2(-1,nk1,nfft3,cy,cy);
+      fft3.complexToComplex3(-1,nk1,nfft2,cy,cy);
+      for (int i3=0; i3<nfft3; ++i3)
+        for (int i2=0; i2<nfft2; ++i2)
+          cmul(nk1,cx[i3][i2],cy[i3][i2]);
+      fft3.complexToComplex3(1,nk1,nfft2,cy,cy);
+      fft2.complexToComplex2(1,nk1,nfft3,cy,cy);
+      fft1.complexToReal1(1,nfft2,nfft3,cy,cy);
+      for (int i3=ib3,mb3=min(n3,ib3+nb3); i3<mb3; ++i3)
+        for (int i2=0; i2<n2; ++i2)
+          System.arraycopy(cy[lx3-1+i3-ib3][lx2-1+i2],lx1-1,
+                           z[ilo3-imin3+i3][ilo2-imin2+i2],ilo1-imin1,n1);
+    }
+  }
+
+  // Copies into zeroed array w[n2][n1] the window of samples y[j2][j1] 
+  // with indices beginning at (jb1,jb2). Samples outside y are zero.
+  private static void window(
+    int ly1, int ly2, int jb1, int jb2, float[][] y, 
+    int n1, int n2, float[][] w)
+  {
+    int jlo1 = max(0,jb1);
+    int jhi1 = min(ly1,jb1+n1);
+    if (jlo1>=jhi1)
+      return;
+    for (int i2=0,j2=jb2; i2<n2; ++i2,++j2) {
+      if (0<=j2 && j2<ly2)
+        System.arraycopy(y[j2],jlo1,w[i2],jlo1-jb1,jhi1-jlo1);
+    }
+  }
+
+  // Complex multiplication cy = cx*cy for n complex numbers.
+  private static void cmul(int n, float[] cx, float[] cy) {
+    for (int ir=0,ii=1,nn=2*n; ir<nn; ir+=2,ii+=2) {
+      float xr = cx[ir];
+      float xi = cx[ii];
+      float yr = cy[ir];
+      float yi = cy[ii];
+      cy[ir] = xr*yr-xi*yi;
+      cy[ii] = xr*yi+xi*yr;
+    }
+  }
+
   private static void zero(int n1, float[] z) {
     for (int i1=0; i1<n1; ++i1)
       z[i1] = 0.0f;
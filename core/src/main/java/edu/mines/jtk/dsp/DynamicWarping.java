@@ -14,6 +14,11 @@ limitations under the License.
 ****************************************************************************/
 package edu.mines.jtk.dsp;
 
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+
+import edu.mines.jtk.io.ArrayFile;
 import edu.mines.jtk.util.*;
 import static edu.mines.jtk.util.ArrayMath.*;
 
@@ -50,6 +55,9 @@ import static edu.mines.jtk.util.ArrayMath.*;
  * is likely to be too large for the temporary array to fit in random-
  * access memory (RAM). In this case, shifts u are obtained by blending 
  * together shifts computed from overlapping subsets of the 3D image.
+ * If the 3D images themselves are too large for RAM, then they may be
+ * read and written one subset at a time, and alignment errors for each
+ * subset may be stored temporarily in a file.
  * <p>
  * Estimated shifts u can be smoothed, and the extent of smoothing 
  * along each dimension is inversely proportional to the strain limit 
@@ -264,6 +272,64 @@ public class DynamicWarping {
     _owf3 = f3;
   }
 
+  /**
+   * Sets a directory for temporary files of alignment errors. When
+   * finding shifts for 3D images that need not fit in memory, alignment
+   * errors for each window (subset) of those images may be stored in
+   * a temporary file in this directory. Then only one 2D slice of those
+   * errors is kept in memory at any time, so that much larger windows
+   * are possible. The default directory is null, for errors stored in
+   * memory.
+   * @param dir the directory; null, for no temporary files.
+   */
+  public void setErrorDirectory(File dir) {
+    _edir = dir;
+  }
+
+  /**
+   * Sets whether alignment errors for 2D and 3D images are stored compactly.
+   * Compact errors are stored as 16-bit integers, with one minimum and one
+   * scale factor for the errors for all lags of each image sample, so that
+   * they require about half the memory of errors stored as floats. Compact
+   * errors are decoded as needed while smoothing, accumulating and 
+   * backtracking. Because smoothed errors are quantized, integer shifts 
+   * found may differ by one lag, for a few percent of samples, from those 
+   * found with errors stored as floats. The default is false, for floats.
+   * <p>
+   * Compact errors are not used for 3D images when alignment errors are
+   * stored in temporary files.
+   * @param compact true, for compact errors; false, otherwise.
+   */
+  public void setCompactErrors(boolean compact) {
+    _compact = compact;
+  }
+
+  /**
+   * Determines whether SIMD (vector) instructions are available for
+   * accumulating alignment errors. These instructions require the
+   * incubating Java Vector API, which must be enabled with the JVM 
+   * option --add-modules jdk.incubator.vector, and classes that are 
+   * built only with JDK 16 or later.
+   * @return true, if available; false, otherwise.
+   */
+  public static boolean isVectorAvailable() {
+    return VECTOR_AVAILABLE;
+  }
+
+  /**
+   * Enables or disables SIMD (vector) instructions, if available, for
+   * accumulating alignment errors. Accumulated errors are the same with
+   * or without SIMD instructions. By default, SIMD instructions are used
+   * if available.
+   * <p>
+   * <em>Setting this flag affects all dynamic warpings.</em> This method
+   * should therefore be used for benchmarking only.
+   * @param vectorized true, for SIMD instructions; false, otherwise.
+   */
+  public static void setVectorized(boolean vectorized) {
+    _vectorized = vectorized && VECTOR_AVAILABLE;
+  }
+
   /**
    * Computes and returns shifts for specified sequences.
    * @param f array for the sequence f.
@@ -350,6 +416,12 @@ public class DynamicWarping {
    * @param u output array of shifts u.
    */
   public void findShifts(float[][] f, float[][] g, float[][] u) {
+    if (_compact) {
+      computeShiftsCompact(
+        new float[][][]{f},new float[][][]{g},new float[][][]{u});
+      smoothShifts(u,u);
+      return;
+    }
     final float[][][] e = computeErrors(f,g);
     final int nl = e[0][0].length;
     final int n1 = e[0].length;
@@ -387,7 +459,7 @@ public class DynamicWarping {
     float[][][] fw = new float[l3][l2][];
     float[][][] gw = new float[l3][l2][];
     float[][][] uw = new float[l3][l2][n1];
-    float[][][][] ew = new float[l3][l2][n1][_nl];
+    float[][][][] ew = (_compact)?null:new float[l3][l2][n1][_nl];
     for (int k3=0; k3<m3; ++k3) {
       int i3 = ow.getI2(k3);
       for (int k2=0; k2<m2; ++k2) {
@@ -398,11 +470,15 @@ public class DynamicWarping {
             gw[j3][j2] = g[i3+j3][i2+j2];
           }
         }
-        computeErrors(fw,gw,ew);
-        normalizeErrors(ew);
-        for (int is=0; is<_esmooth; ++is)
-          smoothErrors(ew);
-        computeShifts(ew,uw);
+        if (_compact) {
+          computeShiftsCompact(fw,gw,uw);
+        } else {
+          computeErrors(fw,gw,ew);
+          normalizeErrors(ew);
+          for (int is=0; is<_esmooth; ++is)
+            smoothErrors(ew);
+          computeShifts(ew,uw);
+        }
         for (int j3=0; j3<l3; ++j3) {
           for (int j2=0; j2<l2; ++j2) {
             float wij = ow.getWeight(i2,i3,j2,j3);
@@ -416,6 +492,89 @@ public class DynamicWarping {
     smoothShifts(u);
   }
 
+  /**
+   * Computes shifts for specified 3D images that need not fit in memory.
+   * Windows (subsets) of the images f and g are read one at a time, and
+   * only those slices of shifts u spanned by the current window are kept
+   * in memory. Slices of shifts are written when no subsequent window
+   * spans them. The shifts written are the same as those computed for 
+   * 3D arrays, but any shifts already in u are overwritten.
+   * @param f input image f.
+   * @param g input image g.
+   * @param u output image of shifts u.
+   */
+  public void findShifts(Float3 f, Float3 g, Float3 u) {
+    int n1 = f.getN1();
+    int n2 = f.getN2();
+    int n3 = f.getN3();
+    OverlappingWindows2 ow = 
+      new OverlappingWindows2(n2,n3,_owl2,_owl3,_owf2,_owf3);
+    int m2 = ow.getM1();
+    int m3 = ow.getM2();
+    int l2 = ow.getL1();
+    int l3 = ow.getL2();
+    float[][][] fw = new float[l3][l2][n1];
+    float[][][] gw = new float[l3][l2][n1];
+    float[][][] uw = new float[l3][l2][n1];
+    float[][][][] ew = (_edir==null && !_compact) ?
+      new float[l3][l2][n1][_nl] :
+      null;
+    ArrayList<float[][]> us = new ArrayList<float[][]>(); // slices of u
+    ErrorFile ef = null;
+    try {
+      if (_edir!=null)
+        ef = new ErrorFile(_edir,n1,l2,l3,_nl);
+      int j3u = 0; // index i3 of the first slice in the list us
+      for (int k3=0; k3<m3; ++k3) {
+        int i3 = ow.getI2(k3);
+        for (; j3u<i3; ++j3u)
+          writeShifts(j3u,us.remove(0),u);
+        while (j3u+us.size()<i3+l3)
+          us.add(new float[n2][n1]);
+        for (int k2=0; k2<m2; ++k2) {
+          int i2 = ow.getI1(k2);
+          f.get123(n1,l2,l3,0,i2,i3,fw);
+          g.get123(n1,l2,l3,0,i2,i3,gw);
+          if (ef==null && _compact) {
+            computeShiftsCompact(fw,gw,uw);
+          } else if (ef==null) {
+            computeErrors(fw,gw,ew);
+            normalizeErrors(ew);
+            for (int is=0; is<_esmooth; ++is)
+              smoothErrors(ew);
+            computeShifts(ew,uw);
+          } else {
+            computeShifts(fw,gw,ef,uw);
+          }
+          for (int j3=0; j3<l3; ++j3) {
+            float[][] u3 = us.get(i3+j3-j3u);
+            for (int j2=0; j2<l2; ++j2) {
+              float wij = ow.getWeight(i2,i3,j2,j3);
+              float[] u32 = u3[i2+j2];
+              for (int i1=0; i1<n1; ++i1)
+                u32[i1] += wij*uw[j3][j2][i1];
+            }
+          }
+        }
+      }
+      for (; j3u<n3; ++j3u)
+        writeShifts(j3u,us.remove(0),u);
+    } catch (IOException e) {
+      throw new RuntimeException(e);
+    } finally {
+      if (ef!=null)
+        ef.delete();
+    }
+    if (_ref3!=null) {
+      float[][] u2 = new float[n3][n1];
+      for (int i2=0; i2<n2; ++i2) {
+        u.get13(n1,n3,0,i2,0,u2);
+        _ref3.apply2(u2,u2);
+        u.set13(n1,n3,0,i2,0,u2);
+      }
+    }
+  }
+
   /**
    * Computes 1D shifts u for specified 2D images f and g.
    * This method is useful in the case that shifts vary only slightly 
@@ -833,6 +992,14 @@ public class DynamicWarping {
     accumulate(-1,_bstrain1,e,d);
   }
 
+  // Accumulates alignment errors in the specified direction, with SIMD
+  // instructions if vectorized and available. Package-private, so that
+  // tests may compare scalar and vector accumulation without changing the
+  // flag shared by all dynamic warpings.
+  void accumulate(int dir, float[][] e, float[][] d, boolean vectorized) {
+    accumulate(dir,_bstrain1,e,d,vectorized && VECTOR_AVAILABLE);
+  }
+
   /**
    * Accumulates alignment errors in forward direction in 1st dimension.
    * @param e input array of alignment errors.
@@ -998,26 +1165,7 @@ public class DynamicWarping {
    * @param e input/output array of alignment errors.
    */
   public static void normalizeErrors(float[][][] e) {
-    final float[][][] ef = e;
-    int n2 = e.length;
-    MinMax mm = Parallel.reduce(n2,new Parallel.ReduceInt<MinMax>() {
-    public MinMax compute(int i2) {
-      int nl = ef[i2][0].length;
-      int n1 = ef[i2].length;
-      float emin =  Float.MAX_VALUE;
-      float emax = -Float.MAX_VALUE;
-      for (int i1=0; i1<n1; ++i1) {
-        for (int il=0; il<nl; ++il) {
-          float ei = ef[i2][i1][il];
-          if (ei<emin) emin = ei;
-          if (ei>emax) emax = ei;
-        }
-      }
-      return new MinMax(emin,emax);
-    }
-    public MinMax combine(MinMax mm1, MinMax mm2) {
-      return new MinMax(min(mm1.emin,mm2.emin),max(mm1.emax,mm2.emax));
-    }});
+    MinMax mm = minMax(e);
     shiftAndScale(mm.emin,mm.emax,e);
   }
 
@@ -1117,6 +1265,35 @@ public class DynamicWarping {
   private int _owl3 = 50; // window size in 3rd dimension for 3D images
   private double _owf2 = 0.5; // fraction of window overlap in 2nd dimension
   private double _owf3 = 0.5; // fraction of window overlap in 3rd dimension
+  private File _edir; // directory for temporary files of alignment errors
+  private boolean _compact; // true, if errors stored as 16-bit integers
+
+  /**
+   * SIMD kernels for accumulating alignment errors, implemented by the 
+   * class DynamicWarpingVector. That class uses the incubating Java Vector
+   * API, and is compiled only with JDK 16 or later; therefore, it is 
+   * loaded only by reflection.
+   */
+  interface Kernels {
+    boolean isAvailable();
+    void add(int nl, float[] x, float[] y);
+    void accumulate(int nl, float[] t, float[] s, float[] e, float[] d);
+  }
+
+  // SIMD kernels are available only if the class DynamicWarpingVector and
+  // the incubating Java Vector API are both available.
+  private static final Kernels VECTOR = loadKernels();
+  private static final boolean VECTOR_AVAILABLE = VECTOR!=null;
+  private static volatile boolean _vectorized = VECTOR_AVAILABLE;
+  private static Kernels loadKernels() {
+    try {
+      Class<?> c = Class.forName("edu.mines.jtk.dsp.DynamicWarpingVector");
+      Kernels k = (Kernels)c.getDeclaredConstructor().newInstance();
+      return k.isAvailable()?k:null;
+    } catch (ReflectiveOperationException | LinkageError e) {
+      return null;
+    }
+  }
 
   private float error(float f, float g) {
     return pow(abs(f-g),_epow);
@@ -1220,31 +1397,104 @@ public class DynamicWarping {
    * @param d output array[ni][nl] of accumulated errors.
    */
   private static void accumulate(int dir, int b, float[][] e, float[][] d) {
+    accumulate(dir,b,e,d,_vectorized);
+  }
+  private static void accumulate(
+    int dir, int b, float[][] e, float[][] d, boolean vectorized) 
+  {
     int nl = e[0].length;
     int ni = e.length;
-    int nlm1 = nl-1;
     int nim1 = ni-1;
     int ib = (dir>0)?0:nim1;
     int ie = (dir>0)?ni:-1;
     int is = (dir>0)?1:-1;
-    for (int il=0; il<nl; ++il)
-      d[ib][il] = 0.0f;
-    for (int ii=ib; ii!=ie; ii+=is) {
+    float[] t = (b>1)?new float[nl]:null;
+    accumulateFirst(nl,e[ib],d[ib]);
+    for (int ii=ib+is; ii!=ie; ii+=is) {
       int ji = max(0,min(nim1,ii-is));
       int jb = max(0,min(nim1,ii-is*b));
+      float[] tb = d[jb];
+      if (ji!=jb) {
+        System.arraycopy(tb,0,t,0,nl);
+        for (int kb=ji; kb!=jb; kb-=is)
+          addErrors(nl,e[kb],t,vectorized);
+        tb = t;
+      }
+      accumulateSample(nl,tb,d[ji],e[ii],d[ii],vectorized);
+    }
+  }
+
+  /**
+   * Accumulates alignment errors for the first sample. Because errors
+   * accumulated for the first sample are both input and output, lags
+   * must be processed in order.
+   * @param nl the number of lags.
+   * @param e input array[nl] of alignment errors.
+   * @param d output array[nl] of accumulated errors.
+   */
+  private static void accumulateFirst(int nl, float[] e, float[] d) {
+    int nlm1 = nl-1;
+    for (int il=0; il<nl; ++il)
+      d[il] = 0.0f;
+    for (int il=0; il<nl; ++il) {
+      int ilm1 = il-1; if (ilm1==-1) ilm1 = 0;
+      int ilp1 = il+1; if (ilp1==nl) ilp1 = nlm1;
+      d[il] = min3(d[ilm1],d[il],d[ilp1])+e[il];
+    }
+  }
+
+  /**
+   * Accumulates alignment errors for one sample. For lag indices il,
+   * computes d[il] = min(t[il-1],s[il],t[il+1])+e[il], where lag indices 
+   * il-1 and il+1 are clipped to the range [0,nl-1]. Here, the array t 
+   * contains errors accumulated for a sample b samples before, plus any 
+   * errors for samples between, for paths along which lags change, and
+   * the array s contains errors accumulated for the previous sample.
+   * @param nl the number of lags.
+   * @param t input array[nl] of errors accumulated with changing lags.
+   * @param s input array[nl] of errors accumulated with constant lags.
+   * @param e input array[nl] of alignment errors.
+   * @param d output array[nl] of accumulated errors.
+   * @param vectorized true, for SIMD instructions; false, otherwise.
+   */
+  private static void accumulateSample(
+    int nl, float[] t, float[] s, float[] e, float[] d, boolean vectorized) 
+  {
+    int nlm1 = nl-1;
+    if (nl<3) {
       for (int il=0; il<nl; ++il) {
         int ilm1 = il-1; if (ilm1==-1) ilm1 = 0;
         int ilp1 = il+1; if (ilp1==nl) ilp1 = nlm1;
-        float dm = d[jb][ilm1];
-        float di = d[ji][il  ];
-        float dp = d[jb][ilp1];
-        for (int kb=ji; kb!=jb; kb-=is) {
-          dm += e[kb][ilm1];
-          dp += e[kb][ilp1];
-        }
-        d[ii][il] = min3(dm,di,dp)+e[ii][il];
+        d[il] = min3(t[ilm1],s[il],t[ilp1])+e[il];
       }
+      return;
     }
+    if (vectorized) {
+      VECTOR.accumulate(nl,t,s,e,d);
+      return;
+    }
+    d[0] = min3(t[0],s[0],t[1])+e[0];
+    for (int il=1; il<nlm1; ++il)
+      d[il] = min3(t[il-1],s[il],t[il+1])+e[il];
+    d[nlm1] = min3(t[nlm1-1],s[nlm1],t[nlm1])+e[nlm1];
+  }
+
+  /**
+   * Adds alignment errors to accumulated errors.
+   * @param nl the number of lags.
+   * @param e input array[nl] of alignment errors.
+   * @param t input/output array[nl] of accumulated errors.
+   * @param vectorized true, for SIMD instructions; false, otherwise.
+   */
+  private static void addErrors(
+    int nl, float[] e, float[] t, boolean vectorized) 
+  {
+    if (vectorized) {
+      VECTOR.add(nl,e,t);
+      return;
+    }
+    for (int il=0; il<nl; ++il)
+      t[il] += e[il];
   }
 
   /**
@@ -1312,6 +1562,126 @@ public class DynamicWarping {
     }
   }
 
+  /**
+   * Non-linear accumulation of compact alignment errors.
+   * Errors are e[ii][il] = a[ii]+s[ii]*(q[ii][il]&amp;0xffff).
+   * @param dir accumulation direction, positive or negative.
+   * @param b sample offset used to constrain changes in lag.
+   * @param q input array[ni][nl] of quantized alignment errors.
+   * @param a input array[ni] of minimum alignment errors.
+   * @param s input array[ni] of scale factors.
+   * @param d output array[ni][nl] of accumulated errors.
+   */
+  private static void accumulate(
+    int dir, int b, short[][] q, float[] a, float[] s, float[][] d) 
+  {
+    int nl = q[0].length;
+    int ni = q.length;
+    int nim1 = ni-1;
+    int ib = (dir>0)?0:nim1;
+    int ie = (dir>0)?ni:-1;
+    int is = (dir>0)?1:-1;
+    float[] t = (b>1)?new float[nl]:null;
+    float[] e = new float[nl];
+    boolean vectorized = _vectorized;
+    decode(q[ib],a[ib],s[ib],e);
+    accumulateFirst(nl,e,d[ib]);
+    for (int ii=ib+is; ii!=ie; ii+=is) {
+      int ji = max(0,min(nim1,ii-is));
+      int jb = max(0,min(nim1,ii-is*b));
+      float[] tb = d[jb];
+      if (ji!=jb) {
+        System.arraycopy(tb,0,t,0,nl);
+        for (int kb=ji; kb!=jb; kb-=is) {
+          decode(q[kb],a[kb],s[kb],e);
+          addErrors(nl,e,t,vectorized);
+        }
+        tb = t;
+      }
+      decode(q[ii],a[ii],s[ii],e);
+      accumulateSample(nl,tb,d[ji],e,d[ii],vectorized);
+    }
+  }
+
+  /**
+   * Decodes compact alignment errors for one sample.
+   * @param q input array[nl] of quantized alignment errors.
+   * @param a the minimum alignment error.
+   * @param s the scale factor.
+   * @param e output array[nl] of alignment errors.
+   */
+  private static void decode(short[] q, float a, float s, float[] e) {
+    int nl = q.length;
+    for (int il=0; il<nl; ++il)
+      e[il] = a+s*(q[il]&0xffff);
+  }
+
+  /**
+   * Finds shifts by backtracking in accumulated compact alignment errors.
+   * @param dir backtrack direction, positive or negative.
+   * @param b sample offset used to constrain changes in lag.
+   * @param lmin minimum lag corresponding to lag index zero.
+   * @param d input array[ni][nl] of accumulated errors.
+   * @param q input array[ni][nl] of quantized alignment errors.
+   * @param a input array[ni] of minimum alignment errors.
+   * @param s input array[ni] of scale factors.
+   * @param u output array[ni] of computed shifts.
+   */
+  private static void backtrack(
+    int dir, int b, int lmin, float[][] d, 
+    short[][] q, float[] a, float[] s, float[] u) 
+  {
+    float ob = 1.0f/b;
+    int nl = d[0].length;
+    int ni = d.length;
+    int nlm1 = nl-1;
+    int nim1 = ni-1;
+    int ib = (dir>0)?0:nim1;
+    int ie = (dir>0)?nim1:0;
+    int is = (dir>0)?1:-1;
+    int ii = ib;
+    int il = max(0,min(nlm1,-lmin));
+    float dl = d[ii][il];
+    for (int jl=1; jl<nl; ++jl) {
+      if (d[ii][jl]<dl) {
+        dl = d[ii][jl];
+        il = jl;
+      }
+    }
+    u[ii] = il+lmin;
+    while (ii!=ie) {
+      int ji = max(0,min(nim1,ii+is));
+      int jb = max(0,min(nim1,ii+is*b));
+      int ilm1 = il-1; if (ilm1==-1) ilm1 = 0;
+      int ilp1 = il+1; if (ilp1==nl) ilp1 = nlm1;
+      float dm = d[jb][ilm1];
+      float di = d[ji][il  ];
+      float dp = d[jb][ilp1];
+      for (int kb=ji; kb!=jb; kb+=is) {
+        dm += a[kb]+s[kb]*(q[kb][ilm1]&0xffff);
+        dp += a[kb]+s[kb]*(q[kb][ilp1]&0xffff);
+      }
+      dl = min3(dm,di,dp);
+      if (dl!=di) {
+        if (dl==dm) {
+          il = ilm1;
+        } else {
+          il = ilp1;
+        }
+      }
+      ii += is;
+      u[ii] = il+lmin;
+      if (il==ilm1 || il==ilp1) {
+        float du = (u[ii]-u[ii-is])*ob;
+        u[ii] = u[ii-is]+du;
+        for (int kb=ji; kb!=jb; kb+=is) {
+          ii += is;
+          u[ii] = u[ii-is]+du;
+        }
+      }
+    }
+  }
+
   /**
    * Shifts and scales alignment errors to be in range [0,1].
    * @param emin minimum alignment error before normalizing.
@@ -1353,6 +1723,35 @@ public class DynamicWarping {
     }});
   }
 
+  /**
+   * Returns minimum and maximum alignment errors.
+   * @param e array of alignment errors.
+   * @return the minimum and maximum errors.
+   */
+  private static MinMax minMax(float[][][] e) {
+    final float[][][] ef = e;
+    int n2 = e.length;
+    MinMax mm = Parallel.reduce(n2,new Parallel.ReduceInt<MinMax>() {
+    public MinMax compute(int i2) {
+      int nl = ef[i2][0].length;
+      int n1 = ef[i2].length;
+      float emin =  Float.MAX_VALUE;
+      float emax = -Float.MAX_VALUE;
+      for (int i1=0; i1<n1; ++i1) {
+        for (int il=0; il<nl; ++il) {
+          float ei = ef[i2][i1][il];
+          if (ei<emin) emin = ei;
+          if (ei>emax) emax = ei;
+        }
+      }
+      return new MinMax(emin,emax);
+    }
+    public MinMax combine(MinMax mm1, MinMax mm2) {
+      return new MinMax(min(mm1.emin,mm2.emin),max(mm1.emax,mm2.emax));
+    }});
+    return mm;
+  }
+
   /**
    * Smooths alignment errors in 1st dimension.
    * Does not normalize errors after smoothing.
@@ -1554,12 +1953,307 @@ public class DynamicWarping {
     if (_ref2!=null) _ref2.apply2(u,u);
     if (_ref3!=null) _ref3.apply3(u,u);
   }
+  private void writeShifts(int i3, float[][] u3, Float3 u) {
+    int n2 = u3.length;
+    int n1 = u3[0].length;
+    if (_ref1!=null) _ref1.apply1(u3,u3);
+    if (_ref2!=null) _ref2.apply2(u3,u3);
+    u.set12(n1,n2,0,0,i3,u3);
+  }
   private static class MinMax {
     float emin,emax;
     MinMax(float emin, float emax) {
       this.emin = emin;
       this.emax = emax;
     }
+    MinMax combine(MinMax mm) {
+      return new MinMax(min(emin,mm.emin),max(emax,mm.emax));
+    }
+  }
+
+  ///////////////////////////////////////////////////////////////////////////
+  // for image warping with compact alignment errors
+
+  // Computes shifts for an array[m3][m2] of traces, with m3 = 1 for 2D
+  // images, and m3 > 1 for windows of 3D images. Performs the same steps
+  // as for errors stored as floats, but with compact errors decoded and
+  // encoded for one trace or one column of samples at a time.
+  private void computeShiftsCompact(
+    float[][][] f, float[][][] g, float[][][] u)
+  {
+    final int nl = _nl;
+    final int n1 = f[0][0].length;
+    final int m2 = f[0].length;
+    final int m3 = f.length;
+    final float[][][] ff = f;
+    final float[][][] gf = g;
+    final float[][][] uf = u;
+    final CompactErrors ce = new CompactErrors(m2*m3,n1,nl);
+    final Parallel.Unsafe<float[][]> eu = new Parallel.Unsafe<float[][]>();
+    Parallel.loop(m2*m3,new Parallel.LoopInt() {
+    public void compute(int it) {
+      float[][] e = eu.get();
+      if (e==null) eu.set(e=new float[n1][nl]);
+      computeErrors(ff[it/m2][it%m2],gf[it/m2][it%m2],e);
+      ce.set(it,e);
+    }});
+    ce.normalize();
+    for (int is=0; is<_esmooth; ++is) {
+      smoothErrors1(_bstrain1,ce);
+      smoothErrors2(_bstrain2,m2,1,m3,m2,ce);
+      if (m3>1)
+        smoothErrors2(_bstrain3,m3,m2,m2,1,ce);
+    }
+    final Parallel.Unsafe<float[][]> du = new Parallel.Unsafe<float[][]>();
+    Parallel.loop(m2*m3,new Parallel.LoopInt() {
+    public void compute(int it) {
+      float[][] d = du.get();
+      if (d==null) du.set(d=new float[n1][nl]);
+      accumulate(1,_bstrain1,ce.q[it],ce.a[it],ce.s[it],d);
+      backtrack(-1,_bstrain1,_lmin,d,ce.q[it],ce.a[it],ce.s[it],
+                uf[it/m2][it%m2]);
+    }});
+  }
+
+  // Smooths and normalizes compact errors in the 1st dimension.
+  private static void smoothErrors1(final int b, final CompactErrors ce) {
+    final int nl = ce.nl;
+    final int n1 = ce.n1;
+    final Parallel.Unsafe<float[][]> eu = new Parallel.Unsafe<float[][]>();
+    Parallel.loop(ce.nt,new Parallel.LoopInt() {
+    public void compute(int it) {
+      float[][] e = eu.get();
+      if (e==null) eu.set(e=new float[n1][nl]);
+      ce.get(it,e);
+      smoothErrors1(b,e,e);
+      ce.set(it,e);
+    }});
+    ce.normalize();
+  }
+
+  // Smooths and normalizes compact errors across traces. For each of nc 
+  // columns ic and each sample i1, the errors smoothed together are those 
+  // for m traces with indices it = ic*dc+j*dt, for j = 0, 1, ..., m-1.
+  private static void smoothErrors2(
+    final int b, final int m, final int dt, int nc, final int dc,
+    final CompactErrors ce)
+  {
+    final int nl = ce.nl;
+    final int n1 = ce.n1;
+    final Parallel.Unsafe<float[][]> eu = new Parallel.Unsafe<float[][]>();
+    Parallel.loop(nc*n1,new Parallel.LoopInt() {
+    public void compute(int i) {
+      float[][] e = eu.get();
+      if (e==null) eu.set(e=new float[m][nl]);
+      int i1 = i%n1;
+      int it = (i/n1)*dc;
+      for (int j=0; j<m; ++j)
+        ce.get(it+j*dt,i1,e[j]);
+      smoothErrors1(b,e,e);
+      for (int j=0; j<m; ++j)
+        ce.set(it+j*dt,i1,e[j]);
+    }});
+    ce.normalize();
+  }
+
+  // Alignment errors stored as 16-bit integers. For each trace it and
+  // sample i1, errors e[il] = a[it][i1]+s[it][i1]*(q[it][i1][il]&0xffff)
+  // for all lags il. Normalization changes only the minima a and scale
+  // factors s, because each affine transform of errors is exact.
+  private static class CompactErrors {
+    int nt,n1,nl; // numbers of traces, samples and lags
+    short[][][] q; // quantized errors
+    float[][] a; // minimum errors
+    float[][] s; // scale factors
+    CompactErrors(int nt, int n1, int nl) {
+      this.nt = nt;
+      this.n1 = n1;
+      this.nl = nl;
+      q = new short[nt][n1][nl];
+      a = new float[nt][n1];
+      s = new float[nt][n1];
+    }
+    void get(int it, int i1, float[] e) {
+      float ai = a[it][i1], si = s[it][i1];
+      short[] qi = q[it][i1];
+      for (int il=0; il<nl; ++il)
+        e[il] = ai+si*(qi[il]&0xffff);
+    }
+    void set(int it, int i1, float[] e) {
+      float emin = e[0];
+      float emax = e[0];
+      for (int il=1; il<nl; ++il) {
+        float ei = e[il];
+        if (ei<emin) emin = ei;
+        if (ei>emax) emax = ei;
+      }
+      float si = (emax-emin)/65535.0f;
+      float oi = (si>0.0f)?1.0f/si:0.0f;
+      short[] qi = q[it][i1];
+      for (int il=0; il<nl; ++il)
+        qi[il] = (short)min(65535,(int)((e[il]-emin)*oi+0.5f));
+      a[it][i1] = emin;
+      s[it][i1] = si;
+    }
+    void get(int it, float[][] e) {
+      for (int i1=0; i1<n1; ++i1)
+        get(it,i1,e[i1]);
+    }
+    void set(int it, float[][] e) {
+      for (int i1=0; i1<n1; ++i1)
+        set(it,i1,e[i1]);
+    }
+    void normalize() {
+      float emin =  Float.MAX_VALUE;
+      float emax = -Float.MAX_VALUE;
+      for (int it=0; it<nt; ++it) {
+        for (int i1=0; i1<n1; ++i1) {
+          float ai = a[it][i1];
+          float bi = ai+s[it][i1]*65535.0f;
+          if (ai<emin) emin = ai;
+          if (bi>emax) emax = bi;
+        }
+      }
+      float eshift = emin;
+      float escale = (emax>emin)?1.0f/(emax-emin):1.0f;
+      for (int it=0; it<nt; ++it) {
+        for (int i1=0; i1<n1; ++i1) {
+          a[it][i1] = (a[it][i1]-eshift)*escale;
+          s[it][i1] *= escale;
+        }
+      }
+    }
+  }
+
+  ///////////////////////////////////////////////////////////////////////////
+  // for 3D image warping with alignment errors stored in a file
+
+  // Computes shifts for one window of 3D images. Performs the same
+  // computations as those for errors stored in an array[l3][l2][n1][nl],
+  // but with errors stored in a file, one slice or column at a time.
+  private void computeShifts(
+    float[][][] f, float[][][] g, ErrorFile ef, float[][][] u)
+    throws IOException
+  {
+    final int nl = _nl;
+    final int n1 = f[0][0].length;
+    final int l2 = f[0].length;
+    final int l3 = f.length;
+    final float[][][] es = new float[l2][n1][nl];
+    float[][][] ec = (l3==l2)?es:new float[l3][n1][nl];
+    MinMax mm = new MinMax(Float.MAX_VALUE,-Float.MAX_VALUE);
+    for (int j3=0; j3<l3; ++j3) {
+      final float[][] f3 = f[j3];
+      final float[][] g3 = g[j3];
+      Parallel.loop(l2,new Parallel.LoopInt() {
+      public void compute(int j2) {
+        computeErrors(f3[j2],g3[j2],es[j2]);
+      }});
+      mm = mm.combine(minMax(es));
+      ef.writeSlice(j3,es);
+    }
+    mm = smoothErrors(ef,0,0,mm,es);
+    for (int is=0; is<_esmooth; ++is) {
+      mm = smoothErrors(ef,1,_bstrain1,mm,es);
+      mm = smoothErrors(ef,2,_bstrain2,mm,es);
+      mm = smoothErrors(ef,3,_bstrain3,mm,ec);
+    }
+    final Parallel.Unsafe<float[][]> du = new Parallel.Unsafe<float[][]>();
+    for (int j3=0; j3<l3; ++j3) {
+      ef.readSlice(j3,es);
+      shiftAndScale(mm.emin,mm.emax,es);
+      final float[][] u3 = u[j3];
+      Parallel.loop(l2,new Parallel.LoopInt() {
+      public void compute(int j2) {
+        float[][] d = du.get();
+        if (d==null) du.set(d=new float[n1][nl]);
+        accumulateForward(es[j2],d);
+        backtrackReverse(d,es[j2],u3[j2]);
+      }});
+    }
+  }
+
+  // Reads, normalizes, smooths and rewrites all errors in a file.
+  // Errors are normalized using the specified minimum and maximum, 
+  // and smoothed in the specified dimension, or not smoothed if that
+  // dimension is zero. Returns minimum and maximum smoothed errors.
+  private static MinMax smoothErrors(
+    ErrorFile ef, int dim, int b, MinMax mm, float[][][] e)
+    throws IOException
+  {
+    MinMax mms = new MinMax(Float.MAX_VALUE,-Float.MAX_VALUE);
+    int m = (dim<3)?ef._l3:ef._l2;
+    for (int j=0; j<m; ++j) {
+      if (dim<3) {
+        ef.readSlice(j,e);
+      } else {
+        ef.readColumn(j,e);
+      }
+      shiftAndScale(mm.emin,mm.emax,e);
+      if (dim==1) {
+        smoothErrors1(b,e,e);
+      } else if (dim>1) {
+        smoothErrors2(b,e,e);
+      }
+      mms = mms.combine(minMax(e));
+      if (dim<3) {
+        ef.writeSlice(j,e);
+      } else {
+        ef.writeColumn(j,e);
+      }
+    }
+    return mms;
+  }
+
+  // Temporary file of alignment errors for one window of 3D images.
+  // Errors are stored as an array[l3][l2][n1][nl], and are read and 
+  // written as slices array[l2][n1][nl] for constant indices j3 or as 
+  // columns array[l3][n1][nl] for constant indices j2.
+  private static class ErrorFile {
+    ErrorFile(File dir, int n1, int l2, int l3, int nl) throws IOException {
+      _file = File.createTempFile("dwe",".dat",dir);
+      _af = new ArrayFile(_file,"rw");
+      _l2 = l2;
+      _l3 = l3;
+      _n1 = n1;
+      _nl = nl;
+    }
+    void readSlice(int j3, float[][][] e) throws IOException {
+      _af.seek(offset(0,j3));
+      _af.readFloats(e);
+    }
+    void writeSlice(int j3, float[][][] e) throws IOException {
+      _af.seek(offset(0,j3));
+      _af.writeFloats(e);
+    }
+    void readColumn(int j2, float[][][] e) throws IOException {
+      int l3 = e.length;
+      for (int j3=0; j3<l3; ++j3) {
+        _af.seek(offset(j2,j3));
+        _af.readFloats(e[j3]);
+      }
+    }
+    void writeColumn(int j2, float[][][] e) throws IOException {
+      int l3 = e.length;
+      for (int j3=0; j3<l3; ++j3) {
+        _af.seek(offset(j2,j3));
+        _af.writeFloats(e[j3]);
+      }
+    }
+    void delete() {
+      try {
+        _af.close();
+      } catch (IOException e) {
+        // ignore, because the file is no longer needed
+      }
+      _file.delete();
+    }
+    private File _file;
+    private ArrayFile _af;
+    private int _l2,_l3,_n1,_nl;
+    private long offset(int j2, int j3) {
+      return 4L*_nl*_n1*(j2+(long)_l2*j3);
+    }
   }
   private static class OverlappingWindows2 {
     public OverlappingWindows2(
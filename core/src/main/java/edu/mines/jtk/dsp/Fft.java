@@ -586,6 +586,7 @@ public class Fft {
   private boolean _center1,_center2,_center3;
   private boolean _complex;
   private boolean _overwrite;
+  private double[][] _cs1,_cs2,_cs3; // cosines and sines of phase shifts
 
   private void updateSampling1() {
     if (_sx1==null)
@@ -628,6 +629,7 @@ public class Fft {
       }
     }
     _sk1 = new Sampling(nk,dk,fk);
+    _cs1 = phases((_complex)?nfft:nfft/2+1,2.0*PI*dk*_sx1.getFirst());
     //trace("sk1: nfft="+nfft+" nk="+nk+" dk="+dk+" fk="+fk);
   }
   private void updateSampling2() {
@@ -653,6 +655,7 @@ public class Fft {
       _nfft2 = nfft;
     }
     _sk2 = new Sampling(nk,dk,fk);
+    _cs2 = phases(nfft,2.0*PI*dk*_sx2.getFirst());
     //trace("sk2: nfft="+nfft+" nk="+nk+" dk="+dk+" fk="+fk);
   }
   private void updateSampling3() {
@@ -678,6 +681,7 @@ public class Fft {
       _nfft3 = nfft;
     }
     _sk3 = new Sampling(nk,dk,fk);
+    _cs3 = phases(nfft,2.0*PI*dk*_sx3.getFirst());
     //trace("sk3: nfft="+nfft+" nk="+nk+" dk="+dk+" fk="+fk);
   }
 
@@ -1085,6 +1089,21 @@ public class Fft {
     f[i] = fm;
   }
 
+  // Returns cosines and sines of phase shifts i*dp, for i = 0, 1, ..., n-1,
+  // cached so that phase shifts need not be recomputed for every transform.
+  // Returns null if all phase shifts are zero.
+  private static double[][] phases(int n, double dp) {
+    if (dp==0.0)
+      return null;
+    double[][] cs = new double[2][n];
+    for (int i=0; i<n; ++i) {
+      double p = i*dp;
+      cs[0][i] = Math.cos(p);
+      cs[1][i] = Math.sin(p);
+    }
+    return cs;
+  }
+
   private void phase(float[] f) {
     phase(_sign1,f);
   }
@@ -1092,15 +1111,13 @@ public class Fft {
     phase(-_sign1,f);
   }
   private void phase(int sign1, float[] f) {
-    double fx = _sx1.getFirst();
-    if (fx==0.0)
+    if (_cs1==null)
       return;
     int nk = (_complex)?_nfft1:_nfft1/2+1;
-    double dp = sign1*2.0*PI*_sk1.getDelta()*fx;
+    double[] c1 = _cs1[0], s1 = _cs1[1];
     for (int i=0,ir=0,ii=1; i<nk; ++i,ir+=2,ii+=2) {
-      float p = (float)(i*dp);
-      float cosp = cos(p);
-      float sinp = sin(p);
+      float cosp = (float)c1[i];
+      float sinp = (float)(sign1*s1[i]);
       float fr = f[ir];
       float fi = f[ii];
       f[ir] = fr*cosp-fi*sinp;
@@ -1114,26 +1131,17 @@ public class Fft {
     phase(-_sign1,-_sign2,f);
   }
   private void phase(int sign1, int sign2, float[][] f) {
-    double fx1 = _sx1.getFirst();
-    double fx2 = _sx2.getFirst();
-    if (fx1==0.0 && fx2==0.0)
+    if (_cs1==null && _cs2==null)
       return;
     int nk1 = (_complex)?_nfft1:_nfft1/2+1;
     int nk2 = _nfft2;
-    double dp1 = sign1*2.0*PI*_sk1.getDelta()*fx1;
-    double dp2 = sign2*2.0*PI*_sk2.getDelta()*fx2;
+    double[][] cs1 = (_cs1!=null)?_cs1:phases0(nk1);
+    double[][] cs2 = (_cs2!=null)?_cs2:phases0(nk2);
+    double[] c1 = cs1[0], s1 = cs1[1];
     for (int i2=0; i2<nk2; ++i2) {
-      double p2 = i2*dp2;
-      float[] f2 = f[i2];
-      for (int i1=0,ir=0,ii=1; i1<nk1; ++i1,ir+=2,ii+=2) {
-        float p = (float)(i1*dp1+p2);
-        float cosp = cos(p);
-        float sinp = sin(p);
-        float fr = f2[ir];
-        float fi = f2[ii];
-        f2[ir] = fr*cosp-fi*sinp;
-        f2[ii] = fi*cosp+fr*sinp;
-      }
+      double c2 = cs2[0][i2];
+      double s2 = sign2*cs2[1][i2];
+      phase(sign1,nk1,c1,s1,c2,s2,f[i2]);
     }
   }
   private void phase(float[][][] f) {
@@ -1143,31 +1151,49 @@ public class Fft {
     phase(-_sign1,-_sign2,-_sign3,f);
   }
   private void phase(int sign1, int sign2, int sign3, float[][][] f) {
-    double fx1 = _sx1.getFirst();
-    double fx2 = _sx2.getFirst();
-    double fx3 = _sx3.getFirst();
-    if (fx1==0.0 && fx2==0.0 && fx3==0.0)
+    if (_cs1==null && _cs2==null && _cs3==null)
       return;
     int nk1 = (_complex)?_nfft1:_nfft1/2+1;
     int nk2 = _nfft2;
     int nk3 = _nfft3;
-    double dp1 = sign1*2.0*PI*_sk1.getDelta()*fx1;
-    double dp2 = sign2*2.0*PI*_sk2.getDelta()*fx2;
-    double dp3 = sign3*2.0*PI*_sk3.getDelta()*fx3;
+    double[][] cs1 = (_cs1!=null)?_cs1:phases0(nk1);
+    double[][] cs2 = (_cs2!=null)?_cs2:phases0(nk2);
+    double[][] cs3 = (_cs3!=null)?_cs3:phases0(nk3);
+    double[] c1 = cs1[0], s1 = cs1[1];
     for (int i3=0; i3<nk3; ++i3) {
+      double c3 = cs3[0][i3];
+      double s3 = sign3*cs3[1][i3];
       for (int i2=0; i2<nk2; ++i2) {
-        double p23 = i2*dp2+i3*dp3;
-        float[] f32 = f[i3][i2];
-        for (int i1=0,ir=0,ii=1; i1<nk1; ++i1,ir+=2,ii+=2) {
-          float p = (float)(i1*dp1+p23);
-          float cosp = cos(p);
-          float sinp = sin(p);
-          float fr = f32[ir];
-          float fi = f32[ii];
-          f32[ir] = fr*cosp-fi*sinp;
-          f32[ii] = fi*cosp+fr*sinp;
-        }
+        double c2 = cs2[0][i2];
+        double s2 = sign2*cs2[1][i2];
+        double c23 = c2*c3-s2*s3;
+        double s23 = s2*c3+c2*s3;
+        phase(sign1,nk1,c1,s1,c23,s23,f[i3][i2]);
       }
     }
   }
+
+  // Cosines and sines of zero phase shifts.
+  private static double[][] phases0(int n) {
+    double[][] cs = new double[2][n];
+    fill(1.0,cs[0]);
+    return cs;
+  }
+
+  // Applies phase shifts to one array of complex values. The phase shift
+  // of each value is the sum of the shifts (c1,s1) and the shift (c,s).
+  private static void phase(
+    int sign1, int nk1, double[] c1, double[] s1, double c, double s,
+    float[] f)
+  {
+    for (int i1=0,ir=0,ii=1; i1<nk1; ++i1,ir+=2,ii+=2) {
+      double si1 = sign1*s1[i1];
+      float cosp = (float)(c1[i1]*c-si1*s);
+      float sinp = (float)(si1*c+c1[i1]*s);
+      float fr = f[ir];
+      float fi = f[ii];
+      f[ir] = fr*cosp-fi*sinp;
+      f[ii] = fi*cosp+fr*sinp;
+    }
+  }
 }
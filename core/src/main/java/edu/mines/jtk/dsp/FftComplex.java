@@ -16,6 +16,7 @@ package edu.mines.jtk.dsp;
 
 import static edu.mines.jtk.util.ArrayMath.*;
 import edu.mines.jtk.util.Check;
+import edu.mines.jtk.util.Parallel;
 
 /**
  * Fast Fourier transform of complex-valued arrays. The FFT length 
@@ -39,6 +40,12 @@ import edu.mines.jtk.util.Check;
  * numbers to an output array cy[nfft][2*n1] of nfft*n1 complex numbers. 
  * In either case, the input array cx and the output array cy may be the 
  * same array, such that the transform may be performed in-place. 
+ * <p>
+ * Transforms of multi-dimensional arrays are performed in parallel, for
+ * multiple rows, columns, or planes of those arrays. Transforms along the 
+ * 2nd and 3rd dimensions of large arrays are performed in place for blocks 
+ * of columns, with blocks narrow enough that all rows of a block fit in 
+ * cache. Columns are neither copied nor transposed.
  * @author Dave Hale, Colorado School of Mines
  * @version 2005.03.21
  */
@@ -55,6 +62,30 @@ public class FftComplex {
     _nfft = nfft;
   }
 
+  /**
+   * Determines whether SIMD (vector) instructions are available for FFTs.
+   * These instructions require the incubating Java Vector API, which must 
+   * be enabled with the JVM option --add-modules jdk.incubator.vector, and
+   * classes that are built only with JDK 16 or later.
+   * @return true, if available; false, otherwise.
+   */
+  public static boolean isVectorAvailable() {
+    return Pfacc.isVectorAvailable();
+  }
+
+  /**
+   * Enables or disables SIMD (vector) instructions, if available, for
+   * multiple FFTs of 2D and 3D arrays. By default, SIMD instructions are
+   * used if available.
+   * <p>
+   * <em>Setting this flag affects all complex and real FFTs.</em> This 
+   * method should therefore be used for benchmarking only.
+   * @param vectorized true, for SIMD instructions; false, otherwise.
+   */
+  public static void setVectorized(boolean vectorized) {
+    Pfacc.setVectorized(vectorized);
+  }
+
   /**
    * Returns an FFT length optimized for memory. The FFT length will be the 
    * smallest valid length that is not less than the specified length n.
@@ -117,12 +148,17 @@ public class FftComplex {
    * @param cx the input array.
    * @param cy the output array.
    */
-  public void complexToComplex1(int sign, int n2, float[][] cx, float[][] cy) {
+  public void complexToComplex1(
+    final int sign, int n2, final float[][] cx, final float[][] cy) 
+  {
     checkSign(sign);
     checkArray(2*_nfft,n2,cx,"cx");
     checkArray(2*_nfft,n2,cy,"cy");
-    for (int i2=0; i2<n2; ++i2)
-      complexToComplex(sign,cx[i2],cy[i2]);
+    Parallel.loop(n2,new Parallel.LoopInt() {
+      public void compute(int i2) {
+        complexToComplex(sign,cx[i2],cy[i2]);
+      }
+    });
   }
 
   /**
@@ -140,7 +176,7 @@ public class FftComplex {
     checkArray(2*n1,_nfft,cy,"cy");
     if (cx!=cy) 
       ccopy(n1,_nfft,cx,cy);
-    Pfacc.transform2a(sign,n1,_nfft,cy);
+    Pfacc.transform2aParallel(sign,n1,_nfft,cy);
   }
 
   /**
@@ -155,13 +191,17 @@ public class FftComplex {
    * @param cy the output array.
    */
   public void complexToComplex1(
-    int sign, int n2, int n3, float[][][] cx, float[][][] cy)
+    final int sign, final int n2, int n3, 
+    final float[][][] cx, final float[][][] cy)
   {
     checkSign(sign);
     checkArray(2*_nfft,n2,n3,cx,"cx");
     checkArray(2*_nfft,n2,n3,cy,"cy");
-    for (int i3=0; i3<n3; ++i3)
+    Parallel.loop(n3,new Parallel.LoopInt() {
+      public void compute(int i3) {
         complexToComplex1(sign,n2,cx[i3],cy[i3]);
+      }
+    });
   }
 
   /**
@@ -176,13 +216,17 @@ public class FftComplex {
    * @param cy the output array.
    */
   public void complexToComplex2(
-    int sign, int n1, int n3, float[][][] cx, float[][][] cy)
+    final int sign, final int n1, int n3, 
+    final float[][][] cx, final float[][][] cy)
   {
     checkSign(sign);
     checkArray(2*n1,_nfft,n3,cx,"cx");
     checkArray(2*n1,_nfft,n3,cy,"cy");
-    for (int i3=0; i3<n3; ++i3)
+    Parallel.loop(n3,new Parallel.LoopInt() {
+      public void compute(int i3) {
         complexToComplex2(sign,n1,cx[i3],cy[i3]);
+      }
+    });
   }
 
   /**
@@ -197,20 +241,23 @@ public class FftComplex {
    * @param cy the output array.
    */
   public void complexToComplex3(
-    int sign, int n1, int n2, float[][][] cx, float[][][] cy)
+    final int sign, final int n1, int n2, 
+    final float[][][] cx, final float[][][] cy)
   {
     checkSign(sign);
     checkArray(2*n1,n2,_nfft,cx,"cx");
     checkArray(2*n1,n2,_nfft,cy,"cy");
-    float[][] cxi2 = new float[_nfft][];
-    float[][] cyi2 = new float[_nfft][];
-    for (int i2=0; i2<n2; ++i2) {
-      for (int i3=0; i3<_nfft; ++i3) {
-        cxi2[i3] = cx[i3][i2];
-        cyi2[i3] = cy[i3][i2];
+    Parallel.loop(n2,new Parallel.LoopInt() {
+      public void compute(int i2) {
+        float[][] cxi2 = new float[_nfft][];
+        float[][] cyi2 = new float[_nfft][];
+        for (int i3=0; i3<_nfft; ++i3) {
+          cxi2[i3] = cx[i3][i2];
+          cyi2[i3] = cy[i3][i2];
+        }
+        complexToComplex2(sign,n1,cxi2,cyi2);
       }
-      complexToComplex2(sign,n1,cxi2,cyi2);
-    }
+    });
   }
 
   /**
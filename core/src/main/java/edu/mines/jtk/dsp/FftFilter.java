@@ -55,8 +55,11 @@ import static edu.mines.jtk.util.ArrayMath.*;
  * array x. The filter may then be applied again, without recomputing 
  * its FFT, to other input arrays x that have the same lengths. The FFT 
  * of a cached filter is recomputed only when the lengths of the input 
- * and output arrays have changed. Because this caching consumes memory,
- * it is disabled by default.
+ * and output arrays have changed such that FFT lengths have changed.
+ * When caching, the filter also retains the padded array used to compute
+ * the FFT of each input array, so that repeated application of the filter
+ * to arrays with the same lengths requires no new memory. Because this
+ * caching consumes memory, it is disabled by default.
  *
  * @author Dave Hale, Colorado School of Mines
  * @version 2009.12.14
@@ -168,7 +171,9 @@ public class FftFilter {
    * Enables or disables caching of the Fourier transform of the filter.
    * Caching consumes memory but improves performance by about 50% when
    * the same filter is applied repeatedly to arrays that have the same
-   * dimensions.
+   * dimensions. Caching also retains the padded work array used to
+   * transform input arrays, so that such repeated applications do not
+   * allocate memory.
    * @param filterCaching true, to enable caching; false, to disable.
    */
   public void setFilterCaching(boolean filterCaching) {
@@ -196,7 +201,7 @@ public class FftFilter {
     Check.state(_h1!=null,"1D filter is available");
     int nx1 = x.length;
     updateFfts(nx1);
-    float[] xfft = new float[_nfft1+2];
+    float[] xfft = work1();
     copy(nx1,x,xfft);
     extrapolate(xfft);
     _fft1.realToComplex(-1,xfft,xfft);
@@ -236,7 +241,7 @@ public class FftFilter {
     int nx1 = x[0].length;
     int nx2 = x.length;
     updateFfts(nx1,nx2);
-    float[][] xfft = new float[_nfft2][_nfft1+2];
+    float[][] xfft = work2();
     copy(nx1,nx2,x,xfft);
     extrapolate(xfft);
     _fft1.realToComplex1(-1,_nfft2,xfft,xfft);
@@ -284,7 +289,7 @@ public class FftFilter {
     int nx2 = x[0].length;
     int nx3 = x.length;
     updateFfts(nx1,nx2,nx3);
-    float[][][] xfft = new float[_nfft3][_nfft2][_nfft1+2];
+    float[][][] xfft = work3();
     copy(nx1,nx2,nx3,x,xfft);
     extrapolate(xfft);
     _fft1.realToComplex1(-1,_nfft2,_nfft3,xfft,xfft);
@@ -326,15 +331,19 @@ public class FftFilter {
   private float[] _h1,_h1fft;
   private float[][] _h2,_h2fft;
   private float[][][] _h3,_h3fft;
+  private float[] _x1fft; // cached work array for 1D filters
+  private float[][] _x2fft; // cached work array for 2D filters
+  private float[][][] _x3fft; // cached work array for 3D filters
   private Extrapolation _extrapolation = Extrapolation.ZERO_VALUE;
   private boolean _filterCaching;
 
   private void updateFfts(int nx1) {
-    if (_fft1==null || _h1fft==null || _nx1!=nx1) {
-      _nx1 = nx1;
-      _nx2 = 0;
-      _nx3 = 0;
-      _nfft1 = FftReal.nfftFast(_nx1+_nh1);
+    _nx1 = nx1;
+    _nx2 = 0;
+    _nx3 = 0;
+    int nfft1 = FftReal.nfftFast(nx1+_nh1);
+    if (_fft1==null || _h1fft==null || _nfft1!=nfft1) {
+      _nfft1 = nfft1;
       _fft1 = new FftReal(_nfft1);
       _fft2 = null;
       _fft3 = null;
@@ -352,12 +361,14 @@ public class FftFilter {
   }
 
   private void updateFfts(int nx1, int nx2) {
-    if (_fft2==null || _h2fft==null || _nx1!=nx1 || _nx2!=nx2) {
-      _nx1 = nx1;
-      _nx2 = nx2;
-      _nx3 = 0;
-      _nfft1 = FftReal.nfftFast(_nx1+_nh1);
-      _nfft2 = FftComplex.nfftFast(_nx2+_nh2);
+    _nx1 = nx1;
+    _nx2 = nx2;
+    _nx3 = 0;
+    int nfft1 = FftReal.nfftFast(nx1+_nh1);
+    int nfft2 = FftComplex.nfftFast(nx2+_nh2);
+    if (_fft2==null || _h2fft==null || _nfft1!=nfft1 || _nfft2!=nfft2) {
+      _nfft1 = nfft1;
+      _nfft2 = nfft2;
       _fft1 = new FftReal(_nfft1);
       _fft2 = new FftComplex(_nfft2);
       _fft3 = null;
@@ -380,13 +391,17 @@ public class FftFilter {
   }
 
   private void updateFfts(int nx1, int nx2, int nx3) {
-    if (_fft3==null || _h3fft==null || _nx1!=nx1 || _nx2!=nx2 || _nx3!=nx3) {
-      _nx1 = nx1;
-      _nx2 = nx2;
-      _nx3 = nx3;
-      _nfft1 = FftReal.nfftFast(_nx1+_nh1);
-      _nfft2 = FftComplex.nfftFast(_nx2+_nh2);
-      _nfft3 = FftComplex.nfftFast(_nx3+_nh3);
+    _nx1 = nx1;
+    _nx2 = nx2;
+    _nx3 = nx3;
+    int nfft1 = FftReal.nfftFast(nx1+_nh1);
+    int nfft2 = FftComplex.nfftFast(nx2+_nh2);
+    int nfft3 = FftComplex.nfftFast(nx3+_nh3);
+    if (_fft3==null || _h3fft==null ||
+        _nfft1!=nfft1 || _nfft2!=nfft2 || _nfft3!=nfft3) {
+      _nfft1 = nfft1;
+      _nfft2 = nfft2;
+      _nfft3 = nfft3;
       _fft1 = new FftReal(_nfft1);
       _fft2 = new FftComplex(_nfft2);
       _fft3 = new FftComplex(_nfft3);
@@ -413,6 +428,40 @@ public class FftFilter {
     }
   }
 
+  // Returns zeroed work arrays for FFTs of input arrays. Work arrays are
+  // retained only if caching, and are reused if FFT lengths are unchanged.
+  private float[] work1() {
+    float[] xfft = _x1fft;
+    if (xfft==null || xfft.length!=_nfft1+2) {
+      xfft = new float[_nfft1+2];
+    } else {
+      zero(xfft);
+    }
+    _x1fft = (_filterCaching)?xfft:null;
+    return xfft;
+  }
+  private float[][] work2() {
+    float[][] xfft = _x2fft;
+    if (xfft==null || xfft.length!=_nfft2 || xfft[0].length!=_nfft1+2) {
+      xfft = new float[_nfft2][_nfft1+2];
+    } else {
+      zero(xfft);
+    }
+    _x2fft = (_filterCaching)?xfft:null;
+    return xfft;
+  }
+  private float[][][] work3() {
+    float[][][] xfft = _x3fft;
+    if (xfft==null || xfft.length!=_nfft3 || 
+        xfft[0].length!=_nfft2 || xfft[0][0].length!=_nfft1+2) {
+      xfft = new float[_nfft3][_nfft2][_nfft1+2];
+    } else {
+      zero(xfft);
+    }
+    _x3fft = (_filterCaching)?xfft:null;
+    return xfft;
+  }
+
   private void extrapolate(float[] xfft) {
     if (_extrapolation==Extrapolation.ZERO_SLOPE) {
       int mr1 = _nx1+_kh1;
@@ -18,6 +18,7 @@ import static java.lang.Math.PI;
 import static java.lang.Math.sin;
 
 import edu.mines.jtk.util.Check;
+import edu.mines.jtk.util.Parallel;
 
 /**
  * Fast Fourier transform of real-valued arrays. The FFT length nfft 
@@ -54,6 +55,12 @@ import edu.mines.jtk.util.Check;
  * of complex numbers in multi-dimensional arrays of floats. (See above.)
  * Therefore, dimension-1 transforms are best when performing real-to-complex 
  * or complex-to-real transforms of multi-dimensional arrays.
+ * <p>
+ * Transforms of multi-dimensional arrays are performed in parallel, for
+ * multiple rows, columns, or planes of those arrays. Dimension-2 transforms
+ * of large arrays are performed in place for blocks of columns, with blocks
+ * narrow enough that all rows of a block fit in cache. Columns are neither
+ * copied nor transposed.
  * @author Dave Hale, Colorado School of Mines
  * @version 2005.03.21
  */
@@ -203,12 +210,17 @@ public class FftReal {
    * @param rx the input array.
    * @param cy the output array.
    */
-  public void realToComplex1(int sign, int n2, float[][] rx, float[][] cy) {
+  public void realToComplex1(
+    final int sign, int n2, final float[][] rx, final float[][] cy) 
+  {
     checkSign(sign);
     checkArray(_nfft,n2,rx,"rx");
     checkArray(_nfft+2,n2,cy,"cy");
-    for (int i2=0; i2<n2; ++i2)
-      realToComplex(sign,rx[i2],cy[i2]);
+    Parallel.loop(n2,new Parallel.LoopInt() {
+      public void compute(int i2) {
+        realToComplex(sign,rx[i2],cy[i2]);
+      }
+    });
   }
 
   /**
@@ -220,12 +232,17 @@ public class FftReal {
    * @param cx the input array.
    * @param ry the output array.
    */
-  public void complexToReal1(int sign, int n2, float[][] cx, float[][] ry) {
+  public void complexToReal1(
+    final int sign, int n2, final float[][] cx, final float[][] ry) 
+  {
     checkSign(sign);
     checkArray(_nfft+2,n2,cx,"cx");
     checkArray(_nfft,n2,ry,"ry");
-    for (int i2=0; i2<n2; ++i2)
-      complexToReal(sign,cx[i2],ry[i2]);
+    Parallel.loop(n2,new Parallel.LoopInt() {
+      public void compute(int i2) {
+        complexToReal(sign,cx[i2],ry[i2]);
+      }
+    });
   }
 
   /**
@@ -252,7 +269,7 @@ public class FftReal {
     }
 
     // Dimension-2 complex-to-complex transform.
-    Pfacc.transform2a(sign,n1,_nfft/2,cy);
+    Pfacc.transform2aParallel(sign,n1,_nfft/2,cy);
 
     // Finish transform.
     float[] cy0 = cy[0];
@@ -347,7 +364,7 @@ public class FftReal {
     }
 
     // Dimension-2 complex-to-complex transform.
-    Pfacc.transform2b(sign,n1,_nfft/2,ry);
+    Pfacc.transform2bParallel(sign,n1,_nfft/2,ry);
   }
 
   /**
@@ -362,13 +379,17 @@ public class FftReal {
    * @param cy the output array.
    */
   public void realToComplex1(
-    int sign, int n2, int n3, float[][][] rx, float[][][] cy) 
+    final int sign, final int n2, int n3, 
+    final float[][][] rx, final float[][][] cy) 
   {
     checkSign(sign);
     checkArray(_nfft,n2,n3,rx,"rx");
     checkArray(_nfft+2,n2,n3,cy,"cy");
-    for (int i3=0; i3<n3; ++i3)
-      realToComplex1(sign,n2,rx[i3],cy[i3]);
+    Parallel.loop(n3,new Parallel.LoopInt() {
+      public void compute(int i3) {
+        realToComplex1(sign,n2,rx[i3],cy[i3]);
+      }
+    });
   }
 
   /**
@@ -383,13 +404,17 @@ public class FftReal {
    * @param ry the output array.
    */
   public void complexToReal1(
-    int sign, int n2, int n3, float[][][] cx, float[][][] ry) 
+    final int sign, final int n2, int n3, 
+    final float[][][] cx, final float[][][] ry) 
   {
     checkSign(sign);
     checkArray(_nfft+2,n2,n3,cx,"cx");
     checkArray(_nfft,n2,n3,ry,"ry");
-    for (int i3=0; i3<n3; ++i3)
-      complexToReal1(sign,n2,cx[i3],ry[i3]);
+    Parallel.loop(n3,new Parallel.LoopInt() {
+      public void compute(int i3) {
+        complexToReal1(sign,n2,cx[i3],ry[i3]);
+      }
+    });
   }
 
   /**
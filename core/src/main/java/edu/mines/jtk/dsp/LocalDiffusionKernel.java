@@ -311,6 +311,84 @@ public class LocalDiffusionKernel {
     }
   }
 
+  /**
+   * Applies this filter to two arrays xa and xb, accumulating outputs in
+   * arrays ya and yb, for the same tensor coefficients and scale factors.
+   * Equivalent to two applications of this filter, but for the stencil
+   * D71 the tensor coefficients are obtained only once for each sample.
+   * @param d tensor coefficients.
+   * @param c constant scale factor for tensor coefficients.
+   * @param s array of scale factors for tensor coefficients.
+   * @param xa 1st input array.
+   * @param ya 1st output array.
+   * @param xb 2nd input array.
+   * @param yb 2nd output array.
+   */
+  void apply(
+    Tensors2 d, final float c, final float[][] s,
+    final float[][] xa, final float[][] ya,
+    final float[][] xb, final float[][] yb)
+  {
+    if (_stencil!=Stencil.D71 || _npass!=1) {
+      apply(d,c,s,xa,ya);
+      apply(d,c,s,xb,yb);
+      return;
+    }
+    final Tensors2 dd = (d!=null)?d:IDENTITY_TENSORS2;
+    int n2 = xa.length;
+    if (_parallel) {
+      for (int i2start=0; i2start<7 && i2start<n2; ++i2start) {
+        Parallel.loop(i2start,n2,7,new Parallel.LoopInt() {
+          public void compute(int i2) {
+            apply71(i2,dd,c,s,xa,ya,xb,yb);
+          }
+        });
+      }
+    } else {
+      for (int i2=0; i2<n2; ++i2)
+        apply71(i2,dd,c,s,xa,ya,xb,yb);
+    }
+  }
+
+  /**
+   * Applies this filter to two arrays xa and xb, accumulating outputs in
+   * arrays ya and yb, for the same tensor coefficients and scale factors.
+   * Equivalent to two applications of this filter, but for the stencil
+   * D71 the tensor coefficients are obtained only once for each sample.
+   * @param d tensor coefficients.
+   * @param c constant scale factor for tensor coefficients.
+   * @param s array of scale factors for tensor coefficients.
+   * @param xa 1st input array.
+   * @param ya 1st output array.
+   * @param xb 2nd input array.
+   * @param yb 2nd output array.
+   */
+  void apply(
+    Tensors3 d, final float c, final float[][][] s,
+    final float[][][] xa, final float[][][] ya,
+    final float[][][] xb, final float[][][] yb)
+  {
+    if (_stencil!=Stencil.D71 || _npass!=1) {
+      apply(d,c,s,xa,ya);
+      apply(d,c,s,xb,yb);
+      return;
+    }
+    final Tensors3 dd = (d!=null)?d:IDENTITY_TENSORS3;
+    int n3 = xa.length;
+    if (_parallel) {
+      for (int i3start=0; i3start<7 && i3start<n3; ++i3start) {
+        Parallel.loop(i3start,n3,7,new Parallel.LoopInt() {
+          public void compute(int i3) {
+            apply71(i3,dd,c,s,xa,ya,xb,yb);
+          }
+        });
+      }
+    } else {
+      for (int i3=0; i3<n3; ++i3)
+        apply71(i3,dd,c,s,xa,ya,xb,yb);
+    }
+  }
+
   ///////////////////////////////////////////////////////////////////////////
   // private
 
@@ -889,6 +967,71 @@ public class LocalDiffusionKernel {
     }
   }
 
+  // For one row i2 of two arrays xa and xb. Tensor coefficients for the
+  // row are obtained once and stored in arrays, before being used for
+  // both arrays. Rows that differ by 7 or more may be computed in parallel.
+  private void apply71(
+    int i2, Tensors2 d, float c, float[][] s,
+    float[][] xa, float[][] ya, float[][] xb, float[][] yb)
+  {
+    int n1 = xa[0].length;
+    float[] di = new float[3];
+    float[][] e = new float[3][n1];
+    float[] e11 = e[0], e12 = e[1], e22 = e[2];
+    for (int i1=0; i1<n1; ++i1) {
+      d.getTensor(i1,i2,di);
+      float csi = (s!=null)?c*s[i2][i1]:c;
+      e11[i1] = di[0]*csi;
+      e12[i1] = di[1]*csi;
+      e22[i1] = di[2]*csi;
+    }
+    apply71(i2,e,xa,ya);
+    apply71(i2,e,xb,yb);
+  }
+  private static void apply71(int i2, float[][] e, float[][] x, float[][] y) {
+    final float c1 =  C71[1], c2 = C71[2], c3 = C71[3];
+    int n1 = x[0].length;
+    int n2 = x.length;
+    float[] e11 = e[0], e12 = e[1], e22 = e[2];
+    int i2m3 = i2-3; if (i2m3<0) i2m3 = 0;
+    int i2m2 = i2-2; if (i2m2<0) i2m2 = 0;
+    int i2m1 = i2-1; if (i2m1<0) i2m1 = 0;
+    int i2p1 = i2+1; if (i2p1>=n2) i2p1 = n2-1;
+    int i2p2 = i2+2; if (i2p2>=n2) i2p2 = n2-1;
+    int i2p3 = i2+3; if (i2p3>=n2) i2p3 = n2-1;
+    float[] xm3 = x[i2m3], xm2 = x[i2m2], xm1 = x[i2m1];
+    float[] xp3 = x[i2p3], xp2 = x[i2p2], xp1 = x[i2p1];
+    float[] xp0 = x[i2];
+    float[] ym3 = y[i2m3], ym2 = y[i2m2], ym1 = y[i2m1];
+    float[] yp3 = y[i2p3], yp2 = y[i2p2], yp1 = y[i2p1];
+    float[] yp0 = y[i2];
+    int m3,m2=0,m1=0,p0=0,p1=0,p2=1,p3=2;
+    for (int i1=0; i1<n1; ++i1) {
+      m3 = m2; m2 = m1; m1 = p0;
+      p0 = p1; p1 = p2; p2 = p3; ++p3;
+      if (p1>=n1) p1 = n1-1;
+      if (p2>=n1) p2 = n1-1;
+      if (p3>=n1) p3 = n1-1;
+      float d11 = e11[i1];
+      float d12 = e12[i1];
+      float d22 = e22[i1];
+      float x1 = c1*(xp0[p1]-xp0[m1]) +
+                 c2*(xp0[p2]-xp0[m2]) +
+                 c3*(xp0[p3]-xp0[m3]);
+      float x2 = c1*(xp1[p0]-xm1[p0]) +
+                 c2*(xp2[p0]-xm2[p0]) +
+                 c3*(xp3[p0]-xm3[p0]);
+      float y1 = d11*x1+d12*x2;
+      float y2 = d12*x1+d22*x2;
+      float c1y1 = c1*y1; yp0[p1] += c1y1; yp0[m1] -= c1y1;
+      float c2y1 = c2*y1; yp0[p2] += c2y1; yp0[m2] -= c2y1;
+      float c3y1 = c3*y1; yp0[p3] += c3y1; yp0[m3] -= c3y1;
+      float c1y2 = c1*y2; yp1[p0] += c1y2; ym1[p0] -= c1y2;
+      float c2y2 = c2*y2; yp2[p0] += c2y2; ym2[p0] -= c2y2;
+      float c3y2 = c3*y2; yp3[p0] += c3y2; ym3[p0] -= c3y2;
+    }
+  }
+
   private void apply71X(
     int i3, Tensors3 d, float c, float[][][] s, float[][][] x, float[][][] y) 
   {
@@ -1012,6 +1155,105 @@ public class LocalDiffusionKernel {
     }
   }
 
+  // For one slab i3 of two arrays xa and xb. Tensor coefficients for
+  // each row are obtained once and stored in arrays, before being used
+  // for both arrays.
+  private void apply71(
+    int i3, Tensors3 d, float c, float[][][] s,
+    float[][][] xa, float[][][] ya, float[][][] xb, float[][][] yb)
+  {
+    int n1 = xa[0][0].length;
+    int n2 = xa[0].length;
+    float[] di = new float[6];
+    float[][] e = new float[6][n1];
+    float[] e11 = e[0], e12 = e[1], e13 = e[2];
+    float[] e22 = e[3], e23 = e[4], e33 = e[5];
+    for (int i2=0; i2<n2; ++i2) {
+      for (int i1=0; i1<n1; ++i1) {
+        d.getTensor(i1,i2,i3,di);
+        float csi = (s!=null)?c*s[i3][i2][i1]:c;
+        e11[i1] = di[0]*csi;
+        e12[i1] = di[1]*csi;
+        e13[i1] = di[2]*csi;
+        e22[i1] = di[3]*csi;
+        e23[i1] = di[4]*csi;
+        e33[i1] = di[5]*csi;
+      }
+      apply71(i3,i2,e,xa,ya);
+      apply71(i3,i2,e,xb,yb);
+    }
+  }
+  private static void apply71(
+    int i3, int i2, float[][] e, float[][][] x, float[][][] y)
+  {
+    final float c1 =  C71[1], c2 = C71[2], c3 = C71[3];
+    int n1 = x[0][0].length;
+    int n2 = x[0].length;
+    int n3 = x.length;
+    float[] e11 = e[0], e12 = e[1], e13 = e[2];
+    float[] e22 = e[3], e23 = e[4], e33 = e[5];
+    int i3m3 = i3-3; if (i3m3<0) i3m3 = 0;
+    int i3m2 = i3-2; if (i3m2<0) i3m2 = 0;
+    int i3m1 = i3-1; if (i3m1<0) i3m1 = 0;
+    int i3p1 = i3+1; if (i3p1>=n3) i3p1 = n3-1;
+    int i3p2 = i3+2; if (i3p2>=n3) i3p2 = n3-1;
+    int i3p3 = i3+3; if (i3p3>=n3) i3p3 = n3-1;
+    int i2m3 = i2-3; if (i2m3<0) i2m3 = 0;
+    int i2m2 = i2-2; if (i2m2<0) i2m2 = 0;
+    int i2m1 = i2-1; if (i2m1<0) i2m1 = 0;
+    int i2p1 = i2+1; if (i2p1>=n2) i2p1 = n2-1;
+    int i2p2 = i2+2; if (i2p2>=n2) i2p2 = n2-1;
+    int i2p3 = i2+3; if (i2p3>=n2) i2p3 = n2-1;
+    float[] xp0p0 = x[i3][i2], yp0p0 = y[i3][i2];
+    float[] xp0m3 = x[i3][i2m3], yp0m3 = y[i3][i2m3];
+    float[] xp0m2 = x[i3][i2m2], yp0m2 = y[i3][i2m2];
+    float[] xp0m1 = x[i3][i2m1], yp0m1 = y[i3][i2m1];
+    float[] xp0p1 = x[i3][i2p1], yp0p1 = y[i3][i2p1];
+    float[] xp0p2 = x[i3][i2p2], yp0p2 = y[i3][i2p2];
+    float[] xp0p3 = x[i3][i2p3], yp0p3 = y[i3][i2p3];
+    float[] xm3p0 = x[i3m3][i2], ym3p0 = y[i3m3][i2];
+    float[] xm2p0 = x[i3m2][i2], ym2p0 = y[i3m2][i2];
+    float[] xm1p0 = x[i3m1][i2], ym1p0 = y[i3m1][i2];
+    float[] xp1p0 = x[i3p1][i2], yp1p0 = y[i3p1][i2];
+    float[] xp2p0 = x[i3p2][i2], yp2p0 = y[i3p2][i2];
+    float[] xp3p0 = x[i3p3][i2], yp3p0 = y[i3p3][i2];
+    int m3,m2=0,m1=0,p0=0,p1=0,p2=1,p3=2;
+    for (int i1=0; i1<n1; ++i1) {
+      m3 = m2; m2 = m1; m1 = p0;
+      p0 = p1; p1 = p2; p2 = p3; ++p3;
+      if (p1>=n1) p1 = n1-1;
+      if (p2>=n1) p2 = n1-1;
+      if (p3>=n1) p3 = n1-1;
+      float d11 = e11[i1];
+      float d12 = e12[i1];
+      float d13 = e13[i1];
+      float d22 = e22[i1];
+      float d23 = e23[i1];
+      float d33 = e33[i1];
+      float x1  = c1*(xp0p0[p1]-xp0p0[m1]) +
+                  c2*(xp0p0[p2]-xp0p0[m2]) +
+                  c3*(xp0p0[p3]-xp0p0[m3]);
+      float x2  = c1*(xp0p1[p0]-xp0m1[p0]) +
+                  c2*(xp0p2[p0]-xp0m2[p0]) +
+                  c3*(xp0p3[p0]-xp0m3[p0]);
+      float x3  = c1*(xp1p0[p0]-xm1p0[p0]) +
+                  c2*(xp2p0[p0]-xm2p0[p0]) +
+                  c3*(xp3p0[p0]-xm3p0[p0]);
+      float y1 = d11*x1+d12*x2+d13*x3;
+      float y2 = d12*x1+d22*x2+d23*x3;
+      float y3 = d13*x1+d23*x2+d33*x3;
+      float c1y1 = c1*y1; yp0p0[p1] += c1y1; yp0p0[m1] -= c1y1;
+      float c2y1 = c2*y1; yp0p0[p2] += c2y1; yp0p0[m2] -= c2y1;
+      float c3y1 = c3*y1; yp0p0[p3] += c3y1; yp0p0[m3] -= c3y1;
+      float c1y2 = c1*y2; yp0p1[p0] += c1y2; yp0m1[p0] -= c1y2;
+      float c2y2 = c2*y2; yp0p2[p0] += c2y2; yp0m2[p0] -= c2y2;
+      float c3y2 = c3*y2; yp0p3[p0] += c3y2; yp0m3[p0] -= c3y2;
+      float c1y3 = c1*y3; yp1p0[p0] += c1y3; ym1p0[p0] -= c1y3;
+      float c2y3 = c2*y3; yp2p0[p0] += c2y3; ym2p0[p0] -= c2y3;
+      float c3y3 = c3*y3; yp3p0[p0] += c3y3; ym3p0[p0] -= c3y3;
+    }
+  }
+
   ///////////////////////////////////////////////////////////////////////////
   // D91
 
@@ -18,37 +18,160 @@ import java.util.ArrayList;
 
 import static edu.mines.jtk.util.ArrayMath.*;
 import edu.mines.jtk.util.Check;
+import edu.mines.jtk.util.Parallel;
 
 /**
  * Local prediction filtering.
  * <p>
- * <em>Warning: not yet completed or optimized for performance.</em>
+ * For each sample, filter coefficients are the solution of a small
+ * system of normal equations, with local auto-correlations computed
+ * for all filter lags. These systems are solved independently for
+ * each row of samples (each sample index i2 in 2-D, or each pair of
+ * indices i2 and i3 in 3-D), and in parallel for different rows.
+ * For filters with not more than 16 coefficients, systems are by
+ * default solved with Cholesky decompositions computed for batches of
+ * samples in a row. Systems with larger filters, and any systems that
+ * are not sufficiently positive-definite, are solved by the method of
+ * conjugate gradients.
+ * <p>
+ * <em>Warning: not yet completed.</em>
  * @author Dave Hale, Colorado School of Mines
  * @version 2006.02.21
  */
 public class LocalPredictionFilter {
 
+  /**
+   * Methods used to solve the systems of equations for filter coefficients.
+   */
+  public enum Solver {
+    /**
+     * Batched Cholesky decompositions, for filters with not more than
+     * 16 coefficients. For longer filters, the method of conjugate
+     * gradients is used instead.
+     */
+    CHOLESKY,
+    /**
+     * The method of conjugate gradients, for filters of any length.
+     */
+    CG
+  }
+
   /**
    * Construct a prediction filter with specified Gaussian window half-width.
    * @param sigma the Gaussian window half-width; must not be less than 1.
    */
   public LocalPredictionFilter(double sigma) {
     Check.argument(sigma>=1.0,"sigma>=1.0");
-    _lcf = new LocalCorrelationFilter(
-      LocalCorrelationFilter.Type.SYMMETRIC,
-      LocalCorrelationFilter.Window.GAUSSIAN,
-      sigma);
+    _sigma = sigma;
+  }
+
+  /**
+   * Sets the method used to solve for filter coefficients.
+   * The default is {@link Solver#CHOLESKY}.
+   * @param solver the solver.
+   */
+  public void setSolver(Solver solver) {
+    _solver = solver;
   }
 
+  /**
+   * Applies local prediction filters to a 2-D array.
+   * @param lag1 array[m] of filter lags in the 1st dimension.
+   * @param lag2 array[m] of filter lags in the 2nd dimension.
+   * @param f input array[n2][n1].
+   * @param g output array[n2][n1] of predicted values.
+   * @return array[m][n2][n1] of filter coefficients.
+   */
   public float[][][] apply(int[] lag1, int[] lag2, float[][] f, float[][] g) {
     Check.argument(lag1.length==lag2.length,"lag1.length==lag2.length");
     Check.argument(f!=g,"f!=g");
+    float[][][] a = filters(lag1,lag2,f);
+    zero(g);
+    predict(1.0f,lag1,lag2,a,f,g);
+    return a;
+  }
+
+  /**
+   * Applies local prediction-error filters to a 2-D array.
+   * @param lag1 array[m] of filter lags in the 1st dimension.
+   * @param lag2 array[m] of filter lags in the 2nd dimension.
+   * @param f input array[n2][n1].
+   * @param g output array[n2][n1] of prediction errors.
+   */
+  public void applyPef(int[] lag1, int[] lag2, float[][] f, float[][] g) {
+    Check.argument(lag1.length==lag2.length,"lag1.length==lag2.length");
+    Check.argument(f!=g,"f!=g");
+    float[][][] a = filters(lag1,lag2,f);
+    copy(f,g);
+    predict(-1.0f,lag1,lag2,a,f,g);
+  }
+
+  /**
+   * Applies local prediction filters to a 3-D array.
+   * @param lag1 array[m] of filter lags in the 1st dimension.
+   * @param lag2 array[m] of filter lags in the 2nd dimension.
+   * @param lag3 array[m] of filter lags in the 3rd dimension.
+   * @param f input array[n3][n2][n1].
+   * @param g output array[n3][n2][n1] of predicted values.
+   * @return array[m][n3][n2][n1] of filter coefficients.
+   */
+  public float[][][][] apply(
+    int[] lag1, int[] lag2, int[] lag3, float[][][] f, float[][][] g)
+  {
+    Check.argument(lag1.length==lag2.length,"lag1.length==lag2.length");
+    Check.argument(lag1.length==lag3.length,"lag1.length==lag3.length");
+    Check.argument(f!=g,"f!=g");
+    float[][][][] a = filters(lag1,lag2,lag3,f);
+    zero(g);
+    predict(1.0f,lag1,lag2,lag3,a,f,g);
+    return a;
+  }
+
+  /**
+   * Applies local prediction-error filters to a 3-D array.
+   * @param lag1 array[m] of filter lags in the 1st dimension.
+   * @param lag2 array[m] of filter lags in the 2nd dimension.
+   * @param lag3 array[m] of filter lags in the 3rd dimension.
+   * @param f input array[n3][n2][n1].
+   * @param g output array[n3][n2][n1] of prediction errors.
+   */
+  public void applyPef(
+    int[] lag1, int[] lag2, int[] lag3, float[][][] f, float[][][] g)
+  {
+    Check.argument(lag1.length==lag2.length,"lag1.length==lag2.length");
+    Check.argument(lag1.length==lag3.length,"lag1.length==lag3.length");
+    Check.argument(f!=g,"f!=g");
+    float[][][][] a = filters(lag1,lag2,lag3,f);
+    copy(f,g);
+    predict(-1.0f,lag1,lag2,lag3,a,f,g);
+  }
+
+  ///////////////////////////////////////////////////////////////////////////
+  // private
+
+  // Maximum number of filter coefficients for Cholesky decompositions.
+  private static final int CHOLESKY_MMAX = 16;
+
+  private double _sigma; // half-width of Gaussian correlation window
+  private Solver _solver = Solver.CHOLESKY;
+
+  // Filters are not thread-safe, so each thread makes its own.
+  private LocalCorrelationFilter makeCorrelationFilter() {
+    return new LocalCorrelationFilter(
+      LocalCorrelationFilter.Type.SYMMETRIC,
+      LocalCorrelationFilter.Window.GAUSSIAN,
+      _sigma);
+  }
+
+  // Computes filter coefficients a[m][n2][n1] for a 2-D array.
+  private float[][][] filters(int[] lag1, int[] lag2, float[][] f) {
 
     // Compute local auto-correlation for all necessary lags.
     R2Cache rcache = new R2Cache(f);
-    int m = lag1.length;
-    float[][][][] rkj = new float[m][m][][];
-    float[][][] rk0 = new float[m][][];
+    rcache.compute(lag1,lag2);
+    final int m = lag1.length;
+    final float[][][][] rkj = new float[m][m][][];
+    final float[][][] rk0 = new float[m][][];
     for (int k=0; k<m; ++k) {
       int k1 = lag1[k];
       int k2 = lag2[k];
@@ -60,113 +183,82 @@ public class LocalPredictionFilter {
       rk0[k] = rcache.get(k1,k2);
     }
 
-    // Compute prediction filters.
-    int n1 = f[0].length;
-    int n2 = f.length;
-    double[][] rkjt = new double[m][m];
-    double[] rk0t = new double[m];
-    double[] at = new double[m];
-    float[][][] a = new float[m][n2][n1];
-    CgSolver cgs = new CgSolver(m,100);
-    //DirectSolver ds = new DirectSolver(m);
-    double niter = 0.0;
-    for (int i2=0; i2<n2; ++i2) {
-      int i1b = (i2%2==0)?0:n1-1;
-      int i1e = (i2%2==0)?n1:-1;
-      int i1s = (i2%2==0)?1:-1;
-      for (int i1=i1b; i1!=i1e; i1+=i1s) {
+    // Solve for filter coefficients, in parallel for all rows.
+    final int n1 = f[0].length;
+    final int n2 = f.length;
+    final float[][][] a = new float[m][n2][n1];
+    final Parallel.Unsafe<RowSolver> rsu = new Parallel.Unsafe<RowSolver>();
+    Parallel.loop(n2,new Parallel.LoopInt() {
+      public void compute(int i2) {
+        RowSolver rs = rsu.get();
+        if (rs==null) rsu.set(rs=new RowSolver(m,n1));
         for (int k=0; k<m; ++k) {
           for (int j=0; j<m; ++j)
-            rkjt[k][j] = rkj[k][j][i2][i1];
-          rk0t[k] = rk0[k][i2][i1];
+            rs.rkj[k][j] = rkj[k][j][i2];
+          rs.rk0[k] = rk0[k][i2];
+          rs.a[k] = a[k][i2];
         }
-        niter += cgs.solve(rkjt,rk0t,at);
-        //boolean bad = ds.solve(rkjt,rk0t,at);
-        //if (bad)
-        //  System.out.println("bad for i1="+i1+" i2="+i2);
-        for (int i=0; i<m; ++i)
-          a[i][i2][i1] = (float)at[i];
+        rs.solve();
       }
-    }
-    niter /= n1;
-    niter /= n2;
-    System.out.println("Average number of CG iterations = "+niter);
-
-    // Apply prediction filters.
-    zero(g);
-    for (int j=0; j<m; ++j) {
-      int j1 = lag1[j];
-      int j2 = lag2[j];
-      float[][] aj = a[j];
-      int i1min = max(0,j1);
-      int i1max = min(n1,n1+j1);
-      int i2min = max(0,j2);
-      int i2max = min(n2,n2+j2);
-      for (int i2=i2min; i2<i2max; ++i2) {
-        for (int i1=i1min; i1<i1max; ++i1) {
-          g[i2][i1] += aj[i2][i1]*f[i2-j2][i1-j1];
-        }
-      }
-    }
-
+    });
     return a;
-    //return rcache.get();
-    
-    //copy(div(rcache.get(1,1),rcache.get(0,0)),g);
-    //copy(a[0],g);
-    //copy(a[m-1],f);
   }
 
-  public void applyPef(int[] lag1, int[] lag2, float[][] f, float[][] g) {
-    Check.argument(lag1.length==lag2.length,"lag1.length==lag2.length");
-    Check.argument(f!=g,"f!=g");
+  // Computes filter coefficients a[m][n3][n2][n1] for a 3-D array.
+  private float[][][][] filters(
+    int[] lag1, int[] lag2, int[] lag3, float[][][] f)
+  {
 
     // Compute local auto-correlation for all necessary lags.
-    R2Cache rcache = new R2Cache(f);
-    int m = lag1.length;
-    float[][][][] rkj = new float[m][m][][];
-    float[][][] rk0 = new float[m][][];
+    R3Cache rcache = new R3Cache(f);
+    rcache.compute(lag1,lag2,lag3);
+    final int m = lag1.length;
+    final float[][][][][] rkj = new float[m][m][][][];
+    final float[][][][] rk0 = new float[m][][][];
     for (int k=0; k<m; ++k) {
       int k1 = lag1[k];
       int k2 = lag2[k];
+      int k3 = lag3[k];
       for (int j=0; j<m; ++j) {
         int j1 = lag1[j];
         int j2 = lag2[j];
-        rkj[k][j] = rcache.get(j1-k1,j2-k2);
+        int j3 = lag3[j];
+        rkj[k][j] = rcache.get(j1-k1,j2-k2,j3-k3);
       }
-      rk0[k] = rcache.get(k1,k2);
+      rk0[k] = rcache.get(k1,k2,k3);
     }
 
-    // Compute prediction filters.
-    int n1 = f[0].length;
-    int n2 = f.length;
-    double[][] rkjt = new double[m][m];
-    double[] rk0t = new double[m];
-    double[] at = new double[m];
-    float[][][] a = new float[m][n2][n1];
-    CgSolver cgs = new CgSolver(m,100);
-    double niter = 0.0;
-    for (int i2=0; i2<n2; ++i2) {
-      int i1b = (i2%2==0)?0:n1-1;
-      int i1e = (i2%2==0)?n1:-1;
-      int i1s = (i2%2==0)?1:-1;
-      for (int i1=i1b; i1!=i1e; i1+=i1s) {
+    // Solve for filter coefficients, in parallel for all rows.
+    final int n1 = f[0][0].length;
+    final int n2 = f[0].length;
+    final int n3 = f.length;
+    final float[][][][] a = new float[m][n3][n2][n1];
+    final Parallel.Unsafe<RowSolver> rsu = new Parallel.Unsafe<RowSolver>();
+    Parallel.loop(n2*n3,new Parallel.LoopInt() {
+      public void compute(int i23) {
+        int i2 = i23%n2;
+        int i3 = i23/n2;
+        RowSolver rs = rsu.get();
+        if (rs==null) rsu.set(rs=new RowSolver(m,n1));
         for (int k=0; k<m; ++k) {
           for (int j=0; j<m; ++j)
-            rkjt[k][j] = rkj[k][j][i2][i1];
-          rk0t[k] = rk0[k][i2][i1];
+            rs.rkj[k][j] = rkj[k][j][i3][i2];
+          rs.rk0[k] = rk0[k][i3][i2];
+          rs.a[k] = a[k][i3][i2];
         }
-        niter += cgs.solve(rkjt,rk0t,at);
-        for (int i=0; i<m; ++i)
-          a[i][i2][i1] = (float)at[i];
+        rs.solve();
       }
-    }
-    niter /= n1;
-    niter /= n2;
-    System.out.println("Average number of CG iterations = "+niter);
+    });
+    return a;
+  }
 
-    // Apply prediction error filters.
-    copy(f,g);
+  // Accumulates g += s*a*f, for prediction filters a with specified lags.
+  private static void predict(
+    float s, int[] lag1, int[] lag2, float[][][] a, float[][] f, float[][] g)
+  {
+    int m = lag1.length;
+    int n1 = f[0].length;
+    int n2 = f.length;
     for (int j=0; j<m; ++j) {
       int j1 = lag1[j];
       int j2 = lag2[j];
@@ -177,54 +269,184 @@ public class LocalPredictionFilter {
       int i2max = min(n2,n2+j2);
       for (int i2=i2min; i2<i2max; ++i2) {
         for (int i1=i1min; i1<i1max; ++i1) {
-          g[i2][i1] -= aj[i2][i1]*f[i2-j2][i1-j1];
+          g[i2][i1] += s*aj[i2][i1]*f[i2-j2][i1-j1];
         }
       }
     }
   }
+  private static void predict(
+    final float s, final int[] lag1, final int[] lag2, final int[] lag3,
+    final float[][][][] a, final float[][][] f, final float[][][] g)
+  {
+    final int m = lag1.length;
+    final int n1 = f[0][0].length;
+    final int n2 = f[0].length;
+    final int n3 = f.length;
+    Parallel.loop(n3,new Parallel.LoopInt() {
+      public void compute(int i3) {
+        for (int j=0; j<m; ++j) {
+          int j1 = lag1[j];
+          int j2 = lag2[j];
+          int j3 = lag3[j];
+          if (i3-j3<0 || i3-j3>=n3)
+            continue;
+          float[][] aj = a[j][i3];
+          float[][] fj = f[i3-j3];
+          int i1min = max(0,j1);
+          int i1max = min(n1,n1+j1);
+          int i2min = max(0,j2);
+          int i2max = min(n2,n2+j2);
+          for (int i2=i2min; i2<i2max; ++i2) {
+            for (int i1=i1min; i1<i1max; ++i1) {
+              g[i3][i2][i1] += s*aj[i2][i1]*fj[i2-j2][i1-j1];
+            }
+          }
+        }
+      }
+    });
+  }
 
-  ///////////////////////////////////////////////////////////////////////////
-  // private
-
-  /*
-  private static class DirectSolver {
-    DirectSolver(int m) {
-      this.m = m;
-      this.a = new DMatrix(m,m);
-      this.b = new DMatrix(m,1);
-      this.aa = a.getArray();
-      this.bb = b.getArray();
+  // Solver for the systems of equations in one row of samples. The
+  // caller sets references to rows of auto-correlations rkj[k][j] and
+  // rk0[k], and to rows of filter coefficients a[k], before each solve.
+  // Each thread has its own row solver with its own scratch arrays.
+  private class RowSolver {
+    float[][][] rkj; // rows of auto-correlations, for lags k-j
+    float[][] rk0; // rows of auto-correlations, for lags k
+    float[][] a; // rows of filter coefficients
+    RowSolver(int m, int n1) {
+      _m = m;
+      _n1 = n1;
+      rkj = new float[m][m][];
+      rk0 = new float[m][];
+      a = new float[m][];
+      _cgs = new CgSolver(m,100);
+      _at = new double[m][m];
+      _bt = new double[m];
+      _xt = new double[m];
+      if (_solver==Solver.CHOLESKY && m<=CHOLESKY_MMAX) {
+        _l = new double[m][][];
+        for (int k=0; k<m; ++k)
+          _l[k] = new double[k+1][NB];
+        _y = new double[m][NB];
+      }
+    }
+    void solve() {
+      if (_l!=null) {
+        for (int i1b=0; i1b<_n1; i1b+=NB)
+          solveCholesky(i1b,min(NB,_n1-i1b));
+      } else {
+        zero(_xt);
+        for (int i1=0; i1<_n1; ++i1)
+          solveCg(i1); // with initial solution from previous sample
+      }
     }
-    boolean solve(double[][] a, double[] b, double[] x) {
-      for (int i=0,k=0; i<m; ++i) {
-        for (int j=0; j<m; ++j,++k) {
-          aa[k] = a[i][j];
+
+    private static final int NB = 64; // number of samples per batch
+    private static final double PIVOT_MIN = 1.0e-6; // relative to rkk
+
+    private int _m,_n1;
+    private CgSolver _cgs;
+    private double[][] _at; // one system of equations, for CG
+    private double[] _bt,_xt; // right-hand side and solution, for CG
+    private double[][][] _l; // Cholesky factors for a batch of samples
+    private double[][] _y; // solutions for a batch of samples
+
+    // Cholesky decompositions A = LL' for samples i1b <= i1 < i1b+nb,
+    // with loops over samples innermost. Diagonal elements of L are
+    // stored as reciprocals. Any sample for which A is not sufficiently
+    // positive-definite is then solved by conjugate gradients.
+    private void solveCholesky(int i1b, int nb) {
+      int m = _m;
+      double[][][] l = _l;
+      double[][] y = _y;
+      boolean bad = false;
+      for (int k=0; k<m; ++k) {
+        for (int j=0; j<=k; ++j) {
+          float[] r = rkj[k][j];
+          double[] lkj = l[k][j];
+          for (int i=0; i<nb; ++i)
+            lkj[i] = r[i1b+i];
+          for (int p=0; p<j; ++p) {
+            double[] lkp = l[k][p];
+            double[] ljp = l[j][p];
+            for (int i=0; i<nb; ++i)
+              lkj[i] -= lkp[i]*ljp[i];
+          }
+          if (j<k) {
+            double[] ljj = l[j][j];
+            for (int i=0; i<nb; ++i)
+              lkj[i] *= ljj[i];
+          } else {
+            for (int i=0; i<nb; ++i) {
+              double s = lkj[i];
+              if (s>PIVOT_MIN*r[i1b+i]) {
+                lkj[i] = 1.0/Math.sqrt(s);
+              } else {
+                lkj[i] = 0.0;
+                bad = true;
+              }
+            }
+          }
+        }
+      }
+      for (int k=0; k<m; ++k) {
+        float[] r = rk0[k];
+        double[] yk = y[k];
+        for (int i=0; i<nb; ++i)
+          yk[i] = r[i1b+i];
+        for (int p=0; p<k; ++p) {
+          double[] lkp = l[k][p];
+          double[] yp = y[p];
+          for (int i=0; i<nb; ++i)
+            yk[i] -= lkp[i]*yp[i];
+        }
+        double[] lkk = l[k][k];
+        for (int i=0; i<nb; ++i)
+          yk[i] *= lkk[i];
+      }
+      for (int k=m-1; k>=0; --k) {
+        double[] yk = y[k];
+        for (int p=k+1; p<m; ++p) {
+          double[] lpk = l[p][k];
+          double[] yp = y[p];
+          for (int i=0; i<nb; ++i)
+            yk[i] -= lpk[i]*yp[i];
+        }
+        double[] lkk = l[k][k];
+        float[] ak = a[k];
+        for (int i=0; i<nb; ++i) {
+          yk[i] *= lkk[i];
+          ak[i1b+i] = (float)yk[i];
         }
-        bb[i] = b[i];
       }
-      double chuge = 1000000.0;
-      double c = this.a.cond();
-      if (c>chuge) {
-        System.out.println("cond="+c);
-        System.out.println("a=\n"+this.a);
-        System.out.println("b=\n"+this.b);
+      if (bad) {
+        for (int i=0; i<nb; ++i) {
+          boolean badi = false;
+          for (int k=0; k<m && !badi; ++k)
+            badi = l[k][k][i]==0.0;
+          if (badi) {
+            zero(_xt);
+            solveCg(i1b+i);
+          }
+        }
       }
-      DMatrix xm = this.a.solve(this.b);
-      if (c>chuge) {
-        System.out.println("x=\n"+xm);
-        System.out.println("r=\n"+this.b.minus(this.a.times(xm)));
-        System.out.println("d=\n"+this.a.evd().getD());
+    }
+
+    // Solves for one sample by conjugate gradients, beginning with the
+    // solution currently in the scratch array.
+    private void solveCg(int i1) {
+      int m = _m;
+      for (int k=0; k<m; ++k) {
+        for (int j=0; j<m; ++j)
+          _at[k][j] = rkj[k][j][i1];
+        _bt[k] = rk0[k][i1];
       }
-      double[] xx = xm.getArray();
-      for (int i=0; i<m; ++i)
-        x[i] = xx[i];
-      return c>chuge;
+      _cgs.solve(_at,_bt,_xt);
+      for (int k=0; k<m; ++k)
+        a[k][i1] = (float)_xt[k];
     }
-    private int m;
-    private DMatrix a,b;
-    private double[] aa,bb;
   }
-  */
 
   private static class CgSolver {
     CgSolver(int m, int maxiter) {
@@ -303,17 +525,20 @@ public class LocalPredictionFilter {
     private double[] p,q,r;
   }
 
-  private class R2 {
+  // Auto-correlations for one lag.
+  private static class R2 {
     int l1,l2;
     float[][] r;
-    R2(int l1, int l2, float[][] f) {
-      int n1 = f[0].length;
-      int n2 = f.length;
+    R2(int l1, int l2) {
       this.l1 = l1;
       this.l2 = l2;
-      this.r = new float[n2][n1];
-      _lcf.setInputs(f,f);
-      _lcf.correlate(l1,l2,r);
+    }
+    void correlate(float[][] f, LocalCorrelationFilter lcf) {
+      int n1 = f[0].length;
+      int n2 = f.length;
+      float[][] r = new float[n2][n1];
+      lcf.setInputs(f,f);
+      lcf.correlate(l1,l2,r);
       if (l1==0 && l2==0) {
         for (int i2=0; i2<n2; ++i2) {
           for (int i1=0; i1<n1; ++i1) {
@@ -321,34 +546,123 @@ public class LocalPredictionFilter {
           }
         }
       }
+      this.r = r;
     }
   }
   private class R2Cache {
     R2Cache(float[][] f) {
       _f = f;
     }
-    float[][][] get() {
-      int n = _rlist.size();
-      float[][][] r = new float[n][][];
-      int i = 0;
-      for (R2 r2 : _rlist) {
-        r[i] = r2.r;
-        ++i;
+    // Computes auto-correlations for all lags required by filters with
+    // the specified lags, in parallel, with one correlation filter for
+    // each thread.
+    void compute(int[] lag1, int[] lag2) {
+      int m = lag1.length;
+      for (int k=0; k<m; ++k) {
+        add(lag1[k],lag2[k]);
+        for (int j=0; j<m; ++j)
+          add(lag1[j]-lag1[k],lag2[j]-lag2[k]);
       }
-      return r;
+      final Parallel.Unsafe<LocalCorrelationFilter> lcfu =
+        new Parallel.Unsafe<LocalCorrelationFilter>();
+      Parallel.loop(_rlist.size(),new Parallel.LoopInt() {
+        public void compute(int i) {
+          LocalCorrelationFilter lcf = lcfu.get();
+          if (lcf==null) lcfu.set(lcf=makeCorrelationFilter());
+          R2 r2 = _rlist.get(i);
+          if (r2.r==null)
+            r2.correlate(_f,lcf);
+        }
+      });
     }
     float[][] get(int l1, int l2) {
+      R2 r2 = add(l1,l2);
+      if (r2.r==null)
+        r2.correlate(_f,makeCorrelationFilter());
+      return r2.r;
+    }
+    private R2 add(int l1, int l2) {
       for (R2 r2 : _rlist) {
         if (l1==r2.l1 && l2==r2.l2 || -l1==r2.l1 && -l2==r2.l2)
-          return r2.r;
+          return r2;
       }
-      R2 r2 = new R2(l1,l2,_f);
+      R2 r2 = new R2(l1,l2);
       _rlist.add(r2);
-      return r2.r;
+      return r2;
     }
     float[][] _f;
     ArrayList<R2> _rlist = new ArrayList<R2>();
   }
 
-  private LocalCorrelationFilter _lcf;
+  // Auto-correlations for one lag.
+  private static class R3 {
+    int l1,l2,l3;
+    float[][][] r;
+    R3(int l1, int l2, int l3) {
+      this.l1 = l1;
+      this.l2 = l2;
+      this.l3 = l3;
+    }
+    void correlate(float[][][] f, LocalCorrelationFilter lcf) {
+      int n1 = f[0][0].length;
+      int n2 = f[0].length;
+      int n3 = f.length;
+      float[][][] r = new float[n3][n2][n1];
+      lcf.setInputs(f,f);
+      lcf.correlate(l1,l2,l3,r);
+      if (l1==0 && l2==0 && l3==0) {
+        for (int i3=0; i3<n3; ++i3) {
+          for (int i2=0; i2<n2; ++i2) {
+            for (int i1=0; i1<n1; ++i1) {
+              r[i3][i2][i1] *= 1.01f;
+            }
+          }
+        }
+      }
+      this.r = r;
+    }
+  }
+  private class R3Cache {
+    R3Cache(float[][][] f) {
+      _f = f;
+    }
+    // As for R2Cache.
+    void compute(int[] lag1, int[] lag2, int[] lag3) {
+      int m = lag1.length;
+      for (int k=0; k<m; ++k) {
+        add(lag1[k],lag2[k],lag3[k]);
+        for (int j=0; j<m; ++j)
+          add(lag1[j]-lag1[k],lag2[j]-lag2[k],lag3[j]-lag3[k]);
+      }
+      final Parallel.Unsafe<LocalCorrelationFilter> lcfu =
+        new Parallel.Unsafe<LocalCorrelationFilter>();
+      Parallel.loop(_rlist.size(),new Parallel.LoopInt() {
+        public void compute(int i) {
+          LocalCorrelationFilter lcf = lcfu.get();
+          if (lcf==null) lcfu.set(lcf=makeCorrelationFilter());
+          R3 r3 = _rlist.get(i);
+          if (r3.r==null)
+            r3.correlate(_f,lcf);
+        }
+      });
+    }
+    float[][][] get(int l1, int l2, int l3) {
+      R3 r3 = add(l1,l2,l3);
+      if (r3.r==null)
+        r3.correlate(_f,makeCorrelationFilter());
+      return r3.r;
+    }
+    private R3 add(int l1, int l2, int l3) {
+      for (R3 r3 : _rlist) {
+        if (l1==r3.l1 && l2==r3.l2 && l3==r3.l3 ||
+            -l1==r3.l1 && -l2==r3.l2 && -l3==r3.l3)
+          return r3;
+      }
+      R3 r3 = new R3(l1,l2,l3);
+      _rlist.add(r3);
+      return r3;
+    }
+    float[][][] _f;
+    ArrayList<R3> _rlist = new ArrayList<R3>();
+  }
 }
@@ -15,6 +15,7 @@ limitations under the License.
 package edu.mines.jtk.dsp;
 
 import static edu.mines.jtk.util.ArrayMath.*;
+import edu.mines.jtk.util.Parallel;
 
 /**
  * Computes local semblance images using local smoothing filters.
@@ -26,6 +27,12 @@ import static edu.mines.jtk.util.ArrayMath.*;
  * <a
  * href="http://www.mines.edu/~dhale/papers/Hale09StructureOrientedSmoothingAndSemblance.pdf">
  * Hale, D., 2009, Structure-oriented smoothing and semblance, CWP-635</a>
+ * <p>
+ * For 2D and 3D arrays, the numerator and denominator of semblance are
+ * smoothed together, with the same tensors, and loops over samples are
+ * performed in parallel. Tensor eigenvalues are modified temporarily
+ * while semblance is computed, so one tensor field should not be used
+ * in multiple threads at the same time.
  * @author Dave Hale, Colorado School of Mines
  * @version 2009.07.24
  */
@@ -65,7 +72,6 @@ public class LocalSemblanceFilter {
    * @param s the array of output semblance values.
    */
   public void semblance(float[] f, float[] s) {
-    int n1 = f.length;
     float[] sn,sd;
     sn = smooth1(f);
     sn = mul(sn,sn);
@@ -73,17 +79,7 @@ public class LocalSemblanceFilter {
     sd = mul(f,f);
     sd = smooth1(sd);
     sd = smooth2(sd);
-    for (int i1=0; i1<n1; ++i1) {
-      float sni = sn[i1];
-      float sdi = sd[i1];
-      if (sdi<=0.0f || sni<0.0f) {
-        s[i1] = 0.0f;
-      } else if (sdi<sni) {
-        s[i1] = 1.0f;
-      } else {
-        s[i1] = sni/sdi;
-      }
-    }
+    divide(sn,sd,s);
   }
 
   /**
@@ -109,25 +105,22 @@ public class LocalSemblanceFilter {
   {
     int n1 = f[0].length;
     int n2 = f.length;
-    float[][] sn,sd;
-    sn = smooth1(d,t,f);
-    sn = mul(sn,sn);
-    sn = smooth2(d,t,sn);
-    sd = mul(f,f);
-    sd = smooth1(d,t,sd);
-    sd = smooth2(d,t,sd);
-    for (int i2=0; i2<n2; ++i2) {
-      for (int i1=0; i1<n1; ++i1) {
-        float sni = sn[i2][i1];
-        float sdi = sd[i2][i1];
-        if (sdi<=0.0f || sni<0.0f) {
-          s[i2][i1] = 0.0f;
-        } else if (sdi<sni) {
-          s[i2][i1] = 1.0f;
-        } else {
-          s[i2][i1] = sni/sdi;
-        }
-      }
+    float[][] au = new float[n2][n1];
+    float[][] av = new float[n2][n1];
+    float[][] ta = new float[n2][n1];
+    float[][] tb = new float[n2][n1];
+    float[][] tc = new float[n2][n1];
+    t.getEigenvalues(au,av);
+    try {
+      square(f,ta,tb); // ta = f, tb = f*f
+      setEigenvalues(d,t);
+      _smoother1.apply(t,ta,tb,s,tc); // s = S1 f, tc = S1 f*f
+      square(s,s,null); // s = (S1 f)*(S1 f)
+      setEigenvalues(orthogonal(d),t);
+      _smoother2.apply(t,s,tc,ta,tb);
+      divide(ta,tb,s);
+    } finally {
+      t.setEigenvalues(au,av);
     }
   }
 
@@ -157,27 +150,23 @@ public class LocalSemblanceFilter {
     int n1 = f[0][0].length;
     int n2 = f[0].length;
     int n3 = f.length;
-    float[][][] sn,sd;
-    sn = smooth1(d,t,f);
-    sn = mul(sn,sn);
-    sn = smooth2(d,t,sn);
-    sd = mul(f,f);
-    sd = smooth1(d,t,sd);
-    sd = smooth2(d,t,sd);
-    for (int i3=0; i3<n3; ++i3) {
-      for (int i2=0; i2<n2; ++i2) {
-        for (int i1=0; i1<n1; ++i1) {
-          float sni = sn[i3][i2][i1];
-          float sdi = sd[i3][i2][i1];
-          if (sdi<=0.0f || sni<0.0f) {
-            s[i3][i2][i1] = 0.0f;
-          } else if (sdi<sni) {
-            s[i3][i2][i1] = 1.0f;
-          } else {
-            s[i3][i2][i1] = sni/sdi;
-          }
-        }
-      }
+    float[][][] au = new float[n3][n2][n1];
+    float[][][] av = new float[n3][n2][n1];
+    float[][][] aw = new float[n3][n2][n1];
+    float[][][] ta = new float[n3][n2][n1];
+    float[][][] tb = new float[n3][n2][n1];
+    float[][][] tc = new float[n3][n2][n1];
+    t.getEigenvalues(au,av,aw);
+    try {
+      square(f,ta,tb); // ta = f, tb = f*f
+      setEigenvalues(d,t);
+      _smoother1.apply(t,ta,tb,s,tc); // s = S1 f, tc = S1 f*f
+      square(s,s,null); // s = (S1 f)*(S1 f)
+      setEigenvalues(orthogonal(d),t);
+      _smoother2.apply(t,s,tc,ta,tb);
+      divide(ta,tb,s);
+    } finally {
+      t.setEigenvalues(au,av,aw);
     }
   }
 
@@ -392,6 +381,33 @@ public class LocalSemblanceFilter {
         t.setEigenvalues(au,av,aw);
       }
     }
+    // Smooths two arrays xa and xb, for tensor eigenvalues that have
+    // already been set. Arrays xa and xb are modified.
+    public void apply(
+      EigenTensors2 t, float[][] xa, float[][] xb, float[][] ya, float[][] yb)
+    {
+      if (_scale==0.0f) {
+        copy(xa,ya);
+        copy(xb,yb);
+      } else {
+        _lsf.applySmoothL(_kmax,xa,xa);
+        _lsf.applySmoothL(_kmax,xb,xb);
+        _lsf.apply(t,_scale,xa,xb,ya,yb);
+      }
+    }
+    public void apply(
+      EigenTensors3 t, 
+      float[][][] xa, float[][][] xb, float[][][] ya, float[][][] yb)
+    {
+      if (_scale==0.0f) {
+        copy(xa,ya);
+        copy(xb,yb);
+      } else {
+        _lsf.applySmoothL(_kmax,xa,xa);
+        _lsf.applySmoothL(_kmax,xb,xb);
+        _lsf.apply(t,_scale,xa,xb,ya,yb);
+      }
+    }
     private float _scale;
     private static final double _small = 0.001;
     private static final int _niter = 1000;
@@ -436,6 +452,88 @@ public class LocalSemblanceFilter {
     t.setEigenvalues(au,av,aw);
   }
 
+  // Computes y = x and, if z is not null, z = x*x; or, if x and y are
+  // the same array, y = x*x.
+  private static void square(
+    final float[][] x, final float[][] y, final float[][] z)
+  {
+    final int n1 = x[0].length;
+    Parallel.loop(x.length,new Parallel.LoopInt() {
+      public void compute(int i2) {
+        float[] x2 = x[i2], y2 = y[i2];
+        if (x2==y2) {
+          for (int i1=0; i1<n1; ++i1)
+            y2[i1] = x2[i1]*x2[i1];
+        } else {
+          float[] z2 = z[i2];
+          for (int i1=0; i1<n1; ++i1) {
+            float xi = x2[i1];
+            y2[i1] = xi;
+            z2[i1] = xi*xi;
+          }
+        }
+      }
+    });
+  }
+  private static void square(
+    final float[][][] x, final float[][][] y, final float[][][] z)
+  {
+    Parallel.loop(x.length,new Parallel.LoopInt() {
+      public void compute(int i3) {
+        for (int i2=0; i2<x[i3].length; ++i2) {
+          float[] x2 = x[i3][i2], y2 = y[i3][i2];
+          int n1 = x2.length;
+          if (x2==y2) {
+            for (int i1=0; i1<n1; ++i1)
+              y2[i1] = x2[i1]*x2[i1];
+          } else {
+            float[] z2 = z[i3][i2];
+            for (int i1=0; i1<n1; ++i1) {
+              float xi = x2[i1];
+              y2[i1] = xi;
+              z2[i1] = xi*xi;
+            }
+          }
+        }
+      }
+    });
+  }
+
+  // Computes semblance s = sn/sd, clipped to the range [0,1].
+  private static void divide(float[] sn, float[] sd, float[] s) {
+    int n1 = s.length;
+    for (int i1=0; i1<n1; ++i1) {
+      float sni = sn[i1];
+      float sdi = sd[i1];
+      if (sdi<=0.0f || sni<0.0f) {
+        s[i1] = 0.0f;
+      } else if (sdi<sni) {
+        s[i1] = 1.0f;
+      } else {
+        s[i1] = sni/sdi;
+      }
+    }
+  }
+  private static void divide(
+    final float[][] sn, final float[][] sd, final float[][] s)
+  {
+    Parallel.loop(s.length,new Parallel.LoopInt() {
+      public void compute(int i2) {
+        divide(sn[i2],sd[i2],s[i2]);
+      }
+    });
+  }
+  private static void divide(
+    final float[][][] sn, final float[][][] sd, final float[][][] s)
+  {
+    Parallel.loop(s.length,new Parallel.LoopInt() {
+      public void compute(int i3) {
+        for (int i2=0; i2<s[i3].length; ++i2)
+          divide(sn[i3][i2],sd[i3][i2],s[i3][i2]);
+      }
+    });
+  }
+
   private static float[] like(float[] f) {
     return new float[f.length];
   }
@@ -14,9 +14,11 @@ limitations under the License.
 ****************************************************************************/
 package edu.mines.jtk.dsp;
 
+import java.util.ArrayList;
 import java.util.logging.Logger;
 
 import edu.mines.jtk.util.Parallel;
+import edu.mines.jtk.util.Stopwatch;
 import static edu.mines.jtk.util.ArrayMath.*;
 
 /**
@@ -97,14 +99,51 @@ public class LocalSmoothingFilter {
     _ldk = ldk;
   }
 
+  /**
+   * Preconditioners for the iterative solution of filter equations.
+   */
+  public enum Preconditioner {
+    /**
+     * No preconditioner.
+     */
+    NONE,
+    /**
+     * A diagonal preconditioner, which is simple and cheap, but is
+     * less effective for larger scale factors.
+     */
+    DIAGONAL,
+    /**
+     * A multigrid preconditioner, one V-cycle per iteration. The number 
+     * of iterations required is nearly independent of image size and 
+     * grows only slowly with scale factors, but each iteration costs 
+     * about as much as ten iterations without a preconditioner. This 
+     * preconditioner is designed for the default 2x2 (or 2x2x2) stencil; 
+     * it is most effective when that stencil is used in the local 
+     * diffusion kernel. It requires extra memory for about five (in 2D)
+     * or ten (in 3D) arrays the size of the image.
+     */
+    MULTIGRID
+  }
+
   /**
    * Sets the use of a preconditioner in this local smoothing filter.
    * A preconditioner requires extra memory and more computing time
    * per iteration, but may result in fewer iterations.
    * The default is to not use a preconditioner.
-   * @param pc true, to use a preconditioner; false, otherwise.
+   * @param pc true, to use a diagonal preconditioner; false, otherwise.
    */
   public void setPreconditioner(boolean pc) {
+    setPreconditioner(pc?Preconditioner.DIAGONAL:Preconditioner.NONE);
+  }
+
+  /**
+   * Sets the preconditioner used in this local smoothing filter.
+   * The default is no preconditioner. For large scale factors, for 
+   * which many iterations are required without a preconditioner, the 
+   * multigrid preconditioner may reduce the computing time required.
+   * @param pc the preconditioner.
+   */
+  public void setPreconditioner(Preconditioner pc) {
     _pc = pc;
   }
 
@@ -227,13 +266,16 @@ public class LocalSmoothingFilter {
   public void apply(
     Tensors2 d, float c, float[][] s, float[][] x, float[][] y) 
   {
-    Operator2 a = new A2(_ldk,d,c,s);
+    A2 a = new A2(_ldk,d,c,s);
     scopy(x,y);
-    if (_pc) {
-      Operator2 m = new M2(d,c,s,x);
-      solve(a,m,x,y);
+    if (_pc==Preconditioner.DIAGONAL) {
+      M2 m = new M2(d,c,s,x);
+      solve(a,m._p,null,x,y);
+    } else if (_pc==Preconditioner.MULTIGRID) {
+      Operator2 m = new MG2(d,c,s,x);
+      solve(a,null,m,x,y);
     } else {
-      solve(a,x,y);
+      solve(a,null,null,x,y);
     }
   }
 
@@ -301,13 +343,72 @@ public class LocalSmoothingFilter {
   public void apply(
     Tensors3 d, float c, float[][][] s, float[][][] x, float[][][] y) 
   {
-    Operator3 a = new A3(_ldk,d,c,s);
+    A3 a = new A3(_ldk,d,c,s);
     scopy(x,y);
-    if (_pc) {
-      Operator3 m = new M3(d,c,s,x);
-      solve(a,m,x,y);
+    if (_pc==Preconditioner.DIAGONAL) {
+      M3 m = new M3(d,c,s,x);
+      solve(a,m._p,null,x,y);
+    } else if (_pc==Preconditioner.MULTIGRID) {
+      Operator3 m = new MG3(d,c,s,x);
+      solve(a,null,m,x,y);
     } else {
-      solve(a,x,y);
+      solve(a,null,null,x,y);
+    }
+  }
+
+  /**
+   * Applies this filter to two arrays, for the same tensors and scale
+   * factor. Equivalent to two applications of this filter, but iterations
+   * for the two arrays are performed together, so that tensors are
+   * obtained only once for both arrays in each iteration. Iterations are
+   * performed together only if this filter has no preconditioner.
+   * @param d tensors.
+   * @param c constant scale factor for tensors.
+   * @param xa 1st input array.
+   * @param xb 2nd input array.
+   * @param ya 1st output array.
+   * @param yb 2nd output array.
+   */
+  void apply(
+    Tensors2 d, float c,
+    float[][] xa, float[][] xb, float[][] ya, float[][] yb)
+  {
+    if (_pc!=Preconditioner.NONE) {
+      apply(d,c,xa,ya);
+      apply(d,c,xb,yb);
+    } else {
+      A2 a = new A2(_ldk,d,c,null);
+      scopy(xa,ya);
+      scopy(xb,yb);
+      solve2(a,xa,xb,ya,yb);
+    }
+  }
+
+  /**
+   * Applies this filter to two arrays, for the same tensors and scale
+   * factor. Equivalent to two applications of this filter, but iterations
+   * for the two arrays are performed together, so that tensors are
+   * obtained only once for both arrays in each iteration. Iterations are
+   * performed together only if this filter has no preconditioner.
+   * @param d tensors.
+   * @param c constant scale factor for tensors.
+   * @param xa 1st input array.
+   * @param xb 2nd input array.
+   * @param ya 1st output array.
+   * @param yb 2nd output array.
+   */
+  void apply(
+    Tensors3 d, float c,
+    float[][][] xa, float[][][] xb, float[][][] ya, float[][][] yb)
+  {
+    if (_pc!=Preconditioner.NONE) {
+      apply(d,c,xa,ya);
+      apply(d,c,xb,yb);
+    } else {
+      A3 a = new A3(_ldk,d,c,null);
+      scopy(xa,ya);
+      scopy(xb,yb);
+      solve2(a,xa,xb,ya,yb);
     }
   }
 
@@ -358,12 +459,15 @@ public class LocalSmoothingFilter {
 
   private static final boolean PARALLEL = true; // false for single-threaded
 
+  private static final int NSMOOTH = 2; // multigrid smoothing sweeps
+  private static final int NCOARSE = 10; // sweeps on coarsest grid
+
   private static Logger log = 
     Logger.getLogger(LocalSmoothingFilter.class.getName());
 
   private float _small; // stop iterations when residuals are small
   private int _niter; // number of iterations
-  private boolean _pc; // true, for preconditioned CG iterations
+  private Preconditioner _pc = Preconditioner.NONE; // for CG iterations
   private LocalDiffusionKernel _ldk; // computes y += (I+G'DG)x
   private BandPassFilter _lpf; // lowpass filter, null until applied
   private double _kmax; // maximum wavenumber for lowpass filter
@@ -389,6 +493,21 @@ public class LocalSmoothingFilter {
       scopy(x,y);
       _ldk.apply(_d,_c,_s,x,y);
     }
+    public void applyG(float[][] x, float[][] y) {
+      _ldk.apply(_d,_c,_s,x,y);
+    }
+    public void apply(
+      float[][] xa, float[][] ya, float[][] xb, float[][] yb)
+    {
+      scopy(xa,ya);
+      scopy(xb,yb);
+      _ldk.apply(_d,_c,_s,xa,ya,xb,yb);
+    }
+    public void applyG(
+      float[][] xa, float[][] ya, float[][] xb, float[][] yb)
+    {
+      _ldk.apply(_d,_c,_s,xa,ya,xb,yb);
+    }
     private LocalDiffusionKernel _ldk;
     private Tensors2 _d;
     private float _c;
@@ -440,6 +559,21 @@ public class LocalSmoothingFilter {
       scopy(x,y);
       _ldk.apply(_d,_c,_s,x,y);
     }
+    public void applyG(float[][][] x, float[][][] y) {
+      _ldk.apply(_d,_c,_s,x,y);
+    }
+    public void apply(
+      float[][][] xa, float[][][] ya, float[][][] xb, float[][][] yb)
+    {
+      scopy(xa,ya);
+      scopy(xb,yb);
+      _ldk.apply(_d,_c,_s,xa,ya,xb,yb);
+    }
+    public void applyG(
+      float[][][] xa, float[][][] ya, float[][][] xb, float[][][] yb)
+    {
+      _ldk.apply(_d,_c,_s,xa,ya,xb,yb);
+    }
     private LocalDiffusionKernel _ldk;
     private Tensors3 _d;
     private float _c;
@@ -493,6 +627,843 @@ public class LocalSmoothingFilter {
     private float[][][] _p;
   }
 
+  /*
+   * A multigrid preconditioner for the operator I+G'DG with a 2x2 stencil.
+   * Each application of this preconditioner is one symmetric V-cycle with 
+   * l1-Jacobi smoothing. On each coarser grid the operator is discretized
+   * with tensor coefficients averaged from the finer grid and scaled for 
+   * the coarser sampling, and the identity is replaced by weights that 
+   * are restricted from the finer grid. Restriction is the transpose of 
+   * bilinear interpolation, scaled by 1/4.
+   * 
+   * The 2x2 stencil does not see a checkerboard image, for which I+G'DG 
+   * is the identity. Smooth images modulated by that checkerboard are also
+   * nearly invisible to G'DG with tensors D, but are equivalent to smooth 
+   * images for G'DG with the coefficients d11 and d22 swapped. Therefore, 
+   * on the finest grid, coarse-grid corrections are computed for both 
+   * images and checkerboard-modulated images, with coefficients mapped 
+   * accordingly. Without the second correction, the number of iterations 
+   * would grow with the scale factor c.
+   */
+  private static class MG2 implements Operator2 {
+    MG2(Tensors2 d, float c, float[][] s, float[][] x) {
+      int n1 = x[0].length;
+      int n2 = x.length;
+      _d = d;
+      _c = 0.25f*c;
+      _s = s;
+      Level2 l = new Level2(n1,n2);
+      l.dinv = new float[1][][];
+      l.r = new float[n2][n1];
+      ArrayList<Level2> levels = new ArrayList<Level2>();
+      levels.add(l);
+      while (max(l.n1,l.n2)>2) {
+        l = coarsen(l);
+        levels.add(l);
+      }
+      _levels = levels.toArray(new Level2[0]);
+      for (int k=0; k<_levels.length; ++k) {
+        l = _levels[k];
+        for (int m=0; m<l.dinv.length; ++m)
+          l.dinv[m] = diagonalInverse(l,(l.em!=null)?l.em[m]:null);
+      }
+    }
+    public void apply(float[][] b, float[][] x) {
+      vcycle(0,0,b,x);
+    }
+    private Tensors2 _d; // tensors for the finest grid
+    private float _c; // scale factor for the finest grid, including 1/4
+    private float[][] _s; // scale factors for the finest grid
+    private Level2[] _levels; // finest grid, then coarser grids
+
+    // Coefficient maps: indices of coefficients used for the gradients 
+    // of non-modulated and checkerboard-modulated images. For each map,
+    // whether restriction and interpolation are modulated in each dimension.
+    private static final int[][] MAPS = {{0,1},{1,0}};
+    private static final boolean[][] MODS = {{false,false},{true,true}};
+
+    private static class Level2 {
+      Level2(int n1, int n2) {
+        this.n1 = n1;
+        this.n2 = n2;
+      }
+      int n1,n2; // grid dimensions
+      float[][] w; // identity weights; null, for the finest grid
+      float[][][][] em; // mapped coefficients; null, for the finest grid
+      float[][][] dinv; // inverse l1 diagonals, one for each map
+      float[][] x,b,r; // work arrays
+    }
+
+    private void vcycle(int k, int m, float[][] b, float[][] x) {
+      Level2 l = _levels[k];
+      float[][][] e = (l.em!=null)?l.em[m]:null;
+      float[][] dinv = l.dinv[m];
+      if (k==_levels.length-1) {
+        smooth(l,e,dinv,NCOARSE,b,x);
+      } else {
+        smooth(l,e,dinv,NSMOOTH,b,x);
+        residual(l,e,b,x,l.r);
+        Level2 lc = _levels[k+1];
+        int nm = (k==0)?MAPS.length:1;
+        for (int mc=0; mc<nm; ++mc) {
+          boolean[] mods = MODS[mc];
+          restrict(l,mods,l.r,lc.b);
+          vcycle(k+1,(k==0)?mc:m,lc.b,lc.x);
+          prolong(lc,mods,lc.x,l,x);
+        }
+        for (int ismooth=0; ismooth<NSMOOTH; ++ismooth)
+          jacobi(l,e,dinv,b,x);
+      }
+    }
+
+    // Jacobi sweeps, beginning with x = 0.
+    private void smooth(
+      Level2 l, float[][][] e, float[][] dinv, int nsmooth, 
+      float[][] b, float[][] x) 
+    {
+      sxy(dinv,b,x);
+      for (int ismooth=1; ismooth<nsmooth; ++ismooth)
+        jacobi(l,e,dinv,b,x);
+    }
+
+    // One l1-Jacobi sweep, x = x+Dinv(b-Ax); uses the array l.r.
+    private void jacobi(
+      Level2 l, float[][][] e, final float[][] dinv, 
+      final float[][] b, final float[][] x) 
+    {
+      final float[][] r = l.r;
+      apply(l,e,x,r);
+      final int n1 = l.n1;
+      Parallel.loop(l.n2,new Parallel.LoopInt() {
+        public void compute(int i2) {
+          float[] b2 = b[i2], r2 = r[i2], x2 = x[i2], d2 = dinv[i2];
+          for (int i1=0; i1<n1; ++i1)
+            x2[i1] += d2[i1]*(b2[i1]-r2[i1]);
+        }
+      });
+    }
+
+    // Computes r = b-Ax.
+    private void residual(
+      Level2 l, float[][][] e, float[][] b, float[][] x, float[][] r) 
+    {
+      apply(l,e,x,r);
+      sxpay(-1.0f,b,r);
+    }
+
+    // Computes y = Wx+G'EGx, where W is weights and E is coefficients.
+    private void apply(
+      final Level2 l, final float[][][] e, 
+      final float[][] x, final float[][] y) 
+    {
+      if (l.w!=null) {
+        sxy(l.w,x,y);
+      } else {
+        scopy(x,y);
+      }
+      if (e!=null || l.em==null) {
+        loopCells(l.n2,new Parallel.LoopInt() {
+          public void compute(int i2) {
+            applyCells(l,e,i2,x,y);
+          }
+        });
+      }
+    }
+
+    // Loops over all cells, in two passes, so that cells processed in
+    // parallel do not share any samples.
+    private static void loopCells(int n2, Parallel.LoopInt body) {
+      if (n2>1)
+        Parallel.loop(1,n2,2,body);
+      if (n2>2)
+        Parallel.loop(2,n2,2,body);
+    }
+
+    // Gets coefficients d11, d12 and d22 for one cell.
+    private void getCoefficients(
+      float[][][] e, int i1, int i2, float[] di)
+    {
+      if (e==null) {
+        float csi = (_s!=null)?_c*_s[i2][i1]:_c;
+        if (_d!=null) {
+          _d.getTensor(i1,i2,di);
+          di[0] *= csi;
+          di[1] *= csi;
+          di[2] *= csi;
+        } else {
+          di[0] = csi;
+          di[1] = 0.0f;
+          di[2] = csi;
+        }
+      } else {
+        di[0] = e[0][i2][i1];
+        di[1] = e[1][i2][i1];
+        di[2] = e[2][i2][i1];
+      }
+    }
+
+    private void applyCells(
+      Level2 l, float[][][] e, int i2, float[][] x, float[][] y) 
+    {
+      int n1 = l.n1;
+      float[] di = new float[3];
+      float[] x0 = x[i2  ];
+      float[] xm = x[i2-1];
+      float[] y0 = y[i2  ];
+      float[] ym = y[i2-1];
+      float[] e11 = (e!=null)?e[0][i2]:null;
+      float[] e12 = (e!=null)?e[1][i2]:null;
+      float[] e22 = (e!=null)?e[2][i2]:null;
+      for (int i1=1,m1=0; i1<n1; ++i1,++m1) {
+        float d11,d12,d22;
+        if (e==null) {
+          getCoefficients(null,i1,i2,di);
+          d11 = di[0]; d12 = di[1]; d22 = di[2];
+        } else {
+          d11 = e11[i1];
+          d12 = e12[i1];
+          d22 = e22[i1];
+        }
+        float xa = x0[i1]-xm[m1];
+        float xb = x0[m1]-xm[i1];
+        float x1 = xa-xb;
+        float x2 = xa+xb;
+        float y1 = d11*x1+d12*x2;
+        float y2 = d12*x1+d22*x2;
+        float ya = y1+y2;
+        float yb = y1-y2;
+        y0[i1] += ya;
+        y0[m1] -= yb;
+        ym[i1] += yb;
+        ym[m1] -= ya;
+      }
+    }
+
+    // Returns the inverse of the l1 diagonal, the sums of absolute values
+    // of elements in each row of the matrix for the specified level.
+    private float[][] diagonalInverse(final Level2 l, final float[][][] e) {
+      final int n1 = l.n1;
+      final int n2 = l.n2;
+      final float[][] dinv = (l.w!=null)?copy(l.w):fillfloat(1.0f,n1,n2);
+      if (e!=null || l.em==null) {
+        loopCells(n2,new Parallel.LoopInt() {
+          public void compute(int i2) {
+            float[] di = new float[3];
+            for (int i1=1,m1=0; i1<n1; ++i1,++m1) {
+              getCoefficients(e,i1,i2,di);
+              float d11 = di[0], d12 = di[1], d22 = di[2];
+              float o = 2.0f*abs(d22-d11);
+              float a = 2.0f*(d11+d12+d12+d22)+o;
+              float b = 2.0f*(d11-d12-d12+d22)+o;
+              dinv[i2  ][i1] += a;
+              dinv[i2-1][m1] += a;
+              dinv[i2  ][m1] += b;
+              dinv[i2-1][i1] += b;
+            }
+          }
+        });
+      }
+      div(1.0f,dinv,dinv);
+      return dinv;
+    }
+
+    // Returns the next coarser level for the specified level.
+    private Level2 coarsen(final Level2 l) {
+      final int n1 = l.n1, n2 = l.n2;
+      final int m1 = n1/2+1, m2 = n2/2+1;
+      final Level2 lc = new Level2(m1,m2);
+      lc.w = new float[m2][m1];
+      if (l.w!=null) {
+        restrict(l,MODS[0],l.w,lc.w);
+      } else {
+        for (int j2=0; j2<m2; ++j2)
+          for (int j1=0; j1<m1; ++j1)
+            lc.w[j2][j1] = 0.25f*weight(n1,j1)*weight(n2,j2);
+      }
+
+      // Coefficients for a coarse cell are the sums of those for the fine
+      // cells within it, scaled by 1/4 for averaging and 1/4 for sampling.
+      final float[][] e11 = new float[m2][m1];
+      final float[][] e12 = new float[m2][m1];
+      final float[][] e22 = new float[m2][m1];
+      final float[][][] e = (l.em!=null)?l.em[0]:null;
+      Parallel.loop(1,m2,new Parallel.LoopInt() {
+        public void compute(int j2) {
+          float[] di = new float[3];
+          for (int i2=2*j2-1; i2<=2*j2 && i2<n2; ++i2) {
+            for (int j1=1; j1<m1; ++j1) {
+              for (int i1=2*j1-1; i1<=2*j1 && i1<n1; ++i1) {
+                getCoefficients(e,i1,i2,di);
+                e11[j2][j1] += 0.0625f*di[0];
+                e12[j2][j1] += 0.0625f*di[1];
+                e22[j2][j1] += 0.0625f*di[2];
+              }
+            }
+          }
+        }
+      });
+      float[][][][] ee = {{e11,e12},{e12,e22}};
+      lc.em = new float[MAPS.length][][][];
+      for (int m=0; m<MAPS.length; ++m) {
+        int[] k = MAPS[m];
+        lc.em[m] = new float[][][]{
+          ee[k[0]][k[0]],ee[k[0]][k[1]],ee[k[1]][k[1]]
+        };
+      }
+      lc.dinv = new float[MAPS.length][][];
+      lc.x = new float[m2][m1];
+      lc.b = new float[m2][m1];
+      lc.r = new float[m2][m1];
+      return lc;
+    }
+
+    // Restricts x (possibly modulated) to the next coarser level.
+    private void restrict(
+      final Level2 l, boolean[] mods, final float[][] x, final float[][] y) 
+    {
+      final int n2 = l.n2;
+      final int m2 = n2/2+1;
+      final float h1 = (mods[0])?-0.5f:0.5f;
+      final float h2 = (mods[1])?-0.5f:0.5f;
+      Parallel.loop(m2,new Parallel.LoopInt() {
+        public void compute(int j2) {
+          float[] y2 = y[j2];
+          zero(y2);
+          for (int k2=-1; k2<=1; ++k2) {
+            int i2 = 2*j2+k2;
+            if (0<=i2 && i2<n2)
+              restrictRow(true,h1,(k2==0)?0.25f:0.25f*h2,x[i2],y2);
+          }
+        }
+      });
+    }
+
+    // Adds to x the interpolation (possibly modulated) of coarse y.
+    private void prolong(
+      Level2 lc, boolean[] mods, final float[][] y, 
+      Level2 l, final float[][] x) 
+    {
+      final int n1 = l.n1;
+      final float h1 = (mods[0])?-0.5f:0.5f;
+      final float h2 = (mods[1])?-0.5f:0.5f;
+      Parallel.loop(l.n2,new Parallel.LoopInt() {
+        public void compute(int i2) {
+          int j2 = i2/2;
+          float[] ya = y[j2];
+          float[] yb = y[j2+(i2&1)];
+          float f2 = ((i2&1)==0)?0.5f:h2;
+          float[] x2 = x[i2];
+          for (int i1=0; i1<n1; ++i1) {
+            int j1 = i1/2;
+            int k1 = j1+(i1&1);
+            float f1 = ((i1&1)==0)?0.5f:h1;
+            x2[i1] += f2*f1*(ya[j1]+ya[k1]+yb[j1]+yb[k1]);
+          }
+        }
+      });
+    }
+  }
+
+  /*
+   * A multigrid preconditioner for the operator I+G'DG with a 2x2x2
+   * stencil. Like the multigrid preconditioner for 2D images, except that
+   * the 2x2x2 stencil does not see images modulated by four different
+   * checkerboards, one for each combination of two or three dimensions in
+   * which samples alternate. For images modulated by a checkerboard that
+   * alternates in two dimensions, the gradients in those dimensions are
+   * swapped and the gradient in the third dimension is negligible, so that
+   * such images may vary arbitrarily in that third dimension. (Images
+   * modulated by the checkerboard that alternates in all three dimensions
+   * are a special case.) Therefore, corrections for those images are
+   * computed on grids that are coarsened in only the two dimensions in
+   * which the checkerboard alternates, with coefficients mapped accordingly.
+   * Coarse-grid identity weights are separable, and are stored as one
+   * array of weights for each dimension.
+   */
+  private static class MG3 implements Operator3 {
+    MG3(Tensors3 d, float c, float[][][] s, float[][][] x) {
+      int n1 = x[0][0].length;
+      int n2 = x[0].length;
+      int n3 = x.length;
+      _d = d;
+      _c = 0.0625f*c;
+      _s = s;
+      Level3 lf = new Level3(n1,n2,n3);
+      lf.r = new float[n3][n2][n1];
+      lf.dinv = diagonalInverse(lf);
+      _levels = new Level3[MAPS.length][];
+      for (int m=0; m<MAPS.length; ++m) {
+        boolean[] cs = COARSE[m];
+        ArrayList<Level3> levels = new ArrayList<Level3>();
+        Level3 l = lf;
+        levels.add(l);
+        while ((cs[0] && l.n1>2) || (cs[1] && l.n2>2) || (cs[2] && l.n3>2)) {
+          l = coarsen(l,cs,(l==lf)?MAPS[m]:MAPS[0]);
+          levels.add(l);
+        }
+        _levels[m] = levels.toArray(new Level3[0]);
+      }
+    }
+    public void apply(float[][][] b, float[][][] x) {
+      vcycle(0,0,b,x);
+    }
+    private Tensors3 _d; // tensors for the finest grid
+    private float _c; // scale factor for the finest grid, including 1/16
+    private float[][][] _s; // scale factors for the finest grid
+    private Level3[][] _levels; // for each map, finest grid then coarser
+
+    // Coefficient maps: indices of gradients used for the gradients of
+    // non-modulated and checkerboard-modulated images, with -1 for
+    // negligible gradients. For each map, whether restriction and
+    // interpolation are modulated in each dimension, and whether grids
+    // are coarsened in each dimension.
+    private static final int[][] MAPS = {
+      { 0, 1, 2},{ 1, 0,-1},{ 2,-1, 0},{-1, 2, 1}
+    };
+    private static final boolean[][] MODS = {
+      {false,false,false},{true,true,false},{true,false,true},
+      {false,true,true}
+    };
+    private static final boolean[][] COARSE = {
+      {true,true,true},{true,true,false},{true,false,true},
+      {false,true,true}
+    };
+
+    // Indices of the coefficients d11, d12, d13, d22, d23 and d33.
+    private static final int[][] JK = {{0,1,2},{1,3,4},{2,4,5}};
+
+    private static class Level3 {
+      Level3(int n1, int n2, int n3) {
+        this.n1 = n1;
+        this.n2 = n2;
+        this.n3 = n3;
+      }
+      int n1,n2,n3; // grid dimensions
+      float[] w1,w2,w3; // separable identity weights; null, for finest grid
+      float[][][][] e; // coefficients, null if zero; null, for finest grid
+      float[][][] dinv; // inverse l1 diagonal
+      float[][][] x,b,r; // work arrays
+    }
+
+    private void vcycle(int m, int k, float[][][] b, float[][][] x) {
+      Level3 l = _levels[m][k];
+      boolean coarsest = (k>0)?k==_levels[m].length-1:_levels[0].length==1;
+      if (coarsest) {
+        smooth(l,NCOARSE,b,x);
+      } else {
+        smooth(l,NSMOOTH,b,x);
+        residual(l,b,x,l.r);
+        if (k==0) {
+          for (int mc=0; mc<MAPS.length; ++mc) {
+            if (_levels[mc].length>1)
+              correct(mc,k,MODS[mc],x);
+          }
+        } else {
+          correct(m,k,MODS[0],x);
+        }
+        for (int ismooth=0; ismooth<NSMOOTH; ++ismooth)
+          jacobi(l,b,x);
+      }
+    }
+
+    // Adds to x a coarse-grid correction computed from the residual l.r,
+    // using restriction and interpolation with the specified modulation.
+    private void correct(int m, int k, boolean[] mods, float[][][] x) {
+      Level3 l = _levels[m][k];
+      Level3 lc = _levels[m][k+1];
+      restrict(l,COARSE[m],mods,l.r,lc.b);
+      vcycle(m,k+1,lc.b,lc.x);
+      prolong(lc,COARSE[m],mods,lc.x,l,x);
+    }
+
+    // Jacobi sweeps, beginning with x = 0.
+    private void smooth(
+      Level3 l, int nsmooth, float[][][] b, float[][][] x)
+    {
+      sxy(l.dinv,b,x);
+      for (int ismooth=1; ismooth<nsmooth; ++ismooth)
+        jacobi(l,b,x);
+    }
+
+    // One l1-Jacobi sweep, x = x+Dinv(b-Ax); uses the array l.r.
+    private void jacobi(Level3 l, final float[][][] b, final float[][][] x) {
+      final float[][][] r = l.r;
+      final float[][][] dinv = l.dinv;
+      apply(l,x,r);
+      final int n1 = l.n1;
+      final int n2 = l.n2;
+      Parallel.loop(l.n3,new Parallel.LoopInt() {
+        public void compute(int i3) {
+          for (int i2=0; i2<n2; ++i2) {
+            float[] b32 = b[i3][i2], r32 = r[i3][i2];
+            float[] x32 = x[i3][i2], d32 = dinv[i3][i2];
+            for (int i1=0; i1<n1; ++i1)
+              x32[i1] += d32[i1]*(b32[i1]-r32[i1]);
+          }
+        }
+      });
+    }
+
+    // Computes r = b-Ax.
+    private void residual(
+      Level3 l, float[][][] b, float[][][] x, float[][][] r)
+    {
+      apply(l,x,r);
+      sxpay(-1.0f,b,r);
+    }
+
+    // Computes y = Wx+G'EGx, where W is weights and E is coefficients.
+    private void apply(
+      final Level3 l, final float[][][] x, final float[][][] y)
+    {
+      weigh(l,x,y);
+      loopCells(l.n3,new Parallel.LoopInt() {
+        public void compute(int i3) {
+          applyCells(l,i3,x,y);
+        }
+      });
+    }
+
+    // Computes y = Wx, where W is weights.
+    private static void weigh(
+      Level3 l, final float[][][] x, final float[][][] y)
+    {
+      if (l.w1==null) {
+        scopy(x,y);
+        return;
+      }
+      final int n1 = l.n1;
+      final int n2 = l.n2;
+      final float[] w1 = l.w1, w2 = l.w2, w3 = l.w3;
+      Parallel.loop(l.n3,new Parallel.LoopInt() {
+        public void compute(int i3) {
+          for (int i2=0; i2<n2; ++i2) {
+            float w32 = w3[i3]*w2[i2];
+            float[] x32 = x[i3][i2], y32 = y[i3][i2];
+            for (int i1=0; i1<n1; ++i1)
+              y32[i1] = w32*w1[i1]*x32[i1];
+          }
+        }
+      });
+    }
+
+    // Loops over all cells, in two passes, so that cells processed in
+    // parallel do not share any samples.
+    private static void loopCells(int n3, Parallel.LoopInt body) {
+      if (n3>1)
+        Parallel.loop(1,n3,2,body);
+      if (n3>2)
+        Parallel.loop(2,n3,2,body);
+    }
+
+    // Gets coefficients d11, d12, d13, d22, d23 and d33 for one cell.
+    private void getCoefficients(
+      float[][][][] e, int i1, int i2, int i3, float[] di)
+    {
+      if (e==null) {
+        float csi = (_s!=null)?_c*_s[i3][i2][i1]:_c;
+        if (_d!=null) {
+          _d.getTensor(i1,i2,i3,di);
+          for (int j=0; j<6; ++j)
+            di[j] *= csi;
+        } else {
+          di[0] = csi; di[1] = 0.0f; di[2] = 0.0f;
+          di[3] = csi; di[4] = 0.0f; di[5] = csi;
+        }
+      } else {
+        for (int j=0; j<6; ++j)
+          di[j] = (e[j]!=null)?e[j][i3][i2][i1]:0.0f;
+      }
+    }
+
+    private void applyCells(
+      Level3 l, int i3, float[][][] x, float[][][] y)
+    {
+      int n1 = l.n1;
+      int n2 = l.n2;
+      float[][][][] e = l.e;
+      float[] di = new float[6];
+      float[][] ei = new float[6][];
+      float[] zero = (e!=null)?new float[n1]:null;
+      for (int i2=1; i2<n2; ++i2) {
+        float[] x00 = x[i3  ][i2  ];
+        float[] x0m = x[i3  ][i2-1];
+        float[] xm0 = x[i3-1][i2  ];
+        float[] xmm = x[i3-1][i2-1];
+        float[] y00 = y[i3  ][i2  ];
+        float[] y0m = y[i3  ][i2-1];
+        float[] ym0 = y[i3-1][i2  ];
+        float[] ymm = y[i3-1][i2-1];
+        if (e!=null) {
+          for (int j=0; j<6; ++j)
+            ei[j] = (e[j]!=null)?e[j][i3][i2]:zero;
+        }
+        for (int i1=1,m1=0; i1<n1; ++i1,++m1) {
+          float d11,d12,d13,d22,d23,d33;
+          if (e==null) {
+            getCoefficients(null,i1,i2,i3,di);
+            d11 = di[0]; d12 = di[1]; d13 = di[2];
+            d22 = di[3]; d23 = di[4]; d33 = di[5];
+          } else {
+            d11 = ei[0][i1]; d12 = ei[1][i1]; d13 = ei[2][i1];
+            d22 = ei[3][i1]; d23 = ei[4][i1]; d33 = ei[5][i1];
+          }
+          float xa = x00[i1]-xmm[m1];
+          float xb = x00[m1]-xmm[i1];
+          float xc = x0m[i1]-xm0[m1];
+          float xd = xm0[i1]-x0m[m1];
+          float x1 = xa-xb+xc+xd;
+          float x2 = xa+xb-xc+xd;
+          float x3 = xa+xb+xc-xd;
+          float y1 = d11*x1+d12*x2+d13*x3;
+          float y2 = d12*x1+d22*x2+d23*x3;
+          float y3 = d13*x1+d23*x2+d33*x3;
+          float ya = y1+y2+y3; y00[i1] += ya; ymm[m1] -= ya;
+          float yb = y1-y2+y3; y0m[i1] += yb; ym0[m1] -= yb;
+          float yc = y1+y2-y3; ym0[i1] += yc; y0m[m1] -= yc;
+          float yd = y1-y2-y3; ymm[i1] += yd; y00[m1] -= yd;
+        }
+      }
+    }
+
+    // Returns the inverse of the l1 diagonal, the sums of absolute values
+    // of elements in each row of the matrix for the specified level.
+    // Within each cell, elements of that matrix are products g'Dh, where
+    // g and h are gradients for the cell's corners, with components +1
+    // or -1. Opposite corners have gradients with opposite signs.
+    private float[][][] diagonalInverse(final Level3 l) {
+      final int n1 = l.n1;
+      final int n2 = l.n2;
+      final int n3 = l.n3;
+      final float[][][] dinv = new float[n3][n2][n1];
+      weigh(l,fillfloat(1.0f,n1,n2,n3),dinv);
+      final float[][] g = {{1,1,1},{1,-1,1},{1,1,-1},{1,-1,-1}};
+      loopCells(n3,new Parallel.LoopInt() {
+        public void compute(int i3) {
+          float[] di = new float[6];
+          float[][] dg = new float[4][3];
+          float[] a = new float[4];
+          for (int i2=1; i2<n2; ++i2) {
+            float[] d00 = dinv[i3  ][i2  ];
+            float[] d0m = dinv[i3  ][i2-1];
+            float[] dm0 = dinv[i3-1][i2  ];
+            float[] dmm = dinv[i3-1][i2-1];
+            for (int i1=1,m1=0; i1<n1; ++i1,++m1) {
+              getCoefficients(l.e,i1,i2,i3,di);
+              for (int k=0; k<4; ++k) {
+                float[] gk = g[k];
+                dg[k][0] = di[0]*gk[0]+di[1]*gk[1]+di[2]*gk[2];
+                dg[k][1] = di[1]*gk[0]+di[3]*gk[1]+di[4]*gk[2];
+                dg[k][2] = di[2]*gk[0]+di[4]*gk[1]+di[5]*gk[2];
+              }
+              for (int j=0; j<4; ++j) {
+                float[] gj = g[j];
+                float sum = 0.0f;
+                for (int k=0; k<4; ++k)
+                  sum += abs(gj[0]*dg[k][0]+gj[1]*dg[k][1]+gj[2]*dg[k][2]);
+                a[j] = 2.0f*sum;
+              }
+              d00[i1] += a[0]; dmm[m1] += a[0];
+              d0m[i1] += a[1]; dm0[m1] += a[1];
+              dm0[i1] += a[2]; d0m[m1] += a[2];
+              dmm[i1] += a[3]; d00[m1] += a[3];
+            }
+          }
+        }
+      });
+      div(1.0f,dinv,dinv);
+      return dinv;
+    }
+
+    // Returns the next coarser level for the specified level, with grids
+    // coarsened in the specified dimensions, and coefficients mapped.
+    private Level3 coarsen(
+      final Level3 l, final boolean[] cs, final int[] map)
+    {
+      final int n1 = l.n1, n2 = l.n2, n3 = l.n3;
+      final int m1 = cs[0]?n1/2+1:n1;
+      final int m2 = cs[1]?n2/2+1:n2;
+      final int m3 = cs[2]?n3/2+1:n3;
+      final Level3 lc = new Level3(m1,m2,m3);
+      lc.w1 = weights(cs[0],n1,l.w1);
+      lc.w2 = weights(cs[1],n2,l.w2);
+      lc.w3 = weights(cs[2],n3,l.w3);
+
+      // Coefficients for a coarse cell are the sums of those for the fine
+      // cells within it, scaled by 1/2 for averaging and by 1/2 for each
+      // gradient for sampling, in each coarsened dimension.
+      final float[] sc = new float[3];
+      float sa = 1.0f;
+      for (int i=0; i<3; ++i) {
+        sc[i] = cs[i]?0.5f:1.0f;
+        sa *= sc[i];
+      }
+      final int[] je = new int[6];
+      final float[] se = new float[6];
+      lc.e = new float[6][][][];
+      for (int ka=0; ka<3; ++ka) {
+        for (int kb=ka; kb<3; ++kb) {
+          int j = JK[ka][kb];
+          int jf = (map[ka]>=0 && map[kb]>=0)?JK[map[ka]][map[kb]]:-1;
+          if (jf>=0 && (l.e==null || l.e[jf]!=null)) {
+            je[j] = jf;
+            se[j] = sa*sc[ka]*sc[kb];
+            lc.e[j] = new float[m3][m2][m1];
+          } else {
+            je[j] = -1;
+          }
+        }
+      }
+      final float[][][][] ec = lc.e;
+      final int r1 = cs[0]?2:1, r2 = cs[1]?2:1, r3 = cs[2]?2:1;
+      Parallel.loop(1,m3,new Parallel.LoopInt() {
+        public void compute(int j3) {
+          float[] di = new float[6];
+          for (int i3=r3*j3-r3+1; i3<=r3*j3 && i3<n3; ++i3) {
+            for (int j2=1; j2<m2; ++j2) {
+              for (int i2=r2*j2-r2+1; i2<=r2*j2 && i2<n2; ++i2) {
+                for (int j1=1; j1<m1; ++j1) {
+                  for (int i1=r1*j1-r1+1; i1<=r1*j1 && i1<n1; ++i1) {
+                    getCoefficients(l.e,i1,i2,i3,di);
+                    for (int j=0; j<6; ++j) {
+                      if (je[j]>=0)
+                        ec[j][j3][j2][j1] += se[j]*di[je[j]];
+                    }
+                  }
+                }
+              }
+            }
+          }
+        }
+      });
+      lc.dinv = diagonalInverse(lc);
+      lc.x = new float[m3][m2][m1];
+      lc.b = new float[m3][m2][m1];
+      lc.r = new float[m3][m2][m1];
+      return lc;
+    }
+
+    // Returns weights restricted from the specified weights (or ones,
+    // if null) for one dimension, if coarsened, with restriction scaled
+    // by 1/2.
+    private static float[] weights(boolean c, int n, float[] w) {
+      if (!c)
+        return (w!=null)?w:fillfloat(1.0f,n);
+      int m = n/2+1;
+      float[] wc = new float[m];
+      for (int j=0; j<m; ++j) {
+        for (int k=-1; k<=1; ++k) {
+          int i = 2*j+k;
+          if (0<=i && i<n)
+            wc[j] += ((k==0)?0.5f:0.25f)*((w!=null)?w[i]:1.0f);
+        }
+      }
+      return wc;
+    }
+
+    // Restricts x (possibly modulated) to the next coarser level.
+    private void restrict(
+      final Level3 l, final boolean[] cs, boolean[] mods,
+      final float[][][] x, final float[][][] y)
+    {
+      final int n2 = l.n2, n3 = l.n3;
+      final int m2 = y[0].length, m3 = y.length;
+      final int r2 = cs[1]?2:1, r3 = cs[2]?2:1;
+      final int k2 = cs[1]?1:0, k3 = cs[2]?1:0;
+      final float h1 = (mods[0])?-0.5f:0.5f;
+      final float h2 = (mods[1])?-0.5f:0.5f;
+      final float h3 = (mods[2])?-0.5f:0.5f;
+      final float s = 1.0f/((cs[0]?2:1)*r2*r3);
+      Parallel.loop(m3,new Parallel.LoopInt() {
+        public void compute(int j3) {
+          for (int j2=0; j2<m2; ++j2) {
+            float[] y32 = y[j3][j2];
+            zero(y32);
+            for (int l3=-k3; l3<=k3; ++l3) {
+              int i3 = r3*j3+l3;
+              if (i3<0 || i3>=n3) continue;
+              float f3 = (l3==0)?s:h3*s;
+              for (int l2=-k2; l2<=k2; ++l2) {
+                int i2 = r2*j2+l2;
+                if (i2<0 || i2>=n2) continue;
+                float f = (l2==0)?f3:h2*f3;
+                restrictRow(cs[0],h1,f,x[i3][i2],y32);
+              }
+            }
+          }
+        }
+      });
+    }
+
+    // Adds to x the interpolation (possibly modulated) of coarse y.
+    private void prolong(
+      Level3 lc, final boolean[] cs, boolean[] mods, final float[][][] y,
+      Level3 l, final float[][][] x)
+    {
+      final int n1 = l.n1;
+      final int n2 = l.n2;
+      final float h1 = (mods[0])?-0.5f:0.5f;
+      final float h2 = (mods[1])?-0.5f:0.5f;
+      final float h3 = (mods[2])?-0.5f:0.5f;
+      Parallel.loop(l.n3,new Parallel.LoopInt() {
+        public void compute(int i3) {
+          boolean odd3 = cs[2] && (i3&1)!=0;
+          int j3 = cs[2]?i3/2:i3;
+          float[][] ya = y[j3];
+          float[][] yb = y[odd3?j3+1:j3];
+          float f3 = odd3?h3:0.5f;
+          for (int i2=0; i2<n2; ++i2) {
+            boolean odd2 = cs[1] && (i2&1)!=0;
+            int j2 = cs[1]?i2/2:i2;
+            int k2 = odd2?j2+1:j2;
+            float f32 = f3*(odd2?h2:0.5f);
+            float[] yaa = ya[j2], yab = ya[k2], yba = yb[j2], ybb = yb[k2];
+            float[] x32 = x[i3][i2];
+            for (int i1=0; i1<n1; ++i1) {
+              boolean odd1 = cs[0] && (i1&1)!=0;
+              int j1 = cs[0]?i1/2:i1;
+              int k1 = odd1?j1+1:j1;
+              float f = f32*(odd1?h1:0.5f);
+              x32[i1] += f*(yaa[j1]+yaa[k1]+yab[j1]+yab[k1]+
+                            yba[j1]+yba[k1]+ybb[j1]+ybb[k1]);
+            }
+          }
+        }
+      });
+    }
+  }
+
+  // Adds to y the restriction (possibly modulated) of x, scaled by f,
+  // in one dimension, if coarsened in that dimension.
+  private static void restrictRow(
+    boolean c, float h, float f, float[] x, float[] y)
+  {
+    int n = x.length;
+    int m = y.length;
+    if (!c) {
+      for (int j=0; j<m; ++j)
+        y[j] += f*x[j];
+      return;
+    }
+    float fh = f*h;
+    y[0] += f*x[0]+((n>1)?fh*x[1]:0.0f);
+    for (int j=1,i=2; j<m; ++j,i+=2) {
+      float yj = fh*x[i-1];
+      if (i<n) yj += f*x[i];
+      if (i+1<n) yj += fh*x[i+1];
+      y[j] += yj;
+    }
+  }
+
+  // Sum of weights for bilinear (or trilinear) interpolation from the 
+  // coarse sample with index j to fine samples with indices in [0,n).
+  private static float weight(int n, int j) {
+    float w = (2*j<n)?1.0f:0.0f;
+    if (j>0 && 2*j-1<n) w += 0.5f;
+    if (2*j+1<n) w += 0.5f;
+    return w;
+  }
+
   /*
    * Computes y = lowpass(x). Arrays x and y may be the same array.
    */
@@ -606,148 +1577,405 @@ public class LocalSmoothingFilter {
     }
   }
 
-  // Conjugate-gradient solution of Ax = b, with no preconditioner.
-  // Uses the initial values of x; does not assume they are zero.
-  private void solve(Operator2 a, float[][] b, float[][] x) {
-    int n1 = b[0].length;
-    int n2 = b.length;
-    float[][] d = new float[n2][n1];
-    float[][] q = new float[n2][n1];
-    float[][] r = new float[n2][n1];
-    scopy(b,r);
-    a.apply(x,q);
-    saxpy(-1.0f,q,r); // r = b-Ax
-    scopy(r,d); // d = r
-    float delta = sdot(r,r); // delta = r'r
-    float bnorm = sqrt(sdot(b,b));
-    float rnorm = sqrt(delta);
-    float rnormBegin = rnorm;
-    float rnormSmall = bnorm*_small;
+  // Conjugate-gradient solution of Ax = b, with a diagonal preconditioner
+  // P, if not null, or with a preconditioner M, if not null. Uses the 
+  // initial values of x; does not assume they are zero.
+  private void solve(
+    A2 a, float[][] p, Operator2 m, float[][] b, float[][] x) 
+  {
+    Stopwatch swa = new Stopwatch();
+    Stopwatch swm = new Stopwatch();
+    Stopwatch swi = new Stopwatch();
+    swi.start();
+    Cg2 cg = new Cg2(p,m,b,x,swm);
+    a.apply(x,cg.q);
+    cg.begin();
+    log.fine("solve: bnorm="+cg.bnorm+" rnorm="+cg.rnorm);
     int iter;
-    log.fine("solve: bnorm="+bnorm+" rnorm="+rnorm);
-    for (iter=0; iter<_niter && rnorm>rnormSmall; ++iter) {
-      log.finer("  iter="+iter+" rnorm="+rnorm+" ratio="+rnorm/rnormBegin);
-      a.apply(d,q); // q = Ad
-      float dq = sdot(d,q); // d'q = d'Ad
-      float alpha = delta/dq; // alpha = r'r/d'Ad
-      saxpy( alpha,d,x); // x = x+alpha*d
-      saxpy(-alpha,q,r); // r = r-alpha*q
-      float deltaOld = delta;
-      delta = sdot(r,r); // delta = r'r
-      float beta = delta/deltaOld;
-      sxpay(beta,r,d); // d = r+beta*d
-      rnorm = sqrt(delta);
-    }
-    log.fine("  iter="+iter+" rnorm="+rnorm+" ratio="+rnorm/rnormBegin);
-  }
-  private void solve(Operator3 a, float[][][] b, float[][][] x) {
-    int n1 = b[0][0].length;
-    int n2 = b[0].length;
-    int n3 = b.length;
-    float[][][] d = new float[n3][n2][n1];
-    float[][][] q = new float[n3][n2][n1];
-    float[][][] r = new float[n3][n2][n1];
-    scopy(b,r); a.apply(x,q); saxpy(-1.0f,q,r); // r = b-Ax
-    scopy(r,d);
-    float delta = sdot(r,r);
-    float bnorm = sqrt(sdot(b,b));
-    float rnorm = sqrt(delta);
-    float rnormBegin = rnorm;
-    float rnormSmall = bnorm*_small;
+    for (iter=0; iter<_niter && cg.active; ++iter) {
+      double ti = swi.time();
+      swa.start();
+      a.applyG(cg.d,cg.q); // q = Ad
+      swa.stop();
+      cg.update(iter);
+      log.finer("  iter="+iter+" rnorm="+cg.rnorm+" ratio="+cg.ratio()+
+                " time="+(swi.time()-ti));
+    }
+    swi.stop();
+    log.fine("  iter="+iter+" rnorm="+cg.rnorm+" ratio="+cg.ratio());
+    logTimes(iter,swi,swa,swm);
+  }
+  private void solve(
+    A3 a, float[][][] p, Operator3 m, float[][][] b, float[][][] x) 
+  {
+    Stopwatch swa = new Stopwatch();
+    Stopwatch swm = new Stopwatch();
+    Stopwatch swi = new Stopwatch();
+    swi.start();
+    Cg3 cg = new Cg3(a,p,m,b,x,swm);
+    a.apply(x,cg.q);
+    cg.begin();
+    log.fine("solve: bnorm="+cg.bnorm+" rnorm="+cg.rnorm);
     int iter;
-    log.fine("solve: bnorm="+bnorm+" rnorm="+rnorm);
-    for (iter=0; iter<_niter && rnorm>rnormSmall; ++iter) {
-      log.finer("  iter="+iter+" rnorm="+rnorm+" ratio="+rnorm/rnormBegin);
-      a.apply(d,q);
-      float dq = sdot(d,q);
-      float alpha = delta/dq;
-      saxpy( alpha,d,x);
-      if (iter%100<99) {
-        saxpy(-alpha,q,r);
+    for (iter=0; iter<_niter && cg.active; ++iter) {
+      double ti = swi.time();
+      swa.start();
+      a.applyG(cg.d,cg.q); // q = Ad
+      swa.stop();
+      cg.update(iter);
+      log.finer("  iter="+iter+" rnorm="+cg.rnorm+" ratio="+cg.ratio()+
+                " time="+(swi.time()-ti));
+    }
+    swi.stop();
+    log.fine("  iter="+iter+" rnorm="+cg.rnorm+" ratio="+cg.ratio());
+    logTimes(iter,swi,swa,swm);
+  }
+
+  // Solves two systems Axa = ba and Axb = bb with the same operator A and
+  // no preconditioner. Iterations for the two systems are those of the
+  // solve methods above, but are performed together, so that each
+  // application of A to both search directions requires only one pass
+  // over tensors. When one system has converged, iterations continue for
+  // the other alone.
+  private void solve2(
+    A2 a, float[][] ba, float[][] bb, float[][] xa, float[][] xb)
+  {
+    Stopwatch swa = new Stopwatch();
+    Stopwatch swm = new Stopwatch();
+    Stopwatch swi = new Stopwatch();
+    swi.start();
+    Cg2 ca = new Cg2(null,null,ba,xa,swm);
+    Cg2 cb = new Cg2(null,null,bb,xb,swm);
+    a.apply(xa,ca.q,xb,cb.q);
+    ca.begin();
+    cb.begin();
+    log.fine("solve2: bnorm="+ca.bnorm+","+cb.bnorm+
+                   " rnorm="+ca.rnorm+","+cb.rnorm);
+    int iter;
+    for (iter=0; iter<_niter && (ca.active || cb.active); ++iter) {
+      double ti = swi.time();
+      swa.start();
+      if (ca.active && cb.active) {
+        a.applyG(ca.d,ca.q,cb.d,cb.q); // q = Ad, for both systems
       } else {
-        scopy(b,r); a.apply(x,q); saxpy(-1.0f,q,r);
+        Cg2 ci = (ca.active)?ca:cb;
+        a.applyG(ci.d,ci.q); // q = Ad
       }
-      float deltaOld = delta;
-      delta = sdot(r,r);
-      float beta = delta/deltaOld;
-      sxpay(beta,r,d);
-      rnorm = sqrt(delta);
-    }
-    log.fine("  iter="+iter+" rnorm="+rnorm+" ratio="+rnorm/rnormBegin);
-  }
-
-  // Conjugate-gradient solution of Ax = b, with preconditioner M.
-  // Uses the initial values of x; does not assume they are zero.
-  private void solve(Operator2 a, Operator2 m, float[][] b, float[][] x) {
-    int n1 = b[0].length;
-    int n2 = b.length;
-    float[][] d = new float[n2][n1];
-    float[][] q = new float[n2][n1];
-    float[][] r = new float[n2][n1];
-    float[][] s = new float[n2][n1];
-    scopy(b,r);
-    a.apply(x,q);
-    saxpy(-1.0f,q,r); // r = b-Ax
-    float bnorm = sqrt(sdot(b,b));
-    float rnorm = sqrt(sdot(r,r));
-    float rnormBegin = rnorm;
-    float rnormSmall = bnorm*_small;
-    m.apply(r,s); // s = Mr
-    scopy(s,d); // d = s
-    float delta = sdot(r,s); // r's = r'Mr
+      swa.stop();
+      if (ca.active) ca.update(iter);
+      if (cb.active) cb.update(iter);
+      log.finer("  iter="+iter+" rnorm="+ca.rnorm+","+cb.rnorm+
+                " time="+(swi.time()-ti));
+    }
+    swi.stop();
+    log.fine("  iter="+iter+" rnorm="+ca.rnorm+","+cb.rnorm+
+             " ratio="+ca.ratio()+","+cb.ratio());
+    logTimes(iter,swi,swa,swm);
+  }
+  private void solve2(
+    A3 a, float[][][] ba, float[][][] bb, float[][][] xa, float[][][] xb)
+  {
+    Stopwatch swa = new Stopwatch();
+    Stopwatch swm = new Stopwatch();
+    Stopwatch swi = new Stopwatch();
+    swi.start();
+    Cg3 ca = new Cg3(a,null,null,ba,xa,swm);
+    Cg3 cb = new Cg3(a,null,null,bb,xb,swm);
+    a.apply(xa,ca.q,xb,cb.q);
+    ca.begin();
+    cb.begin();
+    log.fine("solve2: bnorm="+ca.bnorm+","+cb.bnorm+
+                   " rnorm="+ca.rnorm+","+cb.rnorm);
     int iter;
-    log.fine("msolve: bnorm="+bnorm+" rnorm="+rnorm);
-    for (iter=0; iter<_niter && rnorm>rnormSmall; ++iter) {
-      log.finer("  iter="+iter+" rnorm="+rnorm+" ratio="+rnorm/rnormBegin);
-      a.apply(d,q); // q = Ad
-      float alpha = delta/sdot(d,q); // alpha = r'Mr/d'Ad
-      saxpy( alpha,d,x); // x = x+alpha*d
-      saxpy(-alpha,q,r); // r = r-alpha*q
-      m.apply(r,s); // s = Mr
+    for (iter=0; iter<_niter && (ca.active || cb.active); ++iter) {
+      double ti = swi.time();
+      swa.start();
+      if (ca.active && cb.active) {
+        a.applyG(ca.d,ca.q,cb.d,cb.q); // q = Ad, for both systems
+      } else {
+        Cg3 ci = (ca.active)?ca:cb;
+        a.applyG(ci.d,ci.q); // q = Ad
+      }
+      swa.stop();
+      if (ca.active) ca.update(iter);
+      if (cb.active) cb.update(iter);
+      log.finer("  iter="+iter+" rnorm="+ca.rnorm+","+cb.rnorm+
+                " time="+(swi.time()-ti));
+    }
+    swi.stop();
+    log.fine("  iter="+iter+" rnorm="+ca.rnorm+","+cb.rnorm+
+             " ratio="+ca.ratio()+","+cb.ratio());
+    logTimes(iter,swi,swa,swm);
+  }
+
+  // Arrays and scalars for CG iterations of one system Ax = b, with a 
+  // diagonal preconditioner P, if not null, or with a preconditioner M,
+  // if not null. Work arrays are allocated for each system solved, and
+  // are not retained by this filter. Before the first iteration begins, 
+  // q = Ax. In each iteration, q = Ad before the update. In addition to 
+  // the passes required to apply the operators A and M, each update makes
+  // only three passes over arrays: one to compute d'Ad, one to update the 
+  // residuals r, and one to update both the solution x and the search 
+  // direction d. The last pass also begins the computation of q = Ad with 
+  // q = d.
+  private class Cg2 {
+    float[][] p,b,x,d,q,r,s,z;
+    Operator2 m;
+    Stopwatch swm;
+    double[][] t; // partial sums for dot products
+    float bnorm,delta,rnorm,rnormBegin,rnormSmall;
+    boolean active;
+    Cg2(float[][] p, Operator2 m, float[][] b, float[][] x, Stopwatch swm) {
+      int n1 = b[0].length;
+      int n2 = b.length;
+      this.p = p; this.m = m; this.b = b; this.x = x; this.swm = swm;
+      d = new float[n2][n1];
+      q = new float[n2][n1];
+      r = new float[n2][n1];
+      s = (m!=null)?new float[n2][n1]:null;
+      z = (m!=null)?s:r;
+      t = new double[2][n2];
+    }
+    void begin() {
+      int n2 = b.length;
+      scopy(b,r);
+      saxpy(-1.0f,q,r); // r = b-Ax
+      bnorm = sqrt(sdot(b,b,t));
+      delta = supdate(0.0f,q,r,p,t); // delta = r'Pr
+      rnorm = rnormBegin = sqrt(ssum(t[0],n2));
+      rnormSmall = bnorm*_small;
+      if (m!=null) {
+        m.apply(r,s); // s = Mr
+        delta = sdot(r,s,t); // delta = r'Mr
+      }
+      if (p!=null) {
+        sxy(p,z,d); // d = Pr
+      } else {
+        scopy(z,d); // d = Mr
+      }
+      scopy(d,q);
+      active = rnorm>rnormSmall;
+    }
+    void update(int iter) {
+      int n2 = b.length;
+      float alpha = delta/sdot(d,q,t); // alpha = r'Mr/d'Ad
       float deltaOld = delta;
-      delta = sdot(r,s); // delta = r's = r'Mr
+      delta = supdate(alpha,q,r,p,t); // r = r-alpha*q; delta = r'Pr
+      rnorm = sqrt(ssum(t[0],n2));
+      if (m!=null) {
+        swm.start();
+        m.apply(r,s); // s = Mr
+        swm.stop();
+        delta = sdot(r,s,t); // delta = r'Mr
+      }
       float beta = delta/deltaOld;
-      sxpay(beta,s,d); // d = s+beta*d
-      rnorm  = sqrt(sdot(r,r));
-    }
-    log.fine("  iter="+iter+" rnorm="+rnorm+" ratio="+rnorm/rnormBegin);
-  }
-  private void solve(Operator3 a, Operator3 m, float[][][] b, float[][][] x) {
-    int n1 = b[0][0].length;
-    int n2 = b[0].length;
-    int n3 = b.length;
-    float[][][] d = new float[n3][n2][n1];
-    float[][][] q = new float[n3][n2][n1];
-    float[][][] r = new float[n3][n2][n1];
-    float[][][] s = new float[n3][n2][n1];
-    scopy(b,r); a.apply(x,q); saxpy(-1.0f,q,r); // r = b-Ax
-    float bnorm = sqrt(sdot(b,b));
-    float rnorm = sqrt(sdot(r,r));
-    float rnormBegin = rnorm;
-    float rnormSmall = bnorm*_small;
-    m.apply(r,s); // s = Mr
-    scopy(s,d); // d = s
-    float delta = sdot(r,s); // r's = r'Mr
-    int iter;
-    log.fine("msolve: bnorm="+bnorm+" rnorm="+rnorm);
-    for (iter=0; iter<_niter && rnorm>rnormSmall; ++iter) {
-      log.finer("  iter="+iter+" rnorm="+rnorm+" ratio="+rnorm/rnormBegin);
-      a.apply(d,q); // q = Ad
-      float alpha = delta/sdot(d,q); // alpha = r'Mr/d'Ad
-      saxpy( alpha,d,x); // x = x+alpha*d
+      if (iter+1<_niter && rnorm>rnormSmall) {
+        supdate(alpha,beta,z,p,d,x,q); // x += alpha*d; d = Mr+beta*d
+      } else {
+        saxpy(alpha,d,x); // x = x+alpha*d
+        active = false;
+      }
+    }
+    float ratio() {
+      return rnorm/rnormBegin;
+    }
+  }
+
+  // Like Cg2, but for 3D images. Every 100 iterations, the residuals are
+  // recomputed as r = b-Ax, instead of updated.
+  private class Cg3 {
+    A3 a;
+    float[][][] p,b,x,d,q,r,s,z;
+    Operator3 m;
+    Stopwatch swm;
+    double[][] t; // partial sums for dot products
+    float bnorm,delta,rnorm,rnormBegin,rnormSmall;
+    boolean active;
+    Cg3(A3 a, float[][][] p, Operator3 m, float[][][] b, float[][][] x, 
+        Stopwatch swm) 
+    {
+      int n1 = b[0][0].length;
+      int n2 = b[0].length;
+      int n3 = b.length;
+      this.a = a;
+      this.p = p; this.m = m; this.b = b; this.x = x; this.swm = swm;
+      d = new float[n3][n2][n1];
+      q = new float[n3][n2][n1];
+      r = new float[n3][n2][n1];
+      s = (m!=null)?new float[n3][n2][n1]:null;
+      z = (m!=null)?s:r;
+      t = new double[2][n3];
+    }
+    void begin() {
+      int n3 = b.length;
+      scopy(b,r);
+      saxpy(-1.0f,q,r); // r = b-Ax
+      bnorm = sqrt(sdot(b,b,t));
+      delta = supdate(0.0f,q,r,p,t); // delta = r'Pr
+      rnorm = rnormBegin = sqrt(ssum(t[0],n3));
+      rnormSmall = bnorm*_small;
+      if (m!=null) {
+        m.apply(r,s); // s = Mr
+        delta = sdot(r,s,t); // delta = r'Mr
+      }
+      if (p!=null) {
+        sxy(p,z,d); // d = Pr
+      } else {
+        scopy(z,d); // d = Mr
+      }
+      scopy(d,q);
+      active = rnorm>rnormSmall;
+    }
+    void update(int iter) {
+      int n3 = b.length;
+      float alpha = delta/sdot(d,q,t); // alpha = r'Mr/d'Ad
+      float deltaOld = delta;
       if (iter%100<99) {
-        saxpy(-alpha,q,r); // r = r-alpha*q
+        delta = supdate(alpha,q,r,p,t); // r = r-alpha*q; delta = r'Pr
       } else {
+        saxpy(alpha,d,x); // x = x+alpha*d
+        alpha = 0.0f;
         scopy(b,r); a.apply(x,q); saxpy(-1.0f,q,r); // r = b-Ax
+        delta = supdate(0.0f,q,r,p,t); // delta = r'Pr
+      }
+      rnorm = sqrt(ssum(t[0],n3));
+      if (m!=null) {
+        swm.start();
+        m.apply(r,s); // s = Mr
+        swm.stop();
+        delta = sdot(r,s,t); // delta = r'Mr
       }
-      m.apply(r,s); // s = Mr
-      float deltaOld = delta;
-      delta = sdot(r,s); // delta = r's = r'Mr
       float beta = delta/deltaOld;
-      sxpay(beta,s,d); // d = s+beta*d
-      rnorm  = sqrt(sdot(r,r));
+      if (iter+1<_niter && rnorm>rnormSmall) {
+        supdate(alpha,beta,z,p,d,x,q); // x += alpha*d; d = Mr+beta*d
+      } else {
+        saxpy(alpha,d,x); // x = x+alpha*d
+        active = false;
+      }
+    }
+    float ratio() {
+      return rnorm/rnormBegin;
+    }
+  }
+
+  // Logs times spent in iterations, in applying operators A and M, 
+  // and in the remaining passes over arrays.
+  private static void logTimes(
+    int niter, Stopwatch swi, Stopwatch swa, Stopwatch swm) 
+  {
+    double ti = swi.time();
+    double ta = swa.time();
+    double tm = swm.time();
+    log.fine("  time="+ti+" A="+ta+" M="+tm+" other="+(ti-ta-tm)+
+             " per iteration="+((niter>0)?ti/niter:0.0));
+  }
+
+  // Returns the sum of the first n partial sums.
+  private static float ssum(double[] t, int n) {
+    double s = 0.0;
+    for (int i=0; i<n; ++i)
+      s += t[i];
+    return (float)s;
+  }
+
+  // Computes r = r-a*q, with partial sums of r'r in t[0] and of r'Pr in 
+  // t[1]; returns r'Pr, or r'r, if P is null.
+  private static float supdate(
+    float a, float[][] q, float[][] r, float[][] p, double[][] t) 
+  {
+    int n2 = r.length;
+    for (int i2=0; i2<n2; ++i2) {
+      t[0][i2] = 0.0;
+      t[1][i2] = 0.0;
+      supdate(a,q[i2],r[i2],(p!=null)?p[i2]:null,t,i2);
+    }
+    return (p!=null)?ssum(t[1],n2):ssum(t[0],n2);
+  }
+  private static float supdate(
+    final float a, final float[][][] q, final float[][][] r, 
+    final float[][][] p, final double[][] t) 
+  {
+    final int n3 = r.length;
+    final int n2 = r[0].length;
+    Parallel.loop(n3,new Parallel.LoopInt() {
+      public void compute(int i3) {
+        t[0][i3] = 0.0;
+        t[1][i3] = 0.0;
+        for (int i2=0; i2<n2; ++i2)
+          supdate(a,q[i3][i2],r[i3][i2],(p!=null)?p[i3][i2]:null,t,i3);
+      }
+    });
+    return (p!=null)?ssum(t[1],n3):ssum(t[0],n3);
+  }
+  private static void supdate(
+    float a, float[] q, float[] r, float[] p, double[][] t, int it) 
+  {
+    int n1 = r.length;
+    float rr = 0.0f;
+    float rpr = 0.0f;
+    if (p!=null) {
+      for (int i1=0; i1<n1; ++i1) {
+        float ri = r[i1]-a*q[i1];
+        r[i1] = ri;
+        rr += ri*ri;
+        rpr += ri*p[i1]*ri;
+      }
+    } else {
+      for (int i1=0; i1<n1; ++i1) {
+        float ri = r[i1]-a*q[i1];
+        r[i1] = ri;
+        rr += ri*ri;
+      }
+    }
+    t[0][it] += rr;
+    t[1][it] += rpr;
+  }
+
+  // Computes x = x+a*d, d = Pz+b*d (or z+b*d, if P is null), and q = d.
+  private static void supdate(
+    float a, float b, float[][] z, float[][] p, 
+    float[][] d, float[][] x, float[][] q) 
+  {
+    int n2 = z.length;
+    for (int i2=0; i2<n2; ++i2)
+      supdate(a,b,z[i2],(p!=null)?p[i2]:null,d[i2],x[i2],q[i2]);
+  }
+  private static void supdate(
+    final float a, final float b, final float[][][] z, final float[][][] p, 
+    final float[][][] d, final float[][][] x, final float[][][] q) 
+  {
+    final int n3 = z.length;
+    final int n2 = z[0].length;
+    Parallel.loop(n3,new Parallel.LoopInt() {
+      public void compute(int i3) {
+        for (int i2=0; i2<n2; ++i2) {
+          float[] p32 = (p!=null)?p[i3][i2]:null;
+          supdate(a,b,z[i3][i2],p32,d[i3][i2],x[i3][i2],q[i3][i2]);
+        }
+      }
+    });
+  }
+  private static void supdate(
+    float a, float b, float[] z, float[] p, float[] d, float[] x, float[] q) 
+  {
+    int n1 = z.length;
+    if (p!=null) {
+      for (int i1=0; i1<n1; ++i1) {
+        float di = d[i1];
+        x[i1] += a*di;
+        di = p[i1]*z[i1]+b*di;
+        d[i1] = di;
+        q[i1] = di;
+      }
+    } else {
+      for (int i1=0; i1<n1; ++i1) {
+        float di = d[i1];
+        x[i1] += a*di;
+        di = z[i1]+b*di;
+        d[i1] = di;
+        q[i1] = di;
+      }
     }
-    log.fine("  iter="+iter+" rnorm="+rnorm+" ratio="+rnorm/rnormBegin);
   }
 
   // Zeros array x.
@@ -782,30 +2010,33 @@ public class LocalSmoothingFilter {
     });
   }
 
-  // Returns the dot product x'y.
-  private static float sdot(float[][] x, float[][] y) {
-    int n1 = x[0].length;
+  // Returns the dot product x'y, using the array t for partial sums.
+  private static float sdot(float[][] x, float[][] y, double[][] t) {
     int n2 = x.length;
-    float d = 0.0f;
-    for (int i2=0; i2<n2; ++i2) {
-      float[] x2 = x[i2], y2 = y[i2];
-      for (int i1=0; i1<n1; ++i1) {
-        d += x2[i1]*y2[i1];
-      }
-    }
-    return d;
+    for (int i2=0; i2<n2; ++i2)
+      t[0][i2] = sdot(x[i2],y[i2]);
+    return ssum(t[0],n2);
   }
-  private static float sdot(final float[][][] x, final float[][][] y) {
+  private static float sdot(
+    final float[][][] x, final float[][][] y, final double[][] t) 
+  {
     final int n3 = x.length;
-    final float[] d3 = new float[n3];
+    final int n2 = x[0].length;
     Parallel.loop(n3,new Parallel.LoopInt() {
       public void compute(int i3) {
-        d3[i3] = sdot(x[i3],y[i3]);
+        double d = 0.0;
+        for (int i2=0; i2<n2; ++i2)
+          d += sdot(x[i3][i2],y[i3][i2]);
+        t[0][i3] = d;
       }
     });
+    return ssum(t[0],n3);
+  }
+  private static float sdot(float[] x, float[] y) {
+    int n1 = x.length;
     float d = 0.0f;
-    for (int i3=0; i3<n3; ++i3)
-      d += d3[i3];
+    for (int i1=0; i1<n1; ++i1)
+      d += x[i1]*y[i1];
     return d;
   }
 
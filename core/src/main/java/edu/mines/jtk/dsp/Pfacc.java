@@ -16,6 +16,7 @@ package edu.mines.jtk.dsp;
 
 import static edu.mines.jtk.util.ArrayMath.*;
 import edu.mines.jtk.util.Check;
+import edu.mines.jtk.util.Parallel;
 
 /**
  * Prime-factor complex-to-complex FFT. The FFT length nfft must be composed 
@@ -1352,6 +1353,42 @@ class Pfacc {
    * @param z array[nfft][2*n1] of n1*nfft packed complex numbers.
    */
   static void transform2a(int sign, int n1, int nfft, float[][] z) {
+    transform2a(sign,0,n1,nfft,z);
+  }
+
+  /**
+   * Like transform2a, but performs only the transforms with indices
+   * k1 &lt;= i1 &lt; n1 in the fast dimension of the array z.
+   * @param sign the sign of the exponent in the Fourier transform.
+   * @param k1 the index of the first transform.
+   * @param n1 the index of the last transform plus one.
+   * @param nfft the FFT length (slow dimension).
+   * @param z array[nfft][2*n1] of n1*nfft packed complex numbers.
+   */
+  static void transform2a(
+    int sign, int k1, int n1, int nfft, float[][] z)
+  {
+    transform2a(sign,k1,n1,nfft,z,_vectorized);
+  }
+
+  /**
+   * Like transform2a, but uses SIMD kernels only if the specified flag
+   * is true and those kernels are available. Enables tests to compare 
+   * vector and scalar transforms without changing the shared flag.
+   * @param sign the sign of the exponent in the Fourier transform.
+   * @param k1 the index of the first transform.
+   * @param n1 the index of the last transform plus one.
+   * @param nfft the FFT length (slow dimension).
+   * @param z array of nfft*n1 complex numbers.
+   * @param vectorized true, for SIMD kernels; false, otherwise.
+   */
+  static void transform2a(
+    int sign, int k1, int n1, int nfft, float[][] z, boolean vectorized)
+  {
+    if (vectorized && VECTOR_AVAILABLE && 2*(n1-k1)>=VECTOR.lanes()) {
+      VECTOR.transform2a(sign,k1,n1,nfft,z);
+      return;
+    }
 
     // What is left of n after dividing by factors.
     int nleft = nfft;
@@ -1387,28 +1424,28 @@ class Pfacc {
 
       // Factor 2.
       if (ifac==2) {
-        pfa2a(n1,z,m,j0,j1);
+        pfa2a(k1,n1,z,m,j0,j1);
         continue;
       }
       int j2 = (j1+jinc)%jmax;
 
       // Factor 3.
       if (ifac==3) {
-        pfa3a(n1,z,mu,m,j0,j1,j2);
+        pfa3a(k1,n1,z,mu,m,j0,j1,j2);
         continue;
       }
       int j3 = (j2+jinc)%jmax;
 
       // Factor 4.
       if (ifac==4) {
-        pfa4a(n1,z,mu,m,j0,j1,j2,j3);
+        pfa4a(k1,n1,z,mu,m,j0,j1,j2,j3);
         continue;
       }
       int j4 = (j3+jinc)%jmax;
 
       // Factor 5.
       if (ifac==5) {
-        pfa5a(n1,z,mu,m,j0,j1,j2,j3,j4);
+        pfa5a(k1,n1,z,mu,m,j0,j1,j2,j3,j4);
         continue;
       }
       int j5 = (j4+jinc)%jmax;
@@ -1416,21 +1453,21 @@ class Pfacc {
 
       // Factor 7.
       if (ifac==7) {
-        pfa7a(n1,z,mu,m,j0,j1,j2,j3,j4,j5,j6);
+        pfa7a(k1,n1,z,mu,m,j0,j1,j2,j3,j4,j5,j6);
         continue;
       }
       int j7 = (j6+jinc)%jmax;
 
       // Factor 8.
       if (ifac==8) {
-        pfa8a(n1,z,mu,m,j0,j1,j2,j3,j4,j5,j6,j7);
+        pfa8a(k1,n1,z,mu,m,j0,j1,j2,j3,j4,j5,j6,j7);
         continue;
       }
       int j8 = (j7+jinc)%jmax;
 
       // Factor 9.
       if (ifac==9) {
-        pfa9a(n1,z,mu,m,j0,j1,j2,j3,j4,j5,j6,j7,j8);
+        pfa9a(k1,n1,z,mu,m,j0,j1,j2,j3,j4,j5,j6,j7,j8);
         continue;
       }
       int j9 = (j8+jinc)%jmax;
@@ -1438,7 +1475,7 @@ class Pfacc {
 
       // Factor 11.
       if (ifac==11) {
-        pfa11a(n1,z,mu,m,j0,j1,j2,j3,j4,j5,j6,j7,j8,j9,j10);
+        pfa11a(k1,n1,z,mu,m,j0,j1,j2,j3,j4,j5,j6,j7,j8,j9,j10);
         continue;
       }
       int j11 = (j10+jinc)%jmax;
@@ -1446,7 +1483,7 @@ class Pfacc {
 
       // Factor 13.
       if (ifac==13) {
-        pfa13a(n1,z,mu,m,j0,j1,j2,j3,j4,j5,j6,j7,j8,j9,j10,j11,j12);
+        pfa13a(k1,n1,z,mu,m,j0,j1,j2,j3,j4,j5,j6,j7,j8,j9,j10,j11,j12);
         continue;
       }
       int j13 = (j12+jinc)%jmax;
@@ -1455,17 +1492,17 @@ class Pfacc {
 
       // Factor 16.
       if (ifac==16) {
-        pfa16a(n1,z,mu,m,j0,j1,j2,j3,j4,j5,j6,j7,j8,j9,j10,j11,j12,j13,j14,j15);
+        pfa16a(k1,n1,z,mu,m,j0,j1,j2,j3,j4,j5,j6,j7,j8,j9,j10,j11,j12,j13,j14,j15);
       }
     }
   }
-  private static void pfa2a(int n1, float[][] z, int m, int j0, int j1)
+  private static void pfa2a(int k1, int n1, float[][] z, int m, int j0, int j1)
   {
     int m1 = 2*n1;
     for (int i=0; i<m; ++i) {
       float[] zj0 = z[j0];
       float[] zj1 = z[j1];
-      for (int i1=0; i1<m1; i1+=2) {
+      for (int i1=2*k1; i1<m1; i1+=2) {
         float t1r = zj0[i1  ]-zj1[i1  ];
         float t1i = zj0[i1+1]-zj1[i1+1];
         zj0[i1  ] = zj0[i1  ]+zj1[i1  ];
@@ -1478,7 +1515,7 @@ class Pfacc {
       j0 = jt;
     }
   }
-  private static void pfa3a(int n1, float[][] z, int mu, int m,
+  private static void pfa3a(int k1, int n1, float[][] z, int mu, int m,
     int j0, int j1, int j2)
   {
     int m1 = 2*n1;
@@ -1492,7 +1529,7 @@ class Pfacc {
       float[] zj0 = z[j0];
       float[] zj1 = z[j1];
       float[] zj2 = z[j2];
-      for (int i1=0; i1<m1; i1+=2) {
+      for (int i1=2*k1; i1<m1; i1+=2) {
         float t1r = zj1[i1  ]+zj2[i1  ];
         float t1i = zj1[i1+1]+zj2[i1+1];
         float y1r = zj0[i1  ]-0.5f*t1r;
@@ -1512,7 +1549,7 @@ class Pfacc {
       j0 = jt;
     }
   }
-  private static void pfa4a(int n1, float[][] z, int mu, int m,
+  private static void pfa4a(int k1, int n1, float[][] z, int mu, int m,
     int j0, int j1, int j2, int j3)
   {
     int m1 = 2*n1;
@@ -1527,7 +1564,7 @@ class Pfacc {
       float[] zj1 = z[j1];
       float[] zj2 = z[j2];
       float[] zj3 = z[j3];
-      for (int i1=0; i1<m1; i1+=2) {
+      for (int i1=2*k1; i1<m1; i1+=2) {
         float t1r = zj0[i1  ]+zj2[i1  ];
         float t1i = zj0[i1+1]+zj2[i1+1];
         float t2r = zj1[i1  ]+zj3[i1  ];
@@ -1552,7 +1589,7 @@ class Pfacc {
       j0 = jt;
     }
   }
-  private static void pfa5a(int n1, float[][] z, int mu, int m,
+  private static void pfa5a(int k1, int n1, float[][] z, int mu, int m,
     int j0, int j1, int j2, int j3, int j4)
   {
     int m1 = 2*n1;
@@ -1580,7 +1617,7 @@ class Pfacc {
       float[] zj2 = z[j2];
       float[] zj3 = z[j3];
       float[] zj4 = z[j4];
-      for (int i1=0; i1<m1; i1+=2) {
+      for (int i1=2*k1; i1<m1; i1+=2) {
         float t1r = zj1[i1  ]+zj4[i1  ];
         float t1i = zj1[i1+1]+zj4[i1+1];
         float t2r = zj2[i1  ]+zj3[i1  ];
@@ -1622,7 +1659,7 @@ class Pfacc {
       j0 = jt;
     }
   }
-  private static void pfa7a(int n1, float[][] z, int mu, int m,
+  private static void pfa7a(int k1, int n1, float[][] z, int mu, int m,
     int j0, int j1, int j2, int j3, int j4, int j5, int j6)
   {
     int m1 = 2*n1;
@@ -1678,7 +1715,7 @@ class Pfacc {
       float[] zj4 = z[j4];
       float[] zj5 = z[j5];
       float[] zj6 = z[j6];
-      for (int i1=0; i1<m1; i1+=2) {
+      for (int i1=2*k1; i1<m1; i1+=2) {
         float t1r = zj1[i1  ]+zj6[i1  ];
         float t1i = zj1[i1+1]+zj6[i1+1];
         float t2r = zj2[i1  ]+zj5[i1  ];
@@ -1734,7 +1771,7 @@ class Pfacc {
       j0 = jt;
     }
   }
-  private static void pfa8a(int n1, float[][] z, int mu, int m,
+  private static void pfa8a(int k1, int n1, float[][] z, int mu, int m,
     int j0, int j1, int j2, int j3, int j4, int j5, int j6, int j7)
   {
     int m1 = 2*n1;
@@ -1762,7 +1799,7 @@ class Pfacc {
       float[] zj5 = z[j5];
       float[] zj6 = z[j6];
       float[] zj7 = z[j7];
-      for (int i1=0; i1<m1; i1+=2) {
+      for (int i1=2*k1; i1<m1; i1+=2) {
         float t1r = zj0[i1  ]+zj4[i1  ];
         float t1i = zj0[i1+1]+zj4[i1+1];
         float t2r = zj0[i1  ]-zj4[i1  ];
@@ -1827,7 +1864,7 @@ class Pfacc {
       j0 = jt;
     }
   }
-  private static void pfa9a(int n1, float[][] z, int mu, int m,
+  private static void pfa9a(int k1, int n1, float[][] z, int mu, int m,
     int j0, int j1, int j2, int j3, int j4, int j5, int j6, int j7, int j8)
   {
     int m1 = 2*n1;
@@ -1883,7 +1920,7 @@ class Pfacc {
       float[] zj6 = z[j6];
       float[] zj7 = z[j7];
       float[] zj8 = z[j8];
-      for (int i1=0; i1<m1; i1+=2) {
+      for (int i1=2*k1; i1<m1; i1+=2) {
         float t1r  = zj3[i1  ]+zj6[i1  ];
         float t1i  = zj3[i1+1]+zj6[i1+1];
         float t2r  = zj0[i1  ]-0.5f*t1r;
@@ -1977,7 +2014,7 @@ class Pfacc {
       j0 = jt;
     }
   }
-  private static void pfa11a(int n1, float[][] z, int mu, int m,
+  private static void pfa11a(int k1, int n1, float[][] z, int mu, int m,
     int j0, int j1, int j2, int j3, int j4, int j5, 
     int j6, int j7, int j8, int j9, int j10)
   {
@@ -2106,7 +2143,7 @@ class Pfacc {
       float[] zj8 = z[j8];
       float[] zj9 = z[j9];
       float[] zj10 = z[j10];
-      for (int i1=0; i1<m1; i1+=2) {
+      for (int i1=2*k1; i1<m1; i1+=2) {
         float t1r  = zj1[i1  ]+zj10[i1  ];
         float t1i  = zj1[i1+1]+zj10[i1+1];
         float t2r  = zj2[i1  ]+zj9[i1  ];
@@ -2194,7 +2231,7 @@ class Pfacc {
       j0 = jt;
     }
   }
-  private static void pfa13a(int n1, float[][] z, int mu, int m,
+  private static void pfa13a(int k1, int n1, float[][] z, int mu, int m,
     int j0, int j1, int j2, int j3, int j4, int j5, int j6, 
     int j7, int j8, int j9, int j10, int j11, int j12)
   {
@@ -2371,7 +2408,7 @@ class Pfacc {
       float[] zj10 = z[j10];
       float[] zj11 = z[j11];
       float[] zj12 = z[j12];
-      for (int i1=0; i1<m1; i1+=2) {
+      for (int i1=2*k1; i1<m1; i1+=2) {
         float t1r  = zj1[i1  ]+zj12[i1  ];
         float t1i  = zj1[i1+1]+zj12[i1+1];
         float t2r  = zj2[i1  ]+zj11[i1  ];
@@ -2475,7 +2512,7 @@ class Pfacc {
       j0 = jt;
     }
   }
-  private static void pfa16a(int n1, float[][] z, int mu, int m,
+  private static void pfa16a(int k1, int n1, float[][] z, int mu, int m,
     int j0, int j1, int j2, int j3, int j4, int j5, int j6, int j7, int j8, 
     int j9, int j10, int j11, int j12, int j13, int j14, int j15)
   {
@@ -2542,7 +2579,7 @@ class Pfacc {
       float[] zj13 = z[j13];
       float[] zj14 = z[j14];
       float[] zj15 = z[j15];
-      for (int i1=0; i1<m1; i1+=2) {
+      for (int i1=2*k1; i1<m1; i1+=2) {
         float t1r  = zj0[i1  ]+zj8[i1  ];
         float t1i  = zj0[i1+1]+zj8[i1+1];
         float t2r  = zj4[i1  ]+zj12[i1  ];
@@ -2719,6 +2756,42 @@ class Pfacc {
    * @param z array[nfft*2][n1] of nfft*n1 complex numbers.
    */
   static void transform2b(int sign, int n1, int nfft, float[][] z) {
+    transform2b(sign,0,n1,nfft,z);
+  }
+
+  /**
+   * Like transform2b, but performs only the transforms with indices
+   * k1 &lt;= i1 &lt; n1 in the fast dimension of the array z.
+   * @param sign the sign of the exponent in the Fourier transform.
+   * @param k1 the index of the first transform.
+   * @param n1 the index of the last transform plus one.
+   * @param nfft the FFT length (slow dimension).
+   * @param z array[nfft*2][n1] of nfft*n1 complex numbers.
+   */
+  static void transform2b(
+    int sign, int k1, int n1, int nfft, float[][] z)
+  {
+    transform2b(sign,k1,n1,nfft,z,_vectorized);
+  }
+
+  /**
+   * Like transform2b, but uses SIMD kernels only if the specified flag
+   * is true and those kernels are available. Enables tests to compare 
+   * vector and scalar transforms without changing the shared flag.
+   * @param sign the sign of the exponent in the Fourier transform.
+   * @param k1 the index of the first transform.
+   * @param n1 the index of the last transform plus one.
+   * @param nfft the FFT length (slow dimension).
+   * @param z array of nfft*n1 complex numbers.
+   * @param vectorized true, for SIMD kernels; false, otherwise.
+   */
+  static void transform2b(
+    int sign, int k1, int n1, int nfft, float[][] z, boolean vectorized)
+  {
+    if (vectorized && VECTOR_AVAILABLE && n1-k1>=VECTOR.lanes()) {
+      VECTOR.transform2b(sign,k1,n1,nfft,z);
+      return;
+    }
 
     // What is left of n after dividing by factors.
     int nleft = nfft;
@@ -2754,28 +2827,28 @@ class Pfacc {
 
       // Factor 2.
       if (ifac==2) {
-        pfa2b(n1,z,m,j0,j1);
+        pfa2b(k1,n1,z,m,j0,j1);
         continue;
       }
       int j2 = (j1+jinc)%jmax;
 
       // Factor 3.
       if (ifac==3) {
-        pfa3b(n1,z,mu,m,j0,j1,j2);
+        pfa3b(k1,n1,z,mu,m,j0,j1,j2);
         continue;
       }
       int j3 = (j2+jinc)%jmax;
 
       // Factor 4.
       if (ifac==4) {
-        pfa4b(n1,z,mu,m,j0,j1,j2,j3);
+        pfa4b(k1,n1,z,mu,m,j0,j1,j2,j3);
         continue;
       }
       int j4 = (j3+jinc)%jmax;
 
       // Factor 5.
       if (ifac==5) {
-        pfa5b(n1,z,mu,m,j0,j1,j2,j3,j4);
+        pfa5b(k1,n1,z,mu,m,j0,j1,j2,j3,j4);
         continue;
       }
       int j5 = (j4+jinc)%jmax;
@@ -2783,21 +2856,21 @@ class Pfacc {
 
       // Factor 7.
       if (ifac==7) {
-        pfa7b(n1,z,mu,m,j0,j1,j2,j3,j4,j5,j6);
+        pfa7b(k1,n1,z,mu,m,j0,j1,j2,j3,j4,j5,j6);
         continue;
       }
       int j7 = (j6+jinc)%jmax;
 
       // Factor 8.
       if (ifac==8) {
-        pfa8b(n1,z,mu,m,j0,j1,j2,j3,j4,j5,j6,j7);
+        pfa8b(k1,n1,z,mu,m,j0,j1,j2,j3,j4,j5,j6,j7);
         continue;
       }
       int j8 = (j7+jinc)%jmax;
 
       // Factor 9.
       if (ifac==9) {
-        pfa9b(n1,z,mu,m,j0,j1,j2,j3,j4,j5,j6,j7,j8);
+        pfa9b(k1,n1,z,mu,m,j0,j1,j2,j3,j4,j5,j6,j7,j8);
         continue;
       }
       int j9 = (j8+jinc)%jmax;
@@ -2805,7 +2878,7 @@ class Pfacc {
 
       // Factor 11.
       if (ifac==11) {
-        pfa11b(n1,z,mu,m,j0,j1,j2,j3,j4,j5,j6,j7,j8,j9,j10);
+        pfa11b(k1,n1,z,mu,m,j0,j1,j2,j3,j4,j5,j6,j7,j8,j9,j10);
         continue;
       }
       int j11 = (j10+jinc)%jmax;
@@ -2813,7 +2886,7 @@ class Pfacc {
 
       // Factor 13.
       if (ifac==13) {
-        pfa13b(n1,z,mu,m,j0,j1,j2,j3,j4,j5,j6,j7,j8,j9,j10,j11,j12);
+        pfa13b(k1,n1,z,mu,m,j0,j1,j2,j3,j4,j5,j6,j7,j8,j9,j10,j11,j12);
         continue;
       }
       int j13 = (j12+jinc)%jmax;
@@ -2822,18 +2895,18 @@ class Pfacc {
 
       // Factor 16.
       if (ifac==16) {
-        pfa16b(n1,z,mu,m,j0,j1,j2,j3,j4,j5,j6,j7,j8,j9,j10,j11,j12,j13,j14,j15);
+        pfa16b(k1,n1,z,mu,m,j0,j1,j2,j3,j4,j5,j6,j7,j8,j9,j10,j11,j12,j13,j14,j15);
       }
     }
   }
-  private static void pfa2b(int n1, float[][] z, int m, int j0, int j1)
+  private static void pfa2b(int k1, int n1, float[][] z, int m, int j0, int j1)
   {
     for (int i=0; i<m; ++i) {
       float[] zj0r = z[j0  ];
       float[] zj0i = z[j0+1];
       float[] zj1r = z[j1  ];
       float[] zj1i = z[j1+1];
-      for (int i1=0; i1<n1; ++i1) {
+      for (int i1=k1; i1<n1; ++i1) {
         float t1r = zj0r[i1]-zj1r[i1];
         float t1i = zj0i[i1]-zj1i[i1];
         zj0r[i1] = zj0r[i1]+zj1r[i1];
@@ -2846,7 +2919,7 @@ class Pfacc {
       j0 = jt;
     }
   }
-  private static void pfa3b(int n1, float[][] z, int mu, int m,
+  private static void pfa3b(int k1, int n1, float[][] z, int mu, int m,
     int j0, int j1, int j2)
   {
     float c1;
@@ -2862,7 +2935,7 @@ class Pfacc {
       float[] zj1i = z[j1+1];
       float[] zj2r = z[j2  ];
       float[] zj2i = z[j2+1];
-      for (int i1=0; i1<n1; ++i1) {
+      for (int i1=k1; i1<n1; ++i1) {
         float t1r = zj1r[i1]+zj2r[i1];
         float t1i = zj1i[i1]+zj2i[i1];
         float y1r = zj0r[i1]-0.5f*t1r;
@@ -2882,7 +2955,7 @@ class Pfacc {
       j0 = jt;
     }
   }
-  private static void pfa4b(int n1, float[][] z, int mu, int m,
+  private static void pfa4b(int k1, int n1, float[][] z, int mu, int m,
     int j0, int j1, int j2, int j3)
   {
     float c1;
@@ -2900,7 +2973,7 @@ class Pfacc {
       float[] zj2i = z[j2+1];
       float[] zj3r = z[j3  ];
       float[] zj3i = z[j3+1];
-      for (int i1=0; i1<n1; ++i1) {
+      for (int i1=k1; i1<n1; ++i1) {
         float t1r = zj0r[i1]+zj2r[i1];
         float t1i = zj0i[i1]+zj2i[i1];
         float t2r = zj1r[i1]+zj3r[i1];
@@ -2925,7 +2998,7 @@ class Pfacc {
       j0 = jt;
     }
   }
-  private static void pfa5b(int n1, float[][] z, int mu, int m,
+  private static void pfa5b(int k1, int n1, float[][] z, int mu, int m,
     int j0, int j1, int j2, int j3, int j4)
   {
     float c1,c2,c3;
@@ -2957,7 +3030,7 @@ class Pfacc {
       float[] zj3i = z[j3+1];
       float[] zj4r = z[j4  ];
       float[] zj4i = z[j4+1];
-      for (int i1=0; i1<n1; ++i1) {
+      for (int i1=k1; i1<n1; ++i1) {
         float t1r = zj1r[i1]+zj4r[i1];
         float t1i = zj1i[i1]+zj4i[i1];
         float t2r = zj2r[i1]+zj3r[i1];
@@ -2999,7 +3072,7 @@ class Pfacc {
       j0 = jt;
     }
   }
-  private static void pfa7b(int n1, float[][] z, int mu, int m,
+  private static void pfa7b(int k1, int n1, float[][] z, int mu, int m,
     int j0, int j1, int j2, int j3, int j4, int j5, int j6)
   {
     float c1,c2,c3,c4,c5,c6;
@@ -3061,7 +3134,7 @@ class Pfacc {
       float[] zj5i = z[j5+1];
       float[] zj6r = z[j6  ];
       float[] zj6i = z[j6+1];
-      for (int i1=0; i1<n1; ++i1) {
+      for (int i1=k1; i1<n1; ++i1) {
         float t1r = zj1r[i1]+zj6r[i1];
         float t1i = zj1i[i1]+zj6i[i1];
         float t2r = zj2r[i1]+zj5r[i1];
@@ -3117,7 +3190,7 @@ class Pfacc {
       j0 = jt;
     }
   }
-  private static void pfa8b(int n1, float[][] z, int mu, int m,
+  private static void pfa8b(int k1, int n1, float[][] z, int mu, int m,
     int j0, int j1, int j2, int j3, int j4, int j5, int j6, int j7)
   {
     float c1,c2,c3;
@@ -3152,7 +3225,7 @@ class Pfacc {
       float[] zj6i = z[j6+1];
       float[] zj7r = z[j7  ];
       float[] zj7i = z[j7+1];
-      for (int i1=0; i1<n1; ++i1) {
+      for (int i1=k1; i1<n1; ++i1) {
         float t1r = zj0r[i1]+zj4r[i1];
         float t1i = zj0i[i1]+zj4i[i1];
         float t2r = zj0r[i1]-zj4r[i1];
@@ -3217,7 +3290,7 @@ class Pfacc {
       j0 = jt;
     }
   }
-  private static void pfa9b(int n1, float[][] z, int mu, int m,
+  private static void pfa9b(int k1, int n1, float[][] z, int mu, int m,
     int j0, int j1, int j2, int j3, int j4, int j5, int j6, int j7, int j8)
   {
     float c1,c2,c3,c4,c5,c6,c7,c8,c9;
@@ -3281,7 +3354,7 @@ class Pfacc {
       float[] zj7i = z[j7+1];
       float[] zj8r = z[j8  ];
       float[] zj8i = z[j8+1];
-      for (int i1=0; i1<n1; ++i1) {
+      for (int i1=k1; i1<n1; ++i1) {
         float t1r  = zj3r[i1]+zj6r[i1];
         float t1i  = zj3i[i1]+zj6i[i1];
         float t2r  = zj0r[i1]-0.5f*t1r;
@@ -3375,7 +3448,7 @@ class Pfacc {
       j0 = jt;
     }
   }
-  private static void pfa11b(int n1, float[][] z, int mu, int m,
+  private static void pfa11b(int k1, int n1, float[][] z, int mu, int m,
     int j0, int j1, int j2, int j3, int j4, int j5, 
     int j6, int j7, int j8, int j9, int j10)
   {
@@ -3514,7 +3587,7 @@ class Pfacc {
       float[] zj9i = z[j9+1];
       float[] zj10r = z[j10  ];
       float[] zj10i = z[j10+1];
-      for (int i1=0; i1<n1; ++i1) {
+      for (int i1=k1; i1<n1; ++i1) {
         float t1r  = zj1r[i1]+zj10r[i1];
         float t1i  = zj1i[i1]+zj10i[i1];
         float t2r  = zj2r[i1]+zj9r[i1];
@@ -3602,7 +3675,7 @@ class Pfacc {
       j0 = jt;
     }
   }
-  private static void pfa13b(int n1, float[][] z, int mu, int m,
+  private static void pfa13b(int k1, int n1, float[][] z, int mu, int m,
     int j0, int j1, int j2, int j3, int j4, int j5, int j6, 
     int j7, int j8, int j9, int j10, int j11, int j12)
   {
@@ -3791,7 +3864,7 @@ class Pfacc {
       float[] zj11i = z[j11+1];
       float[] zj12r = z[j12  ];
       float[] zj12i = z[j12+1];
-      for (int i1=0; i1<n1; ++i1) {
+      for (int i1=k1; i1<n1; ++i1) {
         float t1r  = zj1r[i1]+zj12r[i1];
         float t1i  = zj1i[i1]+zj12i[i1];
         float t2r  = zj2r[i1]+zj11r[i1];
@@ -3895,7 +3968,7 @@ class Pfacc {
       j0 = jt;
     }
   }
-  private static void pfa16b(int n1, float[][] z, int mu, int m,
+  private static void pfa16b(int k1, int n1, float[][] z, int mu, int m,
     int j0, int j1, int j2, int j3, int j4, int j5, int j6, int j7, int j8, 
     int j9, int j10, int j11, int j12, int j13, int j14, int j15)
   {
@@ -3977,7 +4050,7 @@ class Pfacc {
       float[] zj14i = z[j14+1];
       float[] zj15r = z[j15  ];
       float[] zj15i = z[j15+1];
-      for (int i1=0; i1<n1; ++i1) {
+      for (int i1=k1; i1<n1; ++i1) {
         float t1r  = zj0r[i1]+zj8r[i1];
         float t1i  = zj0i[i1]+zj8i[i1];
         float t2r  = zj4r[i1]+zj12r[i1];
@@ -4143,54 +4216,160 @@ class Pfacc {
     }
   }
 
+  /**
+   * Like transform2a, but performs transforms for blocks of columns in
+   * parallel. Blocks are narrow enough that all nfft rows of a block
+   * fit in cache, so that they are loaded from memory only once for all
+   * factors of nfft. Each block is transformed in place.
+   * @param sign the sign of the exponent in the Fourier transform.
+   * @param n1 the number of transforms (fast dimension).
+   * @param nfft the FFT length (slow dimension).
+   * @param z array[nfft][2*n1] of n1*nfft packed complex numbers.
+   */
+  static void transform2aParallel(
+    final int sign, final int n1, final int nfft, final float[][] z)
+  {
+    final int nb = blockSize(nfft);
+    if (n1<=nb) {
+      transform2a(sign,0,n1,nfft,z);
+      return;
+    }
+    int nblock = 1+(n1-1)/nb;
+    Parallel.loop(nblock,new Parallel.LoopInt() {
+      public void compute(int iblock) {
+        int k1 = iblock*nb;
+        transform2a(sign,k1,min(k1+nb,n1),nfft,z);
+      }
+    });
+  }
+
+  /**
+   * Like transform2b, but performs transforms for blocks of columns in
+   * parallel. Blocks are narrow enough that all 2*nfft rows of a block
+   * fit in cache, so that they are loaded from memory only once for all
+   * factors of nfft. Each block is transformed in place.
+   * @param sign the sign of the exponent in the Fourier transform.
+   * @param n1 the number of transforms (fast dimension).
+   * @param nfft the FFT length (slow dimension).
+   * @param z array[nfft*2][n1] of nfft*n1 complex numbers.
+   */
+  static void transform2bParallel(
+    final int sign, final int n1, final int nfft, final float[][] z)
+  {
+    final int nb = 2*blockSize(nfft);
+    if (n1<=nb) {
+      transform2b(sign,0,n1,nfft,z);
+      return;
+    }
+    int nblock = 1+(n1-1)/nb;
+    Parallel.loop(nblock,new Parallel.LoopInt() {
+      public void compute(int iblock) {
+        int k1 = iblock*nb;
+        transform2b(sign,k1,min(k1+nb,n1),nfft,z);
+      }
+    });
+  }
+
+  /**
+   * Determines whether SIMD kernels are available for multiple FFTs.
+   * @return true, if available; false, otherwise.
+   */
+  static boolean isVectorAvailable() {
+    return VECTOR_AVAILABLE;
+  }
+
+  /**
+   * Enables or disables SIMD kernels for multiple FFTs, if available.
+   * @param vectorized true, to enable; false, to disable.
+   */
+  static void setVectorized(boolean vectorized) {
+    _vectorized = vectorized && VECTOR_AVAILABLE;
+  }
+
+  /**
+   * SIMD kernels for multiple FFTs, implemented by the class PfaccVector.
+   * That class uses the incubating Java Vector API, and is compiled only 
+   * with JDK 16 or later; therefore, it is loaded only by reflection.
+   */
+  interface Kernels {
+    boolean isAvailable();
+    int lanes();
+    void transform2a(int sign, int k1, int n1, int nfft, float[][] z);
+    void transform2b(int sign, int k1, int n1, int nfft, float[][] z);
+  }
+
+  // SIMD kernels are available only if the class PfaccVector and the 
+  // incubating Java Vector API are both available.
+  private static final Kernels VECTOR = loadKernels();
+  private static final boolean VECTOR_AVAILABLE = VECTOR!=null;
+  private static volatile boolean _vectorized = VECTOR_AVAILABLE;
+  private static Kernels loadKernels() {
+    try {
+      Class<?> c = Class.forName("edu.mines.jtk.dsp.PfaccVector");
+      Kernels k = (Kernels)c.getDeclaredConstructor().newInstance();
+      return k.isAvailable()?k:null;
+    } catch (ReflectiveOperationException | LinkageError e) {
+      return null;
+    }
+  }
+
+  // Number of complex columns in blocks transformed by the parallel
+  // methods above. Blocks have about 64K floats (256 KB) when nfft is
+  // small, but never fewer than 256 columns, so that inner loops over
+  // columns remain long enough to be efficient when nfft is large.
+  private static int blockSize(int nfft) {
+    return max(256,32768/nfft);
+  }
+
   // Constants used in this implementation of the prime-factor FFT.
-  private static final float P120 = 0.120536680f;
-  private static final float P142 = 0.142314838f;
-  private static final float P173 = 0.173648178f;
-  private static final float P222 = 0.222520934f;
-  private static final float P239 = 0.239315664f;
-  private static final float P281 = 0.281732557f;
-  private static final float P342 = 0.342020143f;
-  private static final float P354 = 0.354604887f;
-  private static final float P382 = 0.382683432f;
-  private static final float P415 = 0.415415013f;
-  private static final float P433 = 0.433883739f;
-  private static final float P464 = 0.464723172f;
-  private static final float P540 = 0.540640817f;
-  private static final float P559 = 0.559016994f;
-  private static final float P568 = 0.568064747f;
-  private static final float P587 = 0.587785252f;
-  private static final float P623 = 0.623489802f;
-  private static final float P642 = 0.642787610f;
-  private static final float P654 = 0.654860734f;
-  private static final float P663 = 0.663122658f;
-  private static final float P707 = 0.707106781f;
-  private static final float P748 = 0.748510748f;
-  private static final float P755 = 0.755749574f;
-  private static final float P766 = 0.766044443f;
-  private static final float P781 = 0.781831482f;
-  private static final float P822 = 0.822983866f;
-  private static final float P841 = 0.841253533f;
-  private static final float P866 = 0.866025404f;
-  private static final float P885 = 0.885456026f;
-  private static final float P900 = 0.900968868f;
-  private static final float P909 = 0.909631995f;
-  private static final float P923 = 0.923879533f;
-  private static final float P935 = 0.935016243f;
-  private static final float P939 = 0.939692621f;
-  private static final float P951 = 0.951056516f;
-  private static final float P959 = 0.959492974f;
-  private static final float P970 = 0.970941817f;
-  private static final float P974 = 0.974927912f;
-  private static final float P984 = 0.984807753f;
-  private static final float P989 = 0.989821442f;
-  private static final float P992 = 0.992708874f;
-  private static final float PONE = 1.000000000f;
+  // These and the factors below are also used by PfaccVector.
+  static final float P120 = 0.120536680f;
+  static final float P142 = 0.142314838f;
+  static final float P173 = 0.173648178f;
+  static final float P222 = 0.222520934f;
+  static final float P239 = 0.239315664f;
+  static final float P281 = 0.281732557f;
+  static final float P342 = 0.342020143f;
+  static final float P354 = 0.354604887f;
+  static final float P382 = 0.382683432f;
+  static final float P415 = 0.415415013f;
+  static final float P433 = 0.433883739f;
+  static final float P464 = 0.464723172f;
+  static final float P540 = 0.540640817f;
+  static final float P559 = 0.559016994f;
+  static final float P568 = 0.568064747f;
+  static final float P587 = 0.587785252f;
+  static final float P623 = 0.623489802f;
+  static final float P642 = 0.642787610f;
+  static final float P654 = 0.654860734f;
+  static final float P663 = 0.663122658f;
+  static final float P707 = 0.707106781f;
+  static final float P748 = 0.748510748f;
+  static final float P755 = 0.755749574f;
+  static final float P766 = 0.766044443f;
+  static final float P781 = 0.781831482f;
+  static final float P822 = 0.822983866f;
+  static final float P841 = 0.841253533f;
+  static final float P866 = 0.866025404f;
+  static final float P885 = 0.885456026f;
+  static final float P900 = 0.900968868f;
+  static final float P909 = 0.909631995f;
+  static final float P923 = 0.923879533f;
+  static final float P935 = 0.935016243f;
+  static final float P939 = 0.939692621f;
+  static final float P951 = 0.951056516f;
+  static final float P959 = 0.959492974f;
+  static final float P970 = 0.970941817f;
+  static final float P974 = 0.974927912f;
+  static final float P984 = 0.984807753f;
+  static final float P989 = 0.989821442f;
+  static final float P992 = 0.992708874f;
+  static final float PONE = 1.000000000f;
 
   // Factors supported in this implementation of the prime-factor FFT.
   // Methods above require that these factors be in descending order.
-  private static final int NFAC = 10;
-  private static final int _kfac[] = {
+  static final int NFAC = 10;
+  static final int _kfac[] = {
     16, 13, 11, 9, 8, 7, 5, 4, 3, 2
   };
 
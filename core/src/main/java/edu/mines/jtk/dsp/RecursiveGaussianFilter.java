@@ -86,6 +86,18 @@ public class RecursiveGaussianFilter {
       new VanVlietFilter(sigma);
   }
 
+  /**
+   * Sets whether this filter processes multi-dimensional arrays in tiles.
+   * When tiled, recursions along the 2nd and 3rd dimensions are performed
+   * separately for narrow strips of columns, so that intermediate arrays
+   * remain in cache, and those strips are filtered in parallel. Output
+   * arrays are the same with or without tiling. The default is true.
+   * @param tiled true, for tiling; false, otherwise.
+   */
+  public void setTiled(boolean tiled) {
+    _filter.setTiled(tiled);
+  }
+
   /**
    * Applies the 0th-derivative filter.
    * @param x the filter input.
@@ -490,32 +502,87 @@ public class RecursiveGaussianFilter {
   ///////////////////////////////////////////////////////////////////////////
   private static abstract class Filter {
 
+    // Filters a 1-D array.
     abstract void applyN(int nd, float[] x, float[] y);
 
-    abstract void applyXN(int nd, float[][] x, float[][] y);
+    // Filters 2-D arrays along their 2nd dimension, for only the columns
+    // k1 <= i1 < k1+n1. Filtering of other columns is not affected.
+    abstract void filterXN(int nd, int k1, int n1, float[][] x, float[][] y);
 
-    void applyNX(int nd, float[][] x, float[][] y) {
-      int m2 = y.length;
-      for (int i2=0; i2<m2; ++i2)
-        applyN(nd,x[i2],y[i2]);
+    void setTiled(boolean tiled) {
+      _tiled = tiled;
+    }
+
+    void applyNX(final int nd, final float[][] x, final float[][] y) {
+      final int m2 = y.length;
+      if (_tiled) {
+        Parallel.loop(m2,new Parallel.LoopInt() {
+          public void compute(int i2) {
+            applyN(nd,x[i2],y[i2]);
+          }
+        });
+      } else {
+        for (int i2=0; i2<m2; ++i2)
+          applyN(nd,x[i2],y[i2]);
+      }
+    }
+
+    void applyXN(final int nd, final float[][] x, final float[][] y) {
+      checkArrays(x,y);
+      final int m1 = y[0].length;
+      if (_tiled) {
+        final int nb = tileSize(m1);
+        int nt = (m1+nb-1)/nb;
+        Parallel.loop(nt,new Parallel.LoopInt() {
+          public void compute(int it) {
+            int k1 = it*nb;
+            filterXN(nd,k1,min(nb,m1-k1),x,y);
+          }
+        });
+      } else {
+        filterXN(nd,0,m1,x,y);
+      }
     }
 
     void applyNXX(final int nd, final float[][][] x, final float[][][] y) {
       final int m3 = y.length;
-      Parallel.loop(m3,new Parallel.LoopInt() {
-        public void compute(int i3) {
-          applyNX(nd,x[i3],y[i3]);
-        }
-      });
+      if (_tiled) {
+        final int m2 = y[0].length;
+        Parallel.loop(m3*m2,new Parallel.LoopInt() {
+          public void compute(int i) {
+            int i3 = i/m2, i2 = i%m2;
+            applyN(nd,x[i3][i2],y[i3][i2]);
+          }
+        });
+      } else {
+        Parallel.loop(m3,new Parallel.LoopInt() {
+          public void compute(int i3) {
+            applyNX(nd,x[i3],y[i3]);
+          }
+        });
+      }
     }
 
     void applyXNX(final int nd, final float[][][] x, final float[][][] y) {
+      checkArrays(x,y);
       final int m3 = y.length;
-      Parallel.loop(m3,new Parallel.LoopInt() {
-        public void compute(int i3) {
-          applyXN(nd,x[i3],y[i3]);
-        }
-      });
+      final int m1 = y[0][0].length;
+      if (_tiled) {
+        final int nb = tileSize(m1);
+        final int nt = (m1+nb-1)/nb;
+        Parallel.loop(m3*nt,new Parallel.LoopInt() {
+          public void compute(int i) {
+            int i3 = i/nt, k1 = (i%nt)*nb;
+            filterXN(nd,k1,min(nb,m1-k1),x[i3],y[i3]);
+          }
+        });
+      } else {
+        Parallel.loop(m3,new Parallel.LoopInt() {
+          public void compute(int i3) {
+            filterXN(nd,0,m1,x[i3],y[i3]);
+          }
+        });
+      }
     }
 
     void applyXXN(final int nd, final float[][][] x, final float[][][] y) {
@@ -530,28 +597,33 @@ public class RecursiveGaussianFilter {
           ty[i2][i3] = y[i3][i2];
         }
       }
-      Parallel.loop(m2,new Parallel.LoopInt() {
-        public void compute(int i2) {
-          applyXN(nd,tx[i2],ty[i2]);
-        }
-      });
-    }
-    /* Should be equivalent to the parallel version above.
-    void applyXXN(int nd, float[][][] x, float[][][] y) {
-      checkArrays(x,y);
-      int m3 = y.length;
-      int m2 = y[0].length;
-      float[][] x2 = new float[m3][];
-      float[][] y2 = new float[m3][];
-      for (int i2=0; i2<m2; ++i2) {
-        for (int i3=0; i3<m3; ++i3) {
-          x2[i3] = x[i3][i2];
-          y2[i3] = y[i3][i2];
-        }
-        applyXN(nd,x2,y2);
+      final int m1 = y[0][0].length;
+      if (_tiled) {
+        final int nb = tileSize(m1);
+        final int nt = (m1+nb-1)/nb;
+        Parallel.loop(m2*nt,new Parallel.LoopInt() {
+          public void compute(int i) {
+            int i2 = i/nt, k1 = (i%nt)*nb;
+            filterXN(nd,k1,min(nb,m1-k1),tx[i2],ty[i2]);
+          }
+        });
+      } else {
+        Parallel.loop(m2,new Parallel.LoopInt() {
+          public void compute(int i2) {
+            filterXN(nd,0,m1,tx[i2],ty[i2]);
+          }
+        });
       }
     }
-    */
+
+    // Number of columns filtered together in each tile. Recursions for
+    // those columns then use short arrays that remain in cache.
+    private static int tileSize(int m1) {
+      return min(m1,TILE_SIZE);
+    }
+    private static final int TILE_SIZE = 64;
+
+    private boolean _tiled = true;
   }
 
   ///////////////////////////////////////////////////////////////////////////
@@ -597,12 +669,13 @@ public class RecursiveGaussianFilter {
       }
     }
 
-    void applyXN(int nd, float[][] x, float[][] y) {
-      checkArrays(x,y);
-      if (sameArrays(x,y))
-        x = copy(x);
+    void filterXN(int nd, int k1, int m1, float[][] x, float[][] y) {
       int m2 = y.length;
-      int m1 = y[0].length;
+      int j1 = k1;
+      if (sameArrays(x,y)) {
+        x = copy(m1,m2,k1,0,x);
+        j1 = 0;
+      }
       float n0 = _n0[nd],  n1 = _n1[nd],  n2 = _n2[nd],  n3 = _n3[nd];
       float d1 = _d1[nd],  d2 = _d2[nd],  d3 = _d3[nd],  d4 = _d4[nd];
       float[] yim4 = new float[m1];
@@ -619,10 +692,10 @@ public class RecursiveGaussianFilter {
         float[] x2 = x[i2];
         float[] y2 = y[i2];
         for (int i1=0; i1<m1; ++i1) {
-          xi[i1] = x2[i1];
+          xi[i1] = x2[j1+i1];
           yi[i1] = n0*xi[i1]+n1*xim1[i1]+n2*xim2[i1]+n3*xim3[i1]
                             -d1*yim1[i1]-d2*yim2[i1]-d3*yim3[i1]-d4*yim4[i1];
-          y2[i1] = yi[i1];
+          y2[k1+i1] = yi[i1];
         }
         float[] yt = yim4;
         yim4 = yim3;
@@ -665,10 +738,10 @@ public class RecursiveGaussianFilter {
         float[] x2 = x[i2];
         float[] y2 = y[i2];
         for (int i1=0; i1<m1; ++i1) {
-          xi[i1] = x2[i1];
+          xi[i1] = x2[j1+i1];
           yi[i1] = n1*xip1[i1]+n2*xip2[i1]+n3*xip3[i1]+n4*xip4[i1] -
                    d1*yip1[i1]-d2*yip2[i1]-d3*yip3[i1]-d4*yip4[i1];
-          y2[i1] += yi[i1];
+          y2[k1+i1] += yi[i1];
         }
         float[] yt = yip4;
         yip4 = yip3;
@@ -849,14 +922,22 @@ public class RecursiveGaussianFilter {
       _g[nd][1][1].accumulateReverse(x,y);
     }
 
-    void applyXN(int nd, float[][] x, float[][] y) {
-      checkArrays(x,y);
-      if (sameArrays(x,y))
-        x = copy(x);
-      _g[nd][0][0].apply2Forward(x,y);
-      _g[nd][0][1].accumulate2Reverse(x,y);
-      _g[nd][1][0].accumulate2Forward(x,y);
-      _g[nd][1][1].accumulate2Reverse(x,y);
+    void filterXN(int nd, int k1, int n1, float[][] x, float[][] y) {
+      int m2 = y.length;
+      int m1 = y[0].length;
+      if (k1==0 && n1==m1) {
+        if (sameArrays(x,y))
+          x = copy(x);
+      } else {
+        x = copy(n1,m2,k1,0,x);
+      }
+      float[][] z = (n1==m1)?y:new float[m2][n1];
+      _g[nd][0][0].apply2Forward(x,z);
+      _g[nd][0][1].accumulate2Reverse(x,z);
+      _g[nd][1][0].accumulate2Forward(x,z);
+      _g[nd][1][1].accumulate2Reverse(x,z);
+      if (z!=y)
+        copy(n1,m2,0,0,z,k1,0,y);
     }
 
     // Poles (inverses) for 4th-order filters published by van Vliet, et al.
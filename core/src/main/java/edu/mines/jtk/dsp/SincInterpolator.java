@@ -19,6 +19,7 @@ import java.util.concurrent.ConcurrentHashMap;
 
 import static edu.mines.jtk.util.ArrayMath.*;
 import edu.mines.jtk.util.Check;
+import edu.mines.jtk.util.Parallel;
 
 /**
  * A sinc interpolator for bandlimited uniformly-sampled functions y(x). 
@@ -61,6 +62,16 @@ import edu.mines.jtk.util.Check;
  * uniformly sampled values, efficiency may be improved by using one of the
  * methods that enables specification of multiple x values at which to
  * interpolate.
+ * <p>
+ * To interpolate many sequences, such as the traces in a 2-D array, use 
+ * one of the methods named interpolate1, which interpolate sequences 
+ * in parallel. When interpolating all sequences at the same values x,
+ * these methods compute the index of the first uniform sample and of the
+ * sinc approximation for each x only once. Where no extrapolation is 
+ * required, the sums of products of uniform samples and sinc coefficients 
+ * may be computed with SIMD (vector) instructions, if available. Results 
+ * computed with these instructions may differ slightly from those 
+ * computed without them, because sums are computed in a different order.
  *
  * @author Dave Hale, Colorado School of Mines
  * @author Bill Harlan, Landmark Graphics
@@ -197,6 +208,31 @@ public class SincInterpolator {
     _extrap = extrap;
   }
 
+  /**
+   * Determines whether SIMD (vector) instructions are available for
+   * interpolating many sequences. These instructions require the
+   * incubating Java Vector API, which must be enabled with the JVM 
+   * option --add-modules jdk.incubator.vector, and classes that are 
+   * built only with JDK 16 or later.
+   * @return true, if available; false, otherwise.
+   */
+  public static boolean isVectorAvailable() {
+    return VECTOR_AVAILABLE;
+  }
+
+  /**
+   * Enables or disables SIMD (vector) instructions, if available, for
+   * interpolating many sequences. By default, SIMD instructions are used 
+   * if available.
+   * <p>
+   * <em>Setting this flag affects all sinc interpolators.</em> This method
+   * should therefore be used for benchmarking only.
+   * @param vectorized true, for SIMD instructions; false, otherwise.
+   */
+  public static void setVectorized(boolean vectorized) {
+    _vectorized = vectorized && VECTOR_AVAILABLE;
+  }
+
   /**
    * Interpolates one real value y(x).
    * @param nxu number of input samples.
@@ -373,6 +409,107 @@ public class SincInterpolator {
     }
   }
 
+  /**
+   * Interpolates multiple real values y(x) for each of many sequences.
+   * All sequences are interpolated at the same values x, in parallel.
+   * @param nxu number of input samples in each sequence.
+   * @param dxu input sampling interval.
+   * @param fxu first input sampled x value.
+   * @param yu input array[n2][nxu] of sampled values y(x).
+   * @param nxi number of output samples in each sequence.
+   * @param xi input array[nxi] of x values at which to interpolate.
+   * @param yi output array[n2][nxi] of interpolated values y(x).
+   */
+  public void interpolate1(
+    int nxu, double dxu, double fxu, float[][] yu, 
+    int nxi, float[] xi, float[][] yi)
+  {
+    interpolate1(nxu,dxu,fxu,yu,nxi,xi,yi,_vectorized);
+  }
+
+  // Interpolates many sequences, with SIMD instructions, if vectorized
+  // and available. Package-private, so that tests may compare scalar and
+  // vector sums without changing the flag shared by all interpolators.
+  void interpolate1(
+    int nxu, double dxu, double fxu, float[][] yu, 
+    int nxi, float[] xi, float[][] yi, boolean vectorized)
+  {
+    double xscale = 1.0/dxu;
+    double xshift = _lsinc-fxu*xscale;
+    int[] kyu = new int[nxi];
+    int[] ksinc = new int[nxi];
+    for (int ixi=0; ixi<nxi; ++ixi)
+      index(xscale,xshift,xi[ixi],ixi,kyu,ksinc);
+    interpolate1(nxu,yu,nxi,kyu,ksinc,yi,vectorized);
+  }
+
+  /**
+   * Interpolates multiple real values y(x) for each of many sequences.
+   * Each sequence is interpolated at different values x, in parallel.
+   * @param nxu number of input samples in each sequence.
+   * @param dxu input sampling interval.
+   * @param fxu first input sampled x value.
+   * @param yu input array[n2][nxu] of sampled values y(x).
+   * @param nxi number of output samples in each sequence.
+   * @param xi input array[n2][nxi] of x values at which to interpolate.
+   * @param yi output array[n2][nxi] of interpolated values y(x).
+   */
+  public void interpolate1(
+    int nxu, double dxu, double fxu, float[][] yu, 
+    int nxi, float[][] xi, float[][] yi)
+  {
+    interpolate1(nxu,dxu,fxu,yu,nxi,xi,yi,_vectorized);
+  }
+  void interpolate1(
+    final int nxu, double dxu, double fxu, final float[][] yu, 
+    final int nxi, final float[][] xi, final float[][] yi,
+    final boolean vectorized)
+  {
+    final double xscale = 1.0/dxu;
+    final double xshift = _lsinc-fxu*xscale;
+    int n2 = yu.length;
+    Parallel.loop(n2,new Parallel.LoopInt() {
+      public void compute(int i2) {
+        int[] kyu = new int[nxi];
+        int[] ksinc = new int[nxi];
+        float[] xi2 = xi[i2];
+        for (int ixi=0; ixi<nxi; ++ixi)
+          index(xscale,xshift,xi2[ixi],ixi,kyu,ksinc);
+        interpolate(nxu,yu[i2],nxi,kyu,ksinc,yi[i2],vectorized);
+      }
+    });
+  }
+
+  /**
+   * Interpolates multiple real values y(x) for each of many sequences.
+   * All sequences are interpolated at the same values x, in parallel.
+   * @param sxu sampling of input samples in each sequence.
+   * @param yu input array[n2][nxu] of uniformly sampled values y(x).
+   * @param sxi sampling of output samples in each sequence.
+   * @param yi output array[n2][nxi] of interpolated values y(x).
+   */
+  public void interpolate1(
+    Sampling sxu, float[][] yu, 
+    Sampling sxi, float[][] yi) 
+  {
+    interpolate1(sxu,yu,sxi,yi,_vectorized);
+  }
+  void interpolate1(
+    Sampling sxu, float[][] yu, 
+    Sampling sxi, float[][] yi, boolean vectorized) 
+  {
+    Check.argument(sxu.isUniform(),"input sampling is uniform");
+    int nxu = sxu.getCount();
+    int nxi = sxi.getCount();
+    double xscale = 1.0/sxu.getDelta();
+    double xshift = _lsinc-sxu.getFirst()*xscale;
+    int[] kyu = new int[nxi];
+    int[] ksinc = new int[nxi];
+    for (int ixi=0; ixi<nxi; ++ixi)
+      index(xscale,xshift,sxi.getValue(ixi),ixi,kyu,ksinc);
+    interpolate1(nxu,yu,nxi,kyu,ksinc,yi,vectorized);
+  }
+
   /**
    * Interpolates one real value y(x1,x2).
    * @param sx1u sampling of input x in 1st dimension.
@@ -581,6 +718,38 @@ public class SincInterpolator {
   // Extrapolation method.
   private Extrapolation _extrap = Extrapolation.ZERO;
 
+  /**
+   * Vectorized sums of products for sinc interpolation, implemented by the
+   * class SincInterpolatorVector. That class uses the incubating Java 
+   * Vector API, and is compiled only with JDK 16 or later; therefore, it 
+   * is loaded only by reflection.
+   */
+  interface Kernels {
+
+    /**
+     * The minimum number of coefficients for which vector sums are used.
+     */
+    int NMIN = 8;
+
+    boolean isAvailable();
+    float dot(int n, float[] a, float[] y, int ky);
+  }
+
+  // Vectorized sums are available only if the class SincInterpolatorVector
+  // and the incubating Java Vector API are both available.
+  private static final Kernels VECTOR = loadKernels();
+  private static final boolean VECTOR_AVAILABLE = VECTOR!=null;
+  private static volatile boolean _vectorized = VECTOR_AVAILABLE;
+  private static Kernels loadKernels() {
+    try {
+      Class<?> c = Class.forName("edu.mines.jtk.dsp.SincInterpolatorVector");
+      Kernels k = (Kernels)c.getDeclaredConstructor().newInstance();
+      return k.isAvailable()?k:null;
+    } catch (ReflectiveOperationException | LinkageError e) {
+      return null;
+    }
+  }
+
   // Table of sinc interpolation coefficients.
   private Table _table; // with all fields cached below
   private int _lsinc; // length of sinc approximations
@@ -819,7 +988,71 @@ public class SincInterpolator {
     if (kyu>=0 && kyu<=nxum) {
       for (int isinc=0; isinc<_lsinc; ++isinc,++kyu)
         yr += yu[kyu]*asinc[isinc];
-    } else if (_extrap==Extrapolation.ZERO) {
+    } else {
+      yr = extrapolate(nxu,yu,kyu,asinc);
+    }
+    return yr;
+  }
+
+  // Computes for one value x indices of the first uniform sample and of 
+  // the sinc approximation used to interpolate; same as in the method 
+  // interpolate above.
+  private void index(
+    double xscale, double xshift, double x, 
+    int ixi, int[] kyu, int[] ksinc) 
+  {
+    double xn = xshift+x*xscale;
+    int ixn = (int)xn;
+    double frac = xn-ixn;
+    if (frac<0.0)
+      frac += 1.0;
+    kyu[ixi] = _ishift+ixn;
+    ksinc[ixi] = (int)(frac*_nsincm1+0.5);
+  }
+
+  private void interpolate1(
+    final int nxu, final float[][] yu, 
+    final int nxi, final int[] kyu, final int[] ksinc, final float[][] yi,
+    final boolean vectorized)
+  {
+    int n2 = yu.length;
+    Parallel.loop(n2,new Parallel.LoopInt() {
+      public void compute(int i2) {
+        interpolate(nxu,yu[i2],nxi,kyu,ksinc,yi[i2],vectorized);
+      }
+    });
+  }
+
+  // Interpolates one sequence for precomputed indices. Where extrapolation
+  // is unnecessary, a vectorized sum of products may be used.
+  private void interpolate(
+    int nxu, float[] yu, int nxi, int[] kyu, int[] ksinc, float[] yi,
+    boolean vectorized) 
+  {
+    int lsinc = _lsinc;
+    int nxum = nxu-lsinc;
+    vectorized = vectorized && VECTOR_AVAILABLE && lsinc>=Kernels.NMIN;
+    for (int ixi=0; ixi<nxi; ++ixi) {
+      int kyui = kyu[ixi];
+      float[] asinc = _asinc[ksinc[ixi]];
+      if (kyui<0 || kyui>nxum) {
+        yi[ixi] = extrapolate(nxu,yu,kyui,asinc);
+      } else if (vectorized) {
+        yi[ixi] = VECTOR.dot(lsinc,asinc,yu,kyui);
+      } else {
+        float yr = 0.0f;
+        for (int isinc=0; isinc<lsinc; ++isinc,++kyui)
+          yr += yu[kyui]*asinc[isinc];
+        yi[ixi] = yr;
+      }
+    }
+  }
+
+  // Interpolates one value using uniform samples beginning with index kyu, 
+  // some of which must be extrapolated.
+  private float extrapolate(int nxu, float[] yu, int kyu, float[] asinc) {
+    float yr = 0.0f;
+    if (_extrap==Extrapolation.ZERO) {
       for (int isinc=0; isinc<_lsinc; ++isinc,++kyu) {
         if (0<=kyu && kyu<nxu)
           yr += yu[kyu]*asinc[isinc];
@@ -14,14 +14,37 @@ limitations under the License.
 ****************************************************************************/
 package edu.mines.jtk.interp;
 
+import java.util.Arrays;
+import java.util.logging.Logger;
+
 import edu.mines.jtk.la.DMatrix;
 import edu.mines.jtk.la.DMatrixLud;
 import edu.mines.jtk.dsp.Sampling;
 import edu.mines.jtk.util.Check;
+import edu.mines.jtk.util.Parallel;
 import static edu.mines.jtk.util.ArrayMath.*;
 
 /**
  * Interpolation of scattered data f(x1,x2) with radial basis functions.
+ * <p>
+ * Weights for the radial basis functions are the solution of a dense
+ * linear system of equations with one equation for each known sample.
+ * For small numbers of samples, this system is solved directly, and
+ * interpolated values are computed by summing basis functions for all
+ * samples. 
+ * <p>
+ * For large numbers of samples, the system is instead solved iteratively
+ * with restarted GMRES, preconditioned by overlapping domain 
+ * decomposition (restricted additive Schwarz). For this preconditioner, 
+ * samples are divided into small groups of nearby samples, and for each
+ * group, a small system of equations is solved for that group and its
+ * neighbors. A coarse system for a subset of samples, one from each of
+ * a limited number of larger groups, accounts for interactions between 
+ * distant groups. Sums of basis functions are approximated with a tree 
+ * code in which contributions from distant groups of samples are 
+ * represented by fewer proxy samples. The costs of both computing weights
+ * and interpolating values then grow nearly linearly with the number of 
+ * samples.
  * @author Dave Hale, Colorado School of Mines
  * @version 2010.01.15
  */
@@ -254,6 +277,54 @@ public class RadialInterpolator2 {
     }
   }
 
+  /**
+   * Sets the maximum number of samples for which weights are computed
+   * directly. For larger numbers of samples, weights are computed by an
+   * iterative method, and interpolated values are approximated with a 
+   * tree code. The default maximum is 2000.
+   * @param nmax the maximum number of samples.
+   */
+  public void setMaxDirect(int nmax) {
+    if (_nmax!=nmax) {
+      _nmax = nmax;
+      _w = null;
+    }
+  }
+
+  /**
+   * Sets parameters that control the iterative method used to compute
+   * weights for large numbers of samples. Iterations end when the norm
+   * of the residual is less than small times the norm of sample values,
+   * or when the specified maximum number of iterations is exceeded.
+   * In the latter case, a warning with the final ratio of those norms is
+   * logged. Defaults are small = 0.00001 and niter = 1000.
+   * @param small stop when norm of residuals is less than small times
+   *  the norm of sample values.
+   * @param niter stop when number of iterations exceeds this limit.
+   */
+  public void setIterations(double small, int niter) {
+    if (_small!=small || _niter!=niter) {
+      _small = small;
+      _niter = niter;
+      _w = null;
+    }
+  }
+
+  /**
+   * Sets the maximum number of floats stored for solutions of the local 
+   * systems used by the iterative method. Groups of nearby samples for 
+   * those systems are made smaller until their storage does not exceed 
+   * this maximum. The default maximum is 2^26 floats. This method is for
+   * testing only.
+   * @param nfmax the maximum number of floats.
+   */
+  void setMaxLocalStorage(long nfmax) {
+    if (_nfmax!=nfmax) {
+      _nfmax = nfmax;
+      _w = null;
+    }
+  }
+
   /**
    * Returns a value interpolated at the specified point.
    * @param x1 the x1 coordinate of the point.
@@ -265,10 +336,14 @@ public class RadialInterpolator2 {
     double f = 0.0;
     double x1i = x1;
     double x2i = x2;
-    for (int k=0; k<_n; ++k) {
-      double x1k = _x1[k];
-      double x2k = _x2[k];
-      f += _w[k]*g(x1k,x2k,x1i,x2i);
+    if (_tree!=null) {
+      f = _tree.evaluate(x1i,x2i);
+    } else {
+      for (int k=0; k<_n; ++k) {
+        double x1k = _x1[k];
+        double x2k = _x2[k];
+        f += _w[k]*g(x1k,x2k,x1i,x2i);
+      }
     }
     float ff = (float)f;
     if (_trend!=null)
@@ -282,17 +357,19 @@ public class RadialInterpolator2 {
    * @param s2 the sampling of n2 x2 coordinates.
    * @return array[n2][n1] of interpolated values.
    */
-  public float[][] interpolate(Sampling s1, Sampling s2) {
-    int n1 = s1.getCount();
+  public float[][] interpolate(final Sampling s1, final Sampling s2) {
+    ensureWeights();
+    final int n1 = s1.getCount();
     int n2 = s2.getCount();
-    float[][] f = new float[n2][n1];
-    for (int i2=0; i2<n2; ++i2) {
+    final float[][] f = new float[n2][n1];
+    Parallel.loop(n2,new Parallel.LoopInt() {
+    public void compute(int i2) {
       float x2 = (float)s2.getValue(i2);
       for (int i1=0; i1<n1; ++i1) {
         float x1 = (float)s1.getValue(i1);
         f[i2][i1] = interpolate(x1,x2);
       }
-    }
+    }});
     return f;
   }
 
@@ -316,6 +393,31 @@ public class RadialInterpolator2 {
   private boolean _mt; // true iff using a metric tensor
   private PolyTrend2 _trend; // polynomial trend; null, if none
   private int _order = -1; // order of poly trend; -1, if none
+  private int _nmax = 2000; // max number of samples for direct solution
+  private double _small = 0.00001; // stop iterations when residual small
+  private int _niter = 1000; // maximum number of iterations
+  private long _nfmax = NFINE_MAX; // max floats stored for local systems
+  private RadialTreecode2 _tree; // tree code; null, if direct solution
+
+  private static Logger log = 
+    Logger.getLogger(RadialInterpolator2.class.getName());
+
+  // Number of vectors in GMRES before restarting; maximum number of 
+  // samples in each group for domain decomposition, halved (but not below
+  // NGROUP_MIN) until about NLOCAL*NGROUP*n floats, the storage required
+  // for local solutions, does not exceed NFINE_MAX (by default); overlap
+  // of groups as a fraction of their size; maximum number of samples in 
+  // groups that each contribute one sample to the coarse system, doubled
+  // until the number of samples in the coarse system does not exceed 
+  // NCOARSE.
+  private static final int NKRYLOV = 30;
+  private static final int NGROUP = 64;
+  private static final int NGROUP_MIN = 16;
+  private static final int NLOCAL = 4;
+  private static final long NFINE_MAX = 1L<<26;
+  private static final double OVERLAP = 0.5;
+  private static final int NCGROUP = 16;
+  private static final int NCOARSE = 2000;
 
   private double g(double x1a, double x2a, double x1b, double x2b) {
     return _basis.evaluate(r(x1a,x2a,x1b,x2b));
@@ -334,6 +436,11 @@ public class RadialInterpolator2 {
   private void ensureWeights() {
     if (_w!=null)
       return;
+    _tree = null;
+    if (_n>_nmax) {
+      computeWeightsIterative();
+      return;
+    }
     DMatrix a = new DMatrix(_n,_n);
     DMatrix b = new DMatrix(_n,1);
     for (int i=0; i<_n; ++i) {
@@ -352,4 +459,272 @@ public class RadialInterpolator2 {
     for (int i=0; i<_n; ++i)
       _w[i] = (float)w.get(i,0);
   }
+
+  /**
+   * Computes weights iteratively with right-preconditioned GMRES(m),
+   * where m = NKRYLOV is the number of vectors before restarting.
+   */
+  private void computeWeightsIterative() {
+    final int n = _n;
+    RadialTreecode2 tree = new RadialTreecode2(_basis,
+      (_mt)?_m11:1.0,(_mt)?_m12:0.0,(_mt)?_m22:1.0,_x1,_x2);
+    Schwarz m = new Schwarz(tree);
+    int nk = NKRYLOV;
+    double[] b = new double[n];
+    for (int i=0; i<n; ++i)
+      b[i] = _f[i];
+    double[] x = new double[n];
+    double[] r = copy(b);
+    double[] z = new double[n];
+    double[][] v = new double[nk+1][];
+    double[][] h = new double[nk+1][nk];
+    double[] cs = new double[nk];
+    double[] sn = new double[nk];
+    double[] g = new double[nk+1];
+    double bnorm = norm(b);
+    double rnorm = bnorm;
+    for (int iter=0; iter<_niter && rnorm>_small*bnorm; ) {
+      v[0] = mul(1.0/rnorm,r);
+      zero(g);
+      g[0] = rnorm;
+      int j = 0;
+      for (; j<nk && iter<_niter; ++j,++iter) {
+        m.apply(v[j],z);
+        double[] w = v[j+1] = new double[n];
+        apply(tree,z,w);
+        for (int i=0; i<=j; ++i) {
+          double hij = h[i][j] = dot(w,v[i]);
+          axpy(-hij,v[i],w);
+        }
+        double hjj = h[j+1][j] = norm(w);
+        if (hjj>0.0)
+          mul(1.0/hjj,w,w);
+        for (int i=0; i<j; ++i) {
+          double t = cs[i]*h[i][j]+sn[i]*h[i+1][j];
+          h[i+1][j] = -sn[i]*h[i][j]+cs[i]*h[i+1][j];
+          h[i][j] = t;
+        }
+        double d = hypot(h[j][j],h[j+1][j]);
+        cs[j] = h[j][j]/d;
+        sn[j] = h[j+1][j]/d;
+        h[j][j] = d;
+        h[j+1][j] = 0.0;
+        g[j+1] = -sn[j]*g[j];
+        g[j] = cs[j]*g[j];
+        if (abs(g[j+1])<=_small*bnorm) {
+          ++j;
+          ++iter;
+          break;
+        }
+      }
+
+      // Update x = x+M^-1*V*y, where y solves H*y = g, and residual r.
+      double[] y = new double[j];
+      for (int i=j-1; i>=0; --i) {
+        double s = g[i];
+        for (int k=i+1; k<j; ++k)
+          s -= h[i][k]*y[k];
+        y[i] = s/h[i][i];
+      }
+      double[] u = new double[n];
+      for (int i=0; i<j; ++i)
+        axpy(y[i],v[i],u);
+      m.apply(u,z);
+      axpy(1.0,z,x);
+      apply(tree,x,r);
+      for (int i=0; i<n; ++i)
+        r[i] = b[i]-r[i];
+      rnorm = norm(r);
+    }
+    if (rnorm>_small*bnorm)
+      log.warning("computeWeightsIterative: not converged after "+_niter+
+        " iterations, rnorm="+(rnorm/bnorm));
+    tree.setWeights(x);
+    _tree = tree;
+    _w = new float[n];
+    for (int i=0; i<n; ++i)
+      _w[i] = (float)x[i];
+  }
+
+  /**
+   * Computes y = A*w for the system of equations solved for weights w.
+   * Uses the tree code to approximate sums of basis functions.
+   */
+  private void apply(final RadialTreecode2 tree, double[] w, final double[] y) {
+    tree.setWeights(w);
+    Parallel.loop(_n,new Parallel.LoopInt() {
+    public void compute(int i) {
+      y[i] = tree.evaluate(_x1[i],_x2[i]);
+    }});
+  }
+
+  private static double norm(double[] x) {
+    return sqrt(dot(x,x));
+  }
+
+  private static double dot(double[] x, double[] y) {
+    int n = x.length;
+    double s = 0.0;
+    for (int i=0; i<n; ++i)
+      s += x[i]*y[i];
+    return s;
+  }
+
+  private static void axpy(double a, double[] x, double[] y) {
+    int n = x.length;
+    for (int i=0; i<n; ++i)
+      y[i] += a*x[i];
+  }
+
+  /**
+   * Restricted additive Schwarz preconditioner with a coarse correction.
+   * For each group of nearby samples, solves the system of equations for
+   * that group and samples in an overlapping neighborhood. Also factors
+   * a coarse system for a subset of samples. The preconditioner first
+   * solves the coarse system and updates the residual. It then solves
+   * all local systems independently, and keeps only the solution for
+   * samples in each group.
+   * <p>
+   * Because only those solutions are kept, only the rows of the inverse
+   * of each local system for samples in the group are stored. Storage is 
+   * therefore proportional to the number of samples times the size of a 
+   * neighborhood, and groups are made smaller when that number is large.
+   */
+  private class Schwarz {
+    Schwarz(RadialTreecode2 tree) {
+      int ng = NGROUP;
+      while (ng>NGROUP_MIN && NLOCAL*ng*(long)_n>_nfmax)
+        ng /= 2;
+      _groups = tree.getGroups(ng);
+      int ngroup = _groups.length;
+      _local = new int[ngroup][];
+      _inv = new float[ngroup][][];
+      for (int igroup=0; igroup<ngroup; ++igroup) {
+        int[] group = _groups[igroup];
+        float x1min = FLT_MAX, x1max = -FLT_MAX;
+        float x2min = FLT_MAX, x2max = -FLT_MAX;
+        for (int k:group) {
+          x1min = min(x1min,_x1[k]);  x1max = max(x1max,_x1[k]);
+          x2min = min(x2min,_x2[k]);  x2max = max(x2max,_x2[k]);
+        }
+        double d = OVERLAP*max(x1max-x1min,x2max-x2min);
+        _local[igroup] = tree.find(x1min-d,x1max+d,x2min-d,x2max+d);
+      }
+      Parallel.loop(ngroup,new Parallel.LoopInt() {
+      public void compute(int igroup) {
+        factor(igroup);
+      }});
+      initCoarse(tree);
+    }
+    void apply(final double[] r, final double[] z) {
+      int nc = _coarse.length;
+      DMatrix bc = new DMatrix(nc,1);
+      for (int ic=0; ic<nc; ++ic)
+        bc.set(ic,0,r[_coarse[ic]]);
+      DMatrix xc = _coarseLud.solve(bc);
+      final double[] wc = new double[nc];
+      for (int ic=0; ic<nc; ++ic)
+        wc[ic] = xc.get(ic,0);
+      _coarseTree.setWeights(wc);
+      final double[] rf = new double[_n];
+      Parallel.loop(_n,new Parallel.LoopInt() {
+      public void compute(int i) {
+        rf[i] = r[i]-_coarseTree.evaluate(_x1[i],_x2[i]);
+      }});
+      applyFine(rf,z);
+      for (int ic=0; ic<nc; ++ic)
+        z[_coarse[ic]] += wc[ic];
+    }
+    private void initCoarse(RadialTreecode2 tree) {
+      int[][] groups = tree.getGroups(NCGROUP);
+      for (int ng=2*NCGROUP; groups.length>NCOARSE; ng*=2)
+        groups = tree.getGroups(ng);
+      int nc = groups.length;
+      _coarse = new int[nc];
+      float[] x1c = new float[nc];
+      float[] x2c = new float[nc];
+      for (int ic=0; ic<nc; ++ic) {
+        int[] group = groups[ic];
+        double x1s = 0.0, x2s = 0.0;
+        for (int k:group) {
+          x1s += _x1[k];
+          x2s += _x2[k];
+        }
+        x1s /= group.length;
+        x2s /= group.length;
+        double dmin = DBL_MAX;
+        for (int k:group) {
+          double d1 = _x1[k]-x1s;
+          double d2 = _x2[k]-x2s;
+          double d = d1*d1+d2*d2;
+          if (d<dmin) {
+            dmin = d;
+            _coarse[ic] = k;
+          }
+        }
+        x1c[ic] = _x1[_coarse[ic]];
+        x2c[ic] = _x2[_coarse[ic]];
+      }
+      DMatrix a = new DMatrix(nc,nc);
+      for (int ic=0; ic<nc; ++ic)
+        for (int jc=0; jc<nc; ++jc)
+          a.set(ic,jc,g(x1c[ic],x2c[ic],x1c[jc],x2c[jc]));
+      _coarseLud = new DMatrixLud(a);
+      _coarseTree = new RadialTreecode2(_basis,
+        (_mt)?_m11:1.0,(_mt)?_m12:0.0,(_mt)?_m22:1.0,x1c,x2c);
+    }
+    private void applyFine(final double[] r, final double[] z) {
+      Parallel.loop(_groups.length,new Parallel.LoopInt() {
+      public void compute(int igroup) {
+        int[] group = _groups[igroup];
+        int[] local = _local[igroup];
+        float[][] inv = _inv[igroup];
+        int ng = group.length;
+        int nl = local.length;
+        for (int ig=0; ig<ng; ++ig) {
+          float[] invg = inv[ig];
+          double zi = 0.0;
+          for (int il=0; il<nl; ++il)
+            zi += invg[il]*r[local[il]];
+          z[group[ig]] = zi;
+        }
+      }});
+    }
+
+    // Computes rows of the inverse of the local system for samples in one 
+    // group. Because the system is symmetric, these rows are columns that
+    // solve the system for unit vectors, one for each sample in the group.
+    // Sample indices in the group are sorted, so that the column for each
+    // sample can be found by binary search.
+    private void factor(int igroup) {
+      int[] group = _groups[igroup];
+      int[] local = _local[igroup];
+      int ng = group.length;
+      int nl = local.length;
+      Arrays.sort(group);
+      DMatrix a = new DMatrix(nl,nl);
+      DMatrix e = new DMatrix(nl,ng);
+      for (int il=0; il<nl; ++il) {
+        int i = local[il];
+        int ig = Arrays.binarySearch(group,i);
+        if (ig>=0)
+          e.set(il,ig,1.0);
+        for (int jl=0; jl<nl; ++jl) {
+          int j = local[jl];
+          a.set(il,jl,g(_x1[i],_x2[i],_x1[j],_x2[j]));
+        }
+      }
+      DMatrix x = new DMatrixLud(a).solve(e);
+      float[][] inv = _inv[igroup] = new float[ng][nl];
+      for (int ig=0; ig<ng; ++ig)
+        for (int il=0; il<nl; ++il)
+          inv[ig][il] = (float)x.get(il,ig);
+    }
+    private int[][] _groups; // sample indices for each group
+    private int[][] _local; // sample indices for overlapping neighborhoods
+    private float[][][] _inv; // rows of local inverses for group samples
+    private int[] _coarse; // sample indices for coarse system
+    private DMatrixLud _coarseLud; // LU decomposition of coarse system
+    private RadialTreecode2 _coarseTree; // tree code for coarse samples
+  }
 }
@@ -0,0 +1,362 @@
+/****************************************************************************
+Copyright 2026, Colorado School of Mines and others.
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+****************************************************************************/
+package edu.mines.jtk.interp;
+
+import java.util.ArrayList;
+
+import edu.mines.jtk.util.Parallel;
+import static edu.mines.jtk.util.ArrayMath.*;
+
+/**
+ * A tree code for fast evaluation of sums of weighted radial basis
+ * functions. For a point x, computes a sum of w(k)*g(r(x,x(k))) for
+ * scattered points x(k) with weights w(k), where g is a radial basis
+ * function and r is distance.
+ * <p>
+ * Scattered points are stored in a quadtree. When evaluating a sum,
+ * contributions from all points in a cell of the quadtree that is far
+ * from the point x are approximated by a smaller number of contributions
+ * from proxy points in that cell. Proxy points lie on a tensor-product
+ * grid of Chebyshev points, and their weights are computed by barycentric
+ * Lagrange interpolation. Because this approximation requires only that
+ * the basis function g is smooth for points not near each other, it does
+ * not depend on the form of that function.
+ * <p>
+ * Contributions from points in cells near to the point x are computed
+ * directly. The cost of evaluating a sum is therefore proportional to
+ * log(n), not n, where n is the number of scattered points.
+ * <p>
+ * See Wang, L., R. Krasny, and S. Tlupova, 2020, A kernel-independent
+ * treecode based on barycentric Lagrange interpolation: Communications
+ * in Computational Physics, 28, 1415-1436.
+ * @author agent
+ * @version 2026.10.18
+ */
+class RadialTreecode2 {
+
+  /**
+   * Constructs a tree code for the specified basis and points.
+   * Distances are computed for the specified metric tensor, which
+   * must be positive-definite.
+   * @param basis the radial basis function.
+   * @param m11 the metric tensor element (1,1).
+   * @param m12 the metric tensor element (1,2).
+   * @param m22 the metric tensor element (2,2).
+   * @param x1 array of point x1 coordinates; referenced, not copied.
+   * @param x2 array of point x2 coordinates; referenced, not copied.
+   */
+  RadialTreecode2(
+    RadialInterpolator2.Basis basis,
+    double m11, double m12, double m22,
+    float[] x1, float[] x2)
+  {
+    _basis = basis;
+    _m11 = m11;
+    _m12 = m12;
+    _m22 = m22;
+    _mt = m11!=1.0 || m12!=0.0 || m22!=1.0;
+    double mh = 0.5*(m11+m22);
+    double md = 0.5*(m11-m22);
+    _rscale = sqrt(mh+sqrt(md*md+m12*m12)); // sqrt of max eigenvalue
+    _n = x1.length;
+    _x1 = x1;
+    _x2 = x2;
+    _k = new int[_n];
+    for (int k=0; k<_n; ++k)
+      _k[k] = k;
+    float x1min = min(x1), x1max = max(x1);
+    float x2min = min(x2), x2max = max(x2);
+    double h = 0.5*max(x1max-x1min,x2max-x2min);
+    _root = new Cell(0,_n,0.5*(x1min+x1max),0.5*(x2min+x2max),h);
+    _cells = new ArrayList<Cell>();
+    split(_root);
+    _proxies = new ArrayList<Cell>();
+    for (Cell cell:_cells) {
+      if (cell.children!=null && cell.kend-cell.kbeg>NP*NP)
+        _proxies.add(cell);
+    }
+  }
+
+  /**
+   * Sets the weights for all points. Weights are indexed in the same
+   * order as the point coordinates specified when constructing this
+   * tree code. Weights for proxy points are computed here.
+   * @param w array of weights; referenced, not copied.
+   */
+  void setWeights(double[] w) {
+    _w = w;
+    int ncell = _proxies.size();
+    Parallel.loop(ncell,new Parallel.LoopInt() {
+    public void compute(int icell) {
+      computeProxyWeights(_proxies.get(icell));
+    }});
+  }
+
+  /**
+   * Returns the weighted sum of basis functions for the specified point.
+   * @param x1 the x1 coordinate of the point.
+   * @param x2 the x2 coordinate of the point.
+   * @return the sum.
+   */
+  double evaluate(double x1, double x2) {
+    return evaluate(_root,x1,x2);
+  }
+
+  /**
+   * Returns groups of point indices, one group for each cell of this
+   * tree that contains no more than the specified number of points.
+   * Each point belongs to exactly one group.
+   * @param nmax the maximum number of points in a group.
+   * @return array of arrays of point indices.
+   */
+  int[][] getGroups(int nmax) {
+    ArrayList<int[]> groups = new ArrayList<int[]>();
+    addGroups(_root,nmax,groups);
+    return groups.toArray(new int[0][]);
+  }
+
+  /**
+   * Returns indices of all points within a rectangle.
+   * @param x1min minimum x1 coordinate of the rectangle.
+   * @param x1max maximum x1 coordinate of the rectangle.
+   * @param x2min minimum x2 coordinate of the rectangle.
+   * @param x2max maximum x2 coordinate of the rectangle.
+   * @return array of point indices.
+   */
+  int[] find(double x1min, double x1max, double x2min, double x2max) {
+    ArrayList<Integer> list = new ArrayList<Integer>();
+    find(_root,x1min,x1max,x2min,x2max,list);
+    int nk = list.size();
+    int[] k = new int[nk];
+    for (int ik=0; ik<nk; ++ik)
+      k[ik] = list.get(ik);
+    return k;
+  }
+
+  ///////////////////////////////////////////////////////////////////////////
+  // private
+
+  // Maximum number of points in a leaf cell. Number of Chebyshev points
+  // in each dimension of a cell. Cells with radius not greater than THETA
+  // times the distance to a point are far from that point.
+  private static final int NLEAF = 32;
+  private static final int NP = 7;
+  private static final double THETA = 0.6;
+  private static final double SQRT2 = sqrt(2.0);
+
+  // Chebyshev points in [-1,1] and weights for barycentric interpolation.
+  private static final double[] CP = new double[NP];
+  private static final double[] CW = new double[NP];
+  static {
+    for (int j=0; j<NP; ++j) {
+      CP[j] = cos(j*DBL_PI/(NP-1));
+      CW[j] = ((j%2==0)?1.0:-1.0)*((j==0 || j==NP-1)?0.5:1.0);
+    }
+  }
+
+  // A square cell of the quadtree contains points with indices _k[k] for
+  // kbeg <= k < kend, and has center (c1,c2) and half-width h.
+  private static class Cell {
+    int kbeg,kend;
+    double c1,c2,h;
+    Cell[] children;
+    double[] wp; // weights for NP*NP proxy points
+    Cell(int kbeg, int kend, double c1, double c2, double h) {
+      this.kbeg = kbeg;
+      this.kend = kend;
+      this.c1 = c1;
+      this.c2 = c2;
+      this.h = h;
+    }
+  }
+
+  private RadialInterpolator2.Basis _basis;
+  private double _m11,_m12,_m22; // metric tensor elements
+  private boolean _mt; // true iff using a metric tensor
+  private double _rscale; // bounds ratio of metric and euclidean distances
+  private int _n; // number of points
+  private float[] _x1,_x2; // point coordinates
+  private int[] _k; // point indices, sorted so that cells are contiguous
+  private double[] _w; // point weights
+  private Cell _root; // root cell of the quadtree
+  private ArrayList<Cell> _cells; // all cells of the quadtree
+  private ArrayList<Cell> _proxies; // cells with proxy points
+
+  private double r(double d1, double d2) {
+    return _mt ?
+      sqrt(_m11*d1*d1+2.0*_m12*d1*d2+_m22*d2*d2) :
+      sqrt(d1*d1+d2*d2);
+  }
+
+  private double g(double x1a, double x2a, double x1b, double x2b) {
+    return _basis.evaluate(r(x1a-x1b,x2a-x2b));
+  }
+
+  /**
+   * Recursively splits a cell into four children, reordering point
+   * indices so that indices for each child are contiguous.
+   */
+  private void split(Cell cell) {
+    _cells.add(cell);
+    int kbeg = cell.kbeg;
+    int kend = cell.kend;
+    double h = cell.h;
+    if (kend-kbeg<=NLEAF || h<=ulp((float)max(abs(cell.c1),abs(cell.c2))))
+      return;
+    double c1 = cell.c1;
+    double c2 = cell.c2;
+    int k2 = partition(kbeg,kend,c2,false);
+    int k1 = partition(kbeg,k2,c1,true);
+    int k3 = partition(k2,kend,c1,true);
+    double hh = 0.5*h;
+    Cell[] children = {
+      new Cell(kbeg,k1,c1-hh,c2-hh,hh),
+      new Cell(k1,k2,c1+hh,c2-hh,hh),
+      new Cell(k2,k3,c1-hh,c2+hh,hh),
+      new Cell(k3,kend,c1+hh,c2+hh,hh)
+    };
+    int nchild = 0;
+    for (Cell child:children) {
+      if (child.kbeg<child.kend)
+        ++nchild;
+    }
+    cell.children = new Cell[nchild];
+    for (int ichild=0,jchild=0; ichild<4; ++ichild) {
+      if (children[ichild].kbeg<children[ichild].kend)
+        cell.children[jchild++] = children[ichild];
+    }
+    for (Cell child:cell.children)
+      split(child);
+  }
+
+  /**
+   * Partitions indices in [kbeg,kend) such that coordinates for indices
+   * in [kbeg,k) are less than c, and returns k.
+   */
+  private int partition(int kbeg, int kend, double c, boolean is1) {
+    float[] x = (is1)?_x1:_x2;
+    int i = kbeg;
+    int j = kend-1;
+    while (i<=j) {
+      if (x[_k[i]]<c) {
+        ++i;
+      } else {
+        int t = _k[i];
+        _k[i] = _k[j];
+        _k[j--] = t;
+      }
+    }
+    return i;
+  }
+
+  /**
+   * Computes barycentric Lagrange interpolation coefficients for the
+   * point x in a cell with center c and half-width h.
+   */
+  private static void lagrange(double x, double c, double h, double[] l) {
+    double s = (x-c)/h;
+    double sum = 0.0;
+    for (int j=0; j<NP; ++j) {
+      double d = s-CP[j];
+      if (d==0.0) {
+        for (int i=0; i<NP; ++i)
+          l[i] = 0.0;
+        l[j] = 1.0;
+        return;
+      }
+      sum += l[j] = CW[j]/d;
+    }
+    double scale = 1.0/sum;
+    for (int j=0; j<NP; ++j)
+      l[j] *= scale;
+  }
+
+  private void computeProxyWeights(Cell cell) {
+    double[] wp = new double[NP*NP];
+    double[] l1 = new double[NP];
+    double[] l2 = new double[NP];
+    for (int kk=cell.kbeg; kk<cell.kend; ++kk) {
+      int k = _k[kk];
+      lagrange(_x1[k],cell.c1,cell.h,l1);
+      lagrange(_x2[k],cell.c2,cell.h,l2);
+      double wk = _w[k];
+      for (int j2=0,j=0; j2<NP; ++j2) {
+        double wl = wk*l2[j2];
+        for (int j1=0; j1<NP; ++j1,++j)
+          wp[j] += wl*l1[j1];
+      }
+    }
+    cell.wp = wp;
+  }
+
+  private double evaluate(Cell cell, double x1, double x2) {
+    double sum = 0.0;
+    double h = cell.h;
+    if (cell.wp!=null &&
+        THETA*r(x1-cell.c1,x2-cell.c2)>_rscale*h*SQRT2) {
+      double[] wp = cell.wp;
+      for (int j2=0,j=0; j2<NP; ++j2) {
+        double p2 = cell.c2+h*CP[j2];
+        for (int j1=0; j1<NP; ++j1,++j) {
+          double p1 = cell.c1+h*CP[j1];
+          sum += wp[j]*g(x1,x2,p1,p2);
+        }
+      }
+    } else if (cell.children==null || cell.kend-cell.kbeg<=NP*NP) {
+      for (int kk=cell.kbeg; kk<cell.kend; ++kk) {
+        int k = _k[kk];
+        sum += _w[k]*g(x1,x2,_x1[k],_x2[k]);
+      }
+    } else {
+      for (Cell child:cell.children)
+        sum += evaluate(child,x1,x2);
+    }
+    return sum;
+  }
+
+  private void addGroups(Cell cell, int nmax, ArrayList<int[]> groups) {
+    if (cell.kend-cell.kbeg<=nmax || cell.children==null) {
+      int[] group = new int[cell.kend-cell.kbeg];
+      for (int kk=cell.kbeg; kk<cell.kend; ++kk)
+        group[kk-cell.kbeg] = _k[kk];
+      groups.add(group);
+    } else {
+      for (Cell child:cell.children)
+        addGroups(child,nmax,groups);
+    }
+  }
+
+  private void find(
+    Cell cell, double x1min, double x1max, double x2min, double x2max,
+    ArrayList<Integer> list)
+  {
+    double h = cell.h;
+    if (cell.c1+h<x1min || x1max<cell.c1-h ||
+        cell.c2+h<x2min || x2max<cell.c2-h)
+      return;
+    if (cell.children==null) {
+      for (int kk=cell.kbeg; kk<cell.kend; ++kk) {
+        int k = _k[kk];
+        float x1 = _x1[k];
+        float x2 = _x2[k];
+        if (x1min<=x1 && x1<=x1max && x2min<=x2 && x2<=x2max)
+          list.add(k);
+      }
+    } else {
+      for (Cell child:cell.children)
+        find(child,x1min,x1max,x2min,x2max,list);
+    }
+  }
+}
@@ -15,6 +15,7 @@ limitations under the License.
 package edu.mines.jtk.interp;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 
 import edu.mines.jtk.dsp.Sampling;
 import edu.mines.jtk.la.DMatrix;
@@ -22,6 +23,7 @@ import edu.mines.jtk.la.DMatrixQrd;
 import edu.mines.jtk.mesh.Geometry;
 import edu.mines.jtk.mesh.TriMesh;
 import edu.mines.jtk.util.Check;
+import edu.mines.jtk.util.Parallel;
 
 /**
  * Sibson interpolation of scattered samples of 2D functions f(x1,x2).
@@ -63,6 +65,11 @@ import edu.mines.jtk.util.Check;
  * samples may alter the Sibson interpolant at points inside but near the 
  * original convex hull.
  * <p>
+ * Values interpolated on a grid of points are computed in parallel, for
+ * rectangular tiles of grid points. Within each tile, the search for
+ * natural neighbors of each grid point begins with the triangle that
+ * contained the previous grid point, which is typically nearby.
+ * <p>
  * References:
  * <ul><li>
  * Braun, J. and M. Sambridge, 1995, A numerical method for solving partial
@@ -189,16 +196,8 @@ public class SibsonInterpolator2 {
   public SibsonInterpolator2(
     Method method, float[] f, float[] x1, float[] x2) 
   {
+    _method = method;
     makeMesh(f,x1,x2);
-    _nodeList = new TriMesh.NodeList();
-    _triList = new TriMesh.TriList();
-    if (method==Method.WATSON_SAMBRIDGE) {
-      _va = new WatsonSambridge();
-    } else if (method==Method.BRAUN_SAMBRIDGE) {
-      _va = new BraunSambridge();
-    } else if (method==Method.HALE_LIANG) {
-      _va = new HaleLiang();
-    }
   }
 
   /**
@@ -275,6 +274,9 @@ public class SibsonInterpolator2 {
    * hull. This method enables extrapolation for points outside the convex 
    * hull, while restricting interpolation to points inside the box.
    * <p>
+   * Ghost samples added for any bounds set previously are replaced by
+   * those for the specified bounds.
+   * <p>
    * If gradients are to be computed (not specified explicitly), it is best 
    * to set bounds by calling this method before computing gradients.
    * @param x1min lower bound on x1.
@@ -291,6 +293,10 @@ public class SibsonInterpolator2 {
     _x2bmn = x2min; _x2bmx = x2max;
     _useBoundingBox = true;
 
+    // Remove any ghost nodes for bounds set previously, so that scratch 
+    // keys for ghost nodes are unique.
+    removeGhostNodes();
+
     // Compute coordinates for ghost nodes, and add them to the mesh.
     float scale = 1.0f;
     float x1avg = 0.5f*(x1min+x1max);
@@ -338,35 +344,48 @@ public class SibsonInterpolator2 {
    * @return the interpolated value.
    */
   public float interpolate(float x1, float x2) {
-    if (!inBounds(x1,x2))
-      return _fnull;
-    double asum = computeAreas(x1,x2);
-    if (asum<=0.0)
-      return _fnull;
-    if (usingGradients()) {
-      return interpolate1(asum,x1,x2);
-    } else {
-      return interpolate0(asum);
-    }
+    return _scratch.interpolate(x1,x2);
   }
 
   /**
    * Returns an array of interpolated values sampled on a grid.
+   * Tiles of grid points are interpolated in parallel.
    * @param s1 the sampling of n1 x1 coordinates.
    * @param s2 the sampling of n2 x2 coordinates.
    * @return array[n2][n1] of interpolated values.
    */
   public float[][] interpolate(Sampling s1, Sampling s2) {
-    int n1 = s1.getCount();
-    int n2 = s2.getCount();
-    float[][] f = new float[n2][n1];
-    for (int i2=0; i2<n2; ++i2) {
-      float x2 = (float)s2.getValue(i2);
-      for (int i1=0; i1<n1; ++i1) {
-        float x1 = (float)s1.getValue(i1);
-        f[i2][i1] = interpolate(x1,x2);
+    final int n1 = s1.getCount();
+    final int n2 = s2.getCount();
+    final float[] x1 = new float[n1];
+    final float[] x2 = new float[n2];
+    for (int i1=0; i1<n1; ++i1)
+      x1[i1] = (float)s1.getValue(i1);
+    for (int i2=0; i2<n2; ++i2)
+      x2[i2] = (float)s2.getValue(i2);
+    final float[][] f = new float[n2][n1];
+    final int nt1 = (n1+NTILE-1)/NTILE;
+    final int nt2 = (n2+NTILE-1)/NTILE;
+    final Parallel.Unsafe<Scratch> su = new Parallel.Unsafe<Scratch>();
+    Parallel.loop(nt1*nt2,new Parallel.LoopInt() {
+    public void compute(int it) {
+      Scratch s = su.get();
+      if (s==null) su.set(s=new Scratch());
+      int j1 = (it%nt1)*NTILE, k1 = Math.min(j1+NTILE,n1);
+      int j2 = (it/nt1)*NTILE, k2 = Math.min(j2+NTILE,n2);
+
+      // Alternate directions of rows, so that consecutive points in 
+      // the tile are always adjacent grid points.
+      for (int i2=j2; i2<k2; ++i2) {
+        if ((i2-j2)%2==0) {
+          for (int i1=j1; i1<k1; ++i1)
+            f[i2][i1] = s.interpolate(x1[i1],x2[i2]);
+        } else {
+          for (int i1=k1-1; i1>=j1; --i1)
+            f[i2][i1] = s.interpolate(x1[i1],x2[i2]);
+        }
       }
-    }
+    }});
     return f;
   }
 
@@ -387,17 +406,17 @@ public class SibsonInterpolator2 {
   public IndexWeight[] getIndexWeights(float x1, float x2) {
     if (!inBounds(x1,x2))
       return null;
-    float wsum = (float)computeAreas(x1,x2);
+    float wsum = (float)_scratch.computeAreas(x1,x2);
     if (wsum==0.0f)
       return null;
     float wscl = 1.0f/wsum;
-    int nnode = _nodeList.nnode();
-    TriMesh.Node[] nodes = _nodeList.nodes();
+    int nnode = _scratch._nodeList.nnode();
+    TriMesh.Node[] nodes = _scratch._nodeList.nodes();
     IndexWeight[] iw = new IndexWeight[nnode];
     for (int inode=0; inode<nnode; ++inode) {
       TriMesh.Node node = nodes[inode];
       int i = node.index;
-      float w = (float)area(node)*wscl;
+      float w = (float)_scratch.area(node)*wscl;
       iw[inode] = new IndexWeight(i,w);
     }
     return iw;
@@ -459,7 +478,6 @@ public class SibsonInterpolator2 {
   // Data associated with all nodes in the tri mesh.
   private static class NodeData {
     float f,gx,gy; // function values and gradient
-    double area; // area for Sibson weight
   }
   private static NodeData data(TriMesh.Node node) {
     return (NodeData)node.data;
@@ -473,18 +491,20 @@ public class SibsonInterpolator2 {
   private static float gy(TriMesh.Node node) {
     return data(node).gy;
   }
-  private static double area(TriMesh.Node node) {
-    return data(node).area;
-  }
   private static boolean ghost(TriMesh.Node node) {
     return node.index<0;
   }
 
+  // Number of ghost nodes that may be added to the mesh.
+  private static final int NGHOST = 4;
+
+  // Number of grid points on each side of the tiles interpolated in parallel.
+  private static final int NTILE = 32;
+
+  private Method _method; // the implementation method
   private TriMesh _mesh; // the mesh
   private TriMesh.Node[] _nodes; // array of real (not ghost) nodes
-  private TriMesh.NodeList _nodeList; // list of natural neighbor nodes
-  private TriMesh.TriList _triList; // list of natural neighbor tris
-  private AreaAccumulator _va; // accumulates Sibson's areas
+  private Scratch _scratch; // scratch for interpolation in this thread
   private boolean _haveGradients; // true if mesh nodes have gradients
   private double _gradientPower; // power of gradients
   private float _fnull; // returned when interpolation point out of bounds
@@ -535,6 +555,7 @@ public class SibsonInterpolator2 {
         data.f = f[i];
       _nodes[i] = node;
     }
+    _scratch = new Scratch();
   }
 
   // Returns true if gradients are being used in interpolation.
@@ -638,14 +659,6 @@ public class SibsonInterpolator2 {
       _mesh.removeNode(gnode);
   }
 
-  // Computes Sibson areas for the specified point (x,y).
-  // Returns true, if successful; false, otherwise.
-  private double computeAreas(float x, float y) {
-    if (!getNaturalNabors(x,y))
-      return 0.0;
-    return _va.accumulateAreas(x,y,_mesh,_nodeList,_triList);
-  }
-
   // Returns true if not using bounding box or if point is inside the box.
   private boolean inBounds(float x1, float x2) {
     return !_useBoundingBox ||
@@ -653,108 +666,6 @@ public class SibsonInterpolator2 {
            _x2bmn<=x2 && x2<=_x2bmx;
   }
 
-  // Gets lists of natural neighbor nodes and tris of point (x,y).
-  // Before building the lists, node and tri marks are cleared. Then,
-  // as nodes and tris are added to the lists, they are marked, and 
-  // node areas are initialized to zero.
-  // Returns true, if the lists are not empty; false, otherwise.
-  private boolean getNaturalNabors(float x, float y) {
-    _mesh.clearNodeMarks();
-    _mesh.clearTriMarks();
-    _nodeList.clear();
-    _triList.clear();
-    TriMesh.PointLocation pl = _mesh.locatePoint(x,y);
-    if (pl.isOutside())
-      return false;
-    addTri(x,y,pl.tri());
-    return true;
-  }
-  private void addTri(double xp, double yp, TriMesh.Tri tri) {
-    _mesh.mark(tri);
-    _triList.add(tri);
-    addNode(tri.nodeA());
-    addNode(tri.nodeB());
-    addNode(tri.nodeC());
-    TriMesh.Tri ta = tri.triA();
-    TriMesh.Tri tb = tri.triB();
-    TriMesh.Tri tc = tri.triC();
-    if (needTri(xp,yp,ta)) addTri(xp,yp,ta);
-    if (needTri(xp,yp,tb)) addTri(xp,yp,tb);
-    if (needTri(xp,yp,tc)) addTri(xp,yp,tc);
-  }
-  private void addNode(TriMesh.Node node) {
-    if (_mesh.isMarked(node))
-      return;
-    _mesh.mark(node);
-    _nodeList.add(node);
-    NodeData data = data(node);
-    data.area = 0.0;
-  }
-  private boolean needTri(double xp, double yp, TriMesh.Tri tri) {
-    if (tri==null || _mesh.isMarked(tri))
-      return false;
-    TriMesh.Node na = tri.nodeA();
-    TriMesh.Node nb = tri.nodeB();
-    TriMesh.Node nc = tri.nodeC();
-    double xa = na.xp(), ya = na.yp();
-    double xb = nb.xp(), yb = nb.yp();
-    double xc = nc.xp(), yc = nc.yp();
-    return Geometry.inCircle(xa,ya,xb,yb,xc,yc,xp,yp)>0.0;
-  }
-
-  // C0 interpolation; does not use gradients.
-  private float interpolate0(double asum) {
-    double afsum = 0.0;
-    int nnode = _nodeList.nnode();
-    TriMesh.Node[] nodes = _nodeList.nodes();
-    for (int inode=0; inode<nnode; ++inode) {
-      TriMesh.Node node = nodes[inode];
-      float f = f(node);
-      double a = area(node);
-      afsum += a*f;
-    }
-    return (float)(afsum/asum);
-  }
-
-  // C1 interpolation; uses gradients.
-  private float interpolate1(double asum, double x, double y) {
-    int nnode = _nodeList.nnode();
-    TriMesh.Node[] nodes = _nodeList.nodes();
-    double fs = 0.0;
-    double es = 0.0;
-    double wds = 0.0;
-    double wdds = 0.0;
-    double wods = 0.0;
-    for (int inode=0; inode<nnode; ++inode) {
-      TriMesh.Node n = nodes[inode];
-      double f = f(n);
-      double gx = gx(n);
-      double gy = gy(n);
-      double a = area(n);
-      double w = a/asum;
-      double xn = n.xp();
-      double yn = n.yp();
-      double dx = x-xn;
-      double dy = y-yn;
-      double dd = dx*dx+dy*dy;
-      if (dd==0.0)
-        return (float)f;
-      double d = Math.pow(dd,0.5*_gradientPower);
-      double wd = w*d;
-      double wod = w/d;
-      double wdd = w*dd;
-      es += wod*(f+gx*dx+gy*dy);
-      fs += w*f;
-      wds += wd;
-      wdds += wdd;
-      wods += wod;
-    }
-    es /= wods;
-    double alpha = wds/wods;
-    double beta = wdds;
-    return (float)((alpha*fs+beta*es)/(alpha+beta));
-  }
-
   // Estimates gradient vectors for real (not ghost) nodes in the mesh. 
   // Uses Sibson's (1981) method, which yields gradients that will 
   // interpolate precisely a spherical quadratic of the form 
@@ -777,11 +688,11 @@ public class SibsonInterpolator2 {
     double xn = n.xp();
     double yn = n.yp();
     _mesh.removeNode(n);
-    double asum = computeAreas((float)xn,(float)yn);
+    double asum = _scratch.computeAreas((float)xn,(float)yn);
     _mesh.addNode(n);
     if (asum>0.0) {
-      int nm = _nodeList.nnode();
-      TriMesh.Node[] ms = _nodeList.nodes();
+      int nm = _scratch._nodeList.nnode();
+      TriMesh.Node[] ms = _scratch._nodeList.nodes();
       double hxx = 0.0, hxy = 0.0, hyy = 0.0;
       double px = 0.0, py = 0.0;
       double nr = 0; // number of real (not ghost) natural neighbor nodes
@@ -789,7 +700,7 @@ public class SibsonInterpolator2 {
         TriMesh.Node m = ms[im];
         if (!ghost(m)) {
           double fm = f(m);
-          double wm = area(m);
+          double wm = _scratch.area(m);
           double xm = m.xp();
           double ym = m.yp();
           double df = fn-fm;
@@ -819,6 +730,279 @@ public class SibsonInterpolator2 {
     }
   }
 
+  ///////////////////////////////////////////////////////////////////////////
+  ///////////////////////////////////////////////////////////////////////////
+  // Scratch space used to interpolate at one point at a time. Different
+  // threads may interpolate at different points concurrently, if each 
+  // thread has its own scratch. Interpolation only reads the mesh; it 
+  // does not use marks in the mesh, but instead marks nodes and tris in 
+  // an array and a set that belong to this scratch. Areas for nodes are 
+  // likewise stored in an array here and not in node data. Point location 
+  // begins with the tri that contained the previous point, so that for 
+  // consecutive points that are nearby, the walk to the next point is short.
+  private class Scratch {
+
+    Scratch() {
+      int nnode = _nodes.length+NGHOST;
+      _nodeMarks = new int[nnode];
+      _nodeAreas = new double[nnode];
+      if (_method==Method.WATSON_SAMBRIDGE) {
+        _va = new WatsonSambridge(this);
+      } else if (_method==Method.BRAUN_SAMBRIDGE) {
+        _va = new BraunSambridge(this);
+      } else if (_method==Method.HALE_LIANG) {
+        _va = new HaleLiang(this);
+      }
+    }
+
+    // Returns a value interpolated at the point (x1,x2).
+    float interpolate(float x1, float x2) {
+      if (!inBounds(x1,x2))
+        return _fnull;
+      double asum = computeAreas(x1,x2);
+      if (asum<=0.0)
+        return _fnull;
+      if (usingGradients()) {
+        return interpolate1(asum,x1,x2);
+      } else {
+        return interpolate0(asum);
+      }
+    }
+
+    // Computes Sibson areas for the specified point (x,y).
+    // Returns the sum of those areas; zero, if not successful.
+    double computeAreas(float x, float y) {
+      if (!getNaturalNabors(x,y))
+        return 0.0;
+      return _va.accumulateAreas(x,y,_mesh,_nodeList,_triList);
+    }
+
+    // Returns the area for a node in the list of natural neighbors.
+    double area(TriMesh.Node node) {
+      return _nodeAreas[key(node)];
+    }
+
+    // Adds to the area for a node in the list of natural neighbors.
+    void addArea(TriMesh.Node node, double area) {
+      _nodeAreas[key(node)] += area;
+    }
+
+    // Returns true if the tri is in the list of natural neighbors.
+    boolean isMarked(TriMesh.Tri tri) {
+      return _triMarks.contains(tri);
+    }
+
+    private TriMesh.NodeList _nodeList = new TriMesh.NodeList();
+    private TriMesh.TriList _triList = new TriMesh.TriList();
+    private AreaAccumulator _va; // accumulates Sibson's areas
+    private int[] _nodeMarks; // node marks, indexed by node key
+    private int _nodeMark; // current value of node mark
+    private double[] _nodeAreas; // node areas, indexed by node key
+    private TriSet _triMarks = new TriSet(); // set of marked tris
+    private TriMesh.Tri _triLast; // tri that contained the previous point
+    private long _version = -1; // mesh version for the previous point
+
+    // Returns an index in [0,nnode) for a real or ghost node.
+    private int key(TriMesh.Node node) {
+      int index = node.index;
+      return (index>=0)?index:_nodes.length-1-index;
+    }
+
+    // Returns the tri that contains the point (x,y); null, if the point 
+    // is outside the mesh. This walk is like that used by the mesh to 
+    // locate points, but it begins with the tri found for the previous 
+    // point, if the mesh has not changed since then.
+    private TriMesh.Tri locate(float x, float y) {
+      TriMesh.Tri tri = _triLast;
+      long version = _mesh.getVersion();
+      if (tri==null || version!=_version) {
+        TriMesh.Node node = _mesh.findNodeNearest(x,y);
+        tri = (node!=null)?_mesh.findTri(node):null;
+        _version = version;
+        if (tri==null)
+          return null;
+      }
+      double xp = x, yp = y;
+      for (TriMesh.Tri next=tri; next!=null; ) {
+        tri = next;
+        TriMesh.Node na = tri.nodeA();
+        TriMesh.Node nb = tri.nodeB();
+        TriMesh.Node nc = tri.nodeC();
+        double xa = na.xp(), ya = na.yp();
+        double xb = nb.xp(), yb = nb.yp();
+        double xc = nc.xp(), yc = nc.yp();
+        if (Geometry.leftOfLine(xc,yc,xb,yb,xp,yp)>0.0) {
+          next = tri.triA();
+        } else if (Geometry.leftOfLine(xa,ya,xc,yc,xp,yp)>0.0) {
+          next = tri.triB();
+        } else if (Geometry.leftOfLine(xb,yb,xa,ya,xp,yp)>0.0) {
+          next = tri.triC();
+        } else {
+          _triLast = tri;
+          return tri;
+        }
+      }
+      _triLast = tri; // on the hull and visible from the point
+      return null;
+    }
+
+    // Gets lists of natural neighbor nodes and tris of point (x,y).
+    // Before building the lists, node and tri marks are cleared. Then,
+    // as nodes and tris are added to the lists, they are marked, and 
+    // node areas are initialized to zero.
+    // Returns true, if the lists are not empty; false, otherwise.
+    private boolean getNaturalNabors(float x, float y) {
+      clearMarks();
+      _nodeList.clear();
+      _triList.clear();
+      TriMesh.Tri tri = locate(x,y);
+      if (tri==null)
+        return false;
+      addTri(x,y,tri);
+      return true;
+    }
+    private void clearMarks() {
+      if (_nodeMark==Integer.MAX_VALUE) {
+        Arrays.fill(_nodeMarks,0);
+        _nodeMark = 0;
+      }
+      ++_nodeMark;
+      _triMarks.clear();
+    }
+    private void addTri(double xp, double yp, TriMesh.Tri tri) {
+      _triMarks.add(tri);
+      _triList.add(tri);
+      addNode(tri.nodeA());
+      addNode(tri.nodeB());
+      addNode(tri.nodeC());
+      TriMesh.Tri ta = tri.triA();
+      TriMesh.Tri tb = tri.triB();
+      TriMesh.Tri tc = tri.triC();
+      if (needTri(xp,yp,ta)) addTri(xp,yp,ta);
+      if (needTri(xp,yp,tb)) addTri(xp,yp,tb);
+      if (needTri(xp,yp,tc)) addTri(xp,yp,tc);
+    }
+    private void addNode(TriMesh.Node node) {
+      int k = key(node);
+      if (_nodeMarks[k]==_nodeMark)
+        return;
+      _nodeMarks[k] = _nodeMark;
+      _nodeList.add(node);
+      _nodeAreas[k] = 0.0;
+    }
+    private boolean needTri(double xp, double yp, TriMesh.Tri tri) {
+      if (tri==null || _triMarks.contains(tri))
+        return false;
+      TriMesh.Node na = tri.nodeA();
+      TriMesh.Node nb = tri.nodeB();
+      TriMesh.Node nc = tri.nodeC();
+      double xa = na.xp(), ya = na.yp();
+      double xb = nb.xp(), yb = nb.yp();
+      double xc = nc.xp(), yc = nc.yp();
+      return Geometry.inCircle(xa,ya,xb,yb,xc,yc,xp,yp)>0.0;
+    }
+
+    // C0 interpolation; does not use gradients.
+    private float interpolate0(double asum) {
+      double afsum = 0.0;
+      int nnode = _nodeList.nnode();
+      TriMesh.Node[] nodes = _nodeList.nodes();
+      for (int inode=0; inode<nnode; ++inode) {
+        TriMesh.Node node = nodes[inode];
+        float f = f(node);
+        double a = area(node);
+        afsum += a*f;
+      }
+      return (float)(afsum/asum);
+    }
+
+    // C1 interpolation; uses gradients.
+    private float interpolate1(double asum, double x, double y) {
+      int nnode = _nodeList.nnode();
+      TriMesh.Node[] nodes = _nodeList.nodes();
+      double fs = 0.0;
+      double es = 0.0;
+      double wds = 0.0;
+      double wdds = 0.0;
+      double wods = 0.0;
+      for (int inode=0; inode<nnode; ++inode) {
+        TriMesh.Node n = nodes[inode];
+        double f = f(n);
+        double gx = gx(n);
+        double gy = gy(n);
+        double a = area(n);
+        double w = a/asum;
+        double xn = n.xp();
+        double yn = n.yp();
+        double dx = x-xn;
+        double dy = y-yn;
+        double dd = dx*dx+dy*dy;
+        if (dd==0.0)
+          return (float)f;
+        double d = Math.pow(dd,0.5*_gradientPower);
+        double wd = w*d;
+        double wod = w/d;
+        double wdd = w*dd;
+        es += wod*(f+gx*dx+gy*dy);
+        fs += w*f;
+        wds += wd;
+        wdds += wdd;
+        wods += wod;
+      }
+      es /= wods;
+      double alpha = wds/wods;
+      double beta = wdds;
+      return (float)((alpha*fs+beta*es)/(alpha+beta));
+    }
+  }
+
+  // A set of tris, compared by identity. Tris are hashed with open
+  // addressing, and the cost of clearing the set is proportional to the
+  // number of tris in the set, not the capacity of the set.
+  private static class TriSet {
+    boolean contains(TriMesh.Tri tri) {
+      int i = hash(tri);
+      for (TriMesh.Tri t=_a[i]; t!=null; t=_a[i]) {
+        if (t==tri)
+          return true;
+        i = (i+1)&_mask;
+      }
+      return false;
+    }
+    void add(TriMesh.Tri tri) {
+      if (2*(_n+1)>_a.length)
+        grow();
+      int i = hash(tri);
+      while (_a[i]!=null)
+        i = (i+1)&_mask;
+      _a[i] = tri;
+      _k[_n++] = i;
+    }
+    void clear() {
+      for (int i=0; i<_n; ++i)
+        _a[_k[i]] = null;
+      _n = 0;
+    }
+    private int _n; // number of tris in the set
+    private int _mask = 63; // capacity of the set minus one
+    private TriMesh.Tri[] _a = new TriMesh.Tri[64]; // hash table of tris
+    private int[] _k = new int[32]; // indices of tris in the table
+    private int hash(TriMesh.Tri tri) {
+      return (System.identityHashCode(tri)*0x9e3779b9>>>16)&_mask;
+    }
+    private void grow() {
+      TriMesh.Tri[] a = _a;
+      int[] k = _k;
+      int n = _n;
+      _mask = 2*a.length-1;
+      _a = new TriMesh.Tri[2*a.length];
+      _k = new int[a.length];
+      _n = 0;
+      for (int i=0; i<n; ++i)
+        add(a[k[i]]);
+    }
+  }
+
   ///////////////////////////////////////////////////////////////////////////
   ///////////////////////////////////////////////////////////////////////////
   // Given a point (xp,yp) at which to interpolate, an implementation of 
@@ -826,6 +1010,9 @@ public class SibsonInterpolator2 {
   // neighbor nodes in the the specified node list. This abstract base
   // class maintains the total area accumulated for all nodes.
   private static abstract class AreaAccumulator {
+    AreaAccumulator(Scratch s) {
+      _s = s;
+    }
     public abstract double accumulateAreas(
       double xp, double yp,
       TriMesh mesh, TriMesh.NodeList nodeList, TriMesh.TriList triList);
@@ -835,12 +1022,15 @@ public class SibsonInterpolator2 {
     protected double sum() {
       return _sum;
     }
+    protected boolean isMarked(TriMesh.Tri tri) {
+      return _s.isMarked(tri);
+    }
     protected void accumulate(TriMesh.Node node, double area) {
       if (ghost(node)) return; // ignore ghost nodes!
-      NodeData data = data(node);
-      data.area += area;
+      _s.addArea(node,area);
       _sum += area;
     }
+    private Scratch _s;
     private double _sum;
   }
  
@@ -848,6 +1038,10 @@ public class SibsonInterpolator2 {
   ///////////////////////////////////////////////////////////////////////////
   private static class WatsonSambridge extends AreaAccumulator {
 
+    WatsonSambridge(Scratch s) {
+      super(s);
+    }
+
     public double accumulateAreas(
       double xp, double yp,
       TriMesh mesh, TriMesh.NodeList nodeList, TriMesh.TriList triList)
@@ -892,6 +1086,10 @@ public class SibsonInterpolator2 {
   ///////////////////////////////////////////////////////////////////////////
   private static class BraunSambridge extends AreaAccumulator {
 
+    BraunSambridge(Scratch s) {
+      super(s);
+    }
+
     public double accumulateAreas(
       double x1i, double x2i,
       TriMesh mesh, TriMesh.NodeList nodeList, TriMesh.TriList triList)
@@ -960,6 +1158,10 @@ public class SibsonInterpolator2 {
   // system in which the interpolation point (xp,yp) is the origin.
   private static class HaleLiang extends AreaAccumulator {
 
+    HaleLiang(Scratch s) {
+      super(s);
+    }
+
     public double accumulateAreas(
       double xp, double yp,
       TriMesh mesh, TriMesh.NodeList nodeList, TriMesh.TriList triList)
@@ -1003,7 +1205,7 @@ public class SibsonInterpolator2 {
       TriMesh.Node nb, TriMesh.Node nc)
     {
       boolean saveEdge = true;
-      if (ta!=null && mesh.isMarked(ta)) {
+      if (ta!=null && isMarked(ta)) {
         ta.centerCircle(_xy);
         double xa = _xy[0]-xp;
         double ya = _xy[1]-yp;
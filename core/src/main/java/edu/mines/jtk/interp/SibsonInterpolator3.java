@@ -15,6 +15,7 @@ limitations under the License.
 package edu.mines.jtk.interp;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.logging.Logger;
 
 import edu.mines.jtk.dsp.Sampling;
@@ -23,6 +24,7 @@ import edu.mines.jtk.la.DMatrixQrd;
 import edu.mines.jtk.mesh.Geometry;
 import edu.mines.jtk.mesh.TetMesh;
 import edu.mines.jtk.util.Check;
+import edu.mines.jtk.util.Parallel;
 
 /**
  * Sibson interpolation of scattered samples of 3D functions f(x1,x2,x3).
@@ -64,6 +66,11 @@ import edu.mines.jtk.util.Check;
  * samples may alter the Sibson interpolant at points inside but near the 
  * original convex hull.
  * <p>
+ * Values interpolated on a grid of points are computed in parallel, for
+ * rectangular tiles of grid points. Within each tile, the search for
+ * natural neighbors of each grid point begins with the tetrahedron that
+ * contained the previous grid point, which is typically nearby.
+ * <p>
  * References:
  * <ul><li>
  * Braun, J. and M. Sambridge, 1995, A numerical method for solving partial
@@ -191,16 +198,8 @@ public class SibsonInterpolator3 {
   public SibsonInterpolator3(
     Method method, float[] f, float[] x1, float[] x2, float[] x3) 
   {
+    _method = method;
     makeMesh(f,x1,x2,x3);
-    _nodeList = new TetMesh.NodeList();
-    _tetList = new TetMesh.TetList();
-    if (method==Method.WATSON_SAMBRIDGE) {
-      _va = new WatsonSambridge();
-    } else if (method==Method.BRAUN_SAMBRIDGE) {
-      _va = new BraunSambridge();
-    } else if (method==Method.HALE_LIANG) {
-      _va = new HaleLiang();
-    }
   }
 
   /**
@@ -280,6 +279,9 @@ public class SibsonInterpolator3 {
    * hull. This method enables extrapolation for points outside the convex 
    * hull, while restricting interpolation to points inside the box.
    * <p>
+   * Ghost samples added for any bounds set previously are replaced by
+   * those for the specified bounds.
+   * <p>
    * If gradients are to be computed (not specified explicitly), it is best 
    * to set bounds by calling this method before computing gradients.
    * @param x1min lower bound on x1.
@@ -304,6 +306,10 @@ public class SibsonInterpolator3 {
     _x3bmn = x3min; _x3bmx = x3max;
     _useBoundingBox = true;
 
+    // Remove any ghost nodes for bounds set previously, so that scratch 
+    // keys for ghost nodes are unique.
+    removeGhostNodes();
+
     // Compute coordinates for ghost nodes, and add them to the mesh.
     float scale = 1.0f;
     float x1avg = 0.5f*(x1min+x1max);
@@ -360,20 +366,12 @@ public class SibsonInterpolator3 {
    * @return the interpolated value.
    */
   public float interpolate(float x1, float x2, float x3) {
-    if (!inBounds(x1,x2,x3))
-      return _fnull;
-    double vsum = computeVolumes(x1,x2,x3);
-    if (vsum<=0.0)
-      return _fnull;
-    if (usingGradients()) {
-      return interpolate1(vsum,x1,x2,x3);
-    } else {
-      return interpolate0(vsum);
-    }
+    return _scratch.interpolate(x1,x2,x3);
   }
 
   /**
    * Returns an array of interpolated values sampled on a grid.
+   * Tiles of grid points are interpolated in parallel.
    * @param s1 the sampling of n1 x1 coordinates.
    * @param s2 the sampling of n2 x2 coordinates.
    * @param s3 the sampling of n3 x3 coordinates.
@@ -381,22 +379,49 @@ public class SibsonInterpolator3 {
    */
   public float[][][] interpolate(Sampling s1, Sampling s2, Sampling s3) {
     log.fine("interpolate: begin");
-    int n1 = s1.getCount();
-    int n2 = s2.getCount();
-    int n3 = s2.getCount();
-    float[][][] f = new float[n3][n2][n1];
-    for (int i3=0; i3<n3; ++i3) {
-      log.fine("interpolate: i3="+i3);
-      float x3 = (float)s3.getValue(i3);
-      for (int i2=0; i2<n2; ++i2) {
-        log.finer("interpolate: i2="+i2);
-        float x2 = (float)s2.getValue(i2);
-        for (int i1=0; i1<n1; ++i1) {
-          float x1 = (float)s1.getValue(i1);
-          f[i3][i2][i1] = interpolate(x1,x2,x3);
+    final int n1 = s1.getCount();
+    final int n2 = s2.getCount();
+    final int n3 = s3.getCount();
+    final float[] x1 = new float[n1];
+    final float[] x2 = new float[n2];
+    final float[] x3 = new float[n3];
+    for (int i1=0; i1<n1; ++i1)
+      x1[i1] = (float)s1.getValue(i1);
+    for (int i2=0; i2<n2; ++i2)
+      x2[i2] = (float)s2.getValue(i2);
+    for (int i3=0; i3<n3; ++i3)
+      x3[i3] = (float)s3.getValue(i3);
+    final float[][][] f = new float[n3][n2][n1];
+    final int nt1 = (n1+NTILE-1)/NTILE;
+    final int nt2 = (n2+NTILE-1)/NTILE;
+    final int nt3 = (n3+NTILE-1)/NTILE;
+    final Parallel.Unsafe<Scratch> su = new Parallel.Unsafe<Scratch>();
+    Parallel.loop(nt1*nt2*nt3,new Parallel.LoopInt() {
+    public void compute(int it) {
+      Scratch s = su.get();
+      if (s==null) su.set(s=new Scratch());
+      int j1 = (it%nt1)*NTILE, k1 = Math.min(j1+NTILE,n1);
+      int j2 = (it/nt1%nt2)*NTILE, k2 = Math.min(j2+NTILE,n2);
+      int j3 = (it/nt1/nt2)*NTILE, k3 = Math.min(j3+NTILE,n3);
+
+      // Alternate directions of rows and of columns of rows, so that
+      // consecutive points in the tile are always adjacent grid points.
+      int nrow = 0;
+      for (int i3=j3; i3<k3; ++i3) {
+        float[][] f3 = f[i3];
+        for (int m2=0; m2<k2-j2; ++m2,++nrow) {
+          int i2 = ((i3-j3)%2==0)?j2+m2:k2-1-m2;
+          float[] f32 = f3[i2];
+          if (nrow%2==0) {
+            for (int i1=j1; i1<k1; ++i1)
+              f32[i1] = s.interpolate(x1[i1],x2[i2],x3[i3]);
+          } else {
+            for (int i1=k1-1; i1>=j1; --i1)
+              f32[i1] = s.interpolate(x1[i1],x2[i2],x3[i3]);
+          }
         }
       }
-    }
+    }});
     log.fine("interpolate: end");
     return f;
   }
@@ -419,17 +444,17 @@ public class SibsonInterpolator3 {
   public IndexWeight[] getIndexWeights(float x1, float x2, float x3) {
     if (!inBounds(x1,x2,x3))
       return null;
-    float wsum = (float)computeVolumes(x1,x2,x3);
+    float wsum = (float)_scratch.computeVolumes(x1,x2,x3);
     if (wsum==0.0f)
       return null;
     float wscl = 1.0f/wsum;
-    int nnode = _nodeList.nnode();
-    TetMesh.Node[] nodes = _nodeList.nodes();
+    int nnode = _scratch._nodeList.nnode();
+    TetMesh.Node[] nodes = _scratch._nodeList.nodes();
     IndexWeight[] iw = new IndexWeight[nnode];
     for (int inode=0; inode<nnode; ++inode) {
       TetMesh.Node node = nodes[inode];
       int i = node.index;
-      float w = (float)volume(node)*wscl;
+      float w = (float)_scratch.volume(node)*wscl;
       iw[inode] = new IndexWeight(i,w);
     }
     return iw;
@@ -495,7 +520,6 @@ public class SibsonInterpolator3 {
   // Data associated with all nodes in the tet mesh.
   private static class NodeData {
     float f,gx,gy,gz; // function values and gradient
-    double volume; // volume for Sibson weight
   }
   private static NodeData data(TetMesh.Node node) {
     return (NodeData)node.data;
@@ -512,18 +536,20 @@ public class SibsonInterpolator3 {
   private static float gz(TetMesh.Node node) {
     return data(node).gz;
   }
-  private static double volume(TetMesh.Node node) {
-    return data(node).volume;
-  }
   private static boolean ghost(TetMesh.Node node) {
     return node.index<0;
   }
 
+  // Number of ghost nodes that may be added to the mesh.
+  private static final int NGHOST = 6;
+
+  // Number of grid points on each side of the tiles interpolated in parallel.
+  private static final int NTILE = 16;
+
+  private Method _method; // the implementation method
   private TetMesh _mesh; // the mesh
   private TetMesh.Node[] _nodes; // array of real (not ghost) nodes
-  private TetMesh.NodeList _nodeList; // list of natural neighbor nodes
-  private TetMesh.TetList _tetList; // list of natural neighbor tets
-  private VolumeAccumulator _va; // accumulates Sibson's volumes
+  private Scratch _scratch; // scratch for interpolation in this thread
   private boolean _haveGradients; // true if mesh nodes have gradients
   private double _gradientPower; // power of gradients
   private float _fnull; // returned when interpolation point out of bounds
@@ -580,6 +606,7 @@ public class SibsonInterpolator3 {
         data.f = f[i];
       _nodes[i] = node;
     }
+    _scratch = new Scratch();
   }
 
   // Returns true if gradients are being used in interpolation.
@@ -691,14 +718,6 @@ public class SibsonInterpolator3 {
       _mesh.removeNode(gnode);
   }
 
-  // Computes Sibson volumes for the specified point (x,y,z).
-  // Returns true, if successful; false, otherwise.
-  private double computeVolumes(float x, float y, float z) {
-    if (!getNaturalNabors(x,y,z))
-      return 0.0;
-    return _va.accumulateVolumes(x,y,z,_mesh,_nodeList,_tetList);
-  }
-
   // Returns true if not using bounding box or if point is inside the box.
   private boolean inBounds(float x1, float x2, float x3) {
     return !_useBoundingBox ||
@@ -707,116 +726,6 @@ public class SibsonInterpolator3 {
            _x3bmn<=x3 && x3<=_x3bmx;
   }
 
-  // Gets lists of natural neighbor nodes and tets of point (x,y,z).
-  // Before building the lists, node and tet marks are cleared. Then,
-  // as nodes and tets are added to the lists, they are marked, and 
-  // node volumes are initialized to zero.
-  // Returns true, if the lists are not empty; false, otherwise.
-  private boolean getNaturalNabors(float x, float y, float z) {
-    _mesh.clearNodeMarks();
-    _mesh.clearTetMarks();
-    _nodeList.clear();
-    _tetList.clear();
-    TetMesh.PointLocation pl = _mesh.locatePoint(x,y,z);
-    if (pl.isOutside())
-      return false;
-    addTet(x,y,z,pl.tet());
-    return true;
-  }
-  private void addTet(double xp, double yp, double zp, TetMesh.Tet tet) {
-    _mesh.mark(tet);
-    _tetList.add(tet);
-    addNode(tet.nodeA());
-    addNode(tet.nodeB());
-    addNode(tet.nodeC());
-    addNode(tet.nodeD());
-    TetMesh.Tet ta = tet.tetA();
-    TetMesh.Tet tb = tet.tetB();
-    TetMesh.Tet tc = tet.tetC();
-    TetMesh.Tet td = tet.tetD();
-    if (needTet(xp,yp,zp,ta)) addTet(xp,yp,zp,ta);
-    if (needTet(xp,yp,zp,tb)) addTet(xp,yp,zp,tb);
-    if (needTet(xp,yp,zp,tc)) addTet(xp,yp,zp,tc);
-    if (needTet(xp,yp,zp,td)) addTet(xp,yp,zp,td);
-  }
-  private void addNode(TetMesh.Node node) {
-    if (_mesh.isMarked(node))
-      return;
-    _mesh.mark(node);
-    _nodeList.add(node);
-    NodeData data = data(node);
-    data.volume = 0.0;
-  }
-  private boolean needTet(double xp, double yp, double zp, TetMesh.Tet tet) {
-    if (tet==null || _mesh.isMarked(tet))
-      return false;
-    TetMesh.Node na = tet.nodeA();
-    TetMesh.Node nb = tet.nodeB();
-    TetMesh.Node nc = tet.nodeC();
-    TetMesh.Node nd = tet.nodeD();
-    double xa = na.xp(), ya = na.yp(), za = na.zp();
-    double xb = nb.xp(), yb = nb.yp(), zb = nb.zp();
-    double xc = nc.xp(), yc = nc.yp(), zc = nc.zp();
-    double xd = nd.xp(), yd = nd.yp(), zd = nd.zp();
-    return Geometry.inSphere(xa,ya,za,xb,yb,zb,xc,yc,zc,xd,yd,zd,xp,yp,zp)>0.0;
-  }
-
-  // C0 interpolation; does not use gradients.
-  private float interpolate0(double vsum) {
-    double vfsum = 0.0;
-    int nnode = _nodeList.nnode();
-    TetMesh.Node[] nodes = _nodeList.nodes();
-    for (int inode=0; inode<nnode; ++inode) {
-      TetMesh.Node node = nodes[inode];
-      float f = f(node);
-      double v = volume(node);
-      vfsum += v*f;
-    }
-    return (float)(vfsum/vsum);
-  }
-
-  // C1 interpolation; uses gradients.
-  private float interpolate1(double vsum, double x, double y, double z) {
-    int nnode = _nodeList.nnode();
-    TetMesh.Node[] nodes = _nodeList.nodes();
-    double fs = 0.0;
-    double es = 0.0;
-    double wds = 0.0;
-    double wdds = 0.0;
-    double wods = 0.0;
-    for (int inode=0; inode<nnode; ++inode) {
-      TetMesh.Node n = nodes[inode];
-      double f = f(n);
-      double gx = gx(n);
-      double gy = gy(n);
-      double gz = gz(n);
-      double v = volume(n);
-      double w = v/vsum;
-      double xn = n.xp();
-      double yn = n.yp();
-      double zn = n.zp();
-      double dx = x-xn;
-      double dy = y-yn;
-      double dz = z-zn;
-      double dd = dx*dx+dy*dy+dz*dz;
-      if (dd==0.0)
-        return (float)f;
-      double d = Math.pow(dd,0.5*_gradientPower);
-      double wd = w*d;
-      double wod = w/d;
-      double wdd = w*dd;
-      es += wod*(f+gx*dx+gy*dy+gz*dz);
-      fs += w*f;
-      wds += wd;
-      wdds += wdd;
-      wods += wod;
-    }
-    es /= wods;
-    double alpha = wds/wods;
-    double beta = wdds;
-    return (float)((alpha*fs+beta*es)/(alpha+beta));
-  }
-
   // Estimates gradient vectors for real (not ghost) nodes in the mesh. 
   // Uses Sibson's (1981) method, which yields gradients that will 
   // interpolate precisely a spherical quadratic of the form 
@@ -840,11 +749,11 @@ public class SibsonInterpolator3 {
     double yn = n.yp();
     double zn = n.zp();
     _mesh.removeNode(n);
-    double vsum = computeVolumes((float)xn,(float)yn,(float)zn);
+    double vsum = _scratch.computeVolumes((float)xn,(float)yn,(float)zn);
     _mesh.addNode(n);
     if (vsum>0.0) {
-      int nm = _nodeList.nnode();
-      TetMesh.Node[] ms = _nodeList.nodes();
+      int nm = _scratch._nodeList.nnode();
+      TetMesh.Node[] ms = _scratch._nodeList.nodes();
       double hxx = 0.0, hxy = 0.0, hxz = 0.0,
                         hyy = 0.0, hyz = 0.0,
                                    hzz = 0.0;
@@ -854,7 +763,7 @@ public class SibsonInterpolator3 {
         TetMesh.Node m = ms[im];
         if (!ghost(m)) {
           double fm = f(m);
-          double wm = volume(m);
+          double wm = _scratch.volume(m);
           double xm = m.xp();
           double ym = m.yp();
           double zm = m.zp();
@@ -897,6 +806,297 @@ public class SibsonInterpolator3 {
     }
   }
 
+  ///////////////////////////////////////////////////////////////////////////
+  ///////////////////////////////////////////////////////////////////////////
+  // Scratch space used to interpolate at one point at a time. Different
+  // threads may interpolate at different points concurrently, if each 
+  // thread has its own scratch. Interpolation only reads the mesh; it 
+  // does not use marks in the mesh, but instead marks nodes and tets in 
+  // an array and a set that belong to this scratch. Volumes for nodes are 
+  // likewise stored in an array here and not in node data. Point location 
+  // begins with the tet that contained the previous point, so that for 
+  // consecutive points that are nearby, the walk to the next point is short.
+  private class Scratch {
+
+    Scratch() {
+      int nnode = _nodes.length+NGHOST;
+      _nodeMarks = new int[nnode];
+      _nodeVolumes = new double[nnode];
+      if (_method==Method.WATSON_SAMBRIDGE) {
+        _va = new WatsonSambridge(this);
+      } else if (_method==Method.BRAUN_SAMBRIDGE) {
+        _va = new BraunSambridge(this);
+      } else if (_method==Method.HALE_LIANG) {
+        _va = new HaleLiang(this);
+      }
+    }
+
+    // Returns a value interpolated at the point (x1,x2,x3).
+    float interpolate(float x1, float x2, float x3) {
+      if (!inBounds(x1,x2,x3))
+        return _fnull;
+      double vsum = computeVolumes(x1,x2,x3);
+      if (vsum<=0.0)
+        return _fnull;
+      if (usingGradients()) {
+        return interpolate1(vsum,x1,x2,x3);
+      } else {
+        return interpolate0(vsum);
+      }
+    }
+
+    // Computes Sibson volumes for the specified point (x,y,z).
+    // Returns the sum of those volumes; zero, if not successful.
+    double computeVolumes(float x, float y, float z) {
+      if (!getNaturalNabors(x,y,z))
+        return 0.0;
+      return _va.accumulateVolumes(x,y,z,_mesh,_nodeList,_tetList);
+    }
+
+    // Returns the volume for a node in the list of natural neighbors.
+    double volume(TetMesh.Node node) {
+      return _nodeVolumes[key(node)];
+    }
+
+    // Adds to the volume for a node in the list of natural neighbors.
+    void addVolume(TetMesh.Node node, double volume) {
+      _nodeVolumes[key(node)] += volume;
+    }
+
+    // Returns true if the tet is in the list of natural neighbors.
+    boolean isMarked(TetMesh.Tet tet) {
+      return _tetMarks.contains(tet);
+    }
+
+    private TetMesh.NodeList _nodeList = new TetMesh.NodeList();
+    private TetMesh.TetList _tetList = new TetMesh.TetList();
+    private VolumeAccumulator _va; // accumulates Sibson's volumes
+    private int[] _nodeMarks; // node marks, indexed by node key
+    private int _nodeMark; // current value of node mark
+    private double[] _nodeVolumes; // node volumes, indexed by node key
+    private TetSet _tetMarks = new TetSet(); // set of marked tets
+    private TetMesh.Tet _tetLast; // tet that contained the previous point
+    private long _version = -1; // mesh version for the previous point
+
+    // Returns an index in [0,nnode) for a real or ghost node.
+    private int key(TetMesh.Node node) {
+      int index = node.index;
+      return (index>=0)?index:_nodes.length-1-index;
+    }
+
+    // Returns the tet that contains the point (x,y,z); null, if the point 
+    // is outside the mesh. This walk is like that used by the mesh to 
+    // locate points, but it begins with the tet found for the previous 
+    // point, if the mesh has not changed since then.
+    private TetMesh.Tet locate(float x, float y, float z) {
+      TetMesh.Tet tet = _tetLast;
+      long version = _mesh.getVersion();
+      if (tet==null || version!=_version) {
+        TetMesh.Node node = _mesh.findNodeNearest(x,y,z);
+        tet = (node!=null)?_mesh.findTet(node):null;
+        _version = version;
+        if (tet==null)
+          return null;
+      }
+      double xp = x, yp = y, zp = z;
+      for (TetMesh.Tet next=tet; next!=null; ) {
+        tet = next;
+        TetMesh.Node na = tet.nodeA();
+        TetMesh.Node nb = tet.nodeB();
+        TetMesh.Node nc = tet.nodeC();
+        TetMesh.Node nd = tet.nodeD();
+        double xa = na.xp(), ya = na.yp(), za = na.zp();
+        double xb = nb.xp(), yb = nb.yp(), zb = nb.zp();
+        double xc = nc.xp(), yc = nc.yp(), zc = nc.zp();
+        double xd = nd.xp(), yd = nd.yp(), zd = nd.zp();
+        if (Geometry.leftOfPlane(xb,yb,zb,xc,yc,zc,xd,yd,zd,xp,yp,zp)>0.0) {
+          next = tet.tetA();
+        } else if (
+          Geometry.leftOfPlane(xd,yd,zd,xc,yc,zc,xa,ya,za,xp,yp,zp)>0.0) {
+          next = tet.tetB();
+        } else if (
+          Geometry.leftOfPlane(xd,yd,zd,xa,ya,za,xb,yb,zb,xp,yp,zp)>0.0) {
+          next = tet.tetC();
+        } else if (
+          Geometry.leftOfPlane(xa,ya,za,xc,yc,zc,xb,yb,zb,xp,yp,zp)>0.0) {
+          next = tet.tetD();
+        } else {
+          _tetLast = tet;
+          return tet;
+        }
+      }
+      _tetLast = tet; // on the hull and visible from the point
+      return null;
+    }
+
+    // Gets lists of natural neighbor nodes and tets of point (x,y,z).
+    // Before building the lists, node and tet marks are cleared. Then,
+    // as nodes and tets are added to the lists, they are marked, and 
+    // node volumes are initialized to zero.
+    // Returns true, if the lists are not empty; false, otherwise.
+    private boolean getNaturalNabors(float x, float y, float z) {
+      clearMarks();
+      _nodeList.clear();
+      _tetList.clear();
+      TetMesh.Tet tet = locate(x,y,z);
+      if (tet==null)
+        return false;
+      addTet(x,y,z,tet);
+      return true;
+    }
+    private void clearMarks() {
+      if (_nodeMark==Integer.MAX_VALUE) {
+        Arrays.fill(_nodeMarks,0);
+        _nodeMark = 0;
+      }
+      ++_nodeMark;
+      _tetMarks.clear();
+    }
+    private void addTet(double xp, double yp, double zp, TetMesh.Tet tet) {
+      _tetMarks.add(tet);
+      _tetList.add(tet);
+      addNode(tet.nodeA());
+      addNode(tet.nodeB());
+      addNode(tet.nodeC());
+      addNode(tet.nodeD());
+      TetMesh.Tet ta = tet.tetA();
+      TetMesh.Tet tb = tet.tetB();
+      TetMesh.Tet tc = tet.tetC();
+      TetMesh.Tet td = tet.tetD();
+      if (needTet(xp,yp,zp,ta)) addTet(xp,yp,zp,ta);
+      if (needTet(xp,yp,zp,tb)) addTet(xp,yp,zp,tb);
+      if (needTet(xp,yp,zp,tc)) addTet(xp,yp,zp,tc);
+      if (needTet(xp,yp,zp,td)) addTet(xp,yp,zp,td);
+    }
+    private void addNode(TetMesh.Node node) {
+      int k = key(node);
+      if (_nodeMarks[k]==_nodeMark)
+        return;
+      _nodeMarks[k] = _nodeMark;
+      _nodeList.add(node);
+      _nodeVolumes[k] = 0.0;
+    }
+    private boolean needTet(
+      double xp, double yp, double zp, TetMesh.Tet tet) 
+    {
+      if (tet==null || _tetMarks.contains(tet))
+        return false;
+      TetMesh.Node na = tet.nodeA();
+      TetMesh.Node nb = tet.nodeB();
+      TetMesh.Node nc = tet.nodeC();
+      TetMesh.Node nd = tet.nodeD();
+      double xa = na.xp(), ya = na.yp(), za = na.zp();
+      double xb = nb.xp(), yb = nb.yp(), zb = nb.zp();
+      double xc = nc.xp(), yc = nc.yp(), zc = nc.zp();
+      double xd = nd.xp(), yd = nd.yp(), zd = nd.zp();
+      return Geometry.inSphere(xa,ya,za,xb,yb,zb,xc,yc,zc,xd,yd,zd,
+                               xp,yp,zp)>0.0;
+    }
+
+    // C0 interpolation; does not use gradients.
+    private float interpolate0(double vsum) {
+      double vfsum = 0.0;
+      int nnode = _nodeList.nnode();
+      TetMesh.Node[] nodes = _nodeList.nodes();
+      for (int inode=0; inode<nnode; ++inode) {
+        TetMesh.Node node = nodes[inode];
+        float f = f(node);
+        double v = volume(node);
+        vfsum += v*f;
+      }
+      return (float)(vfsum/vsum);
+    }
+
+    // C1 interpolation; uses gradients.
+    private float interpolate1(double vsum, double x, double y, double z) {
+      int nnode = _nodeList.nnode();
+      TetMesh.Node[] nodes = _nodeList.nodes();
+      double fs = 0.0;
+      double es = 0.0;
+      double wds = 0.0;
+      double wdds = 0.0;
+      double wods = 0.0;
+      for (int inode=0; inode<nnode; ++inode) {
+        TetMesh.Node n = nodes[inode];
+        double f = f(n);
+        double gx = gx(n);
+        double gy = gy(n);
+        double gz = gz(n);
+        double v = volume(n);
+        double w = v/vsum;
+        double xn = n.xp();
+        double yn = n.yp();
+        double zn = n.zp();
+        double dx = x-xn;
+        double dy = y-yn;
+        double dz = z-zn;
+        double dd = dx*dx+dy*dy+dz*dz;
+        if (dd==0.0)
+          return (float)f;
+        double d = Math.pow(dd,0.5*_gradientPower);
+        double wd = w*d;
+        double wod = w/d;
+        double wdd = w*dd;
+        es += wod*(f+gx*dx+gy*dy+gz*dz);
+        fs += w*f;
+        wds += wd;
+        wdds += wdd;
+        wods += wod;
+      }
+      es /= wods;
+      double alpha = wds/wods;
+      double beta = wdds;
+      return (float)((alpha*fs+beta*es)/(alpha+beta));
+    }
+  }
+
+  // A set of tets, compared by identity. Tets are hashed with open
+  // addressing, and the cost of clearing the set is proportional to the
+  // number of tets in the set, not the capacity of the set.
+  private static class TetSet {
+    boolean contains(TetMesh.Tet tet) {
+      int i = hash(tet);
+      for (TetMesh.Tet t=_a[i]; t!=null; t=_a[i]) {
+        if (t==tet)
+          return true;
+        i = (i+1)&_mask;
+      }
+      return false;
+    }
+    void add(TetMesh.Tet tet) {
+      if (2*(_n+1)>_a.length)
+        grow();
+      int i = hash(tet);
+      while (_a[i]!=null)
+        i = (i+1)&_mask;
+      _a[i] = tet;
+      _k[_n++] = i;
+    }
+    void clear() {
+      for (int i=0; i<_n; ++i)
+        _a[_k[i]] = null;
+      _n = 0;
+    }
+    private int _n; // number of tets in the set
+    private int _mask = 255; // capacity of the set minus one
+    private TetMesh.Tet[] _a = new TetMesh.Tet[256]; // hash table of tets
+    private int[] _k = new int[128]; // indices of tets in the table
+    private int hash(TetMesh.Tet tet) {
+      return (System.identityHashCode(tet)*0x9e3779b9>>>16)&_mask;
+    }
+    private void grow() {
+      TetMesh.Tet[] a = _a;
+      int[] k = _k;
+      int n = _n;
+      _mask = 2*a.length-1;
+      _a = new TetMesh.Tet[2*a.length];
+      _k = new int[a.length];
+      _n = 0;
+      for (int i=0; i<n; ++i)
+        add(a[k[i]]);
+    }
+  }
+
   ///////////////////////////////////////////////////////////////////////////
   ///////////////////////////////////////////////////////////////////////////
   // Given a point (xp,yp,zp) at which to interpolate, an implementation of 
@@ -904,6 +1104,9 @@ public class SibsonInterpolator3 {
   // neighbor nodes in the the specified node list. This abstract base
   // class maintains the total volume accumulated for all nodes.
   private static abstract class VolumeAccumulator {
+    VolumeAccumulator(Scratch s) {
+      _s = s;
+    }
     public abstract double accumulateVolumes(
       double xp, double yp, double zp,
       TetMesh mesh, TetMesh.NodeList nodeList, TetMesh.TetList tetList);
@@ -913,12 +1116,15 @@ public class SibsonInterpolator3 {
     protected double sum() {
       return _sum;
     }
+    protected boolean isMarked(TetMesh.Tet tet) {
+      return _s.isMarked(tet);
+    }
     protected void accumulate(TetMesh.Node node, double volume) {
       if (ghost(node)) return; // ignore ghost nodes!
-      NodeData data = data(node);
-      data.volume += volume;
+      _s.addVolume(node,volume);
       _sum += volume;
     }
+    private Scratch _s;
     private double _sum;
   }
   
@@ -926,6 +1132,10 @@ public class SibsonInterpolator3 {
   ///////////////////////////////////////////////////////////////////////////
   private static class WatsonSambridge extends VolumeAccumulator {
 
+    WatsonSambridge(Scratch s) {
+      super(s);
+    }
+
     public double accumulateVolumes(
       double xp, double yp, double zp,
       TetMesh mesh, TetMesh.NodeList nodeList, TetMesh.TetList tetList)
@@ -977,6 +1187,10 @@ public class SibsonInterpolator3 {
   ///////////////////////////////////////////////////////////////////////////
   private static class BraunSambridge extends VolumeAccumulator {
 
+    BraunSambridge(Scratch s) {
+      super(s);
+    }
+
     public double accumulateVolumes(
       double x1i, double x2i, double x3i,
       TetMesh mesh, TetMesh.NodeList nodeList, TetMesh.TetList tetList)
@@ -1051,6 +1265,10 @@ public class SibsonInterpolator3 {
   // system in which the interpolation point (xp,yp,zp) is the origin.
   private static class HaleLiang extends VolumeAccumulator {
 
+    HaleLiang(Scratch s) {
+      super(s);
+    }
+
     public double accumulateVolumes(
       double xp, double yp, double zp,
       TetMesh mesh, TetMesh.NodeList nodeList, TetMesh.TetList tetList)
@@ -1097,7 +1315,7 @@ public class SibsonInterpolator3 {
       TetMesh.Node nb, TetMesh.Node nc, TetMesh.Node nd)
     {
       boolean saveFace = true;
-      if (ta!=null && mesh.isMarked(ta)) {
+      if (ta!=null && isMarked(ta)) {
         ta.centerSphere(_xyz);
         double xa = _xyz[0]-xp, ya = _xyz[1]-yp, za = _xyz[2]-zp;
         double xb = nb.xp()-xp, yb = nb.yp()-yp, zb = nb.zp()-zp;
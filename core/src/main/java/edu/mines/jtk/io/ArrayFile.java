@@ -30,6 +30,11 @@ import java.nio.ByteOrder;
  * An array file can be constructed by specifying a file name and access mode 
  * (as for a {@link java.io.RandomAccessFile}). Alternatively, an array file 
  * can be constructed from an existing {@link java.io.RandomAccessFile}.
+ * <p>
+ * Arrays are read and written through buffers of 4096 bytes by default.
+ * For large arrays, larger buffers may be specified when constructing an 
+ * array file, and reads of large 2-D and 3-D arrays of floats may prefetch
+ * buffers in another thread.
  *
  * @author Dave Hale, Colorado School of Mines
  * @version 2006.08.05
@@ -88,11 +93,41 @@ public class ArrayFile implements ArrayInput, ArrayOutput, Closeable {
    * @param bow the byte order for writing.
    */
   public ArrayFile(RandomAccessFile raf, ByteOrder bor, ByteOrder bow) {
+    this(raf,bor,bow,4096);
+  }
+
+  /**
+   * Constructs an array file with specified file, access mode, byte orders,
+   * and buffer size.
+   * @param file the file.
+   * @param mode the access mode; "r", "rw", "rws", or "rwd".
+   * @param bor the byte order for reading.
+   * @param bow the byte order for writing.
+   * @param size the size of buffers, in bytes; must be a multiple of 8.
+   */
+  public ArrayFile(
+    File file, String mode, ByteOrder bor, ByteOrder bow, int size) 
+    throws FileNotFoundException 
+  {
+    this(new RandomAccessFile(file,mode),bor,bow,size);
+  }
+
+  /**
+   * Constructs an array file for a specified random-access file, 
+   * byte orders, and buffer size.
+   * @param raf the random-access file.
+   * @param bor the byte order for reading.
+   * @param bow the byte order for writing.
+   * @param size the size of buffers, in bytes; must be a multiple of 8.
+   */
+  public ArrayFile(
+    RandomAccessFile raf, ByteOrder bor, ByteOrder bow, int size) 
+  {
     _raf = raf;
     _bor = bor;
     _bow = bow;
-    _ai = new ArrayInputAdapter(raf,bor);
-    _ao = new ArrayOutputAdapter(raf,bow);
+    _ai = new ArrayInputAdapter(raf.getChannel(),raf,bor,size);
+    _ao = new ArrayOutputAdapter(raf.getChannel(),raf,bow,size);
   }
 
   /**
@@ -111,6 +146,16 @@ public class ArrayFile implements ArrayInput, ArrayOutput, Closeable {
     return _bow;
   }
 
+  /**
+   * Sets whether to prefetch buffers when reading 2-D and 3-D arrays of 
+   * floats. If true, the next buffer is read in another thread while 
+   * floats are copied from the current buffer. The default is false.
+   * @param prefetch true, to prefetch; false, otherwise.
+   */
+  public void setPrefetch(boolean prefetch) {
+    _ai.setPrefetch(prefetch);
+  }
+
   /**
    * Reads a byte value from this file. 
    * The returned value will be in the range 0 to 255.
@@ -824,6 +869,6 @@ public class ArrayFile implements ArrayInput, ArrayOutput, Closeable {
   private RandomAccessFile _raf;
   private ByteOrder _bor;
   private ByteOrder _bow;
-  private ArrayInput _ai;
-  private ArrayOutput _ao;
+  private ArrayInputAdapter _ai;
+  private ArrayOutputAdapter _ao;
 }
@@ -18,6 +18,9 @@ import java.io.*;
 import static java.lang.Math.min;
 import java.nio.*;
 import java.nio.channels.ReadableByteChannel;
+import java.util.concurrent.*;
+
+import edu.mines.jtk.util.Check;
 
 /**
  * Implements {@link ArrayInput} by wrapping {@link java.io.DataInput}.
@@ -29,6 +32,14 @@ import java.nio.channels.ReadableByteChannel;
  * <p>
  * When an adapter is constructed from an object that has a file channel, 
  * the channel enables more efficient reads of arrays of values.
+ * <p>
+ * Arrays of values are read through a buffer, 4096 bytes by default. For 
+ * large arrays read from a channel, a larger buffer may be specified when 
+ * constructing the adapter. When reading 2-D and 3-D arrays of floats, the 
+ * rows of the array are packed into that buffer, so that each read from
+ * the channel fills the entire buffer. Optionally, the next buffer may be
+ * prefetched in another thread while floats in the current buffer are 
+ * copied into the array.
  * @author Dave Hale, Colorado School of Mines
  * @version 2006.08.05
  */
@@ -100,20 +111,32 @@ public class ArrayInputAdapter implements ArrayInput {
   public ArrayInputAdapter(
     ReadableByteChannel channel, DataInput input, ByteOrder order) 
   {
+    this(channel,input,order,4096);
+  }
+
+  /**
+   * Constructs an adapter for the specified channel, input, byte order,
+   * and buffer size. If not null, the readable byte channel enables more 
+   * efficient reads. Large buffers are most useful with channels.
+   * @param channel the readable byte channel; null, if none.
+   * @param input the data input.
+   * @param order the byte order.
+   * @param size the buffer size, in bytes; must be a multiple of 8.
+   */
+  public ArrayInputAdapter(
+    ReadableByteChannel channel, DataInput input, ByteOrder order, int size) 
+  {
+    Check.argument(size>0 && size%8==0,"size>0 && size%8==0");
     _rbc = channel;
     _di = input;
     _bo = order;
     if (_rbc!=null) {
-      _bb = ByteBuffer.allocateDirect(4096);
+      _bb = ByteBuffer.allocateDirect(size);
     } else {
-      _buffer = new byte[4096];
+      _buffer = new byte[size];
       _bb = ByteBuffer.wrap(_buffer);
     }
-    if (order==ByteOrder.BIG_ENDIAN) {
-      _bb.order(ByteOrder.BIG_ENDIAN);
-    } else {
-      _bb.order(ByteOrder.LITTLE_ENDIAN);
-    }
+    _bb.order(order);
     _cb = _bb.asCharBuffer();
     _sb = _bb.asShortBuffer();
     _ib = _bb.asIntBuffer();
@@ -130,6 +153,26 @@ public class ArrayInputAdapter implements ArrayInput {
     return _bo;
   }
 
+  /**
+   * Gets the size of the buffer used to read arrays of values.
+   * @return the buffer size, in bytes.
+   */
+  public int getBufferSize() {
+    return _bb.capacity();
+  }
+
+  /**
+   * Sets whether to prefetch buffers when reading 2-D and 3-D arrays of 
+   * floats from a channel. If true, the next buffer is read in another 
+   * thread while floats are copied from the current buffer. Prefetching 
+   * requires a second buffer with the same size as the first. It has no 
+   * effect for adapters without a channel. The default is false.
+   * @param prefetch true, to prefetch; false, otherwise.
+   */
+  public void setPrefetch(boolean prefetch) {
+    _prefetch = prefetch;
+  }
+
   public void readFully(byte[] b) throws IOException {
     _di.readFully(b);
   }
@@ -246,8 +289,7 @@ public class ArrayInputAdapter implements ArrayInput {
     for (int j=0; j<n; j+=m) {
       int l = min(n-j,m);
       if (_rbc!=null) {
-        _bb.position(0).limit(l*2);
-        _rbc.read(_bb);
+        fill(_bb,l*2);
       } else {
         _di.readFully(_buffer,0,l*2);
       }
@@ -296,8 +338,7 @@ public class ArrayInputAdapter implements ArrayInput {
     for (int j=0; j<n; j+=m) {
       int l = min(n-j,m);
       if (_rbc!=null) {
-        _bb.position(0).limit(l*2);
-        _rbc.read(_bb);
+        fill(_bb,l*2);
       } else {
         _di.readFully(_buffer,0,l*2);
       }
@@ -346,8 +387,7 @@ public class ArrayInputAdapter implements ArrayInput {
     for (int j=0; j<n; j+=m) {
       int l = min(n-j,m);
       if (_rbc!=null) {
-        _bb.position(0).limit(l*4);
-        _rbc.read(_bb);
+        fill(_bb,l*4);
       } else {
         _di.readFully(_buffer,0,l*4);
       }
@@ -396,8 +436,7 @@ public class ArrayInputAdapter implements ArrayInput {
     for (int j=0; j<n; j+=m) {
       int l = min(n-j,m);
       if (_rbc!=null) {
-        _bb.position(0).limit(l*8);
-        _rbc.read(_bb);
+        fill(_bb,l*8);
       } else {
         _di.readFully(_buffer,0,l*8);
       }
@@ -446,8 +485,7 @@ public class ArrayInputAdapter implements ArrayInput {
     for (int j=0; j<n; j+=m) {
       int l = min(n-j,m);
       if (_rbc!=null) {
-        _bb.position(0).limit(l*4);
-        _rbc.read(_bb);
+        fill(_bb,l*4);
       } else {
         _di.readFully(_buffer,0,l*4);
       }
@@ -471,8 +509,12 @@ public class ArrayInputAdapter implements ArrayInput {
    * @param v the array.
    */
   public void readFloats(float[][] v) throws IOException {
-    for (float[] vi:v)
-      readFloats(vi);
+    if (_rbc!=null) {
+      readRows(v);
+    } else {
+      for (float[] vi:v)
+        readFloats(vi);
+    }
   }
 
   /**
@@ -481,8 +523,19 @@ public class ArrayInputAdapter implements ArrayInput {
    * @param v the array.
    */
   public void readFloats(float[][][] v) throws IOException {
-    for (float[][] vi:v)
-      readFloats(vi);
+    if (_rbc!=null) {
+      int nrow = 0;
+      for (float[][] vi:v)
+        nrow += vi.length;
+      float[][] rows = new float[nrow][];
+      for (int i=0,irow=0; i<v.length; ++i)
+        for (int j=0; j<v[i].length; ++j,++irow)
+          rows[irow] = v[i][j];
+      readRows(rows);
+    } else {
+      for (float[][] vi:v)
+        readFloats(vi);
+    }
   }
 
   /**
@@ -496,8 +549,7 @@ public class ArrayInputAdapter implements ArrayInput {
     for (int j=0; j<n; j+=m) {
       int l = min(n-j,m);
       if (_rbc!=null) {
-        _bb.position(0).limit(l*8);
-        _rbc.read(_bb);
+        fill(_bb,l*8);
       } else {
         _di.readFully(_buffer,0,l*8);
       }
@@ -537,6 +589,7 @@ public class ArrayInputAdapter implements ArrayInput {
 
   ///////////////////////////////////////////////////////////////////////////
   // private
+
   private byte[] _buffer;
   private ReadableByteChannel _rbc;
   private DataInput _di;
@@ -548,4 +601,96 @@ public class ArrayInputAdapter implements ArrayInput {
   private LongBuffer _lb;
   private FloatBuffer _fb;
   private DoubleBuffer _db;
+  private boolean _prefetch; // true, to prefetch when reading rows
+  private ByteBuffer _bbp; // second buffer used only when prefetching
+  private FloatBuffer _fbp; // floats in second buffer
+
+  // Daemon threads used to prefetch buffers; shared by all adapters.
+  private static ExecutorService _prefetcher = 
+    Executors.newCachedThreadPool(new ThreadFactory() {
+      public Thread newThread(Runnable r) {
+        Thread t = new Thread(r,"ArrayInputAdapter prefetch");
+        t.setDaemon(true);
+        return t;
+      }
+    });
+
+  // Reads the specified number of bytes from the channel into a buffer.
+  // Unlike a single read, this loops until the bytes have been read.
+  private void fill(ByteBuffer bb, int nbyte) throws IOException {
+    bb.position(0).limit(nbyte);
+    while (bb.hasRemaining()) {
+      if (_rbc.read(bb)<0)
+        throw new EOFException();
+    }
+  }
+
+  // Reads float elements into the specified rows, which are packed 
+  // contiguously into buffers, so that each buffer is filled by a single
+  // call to fill. If prefetching, the next buffer is filled in another 
+  // thread while floats are copied from the current buffer.
+  private void readRows(float[][] v) throws IOException {
+    long n = 0;
+    for (float[] vi:v)
+      n += vi.length;
+    int m = _fb.capacity();
+    ByteBuffer bb = _bb, bbn = null;
+    FloatBuffer fb = _fb, fbn = null;
+    if (_prefetch && n>m) {
+      if (_bbp==null) {
+        _bbp = ByteBuffer.allocateDirect(_bb.capacity()).order(_bo);
+        _fbp = _bbp.asFloatBuffer();
+      }
+      bbn = _bbp;
+      fbn = _fbp;
+    }
+    int l = (int)min(n,m);
+    fill(bb,l*4);
+    long j = l;
+    for (int iv=0,jv=0; l>0; ) {
+      int ln = (int)min(n-j,m);
+      Future<?> f = (ln>0 && bbn!=null) ? prefetch(bbn,ln*4) : null;
+      fb.position(0).limit(l);
+      while (fb.hasRemaining()) {
+        int k = min(v[iv].length-jv,fb.remaining());
+        fb.get(v[iv],jv,k);
+        jv += k;
+        if (jv==v[iv].length) {
+          ++iv;
+          jv = 0;
+        }
+      }
+      if (f!=null) {
+        await(f);
+        ByteBuffer bbt = bb; bb = bbn; bbn = bbt;
+        FloatBuffer fbt = fb; fb = fbn; fbn = fbt;
+      } else if (ln>0) {
+        fill(bb,ln*4);
+      }
+      j += ln;
+      l = ln;
+    }
+  }
+
+  private Future<?> prefetch(final ByteBuffer bb, final int nbyte) {
+    return _prefetcher.submit(new Callable<Void>() {
+      public Void call() throws IOException {
+        fill(bb,nbyte);
+        return null;
+      }
+    });
+  }
+
+  private static void await(Future<?> f) throws IOException {
+    try {
+      f.get();
+    } catch (InterruptedException e) {
+      throw new InterruptedIOException();
+    } catch (ExecutionException e) {
+      Throwable t = e.getCause();
+      if (t instanceof IOException)
+        throw (IOException)t;
+      throw new RuntimeException(t);
+    }
+  }
 }
@@ -19,6 +19,8 @@ import static java.lang.Math.min;
 import java.nio.*;
 import java.nio.channels.WritableByteChannel;
 
+import edu.mines.jtk.util.Check;
+
 /**
  * Implements {@link ArrayOutput} by wrapping {@link java.io.DataOutput}.
  * This adapter wraps a specified data output to provide methods for writing 
@@ -29,6 +31,12 @@ import java.nio.channels.WritableByteChannel;
  * <p>
  * When an adapter is constructed from an object that has a file channel, 
  * the channel enables more efficient writes of arrays of values.
+ * <p>
+ * Arrays of values are written through a buffer, 4096 bytes by default. 
+ * For large arrays written to a channel, a larger buffer may be specified 
+ * when constructing the adapter. When writing 2-D and 3-D arrays of floats,
+ * the rows of the array are packed into that buffer, so that each write to
+ * the channel drains the entire buffer.
  * @author Dave Hale, Colorado School of Mines
  * @version 2006.08.05
  */
@@ -100,20 +108,32 @@ public class ArrayOutputAdapter implements ArrayOutput {
   public ArrayOutputAdapter(
     WritableByteChannel channel, DataOutput output, ByteOrder order) 
   {
+    this(channel,output,order,4096);
+  }
+
+  /**
+   * Constructs an adapter for the specified channel, output, byte order,
+   * and buffer size. If not null, the writable byte channel enables more 
+   * efficient writes. Large buffers are most useful with channels.
+   * @param channel the writable byte channel; null, if none.
+   * @param output the data output.
+   * @param order the byte order.
+   * @param size the buffer size, in bytes; must be a multiple of 8.
+   */
+  public ArrayOutputAdapter(
+    WritableByteChannel channel, DataOutput output, ByteOrder order, int size) 
+  {
+    Check.argument(size>0 && size%8==0,"size>0 && size%8==0");
     _wbc = channel;
     _do = output;
     _bo = order;
     if (_wbc!=null) {
-      _bb = ByteBuffer.allocateDirect(4096);
+      _bb = ByteBuffer.allocateDirect(size);
     } else {
-      _buffer = new byte[4096];
+      _buffer = new byte[size];
       _bb = ByteBuffer.wrap(_buffer);
     }
-    if (order==ByteOrder.BIG_ENDIAN) {
-      _bb.order(ByteOrder.BIG_ENDIAN);
-    } else {
-      _bb.order(ByteOrder.LITTLE_ENDIAN);
-    }
+    _bb.order(order);
     _cb = _bb.asCharBuffer();
     _sb = _bb.asShortBuffer();
     _ib = _bb.asIntBuffer();
@@ -130,6 +150,14 @@ public class ArrayOutputAdapter implements ArrayOutput {
     return _bo;
   }
 
+  /**
+   * Gets the size of the buffer used to write arrays of values.
+   * @return the buffer size, in bytes.
+   */
+  public int getBufferSize() {
+    return _bb.capacity();
+  }
+
   // From DataOutput.
   public void write(int b) throws IOException {
     _do.write(b);
@@ -261,8 +289,7 @@ public class ArrayOutputAdapter implements ArrayOutput {
       _cb.position(0).limit(l);
       _cb.put(v,k+j,l);
       if (_wbc!=null) {
-        _bb.position(0).limit(l*2);
-        _wbc.write(_bb);
+        drain(l*2);
       } else {
         _do.write(_buffer,0,l*2);
       }
@@ -309,8 +336,7 @@ public class ArrayOutputAdapter implements ArrayOutput {
       _sb.position(0).limit(l);
       _sb.put(v,k+j,l);
       if (_wbc!=null) {
-        _bb.position(0).limit(l*2);
-        _wbc.write(_bb);
+        drain(l*2);
       } else {
         _do.write(_buffer,0,l*2);
       }
@@ -357,8 +383,7 @@ public class ArrayOutputAdapter implements ArrayOutput {
       _ib.position(0).limit(l);
       _ib.put(v,k+j,l);
       if (_wbc!=null) {
-        _bb.position(0).limit(l*4);
-        _wbc.write(_bb);
+        drain(l*4);
       } else {
         _do.write(_buffer,0,l*4);
       }
@@ -405,8 +430,7 @@ public class ArrayOutputAdapter implements ArrayOutput {
       _lb.position(0).limit(l);
       _lb.put(v,k+j,l);
       if (_wbc!=null) {
-        _bb.position(0).limit(l*8);
-        _wbc.write(_bb);
+        drain(l*8);
       } else {
         _do.write(_buffer,0,l*8);
       }
@@ -453,8 +477,7 @@ public class ArrayOutputAdapter implements ArrayOutput {
       _fb.position(0).limit(l);
       _fb.put(v,k+j,l);
       if (_wbc!=null) {
-        _bb.position(0).limit(l*4);
-        _wbc.write(_bb);
+        drain(l*4);
       } else {
         _do.write(_buffer,0,l*4);
       }
@@ -475,8 +498,12 @@ public class ArrayOutputAdapter implements ArrayOutput {
    * @param v the array.
    */
   public void writeFloats(float[][] v) throws IOException {
-    for (float[] vi:v)
-      writeFloats(vi);
+    if (_wbc!=null) {
+      writeRows(v);
+    } else {
+      for (float[] vi:v)
+        writeFloats(vi);
+    }
   }
 
   /**
@@ -484,8 +511,19 @@ public class ArrayOutputAdapter implements ArrayOutput {
    * @param v the array.
    */
   public void writeFloats(float[][][] v) throws IOException {
-    for (float[][] vi:v)
-      writeFloats(vi);
+    if (_wbc!=null) {
+      int nrow = 0;
+      for (float[][] vi:v)
+        nrow += vi.length;
+      float[][] rows = new float[nrow][];
+      for (int i=0,irow=0; i<v.length; ++i)
+        for (int j=0; j<v[i].length; ++j,++irow)
+          rows[irow] = v[i][j];
+      writeRows(rows);
+    } else {
+      for (float[][] vi:v)
+        writeFloats(vi);
+    }
   }
 
   /**
@@ -501,8 +539,7 @@ public class ArrayOutputAdapter implements ArrayOutput {
       _db.position(0).limit(l);
       _db.put(v,k+j,l);
       if (_wbc!=null) {
-        _bb.position(0).limit(l*8);
-        _wbc.write(_bb);
+        drain(l*8);
       } else {
         _do.write(_buffer,0,l*8);
       }
@@ -550,4 +587,32 @@ public class ArrayOutputAdapter implements ArrayOutput {
   private LongBuffer _lb;
   private FloatBuffer _fb;
   private DoubleBuffer _db;
+
+  // Writes the specified number of bytes from the buffer to the channel.
+  // Unlike a single write, this loops until the bytes have been written.
+  private void drain(int nbyte) throws IOException {
+    _bb.position(0).limit(nbyte);
+    while (_bb.hasRemaining())
+      _wbc.write(_bb);
+  }
+
+  // Writes float elements from the specified rows, which are packed 
+  // contiguously into the buffer, so that each write drains a full buffer.
+  private void writeRows(float[][] v) throws IOException {
+    int m = _fb.capacity();
+    _fb.position(0).limit(m);
+    for (float[] vi:v) {
+      for (int j=0,n=vi.length; j<n; ) {
+        int l = min(n-j,_fb.remaining());
+        _fb.put(vi,j,l);
+        j += l;
+        if (!_fb.hasRemaining()) {
+          drain(m*4);
+          _fb.position(0).limit(m);
+        }
+      }
+    }
+    if (_fb.position()>0)
+      drain(_fb.position()*4);
+  }
 }
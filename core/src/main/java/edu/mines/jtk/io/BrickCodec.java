@@ -0,0 +1,204 @@
+/****************************************************************************
+Copyright 2026, Colorado School of Mines and others.
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+****************************************************************************/
+package edu.mines.jtk.io;
+
+import java.io.IOException;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Encodes and decodes bricks of floats for brick files.
+ * <p>
+ * The first byte of every encoded brick indicates how the remaining bytes
+ * were encoded. Raw bricks are simply big-endian floats. Lossless bricks
+ * are the bits of each float exclusive-ored with those of the previous
+ * float, with the four bytes of those ints shuffled into four planes, so
+ * that slowly varying high-order bytes are contiguous, and then deflated.
+ * Lossy bricks are floats quantized to integer multiples of twice the
+ * maximum error, differenced, shuffled and deflated in the same way.
+ * <p>
+ * If quantization would overflow an int, a lossy brick is instead encoded
+ * without loss. Also, if compression would not reduce the size of a brick,
+ * then the brick is encoded raw.
+ * @author agent
+ * @version 2026.10.18
+ */
+class BrickCodec {
+
+  // Encodings of bricks.
+  static final int RAW = 0;
+  static final int LOSSLESS = 1;
+  static final int LOSSY = 2;
+
+  /**
+   * Returns bytes for the specified floats.
+   * @param x array of floats to encode.
+   * @param n number of floats to encode.
+   * @param encoding the preferred encoding.
+   * @param error maximum absolute error for lossy encoding.
+   * @return array of encoded bytes.
+   */
+  static byte[] encode(float[] x, int n, int encoding, float error) {
+    int[] k = new int[n];
+    if (encoding==LOSSY && !quantize(x,n,error,k))
+      encoding = LOSSLESS;
+    if (encoding==LOSSLESS) {
+      for (int i=0,kp=0; i<n; ++i) {
+        int ki = Float.floatToRawIntBits(x[i]);
+        k[i] = ki^kp;
+        kp = ki;
+      }
+    }
+    byte[] b;
+    if (encoding!=RAW) {
+      b = deflate(shuffle(k,n),encoding);
+      if (b!=null && b.length<1+4*n)
+        return b;
+    }
+    b = new byte[1+4*n];
+    b[0] = RAW;
+    for (int i=0,j=1; i<n; ++i) {
+      int ki = Float.floatToRawIntBits(x[i]);
+      b[j++] = (byte)(ki>>>24);
+      b[j++] = (byte)(ki>>>16);
+      b[j++] = (byte)(ki>>> 8);
+      b[j++] = (byte)(ki     );
+    }
+    return b;
+  }
+
+  /**
+   * Decodes the specified bytes into floats.
+   * @param b array of encoded bytes.
+   * @param nb number of encoded bytes.
+   * @param error maximum absolute error for lossy encoding.
+   * @param x array of decoded floats.
+   * @param n number of floats to decode.
+   */
+  static void decode(byte[] b, int nb, float error, float[] x, int n)
+    throws IOException
+  {
+    int encoding = b[0];
+    if (encoding==RAW) {
+      for (int i=0,j=1; i<n; ++i,j+=4) {
+        int ki = ((b[j  ]&0xff)<<24) |
+                 ((b[j+1]&0xff)<<16) |
+                 ((b[j+2]&0xff)<< 8) |
+                 ((b[j+3]&0xff)    );
+        x[i] = Float.intBitsToFloat(ki);
+      }
+      return;
+    }
+    int[] k = unshuffle(inflate(b,nb,4*n),n);
+    if (encoding==LOSSLESS) {
+      for (int i=0,kp=0; i<n; ++i) {
+        kp ^= k[i];
+        x[i] = Float.intBitsToFloat(kp);
+      }
+    } else if (encoding==LOSSY) {
+      double scale = 2.0*error;
+      for (int i=0,kp=0; i<n; ++i) {
+        kp += k[i];
+        x[i] = (float)(scale*kp);
+      }
+    } else {
+      throw new IOException("unknown brick encoding "+encoding);
+    }
+  }
+
+  ///////////////////////////////////////////////////////////////////////////
+  // private
+
+  // Quantizes floats to differences of integers, if possible.
+  private static boolean quantize(float[] x, int n, float error, int[] k) {
+    if (!(error>0.0f))
+      return false;
+    double scale = 0.5/error;
+    for (int i=0,kp=0; i<n; ++i) {
+      double qi = Math.rint(scale*x[i]);
+      if (!(Math.abs(qi)<(1<<30)))
+        return false;
+      int ki = (int)qi;
+      k[i] = ki-kp;
+      kp = ki;
+    }
+    return true;
+  }
+
+  // Shuffles bytes of ints into planes, most significant bytes first.
+  private static byte[] shuffle(int[] k, int n) {
+    byte[] b = new byte[4*n];
+    for (int i=0; i<n; ++i) {
+      int ki = k[i];
+      b[      i] = (byte)(ki>>>24);
+      b[  n+i] = (byte)(ki>>>16);
+      b[2*n+i] = (byte)(ki>>> 8);
+      b[3*n+i] = (byte)(ki     );
+    }
+    return b;
+  }
+
+  private static int[] unshuffle(byte[] b, int n) {
+    int[] k = new int[n];
+    for (int i=0; i<n; ++i) {
+      k[i] = ((b[      i]&0xff)<<24) |
+             ((b[  n+i]&0xff)<<16) |
+             ((b[2*n+i]&0xff)<< 8) |
+             ((b[3*n+i]&0xff)    );
+    }
+    return k;
+  }
+
+  // Deflates bytes, preceded by one byte for the specified encoding.
+  // Returns null if the deflated bytes would be larger than expected.
+  private static byte[] deflate(byte[] b, int encoding) {
+    Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+    deflater.setInput(b);
+    deflater.finish();
+    byte[] c = new byte[1+b.length+b.length/1000+64];
+    c[0] = (byte)encoding;
+    int nc = 1;
+    while (!deflater.finished() && nc<c.length)
+      nc += deflater.deflate(c,nc,c.length-nc);
+    boolean finished = deflater.finished();
+    deflater.end();
+    if (!finished)
+      return null;
+    byte[] d = new byte[nc];
+    System.arraycopy(c,0,d,0,nc);
+    return d;
+  }
+
+  // Inflates bytes following the first byte that specifies an encoding.
+  private static byte[] inflate(byte[] b, int nb, int n) throws IOException {
+    Inflater inflater = new Inflater();
+    inflater.setInput(b,1,nb-1);
+    byte[] c = new byte[n];
+    try {
+      for (int nc=0; nc<n; ) {
+        int m = inflater.inflate(c,nc,n-nc);
+        if (m==0 && (inflater.finished() || inflater.needsInput()))
+          throw new IOException("truncated brick");
+        nc += m;
+      }
+    } catch (DataFormatException e) {
+      throw new IOException(e);
+    } finally {
+      inflater.end();
+    }
+    return c;
+  }
+}
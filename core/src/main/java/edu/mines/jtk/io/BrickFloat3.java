@@ -0,0 +1,393 @@
+/****************************************************************************
+Copyright 2026, Colorado School of Mines and others.
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+****************************************************************************/
+package edu.mines.jtk.io;
+
+import java.io.*;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import edu.mines.jtk.util.Check;
+import edu.mines.jtk.util.Float3;
+import static edu.mines.jtk.util.ArrayMath.max;
+import static edu.mines.jtk.util.ArrayMath.min;
+
+/**
+ * A 3-D array of floats read from a brick file. Implements the generic
+ * interface {@link edu.mines.jtk.util.Float3} for files written by
+ * {@link BrickFloat3Writer}.
+ * <p>
+ * A brick file stores an array[n3][n2][n1] as bricks (small 3-D arrays)
+ * of up to nb*nb*nb floats, each optionally compressed. Because bricks
+ * are (typically) cubes, slices along any axis require reading only the
+ * bricks that intersect those slices. Decoded bricks are kept in a cache
+ * of recently used bricks, so that adjacent slices often require no
+ * reading from the file at all.
+ * <p>
+ * A brick file begins with a header with array dimensions, brick size,
+ * compression, and the offset of an index of bricks, all written by an
+ * {@link ArrayFile} with BIG_ENDIAN byte order. The index at the end of
+ * the file contains the byte offsets and lengths of all bricks.
+ * <p>
+ * Brick files are read-only; methods that set elements throw an
+ * {@link java.lang.UnsupportedOperationException}.
+ * @author agent
+ * @version 2026.10.18
+ */
+public class BrickFloat3 implements Float3, Closeable {
+
+  /**
+   * Compression of floats in bricks.
+   */
+  public enum Compression {
+    /**
+     * Floats are not compressed.
+     */
+    NONE,
+    /**
+     * Floats are compressed without loss.
+     */
+    LOSSLESS,
+    /**
+     * Floats are compressed with a specified maximum absolute error.
+     */
+    LOSSY
+  }
+
+  /**
+   * Constructs an array for the specified brick file.
+   * @param file the brick file.
+   */
+  public BrickFloat3(File file) throws IOException {
+    this(file,64);
+  }
+
+  /**
+   * Constructs an array for the specified brick file and cache size.
+   * @param file the brick file.
+   * @param ncache maximum number of decoded bricks cached.
+   */
+  public BrickFloat3(File file, int ncache) throws IOException {
+    Check.argument(ncache>0,"ncache>0");
+    _af = new ArrayFile(file,"r");
+    if (_af.readInt()!=MAGIC)
+      throw new IOException("not a brick file: "+file);
+    if (_af.readInt()!=VERSION)
+      throw new IOException("unsupported brick file version: "+file);
+    _n1 = _af.readInt();
+    _n2 = _af.readInt();
+    _n3 = _af.readInt();
+    _nb = _af.readInt();
+    _compression = Compression.values()[_af.readInt()];
+    _error = _af.readFloat();
+    long offset = _af.readLong();
+    if (offset==0L)
+      throw new IOException("incomplete brick file: "+file);
+    _nb1 = 1+(_n1-1)/_nb;
+    _nb2 = 1+(_n2-1)/_nb;
+    _nb3 = 1+(_n3-1)/_nb;
+    int nbrick = _nb1*_nb2*_nb3;
+    _offsets = new long[nbrick];
+    _lengths = new int[nbrick];
+    _af.seek(offset);
+    _af.readLongs(_offsets);
+    _af.readInts(_lengths);
+    _ncache = ncache;
+    _cache = new LinkedHashMap<Integer,float[]>(16,0.75f,true) {
+      protected boolean removeEldestEntry(Map.Entry<Integer,float[]> e) {
+        return size()>_ncache;
+      }
+    };
+  }
+
+  /**
+   * Gets the number of floats along each edge of a brick.
+   * @return the brick size.
+   */
+  public int getBrickSize() {
+    return _nb;
+  }
+
+  /**
+   * Gets the compression of floats in bricks.
+   * @return the compression.
+   */
+  public Compression getCompression() {
+    return _compression;
+  }
+
+  /**
+   * Gets the maximum absolute error for lossy compression.
+   * @return the maximum error; zero, if compression is not lossy.
+   */
+  public float getMaxError() {
+    return (_compression==Compression.LOSSY)?_error:0.0f;
+  }
+
+  /**
+   * Gets the number of bricks read and decoded so far. This number
+   * does not include bricks found in the cache.
+   * @return the number of bricks read.
+   */
+  public synchronized long getBricksRead() {
+    return _nread;
+  }
+
+  /**
+   * Closes the brick file.
+   */
+  public synchronized void close() throws IOException {
+    _cache.clear();
+    _af.close();
+  }
+
+  ///////////////////////////////////////////////////////////////////////////
+  // interface Float3
+
+  public int getN1() {
+    return _n1;
+  }
+
+  public int getN2() {
+    return _n2;
+  }
+
+  public int getN3() {
+    return _n3;
+  }
+
+  public void get1(int m1, int j1, int j2, int j3, final float[] s) {
+    get(m1,1,1,j1,j2,j3,new Sink() {
+      public void put(float[] b, int k, int i1, int i2, int i3, int n) {
+        System.arraycopy(b,k,s,i1,n);
+      }
+    });
+  }
+
+  public void get2(int m2, int j1, int j2, int j3, final float[] s) {
+    get(1,m2,1,j1,j2,j3,new Sink() {
+      public void put(float[] b, int k, int i1, int i2, int i3, int n) {
+        s[i2] = b[k];
+      }
+    });
+  }
+
+  public void get3(int m3, int j1, int j2, int j3, final float[] s) {
+    get(1,1,m3,j1,j2,j3,new Sink() {
+      public void put(float[] b, int k, int i1, int i2, int i3, int n) {
+        s[i3] = b[k];
+      }
+    });
+  }
+
+  public void get12(
+    int m1, int m2, int j1, int j2, int j3, final float[][] s)
+  {
+    get(m1,m2,1,j1,j2,j3,new Sink() {
+      public void put(float[] b, int k, int i1, int i2, int i3, int n) {
+        System.arraycopy(b,k,s[i2],i1,n);
+      }
+    });
+  }
+
+  public void get13(
+    int m1, int m3, int j1, int j2, int j3, final float[][] s)
+  {
+    get(m1,1,m3,j1,j2,j3,new Sink() {
+      public void put(float[] b, int k, int i1, int i2, int i3, int n) {
+        System.arraycopy(b,k,s[i3],i1,n);
+      }
+    });
+  }
+
+  public void get23(
+    int m2, int m3, int j1, int j2, int j3, final float[][] s)
+  {
+    get(1,m2,m3,j1,j2,j3,new Sink() {
+      public void put(float[] b, int k, int i1, int i2, int i3, int n) {
+        s[i3][i2] = b[k];
+      }
+    });
+  }
+
+  public void get123(
+    int m1, int m2, int m3,
+    int j1, int j2, int j3,
+    final float[][][] s)
+  {
+    get(m1,m2,m3,j1,j2,j3,new Sink() {
+      public void put(float[] b, int k, int i1, int i2, int i3, int n) {
+        System.arraycopy(b,k,s[i3][i2],i1,n);
+      }
+    });
+  }
+
+  public void get123(
+    final int m1, final int m2, int m3,
+    int j1, int j2, int j3,
+    final float[] s)
+  {
+    get(m1,m2,m3,j1,j2,j3,new Sink() {
+      public void put(float[] b, int k, int i1, int i2, int i3, int n) {
+        System.arraycopy(b,k,s,i1+m1*(i2+m2*i3),n);
+      }
+    });
+  }
+
+  public void set1(int m1, int j1, int j2, int j3, float[] s) {
+    throw new UnsupportedOperationException("brick file is read-only");
+  }
+
+  public void set2(int m2, int j1, int j2, int j3, float[] s) {
+    throw new UnsupportedOperationException("brick file is read-only");
+  }
+
+  public void set3(int m3, int j1, int j2, int j3, float[] s) {
+    throw new UnsupportedOperationException("brick file is read-only");
+  }
+
+  public void set12(int m1, int m2, int j1, int j2, int j3, float[][] s) {
+    throw new UnsupportedOperationException("brick file is read-only");
+  }
+
+  public void set13(int m1, int m3, int j1, int j2, int j3, float[][] s) {
+    throw new UnsupportedOperationException("brick file is read-only");
+  }
+
+  public void set23(int m2, int m3, int j1, int j2, int j3, float[][] s) {
+    throw new UnsupportedOperationException("brick file is read-only");
+  }
+
+  public void set123(
+    int m1, int m2, int m3,
+    int j1, int j2, int j3,
+    float[][][] s)
+  {
+    throw new UnsupportedOperationException("brick file is read-only");
+  }
+
+  public void set123(
+    int m1, int m2, int m3,
+    int j1, int j2, int j3,
+    float[] s)
+  {
+    throw new UnsupportedOperationException("brick file is read-only");
+  }
+
+  ///////////////////////////////////////////////////////////////////////////
+  // package
+
+  static final int MAGIC = 0x4a544b42; // "JTKB"
+  static final int VERSION = 1;
+
+  static void writeHeader(
+    ArrayFile af, int n1, int n2, int n3, int nb,
+    Compression compression, float error, long offset)
+    throws IOException
+  {
+    af.writeInt(MAGIC);
+    af.writeInt(VERSION);
+    af.writeInt(n1);
+    af.writeInt(n2);
+    af.writeInt(n3);
+    af.writeInt(nb);
+    af.writeInt(compression.ordinal());
+    af.writeFloat(error);
+    af.writeLong(offset);
+  }
+
+  static int encoding(Compression compression) {
+    if (compression==Compression.LOSSLESS) {
+      return BrickCodec.LOSSLESS;
+    } else if (compression==Compression.LOSSY) {
+      return BrickCodec.LOSSY;
+    } else {
+      return BrickCodec.RAW;
+    }
+  }
+
+  ///////////////////////////////////////////////////////////////////////////
+  // private
+
+  private int _n1,_n2,_n3; // array dimensions
+  private int _nb; // brick size
+  private int _nb1,_nb2,_nb3; // numbers of bricks
+  private Compression _compression;
+  private float _error; // maximum error for lossy compression
+  private long[] _offsets; // byte offsets of bricks in file
+  private int[] _lengths; // byte lengths of bricks in file
+  private ArrayFile _af;
+  private int _ncache; // maximum number of cached bricks
+  private LinkedHashMap<Integer,float[]> _cache; // least recently used first
+  private byte[] _bytes = new byte[0]; // encoded bytes for one brick
+  private long _nread; // number of bricks read
+
+  // Receives n contiguous floats b[k:k+n-1] for subarray indices
+  // (i1:i1+n-1,i2,i3). Indices are relative to the first element in
+  // the subarray.
+  private interface Sink {
+    public void put(float[] b, int k, int i1, int i2, int i3, int n);
+  }
+
+  // Puts all floats in the specified subarray, brick by brick.
+  private void get(
+    int m1, int m2, int m3,
+    int j1, int j2, int j3,
+    Sink sink)
+  {
+    int l1 = j1+m1-1, l2 = j2+m2-1, l3 = j3+m3-1;
+    for (int k3=j3/_nb; k3<=l3/_nb; ++k3) {
+      int o3 = k3*_nb, c3 = min(_nb,_n3-o3);
+      int i3b = max(j3,o3), i3e = min(l3,o3+c3-1);
+      for (int k2=j2/_nb; k2<=l2/_nb; ++k2) {
+        int o2 = k2*_nb, c2 = min(_nb,_n2-o2);
+        int i2b = max(j2,o2), i2e = min(l2,o2+c2-1);
+        for (int k1=j1/_nb; k1<=l1/_nb; ++k1) {
+          int o1 = k1*_nb, c1 = min(_nb,_n1-o1);
+          int i1b = max(j1,o1), i1e = min(l1,o1+c1-1);
+          int n1 = 1+i1e-i1b;
+          float[] b = brick(k1,k2,k3,c1*c2*c3);
+          for (int i3=i3b; i3<=i3e; ++i3) {
+            for (int i2=i2b; i2<=i2e; ++i2) {
+              int k = i1b-o1+c1*(i2-o2+c2*(i3-o3));
+              sink.put(b,k,i1b-j1,i2-j2,i3-j3,n1);
+            }
+          }
+        }
+      }
+    }
+  }
+
+  // Returns the decoded brick with specified indices and size.
+  private synchronized float[] brick(int k1, int k2, int k3, int n) {
+    Integer kb = k1+_nb1*(k2+_nb2*k3);
+    float[] b = _cache.get(kb);
+    if (b==null) {
+      int nb = _lengths[kb];
+      if (_bytes.length<nb)
+        _bytes = new byte[nb];
+      b = new float[n];
+      try {
+        _af.seek(_offsets[kb]);
+        _af.readFully(_bytes,0,nb);
+        BrickCodec.decode(_bytes,nb,_error,b,n);
+      } catch (IOException e) {
+        throw new RuntimeException(e);
+      }
+      _cache.put(kb,b);
+      ++_nread;
+    }
+    return b;
+  }
+}
@@ -0,0 +1,177 @@
+/****************************************************************************
+Copyright 2026, Colorado School of Mines and others.
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+****************************************************************************/
+package edu.mines.jtk.io;
+
+import java.io.*;
+
+import edu.mines.jtk.util.Check;
+import static edu.mines.jtk.util.ArrayMath.min;
+
+/**
+ * Writes a 3-D array of floats to a brick file, one slice at a time.
+ * A brick file stores the array[n3][n2][n1] as bricks (small 3-D arrays)
+ * of up to nb*nb*nb floats, each optionally compressed. Brick files are
+ * read by {@link BrickFloat3}, which reads only those bricks required
+ * for any subarray, so that slicing along any axis is efficient.
+ * <p>
+ * Slices array[i3][n2][n1] must be written in order of increasing i3.
+ * This writer buffers nb slices, the number required to complete one
+ * layer of bricks, before compressing and writing those bricks. The file
+ * is complete only after this writer is closed.
+ * @author agent
+ * @version 2026.10.18
+ */
+public class BrickFloat3Writer implements Closeable {
+
+  /**
+   * Constructs a writer with default brick size and no compression.
+   * @param file the file.
+   * @param n1 the 1st dimension of the array[n3][n2][n1].
+   * @param n2 the 2nd dimension of the array[n3][n2][n1].
+   * @param n3 the 3rd dimension of the array[n3][n2][n1].
+   */
+  public BrickFloat3Writer(File file, int n1, int n2, int n3)
+    throws IOException
+  {
+    this(file,n1,n2,n3,64,BrickFloat3.Compression.NONE,0.0f);
+  }
+
+  /**
+   * Constructs a writer with specified brick size and compression.
+   * @param file the file.
+   * @param n1 the 1st dimension of the array[n3][n2][n1].
+   * @param n2 the 2nd dimension of the array[n3][n2][n1].
+   * @param n3 the 3rd dimension of the array[n3][n2][n1].
+   * @param nb the number of floats along each edge of a brick.
+   * @param compression the compression.
+   * @param error maximum absolute error, for lossy compression only.
+   */
+  public BrickFloat3Writer(
+    File file, int n1, int n2, int n3,
+    int nb, BrickFloat3.Compression compression, float error)
+    throws IOException
+  {
+    Check.argument(n1>0 && n2>0 && n3>0,"n1>0 && n2>0 && n3>0");
+    Check.argument(nb>0 && (long)nb*nb*nb<=(1<<26),"valid brick size");
+    Check.argument(compression!=BrickFloat3.Compression.LOSSY || error>0.0f,
+      "error>0 for lossy compression");
+    _n1 = n1;
+    _n2 = n2;
+    _n3 = n3;
+    _nb = nb;
+    _nb1 = 1+(n1-1)/nb;
+    _nb2 = 1+(n2-1)/nb;
+    _nb3 = 1+(n3-1)/nb;
+    _compression = compression;
+    _error = error;
+    _slab = new float[min(nb,n3)][n2][n1];
+    _brick = new float[nb*nb*nb];
+    int nbrick = _nb1*_nb2*_nb3;
+    _offsets = new long[nbrick];
+    _lengths = new int[nbrick];
+    if (file.exists() && !file.delete())
+      throw new IOException("cannot replace file "+file);
+    _af = new ArrayFile(file,"rw");
+    BrickFloat3.writeHeader(_af,n1,n2,n3,nb,compression,error,0L);
+  }
+
+  /**
+   * Writes the next slice array[i3][n2][n1] of the 3-D array.
+   * @param x array[n2][n1] of floats in the slice.
+   */
+  public void writeSlice(float[][] x) throws IOException {
+    Check.state(_i3<_n3,"fewer than n3 slices written");
+    Check.argument(x.length==_n2 && x[0].length==_n1,
+      "x.length==n2 && x[0].length==n1");
+    float[][] s = _slab[_i3%_nb];
+    for (int i2=0; i2<_n2; ++i2)
+      System.arraycopy(x[i2],0,s[i2],0,_n1);
+    ++_i3;
+    if (_i3%_nb==0 || _i3==_n3)
+      writeBricks();
+  }
+
+  /**
+   * Writes all slices array[n3][n2][n1] of the 3-D array.
+   * @param x array[n3][n2][n1] of floats.
+   */
+  public void write(float[][][] x) throws IOException {
+    for (float[][] x3:x)
+      writeSlice(x3);
+  }
+
+  /**
+   * Writes the index of bricks and closes the file.
+   * All slices must have been written.
+   */
+  public void close() throws IOException {
+    if (_af==null)
+      return;
+    try {
+      Check.state(_i3==_n3,"all n3 slices written");
+      long offset = _af.length();
+      _af.seek(offset);
+      _af.writeLongs(_offsets);
+      _af.writeInts(_lengths);
+      _af.seek(0);
+      BrickFloat3.writeHeader(
+        _af,_n1,_n2,_n3,_nb,_compression,_error,offset);
+    } finally {
+      _af.close();
+      _af = null;
+    }
+  }
+
+  ///////////////////////////////////////////////////////////////////////////
+  // private
+
+  private int _n1,_n2,_n3; // array dimensions
+  private int _nb; // brick size
+  private int _nb1,_nb2,_nb3; // numbers of bricks
+  private BrickFloat3.Compression _compression;
+  private float _error; // maximum error for lossy compression
+  private float[][][] _slab; // buffered slices for one layer of bricks
+  private float[] _brick; // floats for one brick
+  private long[] _offsets; // byte offsets of bricks in file
+  private int[] _lengths; // byte lengths of bricks in file
+  private ArrayFile _af;
+  private int _i3; // number of slices written so far
+
+  // Compresses and writes all bricks in the current slab.
+  private void writeBricks() throws IOException {
+    int k3 = (_i3-1)/_nb;
+    int j3 = k3*_nb;
+    int m3 = _i3-j3;
+    int encoding = BrickFloat3.encoding(_compression);
+    _af.seek(_af.length());
+    for (int k2=0; k2<_nb2; ++k2) {
+      int j2 = k2*_nb;
+      int m2 = min(_nb,_n2-j2);
+      for (int k1=0; k1<_nb1; ++k1) {
+        int j1 = k1*_nb;
+        int m1 = min(_nb,_n1-j1);
+        for (int i3=0,i=0; i3<m3; ++i3) {
+          for (int i2=0; i2<m2; ++i2,i+=m1)
+            System.arraycopy(_slab[i3][j2+i2],j1,_brick,i,m1);
+        }
+        byte[] b = BrickCodec.encode(_brick,m1*m2*m3,encoding,_error);
+        int kb = k1+_nb1*(k2+_nb2*k3);
+        _offsets[kb] = _af.getFilePointer();
+        _lengths[kb] = b.length;
+        _af.write(b);
+      }
+    }
+  }
+}
@@ -0,0 +1,371 @@
+/****************************************************************************
+Copyright 2026, Colorado School of Mines and others.
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+****************************************************************************/
+package edu.mines.jtk.io;
+
+import java.io.*;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import edu.mines.jtk.util.Check;
+import edu.mines.jtk.util.Float3;
+import static edu.mines.jtk.util.ArrayMath.min;
+
+/**
+ * A 3-D array of floats stored in a memory-mapped file. Implements the
+ * generic interface {@link edu.mines.jtk.util.Float3} for a file of floats
+ * like those written by {@link ArrayFile#writeFloats(float[][][])}, without
+ * reading all of those floats into memory.
+ * <p>
+ * The file is mapped in windows of a specified number of floats. Only a
+ * limited number of windows are mapped at any time, so that the file may
+ * be much larger than the available memory. Contiguous subarrays, such as
+ * those accessed by get1, get12, and get13, are copied with bulk transfers
+ * directly between the mapped windows and the specified arrays, without
+ * any intermediate buffer.
+ * <p>
+ * As for array files, the default byte order is BIG_ENDIAN. Elements may
+ * be set only if the file was opened with access mode "rw".
+ * @author agent
+ * @version 2026.10.18
+ */
+public class MappedFloat3 implements Float3, Closeable {
+
+  /**
+   * Constructs a mapped array for the specified file name and access mode.
+   * @param name the file name.
+   * @param mode the access mode; "r" or "rw".
+   * @param n1 the 1st dimension of the array[n3][n2][n1].
+   * @param n2 the 2nd dimension of the array[n3][n2][n1].
+   * @param n3 the 3rd dimension of the array[n3][n2][n1].
+   */
+  public MappedFloat3(String name, String mode, int n1, int n2, int n3)
+    throws IOException
+  {
+    this(new File(name),mode,ByteOrder.BIG_ENDIAN,0L,n1,n2,n3);
+  }
+
+  /**
+   * Constructs a mapped array for the specified file, access mode, byte
+   * order and byte offset of the first element in the file.
+   * @param file the file.
+   * @param mode the access mode; "r" or "rw".
+   * @param order the byte order of floats in the file.
+   * @param offset the offset in bytes of the first element.
+   * @param n1 the 1st dimension of the array[n3][n2][n1].
+   * @param n2 the 2nd dimension of the array[n3][n2][n1].
+   * @param n3 the 3rd dimension of the array[n3][n2][n1].
+   */
+  public MappedFloat3(
+    File file, String mode, ByteOrder order, long offset,
+    int n1, int n2, int n3)
+    throws IOException
+  {
+    this(file,mode,order,offset,n1,n2,n3,WINDOW_SIZE);
+  }
+
+  /**
+   * Constructs a mapped array with a specified window size.
+   * @param file the file.
+   * @param mode the access mode; "r" or "rw".
+   * @param order the byte order of floats in the file.
+   * @param offset the offset in bytes of the first element.
+   * @param n1 the 1st dimension of the array[n3][n2][n1].
+   * @param n2 the 2nd dimension of the array[n3][n2][n1].
+   * @param n3 the 3rd dimension of the array[n3][n2][n1].
+   * @param nw the number of floats in each mapped window.
+   */
+  public MappedFloat3(
+    File file, String mode, ByteOrder order, long offset,
+    int n1, int n2, int n3, int nw)
+    throws IOException
+  {
+    Check.argument(mode.equals("r") || mode.equals("rw"),
+      "mode is \"r\" or \"rw\"");
+    Check.argument(0<nw && nw<=Integer.MAX_VALUE/4,
+      "0<nw && nw<=Integer.MAX_VALUE/4");
+    _n1 = n1;
+    _n2 = n2;
+    _n3 = n3;
+    _nw = nw;
+    _order = order;
+    _offset = offset;
+    _raf = new RandomAccessFile(file,mode);
+    _fc = _raf.getChannel();
+    _mode = (mode.equals("r")) ?
+      FileChannel.MapMode.READ_ONLY :
+      FileChannel.MapMode.READ_WRITE;
+    _windows = new LinkedHashMap<Long,Window>(16,0.75f,true) {
+      protected boolean removeEldestEntry(Map.Entry<Long,Window> e) {
+        if (size()<=MAX_WINDOWS)
+          return false;
+        force(e.getValue());
+        return true;
+      }
+    };
+  }
+
+  /**
+   * Gets the byte order of floats in the file.
+   * @return the byte order.
+   */
+  public ByteOrder getByteOrder() {
+    return _order;
+  }
+
+  /**
+   * Gets the number of floats in each mapped window.
+   * @return the window size.
+   */
+  public int getWindowSize() {
+    return _nw;
+  }
+
+  /**
+   * Forces any changes made to mapped windows to be written to the file.
+   */
+  public synchronized void flush() {
+    for (Window w:_windows.values())
+      force(w);
+  }
+
+  /**
+   * Flushes any changes and closes the file. Windows that remain mapped
+   * are released when they are garbage collected.
+   */
+  public synchronized void close() throws IOException {
+    flush();
+    _windows.clear();
+    _raf.close();
+  }
+
+  ///////////////////////////////////////////////////////////////////////////
+  // interface Float3
+
+  public int getN1() {
+    return _n1;
+  }
+
+  public int getN2() {
+    return _n2;
+  }
+
+  public int getN3() {
+    return _n3;
+  }
+
+  public void get1(int m1, int j1, int j2, int j3, float[] s) {
+    get(index(j1,j2,j3),s,0,m1);
+  }
+
+  public void get2(int m2, int j1, int j2, int j3, float[] s) {
+    long i = index(j1,j2,j3);
+    for (int i2=0; i2<m2; ++i2,i+=_n1)
+      s[i2] = get(i);
+  }
+
+  public void get3(int m3, int j1, int j2, int j3, float[] s) {
+    long i = index(j1,j2,j3);
+    long n12 = (long)_n1*_n2;
+    for (int i3=0; i3<m3; ++i3,i+=n12)
+      s[i3] = get(i);
+  }
+
+  public void get12(int m1, int m2, int j1, int j2, int j3, float[][] s) {
+    for (int i2=0; i2<m2; ++i2)
+      get(index(j1,j2+i2,j3),s[i2],0,m1);
+  }
+
+  public void get13(int m1, int m3, int j1, int j2, int j3, float[][] s) {
+    for (int i3=0; i3<m3; ++i3)
+      get(index(j1,j2,j3+i3),s[i3],0,m1);
+  }
+
+  public void get23(int m2, int m3, int j1, int j2, int j3, float[][] s) {
+    for (int i3=0; i3<m3; ++i3)
+      get2(m2,j1,j2,j3+i3,s[i3]);
+  }
+
+  public void get123(
+    int m1, int m2, int m3,
+    int j1, int j2, int j3,
+    float[][][] s)
+  {
+    for (int i3=0; i3<m3; ++i3)
+      get12(m1,m2,j1,j2,j3+i3,s[i3]);
+  }
+
+  public void get123(
+    int m1, int m2, int m3,
+    int j1, int j2, int j3,
+    float[] s)
+  {
+    if (m1==_n1 && m2==_n2) {
+      get(index(0,0,j3),s,0,m1*m2*m3);
+    } else {
+      for (int i3=0,is=0; i3<m3; ++i3) {
+        for (int i2=0; i2<m2; ++i2,is+=m1)
+          get(index(j1,j2+i2,j3+i3),s,is,m1);
+      }
+    }
+  }
+
+  public void set1(int m1, int j1, int j2, int j3, float[] s) {
+    set(index(j1,j2,j3),s,0,m1);
+  }
+
+  public void set2(int m2, int j1, int j2, int j3, float[] s) {
+    long i = index(j1,j2,j3);
+    for (int i2=0; i2<m2; ++i2,i+=_n1)
+      set(i,s[i2]);
+  }
+
+  public void set3(int m3, int j1, int j2, int j3, float[] s) {
+    long i = index(j1,j2,j3);
+    long n12 = (long)_n1*_n2;
+    for (int i3=0; i3<m3; ++i3,i+=n12)
+      set(i,s[i3]);
+  }
+
+  public void set12(int m1, int m2, int j1, int j2, int j3, float[][] s) {
+    for (int i2=0; i2<m2; ++i2)
+      set(index(j1,j2+i2,j3),s[i2],0,m1);
+  }
+
+  public void set13(int m1, int m3, int j1, int j2, int j3, float[][] s) {
+    for (int i3=0; i3<m3; ++i3)
+      set(index(j1,j2,j3+i3),s[i3],0,m1);
+  }
+
+  public void set23(int m2, int m3, int j1, int j2, int j3, float[][] s) {
+    for (int i3=0; i3<m3; ++i3)
+      set2(m2,j1,j2,j3+i3,s[i3]);
+  }
+
+  public void set123(
+    int m1, int m2, int m3,
+    int j1, int j2, int j3,
+    float[][][] s)
+  {
+    for (int i3=0; i3<m3; ++i3)
+      set12(m1,m2,j1,j2,j3+i3,s[i3]);
+  }
+
+  public void set123(
+    int m1, int m2, int m3,
+    int j1, int j2, int j3,
+    float[] s)
+  {
+    if (m1==_n1 && m2==_n2) {
+      set(index(0,0,j3),s,0,m1*m2*m3);
+    } else {
+      for (int i3=0,is=0; i3<m3; ++i3) {
+        for (int i2=0; i2<m2; ++i2,is+=m1)
+          set(index(j1,j2+i2,j3+i3),s,is,m1);
+      }
+    }
+  }
+
+  ///////////////////////////////////////////////////////////////////////////
+  // private
+
+  // Default number of floats per window (64 MB) and max number of windows.
+  private static final int WINDOW_SIZE = 1<<24;
+  private static final int MAX_WINDOWS = 16;
+
+  private int _n1,_n2,_n3; // array dimensions
+  private int _nw; // number of floats per window
+  private ByteOrder _order; // byte order of floats in file
+  private long _offset; // byte offset of first float in file
+  private RandomAccessFile _raf;
+  private FileChannel _fc;
+  private FileChannel.MapMode _mode;
+  private LinkedHashMap<Long,Window> _windows; // least recently used first
+
+  // A mapped window and its view as a buffer of floats.
+  private static class Window {
+    MappedByteBuffer mbb;
+    FloatBuffer fb;
+  }
+
+  private void force(Window w) {
+    if (_mode==FileChannel.MapMode.READ_WRITE)
+      w.mbb.force();
+  }
+
+  private long index(int i1, int i2, int i3) {
+    return i1+(long)_n1*(i2+(long)_n2*i3);
+  }
+
+  // Returns a buffer for the window that contains the float with index i.
+  // The returned buffer is a duplicate, so that its position may be changed
+  // without synchronization.
+  private synchronized FloatBuffer window(long i) {
+    Long iw = i/_nw;
+    Window w = _windows.get(iw);
+    if (w==null) {
+      long n = (long)_n1*_n2*_n3;
+      long j = iw*_nw;
+      int m = (int)min(_nw,n-j);
+      try {
+        w = new Window();
+        w.mbb = _fc.map(_mode,_offset+4L*j,4L*m);
+        w.mbb.order(_order);
+        w.fb = w.mbb.asFloatBuffer();
+        _windows.put(iw,w);
+      } catch (IOException e) {
+        throw new RuntimeException(e);
+      }
+    }
+    return w.fb.duplicate();
+  }
+
+  private float get(long i) {
+    return window(i).get((int)(i%_nw));
+  }
+
+  private void set(long i, float v) {
+    window(i).put((int)(i%_nw),v);
+  }
+
+  private void get(long i, float[] s, int k, int n) {
+    while (n>0) {
+      FloatBuffer fb = window(i);
+      int j = (int)(i%_nw);
+      int m = min(n,fb.limit()-j);
+      fb.position(j);
+      fb.get(s,k,m);
+      i += m;
+      k += m;
+      n -= m;
+    }
+  }
+
+  private void set(long i, float[] s, int k, int n) {
+    while (n>0) {
+      FloatBuffer fb = window(i);
+      int j = (int)(i%_nw);
+      int m = min(n,fb.limit()-j);
+      fb.position(j);
+      fb.put(s,k,m);
+      i += m;
+      k += m;
+      n -= m;
+    }
+  }
+}
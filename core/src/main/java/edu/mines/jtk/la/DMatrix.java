@@ -690,21 +690,37 @@ public class DMatrix {
     Check.argument(_n==b._m,
       "number of columns in A equals number of rows in B");
     DMatrix c = new DMatrix(_m,b._n);
-    double[][] aa = _a;
-    double[][] ba = b._a;
-    double[][] ca = c._a;
-    double[] bj = new double[_n];
-    for (int j=0; j<b._n; ++j) {
-      for (int k=0; k<_n; ++k)
-        bj[k] = ba[k][j];
-      for (int i=0; i<_m; ++i) {
-        double[] ai = aa[i];
-        double s = 0.0;
-        for (int k=0; k<_n; ++k)
-          s += ai[k]*bj[k];
-        ca[i][j] = s;
-      }
-    }
+    DMatrixGemm.gemm(false,false,_m,b._n,_n,1.0,_a,0,0,b._a,0,0,0.0,c._a,0,0);
+    return c;
+  }
+
+  /**
+   * Returns C = A * B', where A is this matrix and B' is B transposed. 
+   * The number of columns in this matrix A must equal the number of 
+   * columns in the specified matrix B.
+   * @param b the matrix B.
+   * @return C = A * B'.
+   */
+  public DMatrix timesTranspose(DMatrix b) {
+    Check.argument(_n==b._n,
+      "number of columns in A equals number of columns in B");
+    DMatrix c = new DMatrix(_m,b._m);
+    DMatrixGemm.gemm(false,true,_m,b._m,_n,1.0,_a,0,0,b._a,0,0,0.0,c._a,0,0);
+    return c;
+  }
+
+  /**
+   * Returns C = A' * B, where A' is this matrix transposed. 
+   * The number of rows in this matrix A must equal the number of 
+   * rows in the specified matrix B.
+   * @param b the matrix B.
+   * @return C = A' * B.
+   */
+  public DMatrix transposeTimes(DMatrix b) {
+    Check.argument(_m==b._m,
+      "number of rows in A equals number of rows in B");
+    DMatrix c = new DMatrix(_n,b._n);
+    DMatrixGemm.gemm(true,false,_n,b._n,_m,1.0,_a,0,0,b._a,0,0,0.0,c._a,0,0);
     return c;
   }
 
@@ -0,0 +1,221 @@
+/****************************************************************************
+Copyright 2026, Colorado School of Mines and others.
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+****************************************************************************/
+package edu.mines.jtk.la;
+
+import static java.lang.Math.min;
+import static java.lang.Math.sqrt;
+import static edu.mines.jtk.util.ArrayMath.copy;
+
+import edu.mines.jtk.util.Check;
+import edu.mines.jtk.util.Parallel;
+
+/**
+ * Cholesky decomposition of a symmetric positive-definite matrix A.
+ * For a symmetric positive-definite matrix A, the Cholesky decomposition
+ * is A = L*L', where L is a lower triangular matrix.
+ * <p>
+ * The decomposition is computed in blocks of columns, so that most of the
+ * work is performed by a parallel blocked matrix-matrix multiply.
+ * @author agent
+ * @version 2026.10.18
+ */
+public class DMatrixChd {
+
+  /**
+   * Constructs a Cholesky decomposition of the specified matrix A.
+   * The matrix A must be symmetric. For efficiency, this condition
+   * is assumed and not checked. That is, only the lower triangular
+   * part of A is used to perform the decomposition.
+   * @param a the matrix.
+   */
+  public DMatrixChd(DMatrix a) {
+    Check.argument(a.isSquare(),"A is square");
+    int n = _n = a.getN();
+    double[][] l = _l = a.get();
+
+    // A right-looking blocked algorithm. For each panel of NB columns,
+    // (1) factor the diagonal block, (2) solve for the block of L below
+    // that diagonal block, and (3) update the lower triangle of the
+    // trailing matrix with matrix-matrix multiplies.
+    _pd = true;
+    for (int k0=0; k0<n && _pd; k0+=NB) {
+      int k1 = min(k0+NB,n);
+      _pd = factorDiagonal(k0,k1);
+      if (_pd && k1<n) {
+        solveBlockColumn(k0,k1);
+        updateTrailing(k0,k1);
+      }
+    }
+
+    // Zero elements above lower triangle.
+    for (int i=0; i<n; ++i) {
+      for (int j=i+1; j<n; ++j) {
+        l[i][j] = 0.0;
+      }
+    }
+
+    _det = 1.0;
+    for (int i=0; i<n; ++i)
+      _det *= l[i][i];
+    _det = _det*_det;
+  }
+
+  /**
+   * Determines whether the matrix A is positive definite. (The matrix
+   * A was assumed to be symmetric when this decomposition was constructed.)
+   * If not symmetric and positive-definite, then this decomposition cannot
+   * be used to solve systems of linear equations.
+   * @return true, if positive-definite; false, otherwise.
+   */
+  public boolean isPositiveDefinite() {
+    return _pd;
+  }
+
+  /**
+   * Gets the lower triangular factor L.
+   * @return the factor L.
+   */
+  public DMatrix getL() {
+    return new DMatrix(_n,_n,copy(_l));
+  }
+
+  /**
+   * Returns the determinant of the matrix A.
+   * @return the determinant.
+   */
+  public double det() {
+    return _det;
+  }
+
+  /**
+   * Returns the solution X of the linear system A*X = B.
+   * The matrix A must be symmetric and positive-definite.
+   * Also, the matrices A and B must have the same number of rows.
+   * @param b the right-hand-side matrix B.
+   * @return the solution matrix X.
+   */
+  public DMatrix solve(DMatrix b) {
+    Check.argument(_n==b.getM(),"A and B have same number of rows");
+    Check.state(_pd,"A is positive-definite");
+    int n = _n;
+    int nx = b.getN();
+    double[][] l = _l;
+    double[][] x = b.get();
+
+    // Solve L*Y = B.
+    for (int i=0; i<n; ++i) {
+      double[] li = l[i];
+      double[] xi = x[i];
+      for (int k=0; k<i; ++k) {
+        double lik = li[k];
+        double[] xk = x[k];
+        for (int j=0; j<nx; ++j)
+          xi[j] -= lik*xk[j];
+      }
+      for (int j=0; j<nx; ++j)
+        xi[j] /= li[i];
+    }
+
+    // Solve L'*X = Y.
+    for (int k=n-1; k>=0; --k) {
+      double[] lk = l[k];
+      double[] xk = x[k];
+      for (int j=0; j<nx; ++j)
+        xk[j] /= lk[k];
+      for (int i=0; i<k; ++i) {
+        double lki = lk[i];
+        double[] xi = x[i];
+        for (int j=0; j<nx; ++j)
+          xi[j] -= lki*xk[j];
+      }
+    }
+    return new DMatrix(n,nx,x);
+  }
+
+  ///////////////////////////////////////////////////////////////////////////
+  // private
+
+  // Number of columns in each panel.
+  private static final int NB = 64;
+
+  private int _n; // number of rows equals number of columns
+  private double[][] _l; // factor L
+  private double _det; // determinant
+  private boolean _pd; // true, if A is positive-definite
+
+  /**
+   * Factors the diagonal block for columns [k0,k1) with an unblocked
+   * algorithm. Returns false if that block is not positive-definite.
+   */
+  private boolean factorDiagonal(int k0, int k1) {
+    double[][] l = _l;
+    for (int j=k0; j<k1; ++j) {
+      double[] lj = l[j];
+      double d = lj[j];
+      for (int k=k0; k<j; ++k)
+        d -= lj[k]*lj[k];
+      if (d<=0.0)
+        return false;
+      double ljj = lj[j] = sqrt(d);
+      for (int i=j+1; i<k1; ++i) {
+        double[] li = l[i];
+        double s = li[j];
+        for (int k=k0; k<j; ++k)
+          s -= li[k]*lj[k];
+        li[j] = s/ljj;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Solves L21*L11' = A21 for the block L21 of L below the diagonal block
+   * L11 for columns [k0,k1). Rows of L21 are computed in parallel.
+   */
+  private void solveBlockColumn(final int k0, final int k1) {
+    final double[][] l = _l;
+    Parallel.loop(k1,_n,new Parallel.LoopInt() {
+    public void compute(int i) {
+      double[] li = l[i];
+      for (int j=k0; j<k1; ++j) {
+        double[] lj = l[j];
+        double s = li[j];
+        for (int k=k0; k<j; ++k)
+          s -= li[k]*lj[k];
+        li[j] = s/lj[j];
+      }
+    }});
+  }
+
+  /**
+   * Updates the lower triangle of the trailing matrix A22 = A22-L21*L21'.
+   * Each block row of A22 is updated only up to and including its
+   * diagonal block, and block rows are updated in parallel. Elements
+   * above the diagonal are also updated, but are not used.
+   */
+  private void updateTrailing(final int k0, final int k1) {
+    final double[][] l = _l;
+    final int nk = k1-k0;
+    final int n = _n;
+    int nblock = (n-k1+NB-1)/NB;
+    Parallel.loop(nblock,new Parallel.LoopInt() {
+    public void compute(int iblock) {
+      int i0 = k1+iblock*NB;
+      int i1 = min(i0+NB,n);
+      DMatrixGemm.gemm(false,true,i1-i0,i1-k1,nk,-1.0,
+                       l,i0,k0,l,k1,k0,1.0,l,i0,k1);
+    }});
+  }
+}
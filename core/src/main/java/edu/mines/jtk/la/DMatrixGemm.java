@@ -0,0 +1,348 @@
+/****************************************************************************
+Copyright 2026, Colorado School of Mines and others.
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+****************************************************************************/
+package edu.mines.jtk.la;
+
+import static java.lang.Math.min;
+
+import edu.mines.jtk.util.Parallel;
+
+/**
+ * General matrix-matrix multiplication C = alpha*op(A)*op(B)+beta*C.
+ * Here op(X) is either X or X', the transpose of X, and A, B and C are
+ * rectangular sub-matrices of arrays of arrays of doubles.
+ * <p>
+ * For small matrices, elements of C are computed as simple dot products.
+ * For larger matrices, computations are blocked so that a panel of op(B)
+ * remains in cache while many blocks of op(A) are multiplied by it. Each
+ * block and panel is first packed into a contiguous array, and C is then
+ * updated in small tiles with elements held in registers. Blocks of rows
+ * of C are computed in parallel.
+ * @author agent
+ * @version 2026.10.18
+ */
+class DMatrixGemm {
+
+  /**
+   * Computes C = alpha*op(A)*op(B)+beta*C for sub-matrices. Sub-matrices
+   * begin at the specified row and column indices of their arrays. The
+   * sub-matrix C must not overlap the sub-matrices A or B.
+   * @param ta true, for op(A) = A'; false, for op(A) = A.
+   * @param tb true, for op(B) = B'; false, for op(B) = B.
+   * @param m number of rows in op(A) and C.
+   * @param n number of columns in op(B) and C.
+   * @param k number of columns in op(A) and rows in op(B).
+   * @param alpha the scale factor alpha.
+   * @param a array containing the matrix A.
+   * @param ia index of first row of A in array a.
+   * @param ja index of first column of A in array a.
+   * @param b array containing the matrix B.
+   * @param ib index of first row of B in array b.
+   * @param jb index of first column of B in array b.
+   * @param beta the scale factor beta; if zero, C need not be initialized.
+   * @param c array containing the matrix C.
+   * @param ic index of first row of C in array c.
+   * @param jc index of first column of C in array c.
+   */
+  static void gemm(
+    boolean ta, boolean tb, int m, int n, int k, double alpha,
+    double[][] a, int ia, int ja, double[][] b, int ib, int jb,
+    double beta, double[][] c, int ic, int jc)
+  {
+    if (m==0 || n==0)
+      return;
+    scale(m,n,beta,c,ic,jc);
+    if (k==0 || alpha==0.0)
+      return;
+    if ((double)m*n*k<SMALL) {
+      gemmSimple(ta,tb,m,n,k,alpha,a,ia,ja,b,ib,jb,c,ic,jc);
+    } else {
+      gemmBlocked(ta,tb,m,n,k,alpha,a,ia,ja,b,ib,jb,c,ic,jc);
+    }
+  }
+
+  ///////////////////////////////////////////////////////////////////////////
+  // private
+
+  // Matrices with fewer multiply-adds are multiplied without blocking.
+  private static final double SMALL = 48.0*48.0*48.0;
+
+  // Register tile of MR rows and NR columns; block of MC rows of op(A);
+  // panel of KC rows and NC columns of op(B). MC must be a multiple of MR
+  // and NC must be a multiple of NR.
+  private static final int MR = 4;
+  private static final int NR = 4;
+  private static final int MC = 64;
+  private static final int KC = 256;
+  private static final int NC = 2048;
+
+  private static void scale(
+    int m, int n, double beta, double[][] c, int ic, int jc)
+  {
+    if (beta==1.0)
+      return;
+    for (int i=0; i<m; ++i) {
+      double[] ci = c[ic+i];
+      if (beta==0.0) {
+        for (int j=0; j<n; ++j)
+          ci[jc+j] = 0.0;
+      } else {
+        for (int j=0; j<n; ++j)
+          ci[jc+j] *= beta;
+      }
+    }
+  }
+
+  /**
+   * Unblocked multiply. Columns of op(B) and, if transposed, rows of
+   * op(A) are copied into arrays so that elements of C are computed as
+   * dot products of contiguous arrays.
+   */
+  private static void gemmSimple(
+    boolean ta, boolean tb, int m, int n, int k, double alpha,
+    double[][] a, int ia, int ja, double[][] b, int ib, int jb,
+    double[][] c, int ic, int jc)
+  {
+    double[][] at = null;
+    if (ta) {
+      at = new double[m][k];
+      for (int p=0; p<k; ++p) {
+        double[] ap = a[ia+p];
+        for (int i=0; i<m; ++i)
+          at[i][p] = ap[ja+i];
+      }
+    }
+    double[] bc = (tb)?null:new double[k];
+    for (int j=0; j<n; ++j) {
+      double[] bj = bc;
+      int kb = 0;
+      if (tb) {
+        bj = b[ib+j];
+        kb = jb;
+      } else {
+        for (int p=0; p<k; ++p)
+          bc[p] = b[ib+p][jb+j];
+      }
+      for (int i=0; i<m; ++i) {
+        double[] ai = (ta)?at[i]:a[ia+i];
+        int ka = (ta)?0:ja;
+        double s = 0.0;
+        for (int p=0; p<k; ++p)
+          s += ai[ka+p]*bj[kb+p];
+        c[ic+i][jc+j] += alpha*s;
+      }
+    }
+  }
+
+  /**
+   * Blocked multiply. For each panel of op(B), packs that panel once
+   * and then multiplies blocks of rows of op(A) by it in parallel.
+   */
+  private static void gemmBlocked(
+    final boolean ta, boolean tb,
+    final int m, int n, int k, final double alpha,
+    final double[][] a, final int ia, final int ja,
+    double[][] b, int ib, int jb,
+    final double[][] c, final int ic, int jc)
+  {
+    int nc = min(n,NC);
+    final double[] pb = new double[KC*roundUp(nc,NR)];
+    for (int j0=0; j0<n; j0+=NC) {
+      final int nj = min(NC,n-j0);
+      final int jc0 = jc+j0;
+      for (int p0=0; p0<k; p0+=KC) {
+        final int np = min(KC,k-p0);
+        final int pa0 = p0;
+        if (tb) {
+          packBT(np,nj,b,ib+j0,jb+p0,pb);
+        } else {
+          packB(np,nj,b,ib+p0,jb+j0,pb);
+        }
+        int nblock = (m+MC-1)/MC;
+        Parallel.loop(nblock,new Parallel.LoopInt() {
+        public void compute(int iblock) {
+          int i0 = iblock*MC;
+          int ni = min(MC,m-i0);
+          double[] pa = new double[np*roundUp(ni,MR)];
+          if (ta) {
+            packAT(np,ni,a,ia+pa0,ja+i0,pa);
+          } else {
+            packA(np,ni,a,ia+i0,ja+pa0,pa);
+          }
+          multiply(np,ni,nj,alpha,pa,pb,c,ic+i0,jc0);
+        }});
+      }
+    }
+  }
+
+  private static int roundUp(int n, int m) {
+    return ((n+m-1)/m)*m;
+  }
+
+  /**
+   * Packs a block of op(A) = A with ni rows and np columns into tiles
+   * of MR rows. Within a tile, the MR elements of each column are
+   * contiguous. Rows beyond the end of the block are zero.
+   */
+  private static void packA(
+    int np, int ni, double[][] a, int ia, int ja, double[] pa)
+  {
+    for (int ir=0; ir<ni; ir+=MR) {
+      int base = ir*np;
+      for (int ii=0; ii<MR; ++ii) {
+        int i = ir+ii;
+        if (i<ni) {
+          double[] ai = a[ia+i];
+          for (int p=0,l=base+ii; p<np; ++p,l+=MR)
+            pa[l] = ai[ja+p];
+        } else {
+          for (int p=0,l=base+ii; p<np; ++p,l+=MR)
+            pa[l] = 0.0;
+        }
+      }
+    }
+  }
+
+  /**
+   * Packs a block of op(A) = A' with ni rows and np columns into tiles
+   * of MR rows, as for packA. Here, rows of op(A) are columns of A.
+   */
+  private static void packAT(
+    int np, int ni, double[][] a, int ia, int ja, double[] pa)
+  {
+    for (int ir=0; ir<ni; ir+=MR) {
+      int base = ir*np;
+      int mr = min(MR,ni-ir);
+      for (int p=0,l=base; p<np; ++p,l+=MR) {
+        double[] ap = a[ia+p];
+        int ii = 0;
+        for (; ii<mr; ++ii)
+          pa[l+ii] = ap[ja+ir+ii];
+        for (; ii<MR; ++ii)
+          pa[l+ii] = 0.0;
+      }
+    }
+  }
+
+  /**
+   * Packs a panel of op(B) = B with np rows and nj columns into tiles of
+   * NR columns. Within a tile, the NR elements of each row are contiguous.
+   * Columns beyond the end of the panel are zero.
+   */
+  private static void packB(
+    int np, int nj, double[][] b, int ib, int jb, double[] pb)
+  {
+    for (int jr=0; jr<nj; jr+=NR) {
+      int base = jr*np;
+      int nr = min(NR,nj-jr);
+      for (int p=0,l=base; p<np; ++p,l+=NR) {
+        double[] bp = b[ib+p];
+        int jj = 0;
+        for (; jj<nr; ++jj)
+          pb[l+jj] = bp[jb+jr+jj];
+        for (; jj<NR; ++jj)
+          pb[l+jj] = 0.0;
+      }
+    }
+  }
+
+  /**
+   * Packs a panel of op(B) = B' with np rows and nj columns into tiles
+   * of NR columns, as for packB. Here, columns of op(B) are rows of B.
+   */
+  private static void packBT(
+    int np, int nj, double[][] b, int ib, int jb, double[] pb)
+  {
+    for (int jr=0; jr<nj; jr+=NR) {
+      int base = jr*np;
+      for (int jj=0; jj<NR; ++jj) {
+        int j = jr+jj;
+        if (j<nj) {
+          double[] bj = b[ib+j];
+          for (int p=0,l=base+jj; p<np; ++p,l+=NR)
+            pb[l] = bj[jb+p];
+        } else {
+          for (int p=0,l=base+jj; p<np; ++p,l+=NR)
+            pb[l] = 0.0;
+        }
+      }
+    }
+  }
+
+  /**
+   * Multiplies a packed block of op(A) by a packed panel of op(B), and
+   * accumulates the scaled product in a block of C.
+   */
+  private static void multiply(
+    int np, int ni, int nj, double alpha, double[] pa, double[] pb,
+    double[][] c, int ic, int jc)
+  {
+    for (int jr=0; jr<nj; jr+=NR) {
+      int nr = min(NR,nj-jr);
+      for (int ir=0; ir<ni; ir+=MR) {
+        int mr = min(MR,ni-ir);
+        kernel(np,alpha,pa,ir*np,pb,jr*np,mr,nr,c,ic+ir,jc+jr);
+      }
+    }
+  }
+
+  /**
+   * Computes one MR-by-NR tile of C, with elements held in registers.
+   * Only the first mr rows and nr columns of the tile are stored in C.
+   */
+  private static void kernel(
+    int np, double alpha, double[] pa, int ka, double[] pb, int kb,
+    int mr, int nr, double[][] c, int ic, int jc)
+  {
+    double c00 = 0.0, c01 = 0.0, c02 = 0.0, c03 = 0.0;
+    double c10 = 0.0, c11 = 0.0, c12 = 0.0, c13 = 0.0;
+    double c20 = 0.0, c21 = 0.0, c22 = 0.0, c23 = 0.0;
+    double c30 = 0.0, c31 = 0.0, c32 = 0.0, c33 = 0.0;
+    for (int p=0; p<np; ++p,ka+=MR,kb+=NR) {
+      double a0 = pa[ka  ], a1 = pa[ka+1], a2 = pa[ka+2], a3 = pa[ka+3];
+      double b0 = pb[kb  ], b1 = pb[kb+1], b2 = pb[kb+2], b3 = pb[kb+3];
+      c00 += a0*b0;  c01 += a0*b1;  c02 += a0*b2;  c03 += a0*b3;
+      c10 += a1*b0;  c11 += a1*b1;  c12 += a1*b2;  c13 += a1*b3;
+      c20 += a2*b0;  c21 += a2*b1;  c22 += a2*b2;  c23 += a2*b3;
+      c30 += a3*b0;  c31 += a3*b1;  c32 += a3*b2;  c33 += a3*b3;
+    }
+    if (mr==MR && nr==NR) {
+      double[] ci;
+      ci = c[ic  ];
+      ci[jc] += alpha*c00;  ci[jc+1] += alpha*c01;
+      ci[jc+2] += alpha*c02;  ci[jc+3] += alpha*c03;
+      ci = c[ic+1];
+      ci[jc] += alpha*c10;  ci[jc+1] += alpha*c11;
+      ci[jc+2] += alpha*c12;  ci[jc+3] += alpha*c13;
+      ci = c[ic+2];
+      ci[jc] += alpha*c20;  ci[jc+1] += alpha*c21;
+      ci[jc+2] += alpha*c22;  ci[jc+3] += alpha*c23;
+      ci = c[ic+3];
+      ci[jc] += alpha*c30;  ci[jc+1] += alpha*c31;
+      ci[jc+2] += alpha*c32;  ci[jc+3] += alpha*c33;
+    } else {
+      double[][] t = {
+        {c00,c01,c02,c03},
+        {c10,c11,c12,c13},
+        {c20,c21,c22,c23},
+        {c30,c31,c32,c33}};
+      for (int i=0; i<mr; ++i) {
+        double[] ci = c[ic+i];
+        double[] ti = t[i];
+        for (int j=0; j<nr; ++j)
+          ci[jc+j] += alpha*ti[j];
+      }
+    }
+  }
+}
@@ -34,7 +34,9 @@ import edu.mines.jtk.util.Check;
  * This class was adapted from the package Jama, which was developed by 
  * Joe Hicklin, Cleve Moler, and Peter Webb of The MathWorks, Inc., and by
  * Ronald Boisvert, Bruce Miller, Roldan Pozo, and Karin Remington of the
- * National Institue of Standards and Technology.
+ * National Institue of Standards and Technology. Unlike Jama, the
+ * decomposition is computed in blocks of columns, so that most of the
+ * work is performed by a parallel blocked matrix-matrix multiply.
  * @author Dave Hale, Colorado School of Mines
  * @version 2006.09.15
  */
@@ -52,50 +54,21 @@ public class DMatrixLud {
     for (int i=0; i<m; ++i)
       _piv[i] = i;
     _pivsign = 1;
-    double[] lurowi;
-    double[] lucolj = new double[m];
-
-    // A left-looking, dot-product, Crout/Doolittle algorithm.
-    for (int j=0; j<n; ++j) {
-
-      // Copy the j'th column to reduce cost in inner dot-product loop.
-      for (int i=0; i<m; ++i)
-        lucolj[i] = lu[i][j];
-
-      // Apply previous transformations
-      for (int i=0; i<m; ++i) {
-        lurowi = lu[i];
-
-        // Dot product.
-        int kmax = min(i,j);
-        double s = 0.0;
-        for (int k=0; k<kmax; ++k)
-          s += lurowi[k]*lucolj[k];
-        lurowi[j] = lucolj[i] -= s;
-      }
 
-      // Find pivot and exchange if necessary.
-      int p = j;
-      for (int i=j+1; i<m; ++i) {
-        if (abs(lucolj[i])>abs(lucolj[p]))
-          p = i;
-      }
-      if (p!=j) {
-        for (int k=0; k<n; ++k) {
-          double t = lu[p][k];
-          lu[p][k] = lu[j][k];
-          lu[j][k] = t;
+    // A right-looking blocked algorithm. For each panel of NB columns,
+    // (1) factor the panel with pivoting, (2) solve for the block row
+    // of U to the right of the panel, and (3) update the trailing matrix 
+    // with a matrix-matrix multiply.
+    int mn = min(m,n);
+    for (int k0=0; k0<mn; k0+=NB) {
+      int k1 = min(k0+NB,mn);
+      factorPanel(k0,k1);
+      if (k1<n) {
+        solveBlockRow(k0,k1);
+        if (k1<m) {
+          DMatrixGemm.gemm(false,false,m-k1,n-k1,k1-k0,-1.0,
+                           lu,k1,k0,lu,k0,k1,1.0,lu,k1,k1);
         }
-        int k = _piv[p];
-        _piv[p] = _piv[j];
-        _piv[j] = k;
-        _pivsign = -_pivsign;
-      }
-
-      // Compute multipliers.
-      if (j<m && lu[j][j]!=0.0) {
-        for (int i=j+1; i<m; ++i)
-          lu[i][j] /= lu[j][j];
       }
     }
   }
@@ -227,8 +200,65 @@ public class DMatrixLud {
   ///////////////////////////////////////////////////////////////////////////
   // private
 
+  // Number of columns in each panel.
+  private static final int NB = 64;
+
   int _m,_n;
   double[][] _lu;
   int[] _piv;
   int _pivsign;
+
+  /**
+   * Factors the panel of columns [k0,k1) with an unblocked right-looking 
+   * algorithm, exchanging complete rows when pivoting.
+   */
+  private void factorPanel(int k0, int k1) {
+    double[][] lu = _lu;
+    for (int j=k0; j<k1; ++j) {
+
+      // Find pivot and exchange rows if necessary.
+      int p = j;
+      for (int i=j+1; i<_m; ++i) {
+        if (abs(lu[i][j])>abs(lu[p][j]))
+          p = i;
+      }
+      if (p!=j) {
+        double[] t = lu[p];
+        lu[p] = lu[j];
+        lu[j] = t;
+        int k = _piv[p];
+        _piv[p] = _piv[j];
+        _piv[j] = k;
+        _pivsign = -_pivsign;
+      }
+
+      // Compute multipliers and update remaining columns of the panel.
+      double[] luj = lu[j];
+      if (luj[j]!=0.0) {
+        for (int i=j+1; i<_m; ++i) {
+          double[] lui = lu[i];
+          double lij = lui[j] /= luj[j];
+          for (int k=j+1; k<k1; ++k)
+            lui[k] -= lij*luj[k];
+        }
+      }
+    }
+  }
+
+  /**
+   * Solves L11*U12 = A12 for the block row U12 of U to the right of the
+   * panel of columns [k0,k1), where L11 is unit lower triangular.
+   */
+  private void solveBlockRow(int k0, int k1) {
+    double[][] lu = _lu;
+    for (int i=k0+1; i<k1; ++i) {
+      double[] lui = lu[i];
+      for (int k=k0; k<i; ++k) {
+        double lik = lui[k];
+        double[] luk = lu[k];
+        for (int j=k1; j<_n; ++j)
+          lui[j] -= lik*luk[j];
+      }
+    }
+  }
 }
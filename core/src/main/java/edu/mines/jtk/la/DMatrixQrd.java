@@ -15,6 +15,7 @@ limitations under the License.
 package edu.mines.jtk.la;
 
 import static java.lang.Math.hypot;
+import static java.lang.Math.min;
 
 import edu.mines.jtk.util.Check;
 
@@ -32,7 +33,10 @@ import edu.mines.jtk.util.Check;
  * This class was adapted from the package Jama, which was developed by 
  * Joe Hicklin, Cleve Moler, and Peter Webb of The MathWorks, Inc., and by
  * Ronald Boisvert, Bruce Miller, Roldan Pozo, and Karin Remington of the
- * National Institue of Standards and Technology.
+ * National Institue of Standards and Technology. Unlike Jama, the
+ * decomposition is computed in blocks of columns. Householder
+ * transformations for each block are accumulated and then applied to
+ * the remaining columns with a parallel blocked matrix-matrix multiply.
  * @author Dave Hale, Colorado School of Mines
  * @version 2005.12.01
  */
@@ -51,34 +55,15 @@ public class DMatrixQrd {
     _qr = a.get();
     _rdiag = new double[_n];
 
-    // Main loop.
-    for (int k=0; k<n; ++k) {
-
-      // Compute 2-norm of k-th column without under/overflow.
-      double nrm = 0;
-      for (int i=k; i<m; ++i)
-        nrm = hypot(nrm,_qr[i][k]);
-
-      if (nrm!=0.0) {
-
-        // Form k-th Householder vector.
-        if (_qr[k][k]<0.0)
-          nrm = -nrm;
-        for (int i=k; i<m; ++i)
-          _qr[i][k] /= nrm;
-        _qr[k][k] += 1.0;
-
-        // Apply transformation to remaining columns.
-        for (int j=k+1; j<n; ++j) {
-          double s = 0.0; 
-          for (int i=k; i<m; ++i)
-            s += _qr[i][k]*_qr[i][j];
-          s = -s/_qr[k][k];
-          for (int i=k; i<m; ++i)
-            _qr[i][j] += s*_qr[i][k];
-        }
-      }
-      _rdiag[k] = -nrm;
+    // A right-looking blocked algorithm. For each panel of NB columns,
+    // (1) factor the panel with Householder transformations, and (2)
+    // apply the product of those transformations to the trailing matrix
+    // with matrix-matrix multiplies.
+    for (int k0=0; k0<n; k0+=NB) {
+      int k1 = min(k0+NB,n);
+      factorPanel(k0,k1);
+      if (k1<n)
+        updateTrailing(k0,k1);
     }
   }
 
@@ -183,7 +168,112 @@ public class DMatrixQrd {
   ///////////////////////////////////////////////////////////////////////////
   // private
 
+  // Number of columns in each panel.
+  private static final int NB = 32;
+
   int _m,_n;
   double[][] _qr;
   double[] _rdiag;
+
+  /**
+   * Factors the panel of columns [k0,k1) with Householder transformations
+   * that are applied only to columns in that panel.
+   */
+  private void factorPanel(int k0, int k1) {
+    int m = _m;
+    for (int k=k0; k<k1; ++k) {
+
+      // Compute 2-norm of k-th column without under/overflow.
+      double nrm = 0;
+      for (int i=k; i<m; ++i)
+        nrm = hypot(nrm,_qr[i][k]);
+
+      if (nrm!=0.0) {
+
+        // Form k-th Householder vector.
+        if (_qr[k][k]<0.0)
+          nrm = -nrm;
+        for (int i=k; i<m; ++i)
+          _qr[i][k] /= nrm;
+        _qr[k][k] += 1.0;
+
+        // Apply transformation to remaining columns of the panel.
+        for (int j=k+1; j<k1; ++j) {
+          double s = 0.0; 
+          for (int i=k; i<m; ++i)
+            s += _qr[i][k]*_qr[i][j];
+          s = -s/_qr[k][k];
+          for (int i=k; i<m; ++i)
+            _qr[i][j] += s*_qr[i][k];
+        }
+      }
+      _rdiag[k] = -nrm;
+    }
+  }
+
+  /**
+   * Applies the Householder transformations for the panel of columns
+   * [k0,k1) to columns [k1,n). The product of the transformations H(k)
+   * = I-v(k)*v(k)'/v(k)(k) is represented as I-V*T*V', where the columns
+   * of V are the Householder vectors v(k), and T is upper triangular.
+   * Then the trailing matrix C is updated with C = C-V*(T'*(V'*C)).
+   */
+  private void updateTrailing(int k0, int k1) {
+    int m = _m;
+    int n = _n;
+    int mv = m-k0;
+    int nb = k1-k0;
+    int nc = n-k1;
+
+    // Copy Householder vectors into V, with zeros above the diagonal.
+    double[][] v = new double[mv][nb];
+    for (int i=0; i<mv; ++i) {
+      double[] qri = _qr[k0+i];
+      for (int j=0; j<nb && j<=i; ++j)
+        v[i][j] = qri[k0+j];
+    }
+
+    // Compute T with T(j,j) = 1/v(j)(j) and T(0:j,j) = -T(j,j)*
+    // T(0:j,0:j)*V(:,0:j)'*v(j). Transformations with v(j)(j) = 0
+    // are identities, for which T(j,j) = 0.
+    double[][] t = new double[nb][nb];
+    double[] w = new double[nb];
+    for (int j=0; j<nb; ++j) {
+      double vjj = v[j][j];
+      if (vjj==0.0)
+        continue;
+      double tjj = t[j][j] = 1.0/vjj;
+      for (int l=0; l<j; ++l)
+        w[l] = 0.0;
+      for (int i=j; i<mv; ++i) {
+        double[] vi = v[i];
+        double vij = vi[j];
+        for (int l=0; l<j; ++l)
+          w[l] += vi[l]*vij;
+      }
+      for (int l=0; l<j; ++l) {
+        double s = 0.0;
+        for (int p=l; p<j; ++p)
+          s += t[l][p]*w[p];
+        t[l][j] = -tjj*s;
+      }
+    }
+
+    // W = V'*C, W = T'*W, and C = C-V*W.
+    double[][] wc = new double[nb][nc];
+    DMatrixGemm.gemm(true,false,nb,nc,mv,1.0,v,0,0,_qr,k0,k1,0.0,wc,0,0);
+    for (int j=nb-1; j>=0; --j) {
+      double[] wj = wc[j];
+      double tjj = t[j][j];
+      for (int l=0; l<nc; ++l)
+        wj[l] *= tjj;
+      for (int p=0; p<j; ++p) {
+        double tpj = t[p][j];
+        double[] wp = wc[p];
+        for (int l=0; l<nc; ++l)
+          wj[l] += tpj*wp[l];
+      }
+    }
+    DMatrixGemm.gemm(false,false,mv,nc,nb,-1.0,v,0,0,wc,0,0,1.0,_qr,k0,k1);
+  }
 }
@@ -0,0 +1,659 @@
+/****************************************************************************
+Copyright 2026, Colorado School of Mines and others.
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+****************************************************************************/
+package edu.mines.jtk.mesh;
+
+import java.io.IOException;
+import java.io.Serializable;
+import java.util.Arrays;
+
+import edu.mines.jtk.io.ArrayInput;
+import edu.mines.jtk.io.ArrayOutput;
+import edu.mines.jtk.util.Check;
+
+/**
+ * A compact and immutable copy of a tetrahedral mesh. Nodes and tets are
+ * represented by integer indices into arrays of primitive values, so that
+ * a compact mesh requires much less memory than a {@link TetMesh}, and
+ * walks through the mesh access memory more coherently.
+ * <p>
+ * Each node has perturbed double coordinates, the same as those of the
+ * corresponding node in the tet mesh from which this mesh was copied,
+ * and the value of that node's index field. Each tet references four
+ * nodes, labeled 0, 1, 2, and 3 as in a tet mesh, and up to four tet
+ * nabors, where tet nabor k is opposite node k. A null tet nabor is
+ * represented by the index -1.
+ * <p>
+ * Because a compact mesh is immutable, any number of threads may query
+ * it concurrently. Queries that require temporary storage, such as the
+ * search for natural neighbors of a point, are performed with a
+ * {@link CompactTetMesh.Reader}, and each thread must use its own reader.
+ * <p>
+ * A compact mesh is serializable, but may be more efficiently written
+ * to and read from array outputs and inputs in a simple binary format.
+ * @author agent
+ * @version 2026.10.18
+ */
+public class CompactTetMesh implements Serializable {
+  private static final long serialVersionUID = 1L;
+
+  /**
+   * Constructs a compact copy of the specified tet mesh. The nodes of
+   * this compact mesh are numbered in the order in which they are
+   * returned by the node iterator of the tet mesh.
+   * <p>
+   * While copying, this constructor synchronizes on the tet mesh, and
+   * temporarily sets the index fields of its nodes and tets. Those
+   * fields are restored before this constructor returns.
+   * @param mesh the tet mesh.
+   */
+  public CompactTetMesh(TetMesh mesh) {
+    synchronized (mesh) {
+      int nnode = _nnode = mesh.countNodes();
+      int ntet = _ntet = mesh.countTets();
+      _x = new double[nnode];
+      _y = new double[nnode];
+      _z = new double[nnode];
+      _index = new int[nnode];
+      _nodeTet = new int[nnode];
+      _tetNodes = new int[4*ntet];
+      _tetNabors = new int[4*ntet];
+
+      // Copy nodes, and temporarily number them.
+      TetMesh.Node[] nodes = new TetMesh.Node[nnode];
+      TetMesh.NodeIterator ni = mesh.getNodes();
+      for (int inode=0; inode<nnode; ++inode) {
+        TetMesh.Node node = nodes[inode] = ni.next();
+        _x[inode] = node.xp();
+        _y[inode] = node.yp();
+        _z[inode] = node.zp();
+        _index[inode] = node.index;
+        _nodeTet[inode] = -1;
+        node.index = inode;
+      }
+
+      // Temporarily number tets.
+      TetMesh.Tet[] tets = new TetMesh.Tet[ntet];
+      int[] tetIndex = new int[ntet];
+      TetMesh.TetIterator ti = mesh.getTets();
+      for (int itet=0; itet<ntet; ++itet) {
+        TetMesh.Tet tet = tets[itet] = ti.next();
+        tetIndex[itet] = tet.index;
+        tet.index = itet;
+      }
+
+      // Copy tet nodes and nabors.
+      for (int itet=0,i=0; itet<ntet; ++itet,i+=4) {
+        TetMesh.Tet tet = tets[itet];
+        _tetNodes[i  ] = tet.nodeA().index;
+        _tetNodes[i+1] = tet.nodeB().index;
+        _tetNodes[i+2] = tet.nodeC().index;
+        _tetNodes[i+3] = tet.nodeD().index;
+        _tetNabors[i  ] = index(tet.tetA());
+        _tetNabors[i+1] = index(tet.tetB());
+        _tetNabors[i+2] = index(tet.tetC());
+        _tetNabors[i+3] = index(tet.tetD());
+      }
+
+      // Restore index fields.
+      for (int itet=0; itet<ntet; ++itet)
+        tets[itet].index = tetIndex[itet];
+      for (int inode=0; inode<nnode; ++inode)
+        nodes[inode].index = _index[inode];
+    }
+    init();
+  }
+
+  /**
+   * Returns a new tet mesh with the nodes of this compact mesh. Nodes in
+   * the returned mesh have the same coordinates and indices as those in
+   * this mesh. Because the Delaunay tetrahedralization of those nodes is
+   * unique, the returned mesh also has the same tets.
+   * @return the tet mesh.
+   */
+  public TetMesh toTetMesh() {
+    TetMesh.Node[] nodes = new TetMesh.Node[_nnode];
+    for (int inode=0; inode<_nnode; ++inode) {
+      float x = (float)_x[inode];
+      float y = (float)_y[inode];
+      float z = (float)_z[inode];
+      nodes[inode] = new TetMesh.Node(x,y,z);
+      nodes[inode].index = _index[inode];
+    }
+    TetMesh mesh = new TetMesh();
+    mesh.addNodes(nodes);
+    return mesh;
+  }
+
+  /**
+   * Returns the number of nodes in this mesh.
+   * @return the number of nodes.
+   */
+  public int countNodes() {
+    return _nnode;
+  }
+
+  /**
+   * Returns the number of tets in this mesh.
+   * @return the number of tets.
+   */
+  public int countTets() {
+    return _ntet;
+  }
+
+  /**
+   * Returns the x coordinate of the specified node.
+   * @param inode the node index.
+   * @return the x coordinate.
+   */
+  public float getNodeX(int inode) {
+    return (float)_x[inode];
+  }
+
+  /**
+   * Returns the y coordinate of the specified node.
+   * @param inode the node index.
+   * @return the y coordinate.
+   */
+  public float getNodeY(int inode) {
+    return (float)_y[inode];
+  }
+
+  /**
+   * Returns the z coordinate of the specified node.
+   * @param inode the node index.
+   * @return the z coordinate.
+   */
+  public float getNodeZ(int inode) {
+    return (float)_z[inode];
+  }
+
+  /**
+   * Returns the value of the index field of the specified node, copied
+   * from the corresponding node of a tet mesh.
+   * @param inode the node index.
+   * @return the value of the index field.
+   */
+  public int getNodeIndex(int inode) {
+    return _index[inode];
+  }
+
+  /**
+   * Returns the index of a tet that references the specified node.
+   * @param inode the node index.
+   * @return the tet index; -1, if the mesh has no tets.
+   */
+  public int getNodeTet(int inode) {
+    return _nodeTet[inode];
+  }
+
+  /**
+   * Returns the index of a node referenced by the specified tet.
+   * @param itet the tet index.
+   * @param k the node number, 0, 1, 2, or 3, within the tet.
+   * @return the node index.
+   */
+  public int getTetNode(int itet, int k) {
+    return _tetNodes[4*itet+k];
+  }
+
+  /**
+   * Returns the index of a tet nabor of the specified tet.
+   * @param itet the tet index.
+   * @param k the number, 0, 1, 2, or 3, of the node opposite the nabor.
+   * @return the index of the tet nabor; -1, if none.
+   */
+  public int getTetNabor(int itet, int k) {
+    return _tetNabors[4*itet+k];
+  }
+
+  /**
+   * Writes this mesh to the specified array output.
+   * @param ao the array output.
+   * @throws IOException if an error occurs while writing.
+   */
+  public void write(ArrayOutput ao) throws IOException {
+    ao.writeInt(MAGIC);
+    ao.writeInt(_nnode);
+    ao.writeInt(_ntet);
+    ao.writeDoubles(_x);
+    ao.writeDoubles(_y);
+    ao.writeDoubles(_z);
+    ao.writeInts(_index);
+    ao.writeInts(_tetNodes);
+    ao.writeInts(_tetNabors);
+  }
+
+  /**
+   * Reads a mesh from the specified array input.
+   * @param ai the array input.
+   * @return the mesh.
+   * @throws IOException if an error occurs while reading.
+   */
+  public static CompactTetMesh read(ArrayInput ai) throws IOException {
+    if (ai.readInt()!=MAGIC)
+      throw new IOException("input is not a compact tet mesh");
+    int nnode = ai.readInt();
+    int ntet = ai.readInt();
+    CompactTetMesh mesh = new CompactTetMesh(nnode,ntet);
+    ai.readDoubles(mesh._x);
+    ai.readDoubles(mesh._y);
+    ai.readDoubles(mesh._z);
+    ai.readInts(mesh._index);
+    ai.readInts(mesh._tetNodes);
+    ai.readInts(mesh._tetNabors);
+    mesh.init();
+    return mesh;
+  }
+
+  /**
+   * A reader that queries a compact mesh. Because a reader has temporary
+   * storage for queries, a reader is not thread-safe, and each thread must
+   * use its own reader.
+   * <p>
+   * Each reader remembers the tet where its last search ended, and begins
+   * its next search in that tet if that tet is nearer than any sampled
+   * node. Therefore, searches for points near the previous point searched
+   * are fast.
+   * <p>
+   * The results of a search for natural neighbors are returned by
+   * reference in arrays owned by the reader. These arrays are valid only
+   * until the next search.
+   */
+  public static class Reader {
+
+    /**
+     * Constructs a reader for the specified mesh.
+     * @param mesh the mesh, which must have at least one tet.
+     */
+    public Reader(CompactTetMesh mesh) {
+      Check.argument(mesh.countTets()>0,"mesh has at least one tet");
+      _mesh = mesh;
+    }
+
+    /**
+     * Returns the mesh queried by this reader.
+     * @return the mesh.
+     */
+    public CompactTetMesh getMesh() {
+      return _mesh;
+    }
+
+    /**
+     * Locates a point with specified coordinates.
+     * @param x the x coordinate.
+     * @param y the y coordinate.
+     * @param z the z coordinate.
+     * @return the index t of the tet that contains the point, if the
+     *  point is inside the mesh; otherwise, if the point is outside the
+     *  mesh, the negative value -1-t, where t is the index of a tet on
+     *  the convex hull that is visible from the point.
+     */
+    public int locatePoint(float x, float y, float z) {
+      int itet = _mesh.walkToPoint(findTetNear(x,y,z),x,y,z);
+      _tet = (itet>=0)?itet:-1-itet;
+      return itet;
+    }
+
+    /**
+     * Finds the natural neighbors of a point with specified coordinates.
+     * Natural-neighbor tets are those with circumspheres that contain the
+     * point, and natural-neighbor nodes are those referenced by such tets.
+     * @param x the x coordinate.
+     * @param y the y coordinate.
+     * @param z the z coordinate.
+     * @return the number of natural-neighbor nodes; zero, if the point is
+     *  outside the mesh.
+     */
+    public int findNaturalNabors(float x, float y, float z) {
+      _nodes.clear();
+      _ntet = 0;
+      int itet = locatePoint(x,y,z);
+      if (itet<0)
+        return 0;
+
+      // The list of tets is also the queue of tets to be searched.
+      _tets.clear();
+      _tets.put(itet,0);
+      addTet(itet);
+      int[] tn = _mesh._tetNodes;
+      int[] tt = _mesh._tetNabors;
+      for (int jtet=0; jtet<_ntet; ++jtet) {
+        int i = 4*_tetList[jtet];
+        for (int k=i; k<i+4; ++k) {
+          int ktet = tt[k];
+          if (ktet>=0 && _tets.get(ktet)<0 && inSphere(ktet,x,y,z)) {
+            _tets.put(ktet,0);
+            addTet(ktet);
+          }
+        }
+      }
+      for (int jtet=0; jtet<_ntet; ++jtet) {
+        int i = 4*_tetList[jtet];
+        for (int k=i; k<i+4; ++k) {
+          int inode = tn[k];
+          if (_nodes.get(inode)<0)
+            _nodes.put(inode,_nodes.size());
+        }
+      }
+      int nnode = _nodes.size();
+      if (_nodeList.length<nnode) {
+        _nodeList = new int[2*nnode];
+        _volumes = new double[2*nnode];
+      }
+      for (int jnode=0; jnode<nnode; ++jnode)
+        _nodeList[jnode] = _nodes.keyAt(jnode);
+      return nnode;
+    }
+
+    /**
+     * Computes Sibson's natural-neighbor volumes for the point with
+     * specified coordinates. For each natural-neighbor node, this volume
+     * is that of the part of its Voronoi cell that would be taken by the
+     * point, if the point were inserted into the mesh. Volumes are
+     * computed with the method of Watson and Sambridge, which requires
+     * that the point not be the same as any node.
+     * @param x the x coordinate.
+     * @param y the y coordinate.
+     * @param z the z coordinate.
+     * @return the number of natural-neighbor nodes, for which volumes are
+     *  computed; zero, if the point is outside the mesh.
+     */
+    public int computeSibsonVolumes(float x, float y, float z) {
+      int nnode = findNaturalNabors(x,y,z);
+      double[] xn = _mesh._x, yn = _mesh._y, zn = _mesh._z;
+      int[] tn = _mesh._tetNodes;
+      for (int jnode=0; jnode<nnode; ++jnode)
+        _volumes[jnode] = 0.0;
+      double xp = x, yp = y, zp = z;
+      for (int jtet=0; jtet<_ntet; ++jtet) {
+        int i = 4*_tetList[jtet];
+        int ia = tn[i], ib = tn[i+1], ic = tn[i+2], id = tn[i+3];
+        double xa = xn[ia], ya = yn[ia], za = zn[ia];
+        double xb = xn[ib], yb = yn[ib], zb = zn[ib];
+        double xc = xn[ic], yc = yn[ic], zc = zn[ic];
+        double xd = xn[id], yd = yn[id], zd = zn[id];
+        Geometry.centerSphere(xp,yp,zp,xb,yb,zb,xc,yc,zc,xd,yd,zd,_ca);
+        Geometry.centerSphere(xp,yp,zp,xa,ya,za,xd,yd,zd,xc,yc,zc,_cb);
+        Geometry.centerSphere(xp,yp,zp,xa,ya,za,xb,yb,zb,xd,yd,zd,_cc);
+        Geometry.centerSphere(xp,yp,zp,xa,ya,za,xc,yc,zc,xb,yb,zb,_cd);
+        Geometry.centerSphere(xa,ya,za,xb,yb,zb,xc,yc,zc,xd,yd,zd,_ct);
+        _volumes[_nodes.get(ia)] += volume(_cb,_cc,_cd,_ct);
+        _volumes[_nodes.get(ib)] += volume(_ca,_cd,_cc,_ct);
+        _volumes[_nodes.get(ic)] += volume(_ca,_cb,_cd,_ct);
+        _volumes[_nodes.get(id)] += volume(_ca,_cc,_cb,_ct);
+      }
+      return nnode;
+    }
+
+    /**
+     * Returns (by reference) the indices of natural-neighbor nodes found
+     * in the most recent search.
+     * @return array of node indices; the number of valid indices is that
+     *  returned by the most recent search.
+     */
+    public int[] getNaborNodes() {
+      return _nodeList;
+    }
+
+    /**
+     * Returns (by reference) the Sibson volumes computed most recently.
+     * Volumes correspond to the nodes returned by {@link #getNaborNodes()}.
+     * @return array of volumes.
+     */
+    public double[] getNaborVolumes() {
+      return _volumes;
+    }
+
+    /**
+     * Returns the number of natural-neighbor tets found in the most
+     * recent search.
+     * @return the number of natural-neighbor tets.
+     */
+    public int countNaborTets() {
+      return _ntet;
+    }
+
+    /**
+     * Returns (by reference) the indices of natural-neighbor tets found
+     * in the most recent search.
+     * @return array of tet indices.
+     */
+    public int[] getNaborTets() {
+      return _tetList;
+    }
+
+    private CompactTetMesh _mesh; // the mesh queried by this reader
+    private int _tet = -1; // tet where the last search ended; -1, if none
+    private IntMap _tets = new IntMap(); // set of natural-neighbor tets
+    private IntMap _nodes = new IntMap(); // map from node to list index
+    private int _ntet; // number of natural-neighbor tets
+    private int[] _tetList = new int[64]; // natural-neighbor tets
+    private int[] _nodeList = new int[64]; // natural-neighbor nodes
+    private double[] _volumes = new double[64]; // Sibson volumes
+    private double[] _ca = new double[3]; // circumcenter of fake tet pbcd
+    private double[] _cb = new double[3]; // circumcenter of fake tet padc
+    private double[] _cc = new double[3]; // circumcenter of fake tet pabd
+    private double[] _cd = new double[3]; // circumcenter of fake tet pacb
+    private double[] _ct = new double[3]; // circumcenter of real tet abcd
+
+    /**
+     * Returns a tet in which to begin a search for the point (x,y,z).
+     * This tet references the node nearest to the point among the sampled
+     * nodes and the first node of the tet where the last search ended.
+     */
+    private int findTetNear(double x, double y, double z) {
+      CompactTetMesh m = _mesh;
+      int nmin = (_tet>=0)?m._tetNodes[4*_tet]:m._samples[0];
+      double dmin = m.distanceSquared(nmin,x,y,z);
+      for (int inode:m._samples) {
+        double d = m.distanceSquared(inode,x,y,z);
+        if (d<dmin) {
+          dmin = d;
+          nmin = inode;
+        }
+      }
+      return (_tet>=0 && nmin==m._tetNodes[4*_tet])?_tet:m._nodeTet[nmin];
+    }
+
+    private void addTet(int itet) {
+      if (_ntet==_tetList.length) {
+        int[] t = new int[2*_ntet];
+        System.arraycopy(_tetList,0,t,0,_ntet);
+        _tetList = t;
+      }
+      _tetList[_ntet++] = itet;
+    }
+
+    private boolean inSphere(int itet, double xp, double yp, double zp) {
+      double[] x = _mesh._x, y = _mesh._y, z = _mesh._z;
+      int[] tn = _mesh._tetNodes;
+      int i = 4*itet;
+      int ia = tn[i], ib = tn[i+1], ic = tn[i+2], id = tn[i+3];
+      return Geometry.inSphere(x[ia],y[ia],z[ia],x[ib],y[ib],z[ib],
+                               x[ic],y[ic],z[ic],x[id],y[id],z[id],
+                               xp,yp,zp)>0.0;
+    }
+
+    private static double volume(
+      double[] ci, double[] cj, double[] ck, double[] ct)
+    {
+      double xt = ct[0],    yt = ct[1],    zt = ct[2];
+      double xi = ci[0]-xt, yi = ci[1]-yt, zi = ci[2]-zt;
+      double xj = cj[0]-xt, yj = cj[1]-yt, zj = cj[2]-zt;
+      double xk = ck[0]-xt, yk = ck[1]-yt, zk = ck[2]-zt;
+      return xi*(yj*zk-yk*zj)+yi*(zj*xk-zk*xj)+zi*(xj*yk-xk*yj);
+    }
+  }
+
+  ///////////////////////////////////////////////////////////////////////////
+  // private
+
+  private static final int MAGIC = 0x43544d31; // "CTM1"
+
+  private int _nnode; // number of nodes
+  private int _ntet; // number of tets
+  private double[] _x,_y,_z; // perturbed node coordinates
+  private int[] _index; // node indices copied from a tet mesh
+  private int[] _nodeTet; // for each node, a tet that references it
+  private int[] _tetNodes; // for each tet, four nodes
+  private int[] _tetNabors; // for each tet, four tet nabors or -1
+  private int[] _samples; // sampled nodes, for point location
+
+  private CompactTetMesh(int nnode, int ntet) {
+    Check.argument(nnode>=0,"nnode>=0");
+    Check.argument(ntet>=0,"ntet>=0");
+    _nnode = nnode;
+    _ntet = ntet;
+    _x = new double[nnode];
+    _y = new double[nnode];
+    _z = new double[nnode];
+    _index = new int[nnode];
+    _nodeTet = new int[nnode];
+    _tetNodes = new int[4*ntet];
+    _tetNabors = new int[4*ntet];
+  }
+
+  private static int index(TetMesh.Tet tet) {
+    return (tet!=null)?tet.index:-1;
+  }
+
+  /**
+   * Computes a tet for each node, and samples nodes for point location.
+   * Following Mucke et al., 1996, the number of samples is proportional
+   * to N^(1/3), where N equals the number of nodes.
+   */
+  private void init() {
+    for (int inode=0; inode<_nnode; ++inode)
+      _nodeTet[inode] = -1;
+    for (int itet=_ntet-1,i=4*itet; itet>=0; --itet,i-=4) {
+      for (int k=i; k<i+4; ++k)
+        _nodeTet[_tetNodes[k]] = itet;
+    }
+    int nsamp = (_nnode>0)?1+(int)(Math.pow(_nnode,0.33)/0.45):0;
+    int nstep = (_nnode>0)?Math.max(1,_nnode/nsamp):1;
+    _samples = new int[nsamp];
+    for (int isamp=0,inode=0; isamp<nsamp; ++isamp,inode+=nstep)
+      _samples[isamp] = Math.min(inode,_nnode-1);
+  }
+
+  private double distanceSquared(int inode, double x, double y, double z) {
+    double dx = x-_x[inode];
+    double dy = y-_y[inode];
+    double dz = z-_z[inode];
+    return dx*dx+dy*dy+dz*dz;
+  }
+
+  /**
+   * Walks through tets beginning with the specified tet, to locate the
+   * point (x,y,z). Returns the tet that contains the point, or -1-t where
+   * t is a tet on the hull visible from the point. This walk is like
+   * that used to locate points in a tet mesh.
+   */
+  private int walkToPoint(int itet, double x, double y, double z) {
+    int[] tn = _tetNodes;
+    int[] tt = _tetNabors;
+    for (;;) {
+      int i = 4*itet;
+      int i0 = tn[i], i1 = tn[i+1], i2 = tn[i+2], i3 = tn[i+3];
+      double x0 = _x[i0], y0 = _y[i0], z0 = _z[i0];
+      double x1 = _x[i1], y1 = _y[i1], z1 = _z[i1];
+      double x2 = _x[i2], y2 = _y[i2], z2 = _z[i2];
+      double x3 = _x[i3], y3 = _y[i3], z3 = _z[i3];
+      int next;
+      if (Geometry.leftOfPlane(x1,y1,z1,x2,y2,z2,x3,y3,z3,x,y,z)>0.0) {
+        next = tt[i];
+      } else if (
+        Geometry.leftOfPlane(x3,y3,z3,x2,y2,z2,x0,y0,z0,x,y,z)>0.0) {
+        next = tt[i+1];
+      } else if (
+        Geometry.leftOfPlane(x3,y3,z3,x0,y0,z0,x1,y1,z1,x,y,z)>0.0) {
+        next = tt[i+2];
+      } else if (
+        Geometry.leftOfPlane(x0,y0,z0,x2,y2,z2,x1,y1,z1,x,y,z)>0.0) {
+        next = tt[i+3];
+      } else {
+        return itet;
+      }
+      if (next<0)
+        return -1-itet;
+      itet = next;
+    }
+  }
+
+  /**
+   * A map from non-negative int keys to int values, with open addressing.
+   * The cost of clearing this map is proportional to the number of keys,
+   * not its capacity. Keys are also stored in the order they were put.
+   */
+  private static class IntMap {
+    int get(int key) {
+      int i = hash(key);
+      for (int k=_k[i]; k>=0; k=_k[i]) {
+        if (k==key)
+          return _v[i];
+        i = (i+1)&_mask;
+      }
+      return -1;
+    }
+    void put(int key, int value) {
+      if (2*(_n+1)>_k.length)
+        grow();
+      int i = hash(key);
+      while (_k[i]>=0)
+        i = (i+1)&_mask;
+      _k[i] = key;
+      _v[i] = value;
+      _s[_n++] = i;
+    }
+    int size() {
+      return _n;
+    }
+    int keyAt(int j) {
+      return _k[_s[j]];
+    }
+    void clear() {
+      for (int j=0; j<_n; ++j)
+        _k[_s[j]] = -1;
+      _n = 0;
+    }
+    private int _n; // number of keys in the map
+    private int _mask = 255; // capacity minus one
+    private int[] _k = filled(256); // keys, or -1 if none
+    private int[] _v = new int[256]; // values
+    private int[] _s = new int[128]; // slots of keys, in order put
+    private int hash(int key) {
+      int h = key*0x9e3779b9;
+      return (h^(h>>>16))&_mask;
+    }
+    private void grow() {
+      int[] k = _k;
+      int[] v = _v;
+      int[] s = _s;
+      int n = _n;
+      _mask = 2*k.length-1;
+      _k = filled(2*k.length);
+      _v = new int[2*k.length];
+      _s = new int[k.length];
+      _n = 0;
+      for (int j=0; j<n; ++j)
+        put(k[s[j]],v[s[j]]);
+    }
+    private static int[] filled(int n) {
+      int[] a = new int[n];
+      Arrays.fill(a,-1);
+      return a;
+    }
+  }
+}
@@ -0,0 +1,179 @@
+/****************************************************************************
+Copyright 2026, Colorado School of Mines and others.
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+****************************************************************************/
+package edu.mines.jtk.mesh;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Orders points for fast incremental construction of Delaunay meshes.
+ * This order is a biased randomized insertion order (BRIO) described by
+ * Amenta et al. (2003). Points are randomly shuffled, and then split into
+ * rounds, with each round twice as large as the previous round, so that
+ * the last round contains half of the points. Within each round, points
+ * are sorted along a Hilbert curve.
+ * <p>
+ * The random rounds preserve the expected efficiency of randomized
+ * incremental construction, while the Hilbert curve ensures that, within
+ * each round, consecutive points are likely to be near each other. When
+ * the search for each point begins with a triangle or tetrahedron made
+ * for the previous point, that search is typically short.
+ * <p>
+ * References:
+ * <ul><li>
+ * Amenta, N., S. Choi, and G. Rote, 2003, Incremental constructions con
+ * BRIO: Proceedings of the 19th Annual Symposium on Computational
+ * Geometry, 211--219.
+ * </li><li>
+ * Skilling, J., 2004, Programming the Hilbert curve: AIP Conference
+ * Proceedings, 707, 381--387.
+ * </li></ul>
+ * @author agent
+ * @version 2026.10.18
+ */
+class InsertionOrder {
+
+  /**
+   * Returns an insertion order for points (x,y).
+   * @param x array of x coordinates.
+   * @param y array of y coordinates.
+   * @return array of indices of points in insertion order.
+   */
+  static int[] brio(float[] x, float[] y) {
+    return brio(new float[][]{x,y},16);
+  }
+
+  /**
+   * Returns an insertion order for points (x,y,z).
+   * @param x array of x coordinates.
+   * @param y array of y coordinates.
+   * @param z array of z coordinates.
+   * @return array of indices of points in insertion order.
+   */
+  static int[] brio(float[] x, float[] y, float[] z) {
+    return brio(new float[][]{x,y,z},10);
+  }
+
+  ///////////////////////////////////////////////////////////////////////////
+  // private
+
+  // Number of points in the first round; smaller rounds are not useful.
+  private static final int NFIRST = 64;
+
+  // Seed for random shuffles, so that insertion orders are reproducible.
+  private static final long SEED = 314159L;
+
+  /**
+   * Returns an insertion order for points with coordinates x[ndim][n],
+   * for Hilbert curves with nbit bits per dimension. Hilbert indices
+   * (ndim*nbit bits) and point indices (31 bits) are packed into longs,
+   * so that each round can be sorted with a sort of primitive longs.
+   */
+  private static int[] brio(float[][] x, int nbit) {
+    int ndim = x.length;
+    int n = x[0].length;
+
+    // Random shuffle of point indices.
+    int[] p = new int[n];
+    for (int i=0; i<n; ++i)
+      p[i] = i;
+    Random random = new Random(SEED);
+    for (int i=n-1; i>0; --i) {
+      int j = random.nextInt(i+1);
+      int t = p[i]; p[i] = p[j]; p[j] = t;
+    }
+
+    // Scale factors that map coordinates to integers in [0,2^nbit).
+    int imax = (1<<nbit)-1;
+    double[] xmin = new double[ndim];
+    double[] xscl = new double[ndim];
+    for (int idim=0; idim<ndim; ++idim) {
+      float[] xd = x[idim];
+      double xlo = Double.MAX_VALUE;
+      double xhi = -Double.MAX_VALUE;
+      for (int i=0; i<n; ++i) {
+        if (xd[i]<xlo) xlo = xd[i];
+        if (xd[i]>xhi) xhi = xd[i];
+      }
+      xmin[idim] = xlo;
+      xscl[idim] = (xhi>xlo)?imax/(xhi-xlo):0.0;
+    }
+
+    // Sort each round along a Hilbert curve. The last round contains
+    // the last half of the shuffled points, the previous round the
+    // previous quarter, and so on.
+    long[] k = new long[n];
+    int[] a = new int[ndim];
+    for (int i=0; i<n; ++i) {
+      int j = p[i];
+      for (int idim=0; idim<ndim; ++idim) {
+        double xj = (x[idim][j]-xmin[idim])*xscl[idim];
+        a[idim] = Math.min(imax,(int)xj);
+      }
+      k[i] = (hilbert(a,nbit)<<31)|j;
+    }
+    for (int j=n; j>0; ) {
+      int i = (j>NFIRST)?j/2:0;
+      Arrays.sort(k,i,j);
+      j = i;
+    }
+    for (int i=0; i<n; ++i)
+      p[i] = (int)(k[i]&0x7fffffffL);
+    return p;
+  }
+
+  /**
+   * Returns the Hilbert index for integer coordinates a[ndim], each with
+   * nbit bits. Uses Skilling's (2004) transform of coordinates, which are
+   * modified, followed by interleaving of bits.
+   */
+  private static long hilbert(int[] a, int nbit) {
+    int n = a.length;
+    int m = 1<<(nbit-1);
+
+    // Inverse undo.
+    for (int q=m; q>1; q>>=1) {
+      int p = q-1;
+      for (int i=0; i<n; ++i) {
+        if ((a[i]&q)!=0) {
+          a[0] ^= p;
+        } else {
+          int t = (a[0]^a[i])&p;
+          a[0] ^= t;
+          a[i] ^= t;
+        }
+      }
+    }
+
+    // Gray encode.
+    for (int i=1; i<n; ++i)
+      a[i] ^= a[i-1];
+    int t = 0;
+    for (int q=m; q>1; q>>=1) {
+      if ((a[n-1]&q)!=0)
+        t ^= q-1;
+    }
+    for (int i=0; i<n; ++i)
+      a[i] ^= t;
+
+    // Interleave bits, from most significant to least significant.
+    long h = 0;
+    for (int b=nbit-1; b>=0; --b) {
+      for (int i=0; i<n; ++i)
+        h = (h<<1)|((a[i]>>b)&1);
+    }
+    return h;
+  }
+}
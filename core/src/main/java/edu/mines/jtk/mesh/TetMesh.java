@@ -16,6 +16,7 @@ package edu.mines.jtk.mesh;
 
 import java.io.*;
 import java.util.*;
+import java.util.concurrent.locks.StampedLock;
 import javax.swing.event.EventListenerList;
 
 import edu.mines.jtk.util.Check;
@@ -76,6 +77,11 @@ import static edu.mines.jtk.util.MathPlus.*;
  * <p>
  * Listeners to a tet mesh are not serialized. When a tet mesh is read
  * from an object input stream, it will have no listeners.
+ * <p>
+ * Methods that modify or query the mesh are synchronized, so that only
+ * one thread at a time may use them. To query a mesh concurrently in
+ * multiple threads, each thread may instead use its own mesh
+ * {@link TetMesh.Reader}.
  * 
  * @author Dave Hale, Colorado School of Mines
  * @version 2003.08.21, 2006.08.02
@@ -1867,6 +1873,436 @@ public class TetMesh implements Serializable {
     }
   }
 
+  /**
+   * A reader that queries a mesh without locking it. Most queries of a
+   * mesh are synchronized, because they use marks stored in the mesh.
+   * A reader instead uses its own marks, so that any number of threads,
+   * each with its own reader, may query the same mesh concurrently.
+   * <p>
+   * A reader is not thread-safe; each thread must use its own reader.
+   * The mesh may be modified while readers query it. Each change to the
+   * mesh holds the write lock of a {@link StampedLock}, and a reader 
+   * queries the mesh optimistically, without locking it. If the mesh is 
+   * changing when a query begins, or if the stamp for that query is not 
+   * valid when it ends, then the query is repeated while synchronized on 
+   * the mesh, after any change in progress has ended. Exceptions that
+   * may be caused by such changes are ignored only if the stamp is not 
+   * valid. Readers are therefore fast only for meshes that change 
+   * infrequently.
+   * <p>
+   * Each reader remembers the tet where its last search ended, and may
+   * begin its next search in that tet. Therefore, searches for points
+   * near the previous point searched are fast.
+   */
+  public static class Reader {
+
+    /**
+     * Constructs a reader for the specified mesh.
+     * @param mesh the mesh.
+     */
+    public Reader(TetMesh mesh) {
+      _mesh = mesh;
+    }
+
+    /**
+     * Returns the mesh queried by this reader.
+     * @return the mesh.
+     */
+    public TetMesh getMesh() {
+      return _mesh;
+    }
+
+    /**
+     * Locates a point with specified coordinates.
+     * @param x the x coordinate.
+     * @param y the y coordinate.
+     * @param z the z coordinate.
+     * @return the {@link PointLocation}.
+     */
+    public PointLocation locatePoint(float x, float y, float z) {
+      long stamp = begin();
+      if (stamp!=0L) {
+        try {
+          PointLocation pl = locate(x,y,z);
+          if (end(stamp))
+            return pl;
+        } catch (NullPointerException |
+                 ArrayIndexOutOfBoundsException |
+                 IllegalArgumentException |
+                 ConcurrentModificationException |
+                 AssertionError e) {
+          if (end(stamp))
+            throw e; // not caused by a change to the mesh
+        }
+      }
+      synchronized (_mesh) {
+        beginSynchronized();
+        return locate(x,y,z);
+      }
+    }
+
+    /**
+     * Finds the node nearest to the point with specified coordinates.
+     * @param x the x coordinate.
+     * @param y the y coordinate.
+     * @param z the z coordinate.
+     * @return the nearest node; null, if the mesh has no nodes.
+     */
+    public Node findNodeNearest(float x, float y, float z) {
+      long stamp = begin();
+      if (stamp!=0L) {
+        try {
+          Node node = findNearest(x,y,z);
+          if (end(stamp))
+            return node;
+        } catch (NullPointerException |
+                 ArrayIndexOutOfBoundsException |
+                 IllegalArgumentException |
+                 ConcurrentModificationException |
+                 AssertionError e) {
+          if (end(stamp))
+            throw e; // not caused by a change to the mesh
+        }
+      }
+      synchronized (_mesh) {
+        beginSynchronized();
+        return findNearest(x,y,z);
+      }
+    }
+
+    /**
+     * Gets an array of node nabors of the specified node.
+     * @param node the node for which to get nabors.
+     * @return the array of nabors.
+     */
+    public Node[] getNodeNabors(Node node) {
+      NodeList nabors = new NodeList();
+      getNodeNabors(node,nabors);
+      return nabors.trim();
+    }
+
+    /**
+     * Appends the node nabors of the specified node to the specified list.
+     * @param node the node for which to get nabors.
+     * @param nabors the list to which nabors are appended.
+     */
+    public void getNodeNabors(Node node, NodeList nabors) {
+      int nnabor = nabors._n;
+      long stamp = begin();
+      if (stamp!=0L) {
+        try {
+          addNodeNabors(node,nabors);
+          if (end(stamp))
+            return;
+        } catch (NullPointerException |
+                 ArrayIndexOutOfBoundsException |
+                 IllegalArgumentException |
+                 ConcurrentModificationException |
+                 AssertionError e) {
+          if (end(stamp))
+            throw e; // not caused by a change to the mesh
+        }
+        nabors._n = nnabor;
+      }
+      synchronized (_mesh) {
+        beginSynchronized();
+        addNodeNabors(node,nabors);
+      }
+    }
+
+    /**
+     * Gets an array of tet nabors of the specified node.
+     * @param node the node for which to get nabors.
+     * @return the array of nabors.
+     */
+    public Tet[] getTetNabors(Node node) {
+      TetList nabors = new TetList();
+      getTetNabors(node,nabors);
+      return nabors.trim();
+    }
+
+    /**
+     * Appends the tet nabors of the specified node to the specified list.
+     * @param node the node for which to get nabors.
+     * @param nabors the list to which nabors are appended.
+     */
+    public void getTetNabors(Node node, TetList nabors) {
+      int nnabor = nabors._n;
+      long stamp = begin();
+      if (stamp!=0L) {
+        try {
+          addTetNabors(node,nabors);
+          if (end(stamp))
+            return;
+        } catch (NullPointerException |
+                 ArrayIndexOutOfBoundsException |
+                 IllegalArgumentException |
+                 ConcurrentModificationException |
+                 AssertionError e) {
+          if (end(stamp))
+            throw e; // not caused by a change to the mesh
+        }
+        nabors._n = nnabor;
+      }
+      synchronized (_mesh) {
+        beginSynchronized();
+        addTetNabors(node,nabors);
+      }
+    }
+
+    private TetMesh _mesh; // the mesh queried by this reader
+    private long _version = -1; // mesh version for the tet and samples
+    private long _stamp; // stamp for the query; 0, if synchronized
+    private Tet _tet; // tet where the last search ended; null, if none
+    private Node[] _samples; // sampled nodes, copied from the mesh
+    private NodeList _nodes = new NodeList(); // for nearest node search
+    private TetList _tets = new TetList(); // for node nabor search
+    private Marks _nodeMarks = new Marks(); // marks for nodes
+    private Marks _tetMarks = new Marks(); // marks for tets
+
+    /**
+     * Begins an optimistic query. If the mesh has changed since the 
+     * previous query, forgets the last tet found. Returns a stamp that 
+     * must be valid when the query ends; zero, if the mesh is changing.
+     */
+    private long begin() {
+      long stamp = _stamp = _mesh._lock.tryOptimisticRead();
+      forgetIfChanged();
+      return stamp;
+    }
+
+    /**
+     * Begins a query while synchronized on the mesh, so that no changes
+     * to the mesh are in progress, except perhaps in this thread, as when
+     * listeners query the mesh. Such queries are not checked.
+     */
+    private void beginSynchronized() {
+      _stamp = 0L;
+      forgetIfChanged();
+    }
+
+    /**
+     * Forgets the last tet found and sampled nodes, if the mesh version
+     * has changed since they were found.
+     */
+    private void forgetIfChanged() {
+      long version = _mesh._version;
+      if (version!=_version) {
+        _version = version;
+        _tet = null;
+        _samples = null;
+      }
+    }
+
+    /**
+     * Ends an optimistic query. Returns true, if the mesh has not changed 
+     * since the query began; false, otherwise.
+     */
+    private boolean end(long stamp) {
+      return _mesh._lock.validate(stamp);
+    }
+
+    /**
+     * Throws an exception if the mesh has changed since an optimistic 
+     * query began. Called in each loop of a query that may never end if 
+     * the mesh changes during that query.
+     */
+    private void check() {
+      if (_stamp!=0L && !_mesh._lock.validate(_stamp))
+        throw new ConcurrentModificationException(
+          "mesh was modified during query");
+    }
+
+    /**
+     * Locates a point without synchronizing on the mesh.
+     */
+    private PointLocation locate(float x, float y, float z) {
+      PointLocation pl;
+      if (_mesh._troot==null) {
+        pl = _mesh.locateNode(x,y,z,this);
+      } else {
+        pl = walkToPoint(findTetNear(x,y,z),x,y,z,this);
+        _tet = pl._tet;
+      }
+      return pl;
+    }
+
+    /**
+     * Finds the nearest node without synchronizing on the mesh.
+     */
+    private Node findNearest(float x, float y, float z) {
+      Node nmin = null;
+      if (_mesh._troot==null) {
+        Node nroot = _mesh._nroot;
+        if (nroot!=null) {
+          double dmin = Double.MAX_VALUE;
+          Node node = nroot;
+          do {
+            check();
+            double d = distanceSquared(node,x,y,z);
+            if (d<dmin) {
+              dmin = d;
+              nmin = node;
+            }
+            node = node._next;
+          } while (node!=nroot);
+        }
+      } else {
+
+        // Walk from node to nearer nabor node until no nabor is nearer.
+        // In a Delaunay tetrahedralization, any node that is not the
+        // nearest node has a nabor node that is nearer.
+        Tet tet = findTetNear(x,y,z);
+        nmin = tet._n0;
+        double dmin = distanceSquared(nmin,x,y,z);
+        for (Node node=nmin; node!=null; ) {
+          node = null;
+          _nodes.clear();
+          addNodeNabors(nmin,_nodes);
+          Node[] nodes = _nodes.nodes();
+          int nnode = _nodes.nnode();
+          for (int inode=0; inode<nnode; ++inode) {
+            double d = distanceSquared(nodes[inode],x,y,z);
+            if (d<dmin) {
+              dmin = d;
+              node = nodes[inode];
+            }
+          }
+          if (node!=null)
+            nmin = node;
+        }
+        _tet = nmin._tet;
+      }
+      return nmin;
+    }
+
+    /**
+     * Appends node nabors without synchronizing on the mesh.
+     */
+    private void addNodeNabors(Node node, NodeList nabors) {
+      _tets.clear();
+      addTetNabors(node,_tets);
+      _nodeMarks.clear();
+      Tet[] tets = _tets.tets();
+      int ntet = _tets.ntet();
+      for (int itet=0; itet<ntet; ++itet) {
+        Tet tet = tets[itet];
+        addNode(node,tet._n0,nabors);
+        addNode(node,tet._n1,nabors);
+        addNode(node,tet._n2,nabors);
+        addNode(node,tet._n3,nabors);
+      }
+    }
+
+    /**
+     * Appends tet nabors without synchronizing on the mesh.
+     */
+    private void addTetNabors(Node node, TetList nabors) {
+      Tet first = node._tet;
+      if (first!=null) {
+
+        // The list of nabors is also the queue of tets to be searched.
+        // The tets adjacent to a tet that references the node are those
+        // opposite the other three nodes of that tet.
+        _tetMarks.clear();
+        _tetMarks.add(first);
+        int itet = nabors.ntet();
+        nabors.add(first);
+        while (itet<nabors.ntet()) {
+          check();
+          Tet tet = nabors.tets()[itet++];
+          addTet(node,tet._n0,tet._t0,nabors);
+          addTet(node,tet._n1,tet._t1,nabors);
+          addTet(node,tet._n2,tet._t2,nabors);
+          addTet(node,tet._n3,tet._t3,nabors);
+        }
+      }
+    }
+
+    /**
+     * Returns a tet in which to begin a search for the point (x,y,z).
+     * This tet references the node nearest to the point among the sampled
+     * nodes and the nodes of the tet where the last search ended.
+     */
+    private Tet findTetNear(double x, double y, double z) {
+      if (_samples==null)
+        _samples = _mesh._sampledNodes.toArray(new Node[0]);
+      Node nmin = _mesh._nroot;
+      if (_tet!=null)
+        nmin = _tet._n0;
+      double dmin = distanceSquared(nmin,x,y,z);
+      for (Node n:_samples) {
+        double d = distanceSquared(n,x,y,z);
+        if (d<dmin) {
+          dmin = d;
+          nmin = n;
+        }
+      }
+      return (_tet!=null && nmin==_tet._n0)?_tet:nmin._tet;
+    }
+
+    /**
+     * Appends the tet nabor opposite node n, if not null and not marked.
+     * Does nothing if node n is the node for which nabors are sought.
+     */
+    private void addTet(Node node, Node n, Tet tet, TetList nabors) {
+      if (n!=node && tet!=null && _tetMarks.add(tet))
+        nabors.add(tet);
+    }
+
+    /**
+     * Appends the node n, if not marked and not the specified node.
+     */
+    private void addNode(Node node, Node n, NodeList nabors) {
+      if (n!=node && _nodeMarks.add(n))
+        nabors.add(n);
+    }
+  }
+
+  /**
+   * A set of marked objects, used by readers that cannot use the marks
+   * stored in nodes and tets. Objects are hashed by identity.
+   */
+  private static class Marks {
+    boolean add(Object o) {
+      if (2*(_n+1)>_a.length)
+        grow();
+      int i = hash(o);
+      for (Object a=_a[i]; a!=null; a=_a[i]) {
+        if (a==o)
+          return false;
+        i = (i+1)&_mask;
+      }
+      _a[i] = o;
+      _k[_n++] = i;
+      return true;
+    }
+    void clear() {
+      for (int i=0; i<_n; ++i)
+        _a[_k[i]] = null;
+      _n = 0;
+    }
+    private int _n; // number of marked objects
+    private int _mask = 255; // capacity of the table minus one
+    private Object[] _a = new Object[256]; // hash table of objects
+    private int[] _k = new int[128]; // indices of objects in the table
+    private int hash(Object o) {
+      int h = System.identityHashCode(o)*0x9e3779b9;
+      return (h^(h>>>16))&_mask;
+    }
+    private void grow() {
+      Object[] a = _a;
+      int[] k = _k;
+      int n = _n;
+      _mask = 2*a.length-1;
+      _a = new Object[2*a.length];
+      _k = new int[a.length];
+      _n = 0;
+      for (int i=0; i<n; ++i)
+        add(a[k[i]]);
+    }
+  }
+
   /**
    * Implemented by maps that associate property values with mesh nodes.
    * This interface is implemented by all node property maps created
@@ -2001,7 +2437,9 @@ public class TetMesh implements Serializable {
    * whenever the mesh changes. Therefore, this number can be used to lazily
    * determine if the mesh has changed since the version number was last got.
    * Comparing version numbers may in some applications serve as a cheap 
-   * alternative to adding node and tet listeners to the mesh.
+   * alternative to adding node and tet listeners to the mesh. The version
+   * number is odd while the mesh is changing, as when listeners are 
+   * notified of changes, and even otherwise.
    * @return the version number.
    */
   public long getVersion() {
@@ -2024,81 +2462,72 @@ public class TetMesh implements Serializable {
       return false;
 
     // Tell listeners that node will be added.
+    beginChange();
     fireNodeWillBeAdded(node);
 
-    // The new node becomes the root node.
-    if (_nroot==null) {
-      _nroot = node;
-      _nroot._prev = _nroot._next = _nroot;
-    } else {
-      node._next = _nroot;
-      node._prev = _nroot._prev;
-      _nroot._prev._next = node;
-      _nroot._prev = node;
-      _nroot = node;
-    }
-    ++_nnode;
-
-    // Update node property values so they are consistent with this mesh.
-    updatePropertyValues(node);
-
-    // Maintain adequate sampling of O(N^(1/4)) nodes for fast point location.
-    // The scale factor 0.5 was used by Mucke et al., 1996.
-    double factor = 0.5*_sampledNodes.size();
-    if (factor*factor*factor*factor<_nnode) {
-      _sampledNodes.add(node);
-      //trace("addNode: sampling "+_sampledNodes.size()+" nodes");
-    }
-
-    // If we do not yet have a tet, perhaps we have enough nodes to make one.
-    if (pl.isOutside() && _nnode<=4) {
-      if (_nnode==4)
-        createFirstTet();
-
-    // Otherwise, if we have at least one tet, ...
-    } else {
-
-      // Get the set of Delaunay faces that bound the star-shaped 
-      // polyhedron containing all tets that are not Delaunay with 
-      // respect to the new node.
-      clearTetMarks();
-      _faceSet.clear();
-      if (pl.isInside()) {
-        getDelaunayFacesInside(node,pl.tet());
-      } else {
-        getDelaunayFacesOutside(node,pl.tet());
-      }
-
-      // With each Delaunay face in the set, create a new tet with 
-      // the new node. Use an edge set to link tets when a tet and 
-      // its nabor have been created.
-      _edgeSet.clear();
-      for (boolean more=_faceSet.first(); more; more=_faceSet.next()) {
-        Node a = _faceSet.a;
-        Node b = _faceSet.b;
-        Node c = _faceSet.c;
-        Node d = _faceSet.d;
-        Tet abcd = _faceSet.abcd;
-        Tet nabc = makeTet(node,a,b,c);
-        linkTets(nabc,node,abcd,d);
-        if (!_edgeSet.add(a,b,c,nabc))
-          linkTets(_edgeSet.nabc,_edgeSet.c,nabc,c);
-        if (!_edgeSet.add(b,c,a,nabc))
-          linkTets(_edgeSet.nabc,_edgeSet.c,nabc,a);
-        if (!_edgeSet.add(c,a,b,nabc))
-          linkTets(_edgeSet.nabc,_edgeSet.c,nabc,b);
-      }
-    }
+    // Insert the node into the mesh.
+    insertNode(node,pl);
 
     if (DEBUG)
       validate();
 
     // Tell listeners that node has been added.
     fireNodeAdded(node);
+    endChange();
 
     return true;
   }
 
+  /**
+   * Adds the specified nodes to the mesh. Nodes with (x,y,z) coordinates 
+   * equal to those of nodes already in the mesh are not added. Of nodes 
+   * in the specified array with equal coordinates, only one is added.
+   * <p>
+   * This method is much faster than adding nodes one at a time, because
+   * it adds nodes in a biased randomized insertion order, in which nodes 
+   * consecutively added are likely to be near each other. The search for 
+   * the location of each node then begins in a tet that was created when
+   * the previous node was added, and that search is typically short. 
+   * <p>
+   * As in the method {@link #addNode(Node)}, node listeners are told that
+   * each node will be added before it is inserted into the mesh, and that
+   * it has been added after. Listeners are notified in the order in which
+   * nodes are added, which is not the order of the specified array.
+   * @param nodes array of nodes to add.
+   * @return the number of nodes added.
+   */
+  public synchronized int addNodes(Node[] nodes) {
+    int n = nodes.length;
+    float[] x = new float[n];
+    float[] y = new float[n];
+    float[] z = new float[n];
+    for (int i=0; i<n; ++i) {
+      x[i] = nodes[i].x();
+      y[i] = nodes[i].y();
+      z[i] = nodes[i].z();
+    }
+    int[] order = InsertionOrder.brio(x,y,z);
+    int nadded = 0;
+    beginChange();
+    for (int j=0; j<n; ++j) {
+      int i = order[j];
+      Node node = nodes[i];
+      PointLocation pl = (_troot!=null) ?
+        locatePoint(_troot,node._x,node._y,node._z) :
+        locatePoint(node._x,node._y,node._z);
+      if (!pl.isOnNode()) {
+        fireNodeWillBeAdded(node);
+        insertNode(node,pl);
+        fireNodeAdded(node);
+        ++nadded;
+      }
+    }
+    if (DEBUG)
+      validate();
+    endChange();
+    return nadded;
+  }
+
   /**
    * Removes a node from the mesh, if the node is in the mesh.
    * @param node the node to remove.
@@ -2114,6 +2543,7 @@ public class TetMesh implements Serializable {
       return false;
 
     // Tell listeners that node will be removed.
+    beginChange();
     fireNodeWillBeRemoved(node);
 
     // Unlink the node from the mesh, leaving only references from tets.
@@ -2206,6 +2636,7 @@ public class TetMesh implements Serializable {
 
     // Tell listeners that node was removed.
     fireNodeRemoved(node);
+    endChange();
 
     return true;
   }
@@ -3069,7 +3500,7 @@ public class TetMesh implements Serializable {
       }
     }
 
-    ++_version;
+    _version += 2; // still even; readers do not use inner and outer bits
     _outerEnabled = true;
   }
 
@@ -3078,8 +3509,8 @@ public class TetMesh implements Serializable {
    * With outer box testing enabled, tets are either inner or outer.
    * By default, outer box testing is disabled.
    */
-  public void enableOuterBox() {
-    ++_version;
+  public synchronized void enableOuterBox() {
+    _version += 2;
     _outerEnabled = true;
   }
 
@@ -3088,8 +3519,8 @@ public class TetMesh implements Serializable {
    * With outer box testing disabled, all tets are inner.
    * By default, outer box testing is disabled.
    */
-  public void disableOuterBox() {
-    ++_version;
+  public synchronized void disableOuterBox() {
+    _version += 2;
     _outerEnabled = false;
   }
 
@@ -3493,6 +3924,7 @@ public class TetMesh implements Serializable {
    */
   protected void init() {
     _version = 0;
+    _lock = new StampedLock();
     _nnode = 0;
     _ntet = 0;
     _nroot = null;
@@ -3529,7 +3961,10 @@ public class TetMesh implements Serializable {
   private static final int NODE_MARK_MAX = Integer.MAX_VALUE-1;
   private static final int TET_MARK_MAX = Integer.MAX_VALUE-1;
 
-  private long _version; // the version number
+  private volatile long _version; // the version number; odd, if changing
+  private int _nchange; // number of changes in progress
+  private StampedLock _lock; // write locked while changing, for readers
+  private long _lockStamp; // stamp for the write lock
   private int _nnode; // number of nodes
   private int _ntet; // number of tets
   private Node _nroot = null; // a node in the mesh
@@ -3654,6 +4089,77 @@ public class TetMesh implements Serializable {
     };
   }
 
+  /**
+   * Inserts a node at the specified location, which must not be on a node
+   * already in the mesh. Does not notify node listeners.
+   */
+  private void insertNode(Node node, PointLocation pl) {
+
+    // The new node becomes the root node.
+    if (_nroot==null) {
+      _nroot = node;
+      _nroot._prev = _nroot._next = _nroot;
+    } else {
+      node._next = _nroot;
+      node._prev = _nroot._prev;
+      _nroot._prev._next = node;
+      _nroot._prev = node;
+      _nroot = node;
+    }
+    ++_nnode;
+
+    // Update node property values so they are consistent with this mesh.
+    updatePropertyValues(node);
+
+    // Maintain adequate sampling of O(N^(1/4)) nodes for fast point location.
+    // The scale factor 0.5 was used by Mucke et al., 1996.
+    double factor = 0.5*_sampledNodes.size();
+    if (factor*factor*factor*factor<_nnode) {
+      _sampledNodes.add(node);
+      //trace("addNode: sampling "+_sampledNodes.size()+" nodes");
+    }
+
+    // If we do not yet have a tet, perhaps we have enough nodes to make one.
+    if (pl.isOutside() && _nnode<=4) {
+      if (_nnode==4)
+        createFirstTet();
+
+    // Otherwise, if we have at least one tet, ...
+    } else {
+
+      // Get the set of Delaunay faces that bound the star-shaped 
+      // polyhedron containing all tets that are not Delaunay with 
+      // respect to the new node.
+      clearTetMarks();
+      _faceSet.clear();
+      if (pl.isInside()) {
+        getDelaunayFacesInside(node,pl.tet());
+      } else {
+        getDelaunayFacesOutside(node,pl.tet());
+      }
+
+      // With each Delaunay face in the set, create a new tet with 
+      // the new node. Use an edge set to link tets when a tet and 
+      // its nabor have been created.
+      _edgeSet.clear();
+      for (boolean more=_faceSet.first(); more; more=_faceSet.next()) {
+        Node a = _faceSet.a;
+        Node b = _faceSet.b;
+        Node c = _faceSet.c;
+        Node d = _faceSet.d;
+        Tet abcd = _faceSet.abcd;
+        Tet nabc = makeTet(node,a,b,c);
+        linkTets(nabc,node,abcd,d);
+        if (!_edgeSet.add(a,b,c,nabc))
+          linkTets(_edgeSet.nabc,_edgeSet.c,nabc,c);
+        if (!_edgeSet.add(b,c,a,nabc))
+          linkTets(_edgeSet.nabc,_edgeSet.c,nabc,a);
+        if (!_edgeSet.add(c,a,b,nabc))
+          linkTets(_edgeSet.nabc,_edgeSet.c,nabc,b);
+      }
+    }
+  }
+
   /**
    * Returns a new tet, possibly one resurrected from the dead.
    * Resurrection reduces the need for garbage collection of dead tets.
@@ -4690,18 +5196,8 @@ public class TetMesh implements Serializable {
   private PointLocation locatePoint(double x, double y, double z) {
 
     // If no tets yet, search the node list for an exact match.
-    // Here, we use unperturbed node coordinates.
-    if (_troot==null) {
-      if (_nroot!=null) {
-        Node node = _nroot;
-        do {
-          if (x==node.x() && y==node.y() && z==node.z())
-            return new PointLocation(node);
-          node = node._next;
-        } while (node!=_nroot);
-      }
-      return new PointLocation(null,false);
-    }
+    if (_troot==null)
+      return locateNode(x,y,z,null);
 
     // Otherwise, find a good tet in which to begin the recursive search.
     Node nmin = _nroot;
@@ -4718,120 +5214,151 @@ public class TetMesh implements Serializable {
   }
 
   /**
-   * Recursively searches tets beginning with the specified tet,
-   * to locate the point (x,y,z).
+   * Locates a point in a mesh with no tets, by searching the node list
+   * for an exact match. Here, we use unperturbed node coordinates.
+   * If not null, the specified reader checks for changes to the mesh.
+   */
+  private PointLocation locateNode(
+    double x, double y, double z, Reader reader) 
+  {
+    Node nroot = _nroot;
+    if (nroot!=null) {
+      Node node = nroot;
+      do {
+        if (reader!=null)
+          reader.check();
+        if (x==node.x() && y==node.y() && z==node.z())
+          return new PointLocation(node);
+        node = node._next;
+      } while (node!=nroot);
+    }
+    return new PointLocation(null,false);
+  }
+
+  /**
+   * Searches tets beginning with the specified tet, to locate the point
+   * (x,y,z). Future searches begin in the tet where this search ends.
    */
   private PointLocation locatePoint(Tet tet, double x, double y, double z) {
+    PointLocation pl = walkToPoint(tet,x,y,z,null);
+    _troot = pl._tet;
+    return pl;
+  }
 
-    // Begin future searches in the specified tet.
-    _troot = tet;
+  /**
+   * Walks through tets beginning with the specified tet, to locate the
+   * point (x,y,z). This walk neither uses marks nor modifies the mesh, so
+   * that any number of walks may be performed concurrently. If not null,
+   * the specified reader checks for changes to the mesh.
+   */
+  private static PointLocation walkToPoint(
+    Tet tet, double x, double y, double z, Reader reader)
+  {
+    for (;;) {
+      if (reader!=null)
+        reader.check();
 
-    // Node coordinates.
-    Node n0 = tet._n0;
-    Node n1 = tet._n1;
-    Node n2 = tet._n2;
-    Node n3 = tet._n3;
-    double x0 = n0._x;
-    double y0 = n0._y;
-    double z0 = n0._z;
-    double x1 = n1._x;
-    double y1 = n1._y;
-    double z1 = n1._z;
-    double x2 = n2._x;
-    double y2 = n2._y;
-    double z2 = n2._z;
-    double x3 = n3._x;
-    double y3 = n3._y;
-    double z3 = n3._z;
-
-    // If exactly on a node, the search is complete.
-    // We assume that this scenario is rare, but that the cost of testing
-    // for it is small compared to the left-of-plane tests below.
-    if (x==x0 && y==y0 && z==z0) {
-      return new PointLocation(n0);
-    } else if (x==x1 && y==y1 && z==z1) {
-      return new PointLocation(n1);
-    } else if (x==x2 && y==y2 && z==z2) {
-      return new PointLocation(n2);
-    } else if (x==x3 && y==y3 && z==z3) {
-      return new PointLocation(n3);
-    }
-
-    // Locate the search point with respect to the four faces of the tet.
-    // If any left-of-plane test is positive, then recursively search in
-    // the corresponding nabor tet, unless that nabor tet is null, in which
-    // case the search point lies outside the mesh and the specified tet is
-    // on the convex hull and is visible from the search point.
-    // TODO: experiment to determine whether it is more efficient to
-    // go through the face with the most positive left-of-plane test.
-    double d0 = Geometry.leftOfPlane(x1,y1,z1,x2,y2,z2,x3,y3,z3,x,y,z);
-    if (d0>0.0) {
-      Tet tetNabor = tet.tetNabor(n0);
-      if (tetNabor!=null) {
-        return locatePoint(tetNabor,x,y,z);
-      } else {
-        return new PointLocation(tet,false);
-      }
-    }
-    double d1 = Geometry.leftOfPlane(x3,y3,z3,x2,y2,z2,x0,y0,z0,x,y,z);
-    if (d1>0.0) {
-      Tet tetNabor = tet.tetNabor(n1);
-      if (tetNabor!=null) {
-        return locatePoint(tetNabor,x,y,z);
-      } else {
-        return new PointLocation(tet,false);
-      }
-    }
-    double d2 = Geometry.leftOfPlane(x3,y3,z3,x0,y0,z0,x1,y1,z1,x,y,z);
-    if (d2>0.0) {
-      Tet tetNabor = tet.tetNabor(n2);
-      if (tetNabor!=null) {
-        return locatePoint(tetNabor,x,y,z);
-      } else {
-        return new PointLocation(tet,false);
-      }
+      // Node coordinates.
+      Node n0 = tet._n0;
+      Node n1 = tet._n1;
+      Node n2 = tet._n2;
+      Node n3 = tet._n3;
+      double x0 = n0._x;
+      double y0 = n0._y;
+      double z0 = n0._z;
+      double x1 = n1._x;
+      double y1 = n1._y;
+      double z1 = n1._z;
+      double x2 = n2._x;
+      double y2 = n2._y;
+      double z2 = n2._z;
+      double x3 = n3._x;
+      double y3 = n3._y;
+      double z3 = n3._z;
+
+      // If exactly on a node, the search is complete.
+      // We assume that this scenario is rare, but that the cost of testing
+      // for it is small compared to the left-of-plane tests below.
+      if (x==x0 && y==y0 && z==z0) {
+        return new PointLocation(n0);
+      } else if (x==x1 && y==y1 && z==z1) {
+        return new PointLocation(n1);
+      } else if (x==x2 && y==y2 && z==z2) {
+        return new PointLocation(n2);
+      } else if (x==x3 && y==y3 && z==z3) {
+        return new PointLocation(n3);
+      }
+
+      // Locate the search point with respect to the four faces of the tet.
+      // If any left-of-plane test is positive, then continue the search in
+      // the corresponding nabor tet, unless that nabor tet is null, in which
+      // case the search point lies outside the mesh and the current tet is
+      // on the convex hull and is visible from the search point.
+      double d0 = Geometry.leftOfPlane(x1,y1,z1,x2,y2,z2,x3,y3,z3,x,y,z);
+      if (d0>0.0) {
+        Tet tetNabor = tet.tetNabor(n0);
+        if (tetNabor==null)
+          return new PointLocation(tet,false);
+        tet = tetNabor;
+        continue;
+      }
+      double d1 = Geometry.leftOfPlane(x3,y3,z3,x2,y2,z2,x0,y0,z0,x,y,z);
+      if (d1>0.0) {
+        Tet tetNabor = tet.tetNabor(n1);
+        if (tetNabor==null)
+          return new PointLocation(tet,false);
+        tet = tetNabor;
+        continue;
+      }
+      double d2 = Geometry.leftOfPlane(x3,y3,z3,x0,y0,z0,x1,y1,z1,x,y,z);
+      if (d2>0.0) {
+        Tet tetNabor = tet.tetNabor(n2);
+        if (tetNabor==null)
+          return new PointLocation(tet,false);
+        tet = tetNabor;
+        continue;
+      }
+      double d3 = Geometry.leftOfPlane(x0,y0,z0,x2,y2,z2,x1,y1,z1,x,y,z);
+      if (d3>0.0) {
+        Tet tetNabor = tet.tetNabor(n3);
+        if (tetNabor==null)
+          return new PointLocation(tet,false);
+        tet = tetNabor;
+        continue;
+      }
+
+      // If strictly inside the tet, the search is complete.
+      if (d0<0.0 && d1<0.0 && d2<0.0 && d3<0.0) {
+        return new PointLocation(tet);
+      }
+
+      // Must be on an edge or face of the current tet.
+      if (d0==0.0 && d1==0.0) {
+        return new PointLocation(new Edge(tet,n2,n3));
+      } else if (d0==0.0 && d2==0.0) {
+        return new PointLocation(new Edge(tet,n3,n1));
+      } else if (d0==0.0 && d3==0.0) {
+        return new PointLocation(new Edge(tet,n1,n2));
+      } else if (d1==0.0 && d2==0.0) {
+        return new PointLocation(new Edge(tet,n0,n3));
+      } else if (d1==0.0 && d3==0.0) {
+        return new PointLocation(new Edge(tet,n2,n0));
+      } else if (d2==0.0 && d3==0.0) {
+        return new PointLocation(new Edge(tet,n0,n1));
+      } else if (d0==0.0) {
+        return new PointLocation(new Face(tet,n0));
+      } else if (d1==0.0) {
+        return new PointLocation(new Face(tet,n1));
+      } else if (d2==0.0) {
+        return new PointLocation(new Face(tet,n2));
+      } else if (d3==0.0) {
+        return new PointLocation(new Face(tet,n3));
+      }
+
+      // Where are we?!
+      assert false:"successfully located the point";
+      return null;
     }
-    double d3 = Geometry.leftOfPlane(x0,y0,z0,x2,y2,z2,x1,y1,z1,x,y,z);
-    if (d3>0.0) {
-      Tet tetNabor = tet.tetNabor(n3);
-      if (tetNabor!=null) {
-        return locatePoint(tetNabor,x,y,z);
-      } else {
-        return new PointLocation(tet,false);
-      }
-    }
-
-    // If strictly inside the tet, the search is complete.
-    if (d0<0.0 && d1<0.0 && d2<0.0 && d3<0.0) {
-      return new PointLocation(tet);
-    }
-
-    // Must be on an edge or face of the specified tet.
-    if (d0==0.0 && d1==0.0) {
-      return new PointLocation(new Edge(tet,n2,n3));
-    } else if (d0==0.0 && d2==0.0) {
-      return new PointLocation(new Edge(tet,n3,n1));
-    } else if (d0==0.0 && d3==0.0) {
-      return new PointLocation(new Edge(tet,n1,n2));
-    } else if (d1==0.0 && d2==0.0) {
-      return new PointLocation(new Edge(tet,n0,n3));
-    } else if (d1==0.0 && d3==0.0) {
-      return new PointLocation(new Edge(tet,n2,n0));
-    } else if (d2==0.0 && d3==0.0) {
-      return new PointLocation(new Edge(tet,n0,n1));
-    } else if (d0==0.0) {
-      return new PointLocation(new Face(tet,n0));
-    } else if (d1==0.0) {
-      return new PointLocation(new Face(tet,n1));
-    } else if (d2==0.0) {
-      return new PointLocation(new Face(tet,n2));
-    } else if (d3==0.0) {
-      return new PointLocation(new Face(tet,n3));
-    }
-
-    // Where are we?!
-    assert false:"successfully located the point";
-    return null;
   }
 
   /**
@@ -5780,8 +6307,36 @@ public class TetMesh implements Serializable {
     }
   }
 
+  /**
+   * Begins a change to this mesh, by making the version number odd and 
+   * acquiring the write lock, so that readers query the mesh only while 
+   * synchronized on it. Changes may be nested, as when listeners modify 
+   * the mesh. A nested change leaves the version number odd, but still 
+   * changes that number.
+   */
+  private void beginChange() {
+    if (_nchange++==0) {
+      _lockStamp = _lock.writeLock();
+      _version += 1;
+    } else {
+      _version += 2;
+    }
+  }
+
+  /**
+   * Ends a change to this mesh. When the outermost change ends, the
+   * version number becomes even and the write lock is released.
+   */
+  private void endChange() {
+    if (--_nchange==0) {
+      _version += 1;
+      _lock.unlockWrite(_lockStamp);
+    } else {
+      _version += 2;
+    }
+  }
+
   private void fireNodeWillBeAdded(Node node) {
-    ++_version;
     if (_nnodeListeners>0) {
       Object[] list = _listeners.getListenerList();
       for (int i=list.length-2; i>=0; i-=2)
@@ -5791,7 +6346,6 @@ public class TetMesh implements Serializable {
   }
 
   private void fireNodeAdded(Node node) {
-    ++_version;
     if (_nnodeListeners>0) {
       Object[] list = _listeners.getListenerList();
       for (int i=list.length-2; i>=0; i-=2)
@@ -5801,7 +6355,6 @@ public class TetMesh implements Serializable {
   }
 
   private void fireNodeWillBeRemoved(Node node) {
-    ++_version;
     if (_nnodeListeners>0) {
       Object[] list = _listeners.getListenerList();
       for (int i=list.length-2; i>=0; i-=2)
@@ -5811,7 +6364,6 @@ public class TetMesh implements Serializable {
   }
 
   private void fireNodeRemoved(Node node) {
-    ++_version;
     if (_nnodeListeners>0) {
       Object[] list = _listeners.getListenerList();
       for (int i=list.length-2; i>=0; i-=2)
@@ -5821,7 +6373,6 @@ public class TetMesh implements Serializable {
   }
 
   private void fireTetAdded(Tet tet) {
-    ++_version;
     if (_ntetListeners>0) {
       Object[] list = _listeners.getListenerList();
       for (int i=list.length-2; i>=0; i-=2)
@@ -5831,7 +6382,6 @@ public class TetMesh implements Serializable {
   }
 
   private void fireTetRemoved(Tet tet) {
-    ++_version;
     if (_ntetListeners>0) {
       Object[] list = _listeners.getListenerList();
       for (int i=list.length-2; i>=0; i-=2)
@@ -6390,6 +6940,7 @@ public class TetMesh implements Serializable {
 
       // Mesh version.
       _version = in.readLong();
+      _version += _version&1L; // even, because the mesh is not changing
 
       // Nodes.
       int nnode = _nnode = in.readInt();
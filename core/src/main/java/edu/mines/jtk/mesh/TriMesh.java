@@ -16,6 +16,7 @@ package edu.mines.jtk.mesh;
 
 import java.io.*;
 import java.util.*;
+import java.util.concurrent.locks.StampedLock;
 import javax.swing.event.EventListenerList;
 
 import edu.mines.jtk.util.Check;
@@ -46,8 +47,13 @@ import static edu.mines.jtk.util.MathPlus.*;
  * three or more nodes are exactly co-linear, or that four or more nodes 
  * lie exactly on the circumcircle of any tri in the mesh. Only the least 
  * significant bits of the double coordinates are altered, so that casting 
- * the perturbed doubles to floats always yields the float coordinates 
+ * the perturbed doubles to floats always yields the float coordinates
  * with which nodes are constructed.
+ * <p>
+ * Methods that modify or query the mesh are synchronized, so that only
+ * one thread at a time may use them. To query a mesh concurrently in
+ * multiple threads, each thread may instead use its own mesh
+ * {@link TriMesh.Reader}.
  *
  * @author Dave Hale, Colorado School of Mines
  * @version 2004.03.08, 2006.08.02
@@ -1187,6 +1193,403 @@ public class TriMesh implements Serializable {
     }
   }
 
+  /**
+   * A reader that queries a mesh without locking it. Most queries of a
+   * mesh are synchronized, because they use marks stored in the mesh.
+   * A reader uses no such marks, so that any number of threads, each
+   * with its own reader, may query the same mesh concurrently.
+   * <p>
+   * A reader is not thread-safe; each thread must use its own reader.
+   * The mesh may be modified while readers query it. Each change to the
+   * mesh holds the write lock of a {@link StampedLock}, and a reader 
+   * queries the mesh optimistically, without locking it. If the mesh is 
+   * changing when a query begins, or if the stamp for that query is not 
+   * valid when it ends, then the query is repeated while synchronized on 
+   * the mesh, after any change in progress has ended. Exceptions that
+   * may be caused by such changes are ignored only if the stamp is not 
+   * valid. Readers are therefore fast only for meshes that change 
+   * infrequently.
+   * <p>
+   * Each reader remembers the tri where its last search ended, and may
+   * begin its next search in that tri. Therefore, searches for points
+   * near the previous point searched are fast.
+   */
+  public static class Reader {
+
+    /**
+     * Constructs a reader for the specified mesh.
+     * @param mesh the mesh.
+     */
+    public Reader(TriMesh mesh) {
+      _mesh = mesh;
+    }
+
+    /**
+     * Returns the mesh queried by this reader.
+     * @return the mesh.
+     */
+    public TriMesh getMesh() {
+      return _mesh;
+    }
+
+    /**
+     * Locates a point with specified coordinates.
+     * @param x the x coordinate.
+     * @param y the y coordinate.
+     * @return the {@link PointLocation}.
+     */
+    public PointLocation locatePoint(float x, float y) {
+      long stamp = begin();
+      if (stamp!=0L) {
+        try {
+          PointLocation pl = locate(x,y);
+          if (end(stamp))
+            return pl;
+        } catch (NullPointerException |
+                 ArrayIndexOutOfBoundsException |
+                 IllegalArgumentException |
+                 ConcurrentModificationException |
+                 AssertionError e) {
+          if (end(stamp))
+            throw e; // not caused by a change to the mesh
+        }
+      }
+      synchronized (_mesh) {
+        beginSynchronized();
+        return locate(x,y);
+      }
+    }
+
+    /**
+     * Finds the node nearest to the point with specified coordinates.
+     * @param x the x coordinate.
+     * @param y the y coordinate.
+     * @return the nearest node; null, if the mesh has no nodes.
+     */
+    public Node findNodeNearest(float x, float y) {
+      long stamp = begin();
+      if (stamp!=0L) {
+        try {
+          Node node = findNearest(x,y);
+          if (end(stamp))
+            return node;
+        } catch (NullPointerException |
+                 ArrayIndexOutOfBoundsException |
+                 IllegalArgumentException |
+                 ConcurrentModificationException |
+                 AssertionError e) {
+          if (end(stamp))
+            throw e; // not caused by a change to the mesh
+        }
+      }
+      synchronized (_mesh) {
+        beginSynchronized();
+        return findNearest(x,y);
+      }
+    }
+
+    /**
+     * Gets an array of node nabors of the specified node.
+     * @param node the node for which to get nabors.
+     * @return the array of nabors.
+     */
+    public Node[] getNodeNabors(Node node) {
+      NodeList nabors = new NodeList();
+      getNodeNabors(node,nabors);
+      return nabors.trim();
+    }
+
+    /**
+     * Appends the node nabors of the specified node to the specified list.
+     * @param node the node for which to get nabors.
+     * @param nabors the list to which nabors are appended.
+     */
+    public void getNodeNabors(Node node, NodeList nabors) {
+      int nnabor = nabors._n;
+      long stamp = begin();
+      if (stamp!=0L) {
+        try {
+          addNodeNabors(node,nabors);
+          if (end(stamp))
+            return;
+        } catch (NullPointerException |
+                 ArrayIndexOutOfBoundsException |
+                 IllegalArgumentException |
+                 ConcurrentModificationException |
+                 AssertionError e) {
+          if (end(stamp))
+            throw e; // not caused by a change to the mesh
+        }
+        nabors._n = nnabor;
+      }
+      synchronized (_mesh) {
+        beginSynchronized();
+        addNodeNabors(node,nabors);
+      }
+    }
+
+    /**
+     * Gets an array of tri nabors of the specified node.
+     * @param node the node for which to get nabors.
+     * @return the array of nabors.
+     */
+    public Tri[] getTriNabors(Node node) {
+      TriList nabors = new TriList();
+      getTriNabors(node,nabors);
+      return nabors.trim();
+    }
+
+    /**
+     * Appends the tri nabors of the specified node to the specified list.
+     * @param node the node for which to get nabors.
+     * @param nabors the list to which nabors are appended.
+     */
+    public void getTriNabors(Node node, TriList nabors) {
+      int nnabor = nabors._n;
+      long stamp = begin();
+      if (stamp!=0L) {
+        try {
+          addTriNabors(node,nabors);
+          if (end(stamp))
+            return;
+        } catch (NullPointerException |
+                 ArrayIndexOutOfBoundsException |
+                 IllegalArgumentException |
+                 ConcurrentModificationException |
+                 AssertionError e) {
+          if (end(stamp))
+            throw e; // not caused by a change to the mesh
+        }
+        nabors._n = nnabor;
+      }
+      synchronized (_mesh) {
+        beginSynchronized();
+        addTriNabors(node,nabors);
+      }
+    }
+
+    private TriMesh _mesh; // the mesh queried by this reader
+    private long _version = -1; // mesh version for the tri and samples
+    private long _stamp; // stamp for the query; 0, if synchronized
+    private Tri _tri; // tri where the last search ended; null, if none
+    private Node[] _samples; // sampled nodes, copied from the mesh
+    private NodeList _nodes = new NodeList(); // for nearest node search
+
+    /**
+     * Begins an optimistic query. If the mesh has changed since the 
+     * previous query, forgets the last tri found. Returns a stamp that 
+     * must be valid when the query ends; zero, if the mesh is changing.
+     */
+    private long begin() {
+      long stamp = _stamp = _mesh._lock.tryOptimisticRead();
+      forgetIfChanged();
+      return stamp;
+    }
+
+    /**
+     * Begins a query while synchronized on the mesh, so that no changes
+     * to the mesh are in progress, except perhaps in this thread, as when
+     * listeners query the mesh. Such queries are not checked.
+     */
+    private void beginSynchronized() {
+      _stamp = 0L;
+      forgetIfChanged();
+    }
+
+    /**
+     * Forgets the last tri found and sampled nodes, if the mesh version
+     * has changed since they were found.
+     */
+    private void forgetIfChanged() {
+      long version = _mesh._version;
+      if (version!=_version) {
+        _version = version;
+        _tri = null;
+        _samples = null;
+      }
+    }
+
+    /**
+     * Ends an optimistic query. Returns true, if the mesh has not changed 
+     * since the query began; false, otherwise.
+     */
+    private boolean end(long stamp) {
+      return _mesh._lock.validate(stamp);
+    }
+
+    /**
+     * Throws an exception if the mesh has changed since an optimistic 
+     * query began. Called in each loop of a query that may never end if 
+     * the mesh changes during that query.
+     */
+    private void check() {
+      if (_stamp!=0L && !_mesh._lock.validate(_stamp))
+        throw new ConcurrentModificationException(
+          "mesh was modified during query");
+    }
+
+    /**
+     * Locates a point without synchronizing on the mesh.
+     */
+    private PointLocation locate(float x, float y) {
+      PointLocation pl;
+      if (_mesh._troot==null) {
+        pl = _mesh.locateNode(x,y,this);
+      } else {
+        pl = walkToPoint(findTriNear(x,y),x,y,this);
+        _tri = pl._tri;
+      }
+      return pl;
+    }
+
+    /**
+     * Finds the nearest node without synchronizing on the mesh.
+     */
+    private Node findNearest(float x, float y) {
+      Node nmin = null;
+      if (_mesh._troot==null) {
+        Node nroot = _mesh._nroot;
+        if (nroot!=null) {
+          double dmin = Double.MAX_VALUE;
+          Node node = nroot;
+          do {
+            check();
+            double d = distanceSquared(node,x,y);
+            if (d<dmin) {
+              dmin = d;
+              nmin = node;
+            }
+            node = node._next;
+          } while (node!=nroot);
+        }
+      } else {
+
+        // Walk from node to nearer nabor node until no nabor is nearer.
+        // In a Delaunay triangulation, any node that is not the nearest
+        // node has a nabor node that is nearer.
+        Tri tri = findTriNear(x,y);
+        nmin = tri._n0;
+        double dmin = distanceSquared(nmin,x,y);
+        for (Node node=nmin; node!=null; ) {
+          node = null;
+          _nodes.clear();
+          addNodeNabors(nmin,_nodes);
+          Node[] nodes = _nodes.nodes();
+          int nnode = _nodes.nnode();
+          for (int inode=0; inode<nnode; ++inode) {
+            double d = distanceSquared(nodes[inode],x,y);
+            if (d<dmin) {
+              dmin = d;
+              node = nodes[inode];
+            }
+          }
+          if (node!=null)
+            nmin = node;
+        }
+        _tri = nmin._tri;
+      }
+      return nmin;
+    }
+
+    /**
+     * Appends node nabors without synchronizing on the mesh.
+     */
+    private void addNodeNabors(Node node, NodeList nabors) {
+      Tri first = node._tri;
+      if (first!=null) {
+
+        // Rotate in one direction about the node, appending one nabor
+        // node for each tri, until we return to the first tri or cross
+        // an edge on the convex hull of the mesh.
+        Tri tri = first;
+        do {
+          check();
+          nabors.add(nodeNext(tri,node));
+          tri = tri.triNabor(nodePrev(tri,node));
+        } while (tri!=null && tri!=first);
+
+        // If we crossed the hull, rotate in the other direction. The
+        // last tri found also references the last nabor node.
+        if (tri==null) {
+          Tri last = first;
+          tri = first.triNabor(nodeNext(first,node));
+          while (tri!=null) {
+            check();
+            nabors.add(nodeNext(tri,node));
+            last = tri;
+            tri = tri.triNabor(nodeNext(tri,node));
+          }
+          nabors.add(nodePrev(last,node));
+        }
+      }
+    }
+
+    /**
+     * Appends tri nabors without synchronizing on the mesh.
+     */
+    private void addTriNabors(Node node, TriList nabors) {
+      Tri first = node._tri;
+      if (first!=null) {
+        Tri tri = first;
+        do {
+          check();
+          nabors.add(tri);
+          tri = tri.triNabor(nodePrev(tri,node));
+        } while (tri!=null && tri!=first);
+        if (tri==null) {
+          tri = first.triNabor(nodeNext(first,node));
+          while (tri!=null) {
+            check();
+            nabors.add(tri);
+            tri = tri.triNabor(nodeNext(tri,node));
+          }
+        }
+      }
+    }
+
+    /**
+     * Returns a tri in which to begin a search for the point (x,y). This
+     * tri references the node nearest to the point among the sampled nodes
+     * and the nodes of the tri where the last search ended.
+     */
+    private Tri findTriNear(double x, double y) {
+      if (_samples==null)
+        _samples = _mesh._sampledNodes.toArray(new Node[0]);
+      Node nmin = _mesh._nroot;
+      if (_tri!=null)
+        nmin = _tri._n0;
+      double dmin = distanceSquared(nmin,x,y);
+      for (Node n:_samples) {
+        double d = distanceSquared(n,x,y);
+        if (d<dmin) {
+          dmin = d;
+          nmin = n;
+        }
+      }
+      return (_tri!=null && nmin==_tri._n0)?_tri:nmin._tri;
+    }
+
+    /**
+     * Returns the node that follows the specified node in CCW order
+     * of the nodes referenced by the specified tri.
+     */
+    private static Node nodeNext(Tri tri, Node node) {
+      if (node==tri._n0) return tri._n1;
+      if (node==tri._n1) return tri._n2;
+      return tri._n0;
+    }
+
+    /**
+     * Returns the node that precedes the specified node in CCW order
+     * of the nodes referenced by the specified tri.
+     */
+    private static Node nodePrev(Tri tri, Node node) {
+      if (node==tri._n0) return tri._n2;
+      if (node==tri._n1) return tri._n0;
+      return tri._n1;
+    }
+  }
+
   /**
    * Implemented by maps that associate property values with mesh nodes.
    * This interface is implemented by all node property maps created
@@ -1410,7 +1813,9 @@ public class TriMesh implements Serializable {
    * whenever the mesh changes. Therefore, this number can be used to lazily
    * determine if the mesh has changed. Comparing version numbers may in 
    * some applications serve as a cheap alternative to adding node and tri 
-   * listeners to the mesh.
+   * listeners to the mesh. The version number is odd while the mesh is 
+   * changing, as when listeners are notified of changes, and even 
+   * otherwise.
    * @return the version number.
    */
   public long getVersion() {
@@ -1433,78 +1838,70 @@ public class TriMesh implements Serializable {
       return false;
 
     // Tell listeners that node will be added.
+    beginChange();
     fireNodeWillBeAdded(node);
 
-    // The new node becomes the root node.
-    if (_nroot==null) {
-      _nroot = node;
-      _nroot._prev = _nroot._next = _nroot;
-    } else {
-      node._next = _nroot;
-      node._prev = _nroot._prev;
-      _nroot._prev._next = node;
-      _nroot._prev = node;
-      _nroot = node;
-    }
-    ++_nnode;
-
-    // Update node property values so they are consistent with this mesh.
-    updatePropertyValues(node);
-
-    // Maintain adequate sampling of O(N^(1/3)) nodes for fast point location.
-    // The scale factor 0.45 was used by Shewchuk, 1997.
-    double factor = 0.45*_sampledNodes.size();
-    if (factor*factor*factor<_nnode) {
-      _sampledNodes.add(node);
-      //trace("addNode: sampling "+_sampledNodes.size()+" nodes");
-    }
-
-    // If we do not yet have a tri, perhaps we have enough nodes to make one.
-    if (pl.isOutside() && _nnode<=3) {
-      if (_nnode==3)
-        createFirstTri();
-
-    // Otherwise, if we have at least one tri, ...
-    } else {
-
-      // Get the set of Delaunay edges that bound the star-shaped 
-      // polygon containing all tris that are not Delaunay with 
-      // respect to the new node.
-      clearTriMarks();
-      _edgeSet.clear();
-      if (pl.isInside()) {
-        getDelaunayEdgesInside(node,pl.tri());
-      } else {
-        getDelaunayEdgesOutside(node,pl.tri());
-      }
-
-      // With each Delaunay edge in the set, create a new tri with 
-      // the new node. Use a node set to link tris when a tri and 
-      // its nabor have been created.
-      _nodeSet.clear();
-      for (boolean more=_edgeSet.first(); more; more=_edgeSet.next()) {
-        Node a = _edgeSet.a;
-        Node b = _edgeSet.b;
-        Node c = _edgeSet.c;
-        Tri abc = _edgeSet.abc;
-        Tri nba = makeTri(node,b,a);
-        linkTris(nba,node,abc,c);
-        if (!_nodeSet.add(a,b,nba))
-          linkTris(_nodeSet.nba,_nodeSet.b,nba,b);
-        if (!_nodeSet.add(b,a,nba))
-          linkTris(_nodeSet.nba,_nodeSet.b,nba,a);
-      }
-    }
+    // Insert the node into the mesh.
+    insertNode(node,pl);
 
     if (DEBUG)
       validate();
 
     // Tell listeners that node has been added.
     fireNodeAdded(node);
+    endChange();
 
     return true;
   }
 
+  /**
+   * Adds the specified nodes to the mesh. Nodes with (x,y) coordinates 
+   * equal to those of nodes already in the mesh are not added. Of nodes 
+   * in the specified array with equal coordinates, only one is added.
+   * <p>
+   * This method is much faster than adding nodes one at a time, because
+   * it adds nodes in a biased randomized insertion order, in which nodes 
+   * consecutively added are likely to be near each other. The search for 
+   * the location of each node then begins in a tri that was created when
+   * the previous node was added, and that search is typically short. 
+   * <p>
+   * As in the method {@link #addNode(Node)}, node listeners are told that
+   * each node will be added before it is inserted into the mesh, and that
+   * it has been added after. Listeners are notified in the order in which
+   * nodes are added, which is not the order of the specified array.
+   * @param nodes array of nodes to add.
+   * @return the number of nodes added.
+   */
+  public synchronized int addNodes(Node[] nodes) {
+    int n = nodes.length;
+    float[] x = new float[n];
+    float[] y = new float[n];
+    for (int i=0; i<n; ++i) {
+      x[i] = nodes[i].x();
+      y[i] = nodes[i].y();
+    }
+    int[] order = InsertionOrder.brio(x,y);
+    int nadded = 0;
+    beginChange();
+    for (int j=0; j<n; ++j) {
+      int i = order[j];
+      Node node = nodes[i];
+      PointLocation pl = (_troot!=null) ?
+        locatePoint(_troot,node._x,node._y) :
+        locatePoint(node._x,node._y);
+      if (!pl.isOnNode()) {
+        fireNodeWillBeAdded(node);
+        insertNode(node,pl);
+        fireNodeAdded(node);
+        ++nadded;
+      }
+    }
+    if (DEBUG)
+      validate();
+    endChange();
+    return nadded;
+  }
+
   /**
    * Removes a node from the mesh, if the node is in the mesh.
    * @param node the node to remove.
@@ -1520,6 +1917,7 @@ public class TriMesh implements Serializable {
       return false;
 
     // Tell listeners that node will be removed.
+    beginChange();
     fireNodeWillBeRemoved(node);
 
     // Unlink the node from the mesh, leaving only references from tris.
@@ -1615,6 +2013,7 @@ public class TriMesh implements Serializable {
 
     // Tell listeners that node was removed.
     fireNodeRemoved(node);
+    endChange();
 
     return true;
   }
@@ -2068,7 +2467,7 @@ public class TriMesh implements Serializable {
       }
     }
 
-    ++_version;
+    _version += 2; // still even; readers do not use inner and outer bits
     _outerEnabled = true;
   }
 
@@ -2077,8 +2476,8 @@ public class TriMesh implements Serializable {
    * With outer box testing enabled, tris are either inner or outer.
    * By default, outer box testing is disabled.
    */
-  public void enableOuterBox() {
-    ++_version;
+  public synchronized void enableOuterBox() {
+    _version += 2;
     _outerEnabled = true;
   }
 
@@ -2087,8 +2486,8 @@ public class TriMesh implements Serializable {
    * With outer box testing disabled, all tris are inner.
    * By default, outer box testing is disabled.
    */
-  public void disableOuterBox() {
-    ++_version;
+  public synchronized void disableOuterBox() {
+    _version += 2;
     _outerEnabled = false;
   }
 
@@ -2356,6 +2755,7 @@ public class TriMesh implements Serializable {
    */
   protected void init() {
     _version = 0;
+    _lock = new StampedLock();
     _nnode = 0;
     _ntri = 0;
     _nroot = null;
@@ -2390,7 +2790,10 @@ public class TriMesh implements Serializable {
   private static final int NODE_MARK_MAX = Integer.MAX_VALUE-1;
   private static final int TRI_MARK_MAX = Integer.MAX_VALUE-1;
 
-  private long _version; // the version number
+  private volatile long _version; // the version number; odd, if changing
+  private int _nchange; // number of changes in progress
+  private StampedLock _lock; // write locked while changing, for readers
+  private long _lockStamp; // stamp for the write lock
   private int _nnode; // number of nodes
   private int _ntri; // number of tris
   private Node _nroot; // a node in the mesh
@@ -2474,6 +2877,74 @@ public class TriMesh implements Serializable {
   }
   */
 
+  /**
+   * Inserts a node at the specified location, which must not be on a node
+   * already in the mesh. Does not notify node listeners.
+   */
+  private void insertNode(Node node, PointLocation pl) {
+
+    // The new node becomes the root node.
+    if (_nroot==null) {
+      _nroot = node;
+      _nroot._prev = _nroot._next = _nroot;
+    } else {
+      node._next = _nroot;
+      node._prev = _nroot._prev;
+      _nroot._prev._next = node;
+      _nroot._prev = node;
+      _nroot = node;
+    }
+    ++_nnode;
+
+    // Update node property values so they are consistent with this mesh.
+    updatePropertyValues(node);
+
+    // Maintain adequate sampling of O(N^(1/3)) nodes for fast point location.
+    // The scale factor 0.45 was used by Shewchuk, 1997.
+    double factor = 0.45*_sampledNodes.size();
+    if (factor*factor*factor<_nnode) {
+      _sampledNodes.add(node);
+      //trace("addNode: sampling "+_sampledNodes.size()+" nodes");
+    }
+
+    // If we do not yet have a tri, perhaps we have enough nodes to make one.
+    if (pl.isOutside() && _nnode<=3) {
+      if (_nnode==3)
+        createFirstTri();
+
+    // Otherwise, if we have at least one tri, ...
+    } else {
+
+      // Get the set of Delaunay edges that bound the star-shaped 
+      // polygon containing all tris that are not Delaunay with 
+      // respect to the new node.
+      clearTriMarks();
+      _edgeSet.clear();
+      if (pl.isInside()) {
+        getDelaunayEdgesInside(node,pl.tri());
+      } else {
+        getDelaunayEdgesOutside(node,pl.tri());
+      }
+
+      // With each Delaunay edge in the set, create a new tri with 
+      // the new node. Use a node set to link tris when a tri and 
+      // its nabor have been created.
+      _nodeSet.clear();
+      for (boolean more=_edgeSet.first(); more; more=_edgeSet.next()) {
+        Node a = _edgeSet.a;
+        Node b = _edgeSet.b;
+        Node c = _edgeSet.c;
+        Tri abc = _edgeSet.abc;
+        Tri nba = makeTri(node,b,a);
+        linkTris(nba,node,abc,c);
+        if (!_nodeSet.add(a,b,nba))
+          linkTris(_nodeSet.nba,_nodeSet.b,nba,b);
+        if (!_nodeSet.add(b,a,nba))
+          linkTris(_nodeSet.nba,_nodeSet.b,nba,a);
+      }
+    }
+  }
+
   /**
    * Returns a new tri, possibly one resurrected from the dead.
    * Resurrection reduces the need for garbage collection of dead tris.
@@ -2903,18 +3374,8 @@ public class TriMesh implements Serializable {
   private PointLocation locatePoint(double x, double y) {
 
     // If no tris yet, search the node list for an exact match.
-    // Here, we use unperturbed node coordinates.
-    if (_troot==null) {
-      if (_nroot!=null) {
-        Node node = _nroot;
-        do {
-          if (x==node.x() && y==node.y())
-            return new PointLocation(node);
-          node = node._next;
-        } while (node!=_nroot);
-      }
-      return new PointLocation(null,false);
-    }
+    if (_troot==null)
+      return locateNode(x,y,null);
 
     // Otherwise, find a good tri in which to begin the recursive search.
     Node nmin = _nroot;
@@ -2931,88 +3392,118 @@ public class TriMesh implements Serializable {
   }
 
   /**
-   * Recursively searches tris beginning with the specified tri,
-   * to locate the point (x,y).
+   * Locates a point in a mesh with no tris, by searching the node list
+   * for an exact match. Here, we use unperturbed node coordinates.
+   * If not null, the specified reader checks for changes to the mesh.
+   */
+  private PointLocation locateNode(double x, double y, Reader reader) {
+    Node nroot = _nroot;
+    if (nroot!=null) {
+      Node node = nroot;
+      do {
+        if (reader!=null)
+          reader.check();
+        if (x==node.x() && y==node.y())
+          return new PointLocation(node);
+        node = node._next;
+      } while (node!=nroot);
+    }
+    return new PointLocation(null,false);
+  }
+
+  /**
+   * Searches tris beginning with the specified tri, to locate the point
+   * (x,y). Future searches begin in the tri where this search ends.
    */
   private PointLocation locatePoint(Tri tri, double x, double y) {
+    PointLocation pl = walkToPoint(tri,x,y,null);
+    _troot = pl._tri;
+    return pl;
+  }
 
-    // Begin future searches in the specified tri.
-    _troot = tri;
+  /**
+   * Walks through tris beginning with the specified tri, to locate the
+   * point (x,y). This walk neither uses marks nor modifies the mesh, so
+   * that any number of walks may be performed concurrently. If not null,
+   * the specified reader checks for changes to the mesh.
+   */
+  private static PointLocation walkToPoint(
+    Tri tri, double x, double y, Reader reader) 
+  {
+    for (;;) {
+      if (reader!=null)
+        reader.check();
 
-    // Node coordinates.
-    Node n0 = tri._n0;
-    Node n1 = tri._n1;
-    Node n2 = tri._n2;
-    double x0 = n0._x;
-    double y0 = n0._y;
-    double x1 = n1._x;
-    double y1 = n1._y;
-    double x2 = n2._x;
-    double y2 = n2._y;
-
-    // If exactly on a node, the search is complete.
-    // We assume that this scenario is rare, but that the cost of testing
-    // for it is small compared to the left-of-plane tests below.
-    if (x==x0 && y==y0) {
-      return new PointLocation(n0);
-    } else if (x==x1 && y==y1) {
-      return new PointLocation(n1);
-    } else if (x==x2 && y==y2) {
-      return new PointLocation(n2);
-    }
-
-    // Locate the search point with respect to the three edges of the tri.
-    // If any left-of-line test is positive, then recursively search in
-    // the corresponding nabor tri, unless that nabor tri is null, in which
-    // case the search point lies outside the mesh and the specified tri is
-    // on the convex hull and is visible from the search point.
-    // TODO: experiment to determine whether it is more efficient to
-    // go through the edge with the most positive left-of-line test.
-    double d0 = Geometry.leftOfLine(x2,y2,x1,y1,x,y);
-    if (d0>0.0) {
-      Tri triNabor = tri.triNabor(n0);
-      if (triNabor!=null) {
-        return locatePoint(triNabor,x,y);
-      } else {
-        return new PointLocation(tri,false);
+      // Node coordinates.
+      Node n0 = tri._n0;
+      Node n1 = tri._n1;
+      Node n2 = tri._n2;
+      double x0 = n0._x;
+      double y0 = n0._y;
+      double x1 = n1._x;
+      double y1 = n1._y;
+      double x2 = n2._x;
+      double y2 = n2._y;
+
+      // If exactly on a node, the search is complete.
+      // We assume that this scenario is rare, but that the cost of testing
+      // for it is small compared to the left-of-plane tests below.
+      if (x==x0 && y==y0) {
+        return new PointLocation(n0);
+      } else if (x==x1 && y==y1) {
+        return new PointLocation(n1);
+      } else if (x==x2 && y==y2) {
+        return new PointLocation(n2);
       }
-    }
-    double d1 = Geometry.leftOfLine(x0,y0,x2,y2,x,y);
-    if (d1>0.0) {
-      Tri triNabor = tri.triNabor(n1);
-      if (triNabor!=null) {
-        return locatePoint(triNabor,x,y);
-      } else {
-        return new PointLocation(tri,false);
+
+      // Locate the search point with respect to the three edges of the tri.
+      // If any left-of-line test is positive, then continue the search in
+      // the corresponding nabor tri, unless that nabor tri is null, in which
+      // case the search point lies outside the mesh and the current tri is
+      // on the convex hull and is visible from the search point.
+      double d0 = Geometry.leftOfLine(x2,y2,x1,y1,x,y);
+      if (d0>0.0) {
+        Tri triNabor = tri.triNabor(n0);
+        if (triNabor==null)
+          return new PointLocation(tri,false);
+        tri = triNabor;
+        continue;
       }
-    }
-    double d2 = Geometry.leftOfLine(x1,y1,x0,y0,x,y);
-    if (d2>0.0) {
-      Tri triNabor = tri.triNabor(n2);
-      if (triNabor!=null) {
-        return locatePoint(triNabor,x,y);
-      } else {
-        return new PointLocation(tri,false);
+      double d1 = Geometry.leftOfLine(x0,y0,x2,y2,x,y);
+      if (d1>0.0) {
+        Tri triNabor = tri.triNabor(n1);
+        if (triNabor==null)
+          return new PointLocation(tri,false);
+        tri = triNabor;
+        continue;
+      }
+      double d2 = Geometry.leftOfLine(x1,y1,x0,y0,x,y);
+      if (d2>0.0) {
+        Tri triNabor = tri.triNabor(n2);
+        if (triNabor==null)
+          return new PointLocation(tri,false);
+        tri = triNabor;
+        continue;
       }
-    }
 
-    // If strictly inside the tri, the search is complete.
-    if (d0<0.0 && d1<0.0 && d2<0.0) {
-      return new PointLocation(tri);
-    }
+      // If strictly inside the tri, the search is complete.
+      if (d0<0.0 && d1<0.0 && d2<0.0) {
+        return new PointLocation(tri);
+      }
 
-    // Must be on an edge of the specified tri.
-    if (d0==0.0) {
-      return new PointLocation(new Edge(tri,n0));
-    } else if (d1==0.0) {
-      return new PointLocation(new Edge(tri,n1));
-    } else if (d2==0.0) {
-      return new PointLocation(new Edge(tri,n2));
-    }
+      // Must be on an edge of the current tri.
+      if (d0==0.0) {
+        return new PointLocation(new Edge(tri,n0));
+      } else if (d1==0.0) {
+        return new PointLocation(new Edge(tri,n1));
+      } else if (d2==0.0) {
+        return new PointLocation(new Edge(tri,n2));
+      }
 
-    // Where are we?!
-    assert false:"successfully located the point";
-    return null;
+      // Where are we?!
+      assert false:"successfully located the point";
+      return null;
+    }
   }
 
   /**
@@ -3526,8 +4017,36 @@ public class TriMesh implements Serializable {
     }
   }
 
+  /**
+   * Begins a change to this mesh, by making the version number odd and 
+   * acquiring the write lock, so that readers query the mesh only while 
+   * synchronized on it. Changes may be nested, as when listeners modify 
+   * the mesh. A nested change leaves the version number odd, but still 
+   * changes that number.
+   */
+  private void beginChange() {
+    if (_nchange++==0) {
+      _lockStamp = _lock.writeLock();
+      _version += 1;
+    } else {
+      _version += 2;
+    }
+  }
+
+  /**
+   * Ends a change to this mesh. When the outermost change ends, the
+   * version number becomes even and the write lock is released.
+   */
+  private void endChange() {
+    if (--_nchange==0) {
+      _version += 1;
+      _lock.unlockWrite(_lockStamp);
+    } else {
+      _version += 2;
+    }
+  }
+
   private void fireNodeWillBeAdded(Node node) {
-    ++_version;
     if (_nnodeListeners>0) {
       Object[] list = _listeners.getListenerList();
       for (int i=list.length-2; i>=0; i-=2)
@@ -3537,7 +4056,6 @@ public class TriMesh implements Serializable {
   }
 
   private void fireNodeAdded(Node node) {
-    ++_version;
     if (_nnodeListeners>0) {
       Object[] list = _listeners.getListenerList();
       for (int i=list.length-2; i>=0; i-=2)
@@ -3547,7 +4065,6 @@ public class TriMesh implements Serializable {
   }
 
   private void fireNodeWillBeRemoved(Node node) {
-    ++_version;
     if (_nnodeListeners>0) {
       Object[] list = _listeners.getListenerList();
       for (int i=list.length-2; i>=0; i-=2)
@@ -3557,7 +4074,6 @@ public class TriMesh implements Serializable {
   }
 
   private void fireNodeRemoved(Node node) {
-    ++_version;
     if (_nnodeListeners>0) {
       Object[] list = _listeners.getListenerList();
       for (int i=list.length-2; i>=0; i-=2)
@@ -3567,7 +4083,6 @@ public class TriMesh implements Serializable {
   }
 
   private void fireTriAdded(Tri tri) {
-    ++_version;
     if (_ntriListeners>0) {
       Object[] list = _listeners.getListenerList();
       for (int i=list.length-2; i>=0; i-=2)
@@ -3577,7 +4092,6 @@ public class TriMesh implements Serializable {
   }
 
   private void fireTriRemoved(Tri tri) {
-    ++_version;
     if (_ntriListeners>0) {
       Object[] list = _listeners.getListenerList();
       for (int i=list.length-2; i>=0; i-=2)
@@ -4137,6 +4651,7 @@ public class TriMesh implements Serializable {
 
       // Mesh version.
       _version = in.readLong();
+      _version += _version&1L; // even, because the mesh is not changing
 
       // Nodes.
       int nnode = _nnode = in.readInt();
@@ -0,0 +1,511 @@
+/****************************************************************************
+Copyright 2026, Colorado School of Mines and others.
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+****************************************************************************/
+package edu.mines.jtk.util;
+
+import java.util.Arrays;
+
+import static edu.mines.jtk.util.ArrayMath.quickIndexSort;
+
+/**
+ * An immutable R-tree of boxes stored in flat arrays of primitives.
+ * A flat R-tree is constructed from arrays of min/max coordinates for
+ * n boxes in N dimensions. The min coordinates of the box with integer
+ * id i are min[i*N], min[i*N+1], ..., min[i*N+N-1], and likewise for
+ * the max coordinates. For points, the same array may be specified for
+ * both min and max coordinates. Queries return the integer ids of boxes.
+ * <p>
+ * Unlike {@link RTree}, a flat R-tree cannot be modified after it is
+ * constructed. Its boxes are packed with the sort-tile-recursive (STR)
+ * algorithm, and its internal nodes are represented implicitly, with
+ * one array of min/max coordinates for all nodes in each level of the
+ * tree. The children of the j'th node in any level are the nodes (or
+ * boxes) in the level below with indices j*M, j*M+1, ..., j*M+M-1, where
+ * M is the maximum number of children per node. This representation
+ * requires much less memory than that of an R-tree, and queries need not
+ * get bounds of or distances to objects through any interface.
+ * <p>
+ * Queries store box ids in arrays provided by the caller, so that those
+ * arrays may be reused for many queries. Queries are thread-safe, and
+ * methods that perform many queries in parallel are provided.
+ * <p>
+ * Reference: Leutenegger, S.T., Lopez, M.A., and Edgington, J., 1997,
+ * STR: a simple and efficient algorithm for R-tree packing: Proceedings
+ * of the 13th International Conference on Data Engineering, p. 497-506.
+ * @author agent
+ * @version 2026.10.18
+ */
+public class FlatRTree {
+
+  /**
+   * Constructs a flat R-tree for specified points.
+   * @param ndim the number of dimensions per point.
+   * @param x array[n*ndim] of point coordinates.
+   */
+  public FlatRTree(int ndim, float[] x) {
+    this(ndim,NMAX,x,x);
+  }
+
+  /**
+   * Constructs a flat R-tree for specified boxes.
+   * @param ndim the number of dimensions per box.
+   * @param min array[n*ndim] of box min coordinates.
+   * @param max array[n*ndim] of box max coordinates.
+   */
+  public FlatRTree(int ndim, float[] min, float[] max) {
+    this(ndim,NMAX,min,max);
+  }
+
+  /**
+   * Constructs a flat R-tree for specified boxes.
+   * @param ndim the number of dimensions per box.
+   * @param nmax the maximum number of children per node;
+   *  must not be less than 2.
+   * @param min array[n*ndim] of box min coordinates.
+   * @param max array[n*ndim] of box max coordinates.
+   */
+  public FlatRTree(int ndim, int nmax, float[] min, float[] max) {
+    Check.argument(ndim>0,"ndim>0");
+    Check.argument(nmax>=2,"nmax>=2");
+    Check.argument(min.length==max.length,"min.length equals max.length");
+    Check.argument(min.length%ndim==0,"min.length is a multiple of ndim");
+    int n = min.length/ndim;
+    _ndim = ndim;
+    _nmax = nmax;
+    _n = n;
+
+    // Box ids, packed by sorting box centers.
+    int[] ids = new int[n];
+    float[][] x = new float[ndim][n];
+    for (int i=0; i<n; ++i) {
+      ids[i] = i;
+      for (int idim=0; idim<ndim; ++idim)
+        x[idim][i] = 0.5f*(min[i*ndim+idim]+max[i*ndim+idim]);
+    }
+    pack(0,x,0,n,ids);
+    _ids = ids;
+
+    // Number of levels, including the level of boxes.
+    int nlevel = 1;
+    for (int m=n; m>1 || nlevel==1 && n>0; m=(m+nmax-1)/nmax)
+      ++nlevel;
+    _nlevel = nlevel;
+    _count = new int[nlevel];
+    _min = new float[nlevel][];
+    _max = new float[nlevel][];
+
+    // Box bounds, in packed order. Points share min/max arrays.
+    float[] bmin = new float[n*ndim];
+    float[] bmax = (min==max)?bmin:new float[n*ndim];
+    for (int i=0; i<n; ++i) {
+      int j = ids[i];
+      for (int idim=0; idim<ndim; ++idim) {
+        bmin[i*ndim+idim] = min[j*ndim+idim];
+        bmax[i*ndim+idim] = max[j*ndim+idim];
+      }
+    }
+    _count[0] = n;
+    _min[0] = bmin;
+    _max[0] = bmax;
+
+    // Node bounds for each level above the level of boxes.
+    for (int level=1; level<nlevel; ++level) {
+      int mc = _count[level-1];
+      int m = (mc+nmax-1)/nmax;
+      float[] cmin = _min[level-1];
+      float[] cmax = _max[level-1];
+      float[] lmin = new float[m*ndim];
+      float[] lmax = new float[m*ndim];
+      for (int j=0; j<m; ++j) {
+        int kb = j*nmax;
+        int ke = Math.min(kb+nmax,mc);
+        for (int idim=0; idim<ndim; ++idim) {
+          float smin = cmin[kb*ndim+idim];
+          float smax = cmax[kb*ndim+idim];
+          for (int k=kb+1; k<ke; ++k) {
+            smin = Math.min(smin,cmin[k*ndim+idim]);
+            smax = Math.max(smax,cmax[k*ndim+idim]);
+          }
+          lmin[j*ndim+idim] = smin;
+          lmax[j*ndim+idim] = smax;
+        }
+      }
+      _count[level] = m;
+      _min[level] = lmin;
+      _max[level] = lmax;
+    }
+  }
+
+  /**
+   * Returns the number of boxes in this tree.
+   * @return the number of boxes.
+   */
+  public int size() {
+    return _n;
+  }
+
+  /**
+   * Gets the number of levels of nodes in this tree.
+   * @return the number of levels; zero, if this tree is empty.
+   */
+  public int getLevels() {
+    return _nlevel-1;
+  }
+
+  /**
+   * Finds all boxes that overlap the specified bounds. If the number of
+   * boxes found exceeds the length of the specified array of ids, then
+   * only the first boxes found are stored in that array.
+   * @param min array of bounding min coordinates.
+   * @param max array of bounding max coordinates.
+   * @param ids array in which to store ids of the boxes found.
+   * @return the number of boxes found.
+   */
+  public int findOverlapping(float[] min, float[] max, int[] ids) {
+    Check.argument(min.length==_ndim,"min.length equals tree ndim");
+    Check.argument(max.length==_ndim,"max.length equals tree ndim");
+    return (_n>0)?findOverlapping(_nlevel-1,0,min,max,ids,0):0;
+  }
+
+  /**
+   * Finds all boxes that overlap each of many specified bounds.
+   * Queries are performed in parallel.
+   * @param min array[m][ndim] of bounding min coordinates.
+   * @param max array[m][ndim] of bounding max coordinates.
+   * @param ids array[m][] in which to store ids of the boxes found.
+   * @param count array[m] of numbers of boxes found.
+   */
+  public void findOverlapping(
+    final float[][] min, final float[][] max,
+    final int[][] ids, final int[] count)
+  {
+    Check.argument(min.length==max.length,"min.length equals max.length");
+    Check.argument(min.length==ids.length,"min.length equals ids.length");
+    Check.argument(min.length==count.length,"min.length equals count.length");
+    Parallel.loop(min.length,new Parallel.LoopInt() {
+    public void compute(int i) {
+      count[i] = findOverlapping(min[i],max[i],ids[i]);
+    }});
+  }
+
+  /**
+   * Finds all boxes in a specified sphere. A box is in the sphere if the
+   * distance from the sphere's center to the box is less than or equal to
+   * the sphere's radius. If the number of boxes found exceeds the length
+   * of the specified array of ids, then only the first boxes found are
+   * stored in that array.
+   * @param center array of sphere center coordinates.
+   * @param radius the sphere radius.
+   * @param ids array in which to store ids of the boxes found.
+   * @return the number of boxes found.
+   */
+  public int findInSphere(float[] center, float radius, int[] ids) {
+    Check.argument(center.length==_ndim,"center.length equals tree ndim");
+    float ss = radius*radius;
+    return (_n>0)?findInSphere(_nlevel-1,0,center,ss,ids,0):0;
+  }
+
+  /**
+   * Finds the box nearest to the specified point.
+   * @param point array of point coordinates.
+   * @return the id of the nearest box; -1, if this tree is empty.
+   */
+  public int findNearest(float[] point) {
+    int[] ids = new int[1];
+    return (findNearest(1,point,ids,null)>0)?ids[0]:-1;
+  }
+
+  /**
+   * Finds the k boxes nearest to the specified point.
+   * @param k the number of nearest boxes to find.
+   * @param point array of point coordinates.
+   * @param ids array in which to store ids of the boxes found, ordered
+   *  by increasing distance to the point.
+   * @param ds array in which to store distances-squared from the point to
+   *  the boxes found; null, if distances are not wanted.
+   * @return the number of boxes found, which is less than k only if this
+   *  tree contains less than k boxes.
+   */
+  public int findNearest(int k, float[] point, int[] ids, float[] ds) {
+    return new Search().findNearest(k,point,ids,ds);
+  }
+
+  /**
+   * Finds the boxes nearest to each of many specified points.
+   * Queries are performed in parallel.
+   * @param point array[m][ndim] of point coordinates.
+   * @param ids array[m] of ids of nearest boxes; -1, if this tree is empty.
+   */
+  public void findNearest(float[][] point, int[] ids) {
+    Check.argument(point.length==ids.length,"point.length equals ids.length");
+    int m = point.length;
+    int[][] idsk = new int[m][1];
+    findNearest(1,point,idsk,null);
+    for (int i=0; i<m; ++i)
+      ids[i] = idsk[i][0];
+  }
+
+  /**
+   * Finds the k boxes nearest to each of many specified points.
+   * Queries are performed in parallel. If this tree contains less than
+   * k boxes, then ids of boxes not found are set to -1.
+   * @param k the number of nearest boxes to find.
+   * @param point array[m][ndim] of point coordinates.
+   * @param ids array[m][k] in which to store ids of the boxes found.
+   * @param ds array[m][k] in which to store distances-squared to the
+   *  boxes found; null, if distances are not wanted.
+   */
+  public void findNearest(
+    final int k, final float[][] point, final int[][] ids, final float[][] ds)
+  {
+    Check.argument(point.length==ids.length,"point.length equals ids.length");
+    Check.argument(ds==null || point.length==ds.length,
+                   "point.length equals ds.length");
+    final Parallel.Unsafe<Search> su = new Parallel.Unsafe<Search>();
+    Parallel.loop(point.length,new Parallel.LoopInt() {
+    public void compute(int i) {
+      Search search = su.get();
+      if (search==null) su.set(search=new Search());
+      float[] dsi = (ds!=null)?ds[i]:null;
+      int n = search.findNearest(k,point[i],ids[i],dsi);
+      for (int j=n; j<k; ++j)
+        ids[i][j] = -1;
+    }});
+  }
+
+  ///////////////////////////////////////////////////////////////////////////
+  // private
+
+  private static final int NMAX = 16; // default max children per node
+
+  private int _ndim; // number of dimensions per box
+  private int _nmax; // maximum number of children per node
+  private int _n; // number of boxes
+  private int[] _ids; // box ids, in packed order
+  private int _nlevel; // number of levels, including the level of boxes
+  private int[] _count; // number of boxes or nodes in each level
+  private float[][] _min; // min coordinates for each level
+  private float[][] _max; // max coordinates for each level
+
+  /**
+   * Packs boxes recursively along each dimension. Boxes with indices in
+   * [p,q) are sorted by the center coordinates for the specified dimension
+   * and then split into slabs, each with a multiple of nmax boxes, which
+   * are packed recursively along the next dimension.
+   */
+  private void pack(int idim, float[][] x, int p, int q, int[] ids) {
+    int kdim = _ndim-idim;
+    int nsort = q-p;
+    if (nsort<=1)
+      return;
+
+    // Sort slab by box center coordinates for current dimension.
+    int[] isort = new int[nsort];
+    float[] xsort = new float[nsort];
+    float[] xidim = x[idim];
+    for (int jsort=0; jsort<nsort; ++jsort) {
+      isort[jsort] = jsort;
+      xsort[jsort] = xidim[ids[p+jsort]];
+    }
+    quickIndexSort(xsort,isort);
+    for (int jsort=0; jsort<nsort; ++jsort)
+      isort[jsort] = ids[p+isort[jsort]];
+    for (int jsort=0; jsort<nsort; ++jsort)
+      ids[p+jsort] = isort[jsort];
+
+    // If not the last dimension, recursively pack slabs of leaf nodes.
+    if (kdim>1) {
+      int nleaf = (nsort+_nmax-1)/_nmax;
+      int nslab = (int)Math.ceil(Math.pow(nleaf,1.0/kdim));
+      int mslab = _nmax*((nleaf+nslab-1)/nslab);
+      for (int pslab=p; pslab<q; pslab+=mslab)
+        pack(idim+1,x,pslab,Math.min(pslab+mslab,q),ids);
+    }
+  }
+
+  /**
+   * Searches the j'th node in the specified level for boxes that overlap
+   * the specified bounds. Returns the updated count of boxes found.
+   */
+  private int findOverlapping(
+    int level, int j, float[] min, float[] max, int[] ids, int count)
+  {
+    int ndim = _ndim;
+    float[] cmin = _min[level-1];
+    float[] cmax = _max[level-1];
+    int kb = j*_nmax;
+    int ke = Math.min(kb+_nmax,_count[level-1]);
+    for (int k=kb; k<ke; ++k) {
+      boolean overlaps = true;
+      for (int idim=0; idim<ndim && overlaps; ++idim) {
+        overlaps = cmin[k*ndim+idim]<=max[idim] &&
+                   cmax[k*ndim+idim]>=min[idim];
+      }
+      if (overlaps) {
+        if (level==1) {
+          if (count<ids.length)
+            ids[count] = _ids[k];
+          ++count;
+        } else {
+          count = findOverlapping(level-1,k,min,max,ids,count);
+        }
+      }
+    }
+    return count;
+  }
+
+  /**
+   * Searches the j'th node in the specified level for boxes within a
+   * distance-squared ss of a center point. Returns the updated count of
+   * boxes found.
+   */
+  private int findInSphere(
+    int level, int j, float[] center, float ss, int[] ids, int count)
+  {
+    float[] cmin = _min[level-1];
+    float[] cmax = _max[level-1];
+    int kb = j*_nmax;
+    int ke = Math.min(kb+_nmax,_count[level-1]);
+    for (int k=kb; k<ke; ++k) {
+      if (distanceSquared(cmin,cmax,k,center)<=ss) {
+        if (level==1) {
+          if (count<ids.length)
+            ids[count] = _ids[k];
+          ++count;
+        } else {
+          count = findInSphere(level-1,k,center,ss,ids,count);
+        }
+      }
+    }
+    return count;
+  }
+
+  /**
+   * Returns the distance-squared from the k'th box in arrays of min/max
+   * coordinates to the specified point.
+   */
+  private float distanceSquared(
+    float[] min, float[] max, int k, float[] point)
+  {
+    int ndim = _ndim;
+    float sum = 0.0f;
+    for (int idim=0,kdim=k*ndim; idim<ndim; ++idim,++kdim) {
+      float p = point[idim];
+      float s = min[kdim];
+      float t = max[kdim];
+      float d = (p<s)?p-s:(p>t)?p-t:0.0f;
+      sum += d*d;
+    }
+    return sum;
+  }
+
+  /**
+   * A best-first search for the k boxes nearest to a point. Nodes not yet
+   * searched are kept in a priority queue (a heap), ordered by increasing
+   * distance to the point. Nearest boxes found so far are kept in arrays
+   * ordered by increasing distance. The search ends when the nearest
+   * node in the queue is farther than the k'th nearest box found.
+   * Arrays used in the search are reused for subsequent searches.
+   */
+  private class Search {
+    int findNearest(int k, float[] point, int[] ids, float[] ds) {
+      Check.argument(point.length==_ndim,"point.length equals tree ndim");
+      Check.argument(ids.length>=k,"ids.length not less than k");
+      Check.argument(ds==null || ds.length>=k,"ds.length not less than k");
+      if (_ds.length<k)
+        _ds = new float[k];
+      float[] dk = _ds;
+      int n = 0;
+      float cutoff = (k>0)?Float.MAX_VALUE:0.0f;
+      _nheap = 0;
+      if (_n>0)
+        push(0.0f,_nlevel-1,0);
+      while (_nheap>0 && _hd[0]<cutoff) {
+        int level = _hl[0];
+        int j = _hj[0];
+        pop();
+        float[] cmin = _min[level-1];
+        float[] cmax = _max[level-1];
+        int kb = j*_nmax;
+        int ke = Math.min(kb+_nmax,_count[level-1]);
+        for (int kc=kb; kc<ke; ++kc) {
+          float d = distanceSquared(cmin,cmax,kc,point);
+          if (d<cutoff) {
+            if (level==1) {
+              int i = (n<k)?n++:k-1;
+              for (; i>0 && dk[i-1]>d; --i) {
+                dk[i] = dk[i-1];
+                ids[i] = ids[i-1];
+              }
+              dk[i] = d;
+              ids[i] = _ids[kc];
+              if (n==k)
+                cutoff = dk[k-1];
+            } else {
+              push(d,level-1,kc);
+            }
+          }
+        }
+      }
+      if (ds!=null) {
+        for (int i=0; i<n; ++i)
+          ds[i] = dk[i];
+      }
+      return n;
+    }
+    private float[] _ds = new float[1]; // distances to nearest boxes
+    private int _nheap; // number of nodes in heap
+    private float[] _hd = new float[64]; // distances to nodes in heap
+    private int[] _hl = new int[64]; // levels of nodes in heap
+    private int[] _hj = new int[64]; // indices of nodes in heap
+    private void push(float d, int level, int j) {
+      if (_nheap==_hd.length) {
+        _hd = Arrays.copyOf(_hd,2*_nheap);
+        _hl = Arrays.copyOf(_hl,2*_nheap);
+        _hj = Arrays.copyOf(_hj,2*_nheap);
+      }
+      int i = _nheap++;
+      while (i>0) {
+        int p = (i-1)/2;
+        if (_hd[p]<=d)
+          break;
+        set(i,_hd[p],_hl[p],_hj[p]);
+        i = p;
+      }
+      set(i,d,level,j);
+    }
+    private void pop() {
+      int n = --_nheap;
+      float d = _hd[n];
+      int level = _hl[n];
+      int j = _hj[n];
+      int i = 0;
+      for (int c=1; c<n; c=2*i+1) {
+        if (c+1<n && _hd[c+1]<_hd[c])
+          ++c;
+        if (d<=_hd[c])
+          break;
+        set(i,_hd[c],_hl[c],_hj[c]);
+        i = c;
+      }
+      if (n>0)
+        set(i,d,level,j);
+    }
+    private void set(int i, float d, int level, int j) {
+      _hd[i] = d;
+      _hl[i] = level;
+      _hj[i] = j;
+    }
+  }
+}
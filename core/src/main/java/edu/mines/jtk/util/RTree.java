@@ -46,6 +46,14 @@ import static edu.mines.jtk.util.ArrayMath.quickIndexSort;
  * be changed in any way that would affect its equality comparison or its 
  * bounds. The result of such a change is undefined.
  * <p>
+ * Queries that do not modify an R-tree, such as searches for overlapping
+ * or nearest objects, may be performed concurrently in multiple threads, 
+ * provided that the R-tree is not modified during those queries, and that
+ * the R-tree's boxer is thread-safe. Methods that perform many queries
+ * in parallel are provided for convenience. For large numbers of 
+ * bounded objects that need not be changed after they are added, the
+ * more compact {@link FlatRTree} may be faster.
+ * <p>
  * References:
  * <ul><li>
  * Guttman A., 1984, R-trees - a dynamic index structure for spatial 
@@ -410,10 +418,27 @@ public class RTree extends AbstractSet<Object> {
     Check.argument(min.length==_ndim,"min.length equals tree ndim");
     Check.argument(max.length==_ndim,"max.length equals tree ndim");
     ArrayList<Object> list = new ArrayList<Object>();
-    _root.findOverlapping(min,max,list);
+    _root.findOverlapping(min,max,list,new float[_ndim],new float[_ndim]);
     return list.toArray();
   }
 
+  /**
+   * Finds all objects with bounds that overlap each of many specified 
+   * bounds. Queries are performed in parallel.
+   * @param min array[n][ndim] of bounding min coordinates.
+   * @param max array[n][ndim] of bounding max coordinates.
+   * @return array[n][] of arrays of objects found.
+   */ 
+  public Object[][] findOverlapping(final float[][] min, final float[][] max) {
+    Check.argument(min.length==max.length,"min.length equals max.length");
+    final Object[][] found = new Object[min.length][];
+    Parallel.loop(min.length,new Parallel.LoopInt() {
+    public void compute(int i) {
+      found[i] = findOverlapping(min[i],max[i]);
+    }});
+    return found;
+  }
+
   /**
    * Finds all objects with bounds that overlap the specified box.
    * @param box the box.
@@ -461,11 +486,57 @@ public class RTree extends AbstractSet<Object> {
    */
   public Object[] findNearest(int k, float[] point) {
     Check.argument(point.length==_ndim,"point.length equals tree ndim");
-    Nearest nearest = new Nearest(k,point);
+    Nearest nearest = new Nearest(k);
+    nearest.reset(point);
     _root.findNearest(nearest);
     return nearest.toArray();
   }
 
+  /**
+   * Finds the objects nearest to each of many specified points.
+   * Queries are performed in parallel.
+   * @param point array[n][ndim] of point coordinates.
+   * @param nearest array[n] of nearest objects; null, if this tree is empty.
+   */
+  public void findNearest(float[][] point, Object[] nearest) {
+    Check.argument(point.length==nearest.length,
+                   "point.length equals nearest.length");
+    int n = point.length;
+    Object[][] nearestk = new Object[n][1];
+    findNearest(1,point,nearestk);
+    for (int i=0; i<n; ++i)
+      nearest[i] = nearestk[i][0];
+  }
+
+  /**
+   * Finds the k objects nearest to each of many specified points.
+   * Queries are performed in parallel. For each point, the nearest objects
+   * are stored in an array that may be reused for many queries. If this 
+   * tree has fewer than k objects, remaining elements in that array are 
+   * set to null.
+   * @param k the number of nearest objects to find.
+   * @param point array[n][ndim] of point coordinates.
+   * @param nearest array[n][k] of objects, ordered by increasing distance 
+   *  to the corresponding point.
+   */
+  public void findNearest(
+    final int k, final float[][] point, final Object[][] nearest) 
+  {
+    Check.argument(point.length==nearest.length,
+                   "point.length equals nearest.length");
+    final Parallel.Unsafe<Nearest> nu = new Parallel.Unsafe<Nearest>();
+    Parallel.loop(point.length,new Parallel.LoopInt() {
+    public void compute(int i) {
+      Check.argument(point[i].length==_ndim,"point.length equals tree ndim");
+      Check.argument(nearest[i].length>=k,"nearest.length not less than k");
+      Nearest ni = nu.get();
+      if (ni==null) nu.set(ni=new Nearest(k));
+      ni.reset(point[i]);
+      _root.findNearest(ni);
+      ni.copyTo(nearest[i]);
+    }});
+  }
+
   /**
    * Gets the leaf node area, the sum of the areas of all leaf node boxes.
    * @return the area.
@@ -674,15 +745,24 @@ public class RTree extends AbstractSet<Object> {
      * @param max array of max coordinates.
      * @param list the list to which overlapping boxes are appended.
      */
-    void findOverlapping(float[] min, float[] max, ArrayList<Object> list) {
-      for (int ibox=0; ibox<_nbox; ++ibox) {
-        Object boxi = _boxs[ibox];
-        if (overlaps(boxi,min,max)) {
-          if (isLeaf()) {
+    void findOverlapping(
+      float[] min, float[] max, ArrayList<Object> list,
+      float[] bmin, float[] bmax)
+    {
+      // Bounds of non-node boxes are got in the specified arrays bmin and 
+      // bmax, not in register B, so that queries may be concurrent.
+      if (isLeaf()) {
+        for (int ibox=0; ibox<_nbox; ++ibox) {
+          Object boxi = _boxs[ibox];
+          _boxer.getBounds(boxi,bmin,bmax);
+          if (overlaps(bmin,bmax,min,max))
             list.add(boxi);
-          } else {
-            ((Node)boxi).findOverlapping(min,max,list);
-          }
+        }
+      } else {
+        for (int ibox=0; ibox<_nbox; ++ibox) {
+          Node nodei = (Node)_boxs[ibox];
+          if (overlaps(nodei._min,nodei._max,min,max))
+            nodei.findOverlapping(min,max,list,bmin,bmax);
         }
       }
     }
@@ -784,22 +864,30 @@ public class RTree extends AbstractSet<Object> {
       // Else, if this node is not a leaf node, ...
       } else {
 
-        // Make a list of this node's children, sorted by distance.
-        ArrayList<BoxDistance> list = new ArrayList<BoxDistance>(_nbox);
+        // This node's children, sorted by increasing distance, in arrays
+        // that are reused for all nodes with this node's level.
+        float[] ds = nearest.distances(_level);
+        Node[] nodes = nearest.nodes(_level);
+        float[] point = nearest.point();
         for (int ibox=0; ibox<_nbox; ++ibox) {
-          Object box = _boxs[ibox];
-          float distance = distanceSquared(box,nearest.point());
-          list.add(new BoxDistance(box,distance));
+          Node node = (Node)_boxs[ibox];
+          float d = node.distanceSquared(point);
+          int jbox = ibox;
+          for (; jbox>0 && ds[jbox-1]>d; --jbox) {
+            ds[jbox] = ds[jbox-1];
+            nodes[jbox] = nodes[jbox-1];
+          }
+          ds[jbox] = d;
+          nodes[jbox] = node;
         }
-        Collections.sort(list);
 
         // For each child of this node, ...
         for (int ibox=0; ibox<_nbox; ++ibox) {
-          BoxDistance bd = list.get(ibox);
 
           // If the child cannot be pruned, recursively find nearest boxes.
-          if (bd.distance<nearest.cutoff())
-            ((Node)bd.box).findNearest(nearest);
+          if (ds[ibox]<nearest.cutoff())
+            nodes[ibox].findNearest(nearest);
+          nodes[ibox] = null;
         }
       }
     }
@@ -964,12 +1052,13 @@ public class RTree extends AbstractSet<Object> {
     }
 
     /**
-     * Determines whether the specified box overlaps the specified bounds.
+     * Determines whether the specified box bounds overlap other bounds.
      */
-    private boolean overlaps(Object box, float[] min, float[] max) {
-      loadB(box);
+    private boolean overlaps(
+      float[] bmin, float[] bmax, float[] min, float[] max) 
+    {
       for (int idim=0; idim<_ndim; ++idim) {
-        if (_bmin[idim]>max[idim] || _bmax[idim]<min[idim])
+        if (bmin[idim]>max[idim] || bmax[idim]<min[idim])
           return false;
       }
       return true;
@@ -1251,31 +1340,38 @@ public class RTree extends AbstractSet<Object> {
   }
 
   /**
-   * Set of boxes and distances used for k-nearest-boxed-object queries.
-   * Nearest boxed objects are kept in a sorted set, ordered by increasing
-   * distance to the query point. The set is updated for any object at a
-   * distance less than the cutoff distance to the k'th object in the set. 
-   * Initially, and until the set is full with k objects, that cutoff 
-   * distance is infinity. So the first k objects always go into the set.
+   * Arrays of boxes and distances used for k-nearest-boxed-object queries.
+   * Nearest boxed objects are kept in arrays, ordered by increasing
+   * distance to the query point. The arrays are updated for any object at 
+   * a distance less than the cutoff distance to the k'th object in the 
+   * arrays. Initially, and until the arrays are full with k objects, that
+   * cutoff distance is infinity. So the first k objects always go into 
+   * the arrays. A nearest may be reset and reused for many query points; 
+   * it also holds arrays used to sort the children of nodes by distance.
    */
   private class Nearest {
-    Nearest(int k, float[] point) {
+    Nearest(int k) {
       _k = k;
+      _boxs = new Object[k];
+      _ds = new float[k];
+    }
+    void reset(float[] point) {
       _point = point;
-      _set = new TreeSet<BoxDistance>();
-      _full = false;
-      _cutoff = Float.MAX_VALUE;
+      _n = 0;
+      _cutoff = (_k>0)?Float.MAX_VALUE:0.0f;
     }
     void update(Object box) {
       float d = _boxer.getDistanceSquared(box,_point);
       if (d<_cutoff) {
-        BoxDistance bd = new BoxDistance(box,d);
-        if (_full)
-          _set.remove(_set.last());
-        _set.add(bd);
-        _full = _full || _k==_set.size();
-        if (_full)
-          _cutoff = _set.last().distance;
+        int i = (_n<_k)?_n++:_k-1;
+        for (; i>0 && _ds[i-1]>d; --i) {
+          _ds[i] = _ds[i-1];
+          _boxs[i] = _boxs[i-1];
+        }
+        _ds[i] = d;
+        _boxs[i] = box;
+        if (_n==_k)
+          _cutoff = _ds[_k-1];
       }
     }
     float[] point() {
@@ -1284,51 +1380,47 @@ public class RTree extends AbstractSet<Object> {
     float cutoff() {
       return _cutoff;
     }
+    float[] distances(int level) {
+      growLevels(level);
+      return _nds[level];
+    }
+    Node[] nodes(int level) {
+      growLevels(level);
+      return _nodes[level];
+    }
     Object[] toArray() {
-      Object[] boxs = new Object[_set.size()];
-      Iterator<BoxDistance> i = _set.iterator();
-      for (int ibox=0; i.hasNext(); ++ibox)
-        boxs[ibox] = i.next().box;
+      Object[] boxs = new Object[_n];
+      copyTo(boxs);
       return boxs;
     }
-    private int _k;
-    private float[] _point;
-    private TreeSet<BoxDistance> _set;
-    private boolean _full;
-    private float _cutoff;
-  }
-
-  /**
-   * A box and a distance used for k-nearest-boxed-object queries.
-   */
-  private static class BoxDistance implements Comparable<BoxDistance> {
-    Object box;
-    float distance;
-    BoxDistance(Object box, float distance) {
-      this.box = box;
-      this.distance = distance;
+    void copyTo(Object[] boxs) {
+      for (int i=0; i<_n; ++i) {
+        boxs[i] = _boxs[i];
+        _boxs[i] = null;
+      }
+      for (int i=_n; i<boxs.length; ++i)
+        boxs[i] = null;
     }
-    public int compareTo(BoxDistance bd) {
-      if (distance<bd.distance) {
-        return -1;
-      } else if (distance>bd.distance) {
-        return 1;
-      } else {
-        int th = System.identityHashCode(box);
-        int oh = System.identityHashCode(bd.box);
-        if (th<oh) {
-          return -1;
-        } else if (th>oh) {
-          return 1;
-        } else {
-          return 0;
+    private int _k; // number of nearest objects to find
+    private int _n; // number of nearest objects found so far
+    private float[] _point; // the query point
+    private Object[] _boxs; // nearest objects found so far
+    private float[] _ds; // distances-squared to nearest objects
+    private float _cutoff; // distance-squared to k'th nearest object
+    private float[][] _nds = new float[0][]; // node distances, per level
+    private Node[][] _nodes = new Node[0][]; // node children, per level
+    private void growLevels(int level) {
+      if (level>=_nds.length) {
+        float[][] nds = new float[level+1][];
+        Node[][] nodes = new Node[level+1][];
+        for (int i=0; i<=level; ++i) {
+          nds[i] = (i<_nds.length)?_nds[i]:new float[_nmax];
+          nodes[i] = (i<_nodes.length)?_nodes[i]:new Node[_nmax];
         }
+        _nds = nds;
+        _nodes = nodes;
       }
     }
-    public boolean equals(Object o) {
-      BoxDistance bd = (BoxDistance)o;
-      return box==bd.box && distance==bd.distance;
-    }
   }
 
   private class RTreeIterator implements Iterator<Object> {
@@ -0,0 +1,129 @@
+/****************************************************************************
+Copyright 2026, Colorado School of Mines and others.
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+****************************************************************************/
+package edu.mines.jtk.dsp;
+
+import org.testng.annotations.Test;
+import static org.testng.Assert.assertEquals;
+
+import static edu.mines.jtk.util.ArrayMath.*;
+
+/**
+ * Tests {@link edu.mines.jtk.dsp.BSplineInterpolator}.
+ * @author agent
+ * @version 2026.10.18
+ */
+public class BSplineInterpolatorTest {
+
+  @Test
+  public void testSamples() {
+    for (int degree:DEGREES) {
+      BSplineInterpolator bsi = new BSplineInterpolator(degree);
+      int n1 = 37, n2 = 13, n3 = 6;
+      Sampling s1 = new Sampling(n1,0.5,1.0);
+      Sampling s2 = new Sampling(n2,2.0,-1.0);
+      Sampling s3 = new Sampling(n3,1.0,0.0);
+      float[] y1 = sub(randfloat(n1),0.5f);
+      float[] c1 = bsi.prefilter(y1);
+      for (int i1=0; i1<n1; ++i1)
+        assertEquals(y1[i1],bsi.interpolate(s1,c1,s1.getValue(i1)),TOL);
+      float[][] y2 = sub(randfloat(n1,n2),0.5f);
+      float[][] c2 = bsi.prefilter(y2);
+      for (int i2=0; i2<n2; ++i2)
+        for (int i1=0; i1<n1; ++i1)
+          assertEquals(y2[i2][i1],bsi.interpolate(s1,s2,c2,
+            s1.getValue(i1),s2.getValue(i2)),TOL);
+      float[][][] y3 = sub(randfloat(n1,n2,n3),0.5f);
+      float[][][] c3 = bsi.prefilter(y3);
+      for (int i3=0; i3<n3; ++i3)
+        for (int i2=0; i2<n2; ++i2)
+          for (int i1=0; i1<n1; ++i1)
+            assertEquals(y3[i3][i2][i1],bsi.interpolate(s1,s2,s3,c3,
+              s1.getValue(i1),s2.getValue(i2),s3.getValue(i3)),TOL);
+    }
+  }
+
+  @Test
+  public void testAccuracy() {
+    double[] errors = {0.01,0.001}; // for cubic and quintic
+    double f = 0.1; // cycles per sample
+    int nu = 201;
+    int ni = 4*nu;
+    Sampling su = new Sampling(nu,1.0,0.0);
+    Sampling si = new Sampling(ni,0.25,0.0);
+    float[] yu = new float[nu];
+    for (int iu=0; iu<nu; ++iu)
+      yu[iu] = (float)cos(2.0*PI*f*iu+0.3);
+    for (int id=0; id<DEGREES.length; ++id) {
+      BSplineInterpolator bsi = new BSplineInterpolator(DEGREES[id]);
+      float[] yi = new float[ni];
+      bsi.interpolate(su,yu,si,yi);
+      for (int ii=ni/4; ii<3*ni/4; ++ii) {
+        float ye = (float)cos(2.0*PI*f*si.getValue(ii)+0.3);
+        assertEquals(ye,yi[ii],errors[id]);
+      }
+    }
+  }
+
+  @Test
+  public void testResample() {
+    int n1 = 21, n2 = 12, n3 = 7;
+    Sampling s1u = new Sampling(n1,1.0,0.0);
+    Sampling s2u = new Sampling(n2,2.0,5.0);
+    Sampling s3u = new Sampling(n3,0.5,0.0);
+    Sampling s1i = new Sampling(3*n1,0.37,-1.0);
+    Sampling s2i = new Sampling(2*n2,0.9,4.0);
+    Sampling s3i = new Sampling(3*n3,0.17,-0.2);
+    float[][] y2 = sub(randfloat(n1,n2),0.5f);
+    float[][][] y3 = sub(randfloat(n1,n2,n3),0.5f);
+    for (int degree:DEGREES) {
+      for (BSplineInterpolator.Extrapolation extrap:
+           BSplineInterpolator.Extrapolation.values()) {
+        BSplineInterpolator bsi = new BSplineInterpolator(degree);
+        bsi.setExtrapolation(extrap);
+        int m1 = s1i.getCount(), m2 = s2i.getCount(), m3 = s3i.getCount();
+
+        float[][] c2 = bsi.prefilter(y2);
+        float[][] z2 = new float[m2][m1];
+        bsi.interpolate(s1u,s2u,y2,s1i,s2i,z2);
+        for (int i2=0; i2<m2; ++i2)
+          for (int i1=0; i1<m1; ++i1)
+            assertEquals(bsi.interpolate(s1u,s2u,c2,
+              s1i.getValue(i1),s2i.getValue(i2)),z2[i2][i1],TOL);
+
+        float[][][] c3 = bsi.prefilter(y3);
+        float[][][] z3 = new float[m3][m2][m1];
+        bsi.interpolate(s1u,s2u,s3u,y3,s1i,s2i,s3i,z3);
+        for (int i3=0; i3<m3; ++i3)
+          for (int i2=0; i2<m2; ++i2)
+            for (int i1=0; i1<m1; ++i1)
+              assertEquals(bsi.interpolate(s1u,s2u,s3u,c3,
+                s1i.getValue(i1),s2i.getValue(i2),s3i.getValue(i3)),
+                z3[i3][i2][i1],TOL);
+
+        float[][] zt = new float[n2][m1];
+        bsi.interpolate1(s1u,y2,s1i,zt);
+        for (int i2=0; i2<n2; ++i2) {
+          float[] z1 = new float[m1];
+          bsi.interpolate(s1u,y2[i2],s1i,z1);
+          for (int i1=0; i1<m1; ++i1)
+            assertEquals(z1[i1],zt[i2][i1],0.0);
+        }
+      }
+    }
+  }
+
+  private static final int[] DEGREES = {3,5};
+  private static final float TOL = 1.0e-5f;
+}
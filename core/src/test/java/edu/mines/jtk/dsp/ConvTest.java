@@ -156,6 +156,159 @@ public class ConvTest {
     }
   }
 
+  @Test
+  public void test1Fft() {
+    int ntest = 20;
+    for (int itest=0; itest<ntest; ++itest) {
+      int lx = 100+_random.nextInt(200);
+      int ly = 1000+_random.nextInt(4000);
+      int lz = 1000+_random.nextInt(4000);
+      int kx = -_random.nextInt(lx);
+      int ky = _random.nextInt(100);
+      int kz = _random.nextInt(1000)-500;
+      float[] x = randfloat(lx);
+      float[] y = randfloat(ly);
+      float[] zs = zerofloat(lz);
+      float[] zf = zerofloat(lz);
+
+      convSimple(lx,kx,x,ly,ky,y,lz,kz,zs);
+      Conv.conv(lx,kx,x,ly,ky,y,lz,kz,zf);
+      assertArrayNear(zs,zf);
+
+      xcorSimple(lx,kx,x,ly,ky,y,lz,kz,zs);
+      Conv.xcor(lx,kx,x,ly,ky,y,lz,kz,zf);
+      assertArrayNear(zs,zf);
+    }
+  }
+
+  @Test
+  public void test2Fft() {
+    int ntest = 3;
+    for (int itest=0; itest<ntest; ++itest) {
+      int lx1 = 25+_random.nextInt(10), lx2 = 25+_random.nextInt(10);
+      int ly1 = 60+_random.nextInt(20), ly2 = 60+_random.nextInt(20);
+      int lz1 = 60+_random.nextInt(20), lz2 = 60+_random.nextInt(20);
+      int kx1 = -lx1/2, kx2 = -lx2/2;
+      int ky1 = 0, ky2 = 0;
+      int kz1 = _random.nextInt(20)-10, kz2 = _random.nextInt(20)-10;
+      float[][] x = randfloat(lx1,lx2);
+      float[][] y = randfloat(ly1,ly2);
+      float[][] zs = zerofloat(lz1,lz2);
+      float[][] zf = zerofloat(lz1,lz2);
+
+      convSimple(lx1,lx2,kx1,kx2,x,ly1,ly2,ky1,ky2,y,lz1,lz2,kz1,kz2,zs);
+      Conv.conv(lx1,lx2,kx1,kx2,x,ly1,ly2,ky1,ky2,y,lz1,lz2,kz1,kz2,zf);
+      assertArrayNear(zs,zf);
+
+      xcorSimple(lx1,lx2,kx1,kx2,x,ly1,ly2,ky1,ky2,y,lz1,lz2,kz1,kz2,zs);
+      Conv.xcor(lx1,lx2,kx1,kx2,x,ly1,ly2,ky1,ky2,y,lz1,lz2,kz1,kz2,zf);
+      assertArrayNear(zs,zf);
+    }
+  }
+
+  @Test
+  public void test3Fft() {
+    int lx1 = 9, lx2 = 8, lx3 = 7;
+    int ly1 = 30, ly2 = 31, ly3 = 32;
+    int lz1 = 33, lz2 = 31, lz3 = 29;
+    int kx1 = -4, kx2 = -4, kx3 = -3;
+    int ky1 = 0, ky2 = 1, ky3 = 2;
+    int kz1 = -2, kz2 = 0, kz3 = 3;
+    float[][][] x = randfloat(lx1,lx2,lx3);
+    float[][][] y = randfloat(ly1,ly2,ly3);
+    float[][][] zs = zerofloat(lz1,lz2,lz3);
+    float[][][] zf = zerofloat(lz1,lz2,lz3);
+
+    convSimple(lx1,lx2,lx3,kx1,kx2,kx3,x,
+               ly1,ly2,ly3,ky1,ky2,ky3,y,
+               lz1,lz2,lz3,kz1,kz2,kz3,zs);
+    Conv.conv(lx1,lx2,lx3,kx1,kx2,kx3,x,
+              ly1,ly2,ly3,ky1,ky2,ky3,y,
+              lz1,lz2,lz3,kz1,kz2,kz3,zf);
+    assertArrayNear(zs,zf);
+
+    xcorSimple(lx1,lx2,lx3,kx1,kx2,kx3,x,
+               ly1,ly2,ly3,ky1,ky2,ky3,y,
+               lz1,lz2,lz3,kz1,kz2,kz3,zs);
+    Conv.xcor(lx1,lx2,lx3,kx1,kx2,kx3,x,
+              ly1,ly2,ly3,ky1,ky2,ky3,y,
+              lz1,lz2,lz3,kz1,kz2,kz3,zf);
+    assertArrayNear(zs,zf);
+  }
+
+  @Test
+  public void test2FftBlocks() {
+    int lx1 = 5, lx2 = 4;
+    int ly1 = 40, ly2 = 45;
+    int lz1 = 47, lz2 = 50;
+    int kx1 = -2, kx2 = -1;
+    int ky1 = 0, ky2 = 1;
+    int kz1 = -3, kz2 = -4;
+    float[][] x = randfloat(lx1,lx2);
+    float[][] y = randfloat(ly1,ly2);
+    float[][] zs = zerofloat(lz1,lz2);
+    float[][] zf = zerofloat(lz1,lz2);
+    convSimple(lx1,lx2,kx1,kx2,x,ly1,ly2,ky1,ky2,y,lz1,lz2,kz1,kz2,zs);
+    int[] ms = {lx2,2*lx2,3*lx2,ly2+lx2-1};
+    for (int m:ms) {
+      int nfft2 = FftComplex.nfftFast(m);
+      Conv.convFft(nfft2,
+                   lx1,lx2,kx1,kx2,x,ly1,ly2,ky1,ky2,y,lz1,lz2,kz1,kz2,zf);
+      assertArrayNear(zs,zf);
+    }
+  }
+
+  @Test
+  public void test3FftBlocks() {
+    int lx1 = 3, lx2 = 4, lx3 = 5;
+    int ly1 = 20, ly2 = 21, ly3 = 30;
+    int lz1 = 23, lz2 = 22, lz3 = 36;
+    int kx1 = -1, kx2 = -2, kx3 = -2;
+    int ky1 = 0, ky2 = 1, ky3 = 2;
+    int kz1 = -2, kz2 = 0, kz3 = -3;
+    float[][][] x = randfloat(lx1,lx2,lx3);
+    float[][][] y = randfloat(ly1,ly2,ly3);
+    float[][][] zs = zerofloat(lz1,lz2,lz3);
+    float[][][] zf = zerofloat(lz1,lz2,lz3);
+    convSimple(lx1,lx2,lx3,kx1,kx2,kx3,x,
+               ly1,ly2,ly3,ky1,ky2,ky3,y,
+               lz1,lz2,lz3,kz1,kz2,kz3,zs);
+    int[] ms = {lx3,2*lx3,3*lx3,ly3+lx3-1};
+    for (int m:ms) {
+      int nfft3 = FftComplex.nfftFast(m);
+      Conv.convFft(nfft3,
+                   lx1,lx2,lx3,kx1,kx2,kx3,x,
+                   ly1,ly2,ly3,ky1,ky2,ky3,y,
+                   lz1,lz2,lz3,kz1,kz2,kz3,zf);
+      assertArrayNear(zs,zf);
+    }
+  }
+
+  @Test
+  public void test1Batch() {
+    int n2 = 10;
+    int[] lxs = {5,250};
+    for (int lx:lxs) {
+      int kx = -lx/2;
+      int ly = 2000, ky = 0;
+      int lz = 2100, kz = -50;
+      float[] x = randfloat(lx);
+      float[][] y = randfloat(ly,n2);
+      float[][] zs = zerofloat(lz,n2);
+      float[][] zf = zerofloat(lz,n2);
+
+      for (int i2=0; i2<n2; ++i2)
+        convSimple(lx,kx,x,ly,ky,y[i2],lz,kz,zs[i2]);
+      Conv.conv1(lx,kx,x,ly,ky,y,lz,kz,zf);
+      assertArrayNear(zs,zf);
+
+      for (int i2=0; i2<n2; ++i2)
+        xcorSimple(lx,kx,x,ly,ky,y[i2],lz,kz,zs[i2]);
+      Conv.xcor1(lx,kx,x,ly,ky,y,lz,kz,zf);
+      assertArrayNear(zs,zf);
+    }
+  }
+
   private Random _random = new Random();
 
   private static void convSimple(
@@ -313,6 +466,18 @@ public class ConvTest {
   }
 
   private static final float TOLERANCE = 1000.0f*FLT_EPSILON;
+  private static final float FFT_TOLERANCE = 100.0f*FLT_EPSILON;
+  // For sums computed with FFTs, errors are relative to the largest value.
+  private static void assertArrayNear(float[] a, float[] b) {
+    assertEquals(0.0f,max(abs(sub(a,b)))/max(abs(a)),FFT_TOLERANCE);
+  }
+  private static void assertArrayNear(float[][] a, float[][] b) {
+    assertEquals(0.0f,max(abs(sub(a,b)))/max(abs(a)),FFT_TOLERANCE);
+  }
+  private static void assertArrayNear(float[][][] a, float[][][] b) {
+    assertEquals(0.0f,max(abs(sub(a,b)))/max(abs(a)),FFT_TOLERANCE);
+  }
+
   private static void assertArrayEquals(float[] a, float[] b) {
     int n = a.length;
     for (int i=0; i<n; ++i) {
@@ -0,0 +1,180 @@
+/****************************************************************************
+Copyright 2026, Colorado School of Mines and others.
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+****************************************************************************/
+package edu.mines.jtk.dsp;
+
+import java.io.File;
+import java.util.Random;
+
+import org.testng.annotations.Test;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+import edu.mines.jtk.util.SimpleFloat3;
+import static edu.mines.jtk.util.ArrayMath.*;
+
+/**
+ * Tests {@link edu.mines.jtk.dsp.DynamicWarping}.
+ * @author agent
+ * @version 2026.10.18
+ */
+public class DynamicWarpingTest {
+
+  @Test
+  public void testFloat3() {
+    int n1 = 61, n2 = 23, n3 = 19;
+    float[][][] f = randomImage(n1,n2,n3,1);
+    float[][][] g = shiftedImage(3.0f,f);
+    DynamicWarping dw = makeWarping();
+    float[][][] u = dw.findShifts(f,g);
+    SimpleFloat3 fs = new SimpleFloat3(f);
+    SimpleFloat3 gs = new SimpleFloat3(g);
+    float[][][] ua = randfloat(n1,n2,n3);
+    dw.findShifts(fs,gs,new SimpleFloat3(ua));
+    assertTrue(equal(u,ua));
+    File dir = new File(System.getProperty("java.io.tmpdir"));
+    dw.setErrorDirectory(dir);
+    ua = randfloat(n1,n2,n3);
+    dw.findShifts(fs,gs,new SimpleFloat3(ua));
+    assertTrue(equal(u,ua));
+  }
+
+  @Test
+  public void testCompact2() {
+    int n1 = 101, n2 = 37;
+    float[][] f = randomImage(n1,n2,1,2)[0];
+    float[][] g = shiftedImage(4.0f,new float[][][]{f})[0];
+    DynamicWarping dw = makeWarping();
+    float[][] u = dw.findShifts(f,g);
+    dw.setCompactErrors(true);
+    float[][] uc = dw.findShifts(f,g);
+    assertNearlyEqual(u,uc);
+  }
+
+  @Test
+  public void testCompact3() {
+    int n1 = 61, n2 = 23, n3 = 19;
+    float[][][] f = randomImage(n1,n2,n3,3);
+    float[][][] g = shiftedImage(3.0f,f);
+    DynamicWarping dw = makeWarping();
+    float[][][] u = dw.findShifts(f,g);
+    dw.setCompactErrors(true);
+    float[][][] uc = dw.findShifts(f,g);
+    assertNearlyEqual(u,uc);
+  }
+
+  @Test
+  public void testFewLags() {
+    int n1 = 11;
+    for (int nl=1; nl<=2; ++nl) {
+      for (double strain:new double[]{1.0,0.5}) {
+
+        // Arrays of errors may have fewer lags than the warping.
+        DynamicWarping dw = new DynamicWarping(-1,1);
+        dw.setStrainMax(strain);
+        float[][] e = randfloat(new Random(nl),nl,n1);
+        float[][] df = dw.accumulateForward(e);
+        float[][] dr = dw.accumulateReverse(e);
+        if (nl==1) {
+          float sf = 0.0f, sr = 0.0f;
+          for (int i1=0,j1=n1-1; i1<n1; ++i1,--j1) {
+            sf += e[i1][0];
+            sr += e[j1][0];
+            assertEquals(df[i1][0],sf,1.0e-5f);
+            assertEquals(dr[j1][0],sr,1.0e-5f);
+          }
+        }
+        float[] u = dw.backtrackReverse(df,e);
+        for (int i1=0; i1<n1; ++i1)
+          assertTrue(-1.0f<=u[i1] && u[i1]<=nl-2);
+      }
+    }
+  }
+
+  @Test
+  public void testVectorized() {
+    if (!DynamicWarping.isVectorAvailable())
+      return;
+    int[] nls = {3,4,9,17,100};
+    int[] n1s = {1,2,101};
+    double[] strains = {1.0,0.5,0.2};
+    for (int nl:nls) {
+      for (int n1:n1s) {
+        for (double strain:strains) {
+          DynamicWarping dw = new DynamicWarping(-1,nl-2);
+          dw.setStrainMax(strain);
+          float[][] e = sub(randfloat(nl,n1),0.1f);
+          float[][] df = new float[n1][nl];
+          float[][] dr = new float[n1][nl];
+          dw.accumulate( 1,e,df,false);
+          dw.accumulate(-1,e,dr,false);
+          assertTrue(equal(df,dw.accumulateForward(e)));
+          assertTrue(equal(dr,dw.accumulateReverse(e)));
+        }
+      }
+    }
+  }
+
+  ///////////////////////////////////////////////////////////////////////////
+  // private
+
+  private static DynamicWarping makeWarping() {
+    DynamicWarping dw = new DynamicWarping(-6,6);
+    dw.setStrainMax(0.5,0.5,0.5);
+    dw.setErrorSmoothing(1);
+    dw.setShiftSmoothing(1.0,1.0,1.0);
+    dw.setWindowSizeAndOverlap(10,8,0.5,0.5);
+    return dw;
+  }
+
+  // Quantizing smoothed errors to 16 bits changes integer shifts by one
+  // lag for a few percent of samples. After shift smoothing, differences
+  // are less than one lag everywhere, and on average about 0.02 lag for 
+  // 2D images and 0.04 lag for 3D images. (For 60 random 3D images, the
+  // largest average was 0.052 lag.) The tolerance for the average is 
+  // about twice that largest average.
+  private static void assertNearlyEqual(float[][] u, float[][] uc) {
+    assertNearlyEqual(new float[][][]{u},new float[][][]{uc});
+  }
+  private static void assertNearlyEqual(float[][][] u, float[][][] uc) {
+    float[][][] du = abs(sub(u,uc));
+    float n = du.length*du[0].length*du[0][0].length;
+    assertTrue(max(du)<=1.0f);
+    assertEquals(sum(du)/n,0.0f,0.1f);
+  }
+
+  private static float[][][] randomImage(int n1, int n2, int n3, int seed) {
+    float[][][] f = sub(randfloat(new Random(seed),n1,n2,n3),0.5f);
+    RecursiveGaussianFilter rgf = new RecursiveGaussianFilter(2.0);
+    rgf.apply000(f,f);
+    return f;
+  }
+
+  private static float[][][] shiftedImage(float umax, float[][][] f) {
+    int n1 = f[0][0].length;
+    int n2 = f[0].length;
+    int n3 = f.length;
+    SincInterpolator si = new SincInterpolator();
+    float[][][] g = new float[n3][n2][n1];
+    for (int i3=0; i3<n3; ++i3) {
+      for (int i2=0; i2<n2; ++i2) {
+        for (int i1=0; i1<n1; ++i1) {
+          double u = umax*sin(PI*(i1+i2+i3)/(n1+n2+n3));
+          g[i3][i2][i1] = si.interpolate(n1,1.0,0.0,f[i3][i2],i1-u);
+        }
+      }
+    }
+    return g;
+  }
+}
@@ -144,6 +144,59 @@ public class FftComplexTest {
     assertNear(cr,cx);
   }
 
+  @Test
+  public void test2Blocked() {
+    // Many columns, so that dimension-2 transforms are done in blocks.
+    int n1 = 1001;
+    int n2fft = FftComplex.nfftSmall(100);
+    FftComplex fft2 = new FftComplex(n2fft);
+    float[][] cr = crandfloat(n1,n2fft);
+    float[][] cx = ccopy(cr);
+    fft2.complexToComplex2(1,n1,cx,cx);
+    float[] cx1 = new float[2*n2fft];
+    float[] cy1 = new float[2*n2fft];
+    for (int i1=0; i1<n1; i1+=97) {
+      for (int i2=0; i2<n2fft; ++i2) {
+        cx1[2*i2  ] = cx[i2][2*i1  ];
+        cx1[2*i2+1] = cx[i2][2*i1+1];
+        cy1[2*i2  ] = cr[i2][2*i1  ];
+        cy1[2*i2+1] = cr[i2][2*i1+1];
+      }
+      fft2.complexToComplex(1,cy1,cy1);
+      assertNear(cy1,cx1);
+    }
+    fft2.complexToComplex2(-1,n1,cx,cx);
+    fft2.scale(n1,n2fft,cx);
+    assertNear(cr,cx);
+  }
+
+  @Test
+  public void test2Vectorized() {
+    // Vector and scalar transforms should yield identical results.
+    if (!FftComplex.isVectorAvailable())
+      return;
+    int n1 = 37; // not a multiple of the number of lanes
+    int[] nffts = {16,13,11,9,8,7,5,4,3,2,720,1001,1008};
+    for (int nfft:nffts) {
+      FftComplex fft = new FftComplex(nfft);
+      for (int sign=-1; sign<=1; sign+=2) {
+        float[][] ax = crandfloat(n1,nfft);
+        float[][] ay = ccopy(ax);
+        float[][] bx = randfloat(n1,2*nfft);
+        float[][] by = copy(bx);
+        float[][] cx = ccopy(ax);
+        Pfacc.transform2a(sign,0,n1,nfft,ax,false);
+        Pfacc.transform2a(sign,0,n1,nfft,ay,true);
+        Pfacc.transform2b(sign,0,n1,nfft,bx,false);
+        Pfacc.transform2b(sign,0,n1,nfft,by,true);
+        fft.complexToComplex2(sign,n1,cx,cx);
+        assertTrue(equal(ax,ay));
+        assertTrue(equal(bx,by));
+        assertTrue(equal(ax,cx));
+      }
+    }
+  }
+
   private void assertNear(float[] ca, float[] cb) {
     int n1 = ca.length/2;
     float tolerance = (float)(n1)*FLT_EPSILON;
@@ -111,6 +111,27 @@ public class FftFilterTest {
     }
   }
 
+  @Test
+  public void test2Caching() {
+    int nh1 = 5, nh2 = 4;
+    float[][] h = randfloat(nh1,nh2);
+    FftFilter ff = new FftFilter(2,1,h);
+    ff.setFilterCaching(true);
+    ff.setExtrapolation(FftFilter.Extrapolation.ZERO_SLOPE);
+    int[] nx1s = {20,20,21,13,20};
+    int[] nx2s = {10,10,11,17,10};
+    for (int itest=0; itest<nx1s.length; ++itest) {
+      int nx1 = nx1s[itest];
+      int nx2 = nx2s[itest];
+      float[][] x = randfloat(nx1,nx2);
+      float[][] y = ff.apply(x);
+      FftFilter gf = new FftFilter(2,1,h);
+      gf.setExtrapolation(FftFilter.Extrapolation.ZERO_SLOPE);
+      float[][] z = gf.apply(x);
+      assertArrayEquals(z,y);
+    }
+  }
+
   private Random _random = new Random();
 
   private static final float TOLERANCE = 1000.0f*FLT_EPSILON;
@@ -186,6 +186,34 @@ public class FftRealTest {
     }
   }
 
+  @Test
+  public void test21Blocked() {
+    // Many columns, so that dimension-2 transforms are done in blocks.
+    int n1 = 1001;
+    int n2fft = FftReal.nfftSmall(100);
+    int nw = n2fft/2+1;
+    FftReal fft2 = new FftReal(n2fft);
+    float[][] rx = randfloat(n1,n2fft);
+    float[][] cy = czerofloat(n1,nw);
+    fft2.realToComplex2(1,n1,rx,cy);
+    float[] rx1 = new float[n2fft];
+    float[] cy1 = new float[n2fft+2];
+    for (int i1=0; i1<n1; i1+=97) {
+      for (int i2=0; i2<n2fft; ++i2)
+        rx1[i2] = rx[i2][i1];
+      fft2.realToComplex(1,rx1,cy1);
+      for (int i2=0; i2<nw; ++i2) {
+        float tolerance = (float)(n2fft)*FLT_EPSILON;
+        assertEquals(cy1[2*i2  ],cy[i2][2*i1  ],tolerance);
+        assertEquals(cy1[2*i2+1],cy[i2][2*i1+1],tolerance);
+      }
+    }
+    float[][] ry = zerofloat(n1,n2fft);
+    fft2.complexToReal2(-1,n1,cy,ry);
+    fft2.scale(n1,n2fft,ry);
+    assertRealEqual(n1,n2fft,rx,ry);
+  }
+
   private void assertRealEqual(int n1, float[] re, float[] ra) {
     float tolerance = (float)(n1)*FLT_EPSILON;
     for (int i1=0; i1<n1; ++i1)
@@ -74,6 +74,34 @@ public class LocalDiffusionKernelTest {
     testSpd2RandomTensors(ldk);
   }
 
+  @Test
+  public void testD71Fused() {
+    LocalDiffusionKernel ldk =
+      new LocalDiffusionKernel(LocalDiffusionKernel.Stencil.D71);
+    int n1 = 15, n2 = 16, n3 = 17;
+    float[][] s2 = randfloat(n1,n2);
+    float[][] xa2 = sub(randfloat(n1,n2),0.5f);
+    float[][] xb2 = sub(randfloat(n1,n2),0.5f);
+    float[][] ya2 = zerofloat(n1,n2), za2 = zerofloat(n1,n2);
+    float[][] yb2 = zerofloat(n1,n2), zb2 = zerofloat(n1,n2);
+    Tensors2 t2 = new RandomTensors2(n1,n2);
+    ldk.apply(t2,0.5f,s2,xa2,ya2);
+    ldk.apply(t2,0.5f,s2,xb2,yb2);
+    ldk.apply(t2,0.5f,s2,xa2,za2,xb2,zb2);
+    assertEquals(0.0f,max(abs(sub(ya2,za2))),1.0e-6f);
+    assertEquals(0.0f,max(abs(sub(yb2,zb2))),1.0e-6f);
+    float[][][] s3 = randfloat(n1,n2,n3);
+    float[][][] xa3 = sub(randfloat(n1,n2,n3),0.5f);
+    float[][][] xb3 = sub(randfloat(n1,n2,n3),0.5f);
+    float[][][] ya3 = zerofloat(n1,n2,n3), za3 = zerofloat(n1,n2,n3);
+    float[][][] yb3 = zerofloat(n1,n2,n3), zb3 = zerofloat(n1,n2,n3);
+    ldk.apply(null,0.5f,s3,xa3,ya3);
+    ldk.apply(null,0.5f,s3,xb3,yb3);
+    ldk.apply(null,0.5f,s3,xa3,za3,xb3,zb3);
+    assertEquals(0.0f,max(abs(sub(ya3,za3))),1.0e-6f);
+    assertEquals(0.0f,max(abs(sub(yb3,zb3))),1.0e-6f);
+  }
+
   private static void testSpd2(LocalDiffusionKernel ldk) {
     int n1 = 5;
     int n2 = 6;
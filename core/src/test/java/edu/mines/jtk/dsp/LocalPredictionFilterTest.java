@@ -0,0 +1,162 @@
+/****************************************************************************
+Copyright 2026, Colorado School of Mines and others.
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+****************************************************************************/
+package edu.mines.jtk.dsp;
+
+import org.testng.annotations.Test;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+import java.util.Random;
+
+import edu.mines.jtk.la.DMatrix;
+import edu.mines.jtk.la.DMatrixLud;
+import static edu.mines.jtk.util.ArrayMath.*;
+
+/**
+ * Tests {@link edu.mines.jtk.dsp.LocalPredictionFilter}.
+ * @author agent
+ * @version 2026.10.18
+ */
+public class LocalPredictionFilterTest {
+
+  @Test
+  public void testSolvers2() {
+    float[][] f = planeWaves(101,102);
+    float[][] gc = new float[102][101];
+    float[][] gg = new float[102][101];
+    LocalPredictionFilter lpf = new LocalPredictionFilter(8.0);
+    lpf.applyPef(LAG1,LAG2,f,gc);
+    lpf.setSolver(LocalPredictionFilter.Solver.CG);
+    lpf.applyPef(LAG1,LAG2,f,gg);
+    float ef = sum(mul(f,f));
+    assertTrue(sum(mul(gc,gc))<0.01f*ef);
+    assertTrue(sum(mul(gg,gg))<0.01f*ef);
+    assertEquals(0.0f,max(abs(sub(gc,gg))),0.02f*max(abs(f)));
+  }
+
+  @Test
+  public void testParallel2() {
+    // Predictions computed for rows in parallel, with one row solver per
+    // thread, should match those computed serially for each sample. CG
+    // iterations stop when residuals are small, so that CG predictions
+    // are less accurate than those for Cholesky decompositions.
+    float[][] f = planeWaves(51,52);
+    float[][] gs = predict(LAG1,LAG2,filters(4.0,LAG1,LAG2,f),f);
+    float[][] gp = new float[52][51];
+    float fmax = max(abs(f));
+    LocalPredictionFilter lpf = new LocalPredictionFilter(4.0);
+    for (LocalPredictionFilter.Solver solver:
+         LocalPredictionFilter.Solver.values()) {
+      lpf.setSolver(solver);
+      lpf.apply(LAG1,LAG2,f,gp);
+      float tol = (solver==LocalPredictionFilter.Solver.CG)?1.0e-2f:1.0e-4f;
+      assertEquals(0.0f,max(abs(sub(gs,gp))),tol*fmax);
+    }
+  }
+
+  @Test
+  public void testPlaneWaves3() {
+    int n1 = 31, n2 = 32, n3 = 33;
+    float[][][] f = new float[n3][n2][n1];
+    for (int i3=0; i3<n3; ++i3)
+      f[i3] = planeWaves(n1,n2,0.1*i3);
+    int[] lag1 = {1,2,-1,0,1,-1,0,1};
+    int[] lag2 = {0,0,1,1,1,0,0,0};
+    int[] lag3 = {0,0,0,0,0,1,1,1};
+    float[][][] g = new float[n3][n2][n1];
+    LocalPredictionFilter lpf = new LocalPredictionFilter(4.0);
+    lpf.applyPef(lag1,lag2,lag3,f,g);
+    assertTrue(sum(mul(g,g))<0.01f*sum(mul(f,f)));
+  }
+
+  ///////////////////////////////////////////////////////////////////////////
+  // private
+
+  private static final int[] LAG1 = {1,2,-2,-1,0,1,2};
+  private static final int[] LAG2 = {0,0,1,1,1,1,1};
+
+  // Filter coefficients computed serially, by solving with an LU
+  // decomposition the system of equations for each sample.
+  private static float[][][] filters(
+    double sigma, int[] lag1, int[] lag2, float[][] f)
+  {
+    int m = lag1.length;
+    int n1 = f[0].length;
+    int n2 = f.length;
+    LocalCorrelationFilter lcf = new LocalCorrelationFilter(
+      LocalCorrelationFilter.Type.SYMMETRIC,
+      LocalCorrelationFilter.Window.GAUSSIAN,
+      sigma);
+    lcf.setInputs(f,f);
+    float[][][][] rkj = new float[m][m][n2][n1];
+    float[][][] rk0 = new float[m][n2][n1];
+    for (int k=0; k<m; ++k) {
+      for (int j=0; j<m; ++j)
+        lcf.correlate(lag1[j]-lag1[k],lag2[j]-lag2[k],rkj[k][j]);
+      lcf.correlate(lag1[k],lag2[k],rk0[k]);
+      rkj[k][k] = mul(1.01f,rkj[k][k]);
+    }
+    float[][][] a = new float[m][n2][n1];
+    DMatrix ai = new DMatrix(m,m);
+    DMatrix bi = new DMatrix(m,1);
+    for (int i2=0; i2<n2; ++i2) {
+      for (int i1=0; i1<n1; ++i1) {
+        for (int k=0; k<m; ++k) {
+          for (int j=0; j<m; ++j)
+            ai.set(k,j,rkj[k][j][i2][i1]);
+          bi.set(k,0,rk0[k][i2][i1]);
+        }
+        DMatrix xi = new DMatrixLud(ai).solve(bi);
+        for (int k=0; k<m; ++k)
+          a[k][i2][i1] = (float)xi.get(k,0);
+      }
+    }
+    return a;
+  }
+
+  // Predicted values g = a*f, for prediction filters a with specified lags.
+  private static float[][] predict(
+    int[] lag1, int[] lag2, float[][][] a, float[][] f)
+  {
+    int n1 = f[0].length;
+    int n2 = f.length;
+    float[][] g = new float[n2][n1];
+    for (int j=0; j<lag1.length; ++j) {
+      int j1 = lag1[j];
+      int j2 = lag2[j];
+      for (int i2=max(0,j2); i2<min(n2,n2+j2); ++i2)
+        for (int i1=max(0,j1); i1<min(n1,n1+j1); ++i1)
+          g[i2][i1] += a[j][i2][i1]*f[i2-j2][i1-j1];
+    }
+    return g;
+  }
+
+  private static float[][] planeWaves(int n1, int n2) {
+    return planeWaves(n1,n2,0.0);
+  }
+
+  // Sum of two plane waves, plus a little random noise.
+  private static float[][] planeWaves(int n1, int n2, double p) {
+    Random r = new Random(314159);
+    float[][] f = new float[n2][n1];
+    for (int i2=0; i2<n2; ++i2) {
+      for (int i1=0; i1<n1; ++i1) {
+        double w = sin(0.3*i1+0.2*i2+p)+0.5*cos(0.1*i1-0.4*i2+p);
+        f[i2][i1] = (float)w+0.01f*(r.nextFloat()-0.5f);
+      }
+    }
+    return f;
+  }
+}
@@ -0,0 +1,80 @@
+/****************************************************************************
+Copyright 2026, Colorado School of Mines and others.
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+****************************************************************************/
+package edu.mines.jtk.dsp;
+
+import org.testng.annotations.Test;
+import static org.testng.Assert.assertEquals;
+
+import java.util.Random;
+import static edu.mines.jtk.util.ArrayMath.*;
+
+/**
+ * Tests {@link edu.mines.jtk.dsp.LocalSemblanceFilter}.
+ * @author agent
+ * @version 2026.10.18
+ */
+public class LocalSemblanceFilterTest {
+
+  @Test
+  public void testSemblance2() {
+    int n1 = 31, n2 = 32;
+    float[][] f = sub(randfloat(new Random(2),n1,n2),0.5f);
+    EigenTensors2 t = new LocalOrientFilter(2.0).applyForTensors(f);
+    LocalSemblanceFilter lsf = new LocalSemblanceFilter(2,4);
+    for (LocalSemblanceFilter.Direction2 d:
+         LocalSemblanceFilter.Direction2.values()) {
+      float[][] s = lsf.semblance(d,t,f);
+      float[][] sn = lsf.smooth1(d,t,f);
+      sn = lsf.smooth2(d,t,mul(sn,sn));
+      float[][] sd = lsf.smooth1(d,t,mul(f,f));
+      sd = lsf.smooth2(d,t,sd);
+      for (int i2=0; i2<n2; ++i2)
+        for (int i1=0; i1<n1; ++i1)
+          assertEquals(semblance(sn[i2][i1],sd[i2][i1]),s[i2][i1],1.0e-5f);
+    }
+  }
+
+  @Test
+  public void testSemblance3() {
+    int n1 = 13, n2 = 14, n3 = 15;
+    float[][][] f = sub(randfloat(new Random(3),n1,n2,n3),0.5f);
+    EigenTensors3 t = new LocalOrientFilter(2.0).applyForTensors(f);
+    LocalSemblanceFilter lsf = new LocalSemblanceFilter(2,4);
+    for (LocalSemblanceFilter.Direction3 d:
+         LocalSemblanceFilter.Direction3.values()) {
+      float[][][] s = lsf.semblance(d,t,f);
+      float[][][] sn = lsf.smooth1(d,t,f);
+      sn = lsf.smooth2(d,t,mul(sn,sn));
+      float[][][] sd = lsf.smooth1(d,t,mul(f,f));
+      sd = lsf.smooth2(d,t,sd);
+      for (int i3=0; i3<n3; ++i3)
+        for (int i2=0; i2<n2; ++i2)
+          for (int i1=0; i1<n1; ++i1)
+            assertEquals(semblance(sn[i3][i2][i1],sd[i3][i2][i1]),
+                         s[i3][i2][i1],1.0e-5f);
+    }
+  }
+
+  // Semblance for one numerator and denominator, clipped to [0,1].
+  private static float semblance(float sn, float sd) {
+    if (sd<=0.0f || sn<0.0f) {
+      return 0.0f;
+    } else if (sd<sn) {
+      return 1.0f;
+    } else {
+      return sn/sd;
+    }
+  }
+}
@@ -54,6 +54,125 @@ public class LocalSmoothingFilterTest {
     }
   }
 
+  @Test
+  public void testMultigrid2() {
+    int n1 = 37;
+    int n2 = 42;
+    float c = 100.0f;
+    float[][] x = sub(randfloat(n1,n2),0.5f);
+    float[][] s = add(0.5f,randfloat(n1,n2));
+    Tensors2 d = new RandomTensors2(n1,n2);
+    float[][] y = zerofloat(n1,n2);
+    float[][] z = zerofloat(n1,n2);
+    LocalSmoothingFilter lsf = new LocalSmoothingFilter(1.0e-6,1000);
+    lsf.apply(d,c,s,x,y);
+    lsf.setPreconditioner(LocalSmoothingFilter.Preconditioner.MULTIGRID);
+    lsf.apply(d,c,s,x,z);
+    assertEquals(0.0f,max(abs(sub(y,z))),0.001f);
+  }
+
+  @Test
+  public void testMultigrid3() {
+    int n1 = 13;
+    int n2 = 14;
+    int n3 = 15;
+    float c = 100.0f;
+    float[][][] x = sub(randfloat(n1,n2,n3),0.5f);
+    float[][][] y = zerofloat(n1,n2,n3);
+    float[][][] z = zerofloat(n1,n2,n3);
+    Tensors3 d = new IdentityTensors3();
+    LocalSmoothingFilter lsf = new LocalSmoothingFilter(1.0e-6,1000);
+    lsf.apply(d,c,x,y);
+    lsf.setPreconditioner(LocalSmoothingFilter.Preconditioner.MULTIGRID);
+    lsf.apply(d,c,x,z);
+    assertEquals(0.0f,max(abs(sub(y,z))),0.001f);
+  }
+
+  @Test
+  public void testReuse3() {
+    float c = 10.0f;
+    LocalSmoothingFilter lsf = new LocalSmoothingFilter(1.0e-6,1000);
+    lsf.setPreconditioner(true);
+    for (int n1=11; n1<=13; n1+=2) {
+      int n2 = n1+1;
+      int n3 = n1+2;
+      float[][][] x = sub(randfloat(n1,n2,n3),0.5f);
+      float[][][] y = zerofloat(n1,n2,n3);
+      float[][][] z = zerofloat(n1,n2,n3);
+      lsf.apply(c,x,y);
+      lsf.apply(c,x,z);
+      assertEquals(0.0f,max(abs(sub(y,z))),0.0f);
+      LocalSmoothingFilter lsn = new LocalSmoothingFilter(1.0e-6,1000);
+      lsn.apply(c,x,z);
+      assertEquals(0.0f,max(abs(sub(y,z))),0.001f);
+    }
+  }
+
+  @Test
+  public void testConcurrent2() {
+    int n1 = 41, n2 = 43, nx = 4;
+    final float c = 10.0f;
+    final LocalSmoothingFilter lsf = new LocalSmoothingFilter(1.0e-6,1000);
+    final float[][][] x = new float[nx][][];
+    final float[][][] y = new float[nx][][];
+    float[][][] z = new float[nx][][];
+    for (int ix=0; ix<nx; ++ix) {
+      x[ix] = sub(randfloat(new Random(ix),n1,n2),0.5f);
+      y[ix] = zerofloat(n1,n2);
+      z[ix] = zerofloat(n1,n2);
+      lsf.apply(c,x[ix],z[ix]);
+    }
+    Thread[] threads = new Thread[nx];
+    for (int ix=0; ix<nx; ++ix) {
+      final int jx = ix;
+      threads[ix] = new Thread(new Runnable() {
+        public void run() {
+          for (int iter=0; iter<10; ++iter)
+            lsf.apply(c,x[jx],y[jx]);
+        }
+      });
+      threads[ix].start();
+    }
+    for (Thread thread:threads) {
+      try {
+        thread.join();
+      } catch (InterruptedException e) {
+        throw new RuntimeException(e);
+      }
+    }
+    for (int ix=0; ix<nx; ++ix)
+      assertEquals(0.0f,max(abs(sub(y[ix],z[ix]))),0.0f);
+  }
+
+  @Test
+  public void testApplyTwo() {
+    LocalDiffusionKernel ldk =
+      new LocalDiffusionKernel(LocalDiffusionKernel.Stencil.D71);
+    LocalSmoothingFilter lsf = new LocalSmoothingFilter(1.0e-6,1000,ldk);
+    float c = 10.0f;
+    int n1 = 31, n2 = 32, n3 = 13;
+    Tensors2 t2 = new RandomTensors2(n1,n2);
+    float[][] xa2 = sub(randfloat(new Random(1),n1,n2),0.5f);
+    float[][] xb2 = mul(xa2,xa2);
+    float[][] ya2 = zerofloat(n1,n2), za2 = zerofloat(n1,n2);
+    float[][] yb2 = zerofloat(n1,n2), zb2 = zerofloat(n1,n2);
+    lsf.apply(t2,c,xa2,ya2);
+    lsf.apply(t2,c,xb2,yb2);
+    lsf.apply(t2,c,xa2,xb2,za2,zb2);
+    assertEquals(0.0f,max(abs(sub(ya2,za2))),1.0e-5f);
+    assertEquals(0.0f,max(abs(sub(yb2,zb2))),1.0e-5f);
+    float[][][] xa3 = sub(randfloat(new Random(3),n1,n2,n3),0.5f);
+    float[][][] xb3 = mul(xa3,xa3);
+    float[][][] ya3 = zerofloat(n1,n2,n3), za3 = zerofloat(n1,n2,n3);
+    float[][][] yb3 = zerofloat(n1,n2,n3), zb3 = zerofloat(n1,n2,n3);
+    Tensors3 t3 = new LocalOrientFilter(2.0).applyForTensors(xa3);
+    lsf.apply(t3,c,xa3,ya3);
+    lsf.apply(t3,c,xb3,yb3);
+    lsf.apply(t3,c,xa3,xb3,za3,zb3);
+    assertEquals(0.0f,max(abs(sub(ya3,za3))),1.0e-5f);
+    assertEquals(0.0f,max(abs(sub(yb3,zb3))),1.0e-5f);
+  }
+
   private static float dot(float[][] x, float[][] y) {
     return sum(mul(x,y));
   }
@@ -16,6 +16,7 @@ package edu.mines.jtk.dsp;
 
 import org.testng.annotations.Test;
 import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
 
 
 import java.util.Random;
@@ -103,6 +104,31 @@ public class RecursiveGaussianFilterTest {
     }
   }
 
+  @Test
+  public void testTiled() {
+    int n1 = 101, n2 = 83, n3 = 45;
+    float[][] x2 = randfloat(n1,n2);
+    float[][][] x3 = randfloat(n1,n2,n3);
+    float[] sigmas = {3.0f,40.0f};
+    for (float sigma:sigmas) {
+      RecursiveGaussianFilter rt = new RecursiveGaussianFilter(sigma);
+      RecursiveGaussianFilter ru = new RecursiveGaussianFilter(sigma);
+      ru.setTiled(false);
+      float[][] yt2 = zerofloat(n1,n2), yu2 = zerofloat(n1,n2);
+      rt.apply01(x2,yt2);
+      ru.apply01(x2,yu2);
+      assertTrue(equal(yt2,yu2));
+      float[][][] yt3 = zerofloat(n1,n2,n3), yu3 = zerofloat(n1,n2,n3);
+      rt.apply011(x3,yt3);
+      ru.apply011(x3,yu3);
+      assertTrue(equal(yt3,yu3));
+      yt3 = copy(x3);
+      rt.applyXX2(yt3,yt3);
+      ru.applyXX2(x3,yu3);
+      assertTrue(equal(yt3,yu3));
+    }
+  }
+
   private static float gaussian(float s, float x) {
     float xx = x*x;
     float ss = s*s;
@@ -68,6 +68,54 @@ public class SincInterpolatorTest {
       assertEquals(yo[ix],yt[ix],0.0);
   }
 
+  @Test
+  public void testInterpolate1() {
+    Random random = new Random();
+    boolean vectorAvailable = SincInterpolator.isVectorAvailable();
+    for (int lmax:_lmaxs) {
+      SincInterpolator si = SincInterpolator.fromFrequencyAndLength(0.3,lmax);
+      si.setExtrapolation(SincInterpolator.Extrapolation.CONSTANT);
+      int nxu = 101;
+      int nxi = 211;
+      int n2 = 7;
+      double dxu = 0.9;
+      double fxu = 1.1;
+      Sampling sxu = new Sampling(nxu,dxu,fxu);
+      Sampling sxi = new Sampling(nxi,0.5,-10.0);
+      float[][] yu = new float[n2][nxu];
+      float[][] xi = new float[n2][nxi];
+      for (int i2=0; i2<n2; ++i2) {
+        for (int ixu=0; ixu<nxu; ++ixu)
+          yu[i2][ixu] = random.nextFloat()-0.5f;
+        for (int ixi=0; ixi<nxi; ++ixi)
+          xi[i2][ixi] = (float)(fxu-10.0+(nxu*dxu+20.0)*random.nextDouble());
+      }
+      float[][] ys = new float[n2][nxi];
+      float[][] yt = new float[n2][nxi];
+      float[][] yx = new float[n2][nxi];
+      float[][] yv = new float[n2][nxi];
+      for (int i2=0; i2<n2; ++i2) {
+        si.interpolate(nxu,dxu,fxu,yu[i2],nxi,xi[0],ys[i2]);
+        si.interpolate(nxu,dxu,fxu,yu[i2],nxi,xi[i2],yt[i2]);
+        si.interpolate(sxu,yu[i2],sxi,yx[i2]);
+      }
+      for (int ivec=0; ivec<2; ++ivec) {
+        boolean vectorized = ivec==1;
+        if (vectorized && !vectorAvailable)
+          break;
+        double tol = vectorized?1.0e-6:0.0;
+        si.interpolate1(nxu,dxu,fxu,yu,nxi,xi[0],yv,vectorized);
+        assertEqual(ys,yv,tol);
+        si.interpolate1(nxu,dxu,fxu,yu,nxi,xi,yv,vectorized);
+        assertEqual(yt,yv,tol);
+        si.interpolate1(sxu,yu,sxi,yv,vectorized);
+        assertEqual(yx,yv,tol);
+      }
+      si.interpolate1(sxu,yu,sxi,yv);
+      assertEqual(yx,yv,vectorAvailable?1.0e-6:0.0);
+    }
+  }
+
   @Test
   public void testComplex() {
     SincInterpolator si = new SincInterpolator();
@@ -278,4 +326,12 @@ public class SincInterpolatorTest {
   private static void trace(String s) {
     //System.out.println(s);
   }
+
+  private static void assertEqual(float[][] ye, float[][] ya, double tol) {
+    int n2 = ye.length;
+    int n1 = ye[0].length;
+    for (int i2=0; i2<n2; ++i2)
+      for (int i1=0; i1<n1; ++i1)
+        assertEquals(ye[i2][i1],ya[i2][i1],tol);
+  }
 }
@@ -0,0 +1,104 @@
+/****************************************************************************
+Copyright 2026, Colorado School of Mines and others.
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+****************************************************************************/
+package edu.mines.jtk.interp;
+
+import java.util.Random;
+
+import org.testng.annotations.Test;
+import static org.testng.Assert.assertEquals;
+
+import edu.mines.jtk.dsp.Sampling;
+
+/**
+ * Tests {@link edu.mines.jtk.interp.RadialInterpolator2}.
+ * @author agent
+ * @version 2026.10.18
+ */
+public class RadialInterpolator2Test {
+
+  @Test
+  public void testSamples() {
+    float[][] fx = makeSamples(100);
+    RadialInterpolator2 ri = new RadialInterpolator2(
+      new RadialInterpolator2.Biharmonic(),fx[0],fx[1],fx[2]);
+    for (int i=0; i<100; ++i)
+      assertEquals(ri.interpolate(fx[1][i],fx[2][i]),fx[0][i],0.0001f);
+  }
+
+  @Test
+  public void testIterativeBiharmonic() {
+    testIterative(new RadialInterpolator2.Biharmonic(),false);
+  }
+
+  @Test
+  public void testIterativeWesselBercovici() {
+    testIterative(new RadialInterpolator2.WesselBercovici(0.5,0.02),false);
+  }
+
+  @Test
+  public void testIterativeMetricTensor() {
+    testIterative(new RadialInterpolator2.Biharmonic(),true);
+  }
+
+  @Test
+  public void testIterativeLarge() {
+    int n = 5000;
+    float[][] fx = makeSamples(n);
+    RadialInterpolator2 ri = new RadialInterpolator2(
+      new RadialInterpolator2.Biharmonic(),fx[0],fx[1],fx[2]);
+    ri.setIterations(0.000001,1000);
+    for (int i=0; i<n; i+=7)
+      assertEquals(ri.interpolate(fx[1][i],fx[2][i]),fx[0][i],0.001f);
+    ri.setMaxLocalStorage(1); // smallest groups, as for millions of samples
+    for (int i=0; i<n; i+=7)
+      assertEquals(ri.interpolate(fx[1][i],fx[2][i]),fx[0][i],0.001f);
+  }
+
+  ///////////////////////////////////////////////////////////////////////////
+  // private
+
+  private static float[][] makeSamples(int n) {
+    Random r = new Random(314159);
+    float[] f = new float[n];
+    float[] x1 = new float[n];
+    float[] x2 = new float[n];
+    for (int i=0; i<n; ++i) {
+      x1[i] = r.nextFloat();
+      x2[i] = r.nextFloat();
+      f[i] = (float)(Math.sin(4.0*x1[i])*Math.cos(3.0*x2[i]));
+    }
+    return new float[][]{f,x1,x2};
+  }
+
+  private static void testIterative(
+    RadialInterpolator2.Basis basis, boolean metric) 
+  {
+    int n = 800;
+    float[][] fx = makeSamples(n);
+    RadialInterpolator2 ri = new RadialInterpolator2(basis,fx[0],fx[1],fx[2]);
+    if (metric)
+      ri.setMetricTensor(2.0,0.5,1.0);
+    Sampling s = new Sampling(21,0.05,0.0);
+    float[][] fd = ri.interpolate(s,s);
+    ri.setMaxDirect(100);
+    ri.setIterations(0.000001,1000);
+    float[][] fi = ri.interpolate(s,s);
+    for (int i=0; i<n; ++i)
+      assertEquals(ri.interpolate(fx[1][i],fx[2][i]),fx[0][i],0.001f);
+    for (int i2=0; i2<21; ++i2)
+      for (int i1=0; i1<21; ++i1)
+        assertEquals(fi[i2][i1],fd[i2][i1],0.001f);
+  }
+}
@@ -124,6 +124,58 @@ public class SibsonInterpolator2Test {
     }
   }
 
+  @Test
+  public void testGrid() {
+    testGrid(HL);
+    testGrid(BS);
+    testGrid(WS);
+  }
+  private void testGrid(SibsonInterpolator2.Method m) {
+    TestFunction tf = TestFunction.makeSine();
+    float[][] fx = tf.sampleScattered2(NS,XMIN,XMAX,XMIN,XMAX);
+    float[] f = fx[0], x1 = fx[1], x2 = fx[2];
+    SibsonInterpolator2 si = new SibsonInterpolator2(m,f,x1,x2);
+    Sampling s1 = new Sampling(71,0.02,-0.2);
+    Sampling s2 = new Sampling(53,0.02,-0.02);
+    si.setNullValue(999.0f);
+    assertGrid(si,s1,s2);
+    si.setBounds(s1,s2);
+    si.setGradientPower(1.0);
+    assertGrid(si,s1,s2);
+  }
+  @Test
+  public void testSetBoundsTwice() {
+    TestFunction tf = TestFunction.makeSine();
+    float[][] fx = tf.sampleScattered2(NS,XMIN,XMAX,XMIN,XMAX);
+    float[] f = fx[0], x1 = fx[1], x2 = fx[2];
+    Sampling s1 = new Sampling(31,0.1,-1.0);
+    Sampling s2 = new Sampling(21,0.1,-0.5);
+    SibsonInterpolator2 si = new SibsonInterpolator2(f,x1,x2);
+    si.setBounds(XMIN-0.1f,XMAX+0.1f,XMIN-0.1f,XMAX+0.1f);
+    si.setBounds(s1,s2);
+    SibsonInterpolator2 sj = new SibsonInterpolator2(f,x1,x2);
+    sj.setBounds(s1,s2);
+    float[][] gi = si.interpolate(s1,s2);
+    float[][] gj = sj.interpolate(s1,s2);
+    for (int i2=0; i2<s2.getCount(); ++i2)
+      for (int i1=0; i1<s1.getCount(); ++i1)
+        assertEquals(gj[i2][i1],gi[i2][i1],TOLERANCE);
+  }
+  private void assertGrid(
+    SibsonInterpolator2 si, Sampling s1, Sampling s2) 
+  {
+    int n1 = s1.getCount();
+    int n2 = s2.getCount();
+    float[][] g = si.interpolate(s1,s2);
+    for (int i2=0; i2<n2; ++i2) {
+      float x2i = (float)s2.getValue(i2);
+      for (int i1=0; i1<n1; ++i1) {
+        float x1i = (float)s1.getValue(i1);
+        assertEquals(si.interpolate(x1i,x2i),g[i2][i1],TOLERANCE);
+      }
+    }
+  }
+
   private static final double TOLERANCE = 1.0e-5;
   private void assertValue(
     SibsonInterpolator2 si, float x1, float x2, float f) 
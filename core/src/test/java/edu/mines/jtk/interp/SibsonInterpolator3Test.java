@@ -113,6 +113,67 @@ public class SibsonInterpolator3Test {
     }
   }
 
+  @Test
+  public void testGrid() {
+    testGrid(HL);
+    testGrid(WS);
+  }
+  private void testGrid(SibsonInterpolator3.Method m) {
+    TestFunction tf = TestFunction.makeSine();
+    float[][] fx = tf.sampleScattered3(NS,XMIN,XMAX,XMIN,XMAX,XMIN,XMAX);
+    float[] f = fx[0], x1 = fx[1], x2 = fx[2], x3 = fx[3];
+    SibsonInterpolator3 si = new SibsonInterpolator3(m,f,x1,x2,x3);
+    Sampling s1 = new Sampling(21,0.05,0.0);
+    Sampling s2 = new Sampling(19,0.05,0.05);
+    Sampling s3 = new Sampling(17,0.05,0.1);
+    si.setNullValue(999.0f);
+    assertGrid(si,s1,s2,s3);
+    si.setBounds(s1,s2,s3);
+    si.setGradientPower(1.0);
+    assertGrid(si,s1,s2,s3);
+  }
+  @Test
+  public void testSetBoundsTwice() {
+    TestFunction tf = TestFunction.makeSine();
+    float[][] fx = tf.sampleScattered3(NS,XMIN,XMAX,XMIN,XMAX,XMIN,XMAX);
+    float[] f = fx[0], x1 = fx[1], x2 = fx[2], x3 = fx[3];
+    Sampling s1 = new Sampling(13,0.1,-0.1);
+    Sampling s2 = new Sampling(11,0.1,-0.05);
+    Sampling s3 = new Sampling( 9,0.1, 0.1);
+    SibsonInterpolator3 si = new SibsonInterpolator3(f,x1,x2,x3);
+    si.setBounds(XMIN-0.1f,XMAX+0.1f,
+                 XMIN-0.1f,XMAX+0.1f,
+                 XMIN-0.1f,XMAX+0.1f);
+    si.setBounds(s1,s2,s3);
+    SibsonInterpolator3 sj = new SibsonInterpolator3(f,x1,x2,x3);
+    sj.setBounds(s1,s2,s3);
+    float[][][] gi = si.interpolate(s1,s2,s3);
+    float[][][] gj = sj.interpolate(s1,s2,s3);
+    for (int i3=0; i3<s3.getCount(); ++i3)
+      for (int i2=0; i2<s2.getCount(); ++i2)
+        for (int i1=0; i1<s1.getCount(); ++i1)
+          assertEquals(gj[i3][i2][i1],gi[i3][i2][i1],TOLERANCE);
+  }
+  private void assertGrid(
+    SibsonInterpolator3 si, Sampling s1, Sampling s2, Sampling s3) 
+  {
+    int n1 = s1.getCount();
+    int n2 = s2.getCount();
+    int n3 = s3.getCount();
+    float[][][] g = si.interpolate(s1,s2,s3);
+    for (int i3=0; i3<n3; ++i3) {
+      float x3i = (float)s3.getValue(i3);
+      for (int i2=0; i2<n2; ++i2) {
+        float x2i = (float)s2.getValue(i2);
+        for (int i1=0; i1<n1; ++i1) {
+          float x1i = (float)s1.getValue(i1);
+          float fi = si.interpolate(x1i,x2i,x3i);
+          assertEquals(fi,g[i3][i2][i1],TOLERANCE);
+        }
+      }
+    }
+  }
+
   public static void benchMethods() {
     TestFunction tf = TestFunction.makeSine();
     //TestFunction tf = TestFunction.makeLinear();
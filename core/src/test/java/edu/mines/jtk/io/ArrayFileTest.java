@@ -14,12 +14,15 @@ limitations under the License.
 ****************************************************************************/
 package edu.mines.jtk.io;
 
-import java.io.File;
-import java.io.IOException;
+import java.io.*;
+import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
 
 import org.testng.annotations.Test;
 import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
 
 import static edu.mines.jtk.util.ArrayMath.*;
 
@@ -40,10 +43,97 @@ public class ArrayFileTest {
     test(ByteOrder.LITTLE_ENDIAN);
   }
 
+  @Test
+  public void testBulk() throws IOException {
+    testBulk(ByteOrder.BIG_ENDIAN,4096,false);
+    testBulk(ByteOrder.LITTLE_ENDIAN,4096,true);
+    testBulk(ByteOrder.BIG_ENDIAN,1000,true);
+    testBulk(ByteOrder.LITTLE_ENDIAN,1<<16,false);
+  }
+
+  @Test
+  public void testPartialTransfers() throws IOException {
+    int n = 1001;
+    short[] s = new short[n];
+    int[] i = new int[n];
+    long[] l = new long[n];
+    double[] d = new double[n];
+    float[] f = randfloat(n);
+    for (int j=0; j<n; ++j) {
+      s[j] = (short)(j-500);
+      i[j] = 1000003*j;
+      l[j] = 1000000000003L*j;
+      d[j] = 0.1*j;
+    }
+    ByteArrayOutputStream bos = new ByteArrayOutputStream();
+    ArrayOutputAdapter aoa = new ArrayOutputAdapter(
+      new SlowChannel(bos),new DataOutputStream(bos),
+      ByteOrder.LITTLE_ENDIAN,64);
+    aoa.writeShorts(s);
+    aoa.writeInts(i);
+    aoa.writeLongs(l);
+    aoa.writeDoubles(d);
+    aoa.writeFloats(f);
+    ByteArrayInputStream bis = new ByteArrayInputStream(bos.toByteArray());
+    ArrayInputAdapter aia = new ArrayInputAdapter(
+      new SlowChannel(bis),new DataInputStream(bis),
+      ByteOrder.LITTLE_ENDIAN,64);
+    short[] sr = new short[n];
+    int[] ir = new int[n];
+    long[] lr = new long[n];
+    double[] dr = new double[n];
+    float[] fr = new float[n];
+    aia.readShorts(sr);
+    aia.readInts(ir);
+    aia.readLongs(lr);
+    aia.readDoubles(dr);
+    aia.readFloats(fr);
+    for (int j=0; j<n; ++j) {
+      assertEquals(s[j],sr[j]);
+      assertEquals(i[j],ir[j]);
+      assertEquals(l[j],lr[j]);
+      assertEquals(d[j],dr[j]);
+    }
+    assertTrue(equal(f,fr));
+  }
 
   ///////////////////////////////////////////////////////////////////////////
   // private
 
+  // A channel that transfers no more than three bytes per read or write.
+  private static class SlowChannel 
+    implements ReadableByteChannel, WritableByteChannel 
+  {
+    SlowChannel(InputStream is) {
+      _is = is;
+    }
+    SlowChannel(OutputStream os) {
+      _os = os;
+    }
+    public int read(ByteBuffer bb) throws IOException {
+      int n = Math.min(3,bb.remaining());
+      byte[] b = new byte[n];
+      n = _is.read(b);
+      if (n>0)
+        bb.put(b,0,n);
+      return n;
+    }
+    public int write(ByteBuffer bb) throws IOException {
+      int n = Math.min(3,bb.remaining());
+      byte[] b = new byte[n];
+      bb.get(b);
+      _os.write(b);
+      return n;
+    }
+    public boolean isOpen() {
+      return true;
+    }
+    public void close() {
+    }
+    private InputStream _is;
+    private OutputStream _os;
+  }
+
   private static void test(ByteOrder order) throws IOException {
     int n = 10000;
     File file = null;
@@ -61,6 +151,39 @@ public class ArrayFileTest {
     }
   }
 
+  private static void testBulk(ByteOrder order, int size, boolean prefetch)
+    throws IOException 
+  {
+    int n1 = 101, n2 = 102, n3 = 13;
+    File file = null;
+    ArrayFile af = null;
+    try {
+      file = File.createTempFile("junk","dat");
+      af = new ArrayFile(file,"rw",order,order,size);
+      af.setPrefetch(prefetch);
+      float[][][] a = randfloat(n1,n2,n3);
+      float[][][] b = zerofloat(n1,n2,n3);
+      af.writeInt(n1);
+      af.writeFloats(a);
+      af.writeInt(n2);
+      af.writeFloats(a[1]);
+      af.writeInt(n3);
+      af.seek(0);
+      assertEquals(n1,af.readInt());
+      af.readFloats(b);
+      assertEquals(n2,af.readInt());
+      assertTrue(equal(a,b));
+      af.readFloats(b[0]);
+      assertEquals(n3,af.readInt());
+      assertTrue(equal(a[1],b[0]));
+    } finally {
+      if (af!=null)
+        af.close();
+      if (file!=null)
+        file.delete();
+    }
+  }
+
   private static void testFloat(ArrayFile af, int n) 
     throws IOException 
   {
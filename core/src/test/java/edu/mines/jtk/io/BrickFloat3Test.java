@@ -0,0 +1,145 @@
+/****************************************************************************
+Copyright 2026, Colorado School of Mines and others.
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+****************************************************************************/
+package edu.mines.jtk.io;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.testng.annotations.Test;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+import static edu.mines.jtk.util.ArrayMath.*;
+
+/**
+ * Tests {@link edu.mines.jtk.io.BrickFloat3}.
+ * @author agent
+ * @version 2026.10.18
+ */
+public class BrickFloat3Test {
+
+  @Test
+  public void testNone() throws IOException {
+    test(BrickFloat3.Compression.NONE,0.0f);
+  }
+
+  @Test
+  public void testLossless() throws IOException {
+    test(BrickFloat3.Compression.LOSSLESS,0.0f);
+  }
+
+  @Test
+  public void testLossy() throws IOException {
+    test(BrickFloat3.Compression.LOSSY,0.001f);
+  }
+
+  @Test
+  public void testBricksRead() throws IOException {
+    int n1 = 40, n2 = 30, n3 = 20, nb = 10;
+    File file = null;
+    try {
+      file = File.createTempFile("junk","dat");
+      BrickFloat3Writer bw = new BrickFloat3Writer(
+        file,n1,n2,n3,nb,BrickFloat3.Compression.LOSSLESS,0.0f);
+      bw.write(randfloat(n1,n2,n3));
+      bw.close();
+      BrickFloat3 bf3 = new BrickFloat3(file);
+      float[][] s = new float[n3][n2];
+      bf3.get23(n2,n3,n1/2,0,0,s);
+      assertEquals(bf3.getBricksRead(),(n2/nb)*(n3/nb));
+      bf3.get23(n2,n3,n1/2+1,0,0,s);
+      assertEquals(bf3.getBricksRead(),(n2/nb)*(n3/nb));
+      bf3.close();
+    } finally {
+      if (file!=null)
+        file.delete();
+    }
+  }
+
+  ///////////////////////////////////////////////////////////////////////////
+  // private
+
+  private static void test(BrickFloat3.Compression compression, float error)
+    throws IOException
+  {
+    int n1 = 37, n2 = 29, n3 = 23, nb = 8;
+    float[][][] a = smooth(randfloat(n1,n2,n3));
+    File file = null;
+    try {
+      file = File.createTempFile("junk","dat");
+      BrickFloat3Writer bw = new BrickFloat3Writer(
+        file,n1,n2,n3,nb,compression,error);
+      for (int i3=0; i3<n3; ++i3)
+        bw.writeSlice(a[i3]);
+      bw.close();
+      BrickFloat3 bf3 = new BrickFloat3(file,3);
+      assertEquals(bf3.getN1(),n1);
+      assertEquals(bf3.getN2(),n2);
+      assertEquals(bf3.getN3(),n3);
+      assertEquals(bf3.getCompression(),compression);
+      float tiny = error+Math.ulp(1.0f);
+      float[][][] b = zerofloat(n1,n2,n3);
+      bf3.get123(n1,n2,n3,0,0,0,b);
+      assertEqual(a,b,tiny);
+      zero(b);
+      for (int i3=0; i3<n3; ++i3)
+        bf3.get12(n1,n2,0,0,i3,b[i3]);
+      assertEqual(a,b,tiny);
+      float[][] c = zerofloat(n2-3,n3-5);
+      bf3.get23(n2-3,n3-5,n1-1,2,3,c);
+      for (int i3=0; i3<n3-5; ++i3)
+        for (int i2=0; i2<n2-3; ++i2)
+          assertEquals(c[i3][i2],a[i3+3][i2+2][n1-1],tiny);
+      float[][] d = zerofloat(n1-7,n3);
+      bf3.get13(n1-7,n3,5,n2/2,0,d);
+      for (int i3=0; i3<n3; ++i3)
+        for (int i1=0; i1<n1-7; ++i1)
+          assertEquals(d[i3][i1],a[i3][n2/2][i1+5],tiny);
+      float[] e = zerofloat(9*10*11);
+      bf3.get123(9,10,11,6,7,8,e);
+      for (int i3=0,i=0; i3<11; ++i3)
+        for (int i2=0; i2<10; ++i2)
+          for (int i1=0; i1<9; ++i1,++i)
+            assertEquals(e[i],a[i3+8][i2+7][i1+6],tiny);
+      bf3.close();
+    } finally {
+      if (file!=null)
+        file.delete();
+    }
+  }
+
+  private static float[][][] smooth(float[][][] x) {
+    int n1 = x[0][0].length;
+    int n2 = x[0].length;
+    int n3 = x.length;
+    for (int i3=0; i3<n3; ++i3)
+      for (int i2=0; i2<n2; ++i2)
+        for (int i1=1; i1<n1; ++i1)
+          x[i3][i2][i1] = 0.9f*x[i3][i2][i1-1]+0.1f*x[i3][i2][i1];
+    return x;
+  }
+
+  private static void assertEqual(float[][][] a, float[][][] b, float tiny) {
+    int n1 = a[0][0].length;
+    int n2 = a[0].length;
+    int n3 = a.length;
+    for (int i3=0; i3<n3; ++i3)
+      for (int i2=0; i2<n2; ++i2)
+        for (int i1=0; i1<n1; ++i1)
+          assertEquals(b[i3][i2][i1],a[i3][i2][i1],tiny);
+    if (tiny==Math.ulp(1.0f))
+      assertTrue(equal(a,b));
+  }
+}
@@ -0,0 +1,122 @@
+/****************************************************************************
+Copyright 2026, Colorado School of Mines and others.
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+****************************************************************************/
+package edu.mines.jtk.io;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteOrder;
+
+import org.testng.annotations.Test;
+import static org.testng.Assert.assertEquals;
+
+import static edu.mines.jtk.util.ArrayMath.*;
+
+/**
+ * Tests {@link edu.mines.jtk.io.MappedFloat3}.
+ * @author agent
+ * @version 2026.10.18
+ */
+public class MappedFloat3Test {
+
+  @Test
+  public void testBigEndian() throws IOException {
+    test(ByteOrder.BIG_ENDIAN);
+  }
+
+  @Test
+  public void testLittleEndian() throws IOException {
+    test(ByteOrder.LITTLE_ENDIAN);
+  }
+
+  ///////////////////////////////////////////////////////////////////////////
+  // private
+
+  private static void test(ByteOrder order) throws IOException {
+    int n1 = 11, n2 = 12, n3 = 13;
+    int nw = 101; // small windows, so that slices span many windows
+    float[][][] a = randfloat(n1,n2,n3);
+    File file = null;
+    try {
+      file = File.createTempFile("junk","dat");
+      ArrayFile af = new ArrayFile(file,"rw",order,order);
+      af.writeInt(n1);
+      af.writeFloats(a);
+      af.close();
+      MappedFloat3 mf3 = new MappedFloat3(file,"rw",order,4,n1,n2,n3,nw);
+      testGet(mf3,a);
+      float[][][] b = randfloat(n1,n2,n3);
+      testSet(mf3,b);
+      mf3.close();
+      af = new ArrayFile(file,"r",order,order);
+      assertEquals(n1,af.readInt());
+      float[][][] c = zerofloat(n1,n2,n3);
+      af.readFloats(c);
+      af.close();
+      assertEqual(b,c);
+    } finally {
+      if (file!=null)
+        file.delete();
+    }
+  }
+
+  private static void testGet(MappedFloat3 f3, float[][][] a) {
+    int n1 = f3.getN1();
+    int n2 = f3.getN2();
+    int n3 = f3.getN3();
+    float[][][] b = zerofloat(n1,n2,n3);
+    f3.get123(n1,n2,n3,0,0,0,b);
+    assertEqual(a,b);
+    float[] c = zerofloat(n1*n2*n3);
+    f3.get123(n1,n2,n3,0,0,0,c);
+    assertEqual(a,reshape(n1,n2,n3,c));
+    float[][] d = zerofloat(n1-2,n3-3);
+    f3.get13(n1-2,n3-3,1,5,2,d);
+    for (int i3=0; i3<n3-3; ++i3)
+      for (int i1=0; i1<n1-2; ++i1)
+        assertEquals(a[i3+2][5][i1+1],d[i3][i1]);
+    float[][] e = zerofloat(n2-1,n3-2);
+    f3.get23(n2-1,n3-2,4,1,1,e);
+    for (int i3=0; i3<n3-2; ++i3)
+      for (int i2=0; i2<n2-1; ++i2)
+        assertEquals(a[i3+1][i2+1][4],e[i3][i2]);
+    float[] f = zerofloat(n3);
+    f3.get3(n3,7,3,0,f);
+    for (int i3=0; i3<n3; ++i3)
+      assertEquals(a[i3][3][7],f[i3]);
+  }
+
+  private static void testSet(MappedFloat3 f3, float[][][] a) {
+    int n1 = f3.getN1();
+    int n2 = f3.getN2();
+    int n3 = f3.getN3();
+    for (int i3=0; i3<n3; ++i3)
+      f3.set12(n1,n2,0,0,i3,a[i3]);
+    float[][][] b = zerofloat(n1,n2,n3);
+    for (int i3=0; i3<n3; ++i3)
+      for (int i2=0; i2<n2; ++i2)
+        f3.get1(n1,0,i2,i3,b[i3][i2]);
+    assertEqual(a,b);
+  }
+
+  private static void assertEqual(float[][][] a, float[][][] b) {
+    int n1 = a[0][0].length;
+    int n2 = a[0].length;
+    int n3 = a.length;
+    for (int i3=0; i3<n3; ++i3)
+      for (int i2=0; i2<n2; ++i2)
+        for (int i1=0; i1<n1; ++i1)
+          assertEquals(a[i3][i2][i1],b[i3][i2][i1]);
+  }
+}
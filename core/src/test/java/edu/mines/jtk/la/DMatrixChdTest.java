@@ -0,0 +1,88 @@
+/****************************************************************************
+Copyright 2026, Colorado School of Mines and others.
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+****************************************************************************/
+package edu.mines.jtk.la;
+
+import org.testng.annotations.Test;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+import static edu.mines.jtk.la.DMatrixTest.assertEqualFuzzy;
+
+/**
+ * Tests {@link edu.mines.jtk.la.DMatrixChd}.
+ * @author agent
+ * @version 2026.10.18
+ */
+public class DMatrixChdTest {
+
+  @Test
+  public void testSimple() {
+    DMatrix a = new DMatrix(new double[][]{
+      {1.0,  1.0},
+      {1.0,  4.0},
+    });
+    test(a);
+    DMatrixChd chd = new DMatrixChd(a);
+    assertEquals(chd.det(),3.0,1.0e-12);
+  }
+
+  @Test
+  public void testNotPositiveDefinite() {
+    DMatrix a = new DMatrix(new double[][]{
+      {0.0, 1.0, 1.0},
+      {0.0, 2.0, 3.0},
+      {0.0, 3.0, 6.0},
+    });
+    DMatrixChd chd = new DMatrixChd(a);
+    assertFalse(chd.isPositiveDefinite());
+    assertEquals(chd.det(),0.0);
+  }
+
+  @Test
+  public void testRandom() {
+    test(randomPositiveDefinite(10));
+    test(randomPositiveDefinite(201));
+  }
+
+  ///////////////////////////////////////////////////////////////////////////
+  // private
+
+  private static DMatrix randomPositiveDefinite(int n) {
+    DMatrix a = DMatrix.random(n,n);
+    a.plusEquals(a.transpose());
+    DMatrix d = DMatrix.identity(n,n);
+    d.timesEquals(n*a.norm1());
+    a.plusEquals(d);
+    return a;
+  }
+
+  private void test(DMatrix a) {
+    int m = a.getM();
+
+    DMatrixChd chd = new DMatrixChd(a);
+    assertTrue(chd.isPositiveDefinite());
+    DMatrix l = chd.getL();
+    DMatrix lt = l.transpose();
+    DMatrix llt = l.times(lt);
+    assertEqualFuzzy(a,llt);
+
+    int nrhs = 10;
+    DMatrix b = DMatrix.random(m,nrhs);
+    DMatrix x = chd.solve(b);
+    DMatrix ax = a.times(x);
+    assertEqualFuzzy(ax,b);
+  }
+}
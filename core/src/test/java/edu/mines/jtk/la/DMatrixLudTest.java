@@ -57,6 +57,12 @@ public class DMatrixLudTest {
     test(DMatrix.random(101,100));
   }
 
+  @Test
+  public void testBlocked() {
+    test(DMatrix.random(300,300));
+    test(DMatrix.random(301,200));
+  }
+
   private void test(DMatrix a) {
     int m = a.getM();
     int n = a.getN();
@@ -55,6 +55,17 @@ public class DMatrixQrdTest {
     test(DMatrix.random(101,100));
   }
 
+  @Test
+  public void testBlocked() {
+    test(DMatrix.random(300,300));
+    test(DMatrix.random(301,200));
+    DMatrix a = DMatrix.random(200,100);
+    for (int i=0; i<200; ++i)
+      a.set(i,50,0.0);
+    assertFalse(new DMatrixQrd(a).isFullRank());
+    test(a);
+  }
+
   private void test(DMatrix a) {
     int m = a.getM();
     int n = a.getN();
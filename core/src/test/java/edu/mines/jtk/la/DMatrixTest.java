@@ -148,6 +148,21 @@ public class DMatrixTest {
     assertTrue(trace==t.trace());
   }
 
+  @Test
+  public void testTimes() {
+    int[][] mnks = {
+      {3,4,5},{1,300,7},{30,20,40},{67,130,259},{130,67,9},{65,66,600}};
+    for (int[] mnk:mnks) {
+      int m = mnk[0], n = mnk[1], k = mnk[2];
+      DMatrix a = DMatrix.random(m,k);
+      DMatrix b = DMatrix.random(k,n);
+      DMatrix c = multiply(a,b);
+      assertEqualFuzzy(c,a.times(b));
+      assertEqualFuzzy(c,a.timesTranspose(b.transpose()));
+      assertEqualFuzzy(c,a.transpose().transposeTimes(b));
+    }
+  }
+
 
   ///////////////////////////////////////////////////////////////////////////
   // package
@@ -172,4 +187,23 @@ public class DMatrixTest {
       }
     }
   }
+
+  ///////////////////////////////////////////////////////////////////////////
+  // private
+
+  private static DMatrix multiply(DMatrix a, DMatrix b) {
+    int m = a.getM();
+    int n = b.getN();
+    int k = a.getN();
+    DMatrix c = new DMatrix(m,n);
+    for (int i=0; i<m; ++i) {
+      for (int j=0; j<n; ++j) {
+        double s = 0.0;
+        for (int p=0; p<k; ++p)
+          s += a.get(i,p)*b.get(p,j);
+        c.set(i,j,s);
+      }
+    }
+    return c;
+  }
 }
@@ -0,0 +1,223 @@
+/****************************************************************************
+Copyright 2026, Colorado School of Mines and others.
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+****************************************************************************/
+package edu.mines.jtk.mesh;
+
+import java.io.*;
+import java.util.Random;
+
+import edu.mines.jtk.io.ArrayInputStream;
+import edu.mines.jtk.io.ArrayOutputStream;
+
+import org.testng.annotations.Test;
+import static org.testng.Assert.assertEquals;
+import static org.testng.AssertJUnit.assertTrue;
+
+/**
+ * Tests {@link edu.mines.jtk.mesh.CompactTetMesh}.
+ * @author agent
+ * @version 2026.10.18
+ */
+public class CompactTetMeshTest {
+
+  @Test
+  public void testCopy() {
+    TetMesh mesh = makeMesh(1000);
+    CompactTetMesh cmesh = new CompactTetMesh(mesh);
+    assertEquals(mesh.countNodes(),cmesh.countNodes());
+    assertEquals(mesh.countTets(),cmesh.countTets());
+    TetMesh.Node[] nodes = nodes(mesh);
+    for (int inode=0; inode<nodes.length; ++inode) {
+      assertEquals(inode,nodes[inode].index); // index fields restored
+      assertEquals(inode,cmesh.getNodeIndex(inode));
+      assertEquals(nodes[inode].x(),cmesh.getNodeX(inode));
+      assertEquals(nodes[inode].y(),cmesh.getNodeY(inode));
+      assertEquals(nodes[inode].z(),cmesh.getNodeZ(inode));
+    }
+    for (int itet=0; itet<cmesh.countTets(); ++itet) {
+      TetMesh.Tet tet = tet(mesh,nodes,cmesh,itet);
+      assertTrue(tet!=null);
+      for (int k=0; k<4; ++k) {
+        int jtet = cmesh.getTetNabor(itet,k);
+        TetMesh.Node node = nodes[cmesh.getTetNode(itet,k)];
+        TetMesh.Tet nabor = tet.tetNabor(node);
+        if (jtet<0) {
+          assertTrue(nabor==null);
+        } else {
+          assertTrue(nabor==tet(mesh,nodes,cmesh,jtet));
+        }
+      }
+    }
+    TetMesh tmesh = cmesh.toTetMesh();
+    tmesh.validate();
+    assertEquals(mesh.countNodes(),tmesh.countNodes());
+    assertEquals(mesh.countTets(),tmesh.countTets());
+  }
+
+  @Test
+  public void testLocate() {
+    TetMesh mesh = makeMesh(1000);
+    CompactTetMesh cmesh = new CompactTetMesh(mesh);
+    CompactTetMesh.Reader reader = new CompactTetMesh.Reader(cmesh);
+    TetMesh.Node[] nodes = nodes(mesh);
+    Random random = new Random(3);
+    for (int ipoint=0; ipoint<1000; ++ipoint) {
+      float x = -0.1f+1.2f*random.nextFloat();
+      float y = -0.1f+1.2f*random.nextFloat();
+      float z = -0.1f+1.2f*random.nextFloat();
+      TetMesh.PointLocation pl = mesh.locatePoint(x,y,z);
+      int itet = reader.locatePoint(x,y,z);
+      assertEquals(pl.isInside(),itet>=0);
+      if (itet>=0)
+        assertTrue(pl.tet()==tet(mesh,nodes,cmesh,itet));
+    }
+  }
+
+  @Test
+  public void testNaturalNabors() {
+    CompactTetMesh cmesh = new CompactTetMesh(makeMesh(1000));
+    CompactTetMesh.Reader reader = new CompactTetMesh.Reader(cmesh);
+    Random random = new Random(4);
+    for (int ipoint=0; ipoint<100; ++ipoint) {
+      float x = 0.3f+0.4f*random.nextFloat();
+      float y = 0.3f+0.4f*random.nextFloat();
+      float z = 0.3f+0.4f*random.nextFloat();
+
+      // Compare natural-neighbor tets with those found by brute force.
+      int nnode = reader.computeSibsonVolumes(x,y,z);
+      int ntet = reader.countNaborTets();
+      int[] tets = reader.getNaborTets();
+      java.util.Set<Integer> set = new java.util.HashSet<Integer>();
+      for (int itet=0; itet<ntet; ++itet)
+        set.add(tets[itet]);
+      for (int itet=0; itet<cmesh.countTets(); ++itet)
+        assertEquals(inSphere(cmesh,itet,x,y,z),set.contains(itet));
+
+      // Sibson coordinates have linear precision.
+      int[] nodes = reader.getNaborNodes();
+      double[] volumes = reader.getNaborVolumes();
+      double vsum = 0.0, xsum = 0.0, ysum = 0.0, zsum = 0.0;
+      for (int inode=0; inode<nnode; ++inode) {
+        double v = volumes[inode];
+        int jnode = nodes[inode];
+        vsum += v;
+        xsum += v*cmesh.getNodeX(jnode);
+        ysum += v*cmesh.getNodeY(jnode);
+        zsum += v*cmesh.getNodeZ(jnode);
+      }
+      assertTrue(vsum>0.0);
+      assertEquals(x,xsum/vsum,1.0e-4);
+      assertEquals(y,ysum/vsum,1.0e-4);
+      assertEquals(z,zsum/vsum,1.0e-4);
+    }
+  }
+
+  @Test
+  public void testIO() throws IOException, ClassNotFoundException {
+    CompactTetMesh cmesh = new CompactTetMesh(makeMesh(500));
+
+    ByteArrayOutputStream baos = new ByteArrayOutputStream();
+    ArrayOutputStream aos = new ArrayOutputStream(baos);
+    cmesh.write(aos);
+    aos.close();
+    ByteArrayInputStream bais = new ByteArrayInputStream(baos.toByteArray());
+    ArrayInputStream ais = new ArrayInputStream(bais);
+    assertSame(cmesh,CompactTetMesh.read(ais));
+    ais.close();
+
+    baos = new ByteArrayOutputStream();
+    ObjectOutputStream oos = new ObjectOutputStream(baos);
+    oos.writeObject(cmesh);
+    oos.close();
+    bais = new ByteArrayInputStream(baos.toByteArray());
+    ObjectInputStream ois = new ObjectInputStream(bais);
+    assertSame(cmesh,(CompactTetMesh)ois.readObject());
+    ois.close();
+  }
+
+  ///////////////////////////////////////////////////////////////////////////
+  // private
+
+  private static TetMesh makeMesh(int nnode) {
+    Random random = new Random(nnode);
+    TetMesh mesh = new TetMesh();
+    for (int inode=0; inode<nnode; ++inode) {
+      float x = random.nextFloat();
+      float y = random.nextFloat();
+      float z = random.nextFloat();
+      TetMesh.Node node = new TetMesh.Node(x,y,z);
+      mesh.addNode(node);
+    }
+    TetMesh.NodeIterator ni = mesh.getNodes();
+    for (int inode=0; ni.hasNext(); ++inode)
+      ni.next().index = inode;
+    return mesh;
+  }
+
+  private static TetMesh.Node[] nodes(TetMesh mesh) {
+    TetMesh.Node[] nodes = new TetMesh.Node[mesh.countNodes()];
+    TetMesh.NodeIterator ni = mesh.getNodes();
+    for (int inode=0; inode<nodes.length; ++inode)
+      nodes[inode] = ni.next();
+    return nodes;
+  }
+
+  private static TetMesh.Tet tet(
+    TetMesh mesh, TetMesh.Node[] nodes, CompactTetMesh cmesh, int itet)
+  {
+    TetMesh.Node na = nodes[cmesh.getTetNode(itet,0)];
+    TetMesh.Node nb = nodes[cmesh.getTetNode(itet,1)];
+    TetMesh.Node nc = nodes[cmesh.getTetNode(itet,2)];
+    TetMesh.Node nd = nodes[cmesh.getTetNode(itet,3)];
+    return mesh.findTet(na,nb,nc,nd);
+  }
+
+  private static boolean inSphere(
+    CompactTetMesh cmesh, int itet, float x, float y, float z)
+  {
+    int ia = cmesh.getTetNode(itet,0);
+    int ib = cmesh.getTetNode(itet,1);
+    int ic = cmesh.getTetNode(itet,2);
+    int id = cmesh.getTetNode(itet,3);
+    TetMesh.Node na = new TetMesh.Node(
+      cmesh.getNodeX(ia),cmesh.getNodeY(ia),cmesh.getNodeZ(ia));
+    TetMesh.Node nb = new TetMesh.Node(
+      cmesh.getNodeX(ib),cmesh.getNodeY(ib),cmesh.getNodeZ(ib));
+    TetMesh.Node nc = new TetMesh.Node(
+      cmesh.getNodeX(ic),cmesh.getNodeY(ic),cmesh.getNodeZ(ic));
+    TetMesh.Node nd = new TetMesh.Node(
+      cmesh.getNodeX(id),cmesh.getNodeY(id),cmesh.getNodeZ(id));
+    return Geometry.inSphere(
+      na.xp(),na.yp(),na.zp(),nb.xp(),nb.yp(),nb.zp(),
+      nc.xp(),nc.yp(),nc.zp(),nd.xp(),nd.yp(),nd.zp(),x,y,z)>0.0;
+  }
+
+  private static void assertSame(CompactTetMesh a, CompactTetMesh b) {
+    assertEquals(a.countNodes(),b.countNodes());
+    assertEquals(a.countTets(),b.countTets());
+    for (int inode=0; inode<a.countNodes(); ++inode) {
+      assertEquals(a.getNodeX(inode),b.getNodeX(inode));
+      assertEquals(a.getNodeY(inode),b.getNodeY(inode));
+      assertEquals(a.getNodeZ(inode),b.getNodeZ(inode));
+      assertEquals(a.getNodeIndex(inode),b.getNodeIndex(inode));
+      assertEquals(a.getNodeTet(inode),b.getNodeTet(inode));
+    }
+    for (int itet=0; itet<a.countTets(); ++itet) {
+      for (int k=0; k<4; ++k) {
+        assertEquals(a.getTetNode(itet,k),b.getTetNode(itet,k));
+        assertEquals(a.getTetNabor(itet,k),b.getTetNabor(itet,k));
+      }
+    }
+  }
+}
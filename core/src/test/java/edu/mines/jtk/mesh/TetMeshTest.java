@@ -17,6 +17,7 @@ package edu.mines.jtk.mesh;
 import java.io.*;
 
 
+import edu.mines.jtk.util.Parallel;
 import edu.mines.jtk.util.Stopwatch;
 import org.testng.annotations.Test;
 
@@ -357,6 +358,191 @@ public class TetMeshTest {
     //System.out.println("Nodes added/removed = "+nadd+"/"+nremove);
   }
 
+  @Test
+  public void testAddNodes() {
+    java.util.Random random = new java.util.Random(1);
+    int nnode = 2000;
+    TetMesh.Node[] nodes = new TetMesh.Node[nnode+10];
+    for (int inode=0; inode<nnode; ++inode) {
+      float x = random.nextFloat();
+      float y = random.nextFloat();
+      float z = random.nextFloat();
+      nodes[inode] = new TetMesh.Node(x,y,z);
+    }
+    for (int inode=nnode; inode<nnode+10; ++inode) {
+      TetMesh.Node node = nodes[random.nextInt(nnode)]; // duplicate
+      nodes[inode] = new TetMesh.Node(node.x(),node.y(),node.z());
+    }
+    TetMesh ta = new TetMesh();
+    for (TetMesh.Node node:nodes)
+      ta.addNode(new TetMesh.Node(node.x(),node.y(),node.z()));
+    TetMesh tb = new TetMesh();
+    NodeListener nl = new NodeListener();
+    tb.addNodeListener(nl);
+    assertEquals(nnode,tb.addNodes(nodes));
+    assertEquals(nnode,nl.countAdded());
+    assertEquals(nnode,nl.countWillBeAdded());
+    assertEquals(nnode,tb.countNodes());
+    assertEquals(ta.countTets(),tb.countTets());
+    tb.validate();
+    int nfound = 0;
+    for (TetMesh.Node node:nodes) {
+      if (tb.findTet(node)!=null)
+        ++nfound;
+    }
+    assertEquals(nnode,nfound);
+  }
+  @Test
+  public void testReader() {
+    java.util.Random random = new java.util.Random(2);
+    int nnode = 1000;
+    final TetMesh mesh = new TetMesh();
+    final TetMesh.Node[] nodes = new TetMesh.Node[nnode];
+    for (int inode=0; inode<nnode; ++inode) {
+      float x = random.nextFloat();
+      float y = random.nextFloat();
+      float z = random.nextFloat();
+      mesh.addNode(nodes[inode]=new TetMesh.Node(x,y,z));
+    }
+    int npoint = 1000;
+    final float[] x = new float[npoint];
+    final float[] y = new float[npoint];
+    final float[] z = new float[npoint];
+    for (int ipoint=0; ipoint<npoint; ++ipoint) {
+      if (ipoint%10==0) {
+        TetMesh.Node node = nodes[random.nextInt(nnode)]; // at a node
+        x[ipoint] = node.x();
+        y[ipoint] = node.y();
+        z[ipoint] = node.z();
+      } else {
+        x[ipoint] = -0.1f+1.2f*random.nextFloat(); // some outside
+        y[ipoint] = -0.1f+1.2f*random.nextFloat();
+        z[ipoint] = -0.1f+1.2f*random.nextFloat();
+      }
+    }
+
+    // Query the mesh in parallel, with one reader per thread.
+    final TetMesh.PointLocation[] pl = new TetMesh.PointLocation[npoint];
+    final TetMesh.Node[] nearest = new TetMesh.Node[npoint];
+    final TetMesh.Node[][] nodeNabors = new TetMesh.Node[npoint][];
+    final TetMesh.Tet[][] tetNabors = new TetMesh.Tet[npoint][];
+    final Parallel.Unsafe<TetMesh.Reader> readers = 
+      new Parallel.Unsafe<TetMesh.Reader>();
+    Parallel.loop(npoint,new Parallel.LoopInt() {
+    public void compute(int ipoint) {
+      TetMesh.Reader reader = readers.get();
+      if (reader==null) readers.set(reader=new TetMesh.Reader(mesh));
+      pl[ipoint] = reader.locatePoint(x[ipoint],y[ipoint],z[ipoint]);
+      nearest[ipoint] = reader.findNodeNearest(x[ipoint],y[ipoint],z[ipoint]);
+      TetMesh.Node node = nodes[ipoint];
+      nodeNabors[ipoint] = reader.getNodeNabors(node);
+      tetNabors[ipoint] = reader.getTetNabors(node);
+    }});
+
+    // Compare with results of synchronized queries.
+    for (int ipoint=0; ipoint<npoint; ++ipoint) {
+      TetMesh.PointLocation plm = mesh.locatePoint(x[ipoint],y[ipoint],z[ipoint]);
+      assertEquals(plm.isInside(),pl[ipoint].isInside());
+      assertEquals(plm.isOnNode(),pl[ipoint].isOnNode());
+      assertEquals(plm.node(),pl[ipoint].node());
+      if (plm.isInside() && !plm.isOnNode() && !plm.isOnEdge() &&
+          !plm.isOnFace())
+        assertEquals(plm.tet(),pl[ipoint].tet());
+      if (!plm.isInside())
+        assertTrue(pl[ipoint].tet()!=null);
+      assertEquals(mesh.findNodeNearest(x[ipoint],y[ipoint],z[ipoint]),nearest[ipoint]);
+      TetMesh.Node node = nodes[ipoint];
+      assertEquals(set(mesh.getNodeNabors(node)),set(nodeNabors[ipoint]));
+      assertEquals(nodeNabors[ipoint].length,set(nodeNabors[ipoint]).size());
+      assertEquals(set(mesh.getTetNabors(node)),set(tetNabors[ipoint]));
+      assertEquals(tetNabors[ipoint].length,set(tetNabors[ipoint]).size());
+    }
+
+    // Between queries, a reader detects changes to the mesh.
+    TetMesh.Reader reader = new TetMesh.Reader(mesh);
+    reader.locatePoint(0.5f,0.5f,0.5f);
+    TetMesh.Node node = new TetMesh.Node(0.5f,0.5f,0.5f);
+    mesh.addNode(node);
+    TetMesh.PointLocation plb = reader.locatePoint(0.5f,0.5f,0.5f);
+    assertTrue(plb.tet().references(node));
+  }
+  @Test
+  public void testReaderWhileChanging() throws InterruptedException {
+    final java.util.Random random = new java.util.Random(3);
+    int nnode = 1000;
+    final TetMesh mesh = new TetMesh();
+    final TetMesh.Node[] nodes = new TetMesh.Node[nnode];
+    for (int inode=0; inode<nnode; ++inode) {
+      float x = random.nextFloat();
+      float y = random.nextFloat();
+      float z = random.nextFloat();
+      nodes[inode] = new TetMesh.Node(x,y,z);
+    }
+    mesh.addNodes(nodes);
+
+    // While one thread adds and removes other nodes, query the mesh.
+    Thread writer = new Thread() {
+      public void run() {
+        for (int iter=0; iter<20; ++iter) {
+          TetMesh.Node[] others = new TetMesh.Node[100];
+          for (int inode=0; inode<others.length; ++inode) {
+            float x = random.nextFloat();
+            float y = random.nextFloat();
+            float z = random.nextFloat();
+            others[inode] = new TetMesh.Node(x,y,z);
+          }
+          mesh.addNodes(others);
+          for (TetMesh.Node node:others)
+            mesh.removeNode(node);
+        }
+      }
+    };
+    writer.start();
+    TetMesh.Reader reader = new TetMesh.Reader(mesh);
+    do {
+      for (TetMesh.Node node:nodes) {
+        TetMesh.PointLocation pl = 
+          reader.locatePoint(node.x(),node.y(),node.z());
+        if (pl.isInside())
+          assertTrue(pl.tet().references(node));
+        TetMesh.Node nmin = reader.findNodeNearest(node.x(),node.y(),node.z());
+        assertEquals(node,nmin);
+        TetMesh.Node[] nabors = reader.getNodeNabors(node);
+        assertEquals(nabors.length,set(nabors).size());
+        TetMesh.Tet[] tets = reader.getTetNabors(node);
+        assertEquals(tets.length,set(tets).size());
+      }
+    } while (writer.isAlive());
+    writer.join();
+    assertEquals(nnode,mesh.countNodes());
+    assertEquals(0,mesh.getVersion()%2);
+  }
+  private static java.util.Set<Object> set(Object[] a) {
+    return new java.util.HashSet<Object>(java.util.Arrays.asList(a));
+  }
+
+  private static class NodeListener implements TetMesh.NodeListener {
+    public void nodeWillBeAdded(TetMesh mesh, TetMesh.Node node) {
+      if (node.tet()==null)
+        ++_nwill;
+    }
+    public void nodeAdded(TetMesh mesh, TetMesh.Node node) {
+      ++_nadded;
+    }
+    public void nodeWillBeRemoved(TetMesh mesh, TetMesh.Node node) {
+    }
+    public void nodeRemoved(TetMesh mesh, TetMesh.Node node) {
+    }
+    public int countAdded() {
+      return _nadded;
+    }
+    public int countWillBeAdded() {
+      return _nwill;
+    }
+    private int _nadded;
+    private int _nwill; // counts only nodes not yet in the mesh
+  }
+
   public void benchAddNode() {
     java.util.Random random = new java.util.Random();
     for (int itest=0; itest<16; ++itest) {
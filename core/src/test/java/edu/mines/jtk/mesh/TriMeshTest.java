@@ -16,6 +16,7 @@ package edu.mines.jtk.mesh;
 
 import java.io.*;
 
+import edu.mines.jtk.util.Parallel;
 import edu.mines.jtk.util.Stopwatch;
 
 import org.testng.annotations.Test;
@@ -201,6 +202,181 @@ public class TriMeshTest {
     //System.out.println("Nodes added/removed = "+nadd+"/"+nremove);
   }
 
+  @Test
+  public void testAddNodes() {
+    java.util.Random random = new java.util.Random(1);
+    int nnode = 5000;
+    TriMesh.Node[] nodes = new TriMesh.Node[nnode+10];
+    for (int inode=0; inode<nnode; ++inode) {
+      float x = random.nextFloat();
+      float y = random.nextFloat();
+      nodes[inode] = new TriMesh.Node(x,y);
+    }
+    for (int inode=nnode; inode<nnode+10; ++inode) {
+      TriMesh.Node node = nodes[random.nextInt(nnode)]; // duplicate
+      nodes[inode] = new TriMesh.Node(node.x(),node.y());
+    }
+    TriMesh ta = new TriMesh();
+    for (TriMesh.Node node:nodes)
+      ta.addNode(new TriMesh.Node(node.x(),node.y()));
+    TriMesh tb = new TriMesh();
+    NodeListener nl = new NodeListener();
+    tb.addNodeListener(nl);
+    assertEquals(nnode,tb.addNodes(nodes));
+    assertEquals(nnode,nl.countAdded());
+    assertEquals(nnode,nl.countWillBeAdded());
+    assertEquals(nnode,tb.countNodes());
+    assertEquals(ta.countTris(),tb.countTris());
+    tb.validate();
+    int nfound = 0;
+    for (TriMesh.Node node:nodes) {
+      if (tb.findTri(node)!=null)
+        ++nfound;
+    }
+    assertEquals(nnode,nfound);
+  }
+  @Test
+  public void testReader() {
+    java.util.Random random = new java.util.Random(2);
+    int nnode = 2000;
+    final TriMesh mesh = new TriMesh();
+    final TriMesh.Node[] nodes = new TriMesh.Node[nnode];
+    for (int inode=0; inode<nnode; ++inode) {
+      float x = random.nextFloat();
+      float y = random.nextFloat();
+      mesh.addNode(nodes[inode]=new TriMesh.Node(x,y));
+    }
+    int npoint = 1000;
+    final float[] x = new float[npoint];
+    final float[] y = new float[npoint];
+    for (int ipoint=0; ipoint<npoint; ++ipoint) {
+      if (ipoint%10==0) {
+        TriMesh.Node node = nodes[random.nextInt(nnode)]; // at a node
+        x[ipoint] = node.x();
+        y[ipoint] = node.y();
+      } else {
+        x[ipoint] = -0.1f+1.2f*random.nextFloat(); // some outside
+        y[ipoint] = -0.1f+1.2f*random.nextFloat();
+      }
+    }
+
+    // Query the mesh in parallel, with one reader per thread.
+    final TriMesh.PointLocation[] pl = new TriMesh.PointLocation[npoint];
+    final TriMesh.Node[] nearest = new TriMesh.Node[npoint];
+    final TriMesh.Node[][] nodeNabors = new TriMesh.Node[npoint][];
+    final TriMesh.Tri[][] triNabors = new TriMesh.Tri[npoint][];
+    final Parallel.Unsafe<TriMesh.Reader> readers = 
+      new Parallel.Unsafe<TriMesh.Reader>();
+    Parallel.loop(npoint,new Parallel.LoopInt() {
+    public void compute(int ipoint) {
+      TriMesh.Reader reader = readers.get();
+      if (reader==null) readers.set(reader=new TriMesh.Reader(mesh));
+      pl[ipoint] = reader.locatePoint(x[ipoint],y[ipoint]);
+      nearest[ipoint] = reader.findNodeNearest(x[ipoint],y[ipoint]);
+      TriMesh.Node node = nodes[ipoint];
+      nodeNabors[ipoint] = reader.getNodeNabors(node);
+      triNabors[ipoint] = reader.getTriNabors(node);
+    }});
+
+    // Compare with results of synchronized queries.
+    for (int ipoint=0; ipoint<npoint; ++ipoint) {
+      TriMesh.PointLocation plm = mesh.locatePoint(x[ipoint],y[ipoint]);
+      assertEquals(plm.isInside(),pl[ipoint].isInside());
+      assertEquals(plm.isOnNode(),pl[ipoint].isOnNode());
+      assertEquals(plm.node(),pl[ipoint].node());
+      if (plm.isInside() && !plm.isOnNode() && !plm.isOnEdge())
+        assertEquals(plm.tri(),pl[ipoint].tri());
+      if (!plm.isInside())
+        assertTrue(pl[ipoint].tri()!=null);
+      assertEquals(mesh.findNodeNearest(x[ipoint],y[ipoint]),nearest[ipoint]);
+      TriMesh.Node node = nodes[ipoint];
+      assertEquals(set(mesh.getNodeNabors(node)),set(nodeNabors[ipoint]));
+      assertEquals(nodeNabors[ipoint].length,set(nodeNabors[ipoint]).size());
+      assertEquals(set(mesh.getTriNabors(node)),set(triNabors[ipoint]));
+      assertEquals(triNabors[ipoint].length,set(triNabors[ipoint]).size());
+    }
+
+    // Between queries, a reader detects changes to the mesh.
+    TriMesh.Reader reader = new TriMesh.Reader(mesh);
+    reader.locatePoint(0.5f,0.5f);
+    TriMesh.Node node = new TriMesh.Node(0.5f,0.5f);
+    mesh.addNode(node);
+    TriMesh.PointLocation plb = reader.locatePoint(0.5f,0.5f);
+    assertTrue(plb.tri().references(node));
+  }
+  @Test
+  public void testReaderWhileChanging() throws InterruptedException {
+    final java.util.Random random = new java.util.Random(3);
+    int nnode = 1000;
+    final TriMesh mesh = new TriMesh();
+    final TriMesh.Node[] nodes = new TriMesh.Node[nnode];
+    for (int inode=0; inode<nnode; ++inode) {
+      float x = random.nextFloat();
+      float y = random.nextFloat();
+      nodes[inode] = new TriMesh.Node(x,y);
+    }
+    mesh.addNodes(nodes);
+
+    // While one thread adds and removes other nodes, query the mesh.
+    Thread writer = new Thread() {
+      public void run() {
+        for (int iter=0; iter<20; ++iter) {
+          TriMesh.Node[] others = new TriMesh.Node[100];
+          for (int inode=0; inode<others.length; ++inode) {
+            float x = random.nextFloat();
+            float y = random.nextFloat();
+            others[inode] = new TriMesh.Node(x,y);
+          }
+          mesh.addNodes(others);
+          for (TriMesh.Node node:others)
+            mesh.removeNode(node);
+        }
+      }
+    };
+    writer.start();
+    TriMesh.Reader reader = new TriMesh.Reader(mesh);
+    do {
+      for (TriMesh.Node node:nodes) {
+        TriMesh.PointLocation pl = reader.locatePoint(node.x(),node.y());
+        if (pl.isInside())
+          assertTrue(pl.tri().references(node));
+        assertEquals(node,reader.findNodeNearest(node.x(),node.y()));
+        TriMesh.Node[] nabors = reader.getNodeNabors(node);
+        assertEquals(nabors.length,set(nabors).size());
+        TriMesh.Tri[] tris = reader.getTriNabors(node);
+        assertEquals(tris.length,set(tris).size());
+      }
+    } while (writer.isAlive());
+    writer.join();
+    assertEquals(nnode,mesh.countNodes());
+    assertEquals(0,mesh.getVersion()%2);
+  }
+  private static java.util.Set<Object> set(Object[] a) {
+    return new java.util.HashSet<Object>(java.util.Arrays.asList(a));
+  }
+
+  private static class NodeListener implements TriMesh.NodeListener {
+    public void nodeWillBeAdded(TriMesh mesh, TriMesh.Node node) {
+      if (node.tri()==null)
+        ++_nwill;
+    }
+    public void nodeAdded(TriMesh mesh, TriMesh.Node node) {
+      ++_nadded;
+    }
+    public void nodeWillBeRemoved(TriMesh mesh, TriMesh.Node node) {
+    }
+    public void nodeRemoved(TriMesh mesh, TriMesh.Node node) {
+    }
+    public int countAdded() {
+      return _nadded;
+    }
+    public int countWillBeAdded() {
+      return _nwill;
+    }
+    private int _nadded;
+    private int _nwill; // counts only nodes not yet in the mesh
+  }
+
   public void benchAddNode() {
     java.util.Random random = new java.util.Random();
     for (int itest=0; itest<3; ++itest) {
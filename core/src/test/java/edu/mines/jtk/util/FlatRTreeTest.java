@@ -0,0 +1,202 @@
+/****************************************************************************
+Copyright 2026, Colorado School of Mines and others.
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+****************************************************************************/
+package edu.mines.jtk.util;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.testng.annotations.Test;
+import static org.testng.Assert.assertEquals;
+
+/**
+ * Tests {@link edu.mines.jtk.util.FlatRTree}.
+ * @author agent
+ * @version 2026.10.18
+ */
+public class FlatRTreeTest {
+
+  @Test
+  public void testOverlapping() {
+    for (int ndim=1; ndim<=3; ++ndim) {
+      int n = 2000;
+      float[] min = new float[n*ndim];
+      float[] max = new float[n*ndim];
+      randomBoxes(ndim,0.1f,min,max);
+      FlatRTree rt = new FlatRTree(ndim,min,max);
+      assertEquals(n,rt.size());
+      int[] ids = new int[n];
+      for (int i=0; i<100; ++i) {
+        float[] qmin = new float[ndim];
+        float[] qmax = new float[ndim];
+        randomBoxes(ndim,0.3f,qmin,qmax);
+        int nfound = rt.findOverlapping(qmin,qmax,ids);
+        int[] found = Arrays.copyOf(ids,nfound);
+        Arrays.sort(found);
+        int nexpect = 0;
+        for (int j=0; j<n; ++j) {
+          if (overlaps(ndim,min,max,j,qmin,qmax))
+            assertEquals(j,found[nexpect++]);
+        }
+        assertEquals(nexpect,nfound);
+      }
+    }
+  }
+
+  @Test
+  public void testInSphere() {
+    int ndim = 3, n = 2000;
+    float[] x = new float[n*ndim];
+    randomBoxes(ndim,0.0f,x,x);
+    FlatRTree rt = new FlatRTree(ndim,x);
+    int[] ids = new int[4];
+    float radius = 0.1f;
+    for (int i=0; i<100; ++i) {
+      float[] p = randomPoint(ndim);
+      int nexpect = 0;
+      for (int j=0; j<n; ++j) {
+        if (distanceSquared(ndim,x,x,j,p)<=radius*radius)
+          ++nexpect;
+      }
+      assertEquals(nexpect,rt.findInSphere(p,radius,ids));
+    }
+  }
+
+  @Test
+  public void testNearest() {
+    int ndim = 2, n = 5000, k = 5;
+    float[] min = new float[n*ndim];
+    float[] max = new float[n*ndim];
+    randomBoxes(ndim,0.02f,min,max);
+    FlatRTree rt = new FlatRTree(ndim,4,min,max);
+    int[] ids = new int[k];
+    float[] ds = new float[k];
+    float[] dall = new float[n];
+    for (int i=0; i<100; ++i) {
+      float[] p = randomPoint(ndim);
+      assertEquals(k,rt.findNearest(k,p,ids,ds));
+      for (int j=0; j<n; ++j)
+        dall[j] = distanceSquared(ndim,min,max,j,p);
+      Arrays.sort(dall);
+      for (int j=0; j<k; ++j) {
+        assertEquals(dall[j],ds[j],0.0f);
+        assertEquals(ds[j],distanceSquared(ndim,min,max,ids[j],p),0.0f);
+      }
+    }
+  }
+
+  @Test
+  public void testBatch() {
+    int ndim = 3, n = 3000, m = 1000, k = 3;
+    float[] x = new float[n*ndim];
+    randomBoxes(ndim,0.0f,x,x);
+    FlatRTree rt = new FlatRTree(ndim,x);
+    float[][] point = new float[m][];
+    float[][] min = new float[m][ndim];
+    float[][] max = new float[m][ndim];
+    for (int i=0; i<m; ++i) {
+      point[i] = randomPoint(ndim);
+      randomBoxes(ndim,0.2f,min[i],max[i]);
+    }
+    int[] nearest = new int[m];
+    int[][] nearestk = new int[m][k];
+    float[][] dk = new float[m][k];
+    int[][] found = new int[m][10];
+    int[] count = new int[m];
+    rt.findNearest(point,nearest);
+    rt.findNearest(k,point,nearestk,dk);
+    rt.findOverlapping(min,max,found,count);
+    int[] ids = new int[n];
+    float[] ds = new float[k];
+    for (int i=0; i<m; ++i) {
+      assertEquals(rt.findNearest(point[i]),nearest[i]);
+      rt.findNearest(k,point[i],ids,ds);
+      for (int j=0; j<k; ++j) {
+        assertEquals(ids[j],nearestk[i][j]);
+        assertEquals(ds[j],dk[i][j]);
+      }
+      int nfound = rt.findOverlapping(min[i],max[i],ids);
+      assertEquals(nfound,count[i]);
+      for (int j=0; j<Math.min(nfound,10); ++j)
+        assertEquals(ids[j],found[i][j]);
+    }
+  }
+
+  @Test
+  public void testSmall() {
+    FlatRTree empty = new FlatRTree(2,new float[0]);
+    assertEquals(0,empty.getLevels());
+    assertEquals(-1,empty.findNearest(new float[]{0.0f,0.0f}));
+    int[][] ids = new int[1][2];
+    empty.findNearest(2,new float[][]{{0.0f,0.0f}},ids,null);
+    assertEquals(-1,ids[0][0]);
+    assertEquals(-1,ids[0][1]);
+
+    FlatRTree one = new FlatRTree(2,new float[]{1.0f,2.0f});
+    assertEquals(1,one.getLevels());
+    assertEquals(0,one.findNearest(new float[]{0.0f,0.0f}));
+    one.findNearest(2,new float[][]{{0.0f,0.0f}},ids,null);
+    assertEquals(0,ids[0][0]);
+    assertEquals(-1,ids[0][1]);
+  }
+
+  ///////////////////////////////////////////////////////////////////////////
+  // private
+
+  private static Random _random = new Random(314159);
+
+  private static void randomBoxes(
+    int ndim, float size, float[] min, float[] max)
+  {
+    int n = min.length/ndim;
+    for (int i=0; i<n; ++i) {
+      for (int idim=0; idim<ndim; ++idim) {
+        float xmin = (1.0f-size)*_random.nextFloat();
+        float xmax = xmin+size*_random.nextFloat();
+        min[i*ndim+idim] = xmin;
+        max[i*ndim+idim] = xmax;
+      }
+    }
+  }
+
+  private static float[] randomPoint(int ndim) {
+    float[] p = new float[ndim];
+    for (int idim=0; idim<ndim; ++idim)
+      p[idim] = _random.nextFloat();
+    return p;
+  }
+
+  private static boolean overlaps(
+    int ndim, float[] min, float[] max, int j, float[] qmin, float[] qmax)
+  {
+    for (int idim=0; idim<ndim; ++idim) {
+      if (min[j*ndim+idim]>qmax[idim] || max[j*ndim+idim]<qmin[idim])
+        return false;
+    }
+    return true;
+  }
+
+  private static float distanceSquared(
+    int ndim, float[] min, float[] max, int j, float[] p)
+  {
+    float sum = 0.0f;
+    for (int idim=0; idim<ndim; ++idim) {
+      float s = min[j*ndim+idim];
+      float t = max[j*ndim+idim];
+      float d = (p[idim]<s)?p[idim]-s:(p[idim]>t)?p[idim]-t:0.0f;
+      sum += d*d;
+    }
+    return sum;
+  }
+}
@@ -83,6 +83,41 @@ public class RTreeTest {
     }
   }
 
+  @Test
+  public void testBatch() {
+    RTree rt = new RTree(3,4,12);
+    int n = 1000;
+    RTree.Box[] boxs = new RTree.Box[n];
+    for (int i=0; i<n; ++i)
+      boxs[i] = randomBox(0.2f);
+    rt.addPacked(boxs);
+    int m = 500, k = 4;
+    float[][] point = new float[m][];
+    float[][] min = new float[m][];
+    float[][] max = new float[m][];
+    for (int i=0; i<m; ++i) {
+      point[i] = randomPoint();
+      min[i] = new float[3];
+      max[i] = new float[3];
+      randomBox(0.2f).getBounds(min[i],max[i]);
+    }
+    Object[] nearest = new Object[m];
+    Object[][] nearestk = new Object[m][k];
+    rt.findNearest(point,nearest);
+    rt.findNearest(k,point,nearestk);
+    Object[][] found = rt.findOverlapping(min,max);
+    for (int i=0; i<m; ++i) {
+      Object[] rb = rt.findNearest(k,point[i]);
+      assertTrue(nearest[i]==rb[0]);
+      for (int j=0; j<k; ++j)
+        assertTrue(nearestk[i][j]==rb[j]);
+      Object[] ob = rt.findOverlapping(min[i],max[i]);
+      assertEquals(ob.length,found[i].length);
+      for (int j=0; j<ob.length; ++j)
+        assertTrue(ob[j]==found[i][j]);
+    }
+  }
+
   @Test
   public void testIterator() {
     RTree rt = new RTree(3,4,12);
@@ -0,0 +1,106 @@
+/****************************************************************************
+Copyright 2026, Colorado School of Mines and others.
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+****************************************************************************/
+package edu.mines.jtk.dsp;
+
+import jdk.incubator.vector.FloatVector;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Accumulation of alignment errors with SIMD (vector) instructions.
+ * The methods of this class perform the same computations as the
+ * corresponding scalar loops in DynamicWarping, for one sample of all
+ * lags, in the same order, so that results are identical. Lags are
+ * processed in contiguous strides of as many floats as fit in the lanes
+ * of a vector register. Remaining lags are processed with scalar code.
+ * <p>
+ * This class uses the incubating Java Vector API, which must be enabled
+ * with the JVM option --add-modules jdk.incubator.vector. It is compiled
+ * only with JDK 16 or later, and DynamicWarping loads it only by 
+ * reflection. If this class or that module is not available, then 
+ * DynamicWarping uses only scalar code.
+ * @author agent
+ * @version 2026.10.18
+ */
+class DynamicWarpingVector implements DynamicWarping.Kernels {
+
+  /**
+   * Determines whether vector instructions are worthwhile.
+   * @return true, if vectors have more than two lanes; false, otherwise.
+   */
+  public boolean isAvailable() {
+    return NS>2;
+  }
+
+  /**
+   * Adds one array to another, y[il] += x[il].
+   * @param nl the number of lags.
+   * @param x input array[nl].
+   * @param y input/output array[nl].
+   */
+  public void add(int nl, float[] x, float[] y) {
+    int il = 0;
+    for (int jl=S.loopBound(nl); il<jl; il+=NS) {
+      FloatVector xv = FloatVector.fromArray(S,x,il);
+      FloatVector yv = FloatVector.fromArray(S,y,il);
+      yv.add(xv).intoArray(y,il);
+    }
+    for (; il<nl; ++il)
+      y[il] += x[il];
+  }
+
+  /**
+   * Accumulates errors for one sample. For lag indices il, computes
+   * d[il] = min(t[il-1],s[il],t[il+1])+e[il], where lag indices il-1
+   * and il+1 are clipped to the range [0,nl-1].
+   * @param nl the number of lags.
+   * @param t input array[nl] of errors accumulated with changing lags.
+   * @param s input array[nl] of errors accumulated with constant lags.
+   * @param e input array[nl] of errors for the sample.
+   * @param d output array[nl] of accumulated errors.
+   */
+  public void accumulate(int nl, float[] t, float[] s, float[] e, float[] d) {
+    int nlm1 = nl-1;
+    if (nl<3) {
+      for (int il=0; il<nl; ++il) {
+        int ilm1 = il-1; if (ilm1==-1) ilm1 = 0;
+        int ilp1 = il+1; if (ilp1==nl) ilp1 = nlm1;
+        d[il] = min3(t[ilm1],s[il],t[ilp1])+e[il];
+      }
+      return;
+    }
+    d[0] = min3(t[0],s[0],t[1])+e[0];
+    int il = 1;
+    for (int jl=1+S.loopBound(nl-2); il<jl; il+=NS) {
+      FloatVector tm = FloatVector.fromArray(S,t,il-1);
+      FloatVector tp = FloatVector.fromArray(S,t,il+1);
+      FloatVector si = FloatVector.fromArray(S,s,il);
+      FloatVector ei = FloatVector.fromArray(S,e,il);
+      si.min(tm).min(tp).add(ei).intoArray(d,il);
+    }
+    for (; il<nlm1; ++il)
+      d[il] = min3(t[il-1],s[il],t[il+1])+e[il];
+    d[nlm1] = min3(t[nlm1-1],s[nlm1],t[nlm1])+e[nlm1];
+  }
+
+  ///////////////////////////////////////////////////////////////////////////
+  // private
+
+  private static final VectorSpecies<Float> S = FloatVector.SPECIES_PREFERRED;
+  private static final int NS = S.length();
+
+  private static float min3(float a, float b, float c) {
+    return b<=a?(b<=c?b:c):(a<=c?a:c); // if equal, choose b
+  }
+}
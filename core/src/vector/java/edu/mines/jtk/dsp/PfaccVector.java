@@ -0,0 +1,4073 @@
+/****************************************************************************
+Copyright 2026, Colorado School of Mines and others.
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+****************************************************************************/
+package edu.mines.jtk.dsp;
+
+import jdk.incubator.vector.FloatVector;
+import jdk.incubator.vector.VectorShuffle;
+import jdk.incubator.vector.VectorSpecies;
+
+import static edu.mines.jtk.dsp.Pfacc.*;
+
+/**
+ * Prime-factor multiple FFTs with SIMD (vector) instructions.
+ * The methods of this class perform the same computations as the
+ * corresponding methods transform2a and transform2b of Pfacc, in the
+ * same order, so that results are identical. However, each butterfly
+ * processes as many columns (independent transforms) at once as fit in
+ * the lanes of a vector register. Remaining columns are processed with
+ * scalar code.
+ * <p>
+ * Where real and imaginary parts are packed in consecutive floats, as
+ * in transform2a, multiplications by the imaginary unit are performed
+ * by swapping adjacent lanes and negating either the real or imaginary
+ * parts.
+ * <p>
+ * This class uses the incubating Java Vector API, which must be enabled
+ * with the JVM option --add-modules jdk.incubator.vector. It is compiled
+ * only with JDK 16 or later, and Pfacc loads it only by reflection. If
+ * this class or that module is not available, then Pfacc uses only scalar
+ * code.
+ * @author agent
+ * @version 2026.10.18
+ */
+class PfaccVector implements Pfacc.Kernels {
+
+  /**
+   * Determines whether vector instructions are worthwhile.
+   * @return true, if vectors have more than two lanes; false, otherwise.
+   */
+  public boolean isAvailable() {
+    return NS>2;
+  }
+
+  /**
+   * Returns the number of floats (lanes) in each vector.
+   * @return the number of lanes.
+   */
+  public int lanes() {
+    return NS;
+  }
+
+  /**
+   * Prime-factor complex-to-complex multiple FFT. Performs the transforms
+   * with indices k1 &lt;= i1 &lt; n1 in the fast dimension of the array z.
+   * In this version, z[0:nfft-1][0,2,4,...] contains the real parts,
+   * and z[0:nfft-1][1,3,5,...] contains the imaginary parts.
+   * @param sign the sign of the exponent in the Fourier transform.
+   * @param k1 the index of the first transform.
+   * @param n1 the index of the last transform plus one.
+   * @param nfft the FFT length (slow dimension).
+   * @param z array[nfft][2*n1] of n1*nfft packed complex numbers.
+   */
+  public void transform2a(
+    int sign, int k1, int n1, int nfft, float[][] z)
+  {
+    // What is left of n after dividing by factors.
+    int nleft = nfft;
+
+    // Loop over all possible factors, from largest to smallest.
+    for (int jfac=0; jfac<NFAC; ++jfac) {
+
+      // Skip the current factor, if not a mutually prime factor of n
+      int ifac = _kfac[jfac];
+      int ndiv = nleft/ifac;
+      if (ndiv*ifac!=nleft)
+        continue;
+
+      // What is left of n (nleft), and n divided by the current factor (m).
+      nleft = ndiv;
+      int m = nfft/ifac;
+ 
+      // Rotation factor mu and stride mm.
+      int mu = 0;
+      int mm = 0;
+      for (int kfac=1; kfac<=ifac && mm%ifac!=1; ++kfac) {
+        mu = kfac;
+        mm = kfac*m;
+      }
+      if (sign<0)
+        mu = ifac-mu;
+
+      // Array stride, bound, and indices.
+      int jinc = mm;
+      int jmax = nfft;
+      int j0 = 0;
+      int j1 = j0+jinc;
+
+      // Factor 2.
+      if (ifac==2) {
+        pfa2a(k1,n1,z,m,j0,j1);
+        continue;
+      }
+      int j2 = (j1+jinc)%jmax;
+
+      // Factor 3.
+      if (ifac==3) {
+        pfa3a(k1,n1,z,mu,m,j0,j1,j2);
+        continue;
+      }
+      int j3 = (j2+jinc)%jmax;
+
+      // Factor 4.
+      if (ifac==4) {
+        pfa4a(k1,n1,z,mu,m,j0,j1,j2,j3);
+        continue;
+      }
+      int j4 = (j3+jinc)%jmax;
+
+      // Factor 5.
+      if (ifac==5) {
+        pfa5a(k1,n1,z,mu,m,j0,j1,j2,j3,j4);
+        continue;
+      }
+      int j5 = (j4+jinc)%jmax;
+      int j6 = (j5+jinc)%jmax;
+
+      // Factor 7.
+      if (ifac==7) {
+        pfa7a(k1,n1,z,mu,m,j0,j1,j2,j3,j4,j5,j6);
+        continue;
+      }
+      int j7 = (j6+jinc)%jmax;
+
+      // Factor 8.
+      if (ifac==8) {
+        pfa8a(k1,n1,z,mu,m,j0,j1,j2,j3,j4,j5,j6,j7);
+        continue;
+      }
+      int j8 = (j7+jinc)%jmax;
+
+      // Factor 9.
+      if (ifac==9) {
+        pfa9a(k1,n1,z,mu,m,j0,j1,j2,j3,j4,j5,j6,j7,j8);
+        continue;
+      }
+      int j9 = (j8+jinc)%jmax;
+      int j10 = (j9+jinc)%jmax;
+
+      // Factor 11.
+      if (ifac==11) {
+        pfa11a(k1,n1,z,mu,m,j0,j1,j2,j3,j4,j5,j6,j7,j8,j9,j10);
+        continue;
+      }
+      int j11 = (j10+jinc)%jmax;
+      int j12 = (j11+jinc)%jmax;
+
+      // Factor 13.
+      if (ifac==13) {
+        pfa13a(k1,n1,z,mu,m,j0,j1,j2,j3,j4,j5,j6,j7,j8,j9,j10,j11,j12);
+        continue;
+      }
+      int j13 = (j12+jinc)%jmax;
+      int j14 = (j13+jinc)%jmax;
+      int j15 = (j14+jinc)%jmax;
+
+      // Factor 16.
+      if (ifac==16) {
+        pfa16a(k1,n1,z,mu,m,
+               j0,j1,j2,j3,j4,j5,j6,j7,j8,j9,j10,j11,j12,j13,j14,j15);
+      }
+    }
+  }
+  /**
+   * Prime-factor complex-to-complex multiple FFT. Performs the transforms
+   * with indices k1 &lt;= i1 &lt; n1 in the fast dimension of the array z.
+   * In this version, z[0,2,4,...]][k1:n1-1] contains the real parts,
+   * and z[1,3,5,...][k1:n1-1] contains the imaginary parts.
+   * @param sign the sign of the exponent in the Fourier transform.
+   * @param k1 the index of the first transform.
+   * @param n1 the index of the last transform plus one.
+   * @param nfft the FFT length (slow dimension).
+   * @param z array[nfft*2][n1] of nfft*n1 complex numbers.
+   */
+  public void transform2b(
+    int sign, int k1, int n1, int nfft, float[][] z)
+  {
+    // What is left of n after dividing by factors.
+    int nleft = nfft;
+
+    // Loop over all possible factors, from largest to smallest.
+    for (int jfac=0; jfac<NFAC; ++jfac) {
+
+      // Skip the current factor, if not a mutually prime factor of n
+      int ifac = _kfac[jfac];
+      int ndiv = nleft/ifac;
+      if (ndiv*ifac!=nleft)
+        continue;
+
+      // What is left of n (nleft), and n divided by the current factor (m).
+      nleft = ndiv;
+      int m = nfft/ifac;
+ 
+      // Rotation factor mu and stride mm.
+      int mu = 0;
+      int mm = 0;
+      for (int kfac=1; kfac<=ifac && mm%ifac!=1; ++kfac) {
+        mu = kfac;
+        mm = kfac*m;
+      }
+      if (sign<0)
+        mu = ifac-mu;
+
+      // Array stride, bound, and indices.
+      int jinc = 2*mm;
+      int jmax = 2*nfft;
+      int j0 = 0;
+      int j1 = j0+jinc;
+
+      // Factor 2.
+      if (ifac==2) {
+        pfa2b(k1,n1,z,m,j0,j1);
+        continue;
+      }
+      int j2 = (j1+jinc)%jmax;
+
+      // Factor 3.
+      if (ifac==3) {
+        pfa3b(k1,n1,z,mu,m,j0,j1,j2);
+        continue;
+      }
+      int j3 = (j2+jinc)%jmax;
+
+      // Factor 4.
+      if (ifac==4) {
+        pfa4b(k1,n1,z,mu,m,j0,j1,j2,j3);
+        continue;
+      }
+      int j4 = (j3+jinc)%jmax;
+
+      // Factor 5.
+      if (ifac==5) {
+        pfa5b(k1,n1,z,mu,m,j0,j1,j2,j3,j4);
+        continue;
+      }
+      int j5 = (j4+jinc)%jmax;
+      int j6 = (j5+jinc)%jmax;
+
+      // Factor 7.
+      if (ifac==7) {
+        pfa7b(k1,n1,z,mu,m,j0,j1,j2,j3,j4,j5,j6);
+        continue;
+      }
+      int j7 = (j6+jinc)%jmax;
+
+      // Factor 8.
+      if (ifac==8) {
+        pfa8b(k1,n1,z,mu,m,j0,j1,j2,j3,j4,j5,j6,j7);
+        continue;
+      }
+      int j8 = (j7+jinc)%jmax;
+
+      // Factor 9.
+      if (ifac==9) {
+        pfa9b(k1,n1,z,mu,m,j0,j1,j2,j3,j4,j5,j6,j7,j8);
+        continue;
+      }
+      int j9 = (j8+jinc)%jmax;
+      int j10 = (j9+jinc)%jmax;
+
+      // Factor 11.
+      if (ifac==11) {
+        pfa11b(k1,n1,z,mu,m,j0,j1,j2,j3,j4,j5,j6,j7,j8,j9,j10);
+        continue;
+      }
+      int j11 = (j10+jinc)%jmax;
+      int j12 = (j11+jinc)%jmax;
+
+      // Factor 13.
+      if (ifac==13) {
+        pfa13b(k1,n1,z,mu,m,j0,j1,j2,j3,j4,j5,j6,j7,j8,j9,j10,j11,j12);
+        continue;
+      }
+      int j13 = (j12+jinc)%jmax;
+      int j14 = (j13+jinc)%jmax;
+      int j15 = (j14+jinc)%jmax;
+
+      // Factor 16.
+      if (ifac==16) {
+        pfa16b(k1,n1,z,mu,m,
+               j0,j1,j2,j3,j4,j5,j6,j7,j8,j9,j10,j11,j12,j13,j14,j15);
+      }
+    }
+  }
+  ///////////////////////////////////////////////////////////////////////////
+  // private
+
+  private static final VectorSpecies<Float> S = FloatVector.SPECIES_PREFERRED;
+  private static final int NS = S.length();
+
+  // Shuffle that swaps real and imaginary parts of packed complex numbers,
+  // and factors that then negate real parts (PM) or imaginary parts (MP).
+  // For complex y, y.rearrange(SWAP).mul(PM) is i*y, and 
+  // y.rearrange(SWAP).mul(MP) is -i*y.
+  private static final VectorShuffle<Float> SWAP;
+  private static final FloatVector PM,MP;
+  static {
+    int[] swap = new int[NS];
+    float[] pm = new float[NS];
+    for (int i=0; i<NS; ++i) {
+      swap[i] = i^1;
+      pm[i] = (i%2==0)?-1.0f:1.0f;
+    }
+    SWAP = VectorShuffle.fromArray(S,swap,0);
+    PM = FloatVector.fromArray(S,pm,0);
+    MP = PM.neg();
+  }
+
+  private static void pfa2a(int k1, int n1, float[][] z, int m, int j0, int j1)
+  {
+    int m1 = 2*n1;
+    for (int i=0; i<m; ++i) {
+      float[] zj0 = z[j0];
+      float[] zj1 = z[j1];
+      int i1 = 2*k1;
+      for (int l1=i1+S.loopBound(m1-i1); i1<l1; i1+=NS) {
+        FloatVector z0 = FloatVector.fromArray(S,zj0,i1);
+        FloatVector z1 = FloatVector.fromArray(S,zj1,i1);
+        FloatVector t1 = z0.sub(z1);
+        z0.add(z1).intoArray(zj0,i1);
+        t1.intoArray(zj1,i1);
+      }
+      for (; i1<m1; i1+=2) {
+        float t1r = zj0[i1  ]-zj1[i1  ];
+        float t1i = zj0[i1+1]-zj1[i1+1];
+        zj0[i1  ] = zj0[i1  ]+zj1[i1  ];
+        zj0[i1+1] = zj0[i1+1]+zj1[i1+1];
+        zj1[i1  ] = t1r;
+        zj1[i1+1] = t1i;
+      }
+      int jt = j1+1;
+      j1 = j0+1;
+      j0 = jt;
+    }
+  }
+  private static void pfa3a(int k1, int n1, float[][] z, int mu, int m,
+    int j0, int j1, int j2)
+  {
+    int m1 = 2*n1;
+    float c1;
+    if (mu==1) {
+      c1 =  P866;
+    } else {
+      c1 = -P866;
+    }
+    for (int i=0; i<m; ++i) {
+      float[] zj0 = z[j0];
+      float[] zj1 = z[j1];
+      float[] zj2 = z[j2];
+      int i1 = 2*k1;
+      for (int l1=i1+S.loopBound(m1-i1); i1<l1; i1+=NS) {
+        FloatVector z0 = FloatVector.fromArray(S,zj0,i1);
+        FloatVector z1 = FloatVector.fromArray(S,zj1,i1);
+        FloatVector z2 = FloatVector.fromArray(S,zj2,i1);
+        FloatVector t1 = z1.add(z2);
+        FloatVector y1 = z0.sub(t1.mul(0.5f));
+        FloatVector y2 = z1.sub(z2).mul(c1);
+        z0.add(t1).intoArray(zj0,i1);
+        y1.add(y2.rearrange(SWAP).mul(PM)).intoArray(zj1,i1);
+        y1.add(y2.rearrange(SWAP).mul(MP)).intoArray(zj2,i1);
+      }
+      for (; i1<m1; i1+=2) {
+        float t1r = zj1[i1  ]+zj2[i1  ];
+        float t1i = zj1[i1+1]+zj2[i1+1];
+        float y1r = zj0[i1  ]-0.5f*t1r;
+        float y1i = zj0[i1+1]-0.5f*t1i;
+        float y2r = c1*(zj1[i1  ]-zj2[i1  ]);
+        float y2i = c1*(zj1[i1+1]-zj2[i1+1]);
+        zj0[i1  ] = zj0[i1  ]+t1r;
+        zj0[i1+1] = zj0[i1+1]+t1i;
+        zj1[i1  ] = y1r-y2i;
+        zj1[i1+1] = y1i+y2r;
+        zj2[i1  ] = y1r+y2i;
+        zj2[i1+1] = y1i-y2r;
+      }
+      int jt = j2+1;
+      j2 = j1+1;
+      j1 = j0+1;
+      j0 = jt;
+    }
+  }
+  private static void pfa4a(int k1, int n1, float[][] z, int mu, int m,
+    int j0, int j1, int j2, int j3)
+  {
+    int m1 = 2*n1;
+    float c1;
+    if (mu==1) {
+      c1 =  PONE;
+    } else {
+      c1 = -PONE;
+    }
+    for (int i=0; i<m; ++i) {
+      float[] zj0 = z[j0];
+      float[] zj1 = z[j1];
+      float[] zj2 = z[j2];
+      float[] zj3 = z[j3];
+      int i1 = 2*k1;
+      for (int l1=i1+S.loopBound(m1-i1); i1<l1; i1+=NS) {
+        FloatVector z0 = FloatVector.fromArray(S,zj0,i1);
+        FloatVector z1 = FloatVector.fromArray(S,zj1,i1);
+        FloatVector z2 = FloatVector.fromArray(S,zj2,i1);
+        FloatVector z3 = FloatVector.fromArray(S,zj3,i1);
+        FloatVector t1 = z0.add(z2);
+        FloatVector t2 = z1.add(z3);
+        FloatVector y1 = z0.sub(z2);
+        FloatVector y3 = z1.sub(z3).mul(c1);
+        t1.add(t2).intoArray(zj0,i1);
+        y1.add(y3.rearrange(SWAP).mul(PM)).intoArray(zj1,i1);
+        t1.sub(t2).intoArray(zj2,i1);
+        y1.add(y3.rearrange(SWAP).mul(MP)).intoArray(zj3,i1);
+      }
+      for (; i1<m1; i1+=2) {
+        float t1r = zj0[i1  ]+zj2[i1  ];
+        float t1i = zj0[i1+1]+zj2[i1+1];
+        float t2r = zj1[i1  ]+zj3[i1  ];
+        float t2i = zj1[i1+1]+zj3[i1+1];
+        float y1r = zj0[i1  ]-zj2[i1  ];
+        float y1i = zj0[i1+1]-zj2[i1+1];
+        float y3r = c1*(zj1[i1  ]-zj3[i1  ]);
+        float y3i = c1*(zj1[i1+1]-zj3[i1+1]);
+        zj0[i1  ] = t1r+t2r;
+        zj0[i1+1] = t1i+t2i;
+        zj1[i1  ] = y1r-y3i;
+        zj1[i1+1] = y1i+y3r;
+        zj2[i1  ] = t1r-t2r;
+        zj2[i1+1] = t1i-t2i;
+        zj3[i1  ] = y1r+y3i;
+        zj3[i1+1] = y1i-y3r;
+      }
+      int jt = j3+1;
+      j3 = j2+1;
+      j2 = j1+1;
+      j1 = j0+1;
+      j0 = jt;
+    }
+  }
+  private static void pfa5a(int k1, int n1, float[][] z, int mu, int m,
+    int j0, int j1, int j2, int j3, int j4)
+  {
+    int m1 = 2*n1;
+    float c1,c2,c3;
+    if (mu==1) {
+      c1 =  P559;
+      c2 =  P951;
+      c3 =  P587;
+    } else if (mu==2) {
+      c1 = -P559;
+      c2 =  P587;
+      c3 = -P951;
+    } else if (mu==3) {
+      c1 = -P559;
+      c2 = -P587;
+      c3 =  P951;
+    } else { 
+      c1 =  P559;
+      c2 = -P951;
+      c3 = -P587;
+    }
+    for (int i=0; i<m; ++i) {
+      float[] zj0 = z[j0];
+      float[] zj1 = z[j1];
+      float[] zj2 = z[j2];
+      float[] zj3 = z[j3];
+      float[] zj4 = z[j4];
+      int i1 = 2*k1;
+      for (int l1=i1+S.loopBound(m1-i1); i1<l1; i1+=NS) {
+        FloatVector z0 = FloatVector.fromArray(S,zj0,i1);
+        FloatVector z1 = FloatVector.fromArray(S,zj1,i1);
+        FloatVector z2 = FloatVector.fromArray(S,zj2,i1);
+        FloatVector z3 = FloatVector.fromArray(S,zj3,i1);
+        FloatVector z4 = FloatVector.fromArray(S,zj4,i1);
+        FloatVector t1 = z1.add(z4);
+        FloatVector t2 = z2.add(z3);
+        FloatVector t3 = z1.sub(z4);
+        FloatVector t4 = z2.sub(z3);
+        FloatVector t5 = t1.add(t2);
+        FloatVector t6 = t1.sub(t2).mul(c1);
+        FloatVector t7 = z0.sub(t5.mul(0.25f));
+        FloatVector y1 = t7.add(t6);
+        FloatVector y2 = t7.sub(t6);
+        FloatVector y3 = t3.mul(c3).sub(t4.mul(c2));
+        FloatVector y4 = t3.mul(c2).add(t4.mul(c3));
+        z0.add(t5).intoArray(zj0,i1);
+        y1.add(y4.rearrange(SWAP).mul(PM)).intoArray(zj1,i1);
+        y2.add(y3.rearrange(SWAP).mul(PM)).intoArray(zj2,i1);
+        y2.add(y3.rearrange(SWAP).mul(MP)).intoArray(zj3,i1);
+        y1.add(y4.rearrange(SWAP).mul(MP)).intoArray(zj4,i1);
+      }
+      for (; i1<m1; i1+=2) {
+        float t1r = zj1[i1  ]+zj4[i1  ];
+        float t1i = zj1[i1+1]+zj4[i1+1];
+        float t2r = zj2[i1  ]+zj3[i1  ];
+        float t2i = zj2[i1+1]+zj3[i1+1];
+        float t3r = zj1[i1  ]-zj4[i1  ];
+        float t3i = zj1[i1+1]-zj4[i1+1];
+        float t4r = zj2[i1  ]-zj3[i1  ];
+        float t4i = zj2[i1+1]-zj3[i1+1];
+        float t5r = t1r+t2r;
+        float t5i = t1i+t2i;
+        float t6r = c1*(t1r-t2r);
+        float t6i = c1*(t1i-t2i);
+        float t7r = zj0[i1  ]-0.25f*t5r;
+        float t7i = zj0[i1+1]-0.25f*t5i;
+        float y1r = t7r+t6r;
+        float y1i = t7i+t6i;
+        float y2r = t7r-t6r;
+        float y2i = t7i-t6i;
+        float y3r = c3*t3r-c2*t4r;
+        float y3i = c3*t3i-c2*t4i;
+        float y4r = c2*t3r+c3*t4r;
+        float y4i = c2*t3i+c3*t4i;
+        zj0[i1  ] = zj0[i1  ]+t5r;
+        zj0[i1+1] = zj0[i1+1]+t5i;
+        zj1[i1  ] = y1r-y4i;
+        zj1[i1+1] = y1i+y4r;
+        zj2[i1  ] = y2r-y3i;
+        zj2[i1+1] = y2i+y3r;
+        zj3[i1  ] = y2r+y3i;
+        zj3[i1+1] = y2i-y3r;
+        zj4[i1  ] = y1r+y4i;
+        zj4[i1+1] = y1i-y4r;
+      }
+      int jt = j4+1;
+      j4 = j3+1;
+      j3 = j2+1;
+      j2 = j1+1;
+      j1 = j0+1;
+      j0 = jt;
+    }
+  }
+  private static void pfa7a(int k1, int n1, float[][] z, int mu, int m,
+    int j0, int j1, int j2, int j3, int j4, int j5, int j6)
+  {
+    int m1 = 2*n1;
+    float c1,c2,c3,c4,c5,c6;
+    if (mu==1) {
+      c1 =  P623;
+      c2 = -P222;
+      c3 = -P900;
+      c4 =  P781;
+      c5 =  P974;
+      c6 =  P433;
+    } else if (mu==2) {
+      c1 = -P222;
+      c2 = -P900;
+      c3 =  P623;
+      c4 =  P974;
+      c5 = -P433;
+      c6 = -P781;
+    } else if (mu==3) {
+      c1 = -P900;
+      c2 =  P623;
+      c3 = -P222;
+      c4 =  P433;
+      c5 = -P781;
+      c6 =  P974;
+    } else if (mu==4) {
+      c1 = -P900;
+      c2 =  P623;
+      c3 = -P222;
+      c4 = -P433;
+      c5 =  P781;
+      c6 = -P974;
+    } else if (mu==5) {
+      c1 = -P222;
+      c2 = -P900;
+      c3 =  P623;
+      c4 = -P974;
+      c5 =  P433;
+      c6 =  P781;
+    } else {
+      c1 =  P623;
+      c2 = -P222;
+      c3 = -P900;
+      c4 = -P781;
+      c5 = -P974;
+      c6 = -P433;
+    }
+    for (int i=0; i<m; ++i) {
+      float[] zj0 = z[j0];
+      float[] zj1 = z[j1];
+      float[] zj2 = z[j2];
+      float[] zj3 = z[j3];
+      float[] zj4 = z[j4];
+      float[] zj5 = z[j5];
+      float[] zj6 = z[j6];
+      int i1 = 2*k1;
+      for (int l1=i1+S.loopBound(m1-i1); i1<l1; i1+=NS) {
+        FloatVector z0 = FloatVector.fromArray(S,zj0,i1);
+        FloatVector z1 = FloatVector.fromArray(S,zj1,i1);
+        FloatVector z2 = FloatVector.fromArray(S,zj2,i1);
+        FloatVector z3 = FloatVector.fromArray(S,zj3,i1);
+        FloatVector z4 = FloatVector.fromArray(S,zj4,i1);
+        FloatVector z5 = FloatVector.fromArray(S,zj5,i1);
+        FloatVector z6 = FloatVector.fromArray(S,zj6,i1);
+        FloatVector t1 = z1.add(z6);
+        FloatVector t2 = z2.add(z5);
+        FloatVector t3 = z3.add(z4);
+        FloatVector t4 = z1.sub(z6);
+        FloatVector t5 = z2.sub(z5);
+        FloatVector t6 = z3.sub(z4);
+        FloatVector t7 = z0.sub(t3.mul(0.5f));
+        FloatVector t8 = t1.sub(t3);
+        FloatVector t9 = t2.sub(t3);
+        FloatVector y1 = t7.add(t8.mul(c1)).add(t9.mul(c2));
+        FloatVector y2 = t7.add(t8.mul(c2)).add(t9.mul(c3));
+        FloatVector y3 = t7.add(t8.mul(c3)).add(t9.mul(c1));
+        FloatVector y4 = t4.mul(c6).sub(t5.mul(c4)).add(t6.mul(c5));
+        FloatVector y5 = t4.mul(c5).sub(t5.mul(c6)).sub(t6.mul(c4));
+        FloatVector y6 = t4.mul(c4).add(t5.mul(c5)).add(t6.mul(c6));
+        z0.add(t1).add(t2).add(t3).intoArray(zj0,i1);
+        y1.add(y6.rearrange(SWAP).mul(PM)).intoArray(zj1,i1);
+        y2.add(y5.rearrange(SWAP).mul(PM)).intoArray(zj2,i1);
+        y3.add(y4.rearrange(SWAP).mul(PM)).intoArray(zj3,i1);
+        y3.add(y4.rearrange(SWAP).mul(MP)).intoArray(zj4,i1);
+        y2.add(y5.rearrange(SWAP).mul(MP)).intoArray(zj5,i1);
+        y1.add(y6.rearrange(SWAP).mul(MP)).intoArray(zj6,i1);
+      }
+      for (; i1<m1; i1+=2) {
+        float t1r = zj1[i1  ]+zj6[i1  ];
+        float t1i = zj1[i1+1]+zj6[i1+1];
+        float t2r = zj2[i1  ]+zj5[i1  ];
+        float t2i = zj2[i1+1]+zj5[i1+1];
+        float t3r = zj3[i1  ]+zj4[i1  ];
+        float t3i = zj3[i1+1]+zj4[i1+1];
+        float t4r = zj1[i1  ]-zj6[i1  ];
+        float t4i = zj1[i1+1]-zj6[i1+1];
+        float t5r = zj2[i1  ]-zj5[i1  ];
+        float t5i = zj2[i1+1]-zj5[i1+1];
+        float t6r = zj3[i1  ]-zj4[i1  ];
+        float t6i = zj3[i1+1]-zj4[i1+1];
+        float t7r = zj0[i1  ]-0.5f*t3r;
+        float t7i = zj0[i1+1]-0.5f*t3i;
+        float t8r = t1r-t3r;
+        float t8i = t1i-t3i;
+        float t9r = t2r-t3r;
+        float t9i = t2i-t3i;
+        float y1r = t7r+c1*t8r+c2*t9r;
+        float y1i = t7i+c1*t8i+c2*t9i;
+        float y2r = t7r+c2*t8r+c3*t9r;
+        float y2i = t7i+c2*t8i+c3*t9i;
+        float y3r = t7r+c3*t8r+c1*t9r;
+        float y3i = t7i+c3*t8i+c1*t9i;
+        float y4r = c6*t4r-c4*t5r+c5*t6r;
+        float y4i = c6*t4i-c4*t5i+c5*t6i;
+        float y5r = c5*t4r-c6*t5r-c4*t6r;
+        float y5i = c5*t4i-c6*t5i-c4*t6i;
+        float y6r = c4*t4r+c5*t5r+c6*t6r;
+        float y6i = c4*t4i+c5*t5i+c6*t6i;
+        zj0[i1  ] = zj0[i1  ]+t1r+t2r+t3r;
+        zj0[i1+1] = zj0[i1+1]+t1i+t2i+t3i;
+        zj1[i1  ] = y1r-y6i;
+        zj1[i1+1] = y1i+y6r;
+        zj2[i1  ] = y2r-y5i;
+        zj2[i1+1] = y2i+y5r;
+        zj3[i1  ] = y3r-y4i;
+        zj3[i1+1] = y3i+y4r;
+        zj4[i1  ] = y3r+y4i;
+        zj4[i1+1] = y3i-y4r;
+        zj5[i1  ] = y2r+y5i;
+        zj5[i1+1] = y2i-y5r;
+        zj6[i1  ] = y1r+y6i;
+        zj6[i1+1] = y1i-y6r;
+      }
+      int jt = j6+1;
+      j6 = j5+1;
+      j5 = j4+1;
+      j4 = j3+1;
+      j3 = j2+1;
+      j2 = j1+1;
+      j1 = j0+1;
+      j0 = jt;
+    }
+  }
+  private static void pfa8a(int k1, int n1, float[][] z, int mu, int m,
+    int j0, int j1, int j2, int j3, int j4, int j5, int j6, int j7)
+  {
+    int m1 = 2*n1;
+    float c1,c2,c3;
+    if (mu==1) {
+      c1 =  PONE;
+      c2 =  P707;
+    } else if (mu==3) {
+      c1 = -PONE;
+      c2 = -P707;
+    } else if (mu==5) {
+      c1 =  PONE;
+      c2 = -P707;
+    } else {
+      c1 = -PONE;
+      c2 =  P707;
+    }
+    c3 = c1*c2;
+    for (int i=0; i<m; ++i) {
+      float[] zj0 = z[j0];
+      float[] zj1 = z[j1];
+      float[] zj2 = z[j2];
+      float[] zj3 = z[j3];
+      float[] zj4 = z[j4];
+      float[] zj5 = z[j5];
+      float[] zj6 = z[j6];
+      float[] zj7 = z[j7];
+      int i1 = 2*k1;
+      for (int l1=i1+S.loopBound(m1-i1); i1<l1; i1+=NS) {
+        FloatVector z0 = FloatVector.fromArray(S,zj0,i1);
+        FloatVector z1 = FloatVector.fromArray(S,zj1,i1);
+        FloatVector z2 = FloatVector.fromArray(S,zj2,i1);
+        FloatVector z3 = FloatVector.fromArray(S,zj3,i1);
+        FloatVector z4 = FloatVector.fromArray(S,zj4,i1);
+        FloatVector z5 = FloatVector.fromArray(S,zj5,i1);
+        FloatVector z6 = FloatVector.fromArray(S,zj6,i1);
+        FloatVector z7 = FloatVector.fromArray(S,zj7,i1);
+        FloatVector t1 = z0.add(z4);
+        FloatVector t2 = z0.sub(z4);
+        FloatVector t3 = z1.add(z5);
+        FloatVector t4 = z1.sub(z5);
+        FloatVector t5 = z2.add(z6);
+        FloatVector t6 = z2.sub(z6).mul(c1);
+        FloatVector t7 = z3.add(z7);
+        FloatVector t8 = z3.sub(z7);
+        FloatVector t9 = t1.add(t5);
+        FloatVector t10 = t3.add(t7);
+        FloatVector t11 = t4.sub(t8).mul(c2);
+        FloatVector t12 = t4.add(t8).mul(c3);
+        FloatVector y1 = t2.add(t11);
+        FloatVector y2 = t1.sub(t5);
+        FloatVector y3 = t2.sub(t11);
+        FloatVector y5 = t12.sub(t6);
+        FloatVector y6 = t3.sub(t7).mul(c1);
+        FloatVector y7 = t12.add(t6);
+        t9.add(t10).intoArray(zj0,i1);
+        y1.add(y7.rearrange(SWAP).mul(PM)).intoArray(zj1,i1);
+        y2.add(y6.rearrange(SWAP).mul(PM)).intoArray(zj2,i1);
+        y3.add(y5.rearrange(SWAP).mul(PM)).intoArray(zj3,i1);
+        t9.sub(t10).intoArray(zj4,i1);
+        y3.add(y5.rearrange(SWAP).mul(MP)).intoArray(zj5,i1);
+        y2.add(y6.rearrange(SWAP).mul(MP)).intoArray(zj6,i1);
+        y1.add(y7.rearrange(SWAP).mul(MP)).intoArray(zj7,i1);
+      }
+      for (; i1<m1; i1+=2) {
+        float t1r = zj0[i1  ]+zj4[i1  ];
+        float t1i = zj0[i1+1]+zj4[i1+1];
+        float t2r = zj0[i1  ]-zj4[i1  ];
+        float t2i = zj0[i1+1]-zj4[i1+1];
+        float t3r = zj1[i1  ]+zj5[i1  ];
+        float t3i = zj1[i1+1]+zj5[i1+1];
+        float t4r = zj1[i1  ]-zj5[i1  ];
+        float t4i = zj1[i1+1]-zj5[i1+1];
+        float t5r = zj2[i1  ]+zj6[i1  ];
+        float t5i = zj2[i1+1]+zj6[i1+1];
+        float t6r = c1*(zj2[i1  ]-zj6[i1  ]);
+        float t6i = c1*(zj2[i1+1]-zj6[i1+1]);
+        float t7r = zj3[i1  ]+zj7[i1  ];
+        float t7i = zj3[i1+1]+zj7[i1+1];
+        float t8r = zj3[i1  ]-zj7[i1  ];
+        float t8i = zj3[i1+1]-zj7[i1+1];
+        float t9r = t1r+t5r;
+        float t9i = t1i+t5i;
+        float t10r = t3r+t7r;
+        float t10i = t3i+t7i;
+        float t11r = c2*(t4r-t8r);
+        float t11i = c2*(t4i-t8i);
+        float t12r = c3*(t4r+t8r);
+        float t12i = c3*(t4i+t8i);
+        float y1r = t2r+t11r;
+        float y1i = t2i+t11i;
+        float y2r = t1r-t5r;
+        float y2i = t1i-t5i;
+        float y3r = t2r-t11r;
+        float y3i = t2i-t11i;
+        float y5r = t12r-t6r;
+        float y5i = t12i-t6i;
+        float y6r = c1*(t3r-t7r);
+        float y6i = c1*(t3i-t7i);
+        float y7r = t12r+t6r;
+        float y7i = t12i+t6i;
+        zj0[i1  ] = t9r+t10r;
+        zj0[i1+1] = t9i+t10i;
+        zj1[i1  ] = y1r-y7i;
+        zj1[i1+1] = y1i+y7r;
+        zj2[i1  ] = y2r-y6i;
+        zj2[i1+1] = y2i+y6r;
+        zj3[i1  ] = y3r-y5i;
+        zj3[i1+1] = y3i+y5r;
+        zj4[i1  ] = t9r-t10r;
+        zj4[i1+1] = t9i-t10i;
+        zj5[i1  ] = y3r+y5i;
+        zj5[i1+1] = y3i-y5r;
+        zj6[i1  ] = y2r+y6i;
+        zj6[i1+1] = y2i-y6r;
+        zj7[i1  ] = y1r+y7i;
+        zj7[i1+1] = y1i-y7r;
+      }
+      int jt = j7+1;
+      j7 = j6+1;
+      j6 = j5+1;
+      j5 = j4+1;
+      j4 = j3+1;
+      j3 = j2+1;
+      j2 = j1+1;
+      j1 = j0+1;
+      j0 = jt;
+    }
+  }
+  private static void pfa9a(int k1, int n1, float[][] z, int mu, int m,
+    int j0, int j1, int j2, int j3, int j4, int j5, int j6, int j7, int j8)
+  {
+    int m1 = 2*n1;
+    float c1,c2,c3,c4,c5,c6,c7,c8,c9;
+    if (mu==1) {
+      c1 =  P866;
+      c2 =  P766;
+      c3 =  P642;
+      c4 =  P173;
+      c5 =  P984;
+    } else if (mu==2) {
+      c1 = -P866;
+      c2 =  P173;
+      c3 =  P984;
+      c4 = -P939;
+      c5 =  P342;
+    } else if (mu==4) {
+      c1 =  P866;
+      c2 = -P939;
+      c3 =  P342;
+      c4 =  P766;
+      c5 = -P642;
+    } else if (mu==5) {
+      c1 = -P866;
+      c2 = -P939;
+      c3 = -P342;
+      c4 =  P766;
+      c5 =  P642;
+    } else if (mu==7) {
+      c1 =  P866;
+      c2 =  P173;
+      c3 = -P984;
+      c4 = -P939;
+      c5 = -P342;
+    } else {
+      c1 = -P866;
+      c2 =  P766;
+      c3 = -P642;
+      c4 =  P173;
+      c5 = -P984;
+    }
+    c6 = c1*c2;
+    c7 = c1*c3;
+    c8 = c1*c4;
+    c9 = c1*c5;
+    for (int i=0; i<m; ++i) {
+      float[] zj0 = z[j0];
+      float[] zj1 = z[j1];
+      float[] zj2 = z[j2];
+      float[] zj3 = z[j3];
+      float[] zj4 = z[j4];
+      float[] zj5 = z[j5];
+      float[] zj6 = z[j6];
+      float[] zj7 = z[j7];
+      float[] zj8 = z[j8];
+      int i1 = 2*k1;
+      for (int l1=i1+S.loopBound(m1-i1); i1<l1; i1+=NS) {
+        FloatVector z0 = FloatVector.fromArray(S,zj0,i1);
+        FloatVector z1 = FloatVector.fromArray(S,zj1,i1);
+        FloatVector z2 = FloatVector.fromArray(S,zj2,i1);
+        FloatVector z3 = FloatVector.fromArray(S,zj3,i1);
+        FloatVector z4 = FloatVector.fromArray(S,zj4,i1);
+        FloatVector z5 = FloatVector.fromArray(S,zj5,i1);
+        FloatVector z6 = FloatVector.fromArray(S,zj6,i1);
+        FloatVector z7 = FloatVector.fromArray(S,zj7,i1);
+        FloatVector z8 = FloatVector.fromArray(S,zj8,i1);
+        FloatVector t1 = z3.add(z6);
+        FloatVector t2 = z0.sub(t1.mul(0.5f));
+        FloatVector t3 = z3.sub(z6).mul(c1);
+        FloatVector t4 = z0.add(t1);
+        FloatVector t5 = z4.add(z7);
+        FloatVector t6 = z1.sub(t5.mul(0.5f));
+        FloatVector t7 = z4.sub(z7);
+        FloatVector t8 = z1.add(t5);
+        FloatVector t9 = z2.add(z5);
+        FloatVector t10 = z8.sub(t9.mul(0.5f));
+        FloatVector t11 = z2.sub(z5);
+        FloatVector t12 = z8.add(t9);
+        FloatVector t13 = t8.add(t12);
+        FloatVector t14 = t6.add(t10);
+        FloatVector t15 = t6.sub(t10);
+        FloatVector t16 = t7.add(t11);
+        FloatVector t17 = t7.sub(t11);
+        FloatVector t18 = t14.mul(c2).sub(t17.mul(c7));
+        FloatVector t19 = t14.mul(c4).add(t17.mul(c9));
+        FloatVector t20 = t15.mul(c3).add(t16.mul(c6));
+        FloatVector t21 = t15.mul(c5).sub(t16.mul(c8));
+        FloatVector t22 = t18.add(t19);
+        FloatVector t23 = t20.sub(t21);
+        FloatVector y1 = t2.add(t18);
+        FloatVector y2 = t2.add(t19);
+        FloatVector y3 = t4.sub(t13.mul(0.5f));
+        FloatVector y4 = t2.sub(t22);
+        FloatVector y5 = t3.sub(t23);
+        FloatVector y6 = t8.sub(t12).mul(c1);
+        FloatVector y7 = t21.sub(t3);
+        FloatVector y8 = t3.add(t20);
+        t4.add(t13).intoArray(zj0,i1);
+        y1.add(y8.rearrange(SWAP).mul(PM)).intoArray(zj1,i1);
+        y2.add(y7.rearrange(SWAP).mul(PM)).intoArray(zj2,i1);
+        y3.add(y6.rearrange(SWAP).mul(PM)).intoArray(zj3,i1);
+        y4.add(y5.rearrange(SWAP).mul(PM)).intoArray(zj4,i1);
+        y4.add(y5.rearrange(SWAP).mul(MP)).intoArray(zj5,i1);
+        y3.add(y6.rearrange(SWAP).mul(MP)).intoArray(zj6,i1);
+        y2.add(y7.rearrange(SWAP).mul(MP)).intoArray(zj7,i1);
+        y1.add(y8.rearrange(SWAP).mul(MP)).intoArray(zj8,i1);
+      }
+      for (; i1<m1; i1+=2) {
+        float t1r  = zj3[i1  ]+zj6[i1  ];
+        float t1i  = zj3[i1+1]+zj6[i1+1];
+        float t2r  = zj0[i1  ]-0.5f*t1r;
+        float t2i  = zj0[i1+1]-0.5f*t1i;
+        float t3r  = c1*(zj3[i1  ]-zj6[i1  ]);
+        float t3i  = c1*(zj3[i1+1]-zj6[i1+1]);
+        float t4r  = zj0[i1  ]+t1r;
+        float t4i  = zj0[i1+1]+t1i;
+        float t5r  = zj4[i1  ]+zj7[i1  ];
+        float t5i  = zj4[i1+1]+zj7[i1+1];
+        float t6r  = zj1[i1  ]-0.5f*t5r;
+        float t6i  = zj1[i1+1]-0.5f*t5i;
+        float t7r  = zj4[i1  ]-zj7[i1  ];
+        float t7i  = zj4[i1+1]-zj7[i1+1];
+        float t8r  = zj1[i1  ]+t5r;
+        float t8i  = zj1[i1+1]+t5i;
+        float t9r  = zj2[i1  ]+zj5[i1  ];
+        float t9i  = zj2[i1+1]+zj5[i1+1];
+        float t10r = zj8[i1  ]-0.5f*t9r;
+        float t10i = zj8[i1+1]-0.5f*t9i;
+        float t11r = zj2[i1  ]-zj5[i1  ];
+        float t11i = zj2[i1+1]-zj5[i1+1];
+        float t12r = zj8[i1  ]+t9r;
+        float t12i = zj8[i1+1]+t9i;
+        float t13r = t8r+t12r;
+        float t13i = t8i+t12i;
+        float t14r = t6r+t10r;
+        float t14i = t6i+t10i;
+        float t15r = t6r-t10r;
+        float t15i = t6i-t10i;
+        float t16r = t7r+t11r;
+        float t16i = t7i+t11i;
+        float t17r = t7r-t11r;
+        float t17i = t7i-t11i;
+        float t18r = c2*t14r-c7*t17r;
+        float t18i = c2*t14i-c7*t17i;
+        float t19r = c4*t14r+c9*t17r;
+        float t19i = c4*t14i+c9*t17i;
+        float t20r = c3*t15r+c6*t16r;
+        float t20i = c3*t15i+c6*t16i;
+        float t21r = c5*t15r-c8*t16r;
+        float t21i = c5*t15i-c8*t16i;
+        float t22r = t18r+t19r;
+        float t22i = t18i+t19i;
+        float t23r = t20r-t21r;
+        float t23i = t20i-t21i;
+        float y1r  = t2r+t18r;
+        float y1i  = t2i+t18i;
+        float y2r  = t2r+t19r;
+        float y2i  = t2i+t19i;
+        float y3r  = t4r-0.5f*t13r;
+        float y3i  = t4i-0.5f*t13i;
+        float y4r  = t2r-t22r;
+        float y4i  = t2i-t22i;
+        float y5r  = t3r-t23r;
+        float y5i  = t3i-t23i;
+        float y6r  = c1*(t8r-t12r);
+        float y6i  = c1*(t8i-t12i);
+        float y7r  = t21r-t3r;
+        float y7i  = t21i-t3i;
+        float y8r  = t3r+t20r;
+        float y8i  = t3i+t20i;
+        zj0[i1  ] = t4r+t13r;
+        zj0[i1+1] = t4i+t13i;
+        zj1[i1  ] = y1r-y8i;
+        zj1[i1+1] = y1i+y8r;
+        zj2[i1  ] = y2r-y7i;
+        zj2[i1+1] = y2i+y7r;
+        zj3[i1  ] = y3r-y6i;
+        zj3[i1+1] = y3i+y6r;
+        zj4[i1  ] = y4r-y5i;
+        zj4[i1+1] = y4i+y5r;
+        zj5[i1  ] = y4r+y5i;
+        zj5[i1+1] = y4i-y5r;
+        zj6[i1  ] = y3r+y6i;
+        zj6[i1+1] = y3i-y6r;
+        zj7[i1  ] = y2r+y7i;
+        zj7[i1+1] = y2i-y7r;
+        zj8[i1  ] = y1r+y8i;
+        zj8[i1+1] = y1i-y8r;
+      }
+      int jt = j8+1;
+      j8 = j7+1;
+      j7 = j6+1;
+      j6 = j5+1;
+      j5 = j4+1;
+      j4 = j3+1;
+      j3 = j2+1;
+      j2 = j1+1;
+      j1 = j0+1;
+      j0 = jt;
+    }
+  }
+  private static void pfa11a(int k1, int n1, float[][] z, int mu, int m,
+    int j0, int j1, int j2, int j3, int j4, int j5, 
+    int j6, int j7, int j8, int j9, int j10)
+  {
+    int m1 = 2*n1;
+    float c1,c2,c3,c4,c5,c6,c7,c8,c9,c10;
+    if (mu==1) {
+      c1  =  P841;
+      c2  =  P415;
+      c3  = -P142;
+      c4  = -P654;
+      c5  = -P959;
+      c6  =  P540;
+      c7  =  P909;
+      c8  =  P989;
+      c9  =  P755;
+      c10 =  P281;
+    } else if (mu==2) {
+      c1  =  P415;
+      c2  = -P654;
+      c3  = -P959;
+      c4  = -P142;
+      c5  =  P841;
+      c6  =  P909;
+      c7  =  P755;
+      c8  = -P281;
+      c9  = -P989;
+      c10 = -P540;
+    } else if (mu==3) {
+      c1  = -P142;
+      c2  = -P959;
+      c3  =  P415;
+      c4  =  P841;
+      c5  = -P654;
+      c6  =  P989;
+      c7  = -P281;
+      c8  = -P909;
+      c9  =  P540;
+      c10 =  P755;
+    } else if (mu==4) {
+      c1  = -P654;
+      c2  = -P142;
+      c3  =  P841;
+      c4  = -P959;
+      c5  =  P415;
+      c6  =  P755;
+      c7  = -P989;
+      c8  =  P540;
+      c9  =  P281;
+      c10 = -P909;
+    } else if (mu==5) {
+      c1  = -P959;
+      c2  =  P841;
+      c3  = -P654;
+      c4  =  P415;
+      c5  = -P142;
+      c6  =  P281;
+      c7  = -P540;
+      c8  =  P755;
+      c9  = -P909;
+      c10 =  P989;
+    } else if (mu==6) {
+      c1  = -P959;
+      c2  =  P841;
+      c3  = -P654;
+      c4  =  P415;
+      c5  = -P142;
+      c6  = -P281;
+      c7  =  P540;
+      c8  = -P755;
+      c9  =  P909;
+      c10 = -P989;
+    } else if (mu==7) {
+      c1  = -P654;
+      c2  = -P142;
+      c3  =  P841;
+      c4  = -P959;
+      c5  =  P415;
+      c6  = -P755;
+      c7  =  P989;
+      c8  = -P540;
+      c9  = -P281;
+      c10 =  P909;
+    } else if (mu==8) {
+      c1  = -P142;
+      c2  = -P959;
+      c3  =  P415;
+      c4  =  P841;
+      c5  = -P654;
+      c6  = -P989;
+      c7  =  P281;
+      c8  =  P909;
+      c9  = -P540;
+      c10 = -P755;
+    } else if (mu==9) {
+      c1  =  P415;
+      c2  = -P654;
+      c3  = -P959;
+      c4  = -P142;
+      c5  =  P841;
+      c6  = -P909;
+      c7  = -P755;
+      c8  =  P281;
+      c9  =  P989;
+      c10 =  P540;
+    } else {
+      c1  =  P841;
+      c2  =  P415;
+      c3  = -P142;
+      c4  = -P654;
+      c5  = -P959;
+      c6  = -P540;
+      c7  = -P909;
+      c8  = -P989;
+      c9  = -P755;
+      c10 = -P281;
+    }
+    for (int i=0; i<m; ++i) {
+      float[] zj0 = z[j0];
+      float[] zj1 = z[j1];
+      float[] zj2 = z[j2];
+      float[] zj3 = z[j3];
+      float[] zj4 = z[j4];
+      float[] zj5 = z[j5];
+      float[] zj6 = z[j6];
+      float[] zj7 = z[j7];
+      float[] zj8 = z[j8];
+      float[] zj9 = z[j9];
+      float[] zj10 = z[j10];
+      int i1 = 2*k1;
+      for (int l1=i1+S.loopBound(m1-i1); i1<l1; i1+=NS) {
+        FloatVector z0 = FloatVector.fromArray(S,zj0,i1);
+        FloatVector z1 = FloatVector.fromArray(S,zj1,i1);
+        FloatVector z2 = FloatVector.fromArray(S,zj2,i1);
+        FloatVector z3 = FloatVector.fromArray(S,zj3,i1);
+        FloatVector z4 = FloatVector.fromArray(S,zj4,i1);
+        FloatVector z5 = FloatVector.fromArray(S,zj5,i1);
+        FloatVector z6 = FloatVector.fromArray(S,zj6,i1);
+        FloatVector z7 = FloatVector.fromArray(S,zj7,i1);
+        FloatVector z8 = FloatVector.fromArray(S,zj8,i1);
+        FloatVector z9 = FloatVector.fromArray(S,zj9,i1);
+        FloatVector z10 = FloatVector.fromArray(S,zj10,i1);
+        FloatVector t1 = z1.add(z10);
+        FloatVector t2 = z2.add(z9);
+        FloatVector t3 = z3.add(z8);
+        FloatVector t4 = z4.add(z7);
+        FloatVector t5 = z5.add(z6);
+        FloatVector t6 = z1.sub(z10);
+        FloatVector t7 = z2.sub(z9);
+        FloatVector t8 = z3.sub(z8);
+        FloatVector t9 = z4.sub(z7);
+        FloatVector t10 = z5.sub(z6);
+        FloatVector t11 = z0.sub(t5.mul(0.5f));
+        FloatVector t12 = t1.sub(t5);
+        FloatVector t13 = t2.sub(t5);
+        FloatVector t14 = t3.sub(t5);
+        FloatVector t15 = t4.sub(t5);
+        FloatVector y1 = t11.add(t12.mul(c1)).add(t13.mul(c2)).add(t14.mul(c3))
+            .add(t15.mul(c4));
+        FloatVector y2 = t11.add(t12.mul(c2)).add(t13.mul(c4)).add(t14.mul(c5))
+            .add(t15.mul(c3));
+        FloatVector y3 = t11.add(t12.mul(c3)).add(t13.mul(c5)).add(t14.mul(c2))
+            .add(t15.mul(c1));
+        FloatVector y4 = t11.add(t12.mul(c4)).add(t13.mul(c3)).add(t14.mul(c1))
+            .add(t15.mul(c5));
+        FloatVector y5 = t11.add(t12.mul(c5)).add(t13.mul(c1)).add(t14.mul(c4))
+            .add(t15.mul(c2));
+        FloatVector y6 = t6.mul(c10).sub(t7.mul(c6)).add(t8.mul(c9))
+            .sub(t9.mul(c7)).add(t10.mul(c8));
+        FloatVector y7 = t6.mul(c9).sub(t7.mul(c8)).add(t8.mul(c6))
+            .add(t9.mul(c10)).sub(t10.mul(c7));
+        FloatVector y8 = t6.mul(c8).sub(t7.mul(c10)).sub(t8.mul(c7))
+            .add(t9.mul(c6)).add(t10.mul(c9));
+        FloatVector y9 = t6.mul(c7).add(t7.mul(c9)).sub(t8.mul(c10))
+            .sub(t9.mul(c8)).sub(t10.mul(c6));
+        FloatVector y10 = t6.mul(c6).add(t7.mul(c7)).add(t8.mul(c8))
+            .add(t9.mul(c9)).add(t10.mul(c10));
+        z0.add(t1).add(t2).add(t3).add(t4).add(t5).intoArray(zj0,i1);
+        y1.add(y10.rearrange(SWAP).mul(PM)).intoArray(zj1,i1);
+        y2.add(y9.rearrange(SWAP).mul(PM)).intoArray(zj2,i1);
+        y3.add(y8.rearrange(SWAP).mul(PM)).intoArray(zj3,i1);
+        y4.add(y7.rearrange(SWAP).mul(PM)).intoArray(zj4,i1);
+        y5.add(y6.rearrange(SWAP).mul(PM)).intoArray(zj5,i1);
+        y5.add(y6.rearrange(SWAP).mul(MP)).intoArray(zj6,i1);
+        y4.add(y7.rearrange(SWAP).mul(MP)).intoArray(zj7,i1);
+        y3.add(y8.rearrange(SWAP).mul(MP)).intoArray(zj8,i1);
+        y2.add(y9.rearrange(SWAP).mul(MP)).intoArray(zj9,i1);
+        y1.add(y10.rearrange(SWAP).mul(MP)).intoArray(zj10,i1);
+      }
+      for (; i1<m1; i1+=2) {
+        float t1r  = zj1[i1  ]+zj10[i1  ];
+        float t1i  = zj1[i1+1]+zj10[i1+1];
+        float t2r  = zj2[i1  ]+zj9[i1  ];
+        float t2i  = zj2[i1+1]+zj9[i1+1];
+        float t3r  = zj3[i1  ]+zj8[i1  ];
+        float t3i  = zj3[i1+1]+zj8[i1+1];
+        float t4r  = zj4[i1  ]+zj7[i1  ];
+        float t4i  = zj4[i1+1]+zj7[i1+1];
+        float t5r  = zj5[i1  ]+zj6[i1  ];
+        float t5i  = zj5[i1+1]+zj6[i1+1];
+        float t6r  = zj1[i1  ]-zj10[i1  ];
+        float t6i  = zj1[i1+1]-zj10[i1+1];
+        float t7r  = zj2[i1  ]-zj9[i1  ];
+        float t7i  = zj2[i1+1]-zj9[i1+1];
+        float t8r  = zj3[i1  ]-zj8[i1  ];
+        float t8i  = zj3[i1+1]-zj8[i1+1];
+        float t9r  = zj4[i1  ]-zj7[i1  ];
+        float t9i  = zj4[i1+1]-zj7[i1+1];
+        float t10r = zj5[i1  ]-zj6[i1  ];
+        float t10i = zj5[i1+1]-zj6[i1+1];
+        float t11r = zj0[i1  ]-0.5f*t5r;
+        float t11i = zj0[i1+1]-0.5f*t5i;
+        float t12r = t1r-t5r;
+        float t12i = t1i-t5i;
+        float t13r = t2r-t5r;
+        float t13i = t2i-t5i;
+        float t14r = t3r-t5r;
+        float t14i = t3i-t5i;
+        float t15r = t4r-t5r;
+        float t15i = t4i-t5i;
+        float y1r  = t11r+c1*t12r+c2*t13r+c3*t14r+c4*t15r;
+        float y1i  = t11i+c1*t12i+c2*t13i+c3*t14i+c4*t15i;
+        float y2r  = t11r+c2*t12r+c4*t13r+c5*t14r+c3*t15r;
+        float y2i  = t11i+c2*t12i+c4*t13i+c5*t14i+c3*t15i;
+        float y3r  = t11r+c3*t12r+c5*t13r+c2*t14r+c1*t15r;
+        float y3i  = t11i+c3*t12i+c5*t13i+c2*t14i+c1*t15i;
+        float y4r  = t11r+c4*t12r+c3*t13r+c1*t14r+c5*t15r;
+        float y4i  = t11i+c4*t12i+c3*t13i+c1*t14i+c5*t15i;
+        float y5r  = t11r+c5*t12r+c1*t13r+c4*t14r+c2*t15r;
+        float y5i  = t11i+c5*t12i+c1*t13i+c4*t14i+c2*t15i;
+        float y6r  = c10*t6r-c6*t7r+c9*t8r-c7*t9r+c8*t10r;
+        float y6i  = c10*t6i-c6*t7i+c9*t8i-c7*t9i+c8*t10i;
+        float y7r  = c9*t6r-c8*t7r+c6*t8r+c10*t9r-c7*t10r;
+        float y7i  = c9*t6i-c8*t7i+c6*t8i+c10*t9i-c7*t10i;
+        float y8r  = c8*t6r-c10*t7r-c7*t8r+c6*t9r+c9*t10r;
+        float y8i  = c8*t6i-c10*t7i-c7*t8i+c6*t9i+c9*t10i;
+        float y9r  = c7*t6r+c9*t7r-c10*t8r-c8*t9r-c6*t10r;
+        float y9i  = c7*t6i+c9*t7i-c10*t8i-c8*t9i-c6*t10i;
+        float y10r = c6*t6r+c7*t7r+c8*t8r+c9*t9r+c10*t10r;
+        float y10i = c6*t6i+c7*t7i+c8*t8i+c9*t9i+c10*t10i;
+        zj0[i1  ]  = zj0[i1  ]+t1r+t2r+t3r+t4r+t5r;
+        zj0[i1+1]  = zj0[i1+1]+t1i+t2i+t3i+t4i+t5i;
+        zj1[i1  ]  = y1r-y10i;
+        zj1[i1+1]  = y1i+y10r;
+        zj2[i1  ]  = y2r-y9i;
+        zj2[i1+1]  = y2i+y9r;
+        zj3[i1  ]  = y3r-y8i;
+        zj3[i1+1]  = y3i+y8r;
+        zj4[i1  ]  = y4r-y7i;
+        zj4[i1+1]  = y4i+y7r;
+        zj5[i1  ]  = y5r-y6i;
+        zj5[i1+1]  = y5i+y6r;
+        zj6[i1  ]  = y5r+y6i;
+        zj6[i1+1]  = y5i-y6r;
+        zj7[i1  ]  = y4r+y7i;
+        zj7[i1+1]  = y4i-y7r;
+        zj8[i1  ]  = y3r+y8i;
+        zj8[i1+1]  = y3i-y8r;
+        zj9[i1  ]  = y2r+y9i;
+        zj9[i1+1]  = y2i-y9r;
+        zj10[i1  ] = y1r+y10i;
+        zj10[i1+1] = y1i-y10r;
+      }
+      int jt = j10+1;
+      j10 = j9+1;
+      j9 = j8+1;
+      j8 = j7+1;
+      j7 = j6+1;
+      j6 = j5+1;
+      j5 = j4+1;
+      j4 = j3+1;
+      j3 = j2+1;
+      j2 = j1+1;
+      j1 = j0+1;
+      j0 = jt;
+    }
+  }
+  private static void pfa13a(int k1, int n1, float[][] z, int mu, int m,
+    int j0, int j1, int j2, int j3, int j4, int j5, int j6, 
+    int j7, int j8, int j9, int j10, int j11, int j12)
+  {
+    int m1 = 2*n1;
+    float c1,c2,c3,c4,c5,c6,c7,c8,c9,c10,c11,c12;
+    if (mu==1) {
+      c1  =  P885;
+      c2  =  P568;
+      c3  =  P120;
+      c4  = -P354;
+      c5  = -P748;
+      c6  = -P970;
+      c7  =  P464;
+      c8  =  P822;
+      c9  =  P992;
+      c10 =  P935;
+      c11 =  P663;
+      c12 =  P239;
+    } else if (mu==2) {
+      c1  =  P568;
+      c2  = -P354;
+      c3  = -P970;
+      c4  = -P748;
+      c5  =  P120;
+      c6  =  P885;
+      c7  =  P822;
+      c8  =  P935;
+      c9  =  P239;
+      c10 = -P663;
+      c11 = -P992;
+      c12 = -P464;
+    } else if (mu==3) {
+      c1  =  P120;
+      c2  = -P970;
+      c3  = -P354;
+      c4  =  P885;
+      c5  =  P568;
+      c6  = -P748;
+      c7  =  P992;
+      c8  =  P239;
+      c9  = -P935;
+      c10 = -P464;
+      c11 =  P822;
+      c12 =  P663;
+    } else if (mu==4) {
+      c1  = -P354;
+      c2  = -P748;
+      c3  =  P885;
+      c4  =  P120;
+      c5  = -P970;
+      c6  =  P568;
+      c7  =  P935;
+      c8  = -P663;
+      c9  = -P464;
+      c10 =  P992;
+      c11 = -P239;
+      c12 = -P822;
+    } else if (mu==5) {
+      c1  = -P748;
+      c2  =  P120;
+      c3  =  P568;
+      c4  = -P970;
+      c5  =  P885;
+      c6  = -P354;
+      c7  =  P663;
+      c8  = -P992;
+      c9  =  P822;
+      c10 = -P239;
+      c11 = -P464;
+      c12 =  P935;
+    } else if (mu==6) {
+      c1  = -P970;
+      c2  =  P885;
+      c3  = -P748;
+      c4  =  P568;
+      c5  = -P354;
+      c6  =  P120;
+      c7  =  P239;
+      c8  = -P464;
+      c9  =  P663;
+      c10 = -P822;
+      c11 =  P935;
+      c12 = -P992;
+    } else if (mu==7) {
+      c1  = -P970;
+      c2  =  P885;
+      c3  = -P748;
+      c4  =  P568;
+      c5  = -P354;
+      c6  =  P120;
+      c7  = -P239;
+      c8  =  P464;
+      c9  = -P663;
+      c10 =  P822;
+      c11 = -P935;
+      c12 =  P992;
+    } else if (mu==8) {
+      c1  = -P748;
+      c2  =  P120;
+      c3  =  P568;
+      c4  = -P970;
+      c5  =  P885;
+      c6  = -P354;
+      c7  = -P663;
+      c8  =  P992;
+      c9  = -P822;
+      c10 =  P239;
+      c11 =  P464;
+      c12 = -P935;
+    } else if (mu==9) {
+      c1  = -P354;
+      c2  = -P748;
+      c3  =  P885;
+      c4  =  P120;
+      c5  = -P970;
+      c6  =  P568;
+      c7  = -P935;
+      c8  =  P663;
+      c9  =  P464;
+      c10 = -P992;
+      c11 =  P239;
+      c12 =  P822;
+    } else if (mu==10) {
+      c1  =  P120;
+      c2  = -P970;
+      c3  = -P354;
+      c4  =  P885;
+      c5  =  P568;
+      c6  = -P748;
+      c7  = -P992;
+      c8  = -P239;
+      c9  =  P935;
+      c10 =  P464;
+      c11 = -P822;
+      c12 = -P663;
+    } else if (mu==11) {
+      c1  =  P568;
+      c2  = -P354;
+      c3  = -P970;
+      c4  = -P748;
+      c5  =  P120;
+      c6  =  P885;
+      c7  = -P822;
+      c8  = -P935;
+      c9  = -P239;
+      c10 =  P663;
+      c11 =  P992;
+      c12 =  P464;
+    } else {
+      c1  =  P885;
+      c2  =  P568;
+      c3  =  P120;
+      c4  = -P354;
+      c5  = -P748;
+      c6  = -P970;
+      c7  = -P464;
+      c8  = -P822;
+      c9  = -P992;
+      c10 = -P935;
+      c11 = -P663;
+      c12 = -P239;
+    }
+    for (int i=0; i<m; ++i) {
+      float[] zj0 = z[j0];
+      float[] zj1 = z[j1];
+      float[] zj2 = z[j2];
+      float[] zj3 = z[j3];
+      float[] zj4 = z[j4];
+      float[] zj5 = z[j5];
+      float[] zj6 = z[j6];
+      float[] zj7 = z[j7];
+      float[] zj8 = z[j8];
+      float[] zj9 = z[j9];
+      float[] zj10 = z[j10];
+      float[] zj11 = z[j11];
+      float[] zj12 = z[j12];
+      int i1 = 2*k1;
+      for (int l1=i1+S.loopBound(m1-i1); i1<l1; i1+=NS) {
+        FloatVector z0 = FloatVector.fromArray(S,zj0,i1);
+        FloatVector z1 = FloatVector.fromArray(S,zj1,i1);
+        FloatVector z2 = FloatVector.fromArray(S,zj2,i1);
+        FloatVector z3 = FloatVector.fromArray(S,zj3,i1);
+        FloatVector z4 = FloatVector.fromArray(S,zj4,i1);
+        FloatVector z5 = FloatVector.fromArray(S,zj5,i1);
+        FloatVector z6 = FloatVector.fromArray(S,zj6,i1);
+        FloatVector z7 = FloatVector.fromArray(S,zj7,i1);
+        FloatVector z8 = FloatVector.fromArray(S,zj8,i1);
+        FloatVector z9 = FloatVector.fromArray(S,zj9,i1);
+        FloatVector z10 = FloatVector.fromArray(S,zj10,i1);
+        FloatVector z11 = FloatVector.fromArray(S,zj11,i1);
+        FloatVector z12 = FloatVector.fromArray(S,zj12,i1);
+        FloatVector t1 = z1.add(z12);
+        FloatVector t2 = z2.add(z11);
+        FloatVector t3 = z3.add(z10);
+        FloatVector t4 = z4.add(z9);
+        FloatVector t5 = z5.add(z8);
+        FloatVector t6 = z6.add(z7);
+        FloatVector t7 = z1.sub(z12);
+        FloatVector t8 = z2.sub(z11);
+        FloatVector t9 = z3.sub(z10);
+        FloatVector t10 = z4.sub(z9);
+        FloatVector t11 = z5.sub(z8);
+        FloatVector t12 = z6.sub(z7);
+        FloatVector t13 = z0.sub(t6.mul(0.5f));
+        FloatVector t14 = t1.sub(t6);
+        FloatVector t15 = t2.sub(t6);
+        FloatVector t16 = t3.sub(t6);
+        FloatVector t17 = t4.sub(t6);
+        FloatVector t18 = t5.sub(t6);
+        FloatVector y1 = t13.add(t14.mul(c1)).add(t15.mul(c2)).add(t16.mul(c3))
+            .add(t17.mul(c4)).add(t18.mul(c5));
+        FloatVector y2 = t13.add(t14.mul(c2)).add(t15.mul(c4)).add(t16.mul(c6))
+            .add(t17.mul(c5)).add(t18.mul(c3));
+        FloatVector y3 = t13.add(t14.mul(c3)).add(t15.mul(c6)).add(t16.mul(c4))
+            .add(t17.mul(c1)).add(t18.mul(c2));
+        FloatVector y4 = t13.add(t14.mul(c4)).add(t15.mul(c5)).add(t16.mul(c1))
+            .add(t17.mul(c3)).add(t18.mul(c6));
+        FloatVector y5 = t13.add(t14.mul(c5)).add(t15.mul(c3)).add(t16.mul(c2))
+            .add(t17.mul(c6)).add(t18.mul(c1));
+        FloatVector y6 = t13.add(t14.mul(c6)).add(t15.mul(c1)).add(t16.mul(c5))
+            .add(t17.mul(c2)).add(t18.mul(c4));
+        FloatVector y7 = t7.mul(c12).sub(t8.mul(c7)).add(t9.mul(c11))
+            .sub(t10.mul(c8)).add(t11.mul(c10)).sub(t12.mul(c9));
+        FloatVector y8 = t7.mul(c11).sub(t8.mul(c9)).add(t9.mul(c8))
+            .sub(t10.mul(c12)).sub(t11.mul(c7)).add(t12.mul(c10));
+        FloatVector y9 = t7.mul(c10).sub(t8.mul(c11)).sub(t9.mul(c7))
+            .add(t10.mul(c9)).sub(t11.mul(c12)).sub(t12.mul(c8));
+        FloatVector y10 = t7.mul(c9).add(t8.mul(c12)).sub(t9.mul(c10))
+            .sub(t10.mul(c7)).add(t11.mul(c8)).add(t12.mul(c11));
+        FloatVector y11 = t7.mul(c8).add(t8.mul(c10)).add(t9.mul(c12))
+            .sub(t10.mul(c11)).sub(t11.mul(c9)).sub(t12.mul(c7));
+        FloatVector y12 = t7.mul(c7).add(t8.mul(c8)).add(t9.mul(c9))
+            .add(t10.mul(c10)).add(t11.mul(c11)).add(t12.mul(c12));
+        z0.add(t1).add(t2).add(t3).add(t4).add(t5).add(t6).intoArray(zj0,i1);
+        y1.add(y12.rearrange(SWAP).mul(PM)).intoArray(zj1,i1);
+        y2.add(y11.rearrange(SWAP).mul(PM)).intoArray(zj2,i1);
+        y3.add(y10.rearrange(SWAP).mul(PM)).intoArray(zj3,i1);
+        y4.add(y9.rearrange(SWAP).mul(PM)).intoArray(zj4,i1);
+        y5.add(y8.rearrange(SWAP).mul(PM)).intoArray(zj5,i1);
+        y6.add(y7.rearrange(SWAP).mul(PM)).intoArray(zj6,i1);
+        y6.add(y7.rearrange(SWAP).mul(MP)).intoArray(zj7,i1);
+        y5.add(y8.rearrange(SWAP).mul(MP)).intoArray(zj8,i1);
+        y4.add(y9.rearrange(SWAP).mul(MP)).intoArray(zj9,i1);
+        y3.add(y10.rearrange(SWAP).mul(MP)).intoArray(zj10,i1);
+        y2.add(y11.rearrange(SWAP).mul(MP)).intoArray(zj11,i1);
+        y1.add(y12.rearrange(SWAP).mul(MP)).intoArray(zj12,i1);
+      }
+      for (; i1<m1; i1+=2) {
+        float t1r  = zj1[i1  ]+zj12[i1  ];
+        float t1i  = zj1[i1+1]+zj12[i1+1];
+        float t2r  = zj2[i1  ]+zj11[i1  ];
+        float t2i  = zj2[i1+1]+zj11[i1+1];
+        float t3r  = zj3[i1  ]+zj10[i1  ];
+        float t3i  = zj3[i1+1]+zj10[i1+1];
+        float t4r  = zj4[i1  ]+zj9[i1  ];
+        float t4i  = zj4[i1+1]+zj9[i1+1];
+        float t5r  = zj5[i1  ]+zj8[i1  ];
+        float t5i  = zj5[i1+1]+zj8[i1+1];
+        float t6r  = zj6[i1  ]+zj7[i1  ];
+        float t6i  = zj6[i1+1]+zj7[i1+1];
+        float t7r  = zj1[i1  ]-zj12[i1  ];
+        float t7i  = zj1[i1+1]-zj12[i1+1];
+        float t8r  = zj2[i1  ]-zj11[i1  ];
+        float t8i  = zj2[i1+1]-zj11[i1+1];
+        float t9r  = zj3[i1  ]-zj10[i1  ];
+        float t9i  = zj3[i1+1]-zj10[i1+1];
+        float t10r = zj4[i1  ]-zj9[i1  ];
+        float t10i = zj4[i1+1]-zj9[i1+1];
+        float t11r = zj5[i1  ]-zj8[i1  ];
+        float t11i = zj5[i1+1]-zj8[i1+1];
+        float t12r = zj6[i1  ]-zj7[i1  ];
+        float t12i = zj6[i1+1]-zj7[i1+1];
+        float t13r = zj0[i1  ]-0.5f*t6r;
+        float t13i = zj0[i1+1]-0.5f*t6i;
+        float t14r = t1r-t6r;
+        float t14i = t1i-t6i;
+        float t15r = t2r-t6r;
+        float t15i = t2i-t6i;
+        float t16r = t3r-t6r;
+        float t16i = t3i-t6i;
+        float t17r = t4r-t6r;
+        float t17i = t4i-t6i;
+        float t18r = t5r-t6r;
+        float t18i = t5i-t6i;
+        float y1r  = t13r+c1*t14r+c2*t15r+c3*t16r+c4*t17r+c5*t18r;
+        float y1i  = t13i+c1*t14i+c2*t15i+c3*t16i+c4*t17i+c5*t18i;
+        float y2r  = t13r+c2*t14r+c4*t15r+c6*t16r+c5*t17r+c3*t18r;
+        float y2i  = t13i+c2*t14i+c4*t15i+c6*t16i+c5*t17i+c3*t18i;
+        float y3r  = t13r+c3*t14r+c6*t15r+c4*t16r+c1*t17r+c2*t18r;
+        float y3i  = t13i+c3*t14i+c6*t15i+c4*t16i+c1*t17i+c2*t18i;
+        float y4r  = t13r+c4*t14r+c5*t15r+c1*t16r+c3*t17r+c6*t18r;
+        float y4i  = t13i+c4*t14i+c5*t15i+c1*t16i+c3*t17i+c6*t18i;
+        float y5r  = t13r+c5*t14r+c3*t15r+c2*t16r+c6*t17r+c1*t18r;
+        float y5i  = t13i+c5*t14i+c3*t15i+c2*t16i+c6*t17i+c1*t18i;
+        float y6r  = t13r+c6*t14r+c1*t15r+c5*t16r+c2*t17r+c4*t18r;
+        float y6i  = t13i+c6*t14i+c1*t15i+c5*t16i+c2*t17i+c4*t18i;
+        float y7r  = c12*t7r-c7*t8r+c11*t9r-c8*t10r+c10*t11r-c9*t12r;
+        float y7i  = c12*t7i-c7*t8i+c11*t9i-c8*t10i+c10*t11i-c9*t12i;
+        float y8r  = c11*t7r-c9*t8r+c8*t9r-c12*t10r-c7*t11r+c10*t12r;
+        float y8i  = c11*t7i-c9*t8i+c8*t9i-c12*t10i-c7*t11i+c10*t12i;
+        float y9r  = c10*t7r-c11*t8r-c7*t9r+c9*t10r-c12*t11r-c8*t12r;
+        float y9i  = c10*t7i-c11*t8i-c7*t9i+c9*t10i-c12*t11i-c8*t12i;
+        float y10r = c9*t7r+c12*t8r-c10*t9r-c7*t10r+c8*t11r+c11*t12r;
+        float y10i = c9*t7i+c12*t8i-c10*t9i-c7*t10i+c8*t11i+c11*t12i;
+        float y11r = c8*t7r+c10*t8r+c12*t9r-c11*t10r-c9*t11r-c7*t12r;
+        float y11i = c8*t7i+c10*t8i+c12*t9i-c11*t10i-c9*t11i-c7*t12i;
+        float y12r = c7*t7r+c8*t8r+c9*t9r+c10*t10r+c11*t11r+c12*t12r;
+        float y12i = c7*t7i+c8*t8i+c9*t9i+c10*t10i+c11*t11i+c12*t12i;
+        zj0[i1  ]  = zj0[i1  ]+t1r+t2r+t3r+t4r+t5r+t6r;
+        zj0[i1+1]  = zj0[i1+1]+t1i+t2i+t3i+t4i+t5i+t6i;
+        zj1[i1  ]  = y1r-y12i;
+        zj1[i1+1]  = y1i+y12r;
+        zj2[i1  ]  = y2r-y11i;
+        zj2[i1+1]  = y2i+y11r;
+        zj3[i1  ]  = y3r-y10i;
+        zj3[i1+1]  = y3i+y10r;
+        zj4[i1  ]  = y4r-y9i;
+        zj4[i1+1]  = y4i+y9r;
+        zj5[i1  ]  = y5r-y8i;
+        zj5[i1+1]  = y5i+y8r;
+        zj6[i1  ]  = y6r-y7i;
+        zj6[i1+1]  = y6i+y7r;
+        zj7[i1  ]  = y6r+y7i;
+        zj7[i1+1]  = y6i-y7r;
+        zj8[i1  ]  = y5r+y8i;
+        zj8[i1+1]  = y5i-y8r;
+        zj9[i1  ]  = y4r+y9i;
+        zj9[i1+1]  = y4i-y9r;
+        zj10[i1  ] = y3r+y10i;
+        zj10[i1+1] = y3i-y10r;
+        zj11[i1  ] = y2r+y11i;
+        zj11[i1+1] = y2i-y11r;
+        zj12[i1  ] = y1r+y12i;
+        zj12[i1+1] = y1i-y12r;
+      }
+      int jt = j12+1;
+      j12 = j11+1;
+      j11 = j10+1;
+      j10 = j9+1;
+      j9 = j8+1;
+      j8 = j7+1;
+      j7 = j6+1;
+      j6 = j5+1;
+      j5 = j4+1;
+      j4 = j3+1;
+      j3 = j2+1;
+      j2 = j1+1;
+      j1 = j0+1;
+      j0 = jt;
+    }
+  }
+  private static void pfa16a(int k1, int n1, float[][] z, int mu, int m,
+    int j0, int j1, int j2, int j3, int j4, int j5, int j6, int j7, int j8, 
+    int j9, int j10, int j11, int j12, int j13, int j14, int j15)
+  {
+    int m1 = 2*n1;
+    float c1,c2,c3,c4,c5,c6,c7;
+    if (mu==1) {
+      c1 =  PONE;
+      c2 =  P923;
+      c3 =  P382;
+      c4 =  P707;
+    } else if (mu==3) {
+      c1 = -PONE;
+      c2 =  P382;
+      c3 =  P923;
+      c4 = -P707;
+    } else if (mu==5) {
+      c1 =  PONE;
+      c2 = -P382;
+      c3 =  P923;
+      c4 = -P707;
+    } else if (mu==7) {
+      c1 = -PONE;
+      c2 = -P923;
+      c3 =  P382;
+      c4 =  P707;
+    } else if (mu==9) {
+      c1 =  PONE;
+      c2 = -P923;
+      c3 = -P382;
+      c4 =  P707;
+    } else if (mu==11) {
+      c1 = -PONE;
+      c2 = -P382;
+      c3 = -P923;
+      c4 = -P707;
+    } else if (mu==13) {
+      c1 =  PONE;
+      c2 =  P382;
+      c3 = -P923;
+      c4 = -P707;
+    } else {
+      c1 = -PONE;
+      c2 =  P923;
+      c3 = -P382;
+      c4 =  P707;
+    }
+    c5 = c1*c4;
+    c6 = c1*c3;
+    c7 = c1*c2;
+    for (int i=0; i<m; ++i) {
+      float[] zj0 = z[j0];
+      float[] zj1 = z[j1];
+      float[] zj2 = z[j2];
+      float[] zj3 = z[j3];
+      float[] zj4 = z[j4];
+      float[] zj5 = z[j5];
+      float[] zj6 = z[j6];
+      float[] zj7 = z[j7];
+      float[] zj8 = z[j8];
+      float[] zj9 = z[j9];
+      float[] zj10 = z[j10];
+      float[] zj11 = z[j11];
+      float[] zj12 = z[j12];
+      float[] zj13 = z[j13];
+      float[] zj14 = z[j14];
+      float[] zj15 = z[j15];
+      int i1 = 2*k1;
+      for (int l1=i1+S.loopBound(m1-i1); i1<l1; i1+=NS) {
+        FloatVector z0 = FloatVector.fromArray(S,zj0,i1);
+        FloatVector z1 = FloatVector.fromArray(S,zj1,i1);
+        FloatVector z2 = FloatVector.fromArray(S,zj2,i1);
+        FloatVector z3 = FloatVector.fromArray(S,zj3,i1);
+        FloatVector z4 = FloatVector.fromArray(S,zj4,i1);
+        FloatVector z5 = FloatVector.fromArray(S,zj5,i1);
+        FloatVector z6 = FloatVector.fromArray(S,zj6,i1);
+        FloatVector z7 = FloatVector.fromArray(S,zj7,i1);
+        FloatVector z8 = FloatVector.fromArray(S,zj8,i1);
+        FloatVector z9 = FloatVector.fromArray(S,zj9,i1);
+        FloatVector z10 = FloatVector.fromArray(S,zj10,i1);
+        FloatVector z11 = FloatVector.fromArray(S,zj11,i1);
+        FloatVector z12 = FloatVector.fromArray(S,zj12,i1);
+        FloatVector z13 = FloatVector.fromArray(S,zj13,i1);
+        FloatVector z14 = FloatVector.fromArray(S,zj14,i1);
+        FloatVector z15 = FloatVector.fromArray(S,zj15,i1);
+        FloatVector t1 = z0.add(z8);
+        FloatVector t2 = z4.add(z12);
+        FloatVector t3 = z0.sub(z8);
+        FloatVector t4 = z4.sub(z12).mul(c1);
+        FloatVector t5 = t1.add(t2);
+        FloatVector t6 = t1.sub(t2);
+        FloatVector t7 = z1.add(z9);
+        FloatVector t8 = z5.add(z13);
+        FloatVector t9 = z1.sub(z9);
+        FloatVector t10 = z5.sub(z13);
+        FloatVector t11 = t7.add(t8);
+        FloatVector t12 = t7.sub(t8);
+        FloatVector t13 = z2.add(z10);
+        FloatVector t14 = z6.add(z14);
+        FloatVector t15 = z2.sub(z10);
+        FloatVector t16 = z6.sub(z14);
+        FloatVector t17 = t13.add(t14);
+        FloatVector t18 = t15.sub(t16).mul(c4);
+        FloatVector t19 = t15.add(t16).mul(c5);
+        FloatVector t20 = t13.sub(t14).mul(c1);
+        FloatVector t21 = z3.add(z11);
+        FloatVector t22 = z7.add(z15);
+        FloatVector t23 = z3.sub(z11);
+        FloatVector t24 = z7.sub(z15);
+        FloatVector t25 = t21.add(t22);
+        FloatVector t26 = t21.sub(t22);
+        FloatVector t27 = t9.add(t24);
+        FloatVector t28 = t10.add(t23);
+        FloatVector t29 = t9.sub(t24);
+        FloatVector t30 = t10.sub(t23);
+        FloatVector t31 = t5.add(t17);
+        FloatVector t32 = t11.add(t25);
+        FloatVector t33 = t3.add(t18);
+        FloatVector t34 = t29.mul(c2).sub(t30.mul(c6));
+        FloatVector t35 = t3.sub(t18);
+        FloatVector t36 = t27.mul(c7).sub(t28.mul(c3));
+        FloatVector t37 = t4.add(t19);
+        FloatVector t38 = t27.mul(c3).add(t28.mul(c7));
+        FloatVector t39 = t4.sub(t19);
+        FloatVector t40 = t29.mul(c6).add(t30.mul(c2));
+        FloatVector t41 = t12.sub(t26).mul(c4);
+        FloatVector t42 = t12.add(t26).mul(c5);
+        FloatVector y1 = t33.add(t34);
+        FloatVector y2 = t6.add(t41);
+        FloatVector y3 = t35.add(t40);
+        FloatVector y4 = t5.sub(t17);
+        FloatVector y5 = t35.sub(t40);
+        FloatVector y6 = t6.sub(t41);
+        FloatVector y7 = t33.sub(t34);
+        FloatVector y9 = t38.sub(t37);
+        FloatVector y10 = t42.sub(t20);
+        FloatVector y11 = t36.add(t39);
+        FloatVector y12 = t11.sub(t25).mul(c1);
+        FloatVector y13 = t36.sub(t39);
+        FloatVector y14 = t42.add(t20);
+        FloatVector y15 = t38.add(t37);
+        t31.add(t32).intoArray(zj0,i1);
+        y1.add(y15.rearrange(SWAP).mul(PM)).intoArray(zj1,i1);
+        y2.add(y14.rearrange(SWAP).mul(PM)).intoArray(zj2,i1);
+        y3.add(y13.rearrange(SWAP).mul(PM)).intoArray(zj3,i1);
+        y4.add(y12.rearrange(SWAP).mul(PM)).intoArray(zj4,i1);
+        y5.add(y11.rearrange(SWAP).mul(PM)).intoArray(zj5,i1);
+        y6.add(y10.rearrange(SWAP).mul(PM)).intoArray(zj6,i1);
+        y7.add(y9.rearrange(SWAP).mul(PM)).intoArray(zj7,i1);
+        t31.sub(t32).intoArray(zj8,i1);
+        y7.add(y9.rearrange(SWAP).mul(MP)).intoArray(zj9,i1);
+        y6.add(y10.rearrange(SWAP).mul(MP)).intoArray(zj10,i1);
+        y5.add(y11.rearrange(SWAP).mul(MP)).intoArray(zj11,i1);
+        y4.add(y12.rearrange(SWAP).mul(MP)).intoArray(zj12,i1);
+        y3.add(y13.rearrange(SWAP).mul(MP)).intoArray(zj13,i1);
+        y2.add(y14.rearrange(SWAP).mul(MP)).intoArray(zj14,i1);
+        y1.add(y15.rearrange(SWAP).mul(MP)).intoArray(zj15,i1);
+      }
+      for (; i1<m1; i1+=2) {
+        float t1r  = zj0[i1  ]+zj8[i1  ];
+        float t1i  = zj0[i1+1]+zj8[i1+1];
+        float t2r  = zj4[i1  ]+zj12[i1  ];
+        float t2i  = zj4[i1+1]+zj12[i1+1];
+        float t3r  = zj0[i1  ]-zj8[i1  ];
+        float t3i  = zj0[i1+1]-zj8[i1+1];
+        float t4r  = c1*(zj4[i1  ]-zj12[i1  ]);
+        float t4i  = c1*(zj4[i1+1]-zj12[i1+1]);
+        float t5r  = t1r+t2r;
+        float t5i  = t1i+t2i;
+        float t6r  = t1r-t2r;
+        float t6i  = t1i-t2i;
+        float t7r  = zj1[i1  ]+zj9[i1  ];
+        float t7i  = zj1[i1+1]+zj9[i1+1];
+        float t8r  = zj5[i1  ]+zj13[i1  ];
+        float t8i  = zj5[i1+1]+zj13[i1+1];
+        float t9r  = zj1[i1  ]-zj9[i1  ];
+        float t9i  = zj1[i1+1]-zj9[i1+1];
+        float t10r = zj5[i1  ]-zj13[i1  ];
+        float t10i = zj5[i1+1]-zj13[i1+1];
+        float t11r = t7r+t8r;
+        float t11i = t7i+t8i;
+        float t12r = t7r-t8r;
+        float t12i = t7i-t8i;
+        float t13r = zj2[i1  ]+zj10[i1  ];
+        float t13i = zj2[i1+1]+zj10[i1+1];
+        float t14r = zj6[i1  ]+zj14[i1  ];
+        float t14i = zj6[i1+1]+zj14[i1+1];
+        float t15r = zj2[i1  ]-zj10[i1  ];
+        float t15i = zj2[i1+1]-zj10[i1+1];
+        float t16r = zj6[i1  ]-zj14[i1  ];
+        float t16i = zj6[i1+1]-zj14[i1+1];
+        float t17r = t13r+t14r;
+        float t17i = t13i+t14i;
+        float t18r = c4*(t15r-t16r);
+        float t18i = c4*(t15i-t16i);
+        float t19r = c5*(t15r+t16r);
+        float t19i = c5*(t15i+t16i);
+        float t20r = c1*(t13r-t14r);
+        float t20i = c1*(t13i-t14i);
+        float t21r = zj3[i1  ]+zj11[i1  ];
+        float t21i = zj3[i1+1]+zj11[i1+1];
+        float t22r = zj7[i1  ]+zj15[i1  ];
+        float t22i = zj7[i1+1]+zj15[i1+1];
+        float t23r = zj3[i1  ]-zj11[i1  ];
+        float t23i = zj3[i1+1]-zj11[i1+1];
+        float t24r = zj7[i1  ]-zj15[i1  ];
+        float t24i = zj7[i1+1]-zj15[i1+1];
+        float t25r = t21r+t22r;
+        float t25i = t21i+t22i;
+        float t26r = t21r-t22r;
+        float t26i = t21i-t22i;
+        float t27r = t9r+t24r;
+        float t27i = t9i+t24i;
+        float t28r = t10r+t23r;
+        float t28i = t10i+t23i;
+        float t29r = t9r-t24r;
+        float t29i = t9i-t24i;
+        float t30r = t10r-t23r;
+        float t30i = t10i-t23i;
+        float t31r = t5r+t17r;
+        float t31i = t5i+t17i;
+        float t32r = t11r+t25r;
+        float t32i = t11i+t25i;
+        float t33r = t3r+t18r;
+        float t33i = t3i+t18i;
+        float t34r = c2*t29r-c6*t30r;
+        float t34i = c2*t29i-c6*t30i;
+        float t35r = t3r-t18r;
+        float t35i = t3i-t18i;
+        float t36r = c7*t27r-c3*t28r;
+        float t36i = c7*t27i-c3*t28i;
+        float t37r = t4r+t19r;
+        float t37i = t4i+t19i;
+        float t38r = c3*t27r+c7*t28r;
+        float t38i = c3*t27i+c7*t28i;
+        float t39r = t4r-t19r;
+        float t39i = t4i-t19i;
+        float t40r = c6*t29r+c2*t30r;
+        float t40i = c6*t29i+c2*t30i;
+        float t41r = c4*(t12r-t26r);
+        float t41i = c4*(t12i-t26i);
+        float t42r = c5*(t12r+t26r);
+        float t42i = c5*(t12i+t26i);
+        float y1r  = t33r+t34r;
+        float y1i  = t33i+t34i;
+        float y2r  = t6r+t41r;
+        float y2i  = t6i+t41i;
+        float y3r  = t35r+t40r;
+        float y3i  = t35i+t40i;
+        float y4r  = t5r-t17r;
+        float y4i  = t5i-t17i;
+        float y5r  = t35r-t40r;
+        float y5i  = t35i-t40i;
+        float y6r  = t6r-t41r;
+        float y6i  = t6i-t41i;
+        float y7r  = t33r-t34r;
+        float y7i  = t33i-t34i;
+        float y9r  = t38r-t37r;
+        float y9i  = t38i-t37i;
+        float y10r = t42r-t20r;
+        float y10i = t42i-t20i;
+        float y11r = t36r+t39r;
+        float y11i = t36i+t39i;
+        float y12r = c1*(t11r-t25r);
+        float y12i = c1*(t11i-t25i);
+        float y13r = t36r-t39r;
+        float y13i = t36i-t39i;
+        float y14r = t42r+t20r;
+        float y14i = t42i+t20i;
+        float y15r = t38r+t37r;
+        float y15i = t38i+t37i;
+        zj0[i1  ]  = t31r+t32r;
+        zj0[i1+1]  = t31i+t32i;
+        zj1[i1  ]  = y1r-y15i;
+        zj1[i1+1]  = y1i+y15r;
+        zj2[i1  ]  = y2r-y14i;
+        zj2[i1+1]  = y2i+y14r;
+        zj3[i1  ]  = y3r-y13i;
+        zj3[i1+1]  = y3i+y13r;
+        zj4[i1  ]  = y4r-y12i;
+        zj4[i1+1]  = y4i+y12r;
+        zj5[i1  ]  = y5r-y11i;
+        zj5[i1+1]  = y5i+y11r;
+        zj6[i1  ]  = y6r-y10i;
+        zj6[i1+1]  = y6i+y10r;
+        zj7[i1  ]  = y7r-y9i;
+        zj7[i1+1]  = y7i+y9r;
+        zj8[i1  ]  = t31r-t32r;
+        zj8[i1+1]  = t31i-t32i;
+        zj9[i1  ]  = y7r+y9i;
+        zj9[i1+1]  = y7i-y9r;
+        zj10[i1  ] = y6r+y10i;
+        zj10[i1+1] = y6i-y10r;
+        zj11[i1  ] = y5r+y11i;
+        zj11[i1+1] = y5i-y11r;
+        zj12[i1  ] = y4r+y12i;
+        zj12[i1+1] = y4i-y12r;
+        zj13[i1  ] = y3r+y13i;
+        zj13[i1+1] = y3i-y13r;
+        zj14[i1  ] = y2r+y14i;
+        zj14[i1+1] = y2i-y14r;
+        zj15[i1  ] = y1r+y15i;
+        zj15[i1+1] = y1i-y15r;
+      }
+      int jt = j15+1;
+      j15 = j14+1;
+      j14 = j13+1;
+      j13 = j12+1;
+      j12 = j11+1;
+      j11 = j10+1;
+      j10 = j9+1;
+      j9 = j8+1;
+      j8 = j7+1;
+      j7 = j6+1;
+      j6 = j5+1;
+      j5 = j4+1;
+      j4 = j3+1;
+      j3 = j2+1;
+      j2 = j1+1;
+      j1 = j0+1;
+      j0 = jt;
+    }
+  }
+
+  private static void pfa2b(int k1, int n1, float[][] z, int m, int j0, int j1)
+  {
+    for (int i=0; i<m; ++i) {
+      float[] zj0r = z[j0  ];
+      float[] zj0i = z[j0+1];
+      float[] zj1r = z[j1  ];
+      float[] zj1i = z[j1+1];
+      int i1 = k1;
+      for (int l1=k1+S.loopBound(n1-k1); i1<l1; i1+=NS) {
+        FloatVector z0i = FloatVector.fromArray(S,zj0i,i1);
+        FloatVector z0r = FloatVector.fromArray(S,zj0r,i1);
+        FloatVector z1i = FloatVector.fromArray(S,zj1i,i1);
+        FloatVector z1r = FloatVector.fromArray(S,zj1r,i1);
+        FloatVector t1r = z0r.sub(z1r);
+        FloatVector t1i = z0i.sub(z1i);
+        z0r.add(z1r).intoArray(zj0r,i1);
+        z0i.add(z1i).intoArray(zj0i,i1);
+        t1r.intoArray(zj1r,i1);
+        t1i.intoArray(zj1i,i1);
+      }
+      for (; i1<n1; ++i1) {
+        float t1r = zj0r[i1]-zj1r[i1];
+        float t1i = zj0i[i1]-zj1i[i1];
+        zj0r[i1] = zj0r[i1]+zj1r[i1];
+        zj0i[i1] = zj0i[i1]+zj1i[i1];
+        zj1r[i1] = t1r;
+        zj1i[i1] = t1i;
+      }
+      int jt = j1+2;
+      j1 = j0+2;
+      j0 = jt;
+    }
+  }
+  private static void pfa3b(int k1, int n1, float[][] z, int mu, int m,
+    int j0, int j1, int j2)
+  {
+    float c1;
+    if (mu==1) {
+      c1 =  P866;
+    } else {
+      c1 = -P866;
+    }
+    for (int i=0; i<m; ++i) {
+      float[] zj0r = z[j0  ];
+      float[] zj0i = z[j0+1];
+      float[] zj1r = z[j1  ];
+      float[] zj1i = z[j1+1];
+      float[] zj2r = z[j2  ];
+      float[] zj2i = z[j2+1];
+      int i1 = k1;
+      for (int l1=k1+S.loopBound(n1-k1); i1<l1; i1+=NS) {
+        FloatVector z0i = FloatVector.fromArray(S,zj0i,i1);
+        FloatVector z0r = FloatVector.fromArray(S,zj0r,i1);
+        FloatVector z1i = FloatVector.fromArray(S,zj1i,i1);
+        FloatVector z1r = FloatVector.fromArray(S,zj1r,i1);
+        FloatVector z2i = FloatVector.fromArray(S,zj2i,i1);
+        FloatVector z2r = FloatVector.fromArray(S,zj2r,i1);
+        FloatVector t1r = z1r.add(z2r);
+        FloatVector t1i = z1i.add(z2i);
+        FloatVector y1r = z0r.sub(t1r.mul(0.5f));
+        FloatVector y1i = z0i.sub(t1i.mul(0.5f));
+        FloatVector y2r = z1r.sub(z2r).mul(c1);
+        FloatVector y2i = z1i.sub(z2i).mul(c1);
+        z0r.add(t1r).intoArray(zj0r,i1);
+        z0i.add(t1i).intoArray(zj0i,i1);
+        y1r.sub(y2i).intoArray(zj1r,i1);
+        y1i.add(y2r).intoArray(zj1i,i1);
+        y1r.add(y2i).intoArray(zj2r,i1);
+        y1i.sub(y2r).intoArray(zj2i,i1);
+      }
+      for (; i1<n1; ++i1) {
+        float t1r = zj1r[i1]+zj2r[i1];
+        float t1i = zj1i[i1]+zj2i[i1];
+        float y1r = zj0r[i1]-0.5f*t1r;
+        float y1i = zj0i[i1]-0.5f*t1i;
+        float y2r = c1*(zj1r[i1]-zj2r[i1]);
+        float y2i = c1*(zj1i[i1]-zj2i[i1]);
+        zj0r[i1] = zj0r[i1]+t1r;
+        zj0i[i1] = zj0i[i1]+t1i;
+        zj1r[i1] = y1r-y2i;
+        zj1i[i1] = y1i+y2r;
+        zj2r[i1] = y1r+y2i;
+        zj2i[i1] = y1i-y2r;
+      }
+      int jt = j2+2;
+      j2 = j1+2;
+      j1 = j0+2;
+      j0 = jt;
+    }
+  }
+  private static void pfa4b(int k1, int n1, float[][] z, int mu, int m,
+    int j0, int j1, int j2, int j3)
+  {
+    float c1;
+    if (mu==1) {
+      c1 =  PONE;
+    } else {
+      c1 = -PONE;
+    }
+    for (int i=0; i<m; ++i) {
+      float[] zj0r = z[j0  ];
+      float[] zj0i = z[j0+1];
+      float[] zj1r = z[j1  ];
+      float[] zj1i = z[j1+1];
+      float[] zj2r = z[j2  ];
+      float[] zj2i = z[j2+1];
+      float[] zj3r = z[j3  ];
+      float[] zj3i = z[j3+1];
+      int i1 = k1;
+      for (int l1=k1+S.loopBound(n1-k1); i1<l1; i1+=NS) {
+        FloatVector z0i = FloatVector.fromArray(S,zj0i,i1);
+        FloatVector z0r = FloatVector.fromArray(S,zj0r,i1);
+        FloatVector z1i = FloatVector.fromArray(S,zj1i,i1);
+        FloatVector z1r = FloatVector.fromArray(S,zj1r,i1);
+        FloatVector z2i = FloatVector.fromArray(S,zj2i,i1);
+        FloatVector z2r = FloatVector.fromArray(S,zj2r,i1);
+        FloatVector z3i = FloatVector.fromArray(S,zj3i,i1);
+        FloatVector z3r = FloatVector.fromArray(S,zj3r,i1);
+        FloatVector t1r = z0r.add(z2r);
+        FloatVector t1i = z0i.add(z2i);
+        FloatVector t2r = z1r.add(z3r);
+        FloatVector t2i = z1i.add(z3i);
+        FloatVector y1r = z0r.sub(z2r);
+        FloatVector y1i = z0i.sub(z2i);
+        FloatVector y3r = z1r.sub(z3r).mul(c1);
+        FloatVector y3i = z1i.sub(z3i).mul(c1);
+        t1r.add(t2r).intoArray(zj0r,i1);
+        t1i.add(t2i).intoArray(zj0i,i1);
+        y1r.sub(y3i).intoArray(zj1r,i1);
+        y1i.add(y3r).intoArray(zj1i,i1);
+        t1r.sub(t2r).intoArray(zj2r,i1);
+        t1i.sub(t2i).intoArray(zj2i,i1);
+        y1r.add(y3i).intoArray(zj3r,i1);
+        y1i.sub(y3r).intoArray(zj3i,i1);
+      }
+      for (; i1<n1; ++i1) {
+        float t1r = zj0r[i1]+zj2r[i1];
+        float t1i = zj0i[i1]+zj2i[i1];
+        float t2r = zj1r[i1]+zj3r[i1];
+        float t2i = zj1i[i1]+zj3i[i1];
+        float y1r = zj0r[i1]-zj2r[i1];
+        float y1i = zj0i[i1]-zj2i[i1];
+        float y3r = c1*(zj1r[i1]-zj3r[i1]);
+        float y3i = c1*(zj1i[i1]-zj3i[i1]);
+        zj0r[i1] = t1r+t2r;
+        zj0i[i1] = t1i+t2i;
+        zj1r[i1] = y1r-y3i;
+        zj1i[i1] = y1i+y3r;
+        zj2r[i1] = t1r-t2r;
+        zj2i[i1] = t1i-t2i;
+        zj3r[i1] = y1r+y3i;
+        zj3i[i1] = y1i-y3r;
+      }
+      int jt = j3+2;
+      j3 = j2+2;
+      j2 = j1+2;
+      j1 = j0+2;
+      j0 = jt;
+    }
+  }
+  private static void pfa5b(int k1, int n1, float[][] z, int mu, int m,
+    int j0, int j1, int j2, int j3, int j4)
+  {
+    float c1,c2,c3;
+    if (mu==1) {
+      c1 =  P559;
+      c2 =  P951;
+      c3 =  P587;
+    } else if (mu==2) {
+      c1 = -P559;
+      c2 =  P587;
+      c3 = -P951;
+    } else if (mu==3) {
+      c1 = -P559;
+      c2 = -P587;
+      c3 =  P951;
+    } else { 
+      c1 =  P559;
+      c2 = -P951;
+      c3 = -P587;
+    }
+    for (int i=0; i<m; ++i) {
+      float[] zj0r = z[j0  ];
+      float[] zj0i = z[j0+1];
+      float[] zj1r = z[j1  ];
+      float[] zj1i = z[j1+1];
+      float[] zj2r = z[j2  ];
+      float[] zj2i = z[j2+1];
+      float[] zj3r = z[j3  ];
+      float[] zj3i = z[j3+1];
+      float[] zj4r = z[j4  ];
+      float[] zj4i = z[j4+1];
+      int i1 = k1;
+      for (int l1=k1+S.loopBound(n1-k1); i1<l1; i1+=NS) {
+        FloatVector z0i = FloatVector.fromArray(S,zj0i,i1);
+        FloatVector z0r = FloatVector.fromArray(S,zj0r,i1);
+        FloatVector z1i = FloatVector.fromArray(S,zj1i,i1);
+        FloatVector z1r = FloatVector.fromArray(S,zj1r,i1);
+        FloatVector z2i = FloatVector.fromArray(S,zj2i,i1);
+        FloatVector z2r = FloatVector.fromArray(S,zj2r,i1);
+        FloatVector z3i = FloatVector.fromArray(S,zj3i,i1);
+        FloatVector z3r = FloatVector.fromArray(S,zj3r,i1);
+        FloatVector z4i = FloatVector.fromArray(S,zj4i,i1);
+        FloatVector z4r = FloatVector.fromArray(S,zj4r,i1);
+        FloatVector t1r = z1r.add(z4r);
+        FloatVector t1i = z1i.add(z4i);
+        FloatVector t2r = z2r.add(z3r);
+        FloatVector t2i = z2i.add(z3i);
+        FloatVector t3r = z1r.sub(z4r);
+        FloatVector t3i = z1i.sub(z4i);
+        FloatVector t4r = z2r.sub(z3r);
+        FloatVector t4i = z2i.sub(z3i);
+        FloatVector t5r = t1r.add(t2r);
+        FloatVector t5i = t1i.add(t2i);
+        FloatVector t6r = t1r.sub(t2r).mul(c1);
+        FloatVector t6i = t1i.sub(t2i).mul(c1);
+        FloatVector t7r = z0r.sub(t5r.mul(0.25f));
+        FloatVector t7i = z0i.sub(t5i.mul(0.25f));
+        FloatVector y1r = t7r.add(t6r);
+        FloatVector y1i = t7i.add(t6i);
+        FloatVector y2r = t7r.sub(t6r);
+        FloatVector y2i = t7i.sub(t6i);
+        FloatVector y3r = t3r.mul(c3).sub(t4r.mul(c2));
+        FloatVector y3i = t3i.mul(c3).sub(t4i.mul(c2));
+        FloatVector y4r = t3r.mul(c2).add(t4r.mul(c3));
+        FloatVector y4i = t3i.mul(c2).add(t4i.mul(c3));
+        z0r.add(t5r).intoArray(zj0r,i1);
+        z0i.add(t5i).intoArray(zj0i,i1);
+        y1r.sub(y4i).intoArray(zj1r,i1);
+        y1i.add(y4r).intoArray(zj1i,i1);
+        y2r.sub(y3i).intoArray(zj2r,i1);
+        y2i.add(y3r).intoArray(zj2i,i1);
+        y2r.add(y3i).intoArray(zj3r,i1);
+        y2i.sub(y3r).intoArray(zj3i,i1);
+        y1r.add(y4i).intoArray(zj4r,i1);
+        y1i.sub(y4r).intoArray(zj4i,i1);
+      }
+      for (; i1<n1; ++i1) {
+        float t1r = zj1r[i1]+zj4r[i1];
+        float t1i = zj1i[i1]+zj4i[i1];
+        float t2r = zj2r[i1]+zj3r[i1];
+        float t2i = zj2i[i1]+zj3i[i1];
+        float t3r = zj1r[i1]-zj4r[i1];
+        float t3i = zj1i[i1]-zj4i[i1];
+        float t4r = zj2r[i1]-zj3r[i1];
+        float t4i = zj2i[i1]-zj3i[i1];
+        float t5r = t1r+t2r;
+        float t5i = t1i+t2i;
+        float t6r = c1*(t1r-t2r);
+        float t6i = c1*(t1i-t2i);
+        float t7r = zj0r[i1]-0.25f*t5r;
+        float t7i = zj0i[i1]-0.25f*t5i;
+        float y1r = t7r+t6r;
+        float y1i = t7i+t6i;
+        float y2r = t7r-t6r;
+        float y2i = t7i-t6i;
+        float y3r = c3*t3r-c2*t4r;
+        float y3i = c3*t3i-c2*t4i;
+        float y4r = c2*t3r+c3*t4r;
+        float y4i = c2*t3i+c3*t4i;
+        zj0r[i1] = zj0r[i1]+t5r;
+        zj0i[i1] = zj0i[i1]+t5i;
+        zj1r[i1] = y1r-y4i;
+        zj1i[i1] = y1i+y4r;
+        zj2r[i1] = y2r-y3i;
+        zj2i[i1] = y2i+y3r;
+        zj3r[i1] = y2r+y3i;
+        zj3i[i1] = y2i-y3r;
+        zj4r[i1] = y1r+y4i;
+        zj4i[i1] = y1i-y4r;
+      }
+      int jt = j4+2;
+      j4 = j3+2;
+      j3 = j2+2;
+      j2 = j1+2;
+      j1 = j0+2;
+      j0 = jt;
+    }
+  }
+  private static void pfa7b(int k1, int n1, float[][] z, int mu, int m,
+    int j0, int j1, int j2, int j3, int j4, int j5, int j6)
+  {
+    float c1,c2,c3,c4,c5,c6;
+    if (mu==1) {
+      c1 =  P623;
+      c2 = -P222;
+      c3 = -P900;
+      c4 =  P781;
+      c5 =  P974;
+      c6 =  P433;
+    } else if (mu==2) {
+      c1 = -P222;
+      c2 = -P900;
+      c3 =  P623;
+      c4 =  P974;
+      c5 = -P433;
+      c6 = -P781;
+    } else if (mu==3) {
+      c1 = -P900;
+      c2 =  P623;
+      c3 = -P222;
+      c4 =  P433;
+      c5 = -P781;
+      c6 =  P974;
+    } else if (mu==4) {
+      c1 = -P900;
+      c2 =  P623;
+      c3 = -P222;
+      c4 = -P433;
+      c5 =  P781;
+      c6 = -P974;
+    } else if (mu==5) {
+      c1 = -P222;
+      c2 = -P900;
+      c3 =  P623;
+      c4 = -P974;
+      c5 =  P433;
+      c6 =  P781;
+    } else {
+      c1 =  P623;
+      c2 = -P222;
+      c3 = -P900;
+      c4 = -P781;
+      c5 = -P974;
+      c6 = -P433;
+    }
+    for (int i=0; i<m; ++i) {
+      float[] zj0r = z[j0  ];
+      float[] zj0i = z[j0+1];
+      float[] zj1r = z[j1  ];
+      float[] zj1i = z[j1+1];
+      float[] zj2r = z[j2  ];
+      float[] zj2i = z[j2+1];
+      float[] zj3r = z[j3  ];
+      float[] zj3i = z[j3+1];
+      float[] zj4r = z[j4  ];
+      float[] zj4i = z[j4+1];
+      float[] zj5r = z[j5  ];
+      float[] zj5i = z[j5+1];
+      float[] zj6r = z[j6  ];
+      float[] zj6i = z[j6+1];
+      int i1 = k1;
+      for (int l1=k1+S.loopBound(n1-k1); i1<l1; i1+=NS) {
+        FloatVector z0i = FloatVector.fromArray(S,zj0i,i1);
+        FloatVector z0r = FloatVector.fromArray(S,zj0r,i1);
+        FloatVector z1i = FloatVector.fromArray(S,zj1i,i1);
+        FloatVector z1r = FloatVector.fromArray(S,zj1r,i1);
+        FloatVector z2i = FloatVector.fromArray(S,zj2i,i1);
+        FloatVector z2r = FloatVector.fromArray(S,zj2r,i1);
+        FloatVector z3i = FloatVector.fromArray(S,zj3i,i1);
+        FloatVector z3r = FloatVector.fromArray(S,zj3r,i1);
+        FloatVector z4i = FloatVector.fromArray(S,zj4i,i1);
+        FloatVector z4r = FloatVector.fromArray(S,zj4r,i1);
+        FloatVector z5i = FloatVector.fromArray(S,zj5i,i1);
+        FloatVector z5r = FloatVector.fromArray(S,zj5r,i1);
+        FloatVector z6i = FloatVector.fromArray(S,zj6i,i1);
+        FloatVector z6r = FloatVector.fromArray(S,zj6r,i1);
+        FloatVector t1r = z1r.add(z6r);
+        FloatVector t1i = z1i.add(z6i);
+        FloatVector t2r = z2r.add(z5r);
+        FloatVector t2i = z2i.add(z5i);
+        FloatVector t3r = z3r.add(z4r);
+        FloatVector t3i = z3i.add(z4i);
+        FloatVector t4r = z1r.sub(z6r);
+        FloatVector t4i = z1i.sub(z6i);
+        FloatVector t5r = z2r.sub(z5r);
+        FloatVector t5i = z2i.sub(z5i);
+        FloatVector t6r = z3r.sub(z4r);
+        FloatVector t6i = z3i.sub(z4i);
+        FloatVector t7r = z0r.sub(t3r.mul(0.5f));
+        FloatVector t7i = z0i.sub(t3i.mul(0.5f));
+        FloatVector t8r = t1r.sub(t3r);
+        FloatVector t8i = t1i.sub(t3i);
+        FloatVector t9r = t2r.sub(t3r);
+        FloatVector t9i = t2i.sub(t3i);
+        FloatVector y1r = t7r.add(t8r.mul(c1)).add(t9r.mul(c2));
+        FloatVector y1i = t7i.add(t8i.mul(c1)).add(t9i.mul(c2));
+        FloatVector y2r = t7r.add(t8r.mul(c2)).add(t9r.mul(c3));
+        FloatVector y2i = t7i.add(t8i.mul(c2)).add(t9i.mul(c3));
+        FloatVector y3r = t7r.add(t8r.mul(c3)).add(t9r.mul(c1));
+        FloatVector y3i = t7i.add(t8i.mul(c3)).add(t9i.mul(c1));
+        FloatVector y4r = t4r.mul(c6).sub(t5r.mul(c4)).add(t6r.mul(c5));
+        FloatVector y4i = t4i.mul(c6).sub(t5i.mul(c4)).add(t6i.mul(c5));
+        FloatVector y5r = t4r.mul(c5).sub(t5r.mul(c6)).sub(t6r.mul(c4));
+        FloatVector y5i = t4i.mul(c5).sub(t5i.mul(c6)).sub(t6i.mul(c4));
+        FloatVector y6r = t4r.mul(c4).add(t5r.mul(c5)).add(t6r.mul(c6));
+        FloatVector y6i = t4i.mul(c4).add(t5i.mul(c5)).add(t6i.mul(c6));
+        z0r.add(t1r).add(t2r).add(t3r).intoArray(zj0r,i1);
+        z0i.add(t1i).add(t2i).add(t3i).intoArray(zj0i,i1);
+        y1r.sub(y6i).intoArray(zj1r,i1);
+        y1i.add(y6r).intoArray(zj1i,i1);
+        y2r.sub(y5i).intoArray(zj2r,i1);
+        y2i.add(y5r).intoArray(zj2i,i1);
+        y3r.sub(y4i).intoArray(zj3r,i1);
+        y3i.add(y4r).intoArray(zj3i,i1);
+        y3r.add(y4i).intoArray(zj4r,i1);
+        y3i.sub(y4r).intoArray(zj4i,i1);
+        y2r.add(y5i).intoArray(zj5r,i1);
+        y2i.sub(y5r).intoArray(zj5i,i1);
+        y1r.add(y6i).intoArray(zj6r,i1);
+        y1i.sub(y6r).intoArray(zj6i,i1);
+      }
+      for (; i1<n1; ++i1) {
+        float t1r = zj1r[i1]+zj6r[i1];
+        float t1i = zj1i[i1]+zj6i[i1];
+        float t2r = zj2r[i1]+zj5r[i1];
+        float t2i = zj2i[i1]+zj5i[i1];
+        float t3r = zj3r[i1]+zj4r[i1];
+        float t3i = zj3i[i1]+zj4i[i1];
+        float t4r = zj1r[i1]-zj6r[i1];
+        float t4i = zj1i[i1]-zj6i[i1];
+        float t5r = zj2r[i1]-zj5r[i1];
+        float t5i = zj2i[i1]-zj5i[i1];
+        float t6r = zj3r[i1]-zj4r[i1];
+        float t6i = zj3i[i1]-zj4i[i1];
+        float t7r = zj0r[i1]-0.5f*t3r;
+        float t7i = zj0i[i1]-0.5f*t3i;
+        float t8r = t1r-t3r;
+        float t8i = t1i-t3i;
+        float t9r = t2r-t3r;
+        float t9i = t2i-t3i;
+        float y1r = t7r+c1*t8r+c2*t9r;
+        float y1i = t7i+c1*t8i+c2*t9i;
+        float y2r = t7r+c2*t8r+c3*t9r;
+        float y2i = t7i+c2*t8i+c3*t9i;
+        float y3r = t7r+c3*t8r+c1*t9r;
+        float y3i = t7i+c3*t8i+c1*t9i;
+        float y4r = c6*t4r-c4*t5r+c5*t6r;
+        float y4i = c6*t4i-c4*t5i+c5*t6i;
+        float y5r = c5*t4r-c6*t5r-c4*t6r;
+        float y5i = c5*t4i-c6*t5i-c4*t6i;
+        float y6r = c4*t4r+c5*t5r+c6*t6r;
+        float y6i = c4*t4i+c5*t5i+c6*t6i;
+        zj0r[i1] = zj0r[i1]+t1r+t2r+t3r;
+        zj0i[i1] = zj0i[i1]+t1i+t2i+t3i;
+        zj1r[i1] = y1r-y6i;
+        zj1i[i1] = y1i+y6r;
+        zj2r[i1] = y2r-y5i;
+        zj2i[i1] = y2i+y5r;
+        zj3r[i1] = y3r-y4i;
+        zj3i[i1] = y3i+y4r;
+        zj4r[i1] = y3r+y4i;
+        zj4i[i1] = y3i-y4r;
+        zj5r[i1] = y2r+y5i;
+        zj5i[i1] = y2i-y5r;
+        zj6r[i1] = y1r+y6i;
+        zj6i[i1] = y1i-y6r;
+      }
+      int jt = j6+2;
+      j6 = j5+2;
+      j5 = j4+2;
+      j4 = j3+2;
+      j3 = j2+2;
+      j2 = j1+2;
+      j1 = j0+2;
+      j0 = jt;
+    }
+  }
+  private static void pfa8b(int k1, int n1, float[][] z, int mu, int m,
+    int j0, int j1, int j2, int j3, int j4, int j5, int j6, int j7)
+  {
+    float c1,c2,c3;
+    if (mu==1) {
+      c1 =  PONE;
+      c2 =  P707;
+    } else if (mu==3) {
+      c1 = -PONE;
+      c2 = -P707;
+    } else if (mu==5) {
+      c1 =  PONE;
+      c2 = -P707;
+    } else {
+      c1 = -PONE;
+      c2 =  P707;
+    }
+    c3 = c1*c2;
+    for (int i=0; i<m; ++i) {
+      float[] zj0r = z[j0  ];
+      float[] zj0i = z[j0+1];
+      float[] zj1r = z[j1  ];
+      float[] zj1i = z[j1+1];
+      float[] zj2r = z[j2  ];
+      float[] zj2i = z[j2+1];
+      float[] zj3r = z[j3  ];
+      float[] zj3i = z[j3+1];
+      float[] zj4r = z[j4  ];
+      float[] zj4i = z[j4+1];
+      float[] zj5r = z[j5  ];
+      float[] zj5i = z[j5+1];
+      float[] zj6r = z[j6  ];
+      float[] zj6i = z[j6+1];
+      float[] zj7r = z[j7  ];
+      float[] zj7i = z[j7+1];
+      int i1 = k1;
+      for (int l1=k1+S.loopBound(n1-k1); i1<l1; i1+=NS) {
+        FloatVector z0i = FloatVector.fromArray(S,zj0i,i1);
+        FloatVector z0r = FloatVector.fromArray(S,zj0r,i1);
+        FloatVector z1i = FloatVector.fromArray(S,zj1i,i1);
+        FloatVector z1r = FloatVector.fromArray(S,zj1r,i1);
+        FloatVector z2i = FloatVector.fromArray(S,zj2i,i1);
+        FloatVector z2r = FloatVector.fromArray(S,zj2r,i1);
+        FloatVector z3i = FloatVector.fromArray(S,zj3i,i1);
+        FloatVector z3r = FloatVector.fromArray(S,zj3r,i1);
+        FloatVector z4i = FloatVector.fromArray(S,zj4i,i1);
+        FloatVector z4r = FloatVector.fromArray(S,zj4r,i1);
+        FloatVector z5i = FloatVector.fromArray(S,zj5i,i1);
+        FloatVector z5r = FloatVector.fromArray(S,zj5r,i1);
+        FloatVector z6i = FloatVector.fromArray(S,zj6i,i1);
+        FloatVector z6r = FloatVector.fromArray(S,zj6r,i1);
+        FloatVector z7i = FloatVector.fromArray(S,zj7i,i1);
+        FloatVector z7r = FloatVector.fromArray(S,zj7r,i1);
+        FloatVector t1r = z0r.add(z4r);
+        FloatVector t1i = z0i.add(z4i);
+        FloatVector t2r = z0r.sub(z4r);
+        FloatVector t2i = z0i.sub(z4i);
+        FloatVector t3r = z1r.add(z5r);
+        FloatVector t3i = z1i.add(z5i);
+        FloatVector t4r = z1r.sub(z5r);
+        FloatVector t4i = z1i.sub(z5i);
+        FloatVector t5r = z2r.add(z6r);
+        FloatVector t5i = z2i.add(z6i);
+        FloatVector t6r = z2r.sub(z6r).mul(c1);
+        FloatVector t6i = z2i.sub(z6i).mul(c1);
+        FloatVector t7r = z3r.add(z7r);
+        FloatVector t7i = z3i.add(z7i);
+        FloatVector t8r = z3r.sub(z7r);
+        FloatVector t8i = z3i.sub(z7i);
+        FloatVector t9r = t1r.add(t5r);
+        FloatVector t9i = t1i.add(t5i);
+        FloatVector t10r = t3r.add(t7r);
+        FloatVector t10i = t3i.add(t7i);
+        FloatVector t11r = t4r.sub(t8r).mul(c2);
+        FloatVector t11i = t4i.sub(t8i).mul(c2);
+        FloatVector t12r = t4r.add(t8r).mul(c3);
+        FloatVector t12i = t4i.add(t8i).mul(c3);
+        FloatVector y1r = t2r.add(t11r);
+        FloatVector y1i = t2i.add(t11i);
+        FloatVector y2r = t1r.sub(t5r);
+        FloatVector y2i = t1i.sub(t5i);
+        FloatVector y3r = t2r.sub(t11r);
+        FloatVector y3i = t2i.sub(t11i);
+        FloatVector y5r = t12r.sub(t6r);
+        FloatVector y5i = t12i.sub(t6i);
+        FloatVector y6r = t3r.sub(t7r).mul(c1);
+        FloatVector y6i = t3i.sub(t7i).mul(c1);
+        FloatVector y7r = t12r.add(t6r);
+        FloatVector y7i = t12i.add(t6i);
+        t9r.add(t10r).intoArray(zj0r,i1);
+        t9i.add(t10i).intoArray(zj0i,i1);
+        y1r.sub(y7i).intoArray(zj1r,i1);
+        y1i.add(y7r).intoArray(zj1i,i1);
+        y2r.sub(y6i).intoArray(zj2r,i1);
+        y2i.add(y6r).intoArray(zj2i,i1);
+        y3r.sub(y5i).intoArray(zj3r,i1);
+        y3i.add(y5r).intoArray(zj3i,i1);
+        t9r.sub(t10r).intoArray(zj4r,i1);
+        t9i.sub(t10i).intoArray(zj4i,i1);
+        y3r.add(y5i).intoArray(zj5r,i1);
+        y3i.sub(y5r).intoArray(zj5i,i1);
+        y2r.add(y6i).intoArray(zj6r,i1);
+        y2i.sub(y6r).intoArray(zj6i,i1);
+        y1r.add(y7i).intoArray(zj7r,i1);
+        y1i.sub(y7r).intoArray(zj7i,i1);
+      }
+      for (; i1<n1; ++i1) {
+        float t1r = zj0r[i1]+zj4r[i1];
+        float t1i = zj0i[i1]+zj4i[i1];
+        float t2r = zj0r[i1]-zj4r[i1];
+        float t2i = zj0i[i1]-zj4i[i1];
+        float t3r = zj1r[i1]+zj5r[i1];
+        float t3i = zj1i[i1]+zj5i[i1];
+        float t4r = zj1r[i1]-zj5r[i1];
+        float t4i = zj1i[i1]-zj5i[i1];
+        float t5r = zj2r[i1]+zj6r[i1];
+        float t5i = zj2i[i1]+zj6i[i1];
+        float t6r = c1*(zj2r[i1]-zj6r[i1]);
+        float t6i = c1*(zj2i[i1]-zj6i[i1]);
+        float t7r = zj3r[i1]+zj7r[i1];
+        float t7i = zj3i[i1]+zj7i[i1];
+        float t8r = zj3r[i1]-zj7r[i1];
+        float t8i = zj3i[i1]-zj7i[i1];
+        float t9r = t1r+t5r;
+        float t9i = t1i+t5i;
+        float t10r = t3r+t7r;
+        float t10i = t3i+t7i;
+        float t11r = c2*(t4r-t8r);
+        float t11i = c2*(t4i-t8i);
+        float t12r = c3*(t4r+t8r);
+        float t12i = c3*(t4i+t8i);
+        float y1r = t2r+t11r;
+        float y1i = t2i+t11i;
+        float y2r = t1r-t5r;
+        float y2i = t1i-t5i;
+        float y3r = t2r-t11r;
+        float y3i = t2i-t11i;
+        float y5r = t12r-t6r;
+        float y5i = t12i-t6i;
+        float y6r = c1*(t3r-t7r);
+        float y6i = c1*(t3i-t7i);
+        float y7r = t12r+t6r;
+        float y7i = t12i+t6i;
+        zj0r[i1] = t9r+t10r;
+        zj0i[i1] = t9i+t10i;
+        zj1r[i1] = y1r-y7i;
+        zj1i[i1] = y1i+y7r;
+        zj2r[i1] = y2r-y6i;
+        zj2i[i1] = y2i+y6r;
+        zj3r[i1] = y3r-y5i;
+        zj3i[i1] = y3i+y5r;
+        zj4r[i1] = t9r-t10r;
+        zj4i[i1] = t9i-t10i;
+        zj5r[i1] = y3r+y5i;
+        zj5i[i1] = y3i-y5r;
+        zj6r[i1] = y2r+y6i;
+        zj6i[i1] = y2i-y6r;
+        zj7r[i1] = y1r+y7i;
+        zj7i[i1] = y1i-y7r;
+      }
+      int jt = j7+2;
+      j7 = j6+2;
+      j6 = j5+2;
+      j5 = j4+2;
+      j4 = j3+2;
+      j3 = j2+2;
+      j2 = j1+2;
+      j1 = j0+2;
+      j0 = jt;
+    }
+  }
+  private static void pfa9b(int k1, int n1, float[][] z, int mu, int m,
+    int j0, int j1, int j2, int j3, int j4, int j5, int j6, int j7, int j8)
+  {
+    float c1,c2,c3,c4,c5,c6,c7,c8,c9;
+    if (mu==1) {
+      c1 =  P866;
+      c2 =  P766;
+      c3 =  P642;
+      c4 =  P173;
+      c5 =  P984;
+    } else if (mu==2) {
+      c1 = -P866;
+      c2 =  P173;
+      c3 =  P984;
+      c4 = -P939;
+      c5 =  P342;
+    } else if (mu==4) {
+      c1 =  P866;
+      c2 = -P939;
+      c3 =  P342;
+      c4 =  P766;
+      c5 = -P642;
+    } else if (mu==5) {
+      c1 = -P866;
+      c2 = -P939;
+      c3 = -P342;
+      c4 =  P766;
+      c5 =  P642;
+    } else if (mu==7) {
+      c1 =  P866;
+      c2 =  P173;
+      c3 = -P984;
+      c4 = -P939;
+      c5 = -P342;
+    } else {
+      c1 = -P866;
+      c2 =  P766;
+      c3 = -P642;
+      c4 =  P173;
+      c5 = -P984;
+    }
+    c6 = c1*c2;
+    c7 = c1*c3;
+    c8 = c1*c4;
+    c9 = c1*c5;
+    for (int i=0; i<m; ++i) {
+      float[] zj0r = z[j0  ];
+      float[] zj0i = z[j0+1];
+      float[] zj1r = z[j1  ];
+      float[] zj1i = z[j1+1];
+      float[] zj2r = z[j2  ];
+      float[] zj2i = z[j2+1];
+      float[] zj3r = z[j3  ];
+      float[] zj3i = z[j3+1];
+      float[] zj4r = z[j4  ];
+      float[] zj4i = z[j4+1];
+      float[] zj5r = z[j5  ];
+      float[] zj5i = z[j5+1];
+      float[] zj6r = z[j6  ];
+      float[] zj6i = z[j6+1];
+      float[] zj7r = z[j7  ];
+      float[] zj7i = z[j7+1];
+      float[] zj8r = z[j8  ];
+      float[] zj8i = z[j8+1];
+      int i1 = k1;
+      for (int l1=k1+S.loopBound(n1-k1); i1<l1; i1+=NS) {
+        FloatVector z0i = FloatVector.fromArray(S,zj0i,i1);
+        FloatVector z0r = FloatVector.fromArray(S,zj0r,i1);
+        FloatVector z1i = FloatVector.fromArray(S,zj1i,i1);
+        FloatVector z1r = FloatVector.fromArray(S,zj1r,i1);
+        FloatVector z2i = FloatVector.fromArray(S,zj2i,i1);
+        FloatVector z2r = FloatVector.fromArray(S,zj2r,i1);
+        FloatVector z3i = FloatVector.fromArray(S,zj3i,i1);
+        FloatVector z3r = FloatVector.fromArray(S,zj3r,i1);
+        FloatVector z4i = FloatVector.fromArray(S,zj4i,i1);
+        FloatVector z4r = FloatVector.fromArray(S,zj4r,i1);
+        FloatVector z5i = FloatVector.fromArray(S,zj5i,i1);
+        FloatVector z5r = FloatVector.fromArray(S,zj5r,i1);
+        FloatVector z6i = FloatVector.fromArray(S,zj6i,i1);
+        FloatVector z6r = FloatVector.fromArray(S,zj6r,i1);
+        FloatVector z7i = FloatVector.fromArray(S,zj7i,i1);
+        FloatVector z7r = FloatVector.fromArray(S,zj7r,i1);
+        FloatVector z8i = FloatVector.fromArray(S,zj8i,i1);
+        FloatVector z8r = FloatVector.fromArray(S,zj8r,i1);
+        FloatVector t1r = z3r.add(z6r);
+        FloatVector t1i = z3i.add(z6i);
+        FloatVector t2r = z0r.sub(t1r.mul(0.5f));
+        FloatVector t2i = z0i.sub(t1i.mul(0.5f));
+        FloatVector t3r = z3r.sub(z6r).mul(c1);
+        FloatVector t3i = z3i.sub(z6i).mul(c1);
+        FloatVector t4r = z0r.add(t1r);
+        FloatVector t4i = z0i.add(t1i);
+        FloatVector t5r = z4r.add(z7r);
+        FloatVector t5i = z4i.add(z7i);
+        FloatVector t6r = z1r.sub(t5r.mul(0.5f));
+        FloatVector t6i = z1i.sub(t5i.mul(0.5f));
+        FloatVector t7r = z4r.sub(z7r);
+        FloatVector t7i = z4i.sub(z7i);
+        FloatVector t8r = z1r.add(t5r);
+        FloatVector t8i = z1i.add(t5i);
+        FloatVector t9r = z2r.add(z5r);
+        FloatVector t9i = z2i.add(z5i);
+        FloatVector t10r = z8r.sub(t9r.mul(0.5f));
+        FloatVector t10i = z8i.sub(t9i.mul(0.5f));
+        FloatVector t11r = z2r.sub(z5r);
+        FloatVector t11i = z2i.sub(z5i);
+        FloatVector t12r = z8r.add(t9r);
+        FloatVector t12i = z8i.add(t9i);
+        FloatVector t13r = t8r.add(t12r);
+        FloatVector t13i = t8i.add(t12i);
+        FloatVector t14r = t6r.add(t10r);
+        FloatVector t14i = t6i.add(t10i);
+        FloatVector t15r = t6r.sub(t10r);
+        FloatVector t15i = t6i.sub(t10i);
+        FloatVector t16r = t7r.add(t11r);
+        FloatVector t16i = t7i.add(t11i);
+        FloatVector t17r = t7r.sub(t11r);
+        FloatVector t17i = t7i.sub(t11i);
+        FloatVector t18r = t14r.mul(c2).sub(t17r.mul(c7));
+        FloatVector t18i = t14i.mul(c2).sub(t17i.mul(c7));
+        FloatVector t19r = t14r.mul(c4).add(t17r.mul(c9));
+        FloatVector t19i = t14i.mul(c4).add(t17i.mul(c9));
+        FloatVector t20r = t15r.mul(c3).add(t16r.mul(c6));
+        FloatVector t20i = t15i.mul(c3).add(t16i.mul(c6));
+        FloatVector t21r = t15r.mul(c5).sub(t16r.mul(c8));
+        FloatVector t21i = t15i.mul(c5).sub(t16i.mul(c8));
+        FloatVector t22r = t18r.add(t19r);
+        FloatVector t22i = t18i.add(t19i);
+        FloatVector t23r = t20r.sub(t21r);
+        FloatVector t23i = t20i.sub(t21i);
+        FloatVector y1r = t2r.add(t18r);
+        FloatVector y1i = t2i.add(t18i);
+        FloatVector y2r = t2r.add(t19r);
+        FloatVector y2i = t2i.add(t19i);
+        FloatVector y3r = t4r.sub(t13r.mul(0.5f));
+        FloatVector y3i = t4i.sub(t13i.mul(0.5f));
+        FloatVector y4r = t2r.sub(t22r);
+        FloatVector y4i = t2i.sub(t22i);
+        FloatVector y5r = t3r.sub(t23r);
+        FloatVector y5i = t3i.sub(t23i);
+        FloatVector y6r = t8r.sub(t12r).mul(c1);
+        FloatVector y6i = t8i.sub(t12i).mul(c1);
+        FloatVector y7r = t21r.sub(t3r);
+        FloatVector y7i = t21i.sub(t3i);
+        FloatVector y8r = t3r.add(t20r);
+        FloatVector y8i = t3i.add(t20i);
+        t4r.add(t13r).intoArray(zj0r,i1);
+        t4i.add(t13i).intoArray(zj0i,i1);
+        y1r.sub(y8i).intoArray(zj1r,i1);
+        y1i.add(y8r).intoArray(zj1i,i1);
+        y2r.sub(y7i).intoArray(zj2r,i1);
+        y2i.add(y7r).intoArray(zj2i,i1);
+        y3r.sub(y6i).intoArray(zj3r,i1);
+        y3i.add(y6r).intoArray(zj3i,i1);
+        y4r.sub(y5i).intoArray(zj4r,i1);
+        y4i.add(y5r).intoArray(zj4i,i1);
+        y4r.add(y5i).intoArray(zj5r,i1);
+        y4i.sub(y5r).intoArray(zj5i,i1);
+        y3r.add(y6i).intoArray(zj6r,i1);
+        y3i.sub(y6r).intoArray(zj6i,i1);
+        y2r.add(y7i).intoArray(zj7r,i1);
+        y2i.sub(y7r).intoArray(zj7i,i1);
+        y1r.add(y8i).intoArray(zj8r,i1);
+        y1i.sub(y8r).intoArray(zj8i,i1);
+      }
+      for (; i1<n1; ++i1) {
+        float t1r  = zj3r[i1]+zj6r[i1];
+        float t1i  = zj3i[i1]+zj6i[i1];
+        float t2r  = zj0r[i1]-0.5f*t1r;
+        float t2i  = zj0i[i1]-0.5f*t1i;
+        float t3r  = c1*(zj3r[i1]-zj6r[i1]);
+        float t3i  = c1*(zj3i[i1]-zj6i[i1]);
+        float t4r  = zj0r[i1]+t1r;
+        float t4i  = zj0i[i1]+t1i;
+        float t5r  = zj4r[i1]+zj7r[i1];
+        float t5i  = zj4i[i1]+zj7i[i1];
+        float t6r  = zj1r[i1]-0.5f*t5r;
+        float t6i  = zj1i[i1]-0.5f*t5i;
+        float t7r  = zj4r[i1]-zj7r[i1];
+        float t7i  = zj4i[i1]-zj7i[i1];
+        float t8r  = zj1r[i1]+t5r;
+        float t8i  = zj1i[i1]+t5i;
+        float t9r  = zj2r[i1]+zj5r[i1];
+        float t9i  = zj2i[i1]+zj5i[i1];
+        float t10r = zj8r[i1]-0.5f*t9r;
+        float t10i = zj8i[i1]-0.5f*t9i;
+        float t11r = zj2r[i1]-zj5r[i1];
+        float t11i = zj2i[i1]-zj5i[i1];
+        float t12r = zj8r[i1]+t9r;
+        float t12i = zj8i[i1]+t9i;
+        float t13r = t8r+t12r;
+        float t13i = t8i+t12i;
+        float t14r = t6r+t10r;
+        float t14i = t6i+t10i;
+        float t15r = t6r-t10r;
+        float t15i = t6i-t10i;
+        float t16r = t7r+t11r;
+        float t16i = t7i+t11i;
+        float t17r = t7r-t11r;
+        float t17i = t7i-t11i;
+        float t18r = c2*t14r-c7*t17r;
+        float t18i = c2*t14i-c7*t17i;
+        float t19r = c4*t14r+c9*t17r;
+        float t19i = c4*t14i+c9*t17i;
+        float t20r = c3*t15r+c6*t16r;
+        float t20i = c3*t15i+c6*t16i;
+        float t21r = c5*t15r-c8*t16r;
+        float t21i = c5*t15i-c8*t16i;
+        float t22r = t18r+t19r;
+        float t22i = t18i+t19i;
+        float t23r = t20r-t21r;
+        float t23i = t20i-t21i;
+        float y1r  = t2r+t18r;
+        float y1i  = t2i+t18i;
+        float y2r  = t2r+t19r;
+        float y2i  = t2i+t19i;
+        float y3r  = t4r-0.5f*t13r;
+        float y3i  = t4i-0.5f*t13i;
+        float y4r  = t2r-t22r;
+        float y4i  = t2i-t22i;
+        float y5r  = t3r-t23r;
+        float y5i  = t3i-t23i;
+        float y6r  = c1*(t8r-t12r);
+        float y6i  = c1*(t8i-t12i);
+        float y7r  = t21r-t3r;
+        float y7i  = t21i-t3i;
+        float y8r  = t3r+t20r;
+        float y8i  = t3i+t20i;
+        zj0r[i1] = t4r+t13r;
+        zj0i[i1] = t4i+t13i;
+        zj1r[i1] = y1r-y8i;
+        zj1i[i1] = y1i+y8r;
+        zj2r[i1] = y2r-y7i;
+        zj2i[i1] = y2i+y7r;
+        zj3r[i1] = y3r-y6i;
+        zj3i[i1] = y3i+y6r;
+        zj4r[i1] = y4r-y5i;
+        zj4i[i1] = y4i+y5r;
+        zj5r[i1] = y4r+y5i;
+        zj5i[i1] = y4i-y5r;
+        zj6r[i1] = y3r+y6i;
+        zj6i[i1] = y3i-y6r;
+        zj7r[i1] = y2r+y7i;
+        zj7i[i1] = y2i-y7r;
+        zj8r[i1] = y1r+y8i;
+        zj8i[i1] = y1i-y8r;
+      }
+      int jt = j8+2;
+      j8 = j7+2;
+      j7 = j6+2;
+      j6 = j5+2;
+      j5 = j4+2;
+      j4 = j3+2;
+      j3 = j2+2;
+      j2 = j1+2;
+      j1 = j0+2;
+      j0 = jt;
+    }
+  }
+  private static void pfa11b(int k1, int n1, float[][] z, int mu, int m,
+    int j0, int j1, int j2, int j3, int j4, int j5, 
+    int j6, int j7, int j8, int j9, int j10)
+  {
+    float c1,c2,c3,c4,c5,c6,c7,c8,c9,c10;
+    if (mu==1) {
+      c1  =  P841;
+      c2  =  P415;
+      c3  = -P142;
+      c4  = -P654;
+      c5  = -P959;
+      c6  =  P540;
+      c7  =  P909;
+      c8  =  P989;
+      c9  =  P755;
+      c10 =  P281;
+    } else if (mu==2) {
+      c1  =  P415;
+      c2  = -P654;
+      c3  = -P959;
+      c4  = -P142;
+      c5  =  P841;
+      c6  =  P909;
+      c7  =  P755;
+      c8  = -P281;
+      c9  = -P989;
+      c10 = -P540;
+    } else if (mu==3) {
+      c1  = -P142;
+      c2  = -P959;
+      c3  =  P415;
+      c4  =  P841;
+      c5  = -P654;
+      c6  =  P989;
+      c7  = -P281;
+      c8  = -P909;
+      c9  =  P540;
+      c10 =  P755;
+    } else if (mu==4) {
+      c1  = -P654;
+      c2  = -P142;
+      c3  =  P841;
+      c4  = -P959;
+      c5  =  P415;
+      c6  =  P755;
+      c7  = -P989;
+      c8  =  P540;
+      c9  =  P281;
+      c10 = -P909;
+    } else if (mu==5) {
+      c1  = -P959;
+      c2  =  P841;
+      c3  = -P654;
+      c4  =  P415;
+      c5  = -P142;
+      c6  =  P281;
+      c7  = -P540;
+      c8  =  P755;
+      c9  = -P909;
+      c10 =  P989;
+    } else if (mu==6) {
+      c1  = -P959;
+      c2  =  P841;
+      c3  = -P654;
+      c4  =  P415;
+      c5  = -P142;
+      c6  = -P281;
+      c7  =  P540;
+      c8  = -P755;
+      c9  =  P909;
+      c10 = -P989;
+    } else if (mu==7) {
+      c1  = -P654;
+      c2  = -P142;
+      c3  =  P841;
+      c4  = -P959;
+      c5  =  P415;
+      c6  = -P755;
+      c7  =  P989;
+      c8  = -P540;
+      c9  = -P281;
+      c10 =  P909;
+    } else if (mu==8) {
+      c1  = -P142;
+      c2  = -P959;
+      c3  =  P415;
+      c4  =  P841;
+      c5  = -P654;
+      c6  = -P989;
+      c7  =  P281;
+      c8  =  P909;
+      c9  = -P540;
+      c10 = -P755;
+    } else if (mu==9) {
+      c1  =  P415;
+      c2  = -P654;
+      c3  = -P959;
+      c4  = -P142;
+      c5  =  P841;
+      c6  = -P909;
+      c7  = -P755;
+      c8  =  P281;
+      c9  =  P989;
+      c10 =  P540;
+    } else {
+      c1  =  P841;
+      c2  =  P415;
+      c3  = -P142;
+      c4  = -P654;
+      c5  = -P959;
+      c6  = -P540;
+      c7  = -P909;
+      c8  = -P989;
+      c9  = -P755;
+      c10 = -P281;
+    }
+    for (int i=0; i<m; ++i) {
+      float[] zj0r = z[j0  ];
+      float[] zj0i = z[j0+1];
+      float[] zj1r = z[j1  ];
+      float[] zj1i = z[j1+1];
+      float[] zj2r = z[j2  ];
+      float[] zj2i = z[j2+1];
+      float[] zj3r = z[j3  ];
+      float[] zj3i = z[j3+1];
+      float[] zj4r = z[j4  ];
+      float[] zj4i = z[j4+1];
+      float[] zj5r = z[j5  ];
+      float[] zj5i = z[j5+1];
+      float[] zj6r = z[j6  ];
+      float[] zj6i = z[j6+1];
+      float[] zj7r = z[j7  ];
+      float[] zj7i = z[j7+1];
+      float[] zj8r = z[j8  ];
+      float[] zj8i = z[j8+1];
+      float[] zj9r = z[j9  ];
+      float[] zj9i = z[j9+1];
+      float[] zj10r = z[j10  ];
+      float[] zj10i = z[j10+1];
+      int i1 = k1;
+      for (int l1=k1+S.loopBound(n1-k1); i1<l1; i1+=NS) {
+        FloatVector z0i = FloatVector.fromArray(S,zj0i,i1);
+        FloatVector z0r = FloatVector.fromArray(S,zj0r,i1);
+        FloatVector z1i = FloatVector.fromArray(S,zj1i,i1);
+        FloatVector z1r = FloatVector.fromArray(S,zj1r,i1);
+        FloatVector z2i = FloatVector.fromArray(S,zj2i,i1);
+        FloatVector z2r = FloatVector.fromArray(S,zj2r,i1);
+        FloatVector z3i = FloatVector.fromArray(S,zj3i,i1);
+        FloatVector z3r = FloatVector.fromArray(S,zj3r,i1);
+        FloatVector z4i = FloatVector.fromArray(S,zj4i,i1);
+        FloatVector z4r = FloatVector.fromArray(S,zj4r,i1);
+        FloatVector z5i = FloatVector.fromArray(S,zj5i,i1);
+        FloatVector z5r = FloatVector.fromArray(S,zj5r,i1);
+        FloatVector z6i = FloatVector.fromArray(S,zj6i,i1);
+        FloatVector z6r = FloatVector.fromArray(S,zj6r,i1);
+        FloatVector z7i = FloatVector.fromArray(S,zj7i,i1);
+        FloatVector z7r = FloatVector.fromArray(S,zj7r,i1);
+        FloatVector z8i = FloatVector.fromArray(S,zj8i,i1);
+        FloatVector z8r = FloatVector.fromArray(S,zj8r,i1);
+        FloatVector z9i = FloatVector.fromArray(S,zj9i,i1);
+        FloatVector z9r = FloatVector.fromArray(S,zj9r,i1);
+        FloatVector z10i = FloatVector.fromArray(S,zj10i,i1);
+        FloatVector z10r = FloatVector.fromArray(S,zj10r,i1);
+        FloatVector t1r = z1r.add(z10r);
+        FloatVector t1i = z1i.add(z10i);
+        FloatVector t2r = z2r.add(z9r);
+        FloatVector t2i = z2i.add(z9i);
+        FloatVector t3r = z3r.add(z8r);
+        FloatVector t3i = z3i.add(z8i);
+        FloatVector t4r = z4r.add(z7r);
+        FloatVector t4i = z4i.add(z7i);
+        FloatVector t5r = z5r.add(z6r);
+        FloatVector t5i = z5i.add(z6i);
+        FloatVector t6r = z1r.sub(z10r);
+        FloatVector t6i = z1i.sub(z10i);
+        FloatVector t7r = z2r.sub(z9r);
+        FloatVector t7i = z2i.sub(z9i);
+        FloatVector t8r = z3r.sub(z8r);
+        FloatVector t8i = z3i.sub(z8i);
+        FloatVector t9r = z4r.sub(z7r);
+        FloatVector t9i = z4i.sub(z7i);
+        FloatVector t10r = z5r.sub(z6r);
+        FloatVector t10i = z5i.sub(z6i);
+        FloatVector t11r = z0r.sub(t5r.mul(0.5f));
+        FloatVector t11i = z0i.sub(t5i.mul(0.5f));
+        FloatVector t12r = t1r.sub(t5r);
+        FloatVector t12i = t1i.sub(t5i);
+        FloatVector t13r = t2r.sub(t5r);
+        FloatVector t13i = t2i.sub(t5i);
+        FloatVector t14r = t3r.sub(t5r);
+        FloatVector t14i = t3i.sub(t5i);
+        FloatVector t15r = t4r.sub(t5r);
+        FloatVector t15i = t4i.sub(t5i);
+        FloatVector y1r = t11r.add(t12r.mul(c1)).add(t13r.mul(c2))
+            .add(t14r.mul(c3)).add(t15r.mul(c4));
+        FloatVector y1i = t11i.add(t12i.mul(c1)).add(t13i.mul(c2))
+            .add(t14i.mul(c3)).add(t15i.mul(c4));
+        FloatVector y2r = t11r.add(t12r.mul(c2)).add(t13r.mul(c4))
+            .add(t14r.mul(c5)).add(t15r.mul(c3));
+        FloatVector y2i = t11i.add(t12i.mul(c2)).add(t13i.mul(c4))
+            .add(t14i.mul(c5)).add(t15i.mul(c3));
+        FloatVector y3r = t11r.add(t12r.mul(c3)).add(t13r.mul(c5))
+            .add(t14r.mul(c2)).add(t15r.mul(c1));
+        FloatVector y3i = t11i.add(t12i.mul(c3)).add(t13i.mul(c5))
+            .add(t14i.mul(c2)).add(t15i.mul(c1));
+        FloatVector y4r = t11r.add(t12r.mul(c4)).add(t13r.mul(c3))
+            .add(t14r.mul(c1)).add(t15r.mul(c5));
+        FloatVector y4i = t11i.add(t12i.mul(c4)).add(t13i.mul(c3))
+            .add(t14i.mul(c1)).add(t15i.mul(c5));
+        FloatVector y5r = t11r.add(t12r.mul(c5)).add(t13r.mul(c1))
+            .add(t14r.mul(c4)).add(t15r.mul(c2));
+        FloatVector y5i = t11i.add(t12i.mul(c5)).add(t13i.mul(c1))
+            .add(t14i.mul(c4)).add(t15i.mul(c2));
+        FloatVector y6r = t6r.mul(c10).sub(t7r.mul(c6)).add(t8r.mul(c9))
+            .sub(t9r.mul(c7)).add(t10r.mul(c8));
+        FloatVector y6i = t6i.mul(c10).sub(t7i.mul(c6)).add(t8i.mul(c9))
+            .sub(t9i.mul(c7)).add(t10i.mul(c8));
+        FloatVector y7r = t6r.mul(c9).sub(t7r.mul(c8)).add(t8r.mul(c6))
+            .add(t9r.mul(c10)).sub(t10r.mul(c7));
+        FloatVector y7i = t6i.mul(c9).sub(t7i.mul(c8)).add(t8i.mul(c6))
+            .add(t9i.mul(c10)).sub(t10i.mul(c7));
+        FloatVector y8r = t6r.mul(c8).sub(t7r.mul(c10)).sub(t8r.mul(c7))
+            .add(t9r.mul(c6)).add(t10r.mul(c9));
+        FloatVector y8i = t6i.mul(c8).sub(t7i.mul(c10)).sub(t8i.mul(c7))
+            .add(t9i.mul(c6)).add(t10i.mul(c9));
+        FloatVector y9r = t6r.mul(c7).add(t7r.mul(c9)).sub(t8r.mul(c10))
+            .sub(t9r.mul(c8)).sub(t10r.mul(c6));
+        FloatVector y9i = t6i.mul(c7).add(t7i.mul(c9)).sub(t8i.mul(c10))
+            .sub(t9i.mul(c8)).sub(t10i.mul(c6));
+        FloatVector y10r = t6r.mul(c6).add(t7r.mul(c7)).add(t8r.mul(c8))
+            .add(t9r.mul(c9)).add(t10r.mul(c10));
+        FloatVector y10i = t6i.mul(c6).add(t7i.mul(c7)).add(t8i.mul(c8))
+            .add(t9i.mul(c9)).add(t10i.mul(c10));
+        z0r.add(t1r).add(t2r).add(t3r).add(t4r).add(t5r).intoArray(zj0r,i1);
+        z0i.add(t1i).add(t2i).add(t3i).add(t4i).add(t5i).intoArray(zj0i,i1);
+        y1r.sub(y10i).intoArray(zj1r,i1);
+        y1i.add(y10r).intoArray(zj1i,i1);
+        y2r.sub(y9i).intoArray(zj2r,i1);
+        y2i.add(y9r).intoArray(zj2i,i1);
+        y3r.sub(y8i).intoArray(zj3r,i1);
+        y3i.add(y8r).intoArray(zj3i,i1);
+        y4r.sub(y7i).intoArray(zj4r,i1);
+        y4i.add(y7r).intoArray(zj4i,i1);
+        y5r.sub(y6i).intoArray(zj5r,i1);
+        y5i.add(y6r).intoArray(zj5i,i1);
+        y5r.add(y6i).intoArray(zj6r,i1);
+        y5i.sub(y6r).intoArray(zj6i,i1);
+        y4r.add(y7i).intoArray(zj7r,i1);
+        y4i.sub(y7r).intoArray(zj7i,i1);
+        y3r.add(y8i).intoArray(zj8r,i1);
+        y3i.sub(y8r).intoArray(zj8i,i1);
+        y2r.add(y9i).intoArray(zj9r,i1);
+        y2i.sub(y9r).intoArray(zj9i,i1);
+        y1r.add(y10i).intoArray(zj10r,i1);
+        y1i.sub(y10r).intoArray(zj10i,i1);
+      }
+      for (; i1<n1; ++i1) {
+        float t1r  = zj1r[i1]+zj10r[i1];
+        float t1i  = zj1i[i1]+zj10i[i1];
+        float t2r  = zj2r[i1]+zj9r[i1];
+        float t2i  = zj2i[i1]+zj9i[i1];
+        float t3r  = zj3r[i1]+zj8r[i1];
+        float t3i  = zj3i[i1]+zj8i[i1];
+        float t4r  = zj4r[i1]+zj7r[i1];
+        float t4i  = zj4i[i1]+zj7i[i1];
+        float t5r  = zj5r[i1]+zj6r[i1];
+        float t5i  = zj5i[i1]+zj6i[i1];
+        float t6r  = zj1r[i1]-zj10r[i1];
+        float t6i  = zj1i[i1]-zj10i[i1];
+        float t7r  = zj2r[i1]-zj9r[i1];
+        float t7i  = zj2i[i1]-zj9i[i1];
+        float t8r  = zj3r[i1]-zj8r[i1];
+        float t8i  = zj3i[i1]-zj8i[i1];
+        float t9r  = zj4r[i1]-zj7r[i1];
+        float t9i  = zj4i[i1]-zj7i[i1];
+        float t10r = zj5r[i1]-zj6r[i1];
+        float t10i = zj5i[i1]-zj6i[i1];
+        float t11r = zj0r[i1]-0.5f*t5r;
+        float t11i = zj0i[i1]-0.5f*t5i;
+        float t12r = t1r-t5r;
+        float t12i = t1i-t5i;
+        float t13r = t2r-t5r;
+        float t13i = t2i-t5i;
+        float t14r = t3r-t5r;
+        float t14i = t3i-t5i;
+        float t15r = t4r-t5r;
+        float t15i = t4i-t5i;
+        float y1r  = t11r+c1*t12r+c2*t13r+c3*t14r+c4*t15r;
+        float y1i  = t11i+c1*t12i+c2*t13i+c3*t14i+c4*t15i;
+        float y2r  = t11r+c2*t12r+c4*t13r+c5*t14r+c3*t15r;
+        float y2i  = t11i+c2*t12i+c4*t13i+c5*t14i+c3*t15i;
+        float y3r  = t11r+c3*t12r+c5*t13r+c2*t14r+c1*t15r;
+        float y3i  = t11i+c3*t12i+c5*t13i+c2*t14i+c1*t15i;
+        float y4r  = t11r+c4*t12r+c3*t13r+c1*t14r+c5*t15r;
+        float y4i  = t11i+c4*t12i+c3*t13i+c1*t14i+c5*t15i;
+        float y5r  = t11r+c5*t12r+c1*t13r+c4*t14r+c2*t15r;
+        float y5i  = t11i+c5*t12i+c1*t13i+c4*t14i+c2*t15i;
+        float y6r  = c10*t6r-c6*t7r+c9*t8r-c7*t9r+c8*t10r;
+        float y6i  = c10*t6i-c6*t7i+c9*t8i-c7*t9i+c8*t10i;
+        float y7r  = c9*t6r-c8*t7r+c6*t8r+c10*t9r-c7*t10r;
+        float y7i  = c9*t6i-c8*t7i+c6*t8i+c10*t9i-c7*t10i;
+        float y8r  = c8*t6r-c10*t7r-c7*t8r+c6*t9r+c9*t10r;
+        float y8i  = c8*t6i-c10*t7i-c7*t8i+c6*t9i+c9*t10i;
+        float y9r  = c7*t6r+c9*t7r-c10*t8r-c8*t9r-c6*t10r;
+        float y9i  = c7*t6i+c9*t7i-c10*t8i-c8*t9i-c6*t10i;
+        float y10r = c6*t6r+c7*t7r+c8*t8r+c9*t9r+c10*t10r;
+        float y10i = c6*t6i+c7*t7i+c8*t8i+c9*t9i+c10*t10i;
+        zj0r[i1]  = zj0r[i1]+t1r+t2r+t3r+t4r+t5r;
+        zj0i[i1]  = zj0i[i1]+t1i+t2i+t3i+t4i+t5i;
+        zj1r[i1]  = y1r-y10i;
+        zj1i[i1]  = y1i+y10r;
+        zj2r[i1]  = y2r-y9i;
+        zj2i[i1]  = y2i+y9r;
+        zj3r[i1]  = y3r-y8i;
+        zj3i[i1]  = y3i+y8r;
+        zj4r[i1]  = y4r-y7i;
+        zj4i[i1]  = y4i+y7r;
+        zj5r[i1]  = y5r-y6i;
+        zj5i[i1]  = y5i+y6r;
+        zj6r[i1]  = y5r+y6i;
+        zj6i[i1]  = y5i-y6r;
+        zj7r[i1]  = y4r+y7i;
+        zj7i[i1]  = y4i-y7r;
+        zj8r[i1]  = y3r+y8i;
+        zj8i[i1]  = y3i-y8r;
+        zj9r[i1]  = y2r+y9i;
+        zj9i[i1]  = y2i-y9r;
+        zj10r[i1] = y1r+y10i;
+        zj10i[i1] = y1i-y10r;
+      }
+      int jt = j10+2;
+      j10 = j9+2;
+      j9 = j8+2;
+      j8 = j7+2;
+      j7 = j6+2;
+      j6 = j5+2;
+      j5 = j4+2;
+      j4 = j3+2;
+      j3 = j2+2;
+      j2 = j1+2;
+      j1 = j0+2;
+      j0 = jt;
+    }
+  }
+  private static void pfa13b(int k1, int n1, float[][] z, int mu, int m,
+    int j0, int j1, int j2, int j3, int j4, int j5, int j6, 
+    int j7, int j8, int j9, int j10, int j11, int j12)
+  {
+    float c1,c2,c3,c4,c5,c6,c7,c8,c9,c10,c11,c12;
+    if (mu==1) {
+      c1  =  P885;
+      c2  =  P568;
+      c3  =  P120;
+      c4  = -P354;
+      c5  = -P748;
+      c6  = -P970;
+      c7  =  P464;
+      c8  =  P822;
+      c9  =  P992;
+      c10 =  P935;
+      c11 =  P663;
+      c12 =  P239;
+    } else if (mu==2) {
+      c1  =  P568;
+      c2  = -P354;
+      c3  = -P970;
+      c4  = -P748;
+      c5  =  P120;
+      c6  =  P885;
+      c7  =  P822;
+      c8  =  P935;
+      c9  =  P239;
+      c10 = -P663;
+      c11 = -P992;
+      c12 = -P464;
+    } else if (mu==3) {
+      c1  =  P120;
+      c2  = -P970;
+      c3  = -P354;
+      c4  =  P885;
+      c5  =  P568;
+      c6  = -P748;
+      c7  =  P992;
+      c8  =  P239;
+      c9  = -P935;
+      c10 = -P464;
+      c11 =  P822;
+      c12 =  P663;
+    } else if (mu==4) {
+      c1  = -P354;
+      c2  = -P748;
+      c3  =  P885;
+      c4  =  P120;
+      c5  = -P970;
+      c6  =  P568;
+      c7  =  P935;
+      c8  = -P663;
+      c9  = -P464;
+      c10 =  P992;
+      c11 = -P239;
+      c12 = -P822;
+    } else if (mu==5) {
+      c1  = -P748;
+      c2  =  P120;
+      c3  =  P568;
+      c4  = -P970;
+      c5  =  P885;
+      c6  = -P354;
+      c7  =  P663;
+      c8  = -P992;
+      c9  =  P822;
+      c10 = -P239;
+      c11 = -P464;
+      c12 =  P935;
+    } else if (mu==6) {
+      c1  = -P970;
+      c2  =  P885;
+      c3  = -P748;
+      c4  =  P568;
+      c5  = -P354;
+      c6  =  P120;
+      c7  =  P239;
+      c8  = -P464;
+      c9  =  P663;
+      c10 = -P822;
+      c11 =  P935;
+      c12 = -P992;
+    } else if (mu==7) {
+      c1  = -P970;
+      c2  =  P885;
+      c3  = -P748;
+      c4  =  P568;
+      c5  = -P354;
+      c6  =  P120;
+      c7  = -P239;
+      c8  =  P464;
+      c9  = -P663;
+      c10 =  P822;
+      c11 = -P935;
+      c12 =  P992;
+    } else if (mu==8) {
+      c1  = -P748;
+      c2  =  P120;
+      c3  =  P568;
+      c4  = -P970;
+      c5  =  P885;
+      c6  = -P354;
+      c7  = -P663;
+      c8  =  P992;
+      c9  = -P822;
+      c10 =  P239;
+      c11 =  P464;
+      c12 = -P935;
+    } else if (mu==9) {
+      c1  = -P354;
+      c2  = -P748;
+      c3  =  P885;
+      c4  =  P120;
+      c5  = -P970;
+      c6  =  P568;
+      c7  = -P935;
+      c8  =  P663;
+      c9  =  P464;
+      c10 = -P992;
+      c11 =  P239;
+      c12 =  P822;
+    } else if (mu==10) {
+      c1  =  P120;
+      c2  = -P970;
+      c3  = -P354;
+      c4  =  P885;
+      c5  =  P568;
+      c6  = -P748;
+      c7  = -P992;
+      c8  = -P239;
+      c9  =  P935;
+      c10 =  P464;
+      c11 = -P822;
+      c12 = -P663;
+    } else if (mu==11) {
+      c1  =  P568;
+      c2  = -P354;
+      c3  = -P970;
+      c4  = -P748;
+      c5  =  P120;
+      c6  =  P885;
+      c7  = -P822;
+      c8  = -P935;
+      c9  = -P239;
+      c10 =  P663;
+      c11 =  P992;
+      c12 =  P464;
+    } else {
+      c1  =  P885;
+      c2  =  P568;
+      c3  =  P120;
+      c4  = -P354;
+      c5  = -P748;
+      c6  = -P970;
+      c7  = -P464;
+      c8  = -P822;
+      c9  = -P992;
+      c10 = -P935;
+      c11 = -P663;
+      c12 = -P239;
+    }
+    for (int i=0; i<m; ++i) {
+      float[] zj0r = z[j0  ];
+      float[] zj0i = z[j0+1];
+      float[] zj1r = z[j1  ];
+      float[] zj1i = z[j1+1];
+      float[] zj2r = z[j2  ];
+      float[] zj2i = z[j2+1];
+      float[] zj3r = z[j3  ];
+      float[] zj3i = z[j3+1];
+      float[] zj4r = z[j4  ];
+      float[] zj4i = z[j4+1];
+      float[] zj5r = z[j5  ];
+      float[] zj5i = z[j5+1];
+      float[] zj6r = z[j6  ];
+      float[] zj6i = z[j6+1];
+      float[] zj7r = z[j7  ];
+      float[] zj7i = z[j7+1];
+      float[] zj8r = z[j8  ];
+      float[] zj8i = z[j8+1];
+      float[] zj9r = z[j9  ];
+      float[] zj9i = z[j9+1];
+      float[] zj10r = z[j10  ];
+      float[] zj10i = z[j10+1];
+      float[] zj11r = z[j11  ];
+      float[] zj11i = z[j11+1];
+      float[] zj12r = z[j12  ];
+      float[] zj12i = z[j12+1];
+      int i1 = k1;
+      for (int l1=k1+S.loopBound(n1-k1); i1<l1; i1+=NS) {
+        FloatVector z0i = FloatVector.fromArray(S,zj0i,i1);
+        FloatVector z0r = FloatVector.fromArray(S,zj0r,i1);
+        FloatVector z1i = FloatVector.fromArray(S,zj1i,i1);
+        FloatVector z1r = FloatVector.fromArray(S,zj1r,i1);
+        FloatVector z2i = FloatVector.fromArray(S,zj2i,i1);
+        FloatVector z2r = FloatVector.fromArray(S,zj2r,i1);
+        FloatVector z3i = FloatVector.fromArray(S,zj3i,i1);
+        FloatVector z3r = FloatVector.fromArray(S,zj3r,i1);
+        FloatVector z4i = FloatVector.fromArray(S,zj4i,i1);
+        FloatVector z4r = FloatVector.fromArray(S,zj4r,i1);
+        FloatVector z5i = FloatVector.fromArray(S,zj5i,i1);
+        FloatVector z5r = FloatVector.fromArray(S,zj5r,i1);
+        FloatVector z6i = FloatVector.fromArray(S,zj6i,i1);
+        FloatVector z6r = FloatVector.fromArray(S,zj6r,i1);
+        FloatVector z7i = FloatVector.fromArray(S,zj7i,i1);
+        FloatVector z7r = FloatVector.fromArray(S,zj7r,i1);
+        FloatVector z8i = FloatVector.fromArray(S,zj8i,i1);
+        FloatVector z8r = FloatVector.fromArray(S,zj8r,i1);
+        FloatVector z9i = FloatVector.fromArray(S,zj9i,i1);
+        FloatVector z9r = FloatVector.fromArray(S,zj9r,i1);
+        FloatVector z10i = FloatVector.fromArray(S,zj10i,i1);
+        FloatVector z10r = FloatVector.fromArray(S,zj10r,i1);
+        FloatVector z11i = FloatVector.fromArray(S,zj11i,i1);
+        FloatVector z11r = FloatVector.fromArray(S,zj11r,i1);
+        FloatVector z12i = FloatVector.fromArray(S,zj12i,i1);
+        FloatVector z12r = FloatVector.fromArray(S,zj12r,i1);
+        FloatVector t1r = z1r.add(z12r);
+        FloatVector t1i = z1i.add(z12i);
+        FloatVector t2r = z2r.add(z11r);
+        FloatVector t2i = z2i.add(z11i);
+        FloatVector t3r = z3r.add(z10r);
+        FloatVector t3i = z3i.add(z10i);
+        FloatVector t4r = z4r.add(z9r);
+        FloatVector t4i = z4i.add(z9i);
+        FloatVector t5r = z5r.add(z8r);
+        FloatVector t5i = z5i.add(z8i);
+        FloatVector t6r = z6r.add(z7r);
+        FloatVector t6i = z6i.add(z7i);
+        FloatVector t7r = z1r.sub(z12r);
+        FloatVector t7i = z1i.sub(z12i);
+        FloatVector t8r = z2r.sub(z11r);
+        FloatVector t8i = z2i.sub(z11i);
+        FloatVector t9r = z3r.sub(z10r);
+        FloatVector t9i = z3i.sub(z10i);
+        FloatVector t10r = z4r.sub(z9r);
+        FloatVector t10i = z4i.sub(z9i);
+        FloatVector t11r = z5r.sub(z8r);
+        FloatVector t11i = z5i.sub(z8i);
+        FloatVector t12r = z6r.sub(z7r);
+        FloatVector t12i = z6i.sub(z7i);
+        FloatVector t13r = z0r.sub(t6r.mul(0.5f));
+        FloatVector t13i = z0i.sub(t6i.mul(0.5f));
+        FloatVector t14r = t1r.sub(t6r);
+        FloatVector t14i = t1i.sub(t6i);
+        FloatVector t15r = t2r.sub(t6r);
+        FloatVector t15i = t2i.sub(t6i);
+        FloatVector t16r = t3r.sub(t6r);
+        FloatVector t16i = t3i.sub(t6i);
+        FloatVector t17r = t4r.sub(t6r);
+        FloatVector t17i = t4i.sub(t6i);
+        FloatVector t18r = t5r.sub(t6r);
+        FloatVector t18i = t5i.sub(t6i);
+        FloatVector y1r = t13r.add(t14r.mul(c1)).add(t15r.mul(c2))
+            .add(t16r.mul(c3)).add(t17r.mul(c4)).add(t18r.mul(c5));
+        FloatVector y1i = t13i.add(t14i.mul(c1)).add(t15i.mul(c2))
+            .add(t16i.mul(c3)).add(t17i.mul(c4)).add(t18i.mul(c5));
+        FloatVector y2r = t13r.add(t14r.mul(c2)).add(t15r.mul(c4))
+            .add(t16r.mul(c6)).add(t17r.mul(c5)).add(t18r.mul(c3));
+        FloatVector y2i = t13i.add(t14i.mul(c2)).add(t15i.mul(c4))
+            .add(t16i.mul(c6)).add(t17i.mul(c5)).add(t18i.mul(c3));
+        FloatVector y3r = t13r.add(t14r.mul(c3)).add(t15r.mul(c6))
+            .add(t16r.mul(c4)).add(t17r.mul(c1)).add(t18r.mul(c2));
+        FloatVector y3i = t13i.add(t14i.mul(c3)).add(t15i.mul(c6))
+            .add(t16i.mul(c4)).add(t17i.mul(c1)).add(t18i.mul(c2));
+        FloatVector y4r = t13r.add(t14r.mul(c4)).add(t15r.mul(c5))
+            .add(t16r.mul(c1)).add(t17r.mul(c3)).add(t18r.mul(c6));
+        FloatVector y4i = t13i.add(t14i.mul(c4)).add(t15i.mul(c5))
+            .add(t16i.mul(c1)).add(t17i.mul(c3)).add(t18i.mul(c6));
+        FloatVector y5r = t13r.add(t14r.mul(c5)).add(t15r.mul(c3))
+            .add(t16r.mul(c2)).add(t17r.mul(c6)).add(t18r.mul(c1));
+        FloatVector y5i = t13i.add(t14i.mul(c5)).add(t15i.mul(c3))
+            .add(t16i.mul(c2)).add(t17i.mul(c6)).add(t18i.mul(c1));
+        FloatVector y6r = t13r.add(t14r.mul(c6)).add(t15r.mul(c1))
+            .add(t16r.mul(c5)).add(t17r.mul(c2)).add(t18r.mul(c4));
+        FloatVector y6i = t13i.add(t14i.mul(c6)).add(t15i.mul(c1))
+            .add(t16i.mul(c5)).add(t17i.mul(c2)).add(t18i.mul(c4));
+        FloatVector y7r = t7r.mul(c12).sub(t8r.mul(c7)).add(t9r.mul(c11))
+            .sub(t10r.mul(c8)).add(t11r.mul(c10)).sub(t12r.mul(c9));
+        FloatVector y7i = t7i.mul(c12).sub(t8i.mul(c7)).add(t9i.mul(c11))
+            .sub(t10i.mul(c8)).add(t11i.mul(c10)).sub(t12i.mul(c9));
+        FloatVector y8r = t7r.mul(c11).sub(t8r.mul(c9)).add(t9r.mul(c8))
+            .sub(t10r.mul(c12)).sub(t11r.mul(c7)).add(t12r.mul(c10));
+        FloatVector y8i = t7i.mul(c11).sub(t8i.mul(c9)).add(t9i.mul(c8))
+            .sub(t10i.mul(c12)).sub(t11i.mul(c7)).add(t12i.mul(c10));
+        FloatVector y9r = t7r.mul(c10).sub(t8r.mul(c11)).sub(t9r.mul(c7))
+            .add(t10r.mul(c9)).sub(t11r.mul(c12)).sub(t12r.mul(c8));
+        FloatVector y9i = t7i.mul(c10).sub(t8i.mul(c11)).sub(t9i.mul(c7))
+            .add(t10i.mul(c9)).sub(t11i.mul(c12)).sub(t12i.mul(c8));
+        FloatVector y10r = t7r.mul(c9).add(t8r.mul(c12)).sub(t9r.mul(c10))
+            .sub(t10r.mul(c7)).add(t11r.mul(c8)).add(t12r.mul(c11));
+        FloatVector y10i = t7i.mul(c9).add(t8i.mul(c12)).sub(t9i.mul(c10))
+            .sub(t10i.mul(c7)).add(t11i.mul(c8)).add(t12i.mul(c11));
+        FloatVector y11r = t7r.mul(c8).add(t8r.mul(c10)).add(t9r.mul(c12))
+            .sub(t10r.mul(c11)).sub(t11r.mul(c9)).sub(t12r.mul(c7));
+        FloatVector y11i = t7i.mul(c8).add(t8i.mul(c10)).add(t9i.mul(c12))
+            .sub(t10i.mul(c11)).sub(t11i.mul(c9)).sub(t12i.mul(c7));
+        FloatVector y12r = t7r.mul(c7).add(t8r.mul(c8)).add(t9r.mul(c9))
+            .add(t10r.mul(c10)).add(t11r.mul(c11)).add(t12r.mul(c12));
+        FloatVector y12i = t7i.mul(c7).add(t8i.mul(c8)).add(t9i.mul(c9))
+            .add(t10i.mul(c10)).add(t11i.mul(c11)).add(t12i.mul(c12));
+        z0r.add(t1r).add(t2r).add(t3r).add(t4r).add(t5r)
+            .add(t6r).intoArray(zj0r,i1);
+        z0i.add(t1i).add(t2i).add(t3i).add(t4i).add(t5i)
+            .add(t6i).intoArray(zj0i,i1);
+        y1r.sub(y12i).intoArray(zj1r,i1);
+        y1i.add(y12r).intoArray(zj1i,i1);
+        y2r.sub(y11i).intoArray(zj2r,i1);
+        y2i.add(y11r).intoArray(zj2i,i1);
+        y3r.sub(y10i).intoArray(zj3r,i1);
+        y3i.add(y10r).intoArray(zj3i,i1);
+        y4r.sub(y9i).intoArray(zj4r,i1);
+        y4i.add(y9r).intoArray(zj4i,i1);
+        y5r.sub(y8i).intoArray(zj5r,i1);
+        y5i.add(y8r).intoArray(zj5i,i1);
+        y6r.sub(y7i).intoArray(zj6r,i1);
+        y6i.add(y7r).intoArray(zj6i,i1);
+        y6r.add(y7i).intoArray(zj7r,i1);
+        y6i.sub(y7r).intoArray(zj7i,i1);
+        y5r.add(y8i).intoArray(zj8r,i1);
+        y5i.sub(y8r).intoArray(zj8i,i1);
+        y4r.add(y9i).intoArray(zj9r,i1);
+        y4i.sub(y9r).intoArray(zj9i,i1);
+        y3r.add(y10i).intoArray(zj10r,i1);
+        y3i.sub(y10r).intoArray(zj10i,i1);
+        y2r.add(y11i).intoArray(zj11r,i1);
+        y2i.sub(y11r).intoArray(zj11i,i1);
+        y1r.add(y12i).intoArray(zj12r,i1);
+        y1i.sub(y12r).intoArray(zj12i,i1);
+      }
+      for (; i1<n1; ++i1) {
+        float t1r  = zj1r[i1]+zj12r[i1];
+        float t1i  = zj1i[i1]+zj12i[i1];
+        float t2r  = zj2r[i1]+zj11r[i1];
+        float t2i  = zj2i[i1]+zj11i[i1];
+        float t3r  = zj3r[i1]+zj10r[i1];
+        float t3i  = zj3i[i1]+zj10i[i1];
+        float t4r  = zj4r[i1]+zj9r[i1];
+        float t4i  = zj4i[i1]+zj9i[i1];
+        float t5r  = zj5r[i1]+zj8r[i1];
+        float t5i  = zj5i[i1]+zj8i[i1];
+        float t6r  = zj6r[i1]+zj7r[i1];
+        float t6i  = zj6i[i1]+zj7i[i1];
+        float t7r  = zj1r[i1]-zj12r[i1];
+        float t7i  = zj1i[i1]-zj12i[i1];
+        float t8r  = zj2r[i1]-zj11r[i1];
+        float t8i  = zj2i[i1]-zj11i[i1];
+        float t9r  = zj3r[i1]-zj10r[i1];
+        float t9i  = zj3i[i1]-zj10i[i1];
+        float t10r = zj4r[i1]-zj9r[i1];
+        float t10i = zj4i[i1]-zj9i[i1];
+        float t11r = zj5r[i1]-zj8r[i1];
+        float t11i = zj5i[i1]-zj8i[i1];
+        float t12r = zj6r[i1]-zj7r[i1];
+        float t12i = zj6i[i1]-zj7i[i1];
+        float t13r = zj0r[i1]-0.5f*t6r;
+        float t13i = zj0i[i1]-0.5f*t6i;
+        float t14r = t1r-t6r;
+        float t14i = t1i-t6i;
+        float t15r = t2r-t6r;
+        float t15i = t2i-t6i;
+        float t16r = t3r-t6r;
+        float t16i = t3i-t6i;
+        float t17r = t4r-t6r;
+        float t17i = t4i-t6i;
+        float t18r = t5r-t6r;
+        float t18i = t5i-t6i;
+        float y1r  = t13r+c1*t14r+c2*t15r+c3*t16r+c4*t17r+c5*t18r;
+        float y1i  = t13i+c1*t14i+c2*t15i+c3*t16i+c4*t17i+c5*t18i;
+        float y2r  = t13r+c2*t14r+c4*t15r+c6*t16r+c5*t17r+c3*t18r;
+        float y2i  = t13i+c2*t14i+c4*t15i+c6*t16i+c5*t17i+c3*t18i;
+        float y3r  = t13r+c3*t14r+c6*t15r+c4*t16r+c1*t17r+c2*t18r;
+        float y3i  = t13i+c3*t14i+c6*t15i+c4*t16i+c1*t17i+c2*t18i;
+        float y4r  = t13r+c4*t14r+c5*t15r+c1*t16r+c3*t17r+c6*t18r;
+        float y4i  = t13i+c4*t14i+c5*t15i+c1*t16i+c3*t17i+c6*t18i;
+        float y5r  = t13r+c5*t14r+c3*t15r+c2*t16r+c6*t17r+c1*t18r;
+        float y5i  = t13i+c5*t14i+c3*t15i+c2*t16i+c6*t17i+c1*t18i;
+        float y6r  = t13r+c6*t14r+c1*t15r+c5*t16r+c2*t17r+c4*t18r;
+        float y6i  = t13i+c6*t14i+c1*t15i+c5*t16i+c2*t17i+c4*t18i;
+        float y7r  = c12*t7r-c7*t8r+c11*t9r-c8*t10r+c10*t11r-c9*t12r;
+        float y7i  = c12*t7i-c7*t8i+c11*t9i-c8*t10i+c10*t11i-c9*t12i;
+        float y8r  = c11*t7r-c9*t8r+c8*t9r-c12*t10r-c7*t11r+c10*t12r;
+        float y8i  = c11*t7i-c9*t8i+c8*t9i-c12*t10i-c7*t11i+c10*t12i;
+        float y9r  = c10*t7r-c11*t8r-c7*t9r+c9*t10r-c12*t11r-c8*t12r;
+        float y9i  = c10*t7i-c11*t8i-c7*t9i+c9*t10i-c12*t11i-c8*t12i;
+        float y10r = c9*t7r+c12*t8r-c10*t9r-c7*t10r+c8*t11r+c11*t12r;
+        float y10i = c9*t7i+c12*t8i-c10*t9i-c7*t10i+c8*t11i+c11*t12i;
+        float y11r = c8*t7r+c10*t8r+c12*t9r-c11*t10r-c9*t11r-c7*t12r;
+        float y11i = c8*t7i+c10*t8i+c12*t9i-c11*t10i-c9*t11i-c7*t12i;
+        float y12r = c7*t7r+c8*t8r+c9*t9r+c10*t10r+c11*t11r+c12*t12r;
+        float y12i = c7*t7i+c8*t8i+c9*t9i+c10*t10i+c11*t11i+c12*t12i;
+        zj0r[i1]  = zj0r[i1]+t1r+t2r+t3r+t4r+t5r+t6r;
+        zj0i[i1]  = zj0i[i1]+t1i+t2i+t3i+t4i+t5i+t6i;
+        zj1r[i1]  = y1r-y12i;
+        zj1i[i1]  = y1i+y12r;
+        zj2r[i1]  = y2r-y11i;
+        zj2i[i1]  = y2i+y11r;
+        zj3r[i1]  = y3r-y10i;
+        zj3i[i1]  = y3i+y10r;
+        zj4r[i1]  = y4r-y9i;
+        zj4i[i1]  = y4i+y9r;
+        zj5r[i1]  = y5r-y8i;
+        zj5i[i1]  = y5i+y8r;
+        zj6r[i1]  = y6r-y7i;
+        zj6i[i1]  = y6i+y7r;
+        zj7r[i1]  = y6r+y7i;
+        zj7i[i1]  = y6i-y7r;
+        zj8r[i1]  = y5r+y8i;
+        zj8i[i1]  = y5i-y8r;
+        zj9r[i1]  = y4r+y9i;
+        zj9i[i1]  = y4i-y9r;
+        zj10r[i1] = y3r+y10i;
+        zj10i[i1] = y3i-y10r;
+        zj11r[i1] = y2r+y11i;
+        zj11i[i1] = y2i-y11r;
+        zj12r[i1] = y1r+y12i;
+        zj12i[i1] = y1i-y12r;
+      }
+      int jt = j12+2;
+      j12 = j11+2;
+      j11 = j10+2;
+      j10 = j9+2;
+      j9 = j8+2;
+      j8 = j7+2;
+      j7 = j6+2;
+      j6 = j5+2;
+      j5 = j4+2;
+      j4 = j3+2;
+      j3 = j2+2;
+      j2 = j1+2;
+      j1 = j0+2;
+      j0 = jt;
+    }
+  }
+  private static void pfa16b(int k1, int n1, float[][] z, int mu, int m,
+    int j0, int j1, int j2, int j3, int j4, int j5, int j6, int j7, int j8, 
+    int j9, int j10, int j11, int j12, int j13, int j14, int j15)
+  {
+    float c1,c2,c3,c4,c5,c6,c7;
+    if (mu==1) {
+      c1 =  PONE;
+      c2 =  P923;
+      c3 =  P382;
+      c4 =  P707;
+    } else if (mu==3) {
+      c1 = -PONE;
+      c2 =  P382;
+      c3 =  P923;
+      c4 = -P707;
+    } else if (mu==5) {
+      c1 =  PONE;
+      c2 = -P382;
+      c3 =  P923;
+      c4 = -P707;
+    } else if (mu==7) {
+      c1 = -PONE;
+      c2 = -P923;
+      c3 =  P382;
+      c4 =  P707;
+    } else if (mu==9) {
+      c1 =  PONE;
+      c2 = -P923;
+      c3 = -P382;
+      c4 =  P707;
+    } else if (mu==11) {
+      c1 = -PONE;
+      c2 = -P382;
+      c3 = -P923;
+      c4 = -P707;
+    } else if (mu==13) {
+      c1 =  PONE;
+      c2 =  P382;
+      c3 = -P923;
+      c4 = -P707;
+    } else {
+      c1 = -PONE;
+      c2 =  P923;
+      c3 = -P382;
+      c4 =  P707;
+    }
+    c5 = c1*c4;
+    c6 = c1*c3;
+    c7 = c1*c2;
+    for (int i=0; i<m; ++i) {
+      float[] zj0r = z[j0  ];
+      float[] zj0i = z[j0+1];
+      float[] zj1r = z[j1  ];
+      float[] zj1i = z[j1+1];
+      float[] zj2r = z[j2  ];
+      float[] zj2i = z[j2+1];
+      float[] zj3r = z[j3  ];
+      float[] zj3i = z[j3+1];
+      float[] zj4r = z[j4  ];
+      float[] zj4i = z[j4+1];
+      float[] zj5r = z[j5  ];
+      float[] zj5i = z[j5+1];
+      float[] zj6r = z[j6  ];
+      float[] zj6i = z[j6+1];
+      float[] zj7r = z[j7  ];
+      float[] zj7i = z[j7+1];
+      float[] zj8r = z[j8  ];
+      float[] zj8i = z[j8+1];
+      float[] zj9r = z[j9  ];
+      float[] zj9i = z[j9+1];
+      float[] zj10r = z[j10  ];
+      float[] zj10i = z[j10+1];
+      float[] zj11r = z[j11  ];
+      float[] zj11i = z[j11+1];
+      float[] zj12r = z[j12  ];
+      float[] zj12i = z[j12+1];
+      float[] zj13r = z[j13  ];
+      float[] zj13i = z[j13+1];
+      float[] zj14r = z[j14  ];
+      float[] zj14i = z[j14+1];
+      float[] zj15r = z[j15  ];
+      float[] zj15i = z[j15+1];
+      int i1 = k1;
+      for (int l1=k1+S.loopBound(n1-k1); i1<l1; i1+=NS) {
+        FloatVector z0i = FloatVector.fromArray(S,zj0i,i1);
+        FloatVector z0r = FloatVector.fromArray(S,zj0r,i1);
+        FloatVector z1i = FloatVector.fromArray(S,zj1i,i1);
+        FloatVector z1r = FloatVector.fromArray(S,zj1r,i1);
+        FloatVector z2i = FloatVector.fromArray(S,zj2i,i1);
+        FloatVector z2r = FloatVector.fromArray(S,zj2r,i1);
+        FloatVector z3i = FloatVector.fromArray(S,zj3i,i1);
+        FloatVector z3r = FloatVector.fromArray(S,zj3r,i1);
+        FloatVector z4i = FloatVector.fromArray(S,zj4i,i1);
+        FloatVector z4r = FloatVector.fromArray(S,zj4r,i1);
+        FloatVector z5i = FloatVector.fromArray(S,zj5i,i1);
+        FloatVector z5r = FloatVector.fromArray(S,zj5r,i1);
+        FloatVector z6i = FloatVector.fromArray(S,zj6i,i1);
+        FloatVector z6r = FloatVector.fromArray(S,zj6r,i1);
+        FloatVector z7i = FloatVector.fromArray(S,zj7i,i1);
+        FloatVector z7r = FloatVector.fromArray(S,zj7r,i1);
+        FloatVector z8i = FloatVector.fromArray(S,zj8i,i1);
+        FloatVector z8r = FloatVector.fromArray(S,zj8r,i1);
+        FloatVector z9i = FloatVector.fromArray(S,zj9i,i1);
+        FloatVector z9r = FloatVector.fromArray(S,zj9r,i1);
+        FloatVector z10i = FloatVector.fromArray(S,zj10i,i1);
+        FloatVector z10r = FloatVector.fromArray(S,zj10r,i1);
+        FloatVector z11i = FloatVector.fromArray(S,zj11i,i1);
+        FloatVector z11r = FloatVector.fromArray(S,zj11r,i1);
+        FloatVector z12i = FloatVector.fromArray(S,zj12i,i1);
+        FloatVector z12r = FloatVector.fromArray(S,zj12r,i1);
+        FloatVector z13i = FloatVector.fromArray(S,zj13i,i1);
+        FloatVector z13r = FloatVector.fromArray(S,zj13r,i1);
+        FloatVector z14i = FloatVector.fromArray(S,zj14i,i1);
+        FloatVector z14r = FloatVector.fromArray(S,zj14r,i1);
+        FloatVector z15i = FloatVector.fromArray(S,zj15i,i1);
+        FloatVector z15r = FloatVector.fromArray(S,zj15r,i1);
+        FloatVector t1r = z0r.add(z8r);
+        FloatVector t1i = z0i.add(z8i);
+        FloatVector t2r = z4r.add(z12r);
+        FloatVector t2i = z4i.add(z12i);
+        FloatVector t3r = z0r.sub(z8r);
+        FloatVector t3i = z0i.sub(z8i);
+        FloatVector t4r = z4r.sub(z12r).mul(c1);
+        FloatVector t4i = z4i.sub(z12i).mul(c1);
+        FloatVector t5r = t1r.add(t2r);
+        FloatVector t5i = t1i.add(t2i);
+        FloatVector t6r = t1r.sub(t2r);
+        FloatVector t6i = t1i.sub(t2i);
+        FloatVector t7r = z1r.add(z9r);
+        FloatVector t7i = z1i.add(z9i);
+        FloatVector t8r = z5r.add(z13r);
+        FloatVector t8i = z5i.add(z13i);
+        FloatVector t9r = z1r.sub(z9r);
+        FloatVector t9i = z1i.sub(z9i);
+        FloatVector t10r = z5r.sub(z13r);
+        FloatVector t10i = z5i.sub(z13i);
+        FloatVector t11r = t7r.add(t8r);
+        FloatVector t11i = t7i.add(t8i);
+        FloatVector t12r = t7r.sub(t8r);
+        FloatVector t12i = t7i.sub(t8i);
+        FloatVector t13r = z2r.add(z10r);
+        FloatVector t13i = z2i.add(z10i);
+        FloatVector t14r = z6r.add(z14r);
+        FloatVector t14i = z6i.add(z14i);
+        FloatVector t15r = z2r.sub(z10r);
+        FloatVector t15i = z2i.sub(z10i);
+        FloatVector t16r = z6r.sub(z14r);
+        FloatVector t16i = z6i.sub(z14i);
+        FloatVector t17r = t13r.add(t14r);
+        FloatVector t17i = t13i.add(t14i);
+        FloatVector t18r = t15r.sub(t16r).mul(c4);
+        FloatVector t18i = t15i.sub(t16i).mul(c4);
+        FloatVector t19r = t15r.add(t16r).mul(c5);
+        FloatVector t19i = t15i.add(t16i).mul(c5);
+        FloatVector t20r = t13r.sub(t14r).mul(c1);
+        FloatVector t20i = t13i.sub(t14i).mul(c1);
+        FloatVector t21r = z3r.add(z11r);
+        FloatVector t21i = z3i.add(z11i);
+        FloatVector t22r = z7r.add(z15r);
+        FloatVector t22i = z7i.add(z15i);
+        FloatVector t23r = z3r.sub(z11r);
+        FloatVector t23i = z3i.sub(z11i);
+        FloatVector t24r = z7r.sub(z15r);
+        FloatVector t24i = z7i.sub(z15i);
+        FloatVector t25r = t21r.add(t22r);
+        FloatVector t25i = t21i.add(t22i);
+        FloatVector t26r = t21r.sub(t22r);
+        FloatVector t26i = t21i.sub(t22i);
+        FloatVector t27r = t9r.add(t24r);
+        FloatVector t27i = t9i.add(t24i);
+        FloatVector t28r = t10r.add(t23r);
+        FloatVector t28i = t10i.add(t23i);
+        FloatVector t29r = t9r.sub(t24r);
+        FloatVector t29i = t9i.sub(t24i);
+        FloatVector t30r = t10r.sub(t23r);
+        FloatVector t30i = t10i.sub(t23i);
+        FloatVector t31r = t5r.add(t17r);
+        FloatVector t31i = t5i.add(t17i);
+        FloatVector t32r = t11r.add(t25r);
+        FloatVector t32i = t11i.add(t25i);
+        FloatVector t33r = t3r.add(t18r);
+        FloatVector t33i = t3i.add(t18i);
+        FloatVector t34r = t29r.mul(c2).sub(t30r.mul(c6));
+        FloatVector t34i = t29i.mul(c2).sub(t30i.mul(c6));
+        FloatVector t35r = t3r.sub(t18r);
+        FloatVector t35i = t3i.sub(t18i);
+        FloatVector t36r = t27r.mul(c7).sub(t28r.mul(c3));
+        FloatVector t36i = t27i.mul(c7).sub(t28i.mul(c3));
+        FloatVector t37r = t4r.add(t19r);
+        FloatVector t37i = t4i.add(t19i);
+        FloatVector t38r = t27r.mul(c3).add(t28r.mul(c7));
+        FloatVector t38i = t27i.mul(c3).add(t28i.mul(c7));
+        FloatVector t39r = t4r.sub(t19r);
+        FloatVector t39i = t4i.sub(t19i);
+        FloatVector t40r = t29r.mul(c6).add(t30r.mul(c2));
+        FloatVector t40i = t29i.mul(c6).add(t30i.mul(c2));
+        FloatVector t41r = t12r.sub(t26r).mul(c4);
+        FloatVector t41i = t12i.sub(t26i).mul(c4);
+        FloatVector t42r = t12r.add(t26r).mul(c5);
+        FloatVector t42i = t12i.add(t26i).mul(c5);
+        FloatVector y1r = t33r.add(t34r);
+        FloatVector y1i = t33i.add(t34i);
+        FloatVector y2r = t6r.add(t41r);
+        FloatVector y2i = t6i.add(t41i);
+        FloatVector y3r = t35r.add(t40r);
+        FloatVector y3i = t35i.add(t40i);
+        FloatVector y4r = t5r.sub(t17r);
+        FloatVector y4i = t5i.sub(t17i);
+        FloatVector y5r = t35r.sub(t40r);
+        FloatVector y5i = t35i.sub(t40i);
+        FloatVector y6r = t6r.sub(t41r);
+        FloatVector y6i = t6i.sub(t41i);
+        FloatVector y7r = t33r.sub(t34r);
+        FloatVector y7i = t33i.sub(t34i);
+        FloatVector y9r = t38r.sub(t37r);
+        FloatVector y9i = t38i.sub(t37i);
+        FloatVector y10r = t42r.sub(t20r);
+        FloatVector y10i = t42i.sub(t20i);
+        FloatVector y11r = t36r.add(t39r);
+        FloatVector y11i = t36i.add(t39i);
+        FloatVector y12r = t11r.sub(t25r).mul(c1);
+        FloatVector y12i = t11i.sub(t25i).mul(c1);
+        FloatVector y13r = t36r.sub(t39r);
+        FloatVector y13i = t36i.sub(t39i);
+        FloatVector y14r = t42r.add(t20r);
+        FloatVector y14i = t42i.add(t20i);
+        FloatVector y15r = t38r.add(t37r);
+        FloatVector y15i = t38i.add(t37i);
+        t31r.add(t32r).intoArray(zj0r,i1);
+        t31i.add(t32i).intoArray(zj0i,i1);
+        y1r.sub(y15i).intoArray(zj1r,i1);
+        y1i.add(y15r).intoArray(zj1i,i1);
+        y2r.sub(y14i).intoArray(zj2r,i1);
+        y2i.add(y14r).intoArray(zj2i,i1);
+        y3r.sub(y13i).intoArray(zj3r,i1);
+        y3i.add(y13r).intoArray(zj3i,i1);
+        y4r.sub(y12i).intoArray(zj4r,i1);
+        y4i.add(y12r).intoArray(zj4i,i1);
+        y5r.sub(y11i).intoArray(zj5r,i1);
+        y5i.add(y11r).intoArray(zj5i,i1);
+        y6r.sub(y10i).intoArray(zj6r,i1);
+        y6i.add(y10r).intoArray(zj6i,i1);
+        y7r.sub(y9i).intoArray(zj7r,i1);
+        y7i.add(y9r).intoArray(zj7i,i1);
+        t31r.sub(t32r).intoArray(zj8r,i1);
+        t31i.sub(t32i).intoArray(zj8i,i1);
+        y7r.add(y9i).intoArray(zj9r,i1);
+        y7i.sub(y9r).intoArray(zj9i,i1);
+        y6r.add(y10i).intoArray(zj10r,i1);
+        y6i.sub(y10r).intoArray(zj10i,i1);
+        y5r.add(y11i).intoArray(zj11r,i1);
+        y5i.sub(y11r).intoArray(zj11i,i1);
+        y4r.add(y12i).intoArray(zj12r,i1);
+        y4i.sub(y12r).intoArray(zj12i,i1);
+        y3r.add(y13i).intoArray(zj13r,i1);
+        y3i.sub(y13r).intoArray(zj13i,i1);
+        y2r.add(y14i).intoArray(zj14r,i1);
+        y2i.sub(y14r).intoArray(zj14i,i1);
+        y1r.add(y15i).intoArray(zj15r,i1);
+        y1i.sub(y15r).intoArray(zj15i,i1);
+      }
+      for (; i1<n1; ++i1) {
+        float t1r  = zj0r[i1]+zj8r[i1];
+        float t1i  = zj0i[i1]+zj8i[i1];
+        float t2r  = zj4r[i1]+zj12r[i1];
+        float t2i  = zj4i[i1]+zj12i[i1];
+        float t3r  = zj0r[i1]-zj8r[i1];
+        float t3i  = zj0i[i1]-zj8i[i1];
+        float t4r  = c1*(zj4r[i1]-zj12r[i1]);
+        float t4i  = c1*(zj4i[i1]-zj12i[i1]);
+        float t5r  = t1r+t2r;
+        float t5i  = t1i+t2i;
+        float t6r  = t1r-t2r;
+        float t6i  = t1i-t2i;
+        float t7r  = zj1r[i1]+zj9r[i1];
+        float t7i  = zj1i[i1]+zj9i[i1];
+        float t8r  = zj5r[i1]+zj13r[i1];
+        float t8i  = zj5i[i1]+zj13i[i1];
+        float t9r  = zj1r[i1]-zj9r[i1];
+        float t9i  = zj1i[i1]-zj9i[i1];
+        float t10r = zj5r[i1]-zj13r[i1];
+        float t10i = zj5i[i1]-zj13i[i1];
+        float t11r = t7r+t8r;
+        float t11i = t7i+t8i;
+        float t12r = t7r-t8r;
+        float t12i = t7i-t8i;
+        float t13r = zj2r[i1]+zj10r[i1];
+        float t13i = zj2i[i1]+zj10i[i1];
+        float t14r = zj6r[i1]+zj14r[i1];
+        float t14i = zj6i[i1]+zj14i[i1];
+        float t15r = zj2r[i1]-zj10r[i1];
+        float t15i = zj2i[i1]-zj10i[i1];
+        float t16r = zj6r[i1]-zj14r[i1];
+        float t16i = zj6i[i1]-zj14i[i1];
+        float t17r = t13r+t14r;
+        float t17i = t13i+t14i;
+        float t18r = c4*(t15r-t16r);
+        float t18i = c4*(t15i-t16i);
+        float t19r = c5*(t15r+t16r);
+        float t19i = c5*(t15i+t16i);
+        float t20r = c1*(t13r-t14r);
+        float t20i = c1*(t13i-t14i);
+        float t21r = zj3r[i1]+zj11r[i1];
+        float t21i = zj3i[i1]+zj11i[i1];
+        float t22r = zj7r[i1]+zj15r[i1];
+        float t22i = zj7i[i1]+zj15i[i1];
+        float t23r = zj3r[i1]-zj11r[i1];
+        float t23i = zj3i[i1]-zj11i[i1];
+        float t24r = zj7r[i1]-zj15r[i1];
+        float t24i = zj7i[i1]-zj15i[i1];
+        float t25r = t21r+t22r;
+        float t25i = t21i+t22i;
+        float t26r = t21r-t22r;
+        float t26i = t21i-t22i;
+        float t27r = t9r+t24r;
+        float t27i = t9i+t24i;
+        float t28r = t10r+t23r;
+        float t28i = t10i+t23i;
+        float t29r = t9r-t24r;
+        float t29i = t9i-t24i;
+        float t30r = t10r-t23r;
+        float t30i = t10i-t23i;
+        float t31r = t5r+t17r;
+        float t31i = t5i+t17i;
+        float t32r = t11r+t25r;
+        float t32i = t11i+t25i;
+        float t33r = t3r+t18r;
+        float t33i = t3i+t18i;
+        float t34r = c2*t29r-c6*t30r;
+        float t34i = c2*t29i-c6*t30i;
+        float t35r = t3r-t18r;
+        float t35i = t3i-t18i;
+        float t36r = c7*t27r-c3*t28r;
+        float t36i = c7*t27i-c3*t28i;
+        float t37r = t4r+t19r;
+        float t37i = t4i+t19i;
+        float t38r = c3*t27r+c7*t28r;
+        float t38i = c3*t27i+c7*t28i;
+        float t39r = t4r-t19r;
+        float t39i = t4i-t19i;
+        float t40r = c6*t29r+c2*t30r;
+        float t40i = c6*t29i+c2*t30i;
+        float t41r = c4*(t12r-t26r);
+        float t41i = c4*(t12i-t26i);
+        float t42r = c5*(t12r+t26r);
+        float t42i = c5*(t12i+t26i);
+        float y1r  = t33r+t34r;
+        float y1i  = t33i+t34i;
+        float y2r  = t6r+t41r;
+        float y2i  = t6i+t41i;
+        float y3r  = t35r+t40r;
+        float y3i  = t35i+t40i;
+        float y4r  = t5r-t17r;
+        float y4i  = t5i-t17i;
+        float y5r  = t35r-t40r;
+        float y5i  = t35i-t40i;
+        float y6r  = t6r-t41r;
+        float y6i  = t6i-t41i;
+        float y7r  = t33r-t34r;
+        float y7i  = t33i-t34i;
+        float y9r  = t38r-t37r;
+        float y9i  = t38i-t37i;
+        float y10r = t42r-t20r;
+        float y10i = t42i-t20i;
+        float y11r = t36r+t39r;
+        float y11i = t36i+t39i;
+        float y12r = c1*(t11r-t25r);
+        float y12i = c1*(t11i-t25i);
+        float y13r = t36r-t39r;
+        float y13i = t36i-t39i;
+        float y14r = t42r+t20r;
+        float y14i = t42i+t20i;
+        float y15r = t38r+t37r;
+        float y15i = t38i+t37i;
+        zj0r[i1]  = t31r+t32r;
+        zj0i[i1]  = t31i+t32i;
+        zj1r[i1]  = y1r-y15i;
+        zj1i[i1]  = y1i+y15r;
+        zj2r[i1]  = y2r-y14i;
+        zj2i[i1]  = y2i+y14r;
+        zj3r[i1]  = y3r-y13i;
+        zj3i[i1]  = y3i+y13r;
+        zj4r[i1]  = y4r-y12i;
+        zj4i[i1]  = y4i+y12r;
+        zj5r[i1]  = y5r-y11i;
+        zj5i[i1]  = y5i+y11r;
+        zj6r[i1]  = y6r-y10i;
+        zj6i[i1]  = y6i+y10r;
+        zj7r[i1]  = y7r-y9i;
+        zj7i[i1]  = y7i+y9r;
+        zj8r[i1]  = t31r-t32r;
+        zj8i[i1]  = t31i-t32i;
+        zj9r[i1]  = y7r+y9i;
+        zj9i[i1]  = y7i-y9r;
+        zj10r[i1] = y6r+y10i;
+        zj10i[i1] = y6i-y10r;
+        zj11r[i1] = y5r+y11i;
+        zj11i[i1] = y5i-y11r;
+        zj12r[i1] = y4r+y12i;
+        zj12i[i1] = y4i-y12r;
+        zj13r[i1] = y3r+y13i;
+        zj13i[i1] = y3i-y13r;
+        zj14r[i1] = y2r+y14i;
+        zj14i[i1] = y2i-y14r;
+        zj15r[i1] = y1r+y15i;
+        zj15i[i1] = y1i-y15r;
+      }
+      int jt = j15+2;
+      j15 = j14+2;
+      j14 = j13+2;
+      j13 = j12+2;
+      j12 = j11+2;
+      j11 = j10+2;
+      j10 = j9+2;
+      j9 = j8+2;
+      j8 = j7+2;
+      j7 = j6+2;
+      j6 = j5+2;
+      j5 = j4+2;
+      j4 = j3+2;
+      j3 = j2+2;
+      j2 = j1+2;
+      j1 = j0+2;
+      j0 = jt;
+    }
+  }
+
+}
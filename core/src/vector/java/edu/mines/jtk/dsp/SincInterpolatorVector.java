@@ -0,0 +1,78 @@
+/****************************************************************************
+Copyright 2026, Colorado School of Mines and others.
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+****************************************************************************/
+package edu.mines.jtk.dsp;
+
+import jdk.incubator.vector.FloatVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Sums of products for sinc interpolation with SIMD (vector) instructions.
+ * Sinc approximations have only 8 to 16 or so coefficients, too few to
+ * fill more than one or two vector registers. Therefore, products are
+ * computed for strides of 8 coefficients (and then 4, if necessary), and
+ * summed across lanes only once, for each interpolated value.
+ * <p>
+ * This class uses the incubating Java Vector API, which must be enabled
+ * with the JVM option --add-modules jdk.incubator.vector. It is compiled
+ * only with JDK 16 or later, and SincInterpolator loads it only by 
+ * reflection. If this class or that module is not available, then 
+ * SincInterpolator uses only scalar code.
+ * @author agent
+ * @version 2026.10.18
+ */
+class SincInterpolatorVector implements SincInterpolator.Kernels {
+
+  /**
+   * Determines whether vector instructions are worthwhile.
+   * @return true, if vectors of 8 floats are supported; false, otherwise.
+   */
+  public boolean isAvailable() {
+    return FloatVector.SPECIES_PREFERRED.length()>=8;
+  }
+
+  /**
+   * Returns the sum of products a[j]*y[ky+j] for j = 0, 1, ..., n-1.
+   * @param n the number of products, not less than 8.
+   * @param a array[n] of coefficients.
+   * @param y array of values, with at least ky+n elements.
+   * @param ky the index in y of the first value.
+   * @return the sum.
+   */
+  public float dot(int n, float[] a, float[] y, int ky) {
+    FloatVector s = FloatVector.fromArray(S8,a,0).mul(
+                    FloatVector.fromArray(S8,y,ky));
+    int j = 8;
+    for (; j<=n-8; j+=8)
+      s = FloatVector.fromArray(S8,a,j).fma(
+          FloatVector.fromArray(S8,y,ky+j),s);
+    float sum = s.reduceLanes(VectorOperators.ADD);
+    if (j<=n-4) {
+      sum += FloatVector.fromArray(S4,a,j).mul(
+             FloatVector.fromArray(S4,y,ky+j))
+             .reduceLanes(VectorOperators.ADD);
+      j += 4;
+    }
+    for (; j<n; ++j)
+      sum += a[j]*y[ky+j];
+    return sum;
+  }
+
+  ///////////////////////////////////////////////////////////////////////////
+  // private
+
+  private static final VectorSpecies<Float> S8 = FloatVector.SPECIES_256;
+  private static final VectorSpecies<Float> S4 = FloatVector.SPECIES_128;
+}